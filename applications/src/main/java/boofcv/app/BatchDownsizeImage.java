@@ -19,6 +19,7 @@
 package boofcv.app;
 
 import boofcv.alg.filter.misc.AverageDownSampleOps;
+import boofcv.concurrency.BatchProcessor;
 import boofcv.io.UtilIO;
 import boofcv.io.image.ConvertBufferedImage;
 import boofcv.io.image.UtilImageIO;
@@ -31,6 +32,7 @@ import org.kohsuke.args4j.Option;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -60,6 +62,8 @@ public class BatchDownsizeImage {
 	boolean maxLength = false;
 	@Option(name = "--PixelCount", usage = "Indicates it will attempt to match the number of pixels in both images")
 	boolean pixelCount = false;
+	@Option(name = "--Threads", usage = "Number of images processed at once. If <= 0 then it's the number of threads in the pool.")
+	int threads = 0;
 
 	Listener listener;
 	boolean cancel;
@@ -98,87 +102,104 @@ public class BatchDownsizeImage {
 			BoofMiscOps.checkTrue(new File(outputPath).mkdirs());
 		}
 
-		Planar<GrayU8> planar = new Planar<>(GrayU8.class, 1, 1, 1);
-		Planar<GrayU8> small = new Planar<>(GrayU8.class, 1, 1, 1);
 		int numDigits = BoofMiscOps.numDigits(paths.size() - 1);
 		String format = "%0" + numDigits + "d";
+
+		List<Integer> indexes = new ArrayList<>();
 		for (int i = 0; i < paths.size(); i++) {
-			File file = new File(paths.get(i));
-			System.out.print("processing " + file.getName());
-			BufferedImage orig = UtilImageIO.loadImage(file.getAbsolutePath());
-			if (orig == null) {
-				throw new RuntimeException("Can't load file: " + file.getAbsolutePath());
-			}
+			indexes.add(i);
+		}
 
-			int smallWidth, smallHeight;
+		// Each thread gets its own work space
+		var batch = new BatchProcessor<Integer, BufferedImage>(threads, () -> {
+			Planar<GrayU8> planar = new Planar<>(GrayU8.class, 1, 1, 1);
+			Planar<GrayU8> small = new Planar<>(GrayU8.class, 1, 1, 1);
+			return i -> downsize(new File(paths.get(i)), i, format, planar, small);
+		});
+		batch.process(indexes, ( i, orig ) -> {
+			if (listener != null)
+				listener.loadedImage(orig, new File(paths.get(i)).getName());
+			if (cancel)
+				batch.requestStop();
+		});
 
-			if (pixelCount) {
-				int desired = width*height;
-				if (desired <= 0)
-					desired = Math.max(width, height);
+		if (listener != null)
+			listener.finishedConverting();
+	}
 
-				double scale = Math.sqrt(desired)/Math.sqrt(orig.getWidth()*orig.getHeight());
+	/**
+	 * Loads the image, shrinks it, then saves it
+	 *
+	 * @return The original image
+	 */
+	BufferedImage downsize( File file, int index, String format, Planar<GrayU8> planar, Planar<GrayU8> small ) {
+		BufferedImage orig = UtilImageIO.loadImage(file.getAbsolutePath());
+		if (orig == null) {
+			throw new RuntimeException("Can't load file: " + file.getAbsolutePath());
+		}
 
-				// make sure it won't enlarge the image
-				scale = Math.min(1.0, scale);
+		int smallWidth, smallHeight;
 
-				smallWidth = (int)Math.round(scale*orig.getWidth());
-				smallHeight = (int)Math.round(scale*orig.getHeight());
-			} else if (maxLength && (width == 0 || height == 0)) {
-				int largestSide = Math.max(orig.getWidth(), orig.getHeight());
-				int desired = Math.max(width, height);
+		if (pixelCount) {
+			int desired = width*height;
+			if (desired <= 0)
+				desired = Math.max(width, height);
 
-				smallWidth = orig.getWidth()*desired/largestSide;
-				smallHeight = orig.getHeight()*desired/largestSide;
-			} else {
-				if (width == 0) {
-					smallWidth = orig.getWidth()*height/orig.getHeight();
-				} else {
-					smallWidth = width;
-				}
-				if (height == 0) {
-					smallHeight = orig.getHeight()*width/orig.getWidth();
-				} else {
-					smallHeight = height;
-				}
-			}
-			System.out.println("   " + smallWidth + " x " + smallHeight);
+			double scale = Math.sqrt(desired)/Math.sqrt(orig.getWidth()*orig.getHeight());
 
-			if (smallWidth > orig.getWidth() || smallHeight > orig.getHeight()) {
-				System.out.println("Skipping " + file.getName() + " because it is too small");
-			}
+			// make sure it won't enlarge the image
+			scale = Math.min(1.0, scale);
 
-			if (listener != null)
-				listener.loadedImage(orig, file.getName());
+			smallWidth = (int)Math.round(scale*orig.getWidth());
+			smallHeight = (int)Math.round(scale*orig.getHeight());
+		} else if (maxLength && (width == 0 || height == 0)) {
+			int largestSide = Math.max(orig.getWidth(), orig.getHeight());
+			int desired = Math.max(width, height);
 
-			String nameOut;
-			if (rename) {
-				nameOut = String.format("image" + format + ".png", i);
+			smallWidth = orig.getWidth()*desired/largestSide;
+			smallHeight = orig.getHeight()*desired/largestSide;
+		} else {
+			if (width == 0) {
+				smallWidth = orig.getWidth()*height/orig.getHeight();
 			} else {
-				nameOut = file.getName().split("\\.")[0] + "_small.png";
+				smallWidth = width;
 			}
-
-			planar.reshape(orig.getWidth(), orig.getHeight());
-			ConvertBufferedImage.convertFrom(orig, planar, true);
-
-			small.reshape(smallWidth, smallHeight, planar.getNumBands());
-
-			if (small.width < planar.width && small.height < planar.height) {
-				AverageDownSampleOps.down(planar, small);
+			if (height == 0) {
+				smallHeight = orig.getHeight()*width/orig.getWidth();
 			} else {
-				small.setTo(planar);
+				smallHeight = height;
 			}
+		}
+		// Images are processed in parallel so print everything at once
+		System.out.println("processing " + file.getName() + "   " + smallWidth + " x " + smallHeight);
 
-			BufferedImage output = ConvertBufferedImage.convertTo(small, null, true);
+		if (smallWidth > orig.getWidth() || smallHeight > orig.getHeight()) {
+			System.out.println("Skipping " + file.getName() + " because it is too small");
+		}
 
-			UtilImageIO.saveImage(output, new File(outputPath, nameOut).getAbsolutePath());
+		String nameOut;
+		if (rename) {
+			nameOut = String.format("image" + format + ".png", index);
+		} else {
+			nameOut = file.getName().split("\\.")[0] + "_small.png";
+		}
 
-			if (cancel) {
-				break;
-			}
+		planar.reshape(orig.getWidth(), orig.getHeight());
+		ConvertBufferedImage.convertFrom(orig, planar, true);
+
+		small.reshape(smallWidth, smallHeight, planar.getNumBands());
+
+		if (small.width < planar.width && small.height < planar.height) {
+			AverageDownSampleOps.down(planar, small);
+		} else {
+			small.setTo(planar);
 		}
-		if (listener != null)
-			listener.finishedConverting();
+
+		BufferedImage output = ConvertBufferedImage.convertTo(small, null, true);
+
+		UtilImageIO.saveImage(output, new File(outputPath, nameOut).getAbsolutePath());
+
+		return orig;
 	}
 
 	public interface Listener {
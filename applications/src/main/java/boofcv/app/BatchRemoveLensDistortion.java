@@ -21,6 +21,7 @@ package boofcv.app;
 import boofcv.alg.distort.AdjustmentType;
 import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.LensDistortionOps;
+import boofcv.concurrency.BatchProcessor;
 import boofcv.io.UtilIO;
 import boofcv.io.calibration.CalibrationIO;
 import boofcv.io.image.ConvertBufferedImage;
@@ -38,6 +39,7 @@ import org.kohsuke.args4j.Option;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -63,6 +65,8 @@ public class BatchRemoveLensDistortion {
 	@Option(name = "-a", aliases = {"--Adjustment"}, usage = "none, expand, full_view")
 	String adjustmentName;
 	AdjustmentType adjustmentType;
+	@Option(name = "--Threads", usage = "Number of images processed at once. If <= 0 then it's the number of threads in the pool.")
+	int threads = 0;
 	@Option(name = "--GUI", usage = "Ignore all other command line arguments and switch to GUI mode")
 	private boolean guiMode = false;
 
@@ -134,50 +138,63 @@ public class BatchRemoveLensDistortion {
 
 		System.out.println("Found a total of " + paths.size() + " matching files");
 
-		Planar<GrayF32> distoredImg = new Planar<>(GrayF32.class, param.width, param.height, 3);
-		Planar<GrayF32> undistoredImg = new Planar<>(GrayF32.class, param.width, param.height, 3);
-
-		ImageDistort distort = LensDistortionOps.changeCameraModel(adjustmentType, BorderType.ZERO, param,
-				new CameraPinhole(param), paramAdj, (ImageType)distoredImg.getImageType());
+		// Computes the adjusted intrinsics. Each thread creates its own distortion since they are not thread safe
+		LensDistortionOps.changeCameraModel(adjustmentType, BorderType.ZERO, param,
+				new CameraPinhole(param), paramAdj, ImageType.pl(3, GrayF32.class));
 		CalibrationIO.save(paramAdj, new File(outputPath, "intrinsicUndistorted.yaml").getAbsolutePath());
 
-		BufferedImage out = new BufferedImage(param.width, param.height, BufferedImage.TYPE_INT_RGB);
-
 		int numDigits = BoofMiscOps.numDigits(paths.size() - 1);
 		String format = "%0" + numDigits + "d";
-		for (int i = 0; i < paths.size(); i++) {
-			File file = new File(paths.get(i));
-			System.out.println("processing " + file.getName());
-			BufferedImage orig = UtilImageIO.loadImage(file.getAbsolutePath());
-			if (orig == null) {
-				throw new RuntimeException("Can't load file: " + file.getAbsolutePath());
-			}
 
-			if (orig.getWidth() != param.width || orig.getHeight() != param.height) {
-				System.err.println("intrinsic parameters and image size do not match!");
-				System.exit(-1);
-			}
+		List<Integer> indexes = new ArrayList<>();
+		for (int i = 0; i < paths.size(); i++) {
+			indexes.add(i);
+		}
 
+		var batch = new BatchProcessor<Integer, BufferedImage>(threads, () -> {
+			Planar<GrayF32> distoredImg = new Planar<>(GrayF32.class, param.width, param.height, 3);
+			Planar<GrayF32> undistoredImg = new Planar<>(GrayF32.class, param.width, param.height, 3);
+
+			ImageDistort distort = LensDistortionOps.changeCameraModel(adjustmentType, BorderType.ZERO, param,
+					new CameraPinhole(param), new CameraPinholeBrown(), (ImageType)distoredImg.getImageType());
+
+			BufferedImage out = new BufferedImage(param.width, param.height, BufferedImage.TYPE_INT_RGB);
+
+			return i -> {
+				File file = new File(paths.get(i));
+				System.out.println("processing " + file.getName());
+				BufferedImage orig = UtilImageIO.loadImage(file.getAbsolutePath());
+				if (orig == null) {
+					throw new RuntimeException("Can't load file: " + file.getAbsolutePath());
+				}
+
+				if (orig.getWidth() != param.width || orig.getHeight() != param.height) {
+					System.err.println("intrinsic parameters and image size do not match!");
+					System.exit(-1);
+				}
+
+				ConvertBufferedImage.convertFromPlanar(orig, distoredImg, true, GrayF32.class);
+				distort.apply(distoredImg, undistoredImg);
+				ConvertBufferedImage.convertTo(undistoredImg, out, true);
+
+				String nameOut;
+				if (rename) {
+					nameOut = String.format("image" + format + ".png", i);
+				} else {
+					nameOut = file.getName().split("\\.")[0] + "_undistorted.png";
+				}
+
+				UtilImageIO.saveImage(out, new File(outputPath, nameOut).getAbsolutePath());
+				return orig;
+			};
+		});
+		batch.process(indexes, ( i, orig ) -> {
 			if (listener != null)
-				listener.loadedImage(orig, file.getName());
+				listener.loadedImage(orig, new File(paths.get(i)).getName());
+			if (cancel)
+				batch.requestStop();
+		});
 
-			ConvertBufferedImage.convertFromPlanar(orig, distoredImg, true, GrayF32.class);
-			distort.apply(distoredImg, undistoredImg);
-			ConvertBufferedImage.convertTo(undistoredImg, out, true);
-
-			String nameOut;
-			if (rename) {
-				nameOut = String.format("image" + format + ".png", i);
-			} else {
-				nameOut = file.getName().split("\\.")[0] + "_undistorted.png";
-			}
-
-			UtilImageIO.saveImage(out, new File(outputPath, nameOut).getAbsolutePath());
-
-			if (cancel) {
-				break;
-			}
-		}
 		if (listener != null)
 			listener.finishedConverting();
 	}
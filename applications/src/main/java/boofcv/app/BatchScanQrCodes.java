@@ -21,11 +21,13 @@ package boofcv.app;
 import boofcv.abst.fiducial.QrCodeDetector;
 import boofcv.alg.fiducial.qrcode.QrCode;
 import boofcv.app.batch.BatchControlPanel;
+import boofcv.concurrency.BatchProcessor;
 import boofcv.factory.fiducial.FactoryFiducial;
 import boofcv.io.UtilIO;
 import boofcv.io.image.ConvertBufferedImage;
 import boofcv.io.image.UtilImageIO;
 import boofcv.struct.image.GrayU8;
+import org.jetbrains.annotations.Nullable;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
@@ -34,8 +36,9 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
-import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -58,8 +61,8 @@ public class BatchScanQrCodes {
 	@Option(name = "--GUI", usage = "Ignore all other command line arguments and switch to GUI mode")
 	boolean guiMode = false;
 
-	QrCodeDetector<GrayU8> scanner = FactoryFiducial.qrcode(null, GrayU8.class);
-	GrayU8 gray = new GrayU8(1, 1);
+	@Option(name = "--Threads", usage = "Number of images processed at once. If <= 0 then it's the number of threads in the pool.")
+	int threads = 0;
 
 	PrintStream output;
 
@@ -72,7 +75,7 @@ public class BatchScanQrCodes {
 
 	void finishParsing() {}
 
-	void process() throws FileNotFoundException, UnsupportedEncodingException {
+	void process() throws FileNotFoundException {
 		total = 0;
 		output = new PrintStream(pathOutput);
 		output.println("# Found QR Codes inside of images");
@@ -88,16 +91,39 @@ public class BatchScanQrCodes {
 			return;
 		}
 
-		for (String path : inputs) {
-			processFile(new File(path));
-		}
+		// Each thread gets its own detector since they are not thread safe
+		var batch = new BatchProcessor<String, List<String>>(threads, () -> {
+			QrCodeDetector<GrayU8> scanner = FactoryFiducial.qrcode(null, GrayU8.class);
+			var gray = new GrayU8(1, 1);
+			return path -> scanFile(scanner, gray, path);
+		});
+		batch.process(inputs, ( path, messages ) -> saveResults(new File(path), messages));
+
 		if (verbose)
 			System.out.println("\n\nDone! Images Count = " + total);
 	}
 
-	private void processFile( File f ) throws UnsupportedEncodingException {
-		BufferedImage buffered = UtilImageIO.loadImage(f.getAbsolutePath());
-		if (buffered == null) {
+	/**
+	 * Returns the message of every QR code found inside the image or null if the image couldn't be read
+	 */
+	static @Nullable List<String> scanFile( QrCodeDetector<GrayU8> scanner, GrayU8 gray, String path ) {
+		BufferedImage buffered = UtilImageIO.loadImage(path);
+		if (buffered == null)
+			return null;
+
+		ConvertBufferedImage.convertFrom(buffered, gray);
+
+		scanner.process(gray);
+
+		List<String> messages = new ArrayList<>();
+		for (QrCode qr : scanner.getDetections()) {
+			messages.add(qr.message);
+		}
+		return messages;
+	}
+
+	private void saveResults( File f, @Nullable List<String> messages ) {
+		if (messages == null) {
 			System.err.println("Can't open " + f.getPath());
 			return;
 		}
@@ -105,13 +131,10 @@ public class BatchScanQrCodes {
 			listener.batchUpdate(f.getName());
 		}
 
-		ConvertBufferedImage.convertFrom(buffered, gray);
+		output.printf("%d %s\n", messages.size(), f.getPath());
 
-		scanner.process(gray);
-		output.printf("%d %s\n", scanner.getDetections().size(), f.getPath());
-
-		for (QrCode qr : scanner.getDetections()) {
-			output.println(URLEncoder.encode(qr.message, "UTF-8"));
+		for (String message : messages) {
+			output.println(URLEncoder.encode(message, StandardCharsets.UTF_8));
 		}
 
 		total++;
@@ -23,6 +23,7 @@ import boofcv.abst.fiducial.SquareImage_to_FiducialDetector;
 import boofcv.abst.fiducial.calib.ConfigGridDimen;
 import boofcv.alg.distort.brown.LensDistortionBrown;
 import boofcv.alg.geo.PerspectiveOps;
+import boofcv.concurrency.BatchProcessor;
 import boofcv.factory.fiducial.ConfigFiducialBinary;
 import boofcv.factory.fiducial.ConfigFiducialImage;
 import boofcv.factory.fiducial.FactoryFiducial;
@@ -32,6 +33,7 @@ import boofcv.gui.fiducial.VisualizeFiducial;
 import boofcv.gui.image.ImagePanel;
 import boofcv.gui.image.ShowImages;
 import boofcv.io.MediaManager;
+import boofcv.io.UtilIO;
 import boofcv.io.calibration.CalibrationIO;
 import boofcv.io.image.ConvertBufferedImage;
 import boofcv.io.image.SimpleImageSequence;
@@ -54,6 +56,7 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Command line application for detecting different types of fiducials in different types of input methods.
@@ -69,9 +72,15 @@ public class FiducialDetection extends BaseStandardInputApp {
 	String intrinsicPath;
 	// path to where the results should be stored
 	String outputPath;
+	// directory or pattern of images which are processed in batch mode
+	String imagesPattern;
+	// number of images processed at once in batch mode
+	int threads = 0;
 
 	PrintStream outputFile;
 
+	// creates a new detector. Batch mode needs one for each thread
+	Supplier<FiducialDetector<GrayU8>> factory;
 	FiducialDetector<GrayU8> detector;
 
 	void printHelp() {
@@ -98,6 +107,11 @@ public class FiducialDetection extends BaseStandardInputApp {
 		System.out.println("  --OutputFile=<path>                Writes the ID and pose of detected fiducials out to a file");
 		System.out.println("                                     File format is described in the file's header.");
 		System.out.println();
+		System.out.println("  --Images=<pattern>                 Directory, glob, or regex pattern. Every image is processed without");
+		System.out.println("                                     a GUI and the frame # is the image's index. Needs --OutputFile");
+		System.out.println("  --Threads=<int>                    Number of images processed at once when using --Images");
+		System.out.println("                                     DEFAULT: Number of threads in the pool");
+		System.out.println();
 		System.out.println("----------------------------------- Fiducial Flags --------------------------------------");
 		System.out.println();
 		System.out.println("Fiducial Types:");
@@ -169,6 +183,10 @@ public class FiducialDetection extends BaseStandardInputApp {
 						intrinsicPath = BoofMiscOps.handlePathTilde(parameters);
 					} else if (flagName.compareToIgnoreCase("OutputFile") == 0) {
 						outputPath = BoofMiscOps.handlePathTilde(parameters);
+					} else if (flagName.compareToIgnoreCase("Images") == 0) {
+						imagesPattern = BoofMiscOps.handlePathTilde(parameters);
+					} else if (flagName.compareToIgnoreCase("Threads") == 0) {
+						threads = Integer.parseInt(parameters);
 					} else {
 						throw new RuntimeException("Unknown camera option " + flagName);
 					}
@@ -233,7 +251,7 @@ public class FiducialDetection extends BaseStandardInputApp {
 		else
 			configThreshold = ConfigThreshold.fixed(DEFAULT_THRESHOLD);
 
-		detector = FactoryFiducial.squareBinary(configFid, configThreshold, GrayU8.class);
+		factory = () -> FactoryFiducial.squareBinary(configFid, configThreshold, GrayU8.class);
 	}
 
 	void parseImage( int index, String[] args ) {
@@ -279,22 +297,24 @@ public class FiducialDetection extends BaseStandardInputApp {
 		else
 			configThreshold = ConfigThreshold.fixed(DEFAULT_THRESHOLD);
 
-		SquareImage_to_FiducialDetector<GrayU8> detector =
-				FactoryFiducial.squareImage(config, configThreshold, GrayU8.class);
-
+		List<GrayU8> patterns = new ArrayList<>();
 		for (int i = 0; i < paths.size(); i++) {
 			BufferedImage buffered = UtilImageIO.loadImage(paths.get(i));
 			if (buffered == null)
 				throw new RuntimeException("Can't find pattern " + paths.get(i));
 
-			GrayU8 pattern = new GrayU8(buffered.getWidth(), buffered.getHeight());
-
-			ConvertBufferedImage.convertFrom(buffered, pattern);
-
-			detector.addPatternImage(pattern, 125, sizes.get(i));
+			patterns.add(ConvertBufferedImage.convertFrom(buffered, (GrayU8)null));
 		}
 
-		this.detector = detector;
+		factory = () -> {
+			SquareImage_to_FiducialDetector<GrayU8> detector =
+					FactoryFiducial.squareImage(config, configThreshold, GrayU8.class);
+
+			for (int i = 0; i < patterns.size(); i++) {
+				detector.addPatternImage(patterns.get(i), 125, sizes.get(i));
+			}
+			return detector;
+		};
 	}
 
 	void parseChessboard( int index, String[] args ) {
@@ -328,7 +348,7 @@ public class FiducialDetection extends BaseStandardInputApp {
 		System.out.println("chessboard: rows = " + rows + " columns = " + cols + "  square width " + width);
 		ConfigGridDimen config = new ConfigGridDimen(rows, cols, width);
 
-		detector = FactoryFiducial.calibChessboardX(null, config, GrayU8.class);
+		factory = () -> FactoryFiducial.calibChessboardX(null, config, GrayU8.class);
 	}
 
 	void parseSquareGrid( int index, String[] args ) {
@@ -366,7 +386,7 @@ public class FiducialDetection extends BaseStandardInputApp {
 		System.out.println("square grid: rows = " + rows + " columns = " + cols + "  square width " + width + "  space " + space);
 		ConfigGridDimen config = new ConfigGridDimen(rows, cols, width, space);
 
-		detector = FactoryFiducial.calibSquareGrid(null, config, GrayU8.class);
+		factory = () -> FactoryFiducial.calibSquareGrid(null, config, GrayU8.class);
 	}
 
 	private static CameraPinholeBrown handleIntrinsic( @Nullable CameraPinholeBrown intrinsic, int width, int height ) {
@@ -494,28 +514,91 @@ public class FiducialDetection extends BaseStandardInputApp {
 		if (outputFile == null)
 			return;
 
+		outputFile.println(formatResults(detector, frameNumber));
+	}
+
+	/**
+	 * Creates a line in the output file describing everything the detector found
+	 */
+	static String formatResults( FiducialDetector<GrayU8> detector, int frameNumber ) {
 		Quaternion_F64 quat = new Quaternion_F64();
 		Se3_F64 fiducialToCamera = new Se3_F64();
 
-		outputFile.printf("%d %d", frameNumber, detector.totalFound());
+		var line = new StringBuilder();
+		line.append(String.format("%d %d", frameNumber, detector.totalFound()));
 		for (int i = 0; i < detector.totalFound(); i++) {
 			long id = detector.getId(i);
 			detector.getFiducialToCamera(i, fiducialToCamera);
 
 			ConvertRotation3D_F64.matrixToQuaternion(fiducialToCamera.getR(), quat);
 
-			outputFile.printf(" %d %.10f %.10f %.10f %.10f %.10f %.10f %.10f", id,
+			line.append(String.format(" %d %.10f %.10f %.10f %.10f %.10f %.10f %.10f", id,
 					fiducialToCamera.T.x, fiducialToCamera.T.y, fiducialToCamera.T.z,
-					quat.w, quat.x, quat.y, quat.z);
+					quat.w, quat.x, quat.y, quat.z));
 		}
-		outputFile.println();
+		return line.toString();
+	}
+
+	/**
+	 * Processes every image matching the pattern without a GUI. The detectors are not thread safe so each thread
+	 * has its own. Results are saved in the same order as the images.
+	 */
+	private void processBatch( @Nullable CameraPinholeBrown intrinsic ) {
+		List<String> paths = UtilIO.listSmartImages(imagesPattern, true);
+		if (paths.isEmpty()) {
+			System.err.println("No inputs found. Bad path or pattern? " + imagesPattern);
+			System.exit(1);
+		}
+
+		outputFile.println("# Batch mode. <frame #> is the index of the image in the list below");
+		for (int i = 0; i < paths.size(); i++) {
+			outputFile.println("# " + i + " " + paths.get(i));
+		}
+
+		List<Integer> indexes = new ArrayList<>();
+		for (int i = 0; i < paths.size(); i++) {
+			indexes.add(i);
+		}
+
+		var batch = new BatchProcessor<Integer, String>(threads, () -> {
+			FiducialDetector<GrayU8> detector = factory.get();
+			var gray = new GrayU8(1, 1);
+			return i -> {
+				BufferedImage buffered = UtilImageIO.loadImage(paths.get(i));
+				if (buffered == null)
+					throw new RuntimeException("Can't read image " + paths.get(i));
+
+				// The lens distortion only needs to be changed when the shape of the image changes
+				boolean changedShape = buffered.getWidth() != gray.width || buffered.getHeight() != gray.height;
+				ConvertBufferedImage.convertFrom(buffered, gray);
+				if (changedShape) {
+					CameraPinholeBrown adjusted = handleIntrinsic(
+							intrinsic == null ? null : new CameraPinholeBrown(intrinsic), gray.width, gray.height);
+					detector.setLensDistortion(new LensDistortionBrown(adjusted), adjusted.width, adjusted.height);
+				}
+
+				detector.detect(gray);
+				return formatResults(detector, i);
+			};
+		});
+		batch.process(indexes, ( i, line ) -> {
+			System.out.println("processed " + paths.get(i));
+			outputFile.println(line);
+		});
+		outputFile.close();
 	}
 
 	private void process() {
-		if (detector == null) {
+		if (factory == null) {
 			System.err.println("Need to specify which fiducial you wish to detect");
 			System.exit(1);
 		}
+		detector = factory.get();
+
+		if (imagesPattern != null && outputPath == null) {
+			System.err.println("Need to specify an output file when processing images in batch");
+			System.exit(1);
+		}
 
 		if (outputPath != null) {
 			try {
@@ -539,6 +622,11 @@ public class FiducialDetection extends BaseStandardInputApp {
 
 		CameraPinholeBrown intrinsic = intrinsicPath == null ? null : (CameraPinholeBrown)CalibrationIO.load(intrinsicPath);
 
+		if (imagesPattern != null) {
+			processBatch(intrinsic);
+			return;
+		}
+
 		SimpleImageSequence<GrayU8> sequence = null;
 		long pause = 0;
 		BufferedImage buffered = null;
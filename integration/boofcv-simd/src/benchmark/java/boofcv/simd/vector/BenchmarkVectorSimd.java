@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd.vector;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.alg.misc.PixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.ConvertImage;
+import boofcv.simd.BoofSimd;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the speed of functions with and without SIMD kernels
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BenchmarkVectorSimd {
+	@Param({"true", "false"})
+	public boolean simd;
+
+	@Param({"true", "false"})
+	public boolean concurrent;
+
+	@Param({"1000"})
+	public int size;
+
+	GrayU8 inputU8 = new GrayU8(1, 1);
+	GrayU8 inputU8b = new GrayU8(1, 1);
+	GrayU8 outputU8 = new GrayU8(1, 1);
+	GrayS16 inputS16 = new GrayS16(1, 1);
+	GrayF32 inputF32 = new GrayF32(1, 1);
+	GrayF32 inputF32b = new GrayF32(1, 1);
+	GrayF32 outputF32 = new GrayF32(1, 1);
+
+	@Setup
+	public void setup() {
+		BoofSimd.USE_SIMD = simd;
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		inputU8.reshape(size, size);
+		inputU8b.reshape(size, size);
+		outputU8.reshape(size, size);
+		inputS16.reshape(size, size);
+		inputF32.reshape(size, size);
+		inputF32b.reshape(size, size);
+		outputF32.reshape(size, size);
+
+		GImageMiscOps.fillUniform(inputU8, rand, 0, 255);
+		GImageMiscOps.fillUniform(inputU8b, rand, 0, 255);
+		GImageMiscOps.fillUniform(inputS16, rand, -1000, 1000);
+		GImageMiscOps.fillUniform(inputF32, rand, 0, 200);
+		GImageMiscOps.fillUniform(inputF32b, rand, 0, 200);
+	}
+
+	// @formatter:off
+	@Benchmark public void abs_F32() {PixelMath.abs(inputF32, outputF32);}
+	@Benchmark public void add_F32() {PixelMath.add(inputF32, inputF32b, outputF32);}
+	@Benchmark public void multiply_F32() {PixelMath.multiply(inputF32, 1.5f, 0f, 255f, outputF32);}
+	@Benchmark public void diffAbs_U8() {PixelMath.diffAbs(inputU8, inputU8b, outputU8);}
+	@Benchmark public void boundImage_U8() {PixelMath.boundImage(outputU8.setTo(inputU8), 20, 200);}
+	@Benchmark public void convert_U8_F32() {ConvertImage.convert(inputU8, outputF32);}
+	@Benchmark public void convert_S16_F32() {ConvertImage.convert(inputS16, outputF32);}
+	@Benchmark public int sum_U8() {return ImageStatistics.sum(inputU8);}
+	@Benchmark public float sum_F32() {return ImageStatistics.sum(inputF32);}
+	@Benchmark public float max_F32() {return ImageStatistics.max(inputF32);}
+	// @formatter:on
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkVectorSimd.class.getSimpleName())
+				.warmupTime(TimeValue.seconds(1))
+				.measurementTime(TimeValue.seconds(1))
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd.vector;
+
+import jdk.incubator.vector.*;
+
+import static boofcv.simd.vector.VectorPixelMath.*;
+
+/**
+ * Single threaded Vector API implementations of functions in ConvertImage. The input and output vectors always
+ * have the same number of lanes, which means that the narrower type will not fill an entire register.
+ *
+ * @author Peter Abeles
+ */
+public class VectorConvertImage {
+	public static void convert_U8_F32( byte[] input, int inputStart, int inputStride,
+									   float[] output, int outputStart, int outputStride,
+									   int rows, int cols ) {
+		int bound = FS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexIn = inputStart + y*inputStride;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				IntVector v = ((IntVector)ByteVector.fromArray(BS_QUARTER, input, indexIn + x).
+						convertShape(VectorOperators.B2I, IS, 0)).and(0xFF);
+				((FloatVector)v.convertShape(VectorOperators.I2F, FS, 0)).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = (float)(input[indexIn + x] & 0xFF);
+			}
+		}
+	}
+
+	public static void convert_U8_S16( byte[] input, int inputStart, int inputStride,
+									   short[] output, int outputStart, int outputStride,
+									   int rows, int cols ) {
+		int bound = SS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexIn = inputStart + y*inputStride;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += SS.length()) {
+				unsignedToShort(ByteVector.fromArray(BS_HALF, input, indexIn + x)).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = (short)(input[indexIn + x] & 0xFF);
+			}
+		}
+	}
+
+	public static void convert_S16_F32( short[] input, int inputStart, int inputStride,
+										float[] output, int outputStart, int outputStride,
+										int rows, int cols ) {
+		int bound = FS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexIn = inputStart + y*inputStride;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				((FloatVector)ShortVector.fromArray(SS_HALF, input, indexIn + x).
+						convertShape(VectorOperators.S2F, FS, 0)).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = (float)(input[indexIn + x]);
+			}
+		}
+	}
+}
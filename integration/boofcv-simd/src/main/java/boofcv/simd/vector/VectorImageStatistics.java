@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd.vector;
+
+import jdk.incubator.vector.*;
+
+import static boofcv.simd.vector.VectorPixelMath.*;
+
+/**
+ * Single threaded Vector API implementations of functions in ImageStatistics. Minimums and maximums are initialized
+ * with the first element, just like the scalar code, so that the results are identical when there is a NaN.
+ *
+ * @author Peter Abeles
+ */
+public class VectorImageStatistics {
+	public static int min( byte[] array, int startIndex, int rows, int columns, int stride ) {
+		// Flip the sign bit so that signed comparisons give the unsigned order
+		byte flipped = (byte)(array[startIndex] ^ 0x80);
+		ByteVector best = ByteVector.broadcast(BS, flipped);
+		int bound = BS.loopBound(columns);
+		for (int y = 0; y < rows; y++) {
+			int index = startIndex + y*stride;
+			int x = 0;
+			for (; x < bound; x += BS.length()) {
+				best = best.min(ByteVector.fromArray(BS, array, index + x).lanewise(VectorOperators.XOR, (byte)0x80));
+			}
+			for (; x < columns; x++) {
+				flipped = (byte)Math.min(flipped, (byte)(array[index + x] ^ 0x80));
+			}
+		}
+		flipped = (byte)Math.min(flipped, best.reduceLanes(VectorOperators.MIN));
+		return (flipped ^ 0x80) & 0xFF;
+	}
+
+	public static int max( byte[] array, int startIndex, int rows, int columns, int stride ) {
+		byte flipped = (byte)(array[startIndex] ^ 0x80);
+		ByteVector best = ByteVector.broadcast(BS, flipped);
+		int bound = BS.loopBound(columns);
+		for (int y = 0; y < rows; y++) {
+			int index = startIndex + y*stride;
+			int x = 0;
+			for (; x < bound; x += BS.length()) {
+				best = best.max(ByteVector.fromArray(BS, array, index + x).lanewise(VectorOperators.XOR, (byte)0x80));
+			}
+			for (; x < columns; x++) {
+				flipped = (byte)Math.max(flipped, (byte)(array[index + x] ^ 0x80));
+			}
+		}
+		flipped = (byte)Math.max(flipped, best.reduceLanes(VectorOperators.MAX));
+		return (flipped ^ 0x80) & 0xFF;
+	}
+
+	public static int min( short[] array, int startIndex, int rows, int columns, int stride ) {
+		short output = array[startIndex];
+		ShortVector best = ShortVector.broadcast(SS, output);
+		int bound = SS.loopBound(columns);
+		for (int y = 0; y < rows; y++) {
+			int index = startIndex + y*stride;
+			int x = 0;
+			for (; x < bound; x += SS.length()) {
+				best = best.min(ShortVector.fromArray(SS, array, index + x));
+			}
+			for (; x < columns; x++) {
+				output = (short)Math.min(output, array[index + x]);
+			}
+		}
+		return Math.min(output, best.reduceLanes(VectorOperators.MIN));
+	}
+
+	public static int max( short[] array, int startIndex, int rows, int columns, int stride ) {
+		short output = array[startIndex];
+		ShortVector best = ShortVector.broadcast(SS, output);
+		int bound = SS.loopBound(columns);
+		for (int y = 0; y < rows; y++) {
+			int index = startIndex + y*stride;
+			int x = 0;
+			for (; x < bound; x += SS.length()) {
+				best = best.max(ShortVector.fromArray(SS, array, index + x));
+			}
+			for (; x < columns; x++) {
+				output = (short)Math.max(output, array[index + x]);
+			}
+		}
+		return Math.max(output, best.reduceLanes(VectorOperators.MAX));
+	}
+
+	public static float min( float[] array, int startIndex, int rows, int columns, int stride ) {
+		float output = array[startIndex];
+		FloatVector best = FloatVector.broadcast(FS, output);
+		int bound = FS.loopBound(columns);
+		for (int y = 0; y < rows; y++) {
+			int index = startIndex + y*stride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				// A comparison is used instead of MIN so that NaN is handled the same as the scalar code
+				FloatVector v = FloatVector.fromArray(FS, array, index + x);
+				best = best.blend(v, v.compare(VectorOperators.LT, best));
+			}
+			for (; x < columns; x++) {
+				float v = array[index + x];
+				if (v < output)
+					output = v;
+			}
+		}
+		for (int i = 0; i < FS.length(); i++) {
+			float v = best.lane(i);
+			if (v < output)
+				output = v;
+		}
+		return output;
+	}
+
+	public static float max( float[] array, int startIndex, int rows, int columns, int stride ) {
+		float output = array[startIndex];
+		FloatVector best = FloatVector.broadcast(FS, output);
+		int bound = FS.loopBound(columns);
+		for (int y = 0; y < rows; y++) {
+			int index = startIndex + y*stride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				FloatVector v = FloatVector.fromArray(FS, array, index + x);
+				best = best.blend(v, v.compare(VectorOperators.GT, best));
+			}
+			for (; x < columns; x++) {
+				float v = array[index + x];
+				if (v > output)
+					output = v;
+			}
+		}
+		for (int i = 0; i < FS.length(); i++) {
+			float v = best.lane(i);
+			if (v > output)
+				output = v;
+		}
+		return output;
+	}
+
+	public static int sum( byte[] array, int startIndex, int rows, int columns, int stride ) {
+		int total = 0;
+		IntVector sum = IntVector.zero(IS);
+		int bound = IS.loopBound(columns);
+		for (int y = 0; y < rows; y++) {
+			int index = startIndex + y*stride;
+			int x = 0;
+			for (; x < bound; x += IS.length()) {
+				sum = sum.add(((IntVector)ByteVector.fromArray(BS_QUARTER, array, index + x).
+						convertShape(VectorOperators.B2I, IS, 0)).and(0xFF));
+			}
+			for (; x < columns; x++) {
+				total += array[index + x] & 0xFF;
+			}
+		}
+		return total + sum.reduceLanes(VectorOperators.ADD);
+	}
+
+	public static int sum( short[] array, int startIndex, int rows, int columns, int stride ) {
+		int total = 0;
+		IntVector sum = IntVector.zero(IS);
+		int bound = IS.loopBound(columns);
+		for (int y = 0; y < rows; y++) {
+			int index = startIndex + y*stride;
+			int x = 0;
+			for (; x < bound; x += IS.length()) {
+				sum = sum.add(ShortVector.fromArray(SS_HALF, array, index + x).convertShape(VectorOperators.S2I, IS, 0));
+			}
+			for (; x < columns; x++) {
+				total += array[index + x];
+			}
+		}
+		return total + sum.reduceLanes(VectorOperators.ADD);
+	}
+
+	/**
+	 * Each lane has its own partial sum, so the result can differ slightly from adding the values in order
+	 */
+	public static float sum( float[] array, int startIndex, int rows, int columns, int stride ) {
+		float total = 0;
+		FloatVector sum = FloatVector.zero(FS);
+		int bound = FS.loopBound(columns);
+		for (int y = 0; y < rows; y++) {
+			int index = startIndex + y*stride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				sum = sum.add(FloatVector.fromArray(FS, array, index + x));
+			}
+			for (; x < columns; x++) {
+				total += array[index + x];
+			}
+		}
+		return total + sum.reduceLanes(VectorOperators.ADD);
+	}
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd.vector;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Single threaded Vector API implementations of functions in PixelMath. Each row is processed with vectors
+ * and the remainder which doesn't fill a vector with scalar code.
+ *
+ * @author Peter Abeles
+ */
+public class VectorPixelMath {
+	static final VectorSpecies<Byte> BS = ByteVector.SPECIES_PREFERRED;
+	static final VectorSpecies<Short> SS = ShortVector.SPECIES_PREFERRED;
+	static final VectorSpecies<Integer> IS = IntVector.SPECIES_PREFERRED;
+	static final VectorSpecies<Float> FS = FloatVector.SPECIES_PREFERRED;
+
+	// Species with the same number of lanes as a preferred vector with twice the element size
+	static final VectorSpecies<Byte> BS_HALF = VectorSpecies.of(byte.class, VectorShape.forBitSize(SS.length()*8));
+	static final VectorSpecies<Short> SS_HALF = VectorSpecies.of(short.class, VectorShape.forBitSize(IS.length()*16));
+	// Species with the same number of lanes as a preferred vector with four times the element size
+	static final VectorSpecies<Byte> BS_QUARTER = VectorSpecies.of(byte.class, VectorShape.forBitSize(IS.length()*8));
+
+	public static void abs( short[] input, int inputStart, int inputStride,
+							short[] output, int outputStart, int outputStride,
+							int rows, int cols ) {
+		int bound = SS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexIn = inputStart + y*inputStride;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += SS.length()) {
+				ShortVector.fromArray(SS, input, indexIn + x).lanewise(VectorOperators.ABS).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = (short)Math.abs(input[indexIn + x]);
+			}
+		}
+	}
+
+	public static void abs( float[] input, int inputStart, int inputStride,
+							float[] output, int outputStart, int outputStride,
+							int rows, int cols ) {
+		int bound = FS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexIn = inputStart + y*inputStride;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				FloatVector.fromArray(FS, input, indexIn + x).lanewise(VectorOperators.ABS).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = Math.abs(input[indexIn + x]);
+			}
+		}
+	}
+
+	public static void multiply( float[] input, int inputStart, int inputStride, float value,
+								 float[] output, int outputStart, int outputStride,
+								 int rows, int cols ) {
+		int bound = FS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexIn = inputStart + y*inputStride;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				FloatVector.fromArray(FS, input, indexIn + x).mul(value).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = input[indexIn + x]*value;
+			}
+		}
+	}
+
+	public static void multiply( float[] input, int inputStart, int inputStride, float value, float lower, float upper,
+								 float[] output, int outputStart, int outputStride,
+								 int rows, int cols ) {
+		int bound = FS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexIn = inputStart + y*inputStride;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				FloatVector v = FloatVector.fromArray(FS, input, indexIn + x).mul(value);
+				clamp(v, lower, upper).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				float val = input[indexIn + x]*value;
+				if (val < lower) val = lower;
+				if (val > upper) val = upper;
+				output[indexOut + x] = val;
+			}
+		}
+	}
+
+	public static void multiply( float[] imgA, int startA, int strideA,
+								 float[] imgB, int startB, int strideB,
+								 float[] output, int outputStart, int outputStride,
+								 int rows, int cols ) {
+		int bound = FS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexA = startA + y*strideA;
+			int indexB = startB + y*strideB;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				FloatVector a = FloatVector.fromArray(FS, imgA, indexA + x);
+				a.mul(FloatVector.fromArray(FS, imgB, indexB + x)).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = imgA[indexA + x]*imgB[indexB + x];
+			}
+		}
+	}
+
+	/**
+	 * Min and max must be from 0 to 255
+	 */
+	public static void boundImage( byte[] data, int start, int stride, int min, int max, int rows, int cols ) {
+		// Flipping the sign bit turns unsigned comparisons into signed comparisons
+		byte flipMin = (byte)(min ^ 0x80);
+		byte flipMax = (byte)(max ^ 0x80);
+		int bound = BS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int index = start + y*stride;
+			int x = 0;
+			for (; x < bound; x += BS.length()) {
+				ByteVector v = ByteVector.fromArray(BS, data, index + x).lanewise(VectorOperators.XOR, (byte)0x80);
+				v.max(flipMin).min(flipMax).lanewise(VectorOperators.XOR, (byte)0x80).intoArray(data, index + x);
+			}
+			for (; x < cols; x++) {
+				int value = data[index + x] & 0xFF;
+				if (value < min)
+					data[index + x] = (byte)min;
+				else if (value > max)
+					data[index + x] = (byte)max;
+			}
+		}
+	}
+
+	/**
+	 * Min and max must be within the range of a short
+	 */
+	public static void boundImage( short[] data, int start, int stride, int min, int max, int rows, int cols ) {
+		int bound = SS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int index = start + y*stride;
+			int x = 0;
+			for (; x < bound; x += SS.length()) {
+				ShortVector.fromArray(SS, data, index + x).max((short)min).min((short)max).intoArray(data, index + x);
+			}
+			for (; x < cols; x++) {
+				int value = data[index + x];
+				if (value < min)
+					data[index + x] = (short)min;
+				else if (value > max)
+					data[index + x] = (short)max;
+			}
+		}
+	}
+
+	public static void boundImage( float[] data, int start, int stride, float min, float max, int rows, int cols ) {
+		int bound = FS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int index = start + y*stride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				clamp(FloatVector.fromArray(FS, data, index + x), min, max).intoArray(data, index + x);
+			}
+			for (; x < cols; x++) {
+				float value = data[index + x];
+				if (value < min)
+					data[index + x] = min;
+				else if (value > max)
+					data[index + x] = max;
+			}
+		}
+	}
+
+	public static void diffAbs( byte[] imgA, int startA, int strideA,
+								byte[] imgB, int startB, int strideB,
+								byte[] output, int outputStart, int outputStride,
+								int rows, int cols ) {
+		int bound = BS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexA = startA + y*strideA;
+			int indexB = startB + y*strideB;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += BS.length()) {
+				// Flip the sign bit so that signed min/max gives the unsigned order. The difference of the
+				// flipped values is the same as the difference of the original values modulo 256.
+				ByteVector a = ByteVector.fromArray(BS, imgA, indexA + x).lanewise(VectorOperators.XOR, (byte)0x80);
+				ByteVector b = ByteVector.fromArray(BS, imgB, indexB + x).lanewise(VectorOperators.XOR, (byte)0x80);
+				a.max(b).sub(a.min(b)).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = (byte)Math.abs((imgA[indexA + x] & 0xFF) - (imgB[indexB + x] & 0xFF));
+			}
+		}
+	}
+
+	public static void diffAbs( short[] imgA, int startA, int strideA,
+								short[] imgB, int startB, int strideB,
+								short[] output, int outputStart, int outputStride,
+								int rows, int cols ) {
+		int bound = SS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexA = startA + y*strideA;
+			int indexB = startB + y*strideB;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += SS.length()) {
+				ShortVector a = ShortVector.fromArray(SS, imgA, indexA + x);
+				ShortVector b = ShortVector.fromArray(SS, imgB, indexB + x);
+				// Same overflow behavior as casting the int difference to a short
+				a.max(b).sub(a.min(b)).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = (short)Math.abs(imgA[indexA + x] - imgB[indexB + x]);
+			}
+		}
+	}
+
+	public static void diffAbs( float[] imgA, int startA, int strideA,
+								float[] imgB, int startB, int strideB,
+								float[] output, int outputStart, int outputStride,
+								int rows, int cols ) {
+		int bound = FS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexA = startA + y*strideA;
+			int indexB = startB + y*strideB;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				FloatVector a = FloatVector.fromArray(FS, imgA, indexA + x);
+				a.sub(FloatVector.fromArray(FS, imgB, indexB + x)).lanewise(VectorOperators.ABS).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = Math.abs(imgA[indexA + x] - imgB[indexB + x]);
+			}
+		}
+	}
+
+	public static void add( byte[] imgA, int startA, int strideA,
+							byte[] imgB, int startB, int strideB,
+							short[] output, int outputStart, int outputStride,
+							int rows, int cols ) {
+		int bound = SS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexA = startA + y*strideA;
+			int indexB = startB + y*strideB;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += SS.length()) {
+				ShortVector a = unsignedToShort(ByteVector.fromArray(BS_HALF, imgA, indexA + x));
+				ShortVector b = unsignedToShort(ByteVector.fromArray(BS_HALF, imgB, indexB + x));
+				a.add(b).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = (short)((imgA[indexA + x] & 0xFF) + (imgB[indexB + x] & 0xFF));
+			}
+		}
+	}
+
+	public static void add( short[] imgA, int startA, int strideA,
+							short[] imgB, int startB, int strideB,
+							int[] output, int outputStart, int outputStride,
+							int rows, int cols ) {
+		int bound = IS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexA = startA + y*strideA;
+			int indexB = startB + y*strideB;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += IS.length()) {
+				IntVector a = (IntVector)ShortVector.fromArray(SS_HALF, imgA, indexA + x).convertShape(VectorOperators.S2I, IS, 0);
+				IntVector b = (IntVector)ShortVector.fromArray(SS_HALF, imgB, indexB + x).convertShape(VectorOperators.S2I, IS, 0);
+				a.add(b).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = imgA[indexA + x] + imgB[indexB + x];
+			}
+		}
+	}
+
+	public static void add( float[] imgA, int startA, int strideA,
+							float[] imgB, int startB, int strideB,
+							float[] output, int outputStart, int outputStride,
+							int rows, int cols ) {
+		int bound = FS.loopBound(cols);
+		for (int y = 0; y < rows; y++) {
+			int indexA = startA + y*strideA;
+			int indexB = startB + y*strideB;
+			int indexOut = outputStart + y*outputStride;
+			int x = 0;
+			for (; x < bound; x += FS.length()) {
+				FloatVector a = FloatVector.fromArray(FS, imgA, indexA + x);
+				a.add(FloatVector.fromArray(FS, imgB, indexB + x)).intoArray(output, indexOut + x);
+			}
+			for (; x < cols; x++) {
+				output[indexOut + x] = imgA[indexA + x] + imgB[indexB + x];
+			}
+		}
+	}
+
+	/**
+	 * Same as the scalar code "if (v < lower) v = lower; if (v > upper) v = upper;", which leaves NaN alone
+	 */
+	static FloatVector clamp( FloatVector v, float lower, float upper ) {
+		v = v.blend(lower, v.compare(VectorOperators.LT, lower));
+		return v.blend(upper, v.compare(VectorOperators.GT, upper));
+	}
+
+	/**
+	 * Converts unsigned bytes into shorts. The input must have the same number of lanes as {@link #SS}.
+	 */
+	static ShortVector unsignedToShort( ByteVector v ) {
+		return ((ShortVector)v.convertShape(VectorOperators.B2S, SS, 0)).and((short)0xFF);
+	}
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd.vector;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.simd.SimdKernels;
+import jdk.incubator.vector.FloatVector;
+
+/**
+ * {@link SimdKernels} implemented using the Vector API. Large images are split into blocks of rows which are
+ * processed in parallel. For statistics, each row is reduced independently and the rows are then combined in
+ * order, so the result does not depend on the number of threads.
+ *
+ * @author Peter Abeles
+ */
+public class VectorSimdKernels implements SimdKernels {
+	/**
+	 * Only use vectors if there are at least 256-bits. With smaller vectors the conversions between types
+	 * would need to use vectors which are too small to be supported.
+	 */
+	@Override public boolean isSupported() {
+		return FloatVector.SPECIES_PREFERRED.vectorBitSize() >= 256;
+	}
+
+	/** Returns true if the image is large enough that it should be processed with multiple threads */
+	static boolean concurrent( int rows, int cols ) {
+		return BoofConcurrency.USE_CONCURRENT && rows*cols > BoofConcurrency.SMALL_IMAGE;
+	}
+
+	@Override public void abs_S16( short[] input, int inputStart, int inputStride,
+								   short[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.abs(
+					input, inputStart + y0*inputStride, inputStride,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.abs(input, inputStart, inputStride, output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void abs_F32( float[] input, int inputStart, int inputStride,
+								   float[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.abs(
+					input, inputStart + y0*inputStride, inputStride,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.abs(input, inputStart, inputStride, output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void multiply_F32( float[] input, int inputStart, int inputStride, float value,
+										float[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.multiply(
+					input, inputStart + y0*inputStride, inputStride, value,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.multiply(input, inputStart, inputStride, value,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void multiply_F32( float[] input, int inputStart, int inputStride,
+										float value, float lower, float upper,
+										float[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.multiply(
+					input, inputStart + y0*inputStride, inputStride, value, lower, upper,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.multiply(input, inputStart, inputStride, value, lower, upper,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void multiply_F32( float[] imgA, int startA, int strideA,
+										float[] imgB, int startB, int strideB,
+										float[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.multiply(
+					imgA, startA + y0*strideA, strideA, imgB, startB + y0*strideB, strideB,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.multiply(imgA, startA, strideA, imgB, startB, strideB,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void boundImage_U8( byte[] data, int start, int stride, int min, int max, int rows, int cols ) {
+		// Bounds outside the range of the data type are clipped. Vector code would give a different
+		// result if the bounds cross, which is rare enough that scalar code is used instead
+		int _min = Math.max(0, min);
+		int _max = Math.min(255, max);
+		if (_min > _max) {
+			boundScalar(data, start, stride, min, max, rows, cols);
+			return;
+		}
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) ->
+					VectorPixelMath.boundImage(data, start + y0*stride, stride, _min, _max, y1 - y0, cols));
+		} else {
+			VectorPixelMath.boundImage(data, start, stride, _min, _max, rows, cols);
+		}
+	}
+
+	@Override public void boundImage_S16( short[] data, int start, int stride, int min, int max, int rows, int cols ) {
+		int _min = Math.max(Short.MIN_VALUE, min);
+		int _max = Math.min(Short.MAX_VALUE, max);
+		if (_min > _max) {
+			boundScalar(data, start, stride, min, max, rows, cols);
+			return;
+		}
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) ->
+					VectorPixelMath.boundImage(data, start + y0*stride, stride, _min, _max, y1 - y0, cols));
+		} else {
+			VectorPixelMath.boundImage(data, start, stride, _min, _max, rows, cols);
+		}
+	}
+
+	@Override public void boundImage_F32( float[] data, int start, int stride, float min, float max, int rows, int cols ) {
+		if (min > max) {
+			boundScalar(data, start, stride, min, max, rows, cols);
+			return;
+		}
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) ->
+					VectorPixelMath.boundImage(data, start + y0*stride, stride, min, max, y1 - y0, cols));
+		} else {
+			VectorPixelMath.boundImage(data, start, stride, min, max, rows, cols);
+		}
+	}
+
+	@Override public void diffAbs_U8( byte[] imgA, int startA, int strideA,
+									  byte[] imgB, int startB, int strideB,
+									  byte[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.diffAbs(
+					imgA, startA + y0*strideA, strideA, imgB, startB + y0*strideB, strideB,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.diffAbs(imgA, startA, strideA, imgB, startB, strideB,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void diffAbs_S16( short[] imgA, int startA, int strideA,
+									   short[] imgB, int startB, int strideB,
+									   short[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.diffAbs(
+					imgA, startA + y0*strideA, strideA, imgB, startB + y0*strideB, strideB,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.diffAbs(imgA, startA, strideA, imgB, startB, strideB,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void diffAbs_F32( float[] imgA, int startA, int strideA,
+									   float[] imgB, int startB, int strideB,
+									   float[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.diffAbs(
+					imgA, startA + y0*strideA, strideA, imgB, startB + y0*strideB, strideB,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.diffAbs(imgA, startA, strideA, imgB, startB, strideB,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void add_U8( byte[] imgA, int startA, int strideA,
+								  byte[] imgB, int startB, int strideB,
+								  short[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.add(
+					imgA, startA + y0*strideA, strideA, imgB, startB + y0*strideB, strideB,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.add(imgA, startA, strideA, imgB, startB, strideB,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void add_S16( short[] imgA, int startA, int strideA,
+								   short[] imgB, int startB, int strideB,
+								   int[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.add(
+					imgA, startA + y0*strideA, strideA, imgB, startB + y0*strideB, strideB,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.add(imgA, startA, strideA, imgB, startB, strideB,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void add_F32( float[] imgA, int startA, int strideA,
+								   float[] imgB, int startB, int strideB,
+								   float[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorPixelMath.add(
+					imgA, startA + y0*strideA, strideA, imgB, startB + y0*strideB, strideB,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorPixelMath.add(imgA, startA, strideA, imgB, startB, strideB,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void convert_U8_F32( byte[] input, int inputStart, int inputStride,
+										  float[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorConvertImage.convert_U8_F32(
+					input, inputStart + y0*inputStride, inputStride,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorConvertImage.convert_U8_F32(input, inputStart, inputStride,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void convert_U8_S16( byte[] input, int inputStart, int inputStride,
+										  short[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorConvertImage.convert_U8_S16(
+					input, inputStart + y0*inputStride, inputStride,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorConvertImage.convert_U8_S16(input, inputStart, inputStride,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public void convert_S16_F32( short[] input, int inputStart, int inputStride,
+										   float[] output, int outputStart, int outputStride, int rows, int cols ) {
+		if (concurrent(rows, cols)) {
+			BoofConcurrency.loopBlocks(0, rows, ( y0, y1 ) -> VectorConvertImage.convert_S16_F32(
+					input, inputStart + y0*inputStride, inputStride,
+					output, outputStart + y0*outputStride, outputStride, y1 - y0, cols));
+		} else {
+			VectorConvertImage.convert_S16_F32(input, inputStart, inputStride,
+					output, outputStart, outputStride, rows, cols);
+		}
+	}
+
+	@Override public int min_U8( byte[] array, int startIndex, int rows, int columns, int stride ) {
+		if (!concurrent(rows, columns))
+			return VectorImageStatistics.min(array, startIndex, rows, columns, stride);
+		int[] rowResults = new int[rows];
+		BoofConcurrency.loopFor(0, rows, y ->
+				rowResults[y] = VectorImageStatistics.min(array, startIndex + y*stride, 1, columns, stride));
+		int output = rowResults[0];
+		for (int y = 1; y < rows; y++) {
+			output = Math.min(output, rowResults[y]);
+		}
+		return output;
+	}
+
+	@Override public int max_U8( byte[] array, int startIndex, int rows, int columns, int stride ) {
+		if (!concurrent(rows, columns))
+			return VectorImageStatistics.max(array, startIndex, rows, columns, stride);
+		int[] rowResults = new int[rows];
+		BoofConcurrency.loopFor(0, rows, y ->
+				rowResults[y] = VectorImageStatistics.max(array, startIndex + y*stride, 1, columns, stride));
+		int output = rowResults[0];
+		for (int y = 1; y < rows; y++) {
+			output = Math.max(output, rowResults[y]);
+		}
+		return output;
+	}
+
+	@Override public int min_S16( short[] array, int startIndex, int rows, int columns, int stride ) {
+		if (!concurrent(rows, columns))
+			return VectorImageStatistics.min(array, startIndex, rows, columns, stride);
+		int[] rowResults = new int[rows];
+		BoofConcurrency.loopFor(0, rows, y ->
+				rowResults[y] = VectorImageStatistics.min(array, startIndex + y*stride, 1, columns, stride));
+		int output = rowResults[0];
+		for (int y = 1; y < rows; y++) {
+			output = Math.min(output, rowResults[y]);
+		}
+		return output;
+	}
+
+	@Override public int max_S16( short[] array, int startIndex, int rows, int columns, int stride ) {
+		if (!concurrent(rows, columns))
+			return VectorImageStatistics.max(array, startIndex, rows, columns, stride);
+		int[] rowResults = new int[rows];
+		BoofConcurrency.loopFor(0, rows, y ->
+				rowResults[y] = VectorImageStatistics.max(array, startIndex + y*stride, 1, columns, stride));
+		int output = rowResults[0];
+		for (int y = 1; y < rows; y++) {
+			output = Math.max(output, rowResults[y]);
+		}
+		return output;
+	}
+
+	@Override public float min_F32( float[] array, int startIndex, int rows, int columns, int stride ) {
+		if (!concurrent(rows, columns))
+			return VectorImageStatistics.min(array, startIndex, rows, columns, stride);
+		float[] rowResults = new float[rows];
+		BoofConcurrency.loopFor(0, rows, y ->
+				rowResults[y] = VectorImageStatistics.min(array, startIndex + y*stride, 1, columns, stride));
+		// Starts with the first element, like the scalar code, so that NaN is handled the same way
+		float output = array[startIndex];
+		for (int y = 0; y < rows; y++) {
+			if (rowResults[y] < output)
+				output = rowResults[y];
+		}
+		return output;
+	}
+
+	@Override public float max_F32( float[] array, int startIndex, int rows, int columns, int stride ) {
+		if (!concurrent(rows, columns))
+			return VectorImageStatistics.max(array, startIndex, rows, columns, stride);
+		float[] rowResults = new float[rows];
+		BoofConcurrency.loopFor(0, rows, y ->
+				rowResults[y] = VectorImageStatistics.max(array, startIndex + y*stride, 1, columns, stride));
+		float output = array[startIndex];
+		for (int y = 0; y < rows; y++) {
+			if (rowResults[y] > output)
+				output = rowResults[y];
+		}
+		return output;
+	}
+
+	@Override public int sum_U8( byte[] array, int startIndex, int rows, int columns, int stride ) {
+		if (!concurrent(rows, columns))
+			return VectorImageStatistics.sum(array, startIndex, rows, columns, stride);
+		return BoofConcurrency.sum(0, rows, int.class, y ->
+				VectorImageStatistics.sum(array, startIndex + y*stride, 1, columns, stride)).intValue();
+	}
+
+	@Override public int sum_S16( short[] array, int startIndex, int rows, int columns, int stride ) {
+		if (!concurrent(rows, columns))
+			return VectorImageStatistics.sum(array, startIndex, rows, columns, stride);
+		return BoofConcurrency.sum(0, rows, int.class, y ->
+				VectorImageStatistics.sum(array, startIndex + y*stride, 1, columns, stride)).intValue();
+	}
+
+	@Override public float sum_F32( float[] array, int startIndex, int rows, int columns, int stride ) {
+		if (!concurrent(rows, columns))
+			return VectorImageStatistics.sum(array, startIndex, rows, columns, stride);
+		// Rows are summed in order so the result doesn't depend on the number of threads
+		float[] rowResults = new float[rows];
+		BoofConcurrency.loopFor(0, rows, y ->
+				rowResults[y] = VectorImageStatistics.sum(array, startIndex + y*stride, 1, columns, stride));
+		float total = 0;
+		for (int y = 0; y < rows; y++) {
+			total += rowResults[y];
+		}
+		return total;
+	}
+
+	static void boundScalar( byte[] data, int start, int stride, int min, int max, int rows, int cols ) {
+		for (int y = 0; y < rows; y++) {
+			int index = start + y*stride;
+			int end = index + cols;
+			for (; index < end; index++) {
+				int value = data[index] & 0xFF;
+				if (value < min)
+					data[index] = (byte)min;
+				else if (value > max)
+					data[index] = (byte)max;
+			}
+		}
+	}
+
+	static void boundScalar( short[] data, int start, int stride, int min, int max, int rows, int cols ) {
+		for (int y = 0; y < rows; y++) {
+			int index = start + y*stride;
+			int end = index + cols;
+			for (; index < end; index++) {
+				int value = data[index];
+				if (value < min)
+					data[index] = (short)min;
+				else if (value > max)
+					data[index] = (short)max;
+			}
+		}
+	}
+
+	static void boundScalar( float[] data, int start, int stride, float min, float max, int rows, int cols ) {
+		for (int y = 0; y < rows; y++) {
+			int index = start + y*stride;
+			int end = index + cols;
+			for (; index < end; index++) {
+				float value = data[index];
+				if (value < min)
+					data[index] = min;
+				else if (value > max)
+					data[index] = max;
+			}
+		}
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd.vector;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.alg.misc.PixelMath;
+import boofcv.core.image.ConvertImage;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.simd.BoofSimd;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the output of functions with SIMD turned on and off. Shapes are selected so that rows are not a
+ * multiple of the vector length and that both the single and multi threaded code is used.
+ *
+ * @author Peter Abeles
+ */
+public class TestVectorSimdKernels extends BoofStandardJUnit {
+	int[][] shapes = {{1, 1}, {7, 3}, {67, 13}, {211, 131}};
+
+	@AfterEach void restore() {
+		BoofSimd.USE_SIMD = true;
+	}
+
+	@Test void kernelsAreFound() {
+		assertTrue(BoofSimd.isAvailable());
+		assertTrue(BoofSimd.kernels() instanceof VectorSimdKernels);
+		BoofSimd.USE_SIMD = false;
+		assertNull(BoofSimd.kernels());
+	}
+
+	@Test void abs() {
+		for (int[] shape : shapes) {
+			GrayS16 inS16 = random(new GrayS16(shape[0], shape[1]), Short.MIN_VALUE, Short.MAX_VALUE);
+			compare(create(GrayS16.class, shape), out -> PixelMath.abs(inS16, out), 0);
+			GrayF32 inF32 = random(new GrayF32(shape[0], shape[1]), -100, 100);
+			compare(create(GrayF32.class, shape), out -> PixelMath.abs(inF32, out), 0);
+		}
+	}
+
+	@Test void multiply() {
+		for (int[] shape : shapes) {
+			GrayF32 a = random(new GrayF32(shape[0], shape[1]), -100, 100);
+			GrayF32 b = random(new GrayF32(shape[0], shape[1]), -100, 100);
+			compare(create(GrayF32.class, shape), out -> PixelMath.multiply(a, 2.5f, out), 0);
+			compare(create(GrayF32.class, shape), out -> PixelMath.multiply(a, 2.5f, -20f, 30f, out), 0);
+			compare(create(GrayF32.class, shape), out -> PixelMath.multiply(a, b, out), 0);
+		}
+	}
+
+	@Test void boundImage() {
+		for (int[] shape : shapes) {
+			GrayU8 u8 = random(new GrayU8(shape[0], shape[1]), 0, 255);
+			compare(create(GrayU8.class, shape), out -> PixelMath.boundImage(out.setTo(u8), 20, 200), 0);
+			compare(create(GrayU8.class, shape), out -> PixelMath.boundImage(out.setTo(u8), -5, 300), 0);
+			compare(create(GrayU8.class, shape), out -> PixelMath.boundImage(out.setTo(u8), 200, 20), 0);
+			GrayS16 s16 = random(new GrayS16(shape[0], shape[1]), Short.MIN_VALUE, Short.MAX_VALUE);
+			compare(create(GrayS16.class, shape), out -> PixelMath.boundImage(out.setTo(s16), -1000, 2000), 0);
+			GrayF32 f32 = random(new GrayF32(shape[0], shape[1]), -100, 100);
+			compare(create(GrayF32.class, shape), out -> PixelMath.boundImage(out.setTo(f32), -20f, 30f), 0);
+			compare(create(GrayF32.class, shape), out -> PixelMath.boundImage(out.setTo(f32), 30f, -20f), 0);
+		}
+	}
+
+	@Test void diffAbs() {
+		for (int[] shape : shapes) {
+			GrayU8 u8a = random(new GrayU8(shape[0], shape[1]), 0, 255);
+			GrayU8 u8b = random(new GrayU8(shape[0], shape[1]), 0, 255);
+			compare(create(GrayU8.class, shape), out -> PixelMath.diffAbs(u8a, u8b, out), 0);
+			// The difference can overflow a short
+			GrayS16 s16a = random(new GrayS16(shape[0], shape[1]), Short.MIN_VALUE, Short.MAX_VALUE);
+			GrayS16 s16b = random(new GrayS16(shape[0], shape[1]), Short.MIN_VALUE, Short.MAX_VALUE);
+			compare(create(GrayS16.class, shape), out -> PixelMath.diffAbs(s16a, s16b, out), 0);
+			GrayF32 f32a = random(new GrayF32(shape[0], shape[1]), -100, 100);
+			GrayF32 f32b = random(new GrayF32(shape[0], shape[1]), -100, 100);
+			compare(create(GrayF32.class, shape), out -> PixelMath.diffAbs(f32a, f32b, out), 0);
+		}
+	}
+
+	@Test void add() {
+		for (int[] shape : shapes) {
+			GrayU8 u8a = random(new GrayU8(shape[0], shape[1]), 0, 255);
+			GrayU8 u8b = random(new GrayU8(shape[0], shape[1]), 0, 255);
+			compare(create(GrayU16.class, shape), out -> PixelMath.add(u8a, u8b, out), 0);
+			GrayS16 s16a = random(new GrayS16(shape[0], shape[1]), Short.MIN_VALUE, Short.MAX_VALUE);
+			GrayS16 s16b = random(new GrayS16(shape[0], shape[1]), Short.MIN_VALUE, Short.MAX_VALUE);
+			compare(create(GrayS32.class, shape), out -> PixelMath.add(s16a, s16b, out), 0);
+			GrayF32 f32a = random(new GrayF32(shape[0], shape[1]), -100, 100);
+			GrayF32 f32b = random(new GrayF32(shape[0], shape[1]), -100, 100);
+			compare(create(GrayF32.class, shape), out -> PixelMath.add(f32a, f32b, out), 0);
+		}
+	}
+
+	@Test void convert() {
+		for (int[] shape : shapes) {
+			GrayU8 u8 = random(new GrayU8(shape[0], shape[1]), 0, 255);
+			compare(create(GrayF32.class, shape), out -> ConvertImage.convert(u8, out), 0);
+			compare(create(GrayS16.class, shape), out -> ConvertImage.convert(u8, out), 0);
+			GrayS16 s16 = random(new GrayS16(shape[0], shape[1]), Short.MIN_VALUE, Short.MAX_VALUE);
+			compare(create(GrayF32.class, shape), out -> ConvertImage.convert(s16, out), 0);
+
+			var interleaved = new InterleavedU8(shape[0], shape[1], 3);
+			ImageMiscOps.fillUniform(interleaved, rand, 0, 255);
+			var found = BoofTesting.createSubImageOf(new InterleavedF32(shape[0], shape[1], 3));
+			compare(found, out -> ConvertImage.convert(interleaved, out), 0);
+		}
+	}
+
+	@Test void statistics() {
+		for (int[] shape : shapes) {
+			GrayU8 u8 = BoofTesting.createSubImageOf(random(new GrayU8(shape[0], shape[1]), 0, 255));
+			GrayS16 s16 = BoofTesting.createSubImageOf(random(new GrayS16(shape[0], shape[1]), -2000, 2000));
+			GrayF32 f32 = BoofTesting.createSubImageOf(random(new GrayF32(shape[0], shape[1]), -100, 100));
+
+			BoofSimd.USE_SIMD = false;
+			int[] expected = {ImageStatistics.min(u8), ImageStatistics.max(u8), ImageStatistics.sum(u8),
+					ImageStatistics.min(s16), ImageStatistics.max(s16), ImageStatistics.sum(s16)};
+			float[] expectedF32 = {ImageStatistics.min(f32), ImageStatistics.max(f32), ImageStatistics.sum(f32)};
+
+			BoofSimd.USE_SIMD = true;
+			int[] found = {ImageStatistics.min(u8), ImageStatistics.max(u8), ImageStatistics.sum(u8),
+					ImageStatistics.min(s16), ImageStatistics.max(s16), ImageStatistics.sum(s16)};
+			assertArrayEquals(expected, found);
+			assertEquals(expectedF32[0], ImageStatistics.min(f32));
+			assertEquals(expectedF32[1], ImageStatistics.max(f32));
+			// order of addition is different
+			assertEquals(expectedF32[2], ImageStatistics.sum(f32), 1e-3*f32.totalPixels());
+		}
+	}
+
+	/**
+	 * Scalar code ignores NaN unless it's the first element
+	 */
+	@Test void minMax_NaN() {
+		for (int[] shape : shapes) {
+			GrayF32 f32 = random(new GrayF32(shape[0], shape[1]), -100, 100);
+			f32.data[rand.nextInt(f32.data.length)] = Float.NaN;
+			for (int trial = 0; trial < 2; trial++) {
+				BoofSimd.USE_SIMD = false;
+				float expectedMin = ImageStatistics.min(f32);
+				float expectedMax = ImageStatistics.max(f32);
+				BoofSimd.USE_SIMD = true;
+				assertEquals(expectedMin, ImageStatistics.min(f32));
+				assertEquals(expectedMax, ImageStatistics.max(f32));
+				f32.data[0] = Float.NaN;
+			}
+		}
+	}
+
+	/**
+	 * Runs the operation with SIMD turned off and on then compares the results
+	 */
+	<T extends ImageBase<T>> void compare( T output, Operation<T> operation, double tol ) {
+		BoofSimd.USE_SIMD = false;
+		operation.process(output);
+		T expected = output.clone();
+
+		BoofSimd.USE_SIMD = true;
+		operation.process(output);
+		BoofTesting.assertEquals(expected, output, tol);
+	}
+
+	<T extends ImageGray<T>> T create( Class<T> type, int[] shape ) {
+		return BoofTesting.createSubImageOf(random(GeneralizedImageOps.createSingleBand(type, shape[0], shape[1]), 0, 100));
+	}
+
+	<T extends ImageGray<T>> T random( T image, double min, double max ) {
+		GImageMiscOps.fillUniform(image, rand, min, max);
+		return image;
+	}
+
+	interface Operation<T> {
+		void process( T output );
+	}
+}
@@ -39,6 +39,7 @@ public class AutocodeConcurrentApp {
 				"main/boofcv-ip/src/main/java/boofcv/alg/filter/binary",
 				"main/boofcv-ip/src/main/java/boofcv/alg/filter/misc/impl/",
 				"main/boofcv-ip/src/main/java/boofcv/alg/filter/misc/",
+				"main/boofcv-ip/src/main/java/boofcv/alg/filter/morphology/impl/",
 				"main/boofcv-ip/src/main/java/boofcv/alg/misc/impl/",
 				"main/boofcv-ip/src/main/java/boofcv/alg/color/impl",
 				"main/boofcv-ip/src/main/java/boofcv/alg/enhance/impl/",
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription2D;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.ConfigAssociateGreedy;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.feature.TupleDesc_B;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.DogArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frame to frame association of binary features, like what a DDA tracker does, with a small search radius.
+ * Compares brute force 2D association against bucketing features into a grid.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkAssociateGreedyGrid2D {
+
+	@Param({"500", "2000", "5000"})
+	int numFeatures;
+
+	/** Maximum distance in pixels a feature can move */
+	@Param({"20"})
+	double radius;
+
+	int width = 1280, height = 720;
+
+	Random rand = new Random(234234);
+	DogArray<TupleDesc_B> descSrc, descDst;
+	DogArray<Point2D_F64> pixelSrc, pixelDst;
+
+	AssociateDescription2D<TupleDesc_B> bruteForce;
+	AssociateDescription2D<TupleDesc_B> grid;
+
+	@Setup public void setup() {
+		BoofConcurrency.USE_CONCURRENT = false;
+
+		descSrc = new DogArray<>(() -> new TupleDesc_B(256));
+		descDst = new DogArray<>(() -> new TupleDesc_B(256));
+		pixelSrc = new DogArray<>(Point2D_F64::new);
+		pixelDst = new DogArray<>(Point2D_F64::new);
+
+		// destination features are the source features after a small motion
+		for (int i = 0; i < numFeatures; i++) {
+			TupleDesc_B a = descSrc.grow();
+			for (int j = 0; j < a.data.length; j++) {
+				a.data[j] = rand.nextInt();
+			}
+			descDst.grow().setTo(a);
+			Point2D_F64 p = pixelSrc.grow();
+			p.setTo(rand.nextDouble()*width, rand.nextDouble()*height);
+			pixelDst.grow().setTo(p.x + rand.nextGaussian()*3, p.y + rand.nextGaussian()*3);
+		}
+
+		var config = new ConfigAssociateGreedy(true, 1.0, -1);
+		var score = new ScoreAssociateHamming_B();
+		bruteForce = FactoryAssociation.greedy2D(config, ConfigLength.fixed(radius), score);
+		grid = FactoryAssociation.greedyGrid2D(config, ConfigLength.fixed(radius), score);
+		for (var alg : new AssociateDescription2D[]{bruteForce, grid}) {
+			alg.initialize(width, height);
+		}
+	}
+
+	@Benchmark public void bruteForce() {
+		bruteForce.setSource(pixelSrc, descSrc);
+		bruteForce.setDestination(pixelDst, descDst);
+		bruteForce.associate();
+	}
+
+	@Benchmark public void grid() {
+		grid.setSource(pixelSrc, descSrc);
+		grid.setDestination(pixelDst, descDst);
+		grid.associate();
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkAssociateGreedyGrid2D.class.getSimpleName())
+				.warmupTime(TimeValue.seconds(1))
+				.measurementTime(TimeValue.seconds(1))
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.ConfigAssociateGreedy;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.DogArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares brute force association of binary descriptors using greedy association with a hamming score
+ * against the specialized hamming association.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class BenchmarkAssociationHamming {
+
+	@Param({"true", "false"})
+	boolean concurrent;
+
+	@Param({"256"})
+	int numBits;
+
+	@Param({"10000"})
+	int numFeatures;
+
+	Random rand = new Random(234234);
+	DogArray<TupleDesc_B> listA, listB;
+
+	AssociateDescription<TupleDesc_B> greedy;
+	AssociateDescription<TupleDesc_B> hamming;
+
+	@Setup public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		listA = createSet(rand);
+		listB = createSet(rand);
+
+		var config = new ConfigAssociateGreedy(false, 0.8, -1);
+		greedy = FactoryAssociation.greedy(config, new ScoreAssociateHamming_B());
+		hamming = FactoryAssociation.hammingBruteForce(config, numBits);
+	}
+
+	@Benchmark public void greedy() {
+		greedy.setSource(listA);
+		greedy.setDestination(listB);
+		greedy.associate();
+	}
+
+	@Benchmark public void hamming() {
+		hamming.setSource(listA);
+		hamming.setDestination(listB);
+		hamming.associate();
+	}
+
+	private DogArray<TupleDesc_B> createSet( Random rand ) {
+		DogArray<TupleDesc_B> ret = new DogArray<>(() -> new TupleDesc_B(numBits));
+
+		for (int i = 0; i < numFeatures; i++) {
+			TupleDesc_B t = ret.grow();
+			for (int j = 0; j < t.data.length; j++) {
+				t.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkAssociationHamming.class.getSimpleName())
+				.warmupTime(TimeValue.seconds(1))
+				.measurementTime(TimeValue.seconds(1))
+				.build();
+
+		new Runner(opt).run();
+	}
+}
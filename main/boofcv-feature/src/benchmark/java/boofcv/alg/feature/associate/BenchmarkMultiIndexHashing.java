@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.ConfigAssociateGreedy;
+import boofcv.factory.feature.associate.ConfigAssociateNearestNeighbor;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.DogArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up noisy copies of binary descriptors in a large database, e.g. features from many key frames. Compares
+ * brute force hamming association against multi-index hashing. Only the look up is timed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkMultiIndexHashing {
+
+	@Param({"256"})
+	int numBits;
+
+	@Param({"100000"})
+	int databaseSize;
+
+	@Param({"1000"})
+	int numQueries;
+
+	/** Maximum distance between two matching descriptors */
+	@Param({"30"})
+	int maxDistance;
+
+	Random rand = new Random(234234);
+	DogArray<TupleDesc_B> database, queries;
+
+	AssociateDescription<TupleDesc_B> bruteForce;
+	AssociateDescription<TupleDesc_B> multiIndex;
+
+	@Setup public void setup() {
+		BoofConcurrency.USE_CONCURRENT = false;
+
+		database = new DogArray<>(() -> new TupleDesc_B(numBits));
+		for (int i = 0; i < databaseSize; i++) {
+			TupleDesc_B t = database.grow();
+			for (int j = 0; j < t.data.length; j++) {
+				t.data[j] = rand.nextInt();
+			}
+		}
+
+		// Queries are copies of database descriptors with some bits flipped
+		queries = new DogArray<>(() -> new TupleDesc_B(numBits));
+		for (int i = 0; i < numQueries; i++) {
+			TupleDesc_B t = queries.grow();
+			t.setTo(database.get(rand.nextInt(databaseSize)));
+			for (int j = rand.nextInt(maxDistance); j >= 0; j--) {
+				int bit = rand.nextInt(numBits);
+				t.data[bit/32] ^= 1 << (bit%32);
+			}
+		}
+
+		var configGreedy = new ConfigAssociateGreedy(false, 1.0, maxDistance);
+		bruteForce = FactoryAssociation.hammingBruteForce(configGreedy, numBits);
+		bruteForce.setSource(database);
+
+		var configNN = new ConfigAssociateNearestNeighbor();
+		configNN.scoreRatioThreshold = 1.0;
+		configNN.maxErrorThreshold = maxDistance;
+		multiIndex = FactoryAssociation.multiIndexHashing(configNN, numBits);
+		multiIndex.setSource(database);
+	}
+
+	@Benchmark public void bruteForce() {
+		bruteForce.setDestination(queries);
+		bruteForce.associate();
+	}
+
+	@Benchmark public void multiIndex() {
+		multiIndex.setDestination(queries);
+		multiIndex.associate();
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkMultiIndexHashing.class.getSimpleName())
+				.warmupTime(TimeValue.seconds(1))
+				.measurementTime(TimeValue.seconds(1))
+				.build();
+
+		new Runner(opt).run();
+	}
+}
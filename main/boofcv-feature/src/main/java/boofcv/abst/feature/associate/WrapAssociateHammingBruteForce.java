@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.AssociateHammingBruteForceBase;
+import boofcv.alg.feature.associate.FindUnassociated;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray_B64;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.FastAccess;
+
+/**
+ * Wrapper around {@link AssociateHammingBruteForceBase}. Descriptors are copied into a packed array when they
+ * are passed in.
+ *
+ * @author Peter Abeles
+ */
+public class WrapAssociateHammingBruteForce implements AssociateDescription<TupleDesc_B> {
+
+	AssociateHammingBruteForceBase alg;
+
+	DogArray<AssociatedIndex> matches = new DogArray<>(10, AssociatedIndex::new);
+
+	// Copy of the input descriptors
+	PackedTupleArray_B64 packedSrc;
+	PackedTupleArray_B64 packedDst;
+
+	// indexes of unassociated features
+	DogArray_I32 unassocSrc = new DogArray_I32();
+	// creates a list of unassociated features from the list of matches
+	FindUnassociated unassociated = new FindUnassociated();
+
+	/**
+	 * @param alg Association algorithm
+	 * @param numBits Number of bits in the descriptor
+	 */
+	public WrapAssociateHammingBruteForce( AssociateHammingBruteForceBase alg, int numBits ) {
+		this.alg = alg;
+		this.packedSrc = new PackedTupleArray_B64(numBits);
+		this.packedDst = new PackedTupleArray_B64(numBits);
+	}
+
+	@Override
+	public void setSource( FastAccess<TupleDesc_B> listSrc ) {
+		pack(listSrc, packedSrc);
+	}
+
+	@Override
+	public void setDestination( FastAccess<TupleDesc_B> listDst ) {
+		pack(listDst, packedDst);
+	}
+
+	private static void pack( FastAccess<TupleDesc_B> list, PackedTupleArray_B64 packed ) {
+		packed.reset();
+		packed.reserve(list.size);
+		for (int i = 0; i < list.size; i++) {
+			packed.append(list.get(i));
+		}
+	}
+
+	@Override
+	public DogArray<AssociatedIndex> getMatches() {
+		return matches;
+	}
+
+	@Override
+	public void associate() {
+		unassocSrc.reset();
+		alg.associate(packedSrc, packedDst);
+
+		DogArray_I32 pairs = alg.getPairs();
+		DogArray_I32 distances = alg.getBestDistances();
+		int k = alg.getNumNeighbors();
+
+		matches.reset();
+		for (int i = 0; i < packedSrc.size(); i++) {
+			int dst = pairs.data[i];
+			if (dst >= 0)
+				matches.grow().setTo(i, dst, distances.data[i*k]);
+			else
+				unassocSrc.add(i);
+		}
+	}
+
+	@Override
+	public DogArray_I32 getUnassociatedSource() {
+		return unassocSrc;
+	}
+
+	@Override
+	public DogArray_I32 getUnassociatedDestination() {
+		return unassociated.checkDestination(matches, packedDst.size());
+	}
+
+	@Override
+	public void setMaxScoreThreshold( double score ) {
+		alg.setMaxDistance(score >= Integer.MAX_VALUE ? -1 : (int)score);
+	}
+
+	@Override
+	public MatchScoreType getScoreType() {
+		return MatchScoreType.NORM_ERROR;
+	}
+
+	@Override
+	public boolean uniqueSource() {
+		return true;
+	}
+
+	@Override
+	public boolean uniqueDestination() {
+		return alg.isBackwardsValidation();
+	}
+
+	@Override public Class<TupleDesc_B> getDescriptionType() {
+		return TupleDesc_B.class;
+	}
+}
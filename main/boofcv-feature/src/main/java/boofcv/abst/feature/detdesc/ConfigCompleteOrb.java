@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.abst.feature.detect.interest.ConfigFastCorner;
+import boofcv.alg.feature.detdesc.CompleteOrb;
+import boofcv.misc.BoofMiscOps;
+import boofcv.struct.ConfigGridUniform;
+import boofcv.struct.Configuration;
+import boofcv.struct.pyramid.ConfigDiscreteLevels;
+
+/**
+ * Configuration for {@link CompleteOrb}.
+ *
+ * @author Peter Abeles
+ */
+public class ConfigCompleteOrb implements Configuration {
+	/** Maximum number of features returned across all pyramid levels. If &le; 0 then all features are returned. */
+	public int maxFeatures = 500;
+
+	/** Configuration for the FAST corner detector */
+	public ConfigFastCorner fast = new ConfigFastCorner(20, 9);
+
+	/** Number of levels in the image pyramid. Each level is half the size of the previous. */
+	public ConfigDiscreteLevels pyramid = ConfigDiscreteLevels.levels(4);
+
+	/** Spatial distribution of selected features inside each level */
+	public ConfigGridUniform uniform = new ConfigGridUniform();
+
+	/** Radius of the window used to compute the Harris corner score */
+	public int harrisRadius = 3;
+
+	/** Tuning parameter for the Harris corner score. Typically 0.04 */
+	public double harrisK = 0.04;
+
+	/** Radius of the circular region used to compute the intensity centroid orientation */
+	public int orientationRadius = 15;
+
+	/** Number of bits in the descriptor */
+	public int descriptorBits = 256;
+
+	/** Radius of the region sampled by the descriptor */
+	public int descriptorRadius = 15;
+
+	/** Amount of blur applied to each layer before it's sampled by the descriptor */
+	public double blurSigma = 2.0;
+
+	/** Radius of the blur kernel applied before the descriptor */
+	public int blurRadius = 3;
+
+	/** Number of discrete angles the descriptor's sample pattern is precomputed at */
+	public int numAngles = 30;
+
+	/** Seed used to generate the descriptor's sample pattern */
+	public long randomSeed = 0xBEEF;
+
+	@Override public void checkValidity() {
+		fast.checkValidity();
+		pyramid.checkValidity();
+		uniform.checkValidity();
+		BoofMiscOps.checkTrue(harrisRadius > 0, "harrisRadius must be positive");
+		BoofMiscOps.checkTrue(orientationRadius > 0, "orientationRadius must be positive");
+		BoofMiscOps.checkTrue(descriptorBits > 0, "descriptorBits must be positive");
+		BoofMiscOps.checkTrue(descriptorRadius > 0, "descriptorRadius must be positive");
+		BoofMiscOps.checkTrue(numAngles > 0, "numAngles must be positive");
+	}
+
+	public ConfigCompleteOrb setTo( ConfigCompleteOrb src ) {
+		this.maxFeatures = src.maxFeatures;
+		this.fast.setTo(src.fast);
+		this.pyramid.setTo(src.pyramid);
+		this.uniform.setTo(src.uniform);
+		this.harrisRadius = src.harrisRadius;
+		this.harrisK = src.harrisK;
+		this.orientationRadius = src.orientationRadius;
+		this.descriptorBits = src.descriptorBits;
+		this.descriptorRadius = src.descriptorRadius;
+		this.blurSigma = src.blurSigma;
+		this.blurRadius = src.blurRadius;
+		this.numAngles = src.numAngles;
+		this.randomSeed = src.randomSeed;
+		return this;
+	}
+}
@@ -38,12 +38,31 @@ public class ConfigTrackerDda implements Configuration {
 	/** Random seed */
 	public long seed = 0xDEADBEEF;
 
+	/**
+	 * Used to predict where a track will be in the next frame before association. Combine with a small
+	 * {@link boofcv.factory.feature.associate.ConfigAssociate#maximumDistancePixels} and
+	 * {@link boofcv.factory.feature.associate.ConfigAssociate#spatialGrid} so that only detections near the
+	 * predicted location are considered.
+	 */
+	public MotionModel motion = MotionModel.NONE;
+
 	@Override public void checkValidity() {}
 
+	/** How the location of a track is predicted in the next frame */
+	public enum MotionModel {
+		/** The track is assumed to be at its previous location */
+		NONE,
+		/** Each track moves at the same velocity it had between the previous two observations */
+		CONSTANT_VELOCITY,
+		/** A user supplied homography describes how pixels move from the previous frame to the next frame */
+		HOMOGRAPHY
+	}
+
 	public ConfigTrackerDda setTo( ConfigTrackerDda src ) {
 		this.updateDescription = src.updateDescription;
 		this.maxInactiveTracks = src.maxInactiveTracks;
 		this.seed = src.seed;
+		this.motion = src.motion;
 		return this;
 	}
 
@@ -24,12 +24,14 @@ import boofcv.alg.tracker.hybrid.HybridTrackerScalePoint;
 import boofcv.alg.transform.pyramid.PyramidOps;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.metrics.StageTimer;
 import boofcv.struct.ConfigLength;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.ConfigDiscreteLevels;
 import boofcv.struct.pyramid.PyramidDiscrete;
+import lombok.Getter;
 import org.ddogleg.struct.DogArray;
 import org.jetbrains.annotations.Nullable;
 
@@ -60,6 +62,9 @@ public class PointTrackerHybrid<I extends ImageGray<I>, D extends ImageGray<D>,
 	// Reference to image passed to process()
 	I image;
 
+	/** Reports the time taken by each stage when metrics are enabled */
+	final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
+
 	// Image pyramid data structures
 	PyramidDiscrete<I> pyramid;
 	D[] derivX;
@@ -94,6 +99,7 @@ public class PointTrackerHybrid<I extends ImageGray<I>, D extends ImageGray<D>,
 	public void process( I image ) {
 		this.image = image;
 		detectCalled = false;
+		metrics.start();
 
 		// update the image pyramid
 		pyramid.process(image);
@@ -102,19 +108,25 @@ public class PointTrackerHybrid<I extends ImageGray<I>, D extends ImageGray<D>,
 			derivY = PyramidOps.declareOutput(pyramid, derivType);
 		}
 		PyramidOps.gradient(pyramid, gradient, derivX, derivY);
+		metrics.stage("pyramid");
 
 		// Perform KLT tracking
 		tracker.updateTracks(pyramid, derivX, derivY);
+		metrics.stage("track");
 		// Perform DDA tracking when the number of pure KLT has dropped significantly from the previous attempt
 		if (tracker.getTracksActive().size < thresholdRespawn.computeI(countAfterSpawn)) {
 			detectCalled = true;
 			tracker.associateInactiveTracks(image);
 			countAfterSpawn = tracker.getTracksActive().size;
+			metrics.stage("associate");
 		}
 		// Drop KLT tracks which are too close to each other
 		tracker.pruneActiveTracksWhichAreTooClose();
 		// Perform track maintenance
 		tracker.dropExcessiveInactiveTracks();
+		metrics.stage("maintenance");
+		metrics.stop();
+		metrics.value("active", tracker.getTracksActive().size);
 	}
 
 	@Override
@@ -131,11 +143,15 @@ public class PointTrackerHybrid<I extends ImageGray<I>, D extends ImageGray<D>,
 	}
 
 	@Override public void spawnTracks() {
+		metrics.start();
 		if (!detectCalled) {
 			tracker.associateInactiveTracks(image);
+			metrics.stage("associate");
 		}
 		tracker.spawnNewTracks();
 		countAfterSpawn = tracker.getTracksActive().size;
+		metrics.stage("spawn");
+		metrics.stop("spawnTracks");
 	}
 
 	@Override public ImageType<I> getImageType() {
@@ -24,6 +24,7 @@ import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.PruneCloseTracks;
 import boofcv.alg.tracker.klt.*;
 import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.metrics.StageTimer;
 import boofcv.struct.ConfigLength;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.ImageGray;
@@ -100,6 +101,9 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 	PruneCloseTracks<PyramidKltFeature> pruneClose;
 	List<PyramidKltFeature> closeDropped = new ArrayList<>();
 
+	/** Reports the time taken by each stage when metrics are enabled */
+	final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
+
 	/**
 	 * Constructor which specified the KLT track manager and how the image pyramids are computed.
 	 *
@@ -250,11 +254,16 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 			detector.setFeatureLimit(actualMaxTracks - excludeList.size);
 		} else
 			detector.setFeatureLimit(-1);
+		metrics.start();
 		detector.process(baseLayer, currPyr.derivX[0], currPyr.derivY[0], null, null, null);
+		metrics.stage("detect");
 
 		// Create new tracks from the detected features
 		addToTracks(scaleBottom, detector.getMinimums());
 		addToTracks(scaleBottom, detector.getMaximums());
+		metrics.stage("spawn");
+		metrics.stop("spawnTracks");
+		metrics.count("spawned", spawned.size());
 	}
 
 	@Override public ImageType<I> getImageType() {
@@ -326,11 +335,15 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 		spawned.clear();
 		dropped.clear();
 
+		metrics.start();
+
 		// update image pyramids
 		currPyr.update(image);
+		metrics.stage("pyramid");
 
 		// track features
 		trackFeatures(image);
+		metrics.stage("track");
 
 		if (toleranceFB >= 0) {
 			// If there are no tracks it must have been reset or this is the first frame
@@ -339,12 +352,16 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 			} else {
 				this.prevPyr.update(image);
 			}
+			metrics.stage("validate");
 		}
 
 		// If configured to, drop features which are close by each other
 		if (pruneClose != null) {
 			pruneCloseTracks();
+			metrics.stage("prune");
 		}
+		metrics.stop();
+		metrics.value("active", active.size());
 	}
 
 	/**
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.DogArray_I32;
+
+/**
+ * <p>
+ * Greedy association which prunes candidates by their distance apart, like {@link AssociateGreedyBruteForce2D},
+ * but without considering every possible pair. Destination features are bucketed into a regular grid with a cell
+ * size that's at least as large as the maximum distance. Each source feature then only needs to consider
+ * destination features inside of the cells which overlap its search circle. When the search radius is small
+ * relative to the image this changes the cost from O(N*M) to close to O(N+M).
+ * </p>
+ *
+ * <p>
+ * Results are the same as {@link AssociateGreedyBruteForce2D} with Euclidean distance, except when multiple
+ * candidates have the same score. Candidates are visited in a different order, so which of the tied candidates
+ * is selected can differ. The score matrix is never computed since it would require O(N*M) memory. Instead the
+ * best source for each destination is found while scoring and used for forwards-backwards validation.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedyGrid2D<D> extends AssociateGreedyBase2D<D> {
+	// Size of a grid cell in pixels
+	double cellSize;
+	// Lower extent of destination points and number of cells along each axis
+	double gridX0, gridY0;
+	int gridCols, gridRows;
+
+	// index of first point in each cell in cellPoints. Has an extra element at the end
+	DogArray_I32 cellStart = new DogArray_I32();
+	// destination indexes sorted by the cell they are in
+	DogArray_I32 cellPoints = new DogArray_I32();
+	// work space for the cell each destination point belongs to
+	DogArray_I32 pointCell = new DogArray_I32();
+
+	// The best score of any source feature for each destination
+	DogArray_F64 dstBestScore = new DogArray_F64();
+	// Which source feature had the best score. -1 if none or if there's a tie
+	DogArray_I32 dstBestSrc = new DogArray_I32();
+
+	/**
+	 * Specifies score mechanism
+	 *
+	 * @param scoreAssociation How features are scored.
+	 */
+	public AssociateGreedyGrid2D( ScoreAssociation<D> scoreAssociation ) {
+		super(scoreAssociation, new AssociateImageDistanceEuclideanSq());
+	}
+
+	/**
+	 * Performs association by scoring each source feature against nearby destination features. The best match
+	 * is selected then validated using ratio and forwards-backwards tests.
+	 */
+	@Override
+	public void associate() {
+		fitQuality.reset();
+		pairs.reset();
+		pairs.resize(descSrc.size);
+		fitQuality.resize(descSrc.size);
+
+		dstBestScore.resize(descDst.size);
+		dstBestScore.fill(Double.MAX_VALUE);
+		dstBestSrc.resize(descDst.size);
+		dstBestSrc.fill(-1);
+
+		// distance function is Euclidean squared
+		double radius = Math.sqrt(maxDistanceUnits);
+		createGrid(radius);
+
+		final double ratioTest = this.ratioTest;
+
+		for (int idxSrc = 0; idxSrc < descSrc.size; idxSrc++) {
+			pairs.data[idxSrc] = -1;
+			fitQuality.data[idxSrc] = maxFitError;
+			if (descDst.size == 0)
+				continue;
+
+			double x = locationSrc.data[idxSrc].x;
+			double y = locationSrc.data[idxSrc].y;
+
+			// Find the range of cells the search circle overlaps. Computed as doubles to avoid overflow
+			double cx0 = Math.floor((x - radius - gridX0)/cellSize);
+			double cx1 = Math.floor((x + radius - gridX0)/cellSize);
+			double cy0 = Math.floor((y - radius - gridY0)/cellSize);
+			double cy1 = Math.floor((y + radius - gridY0)/cellSize);
+			if (cx1 < 0 || cy1 < 0 || cx0 >= gridCols || cy0 >= gridRows)
+				continue;
+			int col0 = (int)Math.max(0, cx0), col1 = (int)Math.min(gridCols - 1, cx1);
+			int row0 = (int)Math.max(0, cy0), row1 = (int)Math.min(gridRows - 1, cy1);
+
+			distanceFunction.setSource(idxSrc, locationSrc.get(idxSrc));
+			D a = descSrc.data[idxSrc];
+			double bestScore = maxFitError;
+			double secondBest = bestScore;
+			int bestIndex = -1;
+
+			for (int row = row0; row <= row1; row++) {
+				int cellIdx = row*gridCols;
+				int idx0 = cellStart.data[cellIdx + col0];
+				int idx1 = cellStart.data[cellIdx + col1 + 1];
+				for (int i = idx0; i < idx1; i++) {
+					int idxDst = cellPoints.data[i];
+
+					// Cells are square so points in the corners can still be too far away
+					double distance = distanceFunction.distance(idxDst, locationDst.get(idxDst));
+					if (distance > maxDistanceUnits)
+						continue;
+
+					double fit = score.score(a, descDst.data[idxDst]);
+
+					// Keep track of the best source for each destination for backwards validation
+					double dstScore = dstBestScore.data[idxDst];
+					if (fit < dstScore) {
+						dstBestScore.data[idxDst] = fit;
+						dstBestSrc.data[idxDst] = idxSrc;
+					} else if (fit == dstScore) {
+						dstBestSrc.data[idxDst] = -1;
+					}
+
+					if (fit <= bestScore) {
+						bestIndex = idxDst;
+						secondBest = bestScore;
+						bestScore = fit;
+					} else if (fit < secondBest) {
+						secondBest = fit;
+					}
+				}
+			}
+
+			if (ratioTest < 1.0 && bestIndex != -1 && bestScore != 0.0) {
+				pairs.data[idxSrc] = secondBest*ratioTest >= bestScore ? bestIndex : -1;
+			} else {
+				pairs.data[idxSrc] = bestIndex;
+			}
+			fitQuality.data[idxSrc] = bestScore;
+		}
+
+		if (backwardsValidation) {
+			for (int idxSrc = 0; idxSrc < descSrc.size; idxSrc++) {
+				int idxDst = pairs.data[idxSrc];
+				if (idxDst == -1 || dstBestSrc.data[idxDst] == idxSrc)
+					continue;
+				pairs.data[idxSrc] = -1;
+				fitQuality.data[idxSrc] = Double.MAX_VALUE;
+			}
+		}
+	}
+
+	/**
+	 * Buckets destination points into a grid using a counting sort. The cell size is at least as large as the
+	 * search radius, but the number of cells is limited so that it's proportional to the number of points.
+	 */
+	void createGrid( double radius ) {
+		final int N = locationDst.size;
+
+		double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE;
+		double x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+		for (int i = 0; i < N; i++) {
+			double x = locationDst.data[i].x;
+			double y = locationDst.data[i].y;
+			x0 = Math.min(x0, x);
+			y0 = Math.min(y0, y);
+			x1 = Math.max(x1, x);
+			y1 = Math.max(y1, y);
+		}
+		if (N == 0) {
+			x0 = y0 = x1 = y1 = 0.0;
+		}
+
+		int maxCellsSide = 2*(int)Math.ceil(Math.sqrt(N));
+		double extent = Math.max(x1 - x0, y1 - y0);
+		cellSize = Math.max(radius, extent/Math.max(1, maxCellsSide));
+		if (cellSize <= 0.0)
+			cellSize = 1.0;
+
+		gridX0 = x0;
+		gridY0 = y0;
+		gridCols = (int)((x1 - x0)/cellSize) + 1;
+		gridRows = (int)((y1 - y0)/cellSize) + 1;
+
+		// Count the number of points in each cell
+		cellStart.resize(gridCols*gridRows + 1);
+		cellStart.fill(0);
+		pointCell.resize(N);
+		for (int i = 0; i < N; i++) {
+			int col = Math.min(gridCols - 1, (int)((locationDst.data[i].x - x0)/cellSize));
+			int row = Math.min(gridRows - 1, (int)((locationDst.data[i].y - y0)/cellSize));
+			int cell = row*gridCols + col;
+			pointCell.data[i] = cell;
+			cellStart.data[cell + 1]++;
+		}
+
+		// Convert counts into the index of the first element in each cell
+		for (int i = 1; i < cellStart.size; i++) {
+			cellStart.data[i] += cellStart.data[i - 1];
+		}
+
+		// Fill in points. Use cellStart as a cursor then shift it back afterwards
+		cellPoints.resize(N);
+		for (int i = 0; i < N; i++) {
+			cellPoints.data[cellStart.data[pointCell.data[i]]++] = i;
+		}
+		for (int i = cellStart.size - 1; i > 0; i--) {
+			cellStart.data[i] = cellStart.data[i - 1];
+		}
+		cellStart.data[0] = 0;
+	}
+}
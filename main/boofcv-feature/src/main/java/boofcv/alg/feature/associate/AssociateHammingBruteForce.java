@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.PackedTupleArray_B64;
+
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
+
+/**
+ * Brute force association of binary descriptors. See {@link AssociateHammingBruteForceBase} for details.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"Duplicates"})
+public class AssociateHammingBruteForce extends AssociateHammingBruteForceBase {
+	@Override
+	public void associate( PackedTupleArray_B64 src, PackedTupleArray_B64 dst ) {
+		setupForAssociate(src, dst);
+
+		findBest(src, dst, numNeighbors, bestIndexes.data, bestDistances.data);
+		if (backwardsValidation)
+			findBest(dst, src, 2, backIndexes.data, backDistances.data);
+
+		selectPairs(src.size());
+	}
+
+	/**
+	 * Finds the k-best matches in setB for every element in setA
+	 *
+	 * @param indexes (Output) Index of the best matches. Must be filled with -1.
+	 * @param distances (Output) Distance of the best matches. Must be filled with Integer.MAX_VALUE.
+	 */
+	void findBest( PackedTupleArray_B64 setA, PackedTupleArray_B64 setB, int k, int[] indexes, int[] distances ) {
+		final long[] dataA = setA.array.data;
+		final long[] dataB = setB.array.data;
+		final int numA = setA.size();
+		final int numB = setB.size();
+		final int numWords = setA.getNumWords();
+		final int blockA = this.blockSrc;
+		final int blockB = this.blockDst;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, numA, (i0, i1) -> {
+		final int i0 = 0, i1 = numA;
+		for (int startA = i0; startA < i1; startA += blockA) {
+			int endA = Math.min(i1, startA + blockA);
+			for (int startB = 0; startB < numB; startB += blockB) {
+				int endB = Math.min(numB, startB + blockB);
+
+				for (int indexA = startA; indexA < endA; indexA++) {
+					if (numWords == 4) {
+						searchBlock4(dataA, indexA*4, dataB, startB, endB, indexes, distances, indexA*k, k);
+					} else {
+						searchBlock(dataA, indexA*numWords, dataB, startB, endB, numWords,
+								indexes, distances, indexA*k, k);
+					}
+				}
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+}
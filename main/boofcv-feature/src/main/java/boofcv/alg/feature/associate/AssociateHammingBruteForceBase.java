@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.PackedTupleArray_B64;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.DogArray_I32;
+
+/**
+ * <p>
+ * Brute force association of binary descriptors using the hamming distance. Descriptors are stored in
+ * {@link PackedTupleArray_B64} so that each distance is computed using 64-bit words and a popcount. The
+ * comparisons are done in blocks so that a block of destination descriptors stays in the cache while it's
+ * compared against a block of source descriptors. The k-best matches are found for every source feature.
+ * </p>
+ *
+ * <p>
+ * The best match is then optionally validated using a ratio test, a maximum distance, and backwards validation.
+ * These have the same meaning as in {@link AssociateGreedyBase}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class AssociateHammingBruteForceBase {
+	/** Number of best matches found for each source feature. Must be at least 2 if the ratio test is used. */
+	@Getter int numNeighbors = 2;
+
+	/** Worst allowed hamming distance to associate */
+	@Getter int maxDistance = Integer.MAX_VALUE;
+
+	/** If true, for a match to be accepted the src and dst features must be each other's best match */
+	@Getter @Setter boolean backwardsValidation = false;
+
+	/**
+	 * For a solution to be accepted the second best score must be better than the best score by this ratio.
+	 * A value &ge; 1.0 will effective turn this test off
+	 */
+	@Getter @Setter double ratioTest = 1.0;
+
+	/** Number of source features in a block */
+	@Getter @Setter int blockSrc = 32;
+
+	/** Number of destination features in a block. Should be small enough that a block fits inside the L1 cache */
+	@Getter @Setter int blockDst = 1024;
+
+	/**
+	 * Index of the k-best dst features for each src feature, sorted from best to worst.
+	 * bestIndexes[src*numNeighbors + i]. -1 if there is no match.
+	 */
+	@Getter DogArray_I32 bestIndexes = new DogArray_I32();
+
+	/** Hamming distance of each match in {@link #bestIndexes} */
+	@Getter DogArray_I32 bestDistances = new DogArray_I32();
+
+	/** Look up table with the index of dst features that have been assigned to src features. pairs[src] = dst */
+	@Getter DogArray_I32 pairs = new DogArray_I32();
+
+	// The two best src features for each dst feature. Used in backwards validation
+	DogArray_I32 backIndexes = new DogArray_I32();
+	DogArray_I32 backDistances = new DogArray_I32();
+
+	/**
+	 * Associates the two sets against each other by minimizing the hamming distance.
+	 *
+	 * @param src Source set
+	 * @param dst Destination set
+	 */
+	public abstract void associate( PackedTupleArray_B64 src, PackedTupleArray_B64 dst );
+
+	/**
+	 * Clears and allocates memory before association starts.
+	 */
+	protected void setupForAssociate( PackedTupleArray_B64 src, PackedTupleArray_B64 dst ) {
+		if (src.getNumWords() != dst.getNumWords())
+			throw new IllegalArgumentException("src and dst have different sized descriptors");
+		if (ratioTest < 1.0 && numNeighbors < 2)
+			throw new IllegalArgumentException("The ratio test requires at least two neighbors");
+
+		bestIndexes.resize(src.size()*numNeighbors);
+		bestDistances.resize(src.size()*numNeighbors);
+		bestIndexes.fill(-1);
+		bestDistances.fill(Integer.MAX_VALUE);
+		pairs.resize(src.size());
+
+		if (backwardsValidation) {
+			backIndexes.resize(dst.size()*2);
+			backDistances.resize(dst.size()*2);
+			backIndexes.fill(-1);
+			backDistances.fill(Integer.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Selects the best match for each src feature if it passes all the validation tests
+	 */
+	protected void selectPairs( int numSrc ) {
+		final int k = numNeighbors;
+		for (int src = 0; src < numSrc; src++) {
+			int dst = bestIndexes.data[src*k];
+			int distance = bestDistances.data[src*k];
+
+			if (dst == -1 || distance > maxDistance) {
+				dst = -1;
+			} else if (ratioTest < 1.0 && distance != 0 && bestIndexes.data[src*k + 1] != -1 &&
+					bestDistances.data[src*k + 1]*ratioTest < distance) {
+				dst = -1;
+			} else if (backwardsValidation) {
+				// Reject if another src feature is as good or better a match for dst
+				if (backIndexes.data[dst*2] != src)
+					dst = -1;
+				else if (backIndexes.data[dst*2 + 1] != -1 && backDistances.data[dst*2 + 1] <= distance)
+					dst = -1;
+			}
+
+			pairs.data[src] = dst;
+		}
+	}
+
+	/**
+	 * Inserts a match into a list of the k-best matches, sorted from best to worst. The match must be better
+	 * than the worst match in the list. If there's a tie the match which was inserted first comes first.
+	 */
+	protected static void insertMatch( int[] indexes, int[] distances, int offset, int k, int index, int distance ) {
+		int i = offset + k - 1;
+		while (i > offset && distances[i - 1] > distance) {
+			indexes[i] = indexes[i - 1];
+			distances[i] = distances[i - 1];
+			i--;
+		}
+		indexes[i] = index;
+		distances[i] = distance;
+	}
+
+	/**
+	 * Compares one descriptor in A against a block of descriptors in B and updates its k-best matches.
+	 *
+	 * @param offsetBest Index of the first of the k-best matches in indexes and distances
+	 */
+	protected static void searchBlock( long[] dataA, int offsetA, long[] dataB, int startB, int endB, int numWords,
+									   int[] indexes, int[] distances, int offsetBest, int k ) {
+		int worst = distances[offsetBest + k - 1];
+		for (int indexB = startB; indexB < endB; indexB++) {
+			int d = distance(dataA, offsetA, dataB, indexB*numWords, numWords);
+			if (d < worst) {
+				insertMatch(indexes, distances, offsetBest, k, indexB, d);
+				worst = distances[offsetBest + k - 1];
+			}
+		}
+	}
+
+	/**
+	 * Specialized version of {@link #searchBlock} for 256-bit descriptors, the most common size. The descriptor
+	 * in A is kept in local variables and the loop is unrolled, which is about twice as fast.
+	 */
+	protected static void searchBlock4( long[] dataA, int offsetA, long[] dataB, int startB, int endB,
+										int[] indexes, int[] distances, int offsetBest, int k ) {
+		final long a0 = dataA[offsetA], a1 = dataA[offsetA + 1], a2 = dataA[offsetA + 2], a3 = dataA[offsetA + 3];
+		int worst = distances[offsetBest + k - 1];
+		for (int indexB = startB, offsetB = startB*4; indexB < endB; indexB++, offsetB += 4) {
+			int d = Long.bitCount(a0 ^ dataB[offsetB]) + Long.bitCount(a1 ^ dataB[offsetB + 1]) +
+					Long.bitCount(a2 ^ dataB[offsetB + 2]) + Long.bitCount(a3 ^ dataB[offsetB + 3]);
+			if (d < worst) {
+				insertMatch(indexes, distances, offsetBest, k, indexB, d);
+				worst = distances[offsetBest + k - 1];
+			}
+		}
+	}
+
+	/**
+	 * Computes the hamming distance between two descriptors stored in 64-bit words
+	 */
+	public static int distance( long[] a, int offsetA, long[] b, int offsetB, int numWords ) {
+		int total = 0;
+		for (int i = 0; i < numWords; i++) {
+			total += Long.bitCount(a[offsetA + i] ^ b[offsetB + i]);
+		}
+		return total;
+	}
+
+	public void setNumNeighbors( int numNeighbors ) {
+		if (numNeighbors < 1)
+			throw new IllegalArgumentException("Must find at least one neighbor");
+		this.numNeighbors = numNeighbors;
+	}
+
+	/**
+	 * Specifies the worst allowed hamming distance. If &lt; 0 then there is no limit.
+	 */
+	public void setMaxDistance( int maxDistance ) {
+		this.maxDistance = maxDistance < 0 ? Integer.MAX_VALUE : maxDistance;
+	}
+}
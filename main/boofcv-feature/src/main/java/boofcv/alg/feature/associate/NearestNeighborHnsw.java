@@ -0,0 +1,525 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.misc.BoofMiscOps;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.DogArray_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>Approximate nearest-neighbor search using a Hierarchical Navigable Small World (HNSW) graph [1]. Each point
+ * is a node in a layered graph. The top layers are sparse and used to quickly move towards the query while the
+ * bottom layer contains every point and is searched with a beam of width 'ef'. Larger values of 'ef' and more
+ * connections per node improve recall at the cost of speed.</p>
+ *
+ * <p>Distance between points is computed using a {@link ScoreAssociation}, which must be a metric where lower is
+ * better, e.g. Euclidean squared for floating point descriptors or Hamming for binary descriptors. Distances
+ * returned in {@link NnData} are the score.</p>
+ *
+ * <p>Points can be added incrementally with {@link #add}. The graph isn't modified by a search so any number of
+ * {@link NearestNeighbor.Search} can be used concurrently, provided points are not being added at the same time.
+ * Each search has its own workspace and must only be used by a single thread.</p>
+ *
+ * <p>[1] Malkov, Yu A., and Dmitry A. Yashunin. "Efficient and robust approximate nearest neighbor search using
+ * hierarchical navigable small world graphs." IEEE transactions on pattern analysis and machine intelligence
+ * 42.4 (2018): 824-836.</p>
+ *
+ * @author Peter Abeles
+ */
+public class NearestNeighborHnsw<P> implements NearestNeighbor<P> {
+	/** Maximum number of connections a node has in the upper layers. The bottom layer has twice as many. */
+	@Getter int maxConnections;
+
+	/** Size of the dynamic candidate list when inserting a point. Larger is slower but a better graph. */
+	@Getter @Setter int efConstruction;
+
+	/** Size of the dynamic candidate list when searching. Larger is slower but with higher recall. */
+	@Getter @Setter int efSearch;
+
+	/** Computes the distance between two points */
+	@Getter ScoreAssociation<P> distance;
+
+	/** Points which have been added to the graph. Index of a point is the same as the index of its node. */
+	@Getter final List<P> points = new ArrayList<>();
+
+	/** The graph. One node for every point. */
+	@Getter final DogArray<Node> nodes = new DogArray<>(Node::new, Node::reset);
+
+	/** Node which every search starts from. -1 if the graph is empty */
+	@Getter @Setter int entryPoint = -1;
+
+	/** The highest level of any node in the graph */
+	@Getter @Setter int maxLevel = -1;
+
+	// normalization factor used when randomly selecting the level
+	double levelMultiplier;
+
+	// used to randomly select the level of a new node
+	Random rand;
+
+	// Workspace used when adding points
+	final SearchHnsw build = new SearchHnsw();
+	final DogArray_I32 selected = new DogArray_I32();
+
+	/**
+	 * Configures the graph
+	 *
+	 * @param distance Distance between two points.
+	 * @param maxConnections Maximum connections per node in the upper layers. Try 16.
+	 * @param efConstruction Size of candidate list when inserting. Try 200.
+	 * @param efSearch Size of candidate list when searching. Try 64.
+	 * @param randSeed Seed for the random number generator used to select levels.
+	 */
+	public NearestNeighborHnsw( ScoreAssociation<P> distance, int maxConnections,
+								int efConstruction, int efSearch, long randSeed ) {
+		BoofMiscOps.checkTrue(maxConnections >= 2, "maxConnections must be >= 2");
+		this.distance = distance;
+		this.maxConnections = maxConnections;
+		this.efConstruction = efConstruction;
+		this.efSearch = efSearch;
+		this.levelMultiplier = 1.0/Math.log(maxConnections);
+		this.rand = new Random(randSeed);
+	}
+
+	/**
+	 * Discards the graph and all the points
+	 */
+	public void reset() {
+		points.clear();
+		nodes.reset();
+		entryPoint = -1;
+		maxLevel = -1;
+	}
+
+	/**
+	 * Discards the previous graph and builds a new one from the points. The index of a point in the list is the
+	 * index returned by a search. The 'trackIndicies' flag is ignored since indexes are always tracked.
+	 */
+	@Override public void setPoints( List<P> points, boolean trackIndicies ) {
+		reset();
+		for (int i = 0; i < points.size(); i++) {
+			add(points.get(i));
+		}
+	}
+
+	/**
+	 * Adds a single point to the graph. Its index will be the number of points previously added.
+	 * Must not be called while a search is being performed in another thread.
+	 *
+	 * @param point The point. A reference is saved.
+	 */
+	public void add( P point ) {
+		int index = points.size();
+		points.add(point);
+
+		int level = (int)(-Math.log(1.0 - rand.nextDouble())*levelMultiplier);
+		Node node = nodes.grow();
+		node.connections.resize(level + 1);
+
+		// First point becomes the entry into the graph
+		if (entryPoint < 0) {
+			entryPoint = index;
+			maxLevel = level;
+			return;
+		}
+
+		build.startSearch(point);
+
+		// Quickly traverse the layers which this node will not be in
+		int closest = entryPoint;
+		for (int layer = maxLevel; layer > level; layer--) {
+			closest = build.greedyClosest(closest, layer);
+		}
+
+		for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+			build.searchLayer(closest, layer, efConstruction);
+
+			// W is sorted from closest to furthest
+			selectNeighbors(build.found, maxConnections, selected);
+			closest = build.found.indexes.get(0);
+
+			DogArray_I32 connections = node.connections.get(layer);
+			connections.setTo(selected);
+
+			// Connect the neighbors back to this node and prune if they now have too many
+			int maxAllowed = maxConnectionsAt(layer);
+			for (int i = 0; i < selected.size; i++) {
+				int neighbor = selected.get(i);
+				DogArray_I32 neighborConn = nodes.get(neighbor).connections.get(layer);
+				neighborConn.add(index);
+				if (neighborConn.size > maxAllowed)
+					pruneConnections(neighbor, neighborConn, maxAllowed);
+			}
+		}
+
+		if (level > maxLevel) {
+			maxLevel = level;
+			entryPoint = index;
+		}
+	}
+
+	/**
+	 * Maximum number of connections a node can have at the specified layer
+	 */
+	public int maxConnectionsAt( int layer ) {
+		return layer == 0 ? 2*maxConnections : maxConnections;
+	}
+
+	/**
+	 * Selects neighbors using the heuristic from the paper. A candidate is only accepted if it's closer to the
+	 * target than it is to any already selected neighbor. This keeps connections spread out in different
+	 * directions instead of clustered together.
+	 *
+	 * @param candidates Sorted list of candidates from closest to furthest
+	 */
+	void selectNeighbors( SortedCandidates candidates, int limit, DogArray_I32 selected ) {
+		selected.reset();
+		for (int i = 0; i < candidates.size() && selected.size < limit; i++) {
+			int candidate = candidates.indexes.get(i);
+			double distanceToTarget = candidates.distances.get(i);
+			P pointCandidate = points.get(candidate);
+
+			boolean good = true;
+			for (int j = 0; j < selected.size; j++) {
+				if (distance.score(pointCandidate, points.get(selected.get(j))) < distanceToTarget) {
+					good = false;
+					break;
+				}
+			}
+			if (good)
+				selected.add(candidate);
+		}
+	}
+
+	/**
+	 * Reduces the number of connections a node has using the same heuristic as when it was added
+	 */
+	void pruneConnections( int target, DogArray_I32 connections, int limit ) {
+		P pointTarget = points.get(target);
+		SortedCandidates candidates = build.pruneCandidates;
+		candidates.reset();
+		for (int i = 0; i < connections.size; i++) {
+			int neighbor = connections.get(i);
+			candidates.add(neighbor, distance.score(pointTarget, points.get(neighbor)));
+		}
+		candidates.sort();
+		selectNeighbors(candidates, limit, connections);
+	}
+
+	@Override public Search<P> createSearch() {
+		return new SearchHnsw();
+	}
+
+	/**
+	 * Search on the graph. Contains its own workspace so that multiple searches can be run in parallel
+	 */
+	public class SearchHnsw implements Search<P> {
+		// Nodes which have been visited are marked with the current value of 'mark'
+		final DogArray_I32 visited = new DogArray_I32();
+		int mark = 0;
+
+		// Candidates which still need to be expanded. Closest is at the top of the heap
+		final CandidateHeap candidates = new CandidateHeap(false);
+		// Best points found so far. Furthest is at the top of the heap
+		final CandidateHeap best = new CandidateHeap(true);
+		// Points found in the most recent search sorted by distance
+		final SortedCandidates found = new SortedCandidates();
+		// Used when pruning connections
+		final SortedCandidates pruneCandidates = new SortedCandidates();
+
+		// The point being searched for
+		P target;
+
+		@Override public boolean findNearest( P point, double maxDistance, NnData<P> result ) {
+			if (entryPoint < 0)
+				return false;
+
+			search(point, Math.max(1, efSearch));
+
+			double bestDistance = found.distances.get(0);
+			if (maxDistance >= 0 && bestDistance > maxDistance)
+				return false;
+
+			int index = found.indexes.get(0);
+			result.index = index;
+			result.point = points.get(index);
+			result.distance = bestDistance;
+			return true;
+		}
+
+		@Override public void findNearest( P point, double maxDistance, int numNeighbors,
+										   DogArray<NnData<P>> results ) {
+			results.reset();
+			if (entryPoint < 0)
+				return;
+
+			search(point, Math.max(numNeighbors, efSearch));
+
+			for (int i = 0; i < found.size() && results.size < numNeighbors; i++) {
+				double d = found.distances.get(i);
+				if (maxDistance >= 0 && d > maxDistance)
+					break;
+				int index = found.indexes.get(i);
+				NnData<P> r = results.grow();
+				r.index = index;
+				r.point = points.get(index);
+				r.distance = d;
+			}
+		}
+
+		/**
+		 * Searches the whole graph and saves the results in {@link #found}
+		 */
+		void search( P point, int ef ) {
+			startSearch(point);
+			int closest = entryPoint;
+			for (int layer = maxLevel; layer > 0; layer--) {
+				closest = greedyClosest(closest, layer);
+			}
+			searchLayer(closest, 0, ef);
+		}
+
+		void startSearch( P point ) {
+			this.target = point;
+		}
+
+		/**
+		 * Moves to the neighbor which is closest to the target until there is no improvement
+		 */
+		int greedyClosest( int start, int layer ) {
+			int current = start;
+			double currentDistance = distance.score(target, points.get(current));
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				DogArray_I32 connections = nodes.get(current).connections.get(layer);
+				for (int i = 0; i < connections.size; i++) {
+					int neighbor = connections.get(i);
+					double d = distance.score(target, points.get(neighbor));
+					if (d < currentDistance) {
+						currentDistance = d;
+						current = neighbor;
+						changed = true;
+					}
+				}
+			}
+			return current;
+		}
+
+		/**
+		 * Beam search inside a single layer. Results are sorted and saved in {@link #found}
+		 */
+		void searchLayer( int start, int layer, int ef ) {
+			nextMark();
+			candidates.reset();
+			best.reset();
+
+			double startDistance = distance.score(target, points.get(start));
+			visited.data[start] = mark;
+			candidates.push(start, startDistance);
+			best.push(start, startDistance);
+
+			while (candidates.size() > 0) {
+				double candidateDistance = candidates.peekDistance();
+				if (candidateDistance > best.peekDistance() && best.size() >= ef)
+					break;
+				int candidate = candidates.pop();
+
+				DogArray_I32 connections = nodes.get(candidate).connections.get(layer);
+				for (int i = 0; i < connections.size; i++) {
+					int neighbor = connections.get(i);
+					if (visited.data[neighbor] == mark)
+						continue;
+					visited.data[neighbor] = mark;
+
+					double d = distance.score(target, points.get(neighbor));
+					if (best.size() < ef || d < best.peekDistance()) {
+						candidates.push(neighbor, d);
+						best.push(neighbor, d);
+						if (best.size() > ef)
+							best.pop();
+					}
+				}
+			}
+
+			// Heap pops from furthest to closest, fill in the sorted list backwards
+			found.reset();
+			found.indexes.resize(best.size());
+			found.distances.resize(best.size());
+			for (int i = best.size() - 1; i >= 0; i--) {
+				found.distances.data[i] = best.peekDistance();
+				found.indexes.data[i] = best.pop();
+			}
+		}
+
+		/**
+		 * Updates the mark so that all nodes are marked as not visited without needing to clear the array
+		 */
+		void nextMark() {
+			if (visited.size < nodes.size) {
+				int before = visited.size;
+				visited.resize(nodes.size);
+				visited.fill(before, visited.size, mark);
+			}
+			mark++;
+			if (mark == Integer.MAX_VALUE) {
+				visited.fill(0);
+				mark = 1;
+			}
+		}
+	}
+
+	/**
+	 * A node in the graph.
+	 */
+	public static class Node {
+		/** Indexes of connected nodes at each layer. The number of layers is the node's level + 1 */
+		public final DogArray<DogArray_I32> connections = new DogArray<>(DogArray_I32::new, DogArray_I32::reset);
+
+		/** The highest layer this node is in */
+		public int getLevel() {
+			return connections.size - 1;
+		}
+
+		public void reset() {
+			connections.reset();
+		}
+	}
+
+	/**
+	 * List of candidates which can be sorted by distance
+	 */
+	static class SortedCandidates {
+		final DogArray_I32 indexes = new DogArray_I32();
+		final DogArray_F64 distances = new DogArray_F64();
+
+		void add( int index, double distance ) {
+			indexes.add(index);
+			distances.add(distance);
+		}
+
+		/** Insertion sort. Lists are short. */
+		void sort() {
+			for (int i = 1; i < indexes.size; i++) {
+				int index = indexes.data[i];
+				double d = distances.data[i];
+				int j = i - 1;
+				while (j >= 0 && distances.data[j] > d) {
+					indexes.data[j + 1] = indexes.data[j];
+					distances.data[j + 1] = distances.data[j];
+					j--;
+				}
+				indexes.data[j + 1] = index;
+				distances.data[j + 1] = d;
+			}
+		}
+
+		int size() {return indexes.size;}
+
+		void reset() {
+			indexes.reset();
+			distances.reset();
+		}
+	}
+
+	/**
+	 * Binary heap of node indexes ordered by distance.
+	 */
+	static class CandidateHeap {
+		final DogArray_I32 indexes = new DogArray_I32();
+		final DogArray_F64 distances = new DogArray_F64();
+		// If true the largest distance is at the top
+		final boolean maxHeap;
+
+		CandidateHeap( boolean maxHeap ) {
+			this.maxHeap = maxHeap;
+		}
+
+		void push( int index, double distance ) {
+			indexes.add(index);
+			distances.add(distance);
+			int child = indexes.size - 1;
+			while (child > 0) {
+				int parent = (child - 1)/2;
+				if (!before(child, parent))
+					break;
+				swap(child, parent);
+				child = parent;
+			}
+		}
+
+		/** Removes the top of the heap and returns its index */
+		int pop() {
+			int top = indexes.data[0];
+			int last = indexes.size - 1;
+			indexes.data[0] = indexes.data[last];
+			distances.data[0] = distances.data[last];
+			indexes.size = last;
+			distances.size = last;
+
+			int parent = 0;
+			while (true) {
+				int left = 2*parent + 1;
+				if (left >= last)
+					break;
+				int child = left;
+				if (left + 1 < last && before(left + 1, left))
+					child = left + 1;
+				if (!before(child, parent))
+					break;
+				swap(child, parent);
+				parent = child;
+			}
+			return top;
+		}
+
+		double peekDistance() {return distances.data[0];}
+
+		int size() {return indexes.size;}
+
+		void reset() {
+			indexes.reset();
+			distances.reset();
+		}
+
+		// true if element 'a' should be above element 'b' in the heap
+		private boolean before( int a, int b ) {
+			return maxHeap ? distances.data[a] > distances.data[b] : distances.data[a] < distances.data[b];
+		}
+
+		private void swap( int a, int b ) {
+			int ti = indexes.data[a];
+			indexes.data[a] = indexes.data[b];
+			indexes.data[b] = ti;
+			double td = distances.data[a];
+			distances.data[a] = distances.data[b];
+			distances.data[b] = td;
+		}
+	}
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.misc.BoofMiscOps;
+import boofcv.struct.feature.TupleDesc_B;
+import lombok.Getter;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_B;
+import org.ddogleg.struct.DogArray_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Exact Hamming distance search for binary descriptors using Multi-Index Hashing [1]. Each descriptor is split
+ * into 'm' disjoint substrings and every substring is used as the key in its own hash table. If two descriptors
+ * are within a distance of r, then by the pigeonhole principle, at least one substring is within a distance of
+ * floor(r/m). Neighbors are found by looking up all keys within a small distance of the query's substrings,
+ * which is sub-linear when the search radius is small relative to the number of bits.</p>
+ *
+ * <p>Both k-nearest and r-neighbor searches are exact. The k-nearest search grows the radius until the k-th best
+ * is guaranteed to be found. If looking up keys would be more expensive than checking every point, it switches to
+ * a linear search. For the search to be fast a maximum distance should be specified.</p>
+ *
+ * <p>Each table is directly addressed by the substring's value and points with the same value are stored in a
+ * linked list. This requires substrings to be short, see {@link #MAX_SUBSTRING_BITS}, but a look up is only
+ * a couple of array accesses. Points can be added and removed after the tables have been built. Removed points
+ * keep their index but are never returned again. Searches don't modify the tables and can run concurrently, as
+ * long as points are not being added or removed at the same time.</p>
+ *
+ * <p>[1] Norouzi, Mohammad, Ali Punjani, and David J. Fleet. "Fast search in hamming space with multi-index
+ * hashing." 2012 IEEE conference on computer vision and pattern recognition. IEEE, 2012.</p>
+ *
+ * @author Peter Abeles
+ */
+public class NearestNeighborMultiIndexHashing implements NearestNeighbor<TupleDesc_B> {
+	/** Substring length used when the number of points isn't known in advance */
+	public static final int DEFAULT_SUBSTRING_BITS = 16;
+
+	/** Maximum length of a substring. Each table has 2^length elements. */
+	public static final int MAX_SUBSTRING_BITS = 20;
+
+	/** Number of bits in each descriptor */
+	@Getter final int numBits;
+
+	/** Number of tables. If &le; 0 then it's selected based on the number of points when built */
+	@Getter final int requestedTables;
+
+	/** Points in the index. Index of a point is its index in this list. Removed points are not set to null */
+	@Getter final List<TupleDesc_B> points = new ArrayList<>();
+
+	/** Number of points which have been removed */
+	@Getter int numRemoved;
+
+	// true if the point with the same index has been removed
+	final DogArray_B removed = new DogArray_B();
+
+	// Copy of every point's bits stored in a single array. Improves memory locality when computing the distance
+	final DogArray_I32 codes = new DogArray_I32();
+	// Number of ints in each point
+	final int numWords;
+
+	// Index of the first bit in each substring. Has one more element than there are tables
+	final DogArray_I32 substringStart = new DogArray_I32();
+
+	// Look up table from substring value to the first point in the list of points with that value. -1 if empty.
+	final DogArray<DogArray_I32> tables = new DogArray<>(DogArray_I32::new, DogArray_I32::reset);
+
+	// Next point in the list with the same substring value. -1 if it's the last one.
+	// Element for point 'i' and table 't' is at i*numTables + t
+	final DogArray_I32 next = new DogArray_I32();
+
+	/**
+	 * @param numBits Number of bits in each descriptor
+	 * @param numTables Number of tables. If &le; 0 then it's automatically selected.
+	 */
+	public NearestNeighborMultiIndexHashing( int numBits, int numTables ) {
+		BoofMiscOps.checkTrue(numBits > 0, "numBits must be positive");
+		BoofMiscOps.checkTrue(numTables <= numBits, "Can't have more tables than bits");
+		this.numBits = numBits;
+		this.requestedTables = numTables;
+		this.numWords = new TupleDesc_B(numBits).data.length;
+	}
+
+	/**
+	 * Selects the number of tables. The paper recommends substrings of length log2(N). Substrings are limited to
+	 * {@link #MAX_SUBSTRING_BITS} so that the tables don't use too much memory.
+	 *
+	 * @param numPoints Number of points which will be in the index. If &le; 0 then it's unknown.
+	 */
+	int selectNumTables( int numPoints ) {
+		int minTables = (numBits + MAX_SUBSTRING_BITS - 1)/MAX_SUBSTRING_BITS;
+		if (requestedTables > 0)
+			return Math.max(minTables, requestedTables);
+
+		int substringBits = DEFAULT_SUBSTRING_BITS;
+		if (numPoints > 0)
+			substringBits = (int)Math.round(Math.log(Math.max(2, numPoints))/Math.log(2));
+
+		int numTables = (numBits + substringBits - 1)/substringBits;
+		return Math.min(numBits, Math.max(minTables, numTables));
+	}
+
+	/**
+	 * Discards all points and the tables
+	 */
+	public void reset() {
+		points.clear();
+		removed.reset();
+		codes.reset();
+		next.reset();
+		numRemoved = 0;
+		tables.reset();
+		substringStart.reset();
+	}
+
+	/**
+	 * Creates empty tables and splits the bits as evenly as possible between them
+	 */
+	void initializeTables( int numTables ) {
+		tables.reset();
+		substringStart.reset();
+		for (int i = 0; i < numTables; i++) {
+			substringStart.add(i*numBits/numTables);
+		}
+		substringStart.add(numBits);
+		for (int i = 0; i < numTables; i++) {
+			int length = substringStart.get(i + 1) - substringStart.get(i);
+			tables.grow().resize(1 << length, -1);
+		}
+	}
+
+	/**
+	 * Discards previous points and builds the tables from scratch. The 'trackIndicies' flag is ignored
+	 * since indexes are always tracked.
+	 */
+	@Override public void setPoints( List<TupleDesc_B> points, boolean trackIndicies ) {
+		reset();
+		initializeTables(selectNumTables(points.size()));
+		for (int i = 0; i < points.size(); i++) {
+			add(points.get(i));
+		}
+	}
+
+	/**
+	 * Adds a point to the index.
+	 *
+	 * @param point The point. A reference is saved and returned by searches. The index keeps its own copy of
+	 * the bits.
+	 * @return The point's index
+	 */
+	public int add( TupleDesc_B point ) {
+		BoofMiscOps.checkEq(numBits, point.numBits, "Number of bits doesn't match");
+		if (tables.size == 0)
+			initializeTables(selectNumTables(0));
+
+		int index = points.size();
+		points.add(point);
+		removed.add(false);
+		codes.addAll(point.data, 0, numWords);
+
+		// Add it to the front of the list
+		for (int tableIdx = 0; tableIdx < tables.size; tableIdx++) {
+			int key = substring(point.data, 0, tableIdx);
+			int[] table = tables.get(tableIdx).data;
+			next.add(table[key]);
+			table[key] = index;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Removes a point from the index. Indexes of other points are not changed.
+	 *
+	 * @param index Index of the point
+	 * @return true if it was removed or false if it had already been removed
+	 */
+	public boolean remove( int index ) {
+		if (removed.get(index))
+			return false;
+		removed.set(index, true);
+		numRemoved++;
+
+		// Remove it from the list in each table
+		int numTables = tables.size;
+		for (int tableIdx = 0; tableIdx < numTables; tableIdx++) {
+			int key = substring(codes.data, index*numWords, tableIdx);
+			int[] table = tables.get(tableIdx).data;
+			int after = next.data[index*numTables + tableIdx];
+			if (table[key] == index) {
+				table[key] = after;
+				continue;
+			}
+			int previous = table[key];
+			while (next.data[previous*numTables + tableIdx] != index) {
+				previous = next.data[previous*numTables + tableIdx];
+			}
+			next.data[previous*numTables + tableIdx] = after;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the point has been removed
+	 */
+	public boolean isRemoved( int index ) {
+		return removed.get(index);
+	}
+
+	/**
+	 * Number of points which can be found by a search
+	 */
+	public int size() {
+		return points.size() - numRemoved;
+	}
+
+	/**
+	 * Number of tables / substrings
+	 */
+	public int getNumTables() {
+		return tables.size;
+	}
+
+	/**
+	 * Extracts the bits in a substring and returns them as an int
+	 *
+	 * @param data Array containing the descriptor
+	 * @param offset Index of the descriptor's first element in the array
+	 */
+	int substring( int[] data, int offset, int tableIdx ) {
+		int bit0 = substringStart.data[tableIdx];
+		int length = substringStart.data[tableIdx + 1] - bit0;
+
+		int word = offset + bit0/32;
+		int shift = bit0%32;
+		long value = data[word] & 0xFFFFFFFFL;
+		if (shift + length > 32)
+			value |= ((long)data[word + 1]) << 32;
+
+		return (int)((value >>> shift) & ((1L << length) - 1));
+	}
+
+	/**
+	 * Number of keys with the specified hamming distance from a key of the given length, i.e. n choose k.
+	 * Saturates at the limit to avoid overflow.
+	 */
+	static long countKeys( int length, int distance, long limit ) {
+		if (distance > length)
+			return 0;
+		long total = 1;
+		for (int i = 0; i < distance; i++) {
+			total = total*(length - i)/(i + 1);
+			if (total >= limit)
+				return limit;
+		}
+		return total;
+	}
+
+	@Override public Search<TupleDesc_B> createSearch() {
+		return new SearchMih();
+	}
+
+	/**
+	 * Searches the index. Contains its own workspace so that multiple searches can be run in parallel
+	 */
+	public class SearchMih implements Search<TupleDesc_B> {
+		// Points which have already been checked are marked with the current value of 'mark'
+		final DogArray_I32 visited = new DogArray_I32();
+		int mark = 0;
+
+		// The query's substrings
+		final DogArray_I32 queryKeys = new DogArray_I32();
+		TupleDesc_B query;
+
+		// Maximum number of neighbors which are kept. If < 0 then every point inside the radius is kept
+		int numNeighbors;
+		// Only points with a distance less than or equal to this are kept
+		int maxDistance;
+
+		/** Points which were found. Sorted by distance for k-nearest searches. */
+		@Getter final DogArray_I32 foundIndexes = new DogArray_I32();
+		/** Distance of the points which were found */
+		@Getter final DogArray_I32 foundDistances = new DogArray_I32();
+
+		@Override public boolean findNearest( TupleDesc_B point, double maxDistance, NnData<TupleDesc_B> result ) {
+			searchNearest(point, 1, maxDistance < 0 ? -1 : (int)maxDistance);
+			if (foundIndexes.size == 0)
+				return false;
+
+			result.index = foundIndexes.get(0);
+			result.point = points.get(result.index);
+			result.distance = foundDistances.get(0);
+			return true;
+		}
+
+		@Override public void findNearest( TupleDesc_B point, double maxDistance, int numNeighbors,
+										   DogArray<NnData<TupleDesc_B>> results ) {
+			results.reset();
+			searchNearest(point, numNeighbors, maxDistance < 0 ? -1 : (int)maxDistance);
+			for (int i = 0; i < foundIndexes.size; i++) {
+				NnData<TupleDesc_B> r = results.grow();
+				r.index = foundIndexes.get(i);
+				r.point = points.get(r.index);
+				r.distance = foundDistances.get(i);
+			}
+		}
+
+		/**
+		 * Finds the k-nearest points. Results are in {@link #foundIndexes} and {@link #foundDistances} sorted
+		 * from closest to farthest.
+		 *
+		 * @param point The query
+		 * @param numNeighbors Maximum number of neighbors to find
+		 * @param maxDistance Maximum hamming distance. If &lt; 0 there is no limit.
+		 */
+		public void searchNearest( TupleDesc_B point, int numNeighbors, int maxDistance ) {
+			BoofMiscOps.checkTrue(numNeighbors > 0, "numNeighbors must be positive");
+			search(point, numNeighbors, maxDistance < 0 ? numBits : maxDistance);
+		}
+
+		/**
+		 * Finds all points within the specified distance. Results are in {@link #foundIndexes} and
+		 * {@link #foundDistances} and are not sorted.
+		 *
+		 * @param point The query
+		 * @param radius Maximum hamming distance, inclusive.
+		 */
+		public void searchRadius( TupleDesc_B point, int radius ) {
+			search(point, -1, radius);
+		}
+
+		void search( TupleDesc_B point, int numNeighbors, int maxDistance ) {
+			BoofMiscOps.checkEq(numBits, point.numBits, "Number of bits doesn't match");
+			this.query = point;
+			this.numNeighbors = numNeighbors;
+			this.maxDistance = maxDistance;
+			foundIndexes.reset();
+			foundDistances.reset();
+			if (size() == 0 || maxDistance < 0)
+				return;
+
+			nextMark();
+			int numTables = tables.size;
+			queryKeys.resize(numTables);
+			int longestSubstring = 0;
+			for (int tableIdx = 0; tableIdx < numTables; tableIdx++) {
+				queryKeys.data[tableIdx] = substring(point.data, 0, tableIdx);
+				longestSubstring = Math.max(longestSubstring,
+						substringStart.data[tableIdx + 1] - substringStart.data[tableIdx]);
+			}
+
+			for (int radius = 0; radius <= longestSubstring; radius++) {
+				// See if it would be faster to just check every point
+				long probes = 0;
+				for (int tableIdx = 0; tableIdx < numTables && probes < points.size(); tableIdx++) {
+					int length = substringStart.data[tableIdx + 1] - substringStart.data[tableIdx];
+					probes += countKeys(length, radius, points.size());
+				}
+				if (probes >= points.size()) {
+					checkAllPoints();
+					return;
+				}
+
+				for (int tableIdx = 0; tableIdx < numTables; tableIdx++) {
+					probeTable(tableIdx, radius);
+				}
+
+				// Every point with a distance less than or equal to this has now been checked since at least one of its
+				// substrings must have a distance of 'radius' or less
+				int guaranteed = numTables*(radius + 1) - 1;
+				if (guaranteed >= maxDistance)
+					return;
+				if (numNeighbors > 0 && foundIndexes.size == numNeighbors &&
+						foundDistances.get(numNeighbors - 1) <= guaranteed)
+					return;
+			}
+		}
+
+		/**
+		 * Looks up every key which has the specified distance from the query's key
+		 */
+		void probeTable( int tableIdx, int radius ) {
+			int[] table = tables.get(tableIdx).data;
+			int key = queryKeys.data[tableIdx];
+			int length = substringStart.data[tableIdx + 1] - substringStart.data[tableIdx];
+
+			if (radius == 0) {
+				checkList(table[key], tableIdx);
+				return;
+			}
+
+			// Go through all bit masks with 'radius' bits set using Gosper's hack
+			int limit = 1 << length;
+			int mask = (1 << radius) - 1;
+			while (mask < limit) {
+				checkList(table[key ^ mask], tableIdx);
+				int c = mask & -mask;
+				int r = mask + c;
+				mask = (((r ^ mask) >>> 2)/c) | r;
+			}
+		}
+
+		/**
+		 * Checks every point in the list which starts with the specified point
+		 */
+		void checkList( int index, int tableIdx ) {
+			int numTables = tables.size;
+			while (index != -1) {
+				if (visited.data[index] != mark) {
+					visited.data[index] = mark;
+					checkPoint(index);
+				}
+				index = next.data[index*numTables + tableIdx];
+			}
+		}
+
+		void checkAllPoints() {
+			for (int index = 0; index < points.size(); index++) {
+				if (visited.data[index] == mark || removed.data[index])
+					continue;
+				checkPoint(index);
+			}
+		}
+
+		void checkPoint( int index ) {
+			int[] q = query.data;
+			int[] c = codes.data;
+			int offset = index*numWords;
+			int distance = 0;
+			for (int i = 0; i < numWords; i++) {
+				distance += DescriptorDistance.hamming(q[i] ^ c[offset + i]);
+			}
+			if (distance > maxDistance)
+				return;
+
+			if (numNeighbors < 0) {
+				foundIndexes.add(index);
+				foundDistances.add(distance);
+				return;
+			}
+
+			// Insert it into the sorted list of best points
+			if (foundIndexes.size == numNeighbors) {
+				if (distance >= foundDistances.data[numNeighbors - 1])
+					return;
+				foundIndexes.size--;
+				foundDistances.size--;
+			}
+			int location = foundIndexes.size;
+			while (location > 0 && foundDistances.data[location - 1] > distance) {
+				location--;
+			}
+			foundIndexes.insert(location, index);
+			foundDistances.insert(location, distance);
+		}
+
+		/**
+		 * Updates the mark so that all points are marked as not visited without needing to clear the array
+		 */
+		void nextMark() {
+			if (visited.size < points.size()) {
+				int before = visited.size;
+				visited.resize(points.size());
+				visited.fill(before, visited.size, mark);
+			}
+			mark++;
+			if (mark == Integer.MAX_VALUE) {
+				visited.fill(0);
+				mark = 1;
+			}
+		}
+	}
+}
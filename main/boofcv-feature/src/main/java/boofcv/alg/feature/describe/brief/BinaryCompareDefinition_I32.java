@@ -61,6 +61,6 @@ public class BinaryCompareDefinition_I32 {
 	 * @return Descriptor length.
 	 */
 	public int getLength() {
-		return samplePoints.length;
+		return compare.length;
 	}
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.describe.brief;
+
+import boofcv.struct.feature.TupleDesc_B;
+import georegression.struct.point.Point2D_I32;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.sorting.QuickSort_F64;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Learns which tests to use in a BRIEF descriptor, the same way as the learned pairs in ORB (rBRIEF) [1].
+ * A large set of candidate tests is evaluated at features found in training images. Tests are sorted by how
+ * close their mean is to 0.5, since those have the most variance. Going through this list, a test is kept if
+ * its correlation with every test that has already been kept is below a threshold. If too few tests are found
+ * then the threshold is increased and the search is repeated.
+ * </p>
+ *
+ * <p>
+ * Training descriptors should be computed with the candidate definition and the same orientation and
+ * smoothing that the learned definition will be used with.
+ * </p>
+ *
+ * <p>
+ * [1] Rublee, Ethan, et al. "ORB: An efficient alternative to SIFT or SURF." 2011 International conference on
+ * computer vision. IEEE, 2011.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LearnBriefDefinition {
+	/** Candidate tests which the selected tests are taken from */
+	@Getter BinaryCompareDefinition_I32 candidates;
+
+	/** Initial threshold for the absolute value of the correlation between two tests */
+	@Getter @Setter double maxCorrelation = 0.2;
+
+	/** How much the threshold is increased by when not enough tests could be selected */
+	@Getter @Setter double thresholdStep = 0.05;
+
+	// Descriptors computed using the candidate tests
+	DogArray<TupleDesc_B> samples;
+
+	// Results of each test across all the samples. One bit per sample.
+	long[][] testBits = new long[0][];
+	// Fraction of samples where each test was true
+	double[] means = new double[0];
+
+	// Workspace
+	QuickSort_F64 sorter = new QuickSort_F64();
+	DogArray_I32 selected = new DogArray_I32();
+
+	public LearnBriefDefinition( BinaryCompareDefinition_I32 candidates ) {
+		this.candidates = candidates;
+		this.samples = new DogArray<>(() -> new TupleDesc_B(candidates.getLength()));
+	}
+
+	/**
+	 * Discards all samples
+	 */
+	public void reset() {
+		samples.reset();
+	}
+
+	/**
+	 * Adds a descriptor which was computed using the candidate definition
+	 */
+	public void addSample( TupleDesc_B desc ) {
+		if (desc.numBits != candidates.getLength())
+			throw new IllegalArgumentException("Descriptor doesn't match the candidate definition");
+		samples.grow().setTo(desc);
+	}
+
+	/**
+	 * Selects the tests from the candidates
+	 *
+	 * @param numTests Number of tests in the learned definition
+	 * @return The learned definition. Only sample points which are used are included.
+	 */
+	public BinaryCompareDefinition_I32 select( int numTests ) {
+		int numCandidates = candidates.getLength();
+		if (numTests > numCandidates)
+			throw new IllegalArgumentException("More tests requested than there are candidates");
+		if (samples.size == 0)
+			throw new IllegalArgumentException("No samples have been added");
+
+		computeTestStatistics();
+
+		// Sort tests so that those with a mean closest to 0.5 are first
+		var distance = new double[numCandidates];
+		var order = new int[numCandidates];
+		for (int i = 0; i < numCandidates; i++) {
+			distance[i] = Math.abs(means[i] - 0.5);
+		}
+		sorter.sort(distance, 0, numCandidates, order);
+
+		double threshold = maxCorrelation;
+		while (true) {
+			selected.reset();
+			for (int i = 0; i < numCandidates && selected.size < numTests; i++) {
+				int candidate = order[i];
+				// A test with no variance is useless
+				if (means[candidate] == 0.0 || means[candidate] == 1.0)
+					continue;
+				if (isUncorrelated(candidate, threshold))
+					selected.add(candidate);
+			}
+
+			if (selected.size == numTests)
+				break;
+			if (threshold >= 1.0)
+				throw new IllegalArgumentException("Not enough candidate tests have any variance");
+			threshold += thresholdStep;
+		}
+
+		return createDefinition();
+	}
+
+	/**
+	 * Transposes the samples so that each test's results are in a bit array then computes each test's mean
+	 */
+	void computeTestStatistics() {
+		int numCandidates = candidates.getLength();
+		int numWords = (samples.size + 63)/64;
+		if (testBits.length != numCandidates || (numCandidates > 0 && testBits[0].length != numWords)) {
+			testBits = new long[numCandidates][numWords];
+			means = new double[numCandidates];
+		}
+
+		for (int test = 0; test < numCandidates; test++) {
+			long[] bits = testBits[test];
+			Arrays.fill(bits, 0);
+			int count = 0;
+			for (int sampleIdx = 0; sampleIdx < samples.size; sampleIdx++) {
+				if (samples.get(sampleIdx).isBitTrue(test)) {
+					bits[sampleIdx/64] |= 1L << (sampleIdx%64);
+					count++;
+				}
+			}
+			means[test] = count/(double)samples.size;
+		}
+	}
+
+	/**
+	 * Returns true if the absolute value of the correlation with all selected tests is less than the threshold
+	 */
+	boolean isUncorrelated( int candidate, double threshold ) {
+		double meanA = means[candidate];
+		double varA = meanA*(1.0 - meanA);
+		long[] bitsA = testBits[candidate];
+
+		for (int i = 0; i < selected.size; i++) {
+			int other = selected.get(i);
+			double meanB = means[other];
+			long[] bitsB = testBits[other];
+
+			// fraction of samples where both tests are true
+			int both = 0;
+			for (int word = 0; word < bitsA.length; word++) {
+				both += Long.bitCount(bitsA[word] & bitsB[word]);
+			}
+			double joint = both/(double)samples.size;
+
+			double correlation = (joint - meanA*meanB)/Math.sqrt(varA*meanB*(1.0 - meanB));
+			if (Math.abs(correlation) >= threshold)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Creates a definition which only contains the selected tests and the points they sample
+	 */
+	BinaryCompareDefinition_I32 createDefinition() {
+		// Look up table from candidate sample point to the point in the new definition
+		var lookup = new int[candidates.samplePoints.length];
+		Arrays.fill(lookup, -1);
+		int numPoints = 0;
+		for (int i = 0; i < selected.size; i++) {
+			Point2D_I32 pair = candidates.compare[selected.get(i)];
+			if (lookup[pair.x] == -1)
+				lookup[pair.x] = numPoints++;
+			if (lookup[pair.y] == -1)
+				lookup[pair.y] = numPoints++;
+		}
+
+		var ret = new BinaryCompareDefinition_I32(candidates.radius, numPoints, selected.size);
+		for (int i = 0; i < lookup.length; i++) {
+			if (lookup[i] != -1)
+				ret.samplePoints[lookup[i]].setTo(candidates.samplePoints[i]);
+		}
+		for (int i = 0; i < selected.size; i++) {
+			Point2D_I32 pair = candidates.compare[selected.get(i)];
+			ret.compare[i].setTo(lookup[pair.x], lookup[pair.y]);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector;
+import boofcv.alg.feature.detect.selector.FeatureSelectUniformBest;
+import boofcv.alg.feature.detect.selector.SampleIntensityScalePoint;
+import boofcv.alg.feature.orientation.OrientationIntensityCentroid;
+import boofcv.core.image.FactoryGImageGray;
+import boofcv.core.image.GImageGray;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import georegression.metric.UtilAngle;
+import georegression.struct.point.Point2D_I32;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastArray;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * ORB [1] combined together to detect and describe features. FAST corners are detected at every level of an
+ * image pyramid and re-ranked using the Harris corner score. The best features in each level are selected
+ * so that they are spread uniformly across the image, with the number per level proportional to the
+ * level's area. Orientation is found using the intensity centroid and a BRIEF descriptor is computed with its
+ * sample pattern rotated to the feature's orientation. Rotated patterns are precomputed for a discrete set of
+ * angles so that describing a feature only requires looking up pixel values.
+ * </p>
+ *
+ * <p>
+ * The pyramid's scale factors are integers, typically powers of two, instead of the 1.2 used in the paper.
+ * This results in fewer levels and less scale invariance, but each level is much cheaper to compute.
+ * </p>
+ *
+ * <p>
+ * [1] Rublee, Ethan, et al. "ORB: An efficient alternative to SIFT or SURF." 2011 International conference on
+ * computer vision. IEEE, 2011.
+ * </p>
+ *
+ * @author Peter Abeles
+ * @see FastCornerDetector
+ * @see OrientationIntensityCentroid
+ * @see boofcv.alg.feature.describe.brief.LearnBriefDefinition
+ */
+@SuppressWarnings({"NullAway.Init"})
+public class CompleteOrb<T extends ImageGray<T>> {
+	/** Maximum number of features returned across all levels. If &le; 0 then all features are returned. */
+	@Getter @Setter int maxFeatures = 500;
+
+	/** Tuning parameter for the Harris corner score */
+	@Getter @Setter double harrisK = 0.04;
+
+	/** Radius of the window used to compute the Harris corner score */
+	@Getter @Setter int harrisRadius = 3;
+
+	/** Radius of the circular region used to compute the orientation */
+	@Getter int orientationRadius;
+
+	// Image pyramid which features are detected inside of
+	@Getter PyramidDiscrete<T> pyramid;
+	// Detects FAST corners inside each layer
+	@Getter FastCornerDetector<T> fast;
+	// Smooths each layer before the descriptor samples it
+	BlurFilter<T> blur;
+	// Defines the tests in the BRIEF descriptor
+	@Getter BinaryCompareDefinition_I32 definition;
+
+	/** Uniformly selects the best features inside each level */
+	@Getter FeatureSelectUniformBest<ScalePoint> selector = new FeatureSelectUniformBest<>(new SampleIntensityScalePoint());
+
+	// Sample points for each discrete angle. Interleaved x and y pixel offsets
+	int[][] rotatedPatterns;
+
+	// Found features in input image pixel coordinates
+	final DogArray<ScalePoint> locations = new DogArray<>(ScalePoint::new);
+	final DogArray_F64 orientations = new DogArray_F64();
+	final DogArray<TupleDesc_B> descriptions;
+
+	// FAST corner intensity for the current layer
+	GrayF32 intensity = new GrayF32(1, 1);
+	// Blurred version of the current layer
+	T blurred;
+	// Candidate features in the current layer. Coordinates are in the layer.
+	final DogArray<ScalePoint> candidates = new DogArray<>(ScalePoint::new);
+	final FastArray<ScalePoint> selected = new FastArray<>(ScalePoint.class);
+
+	// The current layer and its scale relative to the input image
+	T layer;
+	double layerScale;
+
+	// workspace for a single thread
+	final Workspace workspace;
+
+	/**
+	 * Configures ORB
+	 *
+	 * @param pyramid Image pyramid which features are detected inside of
+	 * @param fast FAST corner detector
+	 * @param blur Smooths the image before it's sampled by the descriptor
+	 * @param definition Tests which compose the BRIEF descriptor. Sample points should be inside a circle.
+	 * @param orientationRadius Radius of the region used to compute the orientation
+	 * @param numAngles Number of discrete angles the sample pattern is precomputed at
+	 */
+	public CompleteOrb( PyramidDiscrete<T> pyramid, FastCornerDetector<T> fast, BlurFilter<T> blur,
+						BinaryCompareDefinition_I32 definition, int orientationRadius, int numAngles ) {
+		this.pyramid = pyramid;
+		this.fast = fast;
+		this.blur = blur;
+		this.definition = definition;
+		this.orientationRadius = orientationRadius;
+
+		Class<T> imageType = fast.getImageType();
+		blurred = GeneralizedImageOps.createSingleBand(imageType, 1, 1);
+		descriptions = new DogArray<>(() -> new TupleDesc_B(definition.getLength()));
+
+		rotatedPatterns = new int[numAngles][definition.samplePoints.length*2];
+		for (int angleIdx = 0; angleIdx < numAngles; angleIdx++) {
+			double angle = 2.0*Math.PI*angleIdx/numAngles;
+			double c = Math.cos(angle);
+			double s = Math.sin(angle);
+			int[] pattern = rotatedPatterns[angleIdx];
+			for (int i = 0; i < definition.samplePoints.length; i++) {
+				Point2D_I32 p = definition.samplePoints[i];
+				pattern[i*2] = (int)Math.round(c*p.x - s*p.y);
+				pattern[i*2 + 1] = (int)Math.round(s*p.x + c*p.y);
+			}
+		}
+
+		workspace = createWorkspace();
+	}
+
+	/**
+	 * Detects features inside the image and computes their descriptors
+	 */
+	public void process( T input ) {
+		locations.reset();
+		orientations.reset();
+		descriptions.reset();
+
+		pyramid.process(input);
+
+		// Relative number of features in each level is proportional to its area
+		double totalArea = 0;
+		for (int level = 0; level < pyramid.getNumLayers(); level++) {
+			totalArea += 1.0/(pyramid.getScale(level)*pyramid.getScale(level));
+		}
+
+		for (int level = 0; level < pyramid.getNumLayers(); level++) {
+			layer = pyramid.getLayer(level);
+			layerScale = pyramid.getScale(level);
+
+			int border = getBorder();
+			if (layer.width <= 2*border || layer.height <= 2*border)
+				break;
+
+			intensity.reshape(layer.width, layer.height);
+			fast.process(layer, intensity);
+			findCandidates(border);
+			scoreCandidates(candidates);
+
+			// Select the best features in this level
+			if (maxFeatures > 0) {
+				double area = 1.0/(layerScale*layerScale);
+				int limit = (int)Math.round(maxFeatures*area/totalArea);
+				if (limit <= 0)
+					continue;
+				selector.select(null, layer.width, layer.height, true, null, candidates, limit, selected);
+			} else {
+				selected.reset();
+				selected.addAll(candidates);
+			}
+
+			blurred.reshape(layer.width, layer.height);
+			blur.process(layer, blurred);
+
+			// Pre-declare storage so that each feature can be described independently
+			int offset = locations.size;
+			locations.resize(offset + selected.size);
+			orientations.resize(offset + selected.size);
+			descriptions.resize(offset + selected.size);
+
+			describeSelected(offset, selected);
+		}
+	}
+
+	/**
+	 * Finds local maximums of the FAST score which are far enough from the border to be described
+	 */
+	void findCandidates( int border ) {
+		candidates.reset();
+
+		for (int y = border; y < layer.height - border; y++) {
+			int index = intensity.startIndex + y*intensity.stride + border;
+			for (int x = border; x < layer.width - border; x++, index++) {
+				float value = Math.abs(intensity.data[index]);
+				if (value == 0.0f || !isLocalMaximum(index, value))
+					continue;
+
+				candidates.grow().setTo(x, y, layerScale, intensity.data[index] > 0);
+			}
+		}
+	}
+
+	/**
+	 * Checks to see if the value is a local maximum in a 3x3 region. Ties are broken by which one comes first.
+	 */
+	private boolean isLocalMaximum( int index, float value ) {
+		final float[] data = intensity.data;
+		final int stride = intensity.stride;
+		// Pixels before must be less than and pixels after must be less than or equal
+		if (Math.abs(data[index - stride - 1]) >= value) return false;
+		if (Math.abs(data[index - stride]) >= value) return false;
+		if (Math.abs(data[index - stride + 1]) >= value) return false;
+		if (Math.abs(data[index - 1]) >= value) return false;
+		if (Math.abs(data[index + 1]) > value) return false;
+		if (Math.abs(data[index + stride - 1]) > value) return false;
+		if (Math.abs(data[index + stride]) > value) return false;
+		return !(Math.abs(data[index + stride + 1]) > value);
+	}
+
+	/**
+	 * Computes the Harris corner score for every candidate
+	 */
+	protected void scoreCandidates( FastAccess<ScalePoint> candidates ) {
+		workspace.setLayer(layer, blurred);
+		for (int i = 0; i < candidates.size; i++) {
+			scoreHarris(workspace, candidates.get(i));
+		}
+	}
+
+	/**
+	 * Computes the orientation and descriptor for every selected feature
+	 *
+	 * @param offset Index of the first feature in the output lists
+	 */
+	protected void describeSelected( int offset, FastAccess<ScalePoint> selected ) {
+		workspace.setLayer(layer, blurred);
+		for (int i = 0; i < selected.size; i++) {
+			describe(workspace, selected.get(i), offset + i);
+		}
+	}
+
+	/**
+	 * Computes the Harris corner score using the image gradient inside a square window
+	 */
+	protected void scoreHarris( Workspace work, ScalePoint p ) {
+		final GImageGray image = work.layer;
+		int cx = (int)p.pixel.x;
+		int cy = (int)p.pixel.y;
+
+		double xx = 0, yy = 0, xy = 0;
+		for (int y = cy - harrisRadius; y <= cy + harrisRadius; y++) {
+			for (int x = cx - harrisRadius; x <= cx + harrisRadius; x++) {
+				double dx = image.unsafe_getD(x + 1, y) - image.unsafe_getD(x - 1, y);
+				double dy = image.unsafe_getD(x, y + 1) - image.unsafe_getD(x, y - 1);
+				xx += dx*dx;
+				yy += dy*dy;
+				xy += dx*dy;
+			}
+		}
+
+		double trace = xx + yy;
+		p.intensity = (float)(xx*yy - xy*xy - harrisK*trace*trace);
+	}
+
+	/**
+	 * Computes the orientation and descriptor of a feature then saves the results
+	 *
+	 * @param p Feature in layer coordinates
+	 * @param index Index of the feature in the output lists
+	 */
+	protected void describe( Workspace work, ScalePoint p, int index ) {
+		double angle = work.orientation.compute(p.pixel.x, p.pixel.y);
+
+		// Look up the pattern which is closest to the feature's orientation
+		int numAngles = rotatedPatterns.length;
+		int angleIdx = (int)Math.round(UtilAngle.bound(angle)*numAngles/(2.0*Math.PI));
+		angleIdx = (angleIdx%numAngles + numAngles)%numAngles;
+		int[] pattern = rotatedPatterns[angleIdx];
+
+		int cx = (int)p.pixel.x;
+		int cy = (int)p.pixel.y;
+		final float[] values = work.values;
+		for (int i = 0; i < values.length; i++) {
+			values[i] = work.blurred.unsafe_getF(cx + pattern[i*2], cy + pattern[i*2 + 1]);
+		}
+
+		TupleDesc_B desc = descriptions.get(index);
+		Arrays.fill(desc.data, 0);
+		for (int i = 0; i < definition.compare.length; i++) {
+			Point2D_I32 comp = definition.compare[i];
+			if (values[comp.x] < values[comp.y]) {
+				desc.data[i/32] |= 1 << (i%32);
+			}
+		}
+
+		// Save the location in input image coordinates
+		locations.get(index).setTo(p.pixel.x*layerScale, p.pixel.y*layerScale, layerScale, p.white, p.intensity);
+		orientations.set(index, angle);
+	}
+
+	/**
+	 * Minimum distance a feature must be from the layer's border so that all pixels it samples are inside
+	 */
+	public int getBorder() {
+		// +1 for the gradient and rounding the rotated patterns
+		return Math.max(Math.max(harrisRadius, definition.radius), orientationRadius) + 1;
+	}
+
+	/**
+	 * Radius of the region described by a feature in the input image's pixels
+	 */
+	public double getRadius( int featureIndex ) {
+		return locations.get(featureIndex).scale*Math.max(definition.radius, orientationRadius);
+	}
+
+	public FastAccess<ScalePoint> getLocations() {
+		return locations;
+	}
+
+	public DogArray_F64 getOrientations() {
+		return orientations;
+	}
+
+	public FastAccess<TupleDesc_B> getDescriptions() {
+		return descriptions;
+	}
+
+	public int getDescriptorLength() {
+		return definition.getLength();
+	}
+
+	public Class<T> getImageType() {
+		return fast.getImageType();
+	}
+
+	protected Workspace createWorkspace() {
+		return new Workspace(fast.getImageType());
+	}
+
+	/**
+	 * Data which is needed to score and describe a feature independently
+	 */
+	protected class Workspace {
+		final GImageGray layer;
+		final GImageGray blurred;
+		final OrientationIntensityCentroid<T> orientation;
+		final float[] values = new float[definition.samplePoints.length];
+
+		public Workspace( Class<T> imageType ) {
+			layer = FactoryGImageGray.create(imageType);
+			blurred = FactoryGImageGray.create(imageType);
+			orientation = new OrientationIntensityCentroid<>(1.0, orientationRadius, imageType);
+		}
+
+		public void setLayer( T layer, T blurred ) {
+			this.layer.wrap(layer);
+			this.blurred.wrap(blurred);
+			this.orientation.setImage(layer);
+		}
+	}
+}
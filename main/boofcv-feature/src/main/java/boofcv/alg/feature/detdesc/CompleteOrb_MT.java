@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.FastAccess;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * Concurrent implementation of {@link CompleteOrb}. Scoring candidates and describing the selected features
+ * is done in parallel. Each feature is written to a predetermined location so the output is identical to the
+ * single threaded version. Pass in a concurrent {@link FastCornerDetector} to detect corners in parallel too.
+ *
+ * @author Peter Abeles
+ */
+public class CompleteOrb_MT<T extends ImageGray<T>> extends CompleteOrb<T> {
+
+	/** If there are fewer than this number of features it will use the single threaded algorithm */
+	public int minimumFeaturesThread = 50;
+
+	// Work space for each thread
+	GrowArray<Workspace> workspaces = new GrowArray<>(this::createWorkspace);
+
+	public CompleteOrb_MT( PyramidDiscrete<T> pyramid, FastCornerDetector<T> fast, BlurFilter<T> blur,
+						   BinaryCompareDefinition_I32 definition, int orientationRadius, int numAngles ) {
+		super(pyramid, fast, blur, definition, orientationRadius, numAngles);
+	}
+
+	@Override protected void scoreCandidates( FastAccess<ScalePoint> candidates ) {
+		if (minimumFeaturesThread >= candidates.size) {
+			super.scoreCandidates(candidates);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, candidates.size, workspaces, ( work, idx0, idx1 ) -> {
+			work.setLayer(layer, blurred);
+			for (int i = idx0; i < idx1; i++) {
+				scoreHarris(work, candidates.get(i));
+			}
+		});
+	}
+
+	@Override protected void describeSelected( int offset, FastAccess<ScalePoint> selected ) {
+		if (minimumFeaturesThread >= selected.size) {
+			super.describeSelected(offset, selected);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, selected.size, workspaces, ( work, idx0, idx1 ) -> {
+			work.setLayer(layer, blurred);
+			for (int i = idx0; i < idx1; i++) {
+				describe(work, selected.get(i), offset + i);
+			}
+		});
+	}
+}
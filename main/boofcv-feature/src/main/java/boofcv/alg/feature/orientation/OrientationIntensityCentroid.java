@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.orientation;
+
+import boofcv.abst.feature.orientation.OrientationImage;
+import boofcv.core.image.FactoryGImageGray;
+import boofcv.core.image.GImageGray;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Computes the orientation of a region using its intensity centroid [1]. The moments m<sub>10</sub> and
+ * m<sub>01</sub> are computed inside a circle around the center and the orientation is the direction from
+ * the center to the centroid, atan2(m<sub>01</sub>, m<sub>10</sub>). This is the orientation used by ORB.
+ * Pixels outside the image are skipped.
+ * </p>
+ *
+ * <p>
+ * [1] Rosin, Paul L. "Measuring corner properties." Computer Vision and Image Understanding 73.2 (1999): 291-307.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"NullAway.Init"})
+public class OrientationIntensityCentroid<T extends ImageGray<T>> implements OrientationImage<T> {
+	// input image
+	protected T image;
+	// Used to access images which are not U8 or F32
+	protected GImageGray wrapped;
+
+	// converts from object radius to sample region scale
+	protected double objectToSample;
+	// the original requested object radius
+	protected double objectRadius;
+
+	// Radius of the circle it will sample
+	protected int sampleRadius;
+	// Half the width of the circle at each row. Index 0 is the top row.
+	protected int[] rowRadius = new int[0];
+
+	Class<T> imageType;
+
+	/**
+	 * @param objectToSample Scale factor which converts the object radius into the sample radius
+	 * @param defaultRadius Initial object radius
+	 * @param imageType Type of input image
+	 */
+	public OrientationIntensityCentroid( double objectToSample, double defaultRadius, Class<T> imageType ) {
+		this.objectToSample = objectToSample;
+		this.imageType = imageType;
+		this.wrapped = FactoryGImageGray.create(imageType);
+		setObjectRadius(defaultRadius);
+	}
+
+	@Override
+	public void setImage( T image ) {
+		this.image = image;
+		this.wrapped.wrap(image);
+	}
+
+	@Override
+	public void setObjectRadius( double objectRadius ) {
+		this.objectRadius = objectRadius;
+		this.sampleRadius = Math.max(1, (int)Math.ceil(objectRadius*objectToSample));
+
+		rowRadius = new int[sampleRadius*2 + 1];
+		for (int y = -sampleRadius; y <= sampleRadius; y++) {
+			rowRadius[y + sampleRadius] = (int)Math.sqrt(sampleRadius*sampleRadius - y*y);
+		}
+	}
+
+	@Override
+	public double compute( double X, double Y ) {
+		int c_x = (int)(X + 0.5);
+		int c_y = (int)(Y + 0.5);
+
+		if (image instanceof GrayU8)
+			return computeU8((GrayU8)image, c_x, c_y);
+		else if (image instanceof GrayF32)
+			return computeF32((GrayF32)image, c_x, c_y);
+
+		double m10 = 0, m01 = 0;
+		int y0 = Math.max(-sampleRadius, -c_y);
+		int y1 = Math.min(sampleRadius, image.height - 1 - c_y);
+		for (int y = y0; y <= y1; y++) {
+			int r = rowRadius[y + sampleRadius];
+			int x0 = Math.max(-r, -c_x);
+			int x1 = Math.min(r, image.width - 1 - c_x);
+
+			double sum = 0, sumX = 0;
+			for (int x = x0; x <= x1; x++) {
+				double v = wrapped.unsafe_getD(c_x + x, c_y + y);
+				sum += v;
+				sumX += x*v;
+			}
+			m10 += sumX;
+			m01 += y*sum;
+		}
+
+		return Math.atan2(m01, m10);
+	}
+
+	protected double computeU8( GrayU8 image, int c_x, int c_y ) {
+		// Integer sums can't overflow since the region is small
+		long m10 = 0, m01 = 0;
+		int y0 = Math.max(-sampleRadius, -c_y);
+		int y1 = Math.min(sampleRadius, image.height - 1 - c_y);
+		for (int y = y0; y <= y1; y++) {
+			int r = rowRadius[y + sampleRadius];
+			int x0 = Math.max(-r, -c_x);
+			int x1 = Math.min(r, image.width - 1 - c_x);
+
+			int index = image.startIndex + (c_y + y)*image.stride + c_x;
+			int sum = 0, sumX = 0;
+			for (int x = x0; x <= x1; x++) {
+				int v = image.data[index + x] & 0xFF;
+				sum += v;
+				sumX += x*v;
+			}
+			m10 += sumX;
+			m01 += y*sum;
+		}
+
+		return Math.atan2(m01, m10);
+	}
+
+	protected double computeF32( GrayF32 image, int c_x, int c_y ) {
+		double m10 = 0, m01 = 0;
+		int y0 = Math.max(-sampleRadius, -c_y);
+		int y1 = Math.min(sampleRadius, image.height - 1 - c_y);
+		for (int y = y0; y <= y1; y++) {
+			int r = rowRadius[y + sampleRadius];
+			int x0 = Math.max(-r, -c_x);
+			int x1 = Math.min(r, image.width - 1 - c_x);
+
+			int index = image.startIndex + (c_y + y)*image.stride + c_x;
+			float sum = 0, sumX = 0;
+			for (int x = x0; x <= x1; x++) {
+				float v = image.data[index + x];
+				sum += v;
+				sumX += x*v;
+			}
+			m10 += sumX;
+			m01 += y*sum;
+		}
+
+		return Math.atan2(m01, m10);
+	}
+
+	@Override
+	public Class<T> getImageType() {
+		return imageType;
+	}
+
+	@Override
+	public OrientationIntensityCentroid<T> copy() {
+		return new OrientationIntensityCentroid<>(objectToSample, objectRadius, imageType);
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.dda;
+
+import boofcv.abst.tracker.PointTrack;
+import georegression.struct.point.Point2D_F64;
+
+/**
+ * An image feature track for {@link DetectDescribeAssociateTracker}.
+ *
+ * @author Peter Abeles
+ */
+public class DdaTrack extends PointTrack {
+	/** Estimated motion of the track in pixels per frame */
+	public final Point2D_F64 velocity = new Point2D_F64();
+
+	@Override public void setTo( PointTrack t ) {
+		super.setTo(t);
+		if (t instanceof DdaTrack)
+			velocity.setTo(((DdaTrack)t).velocity);
+	}
+
+	@Override public void reset() {
+		super.reset();
+		velocity.setTo(0, 0);
+	}
+}
@@ -22,14 +22,18 @@ import boofcv.abst.feature.associate.AssociateDescription2D;
 import boofcv.abst.feature.associate.AssociateDescriptionSets2D;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
 import boofcv.abst.tracker.ConfigTrackerDda;
+import boofcv.abst.tracker.ConfigTrackerDda.MotionModel;
 import boofcv.abst.tracker.PointTrack;
 import boofcv.abst.tracker.PointTracker;
 import boofcv.alg.descriptor.UtilFeature;
+import boofcv.metrics.StageTimer;
 import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
+import georegression.struct.homography.Homography2D_F64;
 import georegression.struct.point.Point2D_F64;
+import georegression.transform.homography.HomographyPointOps_F64;
 import lombok.Getter;
 import lombok.Setter;
 import org.ddogleg.struct.DogArray;
@@ -47,6 +51,13 @@ import java.util.Random;
  * computing a descriptor for each feature, then associating the features together.
  * </p>
  *
+ * <p>
+ * Optionally, the location of each track can be predicted using a {@link MotionModel} before association. The
+ * predicted location is what's passed to the associator. If the associator prunes by distance, e.g.
+ * {@link boofcv.alg.feature.associate.AssociateGreedyGrid2D}, then only detections near the prediction are
+ * considered and association can scale to many thousands of features.
+ * </p>
+ *
  * @author Peter Abeles
  */
 @SuppressWarnings({"NullAway.Init"})
@@ -83,6 +94,21 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 	// Random number generator
 	protected Random rand;
 
+	/** Specifies how the location of each track is predicted before association */
+	@Getter @Setter MotionModel motion = MotionModel.NONE;
+
+	/**
+	 * Transform from pixels in the previous frame to pixels in the next frame. Used when the motion model is
+	 * {@link MotionModel#HOMOGRAPHY} and should be updated before each call to {@link #process}.
+	 */
+	@Getter final Homography2D_F64 motionHomography = new Homography2D_F64();
+
+	// Storage for predicted track locations
+	protected DogArray<Point2D_F64> predicted = new DogArray<>(Point2D_F64::new);
+
+	/** Reports the time taken by each stage when metrics are enabled */
+	protected final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
+
 	// destination features are ones which were detected in this frame
 	protected FastArray<TD> dstDesc;
 	protected DogArray_I32 dstSet = new DogArray_I32();
@@ -107,6 +133,7 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 		this.updateDescription = config.updateDescription;
 		this.maxInactiveTracks = config.maxInactiveTracks;
 		this.rand = new Random(config.seed);
+		this.motion = config.motion;
 
 		this.dstDesc = new FastArray<>(detector.getDescriptionType());
 		this.srcDesc = new FastArray<>(detector.getDescriptionType());
@@ -119,10 +146,11 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 	protected DetectDescribeAssociateTracker() {}
 
 	/**
-	 * Creates a new track and sets the descriptor
+	 * Creates a new track and sets the descriptor. Tracks must be a {@link DdaTrack} since the velocity is
+	 * updated every time a track is associated.
 	 */
-	protected PointTrack createNewTrack() {
-		var t = new PointTrack();
+	protected DdaTrack createNewTrack() {
+		var t = new DdaTrack();
 		t.setDescription(detector.createDescription());
 		return t;
 	}
@@ -159,7 +187,10 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 		tracksDropped.clear();
 		tracksNew.clear();
 
+		metrics.start();
 		detector.detect(input);
+		metrics.stage("detect");
+		metrics.value("detected", detector.getNumberOfFeatures());
 
 		final int N = detector.getNumberOfFeatures();
 		// initialize data structures
@@ -175,10 +206,12 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 		}
 
 		if (tracksAll.size == 0) {
+			metrics.stop();
 			return;
 		}
 
 		performTracking();
+		metrics.stage("associate");
 
 		// add unassociated to the list
 		DogArray_I32 unassociatedIdx = associate.getUnassociatedSource();
@@ -187,6 +220,9 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 		}
 
 		dropExcessiveInactiveTracks(unassociatedIdx);
+		metrics.stage("maintenance");
+		metrics.stop();
+		metrics.value("active", tracksActive.size());
 	}
 
 	/**
@@ -223,10 +259,11 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 		srcDesc.resize(numTracks);
 		srcPixels.resize(numTracks);
 		srcSet.resize(numTracks);
+		predicted.resize(numTracks);
 		for (int i = 0; i < numTracks; i++) {
 			PointTrack t = tracksAll.get(i);
 			srcDesc.data[i] = t.getDescription();
-			srcPixels.data[i] = t.pixel;
+			srcPixels.data[i] = predictLocation(t, predicted.get(i));
 			srcSet.data[i] = t.detectorSetId;
 		}
 
@@ -241,6 +278,7 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 			AssociatedIndex indexes = matches.data[i];
 			PointTrack track = tracksAll.get(indexes.src);
 			Point2D_F64 loc = dstPixels.data[indexes.dst];
+			updateVelocity((DdaTrack)track, loc);
 			track.pixel.setTo(loc.x, loc.y);
 			track.lastSeenFrameID = frameID;
 			tracksActive.add(track);
@@ -252,6 +290,41 @@ public class DetectDescribeAssociateTracker<I extends ImageGray<I>, TD extends T
 		}
 	}
 
+	/**
+	 * Predicts where the track will be in the current frame
+	 *
+	 * @param track The track
+	 * @param storage Storage for the predicted location
+	 * @return The predicted location. Can be the track's own pixel if there's no motion model
+	 */
+	protected Point2D_F64 predictLocation( PointTrack track, Point2D_F64 storage ) {
+		switch (motion) {
+			case CONSTANT_VELOCITY -> {
+				// the track might not have been seen in the previous frame
+				Point2D_F64 velocity = ((DdaTrack)track).velocity;
+				double elapsed = frameID - track.lastSeenFrameID;
+				storage.x = track.pixel.x + velocity.x*elapsed;
+				storage.y = track.pixel.y + velocity.y*elapsed;
+			}
+			case HOMOGRAPHY -> HomographyPointOps_F64.transform(motionHomography, track.pixel, storage);
+			default -> {
+				return track.pixel;
+			}
+		}
+		return storage;
+	}
+
+	/**
+	 * Updates the track's velocity estimate using its new location
+	 */
+	protected void updateVelocity( DdaTrack track, Point2D_F64 loc ) {
+		double elapsed = frameID - track.lastSeenFrameID;
+		if (elapsed <= 0)
+			return;
+		track.velocity.x = (loc.x - track.pixel.x)/elapsed;
+		track.velocity.y = (loc.y - track.pixel.y)/elapsed;
+	}
+
 	/**
 	 * Takes the current crop of detected features and makes them the keyframe
 	 */
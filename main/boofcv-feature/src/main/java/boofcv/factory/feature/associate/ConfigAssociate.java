@@ -44,6 +44,13 @@ public class ConfigAssociate implements Configuration {
 	 */
 	public ConfigLength maximumDistancePixels = ConfigLength.relative(1.0, 0.0);
 
+	/**
+	 * If true then greedy 2D association will bucket features into a spatial grid and only score features which
+	 * are within {@link #maximumDistancePixels}. This is much faster than brute force when the maximum distance
+	 * is small relative to the image.
+	 */
+	public boolean spatialGrid = false;
+
 	@Override
 	public void checkValidity() {
 		greedy.checkValidity();
@@ -51,7 +58,7 @@ public class ConfigAssociate implements Configuration {
 	}
 
 	public enum AssociationType {
-		GREEDY, KD_TREE, RANDOM_FOREST,
+		GREEDY, KD_TREE, RANDOM_FOREST, HNSW, MULTI_INDEX_HASHING,
 	}
 
 	public ConfigAssociate setTo( ConfigAssociate src ) {
@@ -59,6 +66,7 @@ public class ConfigAssociate implements Configuration {
 		this.greedy.setTo(src.greedy);
 		this.nearestNeighbor.setTo(src.nearestNeighbor);
 		this.maximumDistancePixels.setTo(src.maximumDistancePixels);
+		this.spatialGrid = src.spatialGrid;
 		return this;
 	}
 
@@ -52,10 +52,20 @@ public class ConfigAssociateNearestNeighbor implements Configuration {
 	 */
 	public int maxNodesSearched = Integer.MAX_VALUE;
 
+	/** Configuration for the graph when {@link ConfigAssociate.AssociationType#HNSW} is used */
+	public final ConfigHnsw hnsw = new ConfigHnsw();
+
+	/**
+	 * Number of hash tables used by {@link ConfigAssociate.AssociationType#MULTI_INDEX_HASHING}. If &le; 0 then
+	 * it's selected so that each substring has log2(N) bits.
+	 */
+	public int multiIndexTables = -1;
+
 	@Override
 	public void checkValidity() {
 		if (scoreRatioThreshold <= 0)
 			throw new IllegalArgumentException("Ratio must be more than zero");
+		hnsw.checkValidity();
 	}
 
 	public ConfigAssociateNearestNeighbor setTo( ConfigAssociateNearestNeighbor src ) {
@@ -63,6 +73,8 @@ public class ConfigAssociateNearestNeighbor implements Configuration {
 		this.scoreRatioThreshold = src.scoreRatioThreshold;
 		this.maxErrorThreshold = src.maxErrorThreshold;
 		this.maxNodesSearched = src.maxNodesSearched;
+		this.hnsw.setTo(src.hnsw);
+		this.multiIndexTables = src.multiIndexTables;
 		return this;
 	}
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.factory.feature.associate;
+
+import boofcv.alg.feature.associate.NearestNeighborHnsw;
+import boofcv.misc.BoofMiscOps;
+import boofcv.struct.Configuration;
+
+/**
+ * Configuration for {@link NearestNeighborHnsw}.
+ *
+ * @author Peter Abeles
+ */
+public class ConfigHnsw implements Configuration {
+	/**
+	 * Maximum number of connections a node has in the upper layers. The bottom layer allows twice as many.
+	 * More connections improves recall on high dimensional data but uses more memory and is slower.
+	 */
+	public int maxConnections = 16;
+
+	/** Size of the candidate list when a point is inserted. Larger values create a better graph but take longer. */
+	public int efConstruction = 200;
+
+	/**
+	 * Size of the candidate list when searching. Larger values improve recall at the cost of speed. If fewer than
+	 * the number of requested neighbors then the number of neighbors is used.
+	 */
+	public int efSearch = 64;
+
+	/** Seed for the random number generator used to select the level of each node */
+	public long randSeed = 0xBEEF;
+
+	@Override public void checkValidity() {
+		BoofMiscOps.checkTrue(maxConnections >= 2, "maxConnections must be >= 2");
+		BoofMiscOps.checkTrue(efConstruction >= 1, "efConstruction must be >= 1");
+		BoofMiscOps.checkTrue(efSearch >= 1, "efSearch must be >= 1");
+	}
+
+	public ConfigHnsw setTo( ConfigHnsw src ) {
+		this.maxConnections = src.maxConnections;
+		this.efConstruction = src.efConstruction;
+		this.efSearch = src.efSearch;
+		this.randSeed = src.randSeed;
+		return this;
+	}
+}
@@ -53,6 +53,14 @@ public class FactoryAssociation {
 			case RANDOM_FOREST:
 				return (AssociateDescription)FactoryAssociation.kdRandomForest(
 						config.nearestNeighbor, DOF, 10, 5, 1233445565);
+
+			case HNSW:
+				return FactoryAssociation.hnsw(config.nearestNeighbor, (Class)info.getDescriptionType());
+
+			case MULTI_INDEX_HASHING:
+				if (info.getDescriptionType() != TupleDesc_B.class)
+					throw new IllegalArgumentException("Multi-index hashing requires binary descriptors");
+				return (AssociateDescription)FactoryAssociation.multiIndexHashing(config.nearestNeighbor, DOF);
 			default:
 				throw new IllegalArgumentException("Unknown association: " + config.type);
 		}
@@ -70,6 +78,8 @@ public class FactoryAssociation {
 		// only greedy is supported at this time
 		if (config.type == ConfigAssociate.AssociationType.GREEDY) {
 			ScoreAssociation<D> scorer = FactoryAssociation.defaultScore(info.getDescriptionType());
+			if (config.spatialGrid)
+				return FactoryAssociation.greedyGrid2D(config.greedy, config.maximumDistancePixels, scorer);
 			return FactoryAssociation.greedy2D(config.greedy, config.maximumDistancePixels, scorer);
 		}
 		throw new IllegalArgumentException("Unknown association: " + config.type);
@@ -157,6 +167,59 @@ public class FactoryAssociation {
 		return new WrapAssociateGreedy2D<D>(alg);
 	}
 
+	/**
+	 * Greedy association which only considers features that are within the max distance of each other. Points are
+	 * bucketed into a grid so that it scales to a large number of features. Distance is Euclidean.
+	 * See {@link AssociateGreedyGrid2D} for details.
+	 *
+	 * @param config Configuration
+	 * @param maxDistance Maximum distance in pixels two features can be apart.
+	 * @param score Computes the fit score between two features.
+	 * @param <D> Data structure being associated
+	 * @return AssociateDescription2D
+	 */
+	public static <D> AssociateDescription2D<D>
+	greedyGrid2D( @Nullable ConfigAssociateGreedy config, ConfigLength maxDistance, ScoreAssociation<D> score ) {
+		if (config == null)
+			config = new ConfigAssociateGreedy();
+
+		var alg = new AssociateGreedyGrid2D<>(score);
+		alg.getMaxDistanceLength().setTo(maxDistance);
+		alg.setBackwardsValidation(config.forwardsBackwards);
+		alg.setMaxFitError(config.maxErrorThreshold);
+		alg.setRatioTest(config.scoreRatioThreshold);
+
+		return new WrapAssociateGreedy2D<D>(alg);
+	}
+
+	/**
+	 * Brute force association for binary descriptors which is much faster than {@link #greedy} with a hamming
+	 * score. Descriptors are packed into 64-bit words and compared in cache friendly blocks.
+	 * See {@link AssociateHammingBruteForceBase} for details.
+	 *
+	 * @param config Configuration. The max error threshold is the maximum allowed hamming distance.
+	 * @param numBits Number of bits in the descriptor
+	 * @return AssociateDescription
+	 */
+	public static AssociateDescription<TupleDesc_B>
+	hammingBruteForce( @Nullable ConfigAssociateGreedy config, int numBits ) {
+		if (config == null)
+			config = new ConfigAssociateGreedy();
+
+		AssociateHammingBruteForceBase alg;
+		if (BoofConcurrency.USE_CONCURRENT) {
+			alg = new AssociateHammingBruteForce_MT();
+		} else {
+			alg = new AssociateHammingBruteForce();
+		}
+
+		alg.setBackwardsValidation(config.forwardsBackwards);
+		alg.setMaxDistance(config.maxErrorThreshold <= 0.0 ? -1 : (int)config.maxErrorThreshold);
+		alg.setRatioTest(config.scoreRatioThreshold);
+
+		return new WrapAssociateHammingBruteForce(alg, numBits);
+	}
+
 	/**
 	 * Approximate association using a K-D tree degree of moderate size (10-15) that uses a best-bin-first search
 	 * order.
@@ -202,6 +265,79 @@ public class FactoryAssociation {
 		return associateNearestNeighbor(configNN, nn);
 	}
 
+	/**
+	 * Approximate association using a Hierarchical Navigable Small World (HNSW) graph. Supports
+	 * {@link TupleDesc_F64} and {@link TupleDesc_F32} using Euclidean distance squared and {@link TupleDesc_B}
+	 * using Hamming distance. Scales better than a K-D tree with high dimensional descriptors.
+	 *
+	 * @param configNN Configuration. If null then default values are used.
+	 * @param type Type of descriptor
+	 * @return Association using approximate nearest neighbor
+	 * @see NearestNeighborHnsw
+	 */
+	public static <TD extends TupleDesc<TD>>
+	AssociateDescription<TD> hnsw( @Nullable ConfigAssociateNearestNeighbor configNN, Class<TD> type ) {
+		if (configNN == null)
+			configNN = new ConfigAssociateNearestNeighbor();
+
+		NearestNeighborHnsw<TD> nn = hnswNearestNeighbor(configNN.hnsw, type);
+		AssociateNearestNeighbor<TD> assoc = associateNearestNeighbor(configNN, nn, type);
+		// The square root is only applied to Euclidean distance squared
+		if (!(nn.getDistance() instanceof ScoreAssociateEuclideanSq))
+			assoc.setRatioUsesSqrt(false);
+		return assoc;
+	}
+
+	/**
+	 * Exact association of binary descriptors using multi-index hashing. Sub-linear when
+	 * {@link ConfigAssociateNearestNeighbor#maxErrorThreshold} is small relative to the number of bits,
+	 * otherwise it will degrade into a brute force search.
+	 *
+	 * @param configNN Configuration. If null then default values are used.
+	 * @param numBits Number of bits in the descriptor
+	 * @return Association using multi-index hashing
+	 * @see NearestNeighborMultiIndexHashing
+	 */
+	public static AssociateDescription<TupleDesc_B>
+	multiIndexHashing( @Nullable ConfigAssociateNearestNeighbor configNN, int numBits ) {
+		if (configNN == null)
+			configNN = new ConfigAssociateNearestNeighbor();
+
+		var nn = new NearestNeighborMultiIndexHashing(numBits, configNN.multiIndexTables);
+		AssociateNearestNeighbor<TupleDesc_B> assoc = associateNearestNeighbor(configNN, nn, TupleDesc_B.class);
+		// Hamming distance isn't squared
+		assoc.setRatioUsesSqrt(false);
+		return assoc;
+	}
+
+	/**
+	 * Creates a {@link NearestNeighborHnsw} for the specified descriptor type. Distance is Euclidean squared
+	 * for {@link TupleDesc_F64} and {@link TupleDesc_F32} and Hamming for {@link TupleDesc_B}.
+	 *
+	 * @param config Configuration. If null then default values are used.
+	 * @param type Type of descriptor
+	 */
+	public static <TD extends TupleDesc<TD>>
+	NearestNeighborHnsw<TD> hnswNearestNeighbor( @Nullable ConfigHnsw config, Class<TD> type ) {
+		if (config == null)
+			config = new ConfigHnsw();
+		config.checkValidity();
+
+		ScoreAssociation<TD> distance;
+		if (type == TupleDesc_F64.class) {
+			distance = (ScoreAssociation)new ScoreAssociateEuclideanSq.F64();
+		} else if (type == TupleDesc_F32.class) {
+			distance = (ScoreAssociation)new ScoreAssociateEuclideanSq.F32();
+		} else if (type == TupleDesc_B.class) {
+			distance = (ScoreAssociation)new ScoreAssociateHamming_B();
+		} else {
+			throw new IllegalArgumentException("Type isn't supported: " + type.getSimpleName());
+		}
+
+		return new NearestNeighborHnsw<>(distance,
+				config.maxConnections, config.efConstruction, config.efSearch, config.randSeed);
+	}
+
 	public static <TD extends TupleDesc<TD>> KdTreeDistance<TD> kdtreeDistance( int dof, Class<TD> type ) {
 		if (type == TupleDesc_F64.class) {
 			return (KdTreeDistance)new KdTreeTuple_F64(dof);
@@ -214,16 +350,21 @@ public class FactoryAssociation {
 
 	public static AssociateNearestNeighbor<TupleDesc_F64>
 	associateNearestNeighbor( @Nullable ConfigAssociateNearestNeighbor config, NearestNeighbor nn ) {
+		return associateNearestNeighbor(config, nn, TupleDesc_F64.class);
+	}
+
+	public static <D> AssociateNearestNeighbor<D>
+	associateNearestNeighbor( @Nullable ConfigAssociateNearestNeighbor config, NearestNeighbor<D> nn, Class<D> type ) {
 		if (config == null)
 			config = new ConfigAssociateNearestNeighbor();
 
 		config.checkValidity();
 
-		AssociateNearestNeighbor<TupleDesc_F64> assoc;
+		AssociateNearestNeighbor<D> assoc;
 		if (BoofConcurrency.USE_CONCURRENT) {
-			assoc = new AssociateNearestNeighbor_MT<>(nn, TupleDesc_F64.class);
+			assoc = new AssociateNearestNeighbor_MT<>(nn, type);
 		} else {
-			assoc = new AssociateNearestNeighbor_ST<>(nn, TupleDesc_F64.class);
+			assoc = new AssociateNearestNeighbor_ST<>(nn, type);
 		}
 		assoc.setRatioUsesSqrt(config.distanceIsSquared);
 		assoc.setMaxScoreThreshold(config.maxErrorThreshold);
@@ -20,20 +20,35 @@ package boofcv.factory.feature.detdesc;
 
 import boofcv.abst.feature.describe.ConfigSiftDescribe;
 import boofcv.abst.feature.describe.ConfigSiftScaleSpace;
+import boofcv.abst.feature.detdesc.ConfigCompleteOrb;
 import boofcv.abst.feature.detdesc.ConfigCompleteSift;
 import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
 import boofcv.abst.feature.orientation.ConfigSiftOrientation;
+import boofcv.abst.filter.blur.BlurFilter;
 import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
+import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
+import boofcv.alg.feature.detdesc.CompleteOrb;
+import boofcv.alg.feature.detdesc.CompleteOrb_MT;
 import boofcv.alg.feature.detdesc.CompleteSift;
 import boofcv.alg.feature.detdesc.CompleteSift_MT;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector;
 import boofcv.alg.feature.detect.interest.SiftDetector;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
 import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.PyramidDiscrete;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Random;
+
 /**
  * Factory for specific implementations of Detect and Describe feature algorithms.
  *
@@ -74,4 +89,60 @@ public class FactoryDetectDescribeAlgs {
 			return new CompleteSift(ss, detector, orientation, describe);
 		}
 	}
+
+	/**
+	 * Creates an ORB style detector and describer. The descriptor's sample pattern is randomly generated using
+	 * the seed in the configuration. To use a learned pattern see
+	 * {@link #orb(ConfigCompleteOrb, BinaryCompareDefinition_I32, Class)}.
+	 *
+	 * @param config Configuration. If null then the default is used.
+	 * @param imageType Type of input image
+	 * @return ORB
+	 */
+	public static <T extends ImageGray<T>>
+	CompleteOrb<T> orb( @Nullable ConfigCompleteOrb config, Class<T> imageType ) {
+		if (config == null)
+			config = new ConfigCompleteOrb();
+
+		BinaryCompareDefinition_I32 definition = FactoryBriefDefinition.gaussian(
+				new Random(config.randomSeed), config.descriptorRadius, config.descriptorBits);
+
+		return orb(config, definition, imageType);
+	}
+
+	/**
+	 * Creates an ORB style detector and describer with the specified descriptor sample pattern.
+	 *
+	 * @param config Configuration. If null then the default is used.
+	 * @param definition Sample pattern for the descriptor, e.g. one found with
+	 * {@link boofcv.alg.feature.describe.brief.LearnBriefDefinition}
+	 * @param imageType Type of input image
+	 * @return ORB
+	 */
+	public static <T extends ImageGray<T>>
+	CompleteOrb<T> orb( @Nullable ConfigCompleteOrb config, BinaryCompareDefinition_I32 definition,
+						Class<T> imageType ) {
+		if (config == null)
+			config = new ConfigCompleteOrb();
+		config.checkValidity();
+
+		PyramidDiscrete<T> pyramid = FactoryPyramid.discreteGaussian(
+				config.pyramid, -1, 2, true, ImageType.single(imageType));
+		FastCornerDetector<T> fast = FactoryIntensityPointAlg.fast(
+				config.fast.pixelTol, config.fast.minContinuous, imageType);
+		BlurFilter<T> blur = FactoryBlurFilter.gaussian(imageType, config.blurSigma, config.blurRadius);
+
+		CompleteOrb<T> alg;
+		if (BoofConcurrency.USE_CONCURRENT) {
+			alg = new CompleteOrb_MT<>(pyramid, fast, blur, definition, config.orientationRadius, config.numAngles);
+		} else {
+			alg = new CompleteOrb<>(pyramid, fast, blur, definition, config.orientationRadius, config.numAngles);
+		}
+		alg.setMaxFeatures(config.maxFeatures);
+		alg.setHarrisRadius(config.harrisRadius);
+		alg.setHarrisK(config.harrisK);
+		alg.getSelector().configUniform.setTo(config.uniform);
+
+		return alg;
+	}
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.PackedArray;
+import org.ddogleg.struct.DogArray_I64;
+
+/**
+ * Variant of {@link PackedTupleArray_B} where the bits are stored in 64-bit words. Tuples are stored one after
+ * another in a single row-major array. The first integer in {@link TupleDesc_B} is the lower half of the first
+ * word. Using 64-bit words halves the number of operations needed to compute the hamming distance and the
+ * continuous memory makes it well suited for brute force matching.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleArray_B64 implements PackedArray<TupleDesc_B> {
+	// degree-of-freedom, number of elements in the tuple
+	public final int dof;
+	// Stores tuple in a single continuous array
+	public final DogArray_I64 array;
+	// tuple that the result is temporarily written to
+	public final TupleDesc_B temp;
+
+	// Number of tuples stored in the array
+	protected int numElements;
+
+	// Number of integers used by TupleDesc_B to store the descriptor
+	protected final int numInts;
+
+	// Number of longs required to store the descriptor
+	protected final int numWords;
+
+	public PackedTupleArray_B64( int dof ) {
+		this.dof = dof;
+		this.temp = new TupleDesc_B(dof);
+		this.numInts = temp.data.length;
+		this.numWords = (numInts + 1)/2;
+		array = new DogArray_I64();
+		array.resize(0);
+	}
+
+	@Override public void reset() {
+		numElements = 0;
+		array.reset();
+	}
+
+	@Override public void reserve( int numTuples ) {
+		array.reserve(numTuples*numWords);
+	}
+
+	@Override public void append( TupleDesc_B element ) {
+		int offset = array.size;
+		array.resize(offset + numWords);
+		for (int word = 0; word < numWords; word++) {
+			long lower = element.data[word*2] & 0xFFFFFFFFL;
+			long upper = word*2 + 1 < numInts ? element.data[word*2 + 1] : 0;
+			array.data[offset + word] = lower | (upper << 32);
+		}
+		numElements++;
+	}
+
+	@Override public TupleDesc_B getTemp( int index ) {
+		getCopy(index, temp);
+		return temp;
+	}
+
+	@Override public void getCopy( int index, TupleDesc_B dst ) {
+		int offset = index*numWords;
+		for (int i = 0; i < numInts; i++) {
+			long word = array.data[offset + i/2];
+			dst.data[i] = (int)(i%2 == 0 ? word : word >>> 32);
+		}
+	}
+
+	@Override public void copy( TupleDesc_B src, TupleDesc_B dst ) {
+		System.arraycopy(src.data, 0, dst.data, 0, numInts);
+	}
+
+	@Override public int size() {
+		return numElements;
+	}
+
+	/**
+	 * Number of 64-bit words used to store each tuple
+	 */
+	public int getNumWords() {
+		return numWords;
+	}
+
+	@Override public Class<TupleDesc_B> getElementType() {
+		return TupleDesc_B.class;
+	}
+
+	@Override public void forIdx( int idx0, int idx1, BoofLambdas.ProcessIndex<TupleDesc_B> op ) {
+		for (int i = idx0; i < idx1; i++) {
+			getCopy(i, temp);
+			op.process(i, temp);
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.AssociateHammingBruteForce;
+import boofcv.factory.feature.associate.ConfigAssociateGreedy;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.struct.DogArray;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestWrapAssociateHammingBruteForce extends BoofStandardJUnit {
+	int numBits = 256;
+
+	/**
+	 * Should produce the same results as greedy association with a hamming score when there are no ties
+	 */
+	@Test void compareToGreedy() {
+		DogArray<TupleDesc_B> src = createData(100);
+		DogArray<TupleDesc_B> dst = createData(0);
+		// Every dst is a noisy version of a src feature so there's a clear best match
+		for (int i = 0; i < 80; i++) {
+			TupleDesc_B d = dst.grow();
+			d.setTo(src.get(i));
+			for (int j = 0; j < 10; j++) {
+				int bit = rand.nextInt(numBits);
+				d.setBit(bit, !d.isBitTrue(bit));
+			}
+		}
+
+		var config = new ConfigAssociateGreedy(true, 0.8, 60);
+		AssociateDescription<TupleDesc_B> expected =
+				FactoryAssociation.greedy(config, new ScoreAssociateHamming_B());
+		AssociateDescription<TupleDesc_B> alg = FactoryAssociation.hammingBruteForce(config, numBits);
+
+		assertTrue(alg.uniqueSource());
+		assertTrue(alg.uniqueDestination());
+
+		for (var a : new AssociateDescription[]{expected, alg}) {
+			a.setSource(src);
+			a.setDestination(dst);
+			a.associate();
+		}
+
+		assertEquals(80, alg.getMatches().size);
+		assertEquals(expected.getMatches().size, alg.getMatches().size);
+		for (int i = 0; i < alg.getMatches().size; i++) {
+			AssociatedIndex e = expected.getMatches().get(i);
+			AssociatedIndex f = alg.getMatches().get(i);
+			assertEquals(e.src, f.src);
+			assertEquals(e.dst, f.dst);
+			assertEquals(e.fitScore, f.fitScore);
+		}
+		assertEquals(20, alg.getUnassociatedSource().size);
+		assertEquals(0, alg.getUnassociatedDestination().size);
+	}
+
+	@Test void setMaxScoreThreshold() {
+		DogArray<TupleDesc_B> src = createData(1);
+		DogArray<TupleDesc_B> dst = createData(0);
+		dst.grow().setTo(src.get(0));
+		dst.get(0).setBit(0, !dst.get(0).isBitTrue(0));
+
+		var alg = new WrapAssociateHammingBruteForce(new AssociateHammingBruteForce(), numBits);
+		assertFalse(alg.uniqueDestination());
+		alg.setSource(src);
+		alg.setDestination(dst);
+
+		alg.setMaxScoreThreshold(0.5);
+		alg.associate();
+		assertEquals(0, alg.getMatches().size);
+		assertEquals(1, alg.getUnassociatedSource().size);
+		assertEquals(1, alg.getUnassociatedDestination().size);
+
+		alg.setMaxScoreThreshold(1);
+		alg.associate();
+		assertEquals(1, alg.getMatches().size);
+		assertEquals(1.0, alg.getMatches().get(0).fitScore);
+
+		alg.setMaxScoreThreshold(Double.MAX_VALUE);
+		alg.associate();
+		assertEquals(1, alg.getMatches().size);
+	}
+
+	@Test void emptyLists() {
+		var alg = new WrapAssociateHammingBruteForce(new AssociateHammingBruteForce(), numBits);
+		alg.setSource(createData(3));
+		alg.setDestination(createData(0));
+		alg.associate();
+		assertEquals(0, alg.getMatches().size);
+		assertEquals(3, alg.getUnassociatedSource().size);
+
+		alg.setSource(createData(0));
+		alg.setDestination(createData(4));
+		alg.associate();
+		assertEquals(0, alg.getMatches().size);
+		assertEquals(4, alg.getUnassociatedDestination().size);
+	}
+
+	DogArray<TupleDesc_B> createData( int count ) {
+		var ret = new DogArray<>(() -> new TupleDesc_B(numBits));
+		for (int i = 0; i < count; i++) {
+			TupleDesc_B desc = ret.grow();
+			for (int j = 0; j < desc.data.length; j++) {
+				desc.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+}
@@ -22,7 +22,9 @@ import boofcv.factory.feature.describe.ConfigDescribeRegion;
 import boofcv.factory.feature.detect.interest.ConfigDetectInterestPoint;
 import boofcv.factory.tracker.ConfigPointTracker;
 import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.struct.ConfigLength;
 import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Nested;
 
 /**
  * @author Peter Abeles
@@ -35,6 +37,10 @@ public class TestPointTrackerDda extends GenericChecksPointTracker<GrayF32> {
 
 	@Override
 	public PointTracker<GrayF32> createTracker() {
+		return FactoryPointTracker.tracker(createConfig(), GrayF32.class, null);
+	}
+
+	static ConfigPointTracker createConfig() {
 		ConfigPointTracker config = new ConfigPointTracker();
 		config.typeTracker = ConfigPointTracker.TrackerType.DDA;
 		config.detDesc.typeDetector = ConfigDetectInterestPoint.Type.POINT;
@@ -42,7 +48,26 @@ public class TestPointTrackerDda extends GenericChecksPointTracker<GrayF32> {
 		config.detDesc.detectPoint.general.radius = 3;
 		config.detDesc.typeDescribe = ConfigDescribeRegion.Type.BRIEF;
 		config.detDesc.describeBrief.fixed = true;
+		return config;
+	}
+
+	/**
+	 * Predicts track locations and only considers detections which are nearby
+	 */
+	@Nested
+	public class MotionGated extends GenericChecksPointTracker<GrayF32> {
+		protected MotionGated() {
+			super(true, false);
+		}
+
+		@Override
+		public PointTracker<GrayF32> createTracker() {
+			ConfigPointTracker config = createConfig();
+			config.dda.motion = ConfigTrackerDda.MotionModel.CONSTANT_VELOCITY;
+			config.associate.spatialGrid = true;
+			config.associate.maximumDistancePixels.setTo(ConfigLength.fixed(20));
 
-		return FactoryPointTracker.tracker(config,GrayF32.class,null);
+			return FactoryPointTracker.tracker(config, GrayF32.class, null);
+		}
 	}
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.feature.TupleDesc_F64;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.FastAccess;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateGreedyGrid2D extends GenericAssociateGreedyChecks {
+
+	ScoreAssociation<TupleDesc_F64> score = new ScoreAssociateEuclidean_F64();
+
+	@Override
+	protected AssociateGreedyBase<TupleDesc_F64> createAlgorithm() {
+		var alg = new AssociateGreedyGrid2D<>(score);
+		// it should now be equivalent
+		alg.maxDistanceLength.setTo(ConfigLength.fixed(Double.MAX_VALUE));
+		alg.init(100, 100);
+		return alg;
+	}
+
+	@Override
+	protected void associate( AssociateGreedyBase<TupleDesc_F64> _alg,
+							  FastAccess<TupleDesc_F64> src,
+							  FastAccess<TupleDesc_F64> dst ) {
+		var alg = (AssociateGreedyGrid2D<TupleDesc_F64>)_alg;
+
+		// Dummy Values
+		var locSrc = new DogArray<>(Point2D_F64::new);
+		var locDst = new DogArray<>(Point2D_F64::new);
+
+		for (int i = 0; i < src.size; i++) {locSrc.grow();}
+		for (int i = 0; i < dst.size; i++) {locDst.grow();}
+
+		alg.setSource(locSrc, src);
+		alg.setDestination(locDst, dst);
+		alg.associate();
+	}
+
+	@Test void isMaxDistanceRespected() {
+		var descSrc = createData(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		var descDst = createData(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+
+		var locSrc = new DogArray<>(Point2D_F64::new);
+		var locDst = new DogArray<>(Point2D_F64::new);
+
+		locSrc.resize(descSrc.size);
+		locDst.resize(descDst.size);
+
+		double d = 10.0;
+		for (int i = 0; i < 4; i++) {
+			locDst.get(i).setTo(d, 0);
+		}
+
+		var alg = new AssociateGreedyGrid2D<>(score);
+		alg.setMaxFitError(0.1); // limit what it can be matched to to make testing easier
+		alg.setSource(locSrc, descSrc);
+		alg.setDestination(locDst, descDst);
+
+		// very clear separation
+		alg.maxDistanceUnits = d*d/2;
+		alg.associate();
+		assertEquals(6, countMatches(alg.getPairs()));
+
+		// everything should be matched
+		alg.maxDistanceUnits = d*d*2;
+		alg.associate();
+		assertEquals(10, countMatches(alg.getPairs()));
+
+		// test that threshold is inclusive
+		alg.maxDistanceUnits = d*d;
+		alg.associate();
+		assertEquals(10, countMatches(alg.getPairs()));
+	}
+
+	/**
+	 * Randomly generated points spread across an image should produce identical results to brute force
+	 */
+	@Test void compareToBruteForce() {
+		for (boolean backwards : new boolean[]{false, true}) {
+			for (double ratio : new double[]{1.0, 0.9}) {
+				var descSrc = new DogArray<>(() -> new TupleDesc_F64(2));
+				var descDst = new DogArray<>(() -> new TupleDesc_F64(2));
+				var locSrc = new DogArray<>(Point2D_F64::new);
+				var locDst = new DogArray<>(Point2D_F64::new);
+
+				// Include points outside the image to make sure they are handled correctly
+				for (int i = 0; i < 300; i++) {
+					locSrc.grow().setTo(rand.nextDouble()*700 - 50, rand.nextDouble()*500 - 50);
+					descSrc.grow().setTo(rand.nextDouble(), rand.nextDouble());
+				}
+				for (int i = 0; i < 320; i++) {
+					locDst.grow().setTo(rand.nextDouble()*600, rand.nextDouble()*400);
+					descDst.grow().setTo(rand.nextDouble(), rand.nextDouble());
+				}
+
+				var expected = new AssociateGreedyBruteForce2D<>(score, new AssociateImageDistanceEuclideanSq());
+				var found = new AssociateGreedyGrid2D<>(score);
+				for (AssociateGreedyBase2D<TupleDesc_F64> alg : new AssociateGreedyBase2D[]{expected, found}) {
+					alg.maxDistanceLength.setTo(ConfigLength.fixed(40));
+					alg.init(600, 400);
+					alg.setBackwardsValidation(backwards);
+					alg.setRatioTest(ratio);
+					alg.setMaxFitError(0.2);
+					alg.setSource(locSrc, descSrc);
+					alg.setDestination(locDst, descDst);
+					alg.associate();
+				}
+
+				assertEquals(expected.pairs.size, found.pairs.size);
+				int total = 0;
+				for (int i = 0; i < expected.pairs.size; i++) {
+					assertEquals(expected.pairs.get(i), found.pairs.get(i));
+					if (expected.pairs.get(i) >= 0) {
+						assertEquals(expected.fitQuality.get(i), found.fitQuality.get(i));
+						total++;
+					}
+				}
+				// sanity check to make sure it's not trivial
+				assertTrue(total > 20);
+			}
+		}
+	}
+
+	/** Empty destination and source lists should be handled gracefully */
+	@Test void emptyLists() {
+		var alg = new AssociateGreedyGrid2D<>(score);
+		alg.maxDistanceLength.setTo(ConfigLength.fixed(10));
+		alg.init(100, 100);
+
+		var locSrc = new DogArray<>(Point2D_F64::new);
+		locSrc.grow();
+		alg.setSource(locSrc, createData(1));
+		alg.setDestination(new DogArray<>(Point2D_F64::new), createData());
+		alg.associate();
+		assertEquals(1, alg.getPairs().size);
+		assertEquals(-1, alg.getPairs().get(0));
+
+		alg.setSource(new DogArray<>(Point2D_F64::new), createData());
+		alg.setDestination(locSrc, createData(1));
+		alg.associate();
+		assertEquals(0, alg.getPairs().size);
+	}
+
+	private int countMatches( DogArray_I32 pairs ) {
+		int total = 0;
+		for (int i = 0; i < pairs.size; i++) {
+			if (pairs.data[i] >= 0)
+				total++;
+		}
+		return total;
+	}
+}
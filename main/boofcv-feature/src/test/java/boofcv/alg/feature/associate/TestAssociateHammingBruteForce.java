@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.feature.PackedTupleArray_B64;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.struct.DogArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateHammingBruteForce extends BoofStandardJUnit {
+	/**
+	 * Compare the k-best matches against a naive search. Descriptor sizes with and without a specialized
+	 * implementation are tested and the blocks are made small so that there are several of them.
+	 */
+	@Test void kBest_compareToNaive() {
+		for (int numBits : new int[]{256, 100, 512}) {
+			DogArray<TupleDesc_B> src = createData(rand, 120, numBits);
+			DogArray<TupleDesc_B> dst = createData(rand, 150, numBits);
+
+			var alg = new AssociateHammingBruteForce();
+			alg.setNumNeighbors(3);
+			alg.setBlockSrc(7);
+			alg.setBlockDst(20);
+			alg.associate(pack(src), pack(dst));
+
+			for (int i = 0; i < src.size; i++) {
+				int[] expected = naiveBest(src.get(i), dst, 3);
+				for (int j = 0; j < 3; j++) {
+					assertEquals(expected[j], alg.getBestIndexes().get(i*3 + j));
+					assertEquals(DescriptorDistance.hamming(src.get(i), dst.get(expected[j])),
+							alg.getBestDistances().get(i*3 + j));
+				}
+				// No validation so the best match is always selected
+				assertEquals(expected[0], alg.getPairs().get(i));
+			}
+		}
+	}
+
+	/**
+	 * There are fewer dst features than neighbors
+	 */
+	@Test void kBest_tooFewDestination() {
+		DogArray<TupleDesc_B> src = createData(rand, 10, 256);
+		DogArray<TupleDesc_B> dst = createData(rand, 2, 256);
+
+		var alg = new AssociateHammingBruteForce();
+		alg.setNumNeighbors(3);
+		alg.associate(pack(src), pack(dst));
+
+		for (int i = 0; i < src.size; i++) {
+			assertEquals(-1, alg.getBestIndexes().get(i*3 + 2));
+			assertEquals(Integer.MAX_VALUE, alg.getBestDistances().get(i*3 + 2));
+			assertTrue(alg.getPairs().get(i) >= 0);
+		}
+	}
+
+	@Test void maxDistance() {
+		DogArray<TupleDesc_B> src = createData(rand, 1, 64);
+		DogArray<TupleDesc_B> dst = createData(rand, 0, 64);
+		dst.grow().setTo(src.get(0));
+		flipBits(dst.get(0), 5);
+
+		var alg = new AssociateHammingBruteForce();
+		alg.setMaxDistance(4);
+		alg.associate(pack(src), pack(dst));
+		assertEquals(-1, alg.getPairs().get(0));
+
+		alg.setMaxDistance(5);
+		alg.associate(pack(src), pack(dst));
+		assertEquals(0, alg.getPairs().get(0));
+	}
+
+	@Test void ratioTest() {
+		DogArray<TupleDesc_B> src = createData(rand, 1, 64);
+		DogArray<TupleDesc_B> dst = createData(rand, 0, 64);
+		dst.grow().setTo(src.get(0));
+		dst.grow().setTo(src.get(0));
+		flipBits(dst.get(0), 10);
+		flipBits(dst.get(1), 5);
+
+		var alg = new AssociateHammingBruteForce();
+		alg.setRatioTest(0.4);
+		alg.associate(pack(src), pack(dst));
+		assertEquals(-1, alg.getPairs().get(0));
+
+		alg.setRatioTest(0.5);
+		alg.associate(pack(src), pack(dst));
+		assertEquals(1, alg.getPairs().get(0));
+	}
+
+	/**
+	 * Two src features have the same best match. Only the better one should pass backwards validation
+	 */
+	@Test void backwardsValidation() {
+		DogArray<TupleDesc_B> dst = createData(rand, 1, 64);
+		DogArray<TupleDesc_B> src = createData(rand, 0, 64);
+		src.grow().setTo(dst.get(0));
+		src.grow().setTo(dst.get(0));
+		flipBits(src.get(0), 6);
+		flipBits(src.get(1), 3);
+
+		var alg = new AssociateHammingBruteForce();
+		alg.associate(pack(src), pack(dst));
+		assertEquals(0, alg.getPairs().get(0));
+		assertEquals(0, alg.getPairs().get(1));
+
+		alg.setBackwardsValidation(true);
+		alg.associate(pack(src), pack(dst));
+		assertEquals(-1, alg.getPairs().get(0));
+		assertEquals(0, alg.getPairs().get(1));
+
+		// If there's a tie then neither should be accepted
+		src.get(0).setTo(src.get(1));
+		alg.associate(pack(src), pack(dst));
+		assertEquals(-1, alg.getPairs().get(0));
+		assertEquals(-1, alg.getPairs().get(1));
+	}
+
+	/**
+	 * Finds the k-best matches. Ties are broken by selecting the lower index.
+	 */
+	private static int[] naiveBest( TupleDesc_B a, DogArray<TupleDesc_B> list, int k ) {
+		var best = new int[k];
+		var used = new boolean[list.size];
+		for (int i = 0; i < k; i++) {
+			int bestDistance = Integer.MAX_VALUE;
+			for (int j = 0; j < list.size; j++) {
+				int d = DescriptorDistance.hamming(a, list.get(j));
+				if (!used[j] && d < bestDistance) {
+					bestDistance = d;
+					best[i] = j;
+				}
+			}
+			used[best[i]] = true;
+		}
+		return best;
+	}
+
+	private void flipBits( TupleDesc_B desc, int count ) {
+		for (int i = 0; i < count; i++) {
+			desc.setBit(i*3, !desc.isBitTrue(i*3));
+		}
+	}
+
+	static PackedTupleArray_B64 pack( DogArray<TupleDesc_B> list ) {
+		var packed = new PackedTupleArray_B64(list.get(0).numBits);
+		list.forEach(packed::append);
+		return packed;
+	}
+
+	static DogArray<TupleDesc_B> createData( Random rand, int count, int numBits ) {
+		var ret = new DogArray<>(() -> new TupleDesc_B(numBits));
+		for (int i = 0; i < count; i++) {
+			TupleDesc_B desc = ret.grow();
+			for (int bit = 0; bit < numBits; bit++) {
+				desc.setBit(bit, rand.nextBoolean());
+			}
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.PackedTupleArray_B64;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestAssociateHammingBruteForce_MT extends BoofStandardJUnit {
+	@Test void compare() {
+		compare(false, 1.0);
+		compare(true, 1.0);
+		compare(false, 0.9);
+		compare(true, 0.9);
+	}
+
+	void compare( boolean backwards, double ratioTest ) {
+		PackedTupleArray_B64 a = TestAssociateHammingBruteForce.pack(TestAssociateHammingBruteForce.createData(rand, 300, 256));
+		PackedTupleArray_B64 b = TestAssociateHammingBruteForce.pack(TestAssociateHammingBruteForce.createData(rand, 310, 256));
+
+		var sequentialAlg = new AssociateHammingBruteForce();
+		sequentialAlg.setBackwardsValidation(backwards);
+		sequentialAlg.setRatioTest(ratioTest);
+		sequentialAlg.setBlockDst(50);
+		sequentialAlg.associate(a, b);
+
+		var parallelAlg = new AssociateHammingBruteForce_MT();
+		parallelAlg.setBackwardsValidation(backwards);
+		parallelAlg.setRatioTest(ratioTest);
+		parallelAlg.setBlockDst(50);
+		parallelAlg.associate(a, b);
+
+		assertEquals(sequentialAlg.getPairs().size, parallelAlg.getPairs().size);
+		for (int i = 0; i < sequentialAlg.getPairs().size; i++) {
+			assertEquals(sequentialAlg.getPairs().get(i), parallelAlg.getPairs().get(i));
+		}
+		for (int i = 0; i < sequentialAlg.getBestIndexes().size; i++) {
+			assertEquals(sequentialAlg.getBestIndexes().get(i), parallelAlg.getBestIndexes().get(i));
+			assertEquals(sequentialAlg.getBestDistances().get(i), parallelAlg.getBestDistances().get(i));
+		}
+	}
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.abst.feature.associate.StandardAssociateDescriptionChecks;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.ConfigAssociateNearestNeighbor;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.DogArray;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestNearestNeighborHnsw extends BoofStandardJUnit {
+	int DOF = 16;
+
+	/**
+	 * Compare against an exhaustive search. Results are approximate so only most need to be correct
+	 */
+	@Test void findNearest_recall_F64() {
+		List<TupleDesc_F64> points = createF64(1000);
+		List<TupleDesc_F64> queries = createF64(200);
+
+		var alg = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F64(), 16, 100, 50, 0xBEEF);
+		alg.setPoints(points, true);
+		checkRecall(alg, new ScoreAssociateEuclideanSq.F64(), points, queries);
+	}
+
+	@Test void findNearest_recall_F32() {
+		List<TupleDesc_F32> points = new ArrayList<>();
+		List<TupleDesc_F32> queries = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			var d = new TupleDesc_F32(DOF);
+			for (int j = 0; j < DOF; j++) {
+				d.data[j] = rand.nextFloat();
+			}
+			(i < 800 ? points : queries).add(d);
+		}
+
+		var alg = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F32(), 16, 100, 50, 0xBEEF);
+		alg.setPoints(points, true);
+		checkRecall(alg, new ScoreAssociateEuclideanSq.F32(), points, queries);
+	}
+
+	@Test void findNearest_recall_Hamming() {
+		List<TupleDesc_B> points = new ArrayList<>();
+		List<TupleDesc_B> queries = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			var d = new TupleDesc_B(256);
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+			(i < 800 ? points : queries).add(d);
+		}
+
+		var alg = new NearestNeighborHnsw<>(new ScoreAssociateHamming_B(), 16, 100, 50, 0xBEEF);
+		alg.setPoints(points, true);
+		checkRecall(alg, new ScoreAssociateHamming_B(), points, queries);
+	}
+
+	/**
+	 * The distance to the found point must be the same as the best distance. With binary descriptors there can be
+	 * ties so the index isn't compared.
+	 */
+	private <P> void checkRecall( NearestNeighborHnsw<P> alg, ScoreAssociation<P> score, List<P> points, List<P> queries ) {
+		NearestNeighbor.Search<P> search = alg.createSearch();
+		var result = new NnData<P>();
+
+		int correct = 0;
+		for (P q : queries) {
+			double best = Double.MAX_VALUE;
+			for (P p : points) {
+				best = Math.min(best, score.score(q, p));
+			}
+
+			assertTrue(search.findNearest(q, -1, result));
+			assertSame(points.get(result.index), result.point);
+			assertEquals(score.score(q, result.point), result.distance, 1e-8);
+			if (result.distance == best)
+				correct++;
+		}
+		assertTrue(correct >= queries.size()*0.95, "correct=" + correct);
+	}
+
+	/**
+	 * Every point which is in the graph should be able to find itself
+	 */
+	@Test void findNearest_self() {
+		List<TupleDesc_F64> points = createF64(500);
+
+		var alg = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F64(), 8, 50, 20, 0xBEEF);
+		alg.setPoints(points, true);
+		NearestNeighbor.Search<TupleDesc_F64> search = alg.createSearch();
+		var result = new NnData<TupleDesc_F64>();
+
+		int correct = 0;
+		for (int i = 0; i < points.size(); i++) {
+			assertTrue(search.findNearest(points.get(i), -1, result));
+			if (result.index == i)
+				correct++;
+		}
+		assertTrue(correct >= 495, "correct=" + correct);
+	}
+
+	/**
+	 * Results should be sorted and the first should be the same as when searching for a single neighbor
+	 */
+	@Test void findNearest_multiple() {
+		List<TupleDesc_F64> points = createF64(500);
+
+		var alg = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F64(), 16, 100, 5, 0xBEEF);
+		alg.setPoints(points, true);
+		NearestNeighbor.Search<TupleDesc_F64> search = alg.createSearch();
+		var result = new NnData<TupleDesc_F64>();
+		DogArray<NnData<TupleDesc_F64>> results = new DogArray<>(NnData::new);
+
+		for (int trial = 0; trial < 20; trial++) {
+			TupleDesc_F64 q = createF64(1).get(0);
+			// Make sure it's larger than efSearch
+			search.findNearest(q, -1, 10, results);
+			assertEquals(10, results.size);
+			for (int i = 1; i < results.size; i++) {
+				assertTrue(results.get(i - 1).distance <= results.get(i).distance);
+			}
+
+			// Returning more neighbors shouldn't make it worse
+			search.findNearest(q, -1, result);
+			assertTrue(results.get(0).distance <= result.distance);
+
+			// Only the ones inside the max distance should be returned
+			double maxDistance = results.get(4).distance;
+			search.findNearest(q, maxDistance, 10, results);
+			for (int i = 0; i < results.size; i++) {
+				assertTrue(results.get(i).distance <= maxDistance);
+			}
+		}
+	}
+
+	@Test void findNearest_maxDistance() {
+		List<TupleDesc_F64> points = createF64(100);
+
+		var alg = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F64(), 8, 50, 20, 0xBEEF);
+		alg.setPoints(points, true);
+		NearestNeighbor.Search<TupleDesc_F64> search = alg.createSearch();
+		var result = new NnData<TupleDesc_F64>();
+
+		TupleDesc_F64 q = createF64(1).get(0);
+		assertTrue(search.findNearest(q, -1, result));
+		double distance = result.distance;
+		assertTrue(search.findNearest(q, distance, result));
+		assertFalse(search.findNearest(q, distance*0.99, result));
+	}
+
+	@Test void emptyGraph() {
+		var alg = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F64(), 8, 50, 20, 0xBEEF);
+		alg.setPoints(new ArrayList<>(), true);
+		NearestNeighbor.Search<TupleDesc_F64> search = alg.createSearch();
+		DogArray<NnData<TupleDesc_F64>> results = new DogArray<>(NnData::new);
+		results.grow();
+
+		assertFalse(search.findNearest(createF64(1).get(0), -1, new NnData<>()));
+		search.findNearest(createF64(1).get(0), -1, 3, results);
+		assertEquals(0, results.size);
+	}
+
+	/**
+	 * Adding points one at a time should produce the same graph as adding them all at once
+	 */
+	@Test void add_incremental() {
+		List<TupleDesc_F64> points = createF64(300);
+
+		var expected = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F64(), 8, 50, 20, 0xBEEF);
+		expected.setPoints(points, true);
+
+		var found = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F64(), 8, 50, 20, 0xBEEF);
+		for (int i = 0; i < points.size(); i++) {
+			found.add(points.get(i));
+			assertEquals(i + 1, found.getNodes().size);
+		}
+
+		assertEquals(expected.getEntryPoint(), found.getEntryPoint());
+		assertEquals(expected.getMaxLevel(), found.getMaxLevel());
+		for (int i = 0; i < points.size(); i++) {
+			NearestNeighborHnsw.Node a = expected.getNodes().get(i);
+			NearestNeighborHnsw.Node b = found.getNodes().get(i);
+			assertEquals(a.getLevel(), b.getLevel());
+			for (int layer = 0; layer <= a.getLevel(); layer++) {
+				assertTrue(a.connections.get(layer).isEquals(b.connections.get(layer)));
+			}
+		}
+	}
+
+	/**
+	 * Number of connections must never go above the limit
+	 */
+	@Test void add_connectionLimit() {
+		var alg = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F64(), 4, 30, 20, 0xBEEF);
+		alg.setPoints(createF64(400), true);
+
+		for (int i = 0; i < alg.getNodes().size; i++) {
+			NearestNeighborHnsw.Node n = alg.getNodes().get(i);
+			assertTrue(n.getLevel() <= alg.getMaxLevel());
+			for (int layer = 0; layer <= n.getLevel(); layer++) {
+				assertTrue(n.connections.get(layer).size <= alg.maxConnectionsAt(layer));
+			}
+		}
+	}
+
+	/**
+	 * Searches run in parallel should produce the same results as a single search
+	 */
+	@Test void concurrentSearch() {
+		List<TupleDesc_F64> points = createF64(500);
+		List<TupleDesc_F64> queries = createF64(200);
+
+		var alg = new NearestNeighborHnsw<>(new ScoreAssociateEuclideanSq.F64(), 8, 50, 20, 0xBEEF);
+		alg.setPoints(points, true);
+
+		int[] expected = new int[queries.size()];
+		NearestNeighbor.Search<TupleDesc_F64> search = alg.createSearch();
+		var result = new NnData<TupleDesc_F64>();
+		for (int i = 0; i < queries.size(); i++) {
+			search.findNearest(queries.get(i), -1, result);
+			expected[i] = result.index;
+		}
+
+		int[] found = new int[queries.size()];
+		BoofConcurrency.loopBlocks(0, queries.size(), 10, ( i0, i1 ) -> {
+			NearestNeighbor.Search<TupleDesc_F64> s = alg.createSearch();
+			var r = new NnData<TupleDesc_F64>();
+			for (int i = i0; i < i1; i++) {
+				s.findNearest(queries.get(i), -1, r);
+				found[i] = r.index;
+			}
+		});
+
+		assertArrayEquals(expected, found);
+	}
+
+	/**
+	 * Association created by the factory. Sets are small enough that the search will be exact
+	 */
+	@Nested
+	public class Associate extends StandardAssociateDescriptionChecks<TupleDesc_F64> {
+		public Associate() {
+			super(TupleDesc_F64.class);
+		}
+
+		@Override public AssociateDescription<TupleDesc_F64> createAssociate() {
+			var config = new ConfigAssociateNearestNeighbor();
+			config.scoreRatioThreshold = 1.0;
+			return FactoryAssociation.hnsw(config, TupleDesc_F64.class);
+		}
+
+		@Override protected TupleDesc_F64 c( double value ) {
+			var s = new TupleDesc_F64(1);
+			s.data[0] = value;
+			return s;
+		}
+	}
+
+	private List<TupleDesc_F64> createF64( int count ) {
+		List<TupleDesc_F64> list = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			var d = new TupleDesc_F64(DOF);
+			for (int j = 0; j < DOF; j++) {
+				d.data[j] = rand.nextDouble();
+			}
+			list.add(d);
+		}
+		return list;
+	}
+}
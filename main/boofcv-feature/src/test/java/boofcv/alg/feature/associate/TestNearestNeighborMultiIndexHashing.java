@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.ConfigAssociateNearestNeighbor;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestNearestNeighborMultiIndexHashing extends BoofStandardJUnit {
+	int numBits = 256;
+
+	/**
+	 * Compare k-nearest search against brute force. The search is exact so distances must be identical.
+	 * The index isn't compared since there can be ties.
+	 */
+	@Test void searchNearest_exact() {
+		List<TupleDesc_B> points = createRandom(500);
+		var alg = new NearestNeighborMultiIndexHashing(numBits, -1);
+		alg.setPoints(points, true);
+		NearestNeighborMultiIndexHashing.SearchMih search = (NearestNeighborMultiIndexHashing.SearchMih)alg.createSearch();
+
+		for (TupleDesc_B query : createQueries(points, 100)) {
+			for (int k : new int[]{1, 3}) {
+				for (int maxDistance : new int[]{-1, 20, 60}) {
+					search.searchNearest(query, k, maxDistance);
+					int[] expected = bruteForce(points, query, maxDistance < 0 ? numBits : maxDistance);
+					int N = Math.min(k, expected.length);
+					assertEquals(N, search.foundIndexes.size);
+					for (int i = 0; i < N; i++) {
+						assertEquals(expected[i], search.foundDistances.get(i));
+						assertEquals(expected[i], DescriptorDistance.hamming(query, points.get(search.foundIndexes.get(i))));
+					}
+				}
+			}
+		}
+	}
+
+	@Test void searchRadius_exact() {
+		List<TupleDesc_B> points = createRandom(500);
+		var alg = new NearestNeighborMultiIndexHashing(numBits, -1);
+		alg.setPoints(points, true);
+		NearestNeighborMultiIndexHashing.SearchMih search = (NearestNeighborMultiIndexHashing.SearchMih)alg.createSearch();
+
+		for (TupleDesc_B query : createQueries(points, 100)) {
+			for (int radius : new int[]{0, 10, 40, 110}) {
+				search.searchRadius(query, radius);
+
+				int expected = 0;
+				for (int i = 0; i < points.size(); i++) {
+					if (DescriptorDistance.hamming(query, points.get(i)) <= radius)
+						expected++;
+				}
+				assertEquals(expected, search.foundIndexes.size);
+
+				// Make sure there are no duplicates and the distances are correct
+				for (int i = 0; i < search.foundIndexes.size; i++) {
+					int index = search.foundIndexes.get(i);
+					assertEquals(DescriptorDistance.hamming(query, points.get(index)), search.foundDistances.get(i));
+					assertEquals(i, search.foundIndexes.indexOf(index));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests the ddogleg interface
+	 */
+	@Test void findNearest() {
+		List<TupleDesc_B> points = createRandom(300);
+		var alg = new NearestNeighborMultiIndexHashing(numBits, 8);
+		alg.setPoints(points, true);
+		NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+
+		var result = new NnData<TupleDesc_B>();
+		DogArray<NnData<TupleDesc_B>> results = new DogArray<>(NnData::new);
+		for (int i = 0; i < points.size(); i += 7) {
+			TupleDesc_B query = points.get(i).copy();
+			flipBits(query, 5);
+
+			assertTrue(search.findNearest(query, 10, result));
+			assertEquals(i, result.index);
+			assertSame(points.get(i), result.point);
+			assertEquals(5, result.distance);
+
+			assertFalse(search.findNearest(query, 4, result));
+
+			search.findNearest(query, -1, 2, results);
+			assertEquals(2, results.size);
+			assertEquals(i, results.get(0).index);
+			assertTrue(results.get(0).distance <= results.get(1).distance);
+		}
+	}
+
+	/**
+	 * Removed points should never be found
+	 */
+	@Test void remove() {
+		List<TupleDesc_B> points = createRandom(200);
+		var alg = new NearestNeighborMultiIndexHashing(numBits, -1);
+		alg.setPoints(points, true);
+		NearestNeighborMultiIndexHashing.SearchMih search = (NearestNeighborMultiIndexHashing.SearchMih)alg.createSearch();
+
+		for (int i = 0; i < points.size(); i += 2) {
+			assertTrue(alg.remove(i));
+			assertFalse(alg.remove(i));
+			assertTrue(alg.isRemoved(i));
+		}
+		assertEquals(100, alg.size());
+		assertEquals(200, alg.getPoints().size());
+
+		for (int i = 0; i < points.size(); i++) {
+			// exact search and a search which will require checking every point
+			search.searchRadius(points.get(i), 0);
+			assertEquals(i%2 == 0 ? 0 : 1, search.foundIndexes.size);
+			search.searchNearest(points.get(i), 1, -1);
+			assertEquals(1, search.foundIndexes.size);
+			assertEquals(1, search.foundIndexes.get(0)%2);
+		}
+
+		// Adding it back gives it a new index
+		assertEquals(200, alg.add(points.get(0)));
+		search.searchRadius(points.get(0), 0);
+		assertEquals(1, search.foundIndexes.size);
+		assertEquals(200, search.foundIndexes.get(0));
+	}
+
+	/**
+	 * Identical points will be in the same list. Remove points from the front, middle, and end of the list
+	 */
+	@Test void remove_sameList() {
+		TupleDesc_B desc = createRandom(1).get(0);
+		var alg = new NearestNeighborMultiIndexHashing(numBits, -1);
+		for (int i = 0; i < 6; i++) {
+			alg.add(desc);
+		}
+		NearestNeighborMultiIndexHashing.SearchMih search = (NearestNeighborMultiIndexHashing.SearchMih)alg.createSearch();
+
+		int[] order = {2, 5, 0, 3, 4, 1};
+		for (int i = 0; i < order.length; i++) {
+			alg.remove(order[i]);
+			search.searchRadius(desc, 0);
+			assertEquals(order.length - i - 1, search.foundIndexes.size);
+			for (int j = 0; j <= i; j++) {
+				assertEquals(-1, search.foundIndexes.indexOf(order[j]));
+			}
+		}
+	}
+
+	/**
+	 * Adding points one at a time should find the same results as building all at once
+	 */
+	@Test void add_incremental() {
+		List<TupleDesc_B> points = createRandom(200);
+		var expected = new NearestNeighborMultiIndexHashing(numBits, 16);
+		expected.setPoints(points, true);
+		var found = new NearestNeighborMultiIndexHashing(numBits, 16);
+		for (int i = 0; i < points.size(); i++) {
+			assertEquals(i, found.add(points.get(i)));
+		}
+		assertEquals(16, found.getNumTables());
+
+		var searchE = (NearestNeighborMultiIndexHashing.SearchMih)expected.createSearch();
+		var searchF = (NearestNeighborMultiIndexHashing.SearchMih)found.createSearch();
+		for (TupleDesc_B query : createQueries(points, 50)) {
+			searchE.searchNearest(query, 2, 50);
+			searchF.searchNearest(query, 2, 50);
+			assertTrue(searchE.foundIndexes.isEquals(searchF.foundIndexes));
+		}
+	}
+
+	/**
+	 * Compare extracted substrings against reading one bit at a time. Include substrings which cross words
+	 */
+	@Test void substring() {
+		for (int numTables : new int[]{1, 3, 7, 10}) {
+			int bits = 100;
+			var alg = new NearestNeighborMultiIndexHashing(bits, numTables);
+			alg.initializeTables(alg.selectNumTables(0));
+			TupleDesc_B desc = createRandom(1, bits).get(0);
+
+			for (int tableIdx = 0; tableIdx < alg.getNumTables(); tableIdx++) {
+				int bit0 = alg.substringStart.get(tableIdx);
+				int bit1 = alg.substringStart.get(tableIdx + 1);
+				int expected = 0;
+				for (int bit = bit0; bit < bit1; bit++) {
+					if (desc.isBitTrue(bit))
+						expected |= 1 << (bit - bit0);
+				}
+				assertEquals(expected, alg.substring(desc.data, 0, tableIdx));
+			}
+			assertEquals(bits, alg.substringStart.getTail());
+		}
+	}
+
+	@Test void selectNumTables() {
+		var alg = new NearestNeighborMultiIndexHashing(256, -1);
+		assertEquals(16, alg.selectNumTables(0));
+		assertEquals(26, alg.selectNumTables(1000));
+		assertEquals(16, alg.selectNumTables(1 << 16));
+		// substrings can't be more than 20 bits
+		assertEquals(13, alg.selectNumTables(Integer.MAX_VALUE));
+		assertEquals(13, new NearestNeighborMultiIndexHashing(256, 3).selectNumTables(100));
+		assertEquals(20, new NearestNeighborMultiIndexHashing(256, 20).selectNumTables(100));
+	}
+
+	@Test void countKeys() {
+		assertEquals(1, NearestNeighborMultiIndexHashing.countKeys(16, 0, 1000));
+		assertEquals(16, NearestNeighborMultiIndexHashing.countKeys(16, 1, 1000));
+		assertEquals(120, NearestNeighborMultiIndexHashing.countKeys(16, 2, 1000));
+		assertEquals(560, NearestNeighborMultiIndexHashing.countKeys(16, 3, 1000));
+		assertEquals(1000, NearestNeighborMultiIndexHashing.countKeys(16, 4, 1000));
+		assertEquals(0, NearestNeighborMultiIndexHashing.countKeys(3, 4, 1000));
+	}
+
+	@Test void empty() {
+		var alg = new NearestNeighborMultiIndexHashing(numBits, -1);
+		alg.setPoints(new ArrayList<>(), true);
+		NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+		assertFalse(search.findNearest(createRandom(1).get(0), -1, new NnData<>()));
+	}
+
+	/**
+	 * Searches run in parallel should produce the same results as a single search
+	 */
+	@Test void concurrentSearch() {
+		List<TupleDesc_B> points = createRandom(500);
+		List<TupleDesc_B> queries = createQueries(points, 200);
+		var alg = new NearestNeighborMultiIndexHashing(numBits, -1);
+		alg.setPoints(points, true);
+
+		int[] expected = new int[queries.size()];
+		NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+		var result = new NnData<TupleDesc_B>();
+		for (int i = 0; i < queries.size(); i++) {
+			search.findNearest(queries.get(i), -1, result);
+			expected[i] = result.index;
+		}
+
+		int[] found = new int[queries.size()];
+		BoofConcurrency.loopBlocks(0, queries.size(), 10, ( i0, i1 ) -> {
+			NearestNeighbor.Search<TupleDesc_B> s = alg.createSearch();
+			var r = new NnData<TupleDesc_B>();
+			for (int i = i0; i < i1; i++) {
+				s.findNearest(queries.get(i), -1, r);
+				found[i] = r.index;
+			}
+		});
+
+		assertArrayEquals(expected, found);
+	}
+
+	/**
+	 * Association created by the factory should match perturbed copies back to the original
+	 */
+	@Test void factoryAssociation() {
+		var config = new ConfigAssociateNearestNeighbor();
+		config.maxErrorThreshold = 40;
+		AssociateDescription<TupleDesc_B> assoc = FactoryAssociation.multiIndexHashing(config, numBits);
+
+		DogArray<TupleDesc_B> src = new DogArray<>(() -> new TupleDesc_B(numBits));
+		DogArray<TupleDesc_B> dst = new DogArray<>(() -> new TupleDesc_B(numBits));
+		for (TupleDesc_B d : createRandom(300)) {
+			src.grow().setTo(d);
+		}
+		for (int i = 0; i < src.size; i++) {
+			TupleDesc_B d = dst.grow();
+			d.setTo(src.get(i));
+			flipBits(d, rand.nextInt(20));
+		}
+
+		assoc.setSource(src);
+		assoc.setDestination(dst);
+		assoc.associate();
+
+		assertEquals(src.size, assoc.getMatches().size);
+		for (AssociatedIndex a : assoc.getMatches().toList()) {
+			assertEquals(a.src, a.dst);
+		}
+	}
+
+	/** Returns sorted distances of all points within the max distance */
+	private int[] bruteForce( List<TupleDesc_B> points, TupleDesc_B query, int maxDistance ) {
+		var distances = new DogArray_I32();
+		for (TupleDesc_B p : points) {
+			int d = DescriptorDistance.hamming(query, p);
+			if (d <= maxDistance)
+				distances.add(d);
+		}
+		int[] array = distances.toArray();
+		Arrays.sort(array);
+		return array;
+	}
+
+	/** A mix of random descriptors and noisy copies of points */
+	private List<TupleDesc_B> createQueries( List<TupleDesc_B> points, int count ) {
+		List<TupleDesc_B> queries = createRandom(count/4);
+		while (queries.size() < count) {
+			TupleDesc_B q = points.get(rand.nextInt(points.size())).copy();
+			flipBits(q, rand.nextInt(50));
+			queries.add(q);
+		}
+		return queries;
+	}
+
+	private void flipBits( TupleDesc_B desc, int count ) {
+		List<Integer> bits = new ArrayList<>();
+		for (int i = 0; i < desc.numBits; i++) {
+			bits.add(i);
+		}
+		for (int i = 0; i < count; i++) {
+			int bit = bits.remove(rand.nextInt(bits.size()));
+			desc.data[bit/32] ^= 1 << (bit%32);
+		}
+	}
+
+	private List<TupleDesc_B> createRandom( int count ) {
+		return createRandom(count, numBits);
+	}
+
+	private List<TupleDesc_B> createRandom( int count, int bits ) {
+		List<TupleDesc_B> list = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			var d = new TupleDesc_B(bits);
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+			list.add(d);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.describe.brief;
+
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLearnBriefDefinition extends BoofStandardJUnit {
+	/**
+	 * Tests 0 and 1 always have the same value, test 2 is independent, and test 3 never changes. The best
+	 * two tests should be 0 and 2.
+	 */
+	@Test void select_correlated() {
+		BinaryCompareDefinition_I32 candidates = createCandidates();
+		var alg = new LearnBriefDefinition(candidates);
+
+		var desc = new TupleDesc_B(4);
+		for (int i = 0; i < 200; i++) {
+			boolean a = rand.nextBoolean();
+			desc.data[0] = 0;
+			desc.setBit(0, a);
+			desc.setBit(1, a);
+			desc.setBit(2, rand.nextBoolean());
+			desc.setBit(3, true);
+			alg.addSample(desc);
+		}
+
+		BinaryCompareDefinition_I32 found = alg.select(2);
+		assertEquals(2, found.getLength());
+
+		// Only the points used by the selected tests should be included
+		assertEquals(4, found.samplePoints.length);
+		assertNotSame(candidates.samplePoints[0], found.samplePoints[0]);
+
+		// Order depends on how close the means are to 0.5, so check both possibilities
+		boolean firstIsZero = candidates.samplePoints[0].equals(found.samplePoints[found.compare[0].x]);
+		int first = firstIsZero ? 0 : 2;
+		int second = firstIsZero ? 2 : 0;
+		checkSameTest(candidates, first, found, 0);
+		checkSameTest(candidates, second, found, 1);
+	}
+
+	/**
+	 * If there aren't enough uncorrelated tests the threshold should be increased until there are
+	 */
+	@Test void select_increaseThreshold() {
+		var alg = new LearnBriefDefinition(createCandidates());
+
+		var desc = new TupleDesc_B(4);
+		for (int i = 0; i < 200; i++) {
+			boolean a = rand.nextBoolean();
+			desc.data[0] = 0;
+			desc.setBit(0, a);
+			desc.setBit(1, a ^ (i%10 == 0));
+			desc.setBit(2, a ^ (i%5 == 0));
+			desc.setBit(3, a ^ (i%3 == 0));
+			alg.addSample(desc);
+		}
+
+		assertEquals(4, alg.select(4).getLength());
+	}
+
+	private void checkSameTest( BinaryCompareDefinition_I32 candidates, int candidateIdx,
+								BinaryCompareDefinition_I32 found, int foundIdx ) {
+		assertEquals(candidates.samplePoints[candidates.compare[candidateIdx].x],
+				found.samplePoints[found.compare[foundIdx].x]);
+		assertEquals(candidates.samplePoints[candidates.compare[candidateIdx].y],
+				found.samplePoints[found.compare[foundIdx].y]);
+	}
+
+	/**
+	 * Each test compares two unique points
+	 */
+	private BinaryCompareDefinition_I32 createCandidates() {
+		var def = new BinaryCompareDefinition_I32(5, 8, 4);
+		for (int i = 0; i < 8; i++) {
+			def.samplePoints[i].setTo(i - 4, i%3);
+		}
+		for (int i = 0; i < 4; i++) {
+			def.compare[i].setTo(i*2, i*2 + 1);
+		}
+		return def;
+	}
+}
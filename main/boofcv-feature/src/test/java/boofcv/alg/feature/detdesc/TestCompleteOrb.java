@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detdesc.ConfigCompleteOrb;
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribeAlgs;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.metric.UtilAngle;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCompleteOrb extends BoofStandardJUnit {
+	ConfigCompleteOrb config = new ConfigCompleteOrb();
+
+	{
+		config.fast.pixelTol = 10;
+	}
+
+	/**
+	 * Creates an image with texture that FAST can detect corners in
+	 */
+	GrayU8 createImage() {
+		var image = new GrayU8(200, 200);
+		ImageMiscOps.fillUniform(image, rand, 0, 255);
+		GrayU8 blurred = BlurImageOps.gaussian(image, null, -1, 2, null);
+		// make it so the local contrast is large enough to be detected
+		for (int i = 0; i < blurred.data.length; i++) {
+			int v = (blurred.data[i] & 0xFF) - 128;
+			blurred.data[i] = (byte)Math.max(0, Math.min(255, 128 + v*4));
+		}
+		return blurred;
+	}
+
+	/**
+	 * Features should be inside the image and the limit on the number of features respected
+	 */
+	@Test void basic() {
+		GrayU8 image = createImage();
+
+		config.maxFeatures = 100;
+		CompleteOrb<GrayU8> alg = createAlg();
+		alg.process(image);
+
+		int N = alg.getLocations().size;
+		assertTrue(N > 50 && N <= 100);
+		assertEquals(N, alg.getOrientations().size);
+		assertEquals(N, alg.getDescriptions().size);
+		assertEquals(256, alg.getDescriptorLength());
+
+		boolean multipleLevels = false;
+		for (int i = 0; i < N; i++) {
+			ScalePoint p = alg.getLocations().get(i);
+			double border = alg.getBorder()*p.scale;
+			assertTrue(p.pixel.x >= border && p.pixel.x < image.width - border);
+			assertTrue(p.pixel.y >= border && p.pixel.y < image.height - border);
+			assertEquals(256, alg.getDescriptions().get(i).numBits);
+			multipleLevels |= p.scale > 1.0;
+		}
+		assertTrue(multipleLevels);
+
+		// If there's no limit then there should be more features
+		alg.setMaxFeatures(0);
+		alg.process(image);
+		assertTrue(alg.getLocations().size > 100);
+	}
+
+	/**
+	 * Rotates the image by 90 degrees. Features in the first layer should be found at the same location with
+	 * similar descriptors and the orientation should change by 90 degrees.
+	 */
+	@Test void rotation() {
+		GrayU8 image = createImage();
+		GrayU8 rotated = ImageMiscOps.rotateCW(image, null);
+
+		config.maxFeatures = 0;
+		CompleteOrb<GrayU8> algA = createAlg();
+		CompleteOrb<GrayU8> algB = createAlg();
+		algA.process(image);
+		algB.process(rotated);
+
+		int matched = 0;
+		double totalDistance = 0;
+		for (int i = 0; i < algA.getLocations().size; i++) {
+			ScalePoint a = algA.getLocations().get(i);
+			if (a.scale != 1.0)
+				continue;
+
+			// Location of the feature in the rotated image
+			double x = image.height - 1 - a.pixel.y;
+			double y = a.pixel.x;
+
+			for (int j = 0; j < algB.getLocations().size; j++) {
+				ScalePoint b = algB.getLocations().get(j);
+				if (b.scale != 1.0 || b.pixel.distance(x, y) != 0.0)
+					continue;
+
+				double expected = UtilAngle.bound(algA.getOrientations().get(i) + Math.PI/2.0);
+				assertEquals(0.0, UtilAngle.dist(expected, algB.getOrientations().get(j)), 1e-4);
+				totalDistance += DescriptorDistance.hamming(
+						algA.getDescriptions().get(i), algB.getDescriptions().get(j));
+				matched++;
+				break;
+			}
+		}
+
+		assertTrue(matched > 20);
+		// Random descriptors would have an average distance of 128. Discretization of the angle and rounding
+		// pixel coordinates introduces some error
+		assertTrue(totalDistance/matched < 40, "distance " + totalDistance/matched);
+	}
+
+	CompleteOrb<GrayU8> createAlg() {
+		BoofConcurrency.USE_CONCURRENT = false;
+		return FactoryDetectDescribeAlgs.orb(config, GrayU8.class);
+	}
+}
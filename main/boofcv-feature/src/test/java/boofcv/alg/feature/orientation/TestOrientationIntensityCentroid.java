@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.orientation;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Nested;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestOrientationIntensityCentroid extends BoofStandardJUnit {
+	double angleTol = 0.1;
+	int r = 3;
+
+	@Nested
+	class U8 extends GenericOrientationImageTests<GrayU8> {
+		U8() {
+			super(angleTol, r*2 + 1, GrayU8.class);
+			setRegionOrientation(new OrientationIntensityCentroid<>(1.0/2.0, r, GrayU8.class));
+		}
+	}
+
+	@Nested
+	class F32 extends GenericOrientationImageTests<GrayF32> {
+		F32() {
+			super(angleTol, r*2 + 1, GrayF32.class);
+			setRegionOrientation(new OrientationIntensityCentroid<>(1.0/2.0, r, GrayF32.class));
+		}
+	}
+}
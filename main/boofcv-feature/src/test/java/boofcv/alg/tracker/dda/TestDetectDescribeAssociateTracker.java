@@ -21,6 +21,7 @@ package boofcv.alg.tracker.dda;
 import boofcv.abst.feature.associate.AbstractAssociateDescription2D;
 import boofcv.abst.feature.detdesc.DetectDescribePointAbstract;
 import boofcv.abst.tracker.ConfigTrackerDda;
+import boofcv.abst.tracker.ConfigTrackerDda.MotionModel;
 import boofcv.abst.tracker.PointTrack;
 import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.feature.TupleDesc_F64;
@@ -34,6 +35,7 @@ import org.ejml.UtilEjml;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * @author Peter Abeles
@@ -84,6 +86,62 @@ class TestDetectDescribeAssociateTracker extends BoofStandardJUnit {
 		assertEquals(2,t.pixel.y, UtilEjml.TEST_F64);
 	}
 
+	@Test
+	void predictLocation_none() {
+		var alg = createAlgorithm();
+		var track = (DdaTrack)alg.tracksAll.grow();
+		track.pixel.setTo(10, 20);
+		track.velocity.setTo(1, 2);
+
+		assertSame(track.pixel, alg.predictLocation(track, new Point2D_F64()));
+	}
+
+	@Test
+	void predictLocation_velocity() {
+		var alg = createAlgorithm();
+		alg.setMotion(MotionModel.CONSTANT_VELOCITY);
+		alg.frameID = 5;
+		var track = (DdaTrack)alg.tracksAll.grow();
+		track.pixel.setTo(10, 20);
+		track.velocity.setTo(1, -2);
+		track.lastSeenFrameID = 3;
+
+		// it should take in account that the track was not seen for two frames
+		Point2D_F64 found = alg.predictLocation(track, new Point2D_F64());
+		assertEquals(12, found.x, UtilEjml.TEST_F64);
+		assertEquals(16, found.y, UtilEjml.TEST_F64);
+	}
+
+	@Test
+	void predictLocation_homography() {
+		var alg = createAlgorithm();
+		alg.setMotion(MotionModel.HOMOGRAPHY);
+		alg.getMotionHomography().setTo(2, 0, 1, 0, 1, -1, 0, 0, 1);
+		var track = (DdaTrack)alg.tracksAll.grow();
+		track.pixel.setTo(10, 20);
+
+		Point2D_F64 found = alg.predictLocation(track, new Point2D_F64());
+		assertEquals(21, found.x, UtilEjml.TEST_F64);
+		assertEquals(19, found.y, UtilEjml.TEST_F64);
+	}
+
+	@Test
+	void updateVelocity() {
+		var alg = createAlgorithm();
+		alg.frameID = 6;
+		var track = (DdaTrack)alg.tracksAll.grow();
+		track.pixel.setTo(10, 20);
+		track.lastSeenFrameID = 4;
+
+		alg.updateVelocity(track, new Point2D_F64(14, 18));
+		assertEquals(2, track.velocity.x, UtilEjml.TEST_F64);
+		assertEquals(-1, track.velocity.y, UtilEjml.TEST_F64);
+
+		// velocity should be reset when the track is recycled
+		alg.tracksAll.reset();
+		assertEquals(0, ((DdaTrack)alg.tracksAll.grow()).velocity.norm(), UtilEjml.TEST_F64);
+	}
+
 	private void addTracks(DogArray<PointTrack> l , int num ) {
 		for( int i = 0; i < num; i++ ) {
 			l.grow();
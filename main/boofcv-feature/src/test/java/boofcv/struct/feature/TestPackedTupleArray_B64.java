@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import boofcv.struct.PackedArray;
+import boofcv.struct.packed.GenericPackedArrayChecks;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class TestPackedTupleArray_B64 extends GenericPackedArrayChecks<TupleDesc_B> {
+	// Not a multiple of 64 so that the last word is only partially used
+	int DOF = 96;
+
+	@Override protected PackedArray<TupleDesc_B> createAlg() {
+		return new PackedTupleArray_B64(DOF);
+	}
+
+	@Override protected TupleDesc_B createRandomPoint() {
+		var point = new TupleDesc_B(DOF);
+		for (int i = 0; i < point.data.length; i++) {
+			point.data[i] = rand.nextInt();
+		}
+		return point;
+	}
+
+	@Override protected void checkEquals( TupleDesc_B a, TupleDesc_B b ) {
+		for (int i = 0; i < a.data.length; i++) {
+			assertEquals(a.data[i], b.data[i]);
+		}
+	}
+
+	@Override protected void checkNotEquals( TupleDesc_B a, TupleDesc_B b ) {
+		for (int i = 0; i < a.data.length; i++) {
+			if (a.data[i] != b.data[i])
+				return;
+		}
+		fail("The tuples are identical");
+	}
+
+	/**
+	 * Bits should be in the same order as they are in TupleDesc_B
+	 */
+	@Test void bitOrder() {
+		var alg = new PackedTupleArray_B64(DOF);
+		TupleDesc_B point = createRandomPoint();
+		alg.append(point);
+
+		assertEquals(2, alg.getNumWords());
+		assertEquals(2, alg.array.size);
+		for (int bit = 0; bit < DOF; bit++) {
+			boolean found = (alg.array.data[bit/64] & (1L << (bit%64))) != 0;
+			assertEquals(point.isBitTrue(bit), found);
+		}
+		// unused bits should be zero
+		assertEquals(0, alg.array.data[1] >>> 32);
+	}
+}
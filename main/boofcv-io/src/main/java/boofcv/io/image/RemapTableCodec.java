@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.image;
+
+import boofcv.io.UtilIO;
+import boofcv.struct.distort.RemapTable_S16;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Encodes a {@link RemapTable_S16} in a binary format so that it can be loaded quickly instead of being
+ * recomputed. A text header is followed by the coordinates and fractions arrays in little endian. This is a
+ * BoofCV format.
+ *
+ * @author Peter Abeles
+ */
+public class RemapTableCodec {
+	/**
+	 * Saves the table
+	 *
+	 * @param table (Input) The table
+	 * @param writer (Output) Where the table is written to
+	 * @param comments (Input) Optional comments to be added to the header
+	 * @throws IOException Thrown if anything goes wrong
+	 */
+	public static void encode( RemapTable_S16 table, OutputStream writer, String... comments ) throws IOException {
+		writer.write(String.format("RemapTable,w=%d,h=%d,fraction_bits=%d,format=bin,version=1\n",
+				table.width, table.height, RemapTable_S16.FRACTION_BITS).getBytes(UTF_8));
+		for (String comment : comments) {
+			writer.write(("# " + comment + "\n").getBytes(UTF_8));
+		}
+		writer.write("BEGIN_DATA\n".getBytes(UTF_8));
+
+		int N = table.width*table.height;
+		var buffer = ByteBuffer.allocate(N*3*2).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.asShortBuffer().put(table.coordinates, 0, N*2).put(table.fractions, 0, N);
+		writer.write(buffer.array());
+	}
+
+	/**
+	 * Decodes the stream and reads the table
+	 *
+	 * @param reader Stream containing the encoded table
+	 * @param table (Output) decoded table
+	 * @throws IOException Thrown if anything goes wrong
+	 */
+	public static void decode( InputStream reader, RemapTable_S16 table ) throws IOException {
+		StringBuilder buffer = new StringBuilder(1024);
+		String line = UtilIO.readLine(reader, buffer);
+		if (!line.startsWith("RemapTable"))
+			throw new IOException("Invalid. Does not start with RemapTable");
+
+		String[] words = line.split(",");
+		int width = 0, height = 0, version = -1, bits = -1;
+		boolean bin = false;
+		for (int i = 1; i < words.length; i++) {
+			String[] values = words[i].split("=");
+			if (values.length != 2)
+				throw new IOException("Unexpected: " + words[i]);
+			switch (values[0]) {
+				case "w" -> width = Integer.parseInt(values[1]);
+				case "h" -> height = Integer.parseInt(values[1]);
+				case "fraction_bits" -> bits = Integer.parseInt(values[1]);
+				case "version" -> version = Integer.parseInt(values[1]);
+				case "format" -> bin = values[1].equalsIgnoreCase("bin");
+			}
+		}
+		if (!bin)
+			throw new IOException("Can only read binary format");
+		if (version <= 0)
+			throw new IOException("Unknown version.");
+		if (bits != RemapTable_S16.FRACTION_BITS)
+			throw new IOException("Expected fraction_bits=" + RemapTable_S16.FRACTION_BITS + " not " + bits);
+
+		// skip comments
+		while (true) {
+			line = UtilIO.readLine(reader, buffer);
+			if (line.equals("BEGIN_DATA"))
+				break;
+			if (line.length() != 0 && line.charAt(0) != '#')
+				throw new IOException("Unexpected: " + line);
+		}
+
+		table.reshape(width, height);
+		int N = width*height;
+		byte[] data = new byte[N*3*2];
+		new DataInputStream(reader).readFully(data);
+		ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer()
+				.get(table.coordinates, 0, N*2).get(table.fractions, 0, N);
+	}
+}
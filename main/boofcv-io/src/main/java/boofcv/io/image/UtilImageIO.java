@@ -21,6 +21,7 @@ package boofcv.io.image;
 import boofcv.BoofVersion;
 import boofcv.io.UtilIO;
 import boofcv.io.wrapper.DefaultMediaManager;
+import boofcv.struct.distort.RemapTable_S16;
 import boofcv.struct.image.*;
 import org.apache.commons.io.FilenameUtils;
 import org.ddogleg.struct.DogArray_I8;
@@ -620,6 +621,39 @@ public class UtilImageIO {
 		return labeled;
 	}
 
+	/**
+	 * Saves a distortion look up table in a binary format
+	 *
+	 * @param table (Input) Table to save
+	 * @param fileName (Input) Location where the table is to be written to.
+	 * @throws IOException Thrown if there is a problem writing the table
+	 * @see RemapTableCodec
+	 */
+	public static void saveRemapTable( RemapTable_S16 table, String fileName ) throws IOException {
+		var out = new BufferedOutputStream(new FileOutputStream(fileName));
+		RemapTableCodec.encode(table, out, "BoofCV " + BoofVersion.VERSION);
+		out.close();
+	}
+
+	/**
+	 * Loads a distortion look up table in a binary format
+	 *
+	 * @param fileName Location where the table is to be read from.
+	 * @param table (Input) Optional storage for loaded table
+	 * @throws IOException Thrown if there is a problem reading the table
+	 * @see RemapTableCodec
+	 */
+	public static RemapTable_S16 loadRemapTable( String fileName, @Nullable RemapTable_S16 table ) throws IOException {
+		if (table == null)
+			table = new RemapTable_S16();
+
+		var input = new BufferedInputStream(new FileInputStream(fileName));
+		RemapTableCodec.decode(input, table);
+		input.close();
+
+		return table;
+	}
+
 	private static String readLine( DataInputStream in ) throws IOException {
 		String s = "";
 		while (true) {
@@ -24,10 +24,12 @@ import boofcv.abst.scene.SceneRecognition;
 import boofcv.abst.scene.WrapFeatureToSceneRecognition;
 import boofcv.abst.scene.ann.FeatureSceneRecognitionNearestNeighbor;
 import boofcv.abst.scene.nister2006.FeatureSceneRecognitionNister2006;
+import boofcv.alg.feature.associate.NearestNeighborHnsw;
 import boofcv.alg.scene.ann.RecognitionNearestNeighborInvertedFile;
 import boofcv.alg.scene.bow.InvertedFile;
 import boofcv.alg.scene.nister2006.RecognitionVocabularyTreeNister2006;
 import boofcv.alg.scene.vocabtree.HierarchicalVocabularyTree;
+import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.scene.FactorySceneRecognition;
 import boofcv.io.UtilIO;
 import boofcv.misc.BoofMiscOps;
@@ -39,8 +41,10 @@ import boofcv.struct.kmeans.TuplePointDistanceEuclideanSq;
 import boofcv.struct.kmeans.TuplePointDistanceHamming;
 import deepboof.io.DeepBoofDataBaseOps;
 import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.nn.NearestNeighbor;
 import org.ddogleg.struct.BigDogArray_I32;
 import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.FastAccess;
 import org.jetbrains.annotations.Nullable;
 
@@ -64,6 +68,7 @@ public class RecognitionIO {
 	public static final String DATABASE_NAME = "database.bin";
 	public static final String DICTIONARY_NAME = "dictionary.bin";
 	public static final String INVERTED_NAME = "inverted_files.bin";
+	public static final String HNSW_NAME = "hnsw_graph.bin";
 
 	/**
 	 * Downloads then loads the pre-built default scene recognition model. The image DB will of course be empty.
@@ -120,6 +125,10 @@ public class RecognitionIO {
 						recognizer.getTupleDOF(),
 						recognizer.getDescriptorType(), new File(dir, DICTIONARY_NAME));
 				saveNearestNeighborBin(recognizer.getDatabase(), new File(dir, INVERTED_NAME));
+				// Save the graph so that it doesn't need to be rebuilt when loaded
+				NearestNeighbor<TD> nn = recognizer.getDatabase().getNearestNeighbor();
+				if (nn instanceof NearestNeighborHnsw)
+					saveHnswBin((NearestNeighborHnsw<TD>)nn, new File(dir, HNSW_NAME));
 				listImageIds = recognizer.getImageIds();
 			}
 		}
@@ -160,7 +169,15 @@ public class RecognitionIO {
 
 				// Add the dictionary
 				List<TD> dictionary = loadDictionaryBin(new File(dir, DICTIONARY_NAME));
-				recognizer.setDictionary(dictionary);
+				File fileHnsw = new File(dir, HNSW_NAME);
+				if (config.recognizeNeighbor.useHnsw && fileHnsw.exists()) {
+					NearestNeighborHnsw<TD> hnsw = FactoryAssociation.hnswNearestNeighbor(
+							config.recognizeNeighbor.hnsw, recognizer.getTupleType());
+					loadHnswBin(fileHnsw, dictionary, hnsw);
+					recognizer.setDictionary(dictionary, hnsw);
+				} else {
+					recognizer.setDictionary(dictionary);
+				}
 				loadNearestNeighborBin(new File(dir, INVERTED_NAME), recognizer.getDatabase());
 
 				// Add the images now
@@ -264,6 +281,22 @@ public class RecognitionIO {
 		}
 	}
 
+	public static void saveHnswBin( NearestNeighborHnsw<?> graph, File file ) {
+		try (var out = new FileOutputStream(file)) {
+			saveHnswBin(graph, out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static <P> void loadHnswBin( File file, List<P> points, NearestNeighborHnsw<P> graph ) {
+		try (var in = new FileInputStream(file)) {
+			loadHnswBin(in, points, graph);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
 	/**
 	 * Saves the tree in binary format. The format is described in an ascii header.
 	 *
@@ -610,6 +643,119 @@ public class RecognitionIO {
 		}
 	}
 
+	/**
+	 * Saves the connections in a {@link NearestNeighborHnsw} graph in binary format. The points are not saved
+	 * and must be provided when loading. The format is described in an ascii header.
+	 *
+	 * @param graph (Input) Graph that's saved
+	 * @param out (Output) Stream the graph is written to
+	 */
+	public static void saveHnswBin( NearestNeighborHnsw<?> graph, OutputStream out ) {
+		String header = "BOOFCV_NEAREST_NEIGHBOR_HNSW\n";
+		header += "# nodes: (int=level), for each layer (int=size, int[]=connections)\n";
+		header += "format_version 1\n";
+		header += "boofcv_version " + BoofVersion.VERSION + "\n";
+		header += "git_sha " + BoofVersion.GIT_SHA + "\n";
+		header += "max_connections " + graph.getMaxConnections() + "\n";
+		header += "entry_point " + graph.getEntryPoint() + "\n";
+		header += "max_level " + graph.getMaxLevel() + "\n";
+		header += "nodes.size " + graph.getNodes().size + "\n";
+		header += "distance.name " + graph.getDistance().getClass().getName() + "\n";
+		header += "BEGIN_GRAPH\n";
+		try {
+			out.write(header.getBytes(StandardCharsets.UTF_8));
+
+			DataOutputStream dout = new DataOutputStream(out);
+			for (int nodeIdx = 0; nodeIdx < graph.getNodes().size; nodeIdx++) {
+				NearestNeighborHnsw.Node n = graph.getNodes().get(nodeIdx);
+				dout.writeInt(n.getLevel());
+				for (int layer = 0; layer < n.connections.size; layer++) {
+					DogArray_I32 connections = n.connections.get(layer);
+					dout.writeInt(connections.size);
+					for (int i = 0; i < connections.size; i++) {
+						dout.writeInt(connections.get(i));
+					}
+				}
+			}
+			dout.writeUTF("END_BOOFCV_NEAREST_NEIGHBOR_HNSW");
+			dout.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Loads a graph saved by {@link #saveHnswBin(NearestNeighborHnsw, OutputStream)}. Distance and search
+	 * parameters are not modified, but the distance function and max connections must match those in the file.
+	 *
+	 * @param in (Input) Stream the graph is read from
+	 * @param points (Input) The same points, in the same order, that were in the graph when saved
+	 * @param graph (Output) The graph. Previous contents are discarded.
+	 */
+	public static <P> void loadHnswBin( InputStream in, List<P> points, NearestNeighborHnsw<P> graph ) {
+		graph.reset();
+
+		var builder = new StringBuilder();
+		try {
+			String line = UtilIO.readLine(in, builder);
+			if (!line.equals("BOOFCV_NEAREST_NEIGHBOR_HNSW"))
+				throw new IOException("Unexpected first line. line.length=" + line.length());
+
+			int nodeCount = 0;
+			int entryPoint = -1;
+			int maxLevel = -1;
+
+			while (true) {
+				line = UtilIO.readLine(in, builder);
+				if (line.startsWith("BEGIN_GRAPH"))
+					break;
+				if (line.startsWith("#"))
+					continue;
+				String[] words = line.split("\\s");
+				switch (words[0]) {
+					case "nodes.size" -> nodeCount = Integer.parseInt(words[1]);
+					case "entry_point" -> entryPoint = Integer.parseInt(words[1]);
+					case "max_level" -> maxLevel = Integer.parseInt(words[1]);
+					case "max_connections" -> {
+						if (Integer.parseInt(words[1]) != graph.getMaxConnections())
+							throw new IOException("max_connections doesn't match. Found " + words[1] +
+									" expected " + graph.getMaxConnections());
+					}
+					case "distance.name" -> {
+						if (!words[1].equals(graph.getDistance().getClass().getName()))
+							throw new IOException("Distance functions do not match. Found " + words[1] +
+									" expected " + graph.getDistance().getClass().getName());
+					}
+					default -> {}
+				}
+			}
+
+			if (nodeCount != points.size())
+				throw new IOException("Number of points doesn't match. nodes=" + nodeCount + " points=" + points.size());
+
+			DataInputStream input = new DataInputStream(in);
+			for (int nodeIdx = 0; nodeIdx < nodeCount; nodeIdx++) {
+				NearestNeighborHnsw.Node n = graph.getNodes().grow();
+				n.connections.resize(input.readInt() + 1);
+				for (int layer = 0; layer < n.connections.size; layer++) {
+					DogArray_I32 connections = n.connections.get(layer);
+					int size = input.readInt();
+					connections.resize(size);
+					for (int i = 0; i < size; i++) {
+						connections.data[i] = input.readInt();
+					}
+				}
+			}
+			readCheckUTF(input, "END_BOOFCV_NEAREST_NEIGHBOR_HNSW");
+
+			graph.getPoints().addAll(points);
+			graph.setEntryPoint(entryPoint);
+			graph.setMaxLevel(maxLevel);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
 	public static <TD extends TupleDesc<TD>> void writeBin( TD tuple, DataOutputStream dout ) throws IOException {
 		if (tuple instanceof TupleDesc_F64) {
 			var desc = (TupleDesc_F64)tuple;
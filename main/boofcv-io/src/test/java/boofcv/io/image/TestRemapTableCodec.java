@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.image;
+
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.distort.RemapTable_S16;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestRemapTableCodec extends BoofStandardJUnit {
+	@Test void encode_decode() throws IOException {
+		PixelTransform<Point2D_F32> transform = ( x, y, output ) -> output.setTo(x*0.9f - 1.1f, y*1.2f + 0.3f);
+		RemapTable_S16 expected = RemapTable_S16.create(20, 30, transform);
+		expected.set(2, 3, Float.NaN, 0.0f);
+
+		var found = new RemapTable_S16(1, 1);
+
+		var output = new ByteArrayOutputStream();
+		RemapTableCodec.encode(expected, output, "comment");
+
+		var input = new ByteArrayInputStream(output.toByteArray());
+		RemapTableCodec.decode(input, found);
+
+		assertEquals(expected.width, found.width);
+		assertEquals(expected.height, found.height);
+		for (int i = 0; i < expected.width*expected.height; i++) {
+			assertEquals(expected.coordinates[i*2], found.coordinates[i*2]);
+			assertEquals(expected.coordinates[i*2 + 1], found.coordinates[i*2 + 1]);
+			assertEquals(expected.fractions[i], found.fractions[i]);
+		}
+	}
+}
@@ -18,15 +18,18 @@
 
 package boofcv.io.recognition;
 
+import boofcv.abst.feature.associate.ScoreAssociateSad;
 import boofcv.abst.scene.ConfigFeatureToSceneRecognition;
 import boofcv.abst.scene.WrapFeatureToSceneRecognition;
 import boofcv.abst.scene.ann.FeatureSceneRecognitionNearestNeighbor;
 import boofcv.abst.scene.nister2006.ConfigRecognitionNister2006;
 import boofcv.abst.scene.nister2006.FeatureSceneRecognitionNister2006;
+import boofcv.alg.feature.associate.NearestNeighborHnsw;
 import boofcv.alg.scene.ann.RecognitionNearestNeighborInvertedFile;
 import boofcv.alg.scene.bow.InvertedFile;
 import boofcv.alg.scene.nister2006.RecognitionVocabularyTreeNister2006;
 import boofcv.alg.scene.vocabtree.HierarchicalVocabularyTree;
+import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.scene.FactorySceneRecognition;
 import boofcv.io.UtilIO;
 import boofcv.struct.feature.PackedTupleBigArray_F64;
@@ -36,6 +39,8 @@ import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.kmeans.TuplePointDistanceEuclideanSq;
 import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
 import org.ddogleg.struct.DogArray;
 import org.ddogleg.struct.FastAccess;
 import org.jetbrains.annotations.NotNull;
@@ -45,11 +50,14 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestRecognitionIO extends BoofStandardJUnit {
 	/**
@@ -281,6 +289,74 @@ public class TestRecognitionIO extends BoofStandardJUnit {
 		}
 	}
 
+	@Test void hnswBin_stream() {
+		int DOF = 8;
+		List<TupleDesc_F64> points = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			var d = new TupleDesc_F64(DOF);
+			for (int j = 0; j < DOF; j++) {
+				d.data[j] = rand.nextDouble();
+			}
+			points.add(d);
+		}
+
+		NearestNeighborHnsw<TupleDesc_F64> expected = FactoryAssociation.hnswNearestNeighbor(null, TupleDesc_F64.class);
+		expected.setPoints(points, true);
+
+		// Encode then decode
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		RecognitionIO.saveHnswBin(expected, stream);
+
+		NearestNeighborHnsw<TupleDesc_F64> found = FactoryAssociation.hnswNearestNeighbor(null, TupleDesc_F64.class);
+		InputStream input = new ByteArrayInputStream(stream.toByteArray());
+		RecognitionIO.loadHnswBin(input, points, found);
+
+		// See if they are identical
+		assertEquals(expected.getEntryPoint(), found.getEntryPoint());
+		assertEquals(expected.getMaxLevel(), found.getMaxLevel());
+		assertEquals(expected.getNodes().size, found.getNodes().size);
+		for (int i = 0; i < expected.getNodes().size; i++) {
+			NearestNeighborHnsw.Node a = expected.getNodes().get(i);
+			NearestNeighborHnsw.Node b = found.getNodes().get(i);
+			assertEquals(a.getLevel(), b.getLevel());
+			for (int layer = 0; layer <= a.getLevel(); layer++) {
+				assertTrue(a.connections.get(layer).isEquals(b.connections.get(layer)));
+			}
+		}
+
+		// Searching should produce the same results
+		NearestNeighbor.Search<TupleDesc_F64> searchE = expected.createSearch();
+		NearestNeighbor.Search<TupleDesc_F64> searchF = found.createSearch();
+		var resultE = new NnData<TupleDesc_F64>();
+		var resultF = new NnData<TupleDesc_F64>();
+		for (int i = 0; i < points.size(); i += 10) {
+			searchE.findNearest(points.get(i), -1, resultE);
+			searchF.findNearest(points.get(i), -1, resultF);
+			assertEquals(resultE.index, resultF.index);
+		}
+	}
+
+	/**
+	 * Loading should fail if the graph was built with a different distance function
+	 */
+	@Test void hnswBin_distanceMismatch() {
+		List<TupleDesc_F64> points = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			var d = new TupleDesc_F64(4);
+			d.data[0] = rand.nextDouble();
+			points.add(d);
+		}
+
+		NearestNeighborHnsw<TupleDesc_F64> expected = FactoryAssociation.hnswNearestNeighbor(null, TupleDesc_F64.class);
+		expected.setPoints(points, true);
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		RecognitionIO.saveHnswBin(expected, stream);
+
+		var found = new NearestNeighborHnsw<>(new ScoreAssociateSad.F64(), expected.getMaxConnections(), 200, 64, 0xBEEF);
+		InputStream input = new ByteArrayInputStream(stream.toByteArray());
+		assertThrows(UncheckedIOException.class, () -> RecognitionIO.loadHnswBin(input, points, found));
+	}
+
 	@Test void dictionaryBin_stream() {
 		int DOF = 11;
 		List<TupleDesc_F64> expected = new ArrayList<>();
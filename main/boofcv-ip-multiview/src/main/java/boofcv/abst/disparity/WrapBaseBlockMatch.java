@@ -21,8 +21,10 @@ package boofcv.abst.disparity;
 import boofcv.alg.disparity.DisparityBlockMatchRowFormat;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.GeneralizedImageOps;
+import boofcv.metrics.StageTimer;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
+import lombok.Getter;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -38,6 +40,9 @@ public abstract class WrapBaseBlockMatch<In extends ImageGray<In>, T extends Ima
 	DI disparity;
 	@Nullable GrayF32 score;
 
+	/** Reports the time taken by each stage when metrics are enabled */
+	final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
+
 	protected WrapBaseBlockMatch( DisparityBlockMatchRowFormat<T, DI> alg ) {
 		this.alg = alg;
 	}
@@ -55,7 +60,10 @@ public abstract class WrapBaseBlockMatch<In extends ImageGray<In>, T extends Ima
 		if (score != null)
 			score.reshape(disparity);
 
+		metrics.start();
 		_process(imageLeft, imageRight);
+		metrics.stage("disparity");
+		metrics.stop();
 	}
 
 	protected abstract void _process( In imageLeft, In imageRight );
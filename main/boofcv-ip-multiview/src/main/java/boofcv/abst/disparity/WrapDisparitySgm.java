@@ -19,10 +19,12 @@
 package boofcv.abst.disparity;
 
 import boofcv.alg.disparity.sgm.SgmStereoDisparity;
+import boofcv.metrics.StageTimer;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
+import lombok.Getter;
 import org.jetbrains.annotations.Nullable;
 
 public class WrapDisparitySgm<DI extends ImageGray<DI>> implements StereoDisparity<GrayU8, DI> {
@@ -30,6 +32,9 @@ public class WrapDisparitySgm<DI extends ImageGray<DI>> implements StereoDispari
 	SgmStereoDisparity<GrayU8, ?> sgm;
 	@Nullable GrayF32 subpixel;
 
+	/** Reports the time taken by each stage when metrics are enabled */
+	final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
+
 	public WrapDisparitySgm( SgmStereoDisparity<GrayU8, ?> sgm, boolean subPixel ) {
 		this.sgm = sgm;
 		this.subpixel = subPixel ? new GrayF32(1, 1) : null;
@@ -37,11 +42,16 @@ public class WrapDisparitySgm<DI extends ImageGray<DI>> implements StereoDispari
 
 	@Override
 	public void process( GrayU8 imageLeft, GrayU8 imageRight ) {
+		metrics.start();
 		sgm.process(imageLeft, imageRight);
+		metrics.stage("disparity");
 		sgm.saveScore();
+		metrics.stage("score");
 		if (subpixel != null) {
 			sgm.subpixel(sgm.getDisparity(), subpixel);
+			metrics.stage("subpixel");
 		}
+		metrics.stop();
 	}
 
 	@Override
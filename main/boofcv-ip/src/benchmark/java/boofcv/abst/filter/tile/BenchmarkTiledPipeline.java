@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.tile;
+
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.derivative.DerivativeType;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares an edge detection chain applied one operation at a time across the whole image against the same
+ * chain applied one tile at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkTiledPipeline {
+	@Param({"true", "false"})
+	public boolean concurrent;
+
+	/** 5000 is about a 20 MP image */
+	@Param({"1000", "5000"})
+	public int size;
+
+	GrayU8 input = new GrayU8(1, 1);
+	GrayU8 output = new GrayU8(1, 1);
+
+	// Full sized intermediate images used by the traditional approach
+	GrayF32 inputF32 = new GrayF32(1, 1);
+	GrayF32 blurred = new GrayF32(1, 1);
+	GrayF32 storage = new GrayF32(1, 1);
+	GrayF32 derivX = new GrayF32(1, 1);
+	GrayF32 derivY = new GrayF32(1, 1);
+	GrayF32 intensity = new GrayF32(1, 1);
+
+	TiledPipeline<GrayU8, GrayU8> pipeline;
+
+	@Setup public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		input.reshape(size, size);
+		ImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		pipeline = TiledPipeline.builder(ImageType.SB_U8).convert(ImageType.SB_F32).gaussian(-1, 2)
+				.gradient(DerivativeType.SOBEL).gradientIntensity().threshold(50, false).build();
+	}
+
+	@Benchmark public void wholeImage() {
+		GConvertImage.convert(input, inputF32);
+		BlurImageOps.gaussian(inputF32, blurred, -1, 2, storage);
+		derivX.reshape(size, size);
+		derivY.reshape(size, size);
+		GImageDerivativeOps.gradient(DerivativeType.SOBEL, blurred, derivX, derivY, BorderType.EXTENDED);
+		intensity.reshape(size, size);
+		for (int i = 0; i < intensity.data.length; i++) {
+			float dx = derivX.data[i], dy = derivY.data[i];
+			intensity.data[i] = (float)Math.sqrt(dx*dx + dy*dy);
+		}
+		GThresholdImageOps.threshold(intensity, output, 50, false);
+	}
+
+	@Benchmark public void tiled() {
+		pipeline.process(input, output);
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkTiledPipeline.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -25,6 +25,7 @@ import boofcv.factory.distort.FactoryDistort;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageType;
 import georegression.struct.affine.Affine2D_F32;
 import georegression.struct.point.Point2D_F32;
@@ -49,10 +50,14 @@ public class BenchmarkImageDistort {
 
 	GrayF32 inputF32 = new GrayF32(size, size);
 	GrayF32 outputF32 = new GrayF32(size, size);
+	GrayU8 inputU8 = new GrayU8(size, size);
+	GrayU8 outputU8 = new GrayU8(size, size);
 
 	ImageDistort<GrayF32, GrayF32> nearest_sb;
 	ImageDistort<GrayF32, GrayF32> bilinear_sb;
 	ImageDistort<GrayF32, GrayF32> bilinear_cache_sb;
+	ImageDistort<GrayU8, GrayU8> bilinear_cache_U8;
+	ImageDistort<GrayU8, GrayU8> remap_U8;
 
 	@Setup
 	public void setup() {
@@ -61,8 +66,11 @@ public class BenchmarkImageDistort {
 
 		inputF32.reshape(size, size);
 		outputF32.reshape(size, size);
+		inputU8.reshape(size, size);
+		outputU8.reshape(size, size);
 
 		GImageMiscOps.fillUniform(inputF32, rand, 0, 200);
+		GImageMiscOps.fillUniform(inputU8, rand, 0, 200);
 
 		Affine2D_F32 affine = new Affine2D_F32(
 				0.9f, 0.1f, 0.0f,
@@ -76,10 +84,15 @@ public class BenchmarkImageDistort {
 				ImageType.single(GrayF32.class), ImageType.single(GrayF32.class));
 		bilinear_cache_sb = FactoryDistort.distort(true, InterpolationType.BILINEAR, BorderType.EXTENDED,
 				ImageType.single(GrayF32.class), ImageType.single(GrayF32.class));
+		bilinear_cache_U8 = FactoryDistort.distort(true, InterpolationType.BILINEAR, BorderType.EXTENDED,
+				ImageType.single(GrayU8.class), ImageType.single(GrayU8.class));
+		remap_U8 = FactoryDistort.remapSB(GrayU8.class);
 
 		nearest_sb.setModel(tran);
 		bilinear_sb.setModel(tran);
 		bilinear_cache_sb.setModel(tran);
+		bilinear_cache_U8.setModel(tran);
+		remap_U8.setModel(tran);
 	}
 
 	@Benchmark
@@ -96,4 +109,14 @@ public class BenchmarkImageDistort {
 	public void bilinear_cache_F32() {
 		bilinear_cache_sb.apply(inputF32, outputF32, 0, 0, size, size);
 	}
+
+	@Benchmark
+	public void bilinear_cache_U8() {
+		bilinear_cache_U8.apply(inputU8, outputU8, 0, 0, size, size);
+	}
+
+	@Benchmark
+	public void remap_U8() {
+		remap_U8.apply(inputU8, outputU8, 0, 0, size, size);
+	}
 }
@@ -57,6 +57,7 @@ public class BenchmarkEnhanceImageOps {
 	GrayU8 outputU8 = new GrayU8(size, size);
 
 	GrowArray<DogArray_I32> workArrays = new GrowArray<>(DogArray_I32::new);
+	DogArray_I32 work = new DogArray_I32();
 
 	@Setup
 	public void setup() {
@@ -75,6 +76,11 @@ public class BenchmarkEnhanceImageOps {
 		EnhanceImageOps.equalizeLocal(inputU8, 10, outputU8, 255, workArrays);
 	}
 
+	@Benchmark
+	public void equalizeClahe_U8() {
+		EnhanceImageOps.equalizeClahe(inputU8, 8, 8, 4.0, outputU8, 256, work);
+	}
+
 	@Benchmark
 	public void applyTransform_U8() {
 		workArrays.reset();
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares band based blob labeling against contour based labeling in {@link BenchmarkBinaryBlobLabeling}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkBinaryBlobLabelingBands {
+	@Param({"1000", "5000"})
+	public int size;
+
+	@Param({"true", "false"})
+	public boolean concurrent;
+
+	private final GrayU8 input = new GrayU8(1, 1);
+	private final GrayS32 output = new GrayS32(1, 1);
+
+	LinearContourLabelChang2004 chang8 = new LinearContourLabelChang2004(ConnectRule.EIGHT);
+	BinaryBlobLabeling bands4 = new BinaryBlobLabeling(ConnectRule.FOUR);
+	BinaryBlobLabeling bands8 = new BinaryBlobLabeling(ConnectRule.EIGHT);
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		var rand = new Random(234);
+
+		input.reshape(size, size);
+		output.reshape(size, size);
+
+		ImageMiscOps.fillUniform(input, rand, 0, 2);
+	}
+
+	@Benchmark public void Chang2004_8() { chang8.process(input, output); }
+	@Benchmark public void Bands_4() { bands4.process(input, output); }
+	@Benchmark public void Bands_8() { bands8.process(input, output); }
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkBinaryBlobLabelingBands.class.getSimpleName())
+				.warmupTime(TimeValue.seconds(1))
+				.measurementTime(TimeValue.seconds(1))
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the guided filter against a naive bilateral filter. The guided filter's run time should not change
+ * with the radius while the bilateral filter grows with the region's area.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkGuidedFilter {
+	@Param({"true", "false"})
+	public boolean concurrent;
+
+	@Param({"2", "8", "16"})
+	public int radius;
+
+	@Param({"800"})
+	public int size;
+
+	GrayU8 inputU8 = new GrayU8(1, 1);
+	GrayU8 outputU8 = new GrayU8(1, 1);
+	GrayF32 inputF32 = new GrayF32(1, 1);
+	GrayF32 outputF32 = new GrayF32(1, 1);
+	Planar<GrayF32> colorF32 = new Planar<>(GrayF32.class, 1, 1, 3);
+
+	GuidedFilter guidedF32 = new GuidedFilter();
+	GuidedFilter guidedU8 = new GuidedFilter();
+
+	@Setup public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		var rand = new Random(234);
+
+		inputU8.reshape(size, size);
+		inputF32.reshape(size, size);
+		colorF32.reshape(size, size);
+
+		ImageMiscOps.fillUniform(inputU8, rand, 0, 255);
+		ImageMiscOps.fillUniform(inputF32, rand, 0, 1);
+		GImageMiscOps.fillUniform(colorF32, rand, 0, 1);
+
+		guidedF32 = new GuidedFilter(radius, radius, 0.01);
+		guidedU8 = new GuidedFilter(radius, radius, 0.01*255*255);
+	}
+
+	// @formatter:off
+	@Benchmark public void guided_F32() { guidedF32.process(inputF32, inputF32, outputF32); }
+	@Benchmark public void guided_U8() { guidedU8.process(inputU8, inputU8, outputU8); }
+	@Benchmark public void guided_Color_F32() { guidedF32.process(colorF32, inputF32, outputF32); }
+	@Benchmark public void bilateralNaive_F32() { bilateralNaive(inputF32, outputF32, radius, radius/2.0f, 0.1f); }
+	// @formatter:on
+
+	/**
+	 * Straight forward bilateral filter which is used as a reference
+	 */
+	static void bilateralNaive( GrayF32 input, GrayF32 output, int radius, float sigmaSpace, float sigmaRange ) {
+		output.reshape(input.width, input.height);
+
+		int width = 2*radius + 1;
+		var weightSpace = new float[width*width];
+		for (int y = -radius; y <= radius; y++) {
+			for (int x = -radius; x <= radius; x++) {
+				weightSpace[(y + radius)*width + x + radius] =
+						(float)Math.exp(-(x*x + y*y)/(2.0*sigmaSpace*sigmaSpace));
+			}
+		}
+		float rangeScale = -1.0f/(2.0f*sigmaRange*sigmaRange);
+
+		for (int y = 0; y < input.height; y++) {
+			for (int x = 0; x < input.width; x++) {
+				float center = input.unsafe_get(x, y);
+				float total = 0, totalWeight = 0;
+
+				int x0 = Math.max(0, x - radius), x1 = Math.min(input.width, x + radius + 1);
+				int y0 = Math.max(0, y - radius), y1 = Math.min(input.height, y + radius + 1);
+				for (int i = y0; i < y1; i++) {
+					for (int j = x0; j < x1; j++) {
+						float value = input.unsafe_get(j, i);
+						float difference = value - center;
+						float weight = weightSpace[(i - y + radius)*width + j - x + radius]*
+								(float)Math.exp(difference*difference*rangeScale);
+						total += weight*value;
+						totalWeight += weight;
+					}
+				}
+				output.unsafe_set(x, y, total/totalWeight);
+			}
+		}
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkGuidedFilter.class.getSimpleName())
+				.warmupTime(TimeValue.seconds(1))
+				.measurementTime(TimeValue.seconds(1))
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -18,10 +18,14 @@
 
 package boofcv.alg.filter.blur;
 
+import boofcv.alg.filter.blur.impl.ImplMedianColumnHistogram;
+import boofcv.alg.filter.blur.impl.ImplMedianColumnHistogram_MT;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInnerNaive;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
 import boofcv.alg.filter.convolve.CommonBenchmarkConvolve_SB;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayU16;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -29,6 +33,7 @@ import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 @BenchmarkMode(Mode.AverageTime)
@@ -38,20 +43,34 @@ import java.util.concurrent.TimeUnit;
 @State(Scope.Benchmark)
 @Fork(value = 1)
 public class BenchmarkMedianFilter extends CommonBenchmarkConvolve_SB {
-//	@Param({"1", "4"})
-	@Param({"4"})
+	GrayU16 inputU16 = new GrayU16(width, height);
+	GrayU16 outputU16 = new GrayU16(width, height);
+
+//	@Param({"1", "4", "16", "32"})
+	@Param({"4", "16"})
 	public int radius;
 
-	@Setup public void setup() {setup(radius);}
+	@Setup public void setup() {
+		setup(radius);
+		ImageMiscOps.fillUniform(inputU16, new Random(234), 0, 4096);
+	}
 
 	@Benchmark public void BlurImageOps_I8() {
 		BlurImageOps.median(input_U8, out_U8, radius, radius, work_I32);
 	}
 
+	@Benchmark public void BlurImageOps_U16() {
+		BlurImageOps.median(inputU16, outputU16, radius, radius, work_I32);
+	}
+
 	@Benchmark public void BlurImageOps_F32() {
 		BlurImageOps.median(input_F32, out_F32, radius, radius, work_F32);
 	}
 
+	@Benchmark public void BlurImageOps_Quantized_F32() {
+		BlurImageOps.medianQuantized(input_F32, out_F32, radius, radius, 12, work_I32);
+	}
+
 	@Benchmark public void HistogramNaive_I8() {
 		ImplMedianHistogramInnerNaive.process(input_U8, out_U8, radius, radius, null, null);
 	}
@@ -60,6 +79,30 @@ public class BenchmarkMedianFilter extends CommonBenchmarkConvolve_SB {
 		ImplMedianHistogramInner.process(input_U8, out_U8, radius, radius, work_I32);
 	}
 
+	@Benchmark public void ColumnHistogram_I8() {
+		ImplMedianColumnHistogram.process(input_U8, out_U8, radius, radius, work_I32);
+	}
+
+	@Benchmark public void ColumnHistogram_MT_I8() {
+		ImplMedianColumnHistogram_MT.process(input_U8, out_U8, radius, radius, work_I32);
+	}
+
+	@Benchmark public void ColumnHistogram_U16() {
+		ImplMedianColumnHistogram.process(inputU16, outputU16, radius, radius, work_I32);
+	}
+
+	@Benchmark public void ColumnHistogram_MT_U16() {
+		ImplMedianColumnHistogram_MT.process(inputU16, outputU16, radius, radius, work_I32);
+	}
+
+	@Benchmark public void ColumnHistogram_F32() {
+		ImplMedianColumnHistogram.process(input_F32, out_F32, radius, radius, 12, work_I32);
+	}
+
+	@Benchmark public void ColumnHistogram_MT_F32() {
+		ImplMedianColumnHistogram_MT.process(input_F32, out_F32, radius, radius, 12, work_I32);
+	}
+
 	@Benchmark public void SortNaive_I8() {
 		ImplMedianSortNaive.process(input_U8, out_U8, radius, radius, work_I32);
 	}
@@ -70,7 +113,7 @@ public class BenchmarkMedianFilter extends CommonBenchmarkConvolve_SB {
 
 	public static void main( String[] args ) throws RunnerException {
 		Options opt = new OptionsBuilder()
-				.include(BenchmarkBlurImageOps.class.getSimpleName())
+				.include(BenchmarkMedianFilter.class.getSimpleName())
 				.warmupTime(TimeValue.seconds(1))
 				.measurementTime(TimeValue.seconds(1))
 				.build();
@@ -56,6 +56,9 @@ public class BenchmarkImageStatistics {
 
 	int[] histogram = new int[256];
 
+	ImageStatisticsFused fused = new ImageStatisticsFused(ImageStatisticsFused.Statistic.MIN_MAX,
+			ImageStatisticsFused.Statistic.VARIANCE, ImageStatisticsFused.Statistic.HISTOGRAM);
+
 	@Setup
 	public void setup() {
 		BoofConcurrency.USE_CONCURRENT = concurrent;
@@ -117,6 +120,20 @@ public class BenchmarkImageStatistics {
 		GImageStatistics.variance(imgA_U8,120);
 	}
 
+	@Benchmark
+	public void separate_min_max_variance_histogram() {
+		GImageStatistics.min(imgA_U8);
+		GImageStatistics.max(imgA_U8);
+		double mean = GImageStatistics.mean(imgA_U8);
+		GImageStatistics.variance(imgA_U8,mean);
+		GImageStatistics.histogram(imgA_U8,0,histogram);
+	}
+
+	@Benchmark
+	public void fused_min_max_variance_histogram() {
+		fused.process(imgA_U8);
+	}
+
 	public static void main(String[] args) throws RunnerException {
 		Options opt = new OptionsBuilder()
 				.include(BenchmarkImageStatistics.class.getSimpleName())
@@ -75,7 +75,10 @@ public class GenerateBlurImageOps  extends CodeGeneratorBase {
 				" * of noise in the image.\n" +
 				generateDocString("Peter Abeles") +
 				"@SuppressWarnings(\"Duplicates\")\n" +
-				"public class "+className+" {\n");
+				"public class "+className+" {\n" +
+				"\t/** If the median filter's radius is at least this size then an algorithm with constant time per pixel is used */\n" +
+				"\tpublic static int MEDIAN_CONSTANT_RADIUS = 6;\n" +
+				"\n");
 	}
 
 	private void generateMeanWeighted(AutoTypeImage type ) {
@@ -274,7 +277,8 @@ public class GenerateBlurImageOps  extends CodeGeneratorBase {
 
 	void printMedian() {
 		out.print("\t/**\n" +
-				"\t * Applies a median filter.\n" +
+				"\t * Applies a median filter. Small regions use an algorithm that updates a histogram as the region moves\n" +
+				"\t * and large regions use an algorithm that runs in constant time per pixel.\n" +
 				"\t *\n" +
 				"\t * @param input Input image. Not modified.\n" +
 				"\t * @param output (Optional) Storage for output image, Can be null. Modified.\n" +
@@ -288,17 +292,53 @@ public class GenerateBlurImageOps  extends CodeGeneratorBase {
 				"\t\tif (radiusX <= 0 || radiusY <= 0)\n" +
 				"\t\t\tthrow new IllegalArgumentException(\"Radius must be > 0\");\n" +
 				"\n" +
+				"\t\toutput = InputSanityCheck.declareOrReshape(input, output);\n" +
+				"\n" +
 				"\t\tboolean processed = BOverrideBlurImageOps.invokeNativeMedian(input, output, radiusX, radiusY);\n" +
 				"\n" +
 				"\t\tif (!processed) {\n" +
 				"\t\t\twork = BoofMiscOps.checkDeclare(work, DogArray_I32::new);\n" +
-				"\t\t\tif (BoofConcurrency.USE_CONCURRENT) {\n" +
-				"\t\t\t\tImplMedianHistogramInner_MT.process(input, output, radiusX, radiusY, work);\n" +
+				"\t\t\tif (Math.max(radiusX, radiusY) >= MEDIAN_CONSTANT_RADIUS) {\n" +
+				"\t\t\t\tif (BoofConcurrency.USE_CONCURRENT) {\n" +
+				"\t\t\t\t\tImplMedianColumnHistogram_MT.process(input, output, radiusX, radiusY, work);\n" +
+				"\t\t\t\t} else {\n" +
+				"\t\t\t\t\tImplMedianColumnHistogram.process(input, output, radiusX, radiusY, work);\n" +
+				"\t\t\t\t}\n" +
 				"\t\t\t} else {\n" +
-				"\t\t\t\tImplMedianHistogramInner.process(input, output, radiusX, radiusY, work);\n" +
+				"\t\t\t\tif (BoofConcurrency.USE_CONCURRENT) {\n" +
+				"\t\t\t\t\tImplMedianHistogramInner_MT.process(input, output, radiusX, radiusY, work);\n" +
+				"\t\t\t\t} else {\n" +
+				"\t\t\t\t\tImplMedianHistogramInner.process(input, output, radiusX, radiusY, work);\n" +
+				"\t\t\t\t}\n" +
+				"\t\t\t\tImplMedianSortEdgeNaive.process(input, output, radiusX, radiusY, work.grow());\n" +
 				"\t\t\t}\n" +
-				"\t\t\t// TODO Optimize this algorithm. It is taking up a large percentage of the CPU time\n" +
-				"\t\t\tImplMedianSortEdgeNaive.process(input, output, radiusX, radiusY, work.grow());\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\treturn output;\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
+				"\t * Applies a median filter. Runs in constant time per pixel.\n" +
+				"\t *\n" +
+				"\t * @param input Input image. Not modified.\n" +
+				"\t * @param output (Optional) Storage for output image, Can be null. Modified.\n" +
+				"\t * @param radiusX Size of the filter region. x-axis\n" +
+				"\t * @param radiusY Size of the filter region. y-axis\n" +
+				"\t * @param work (Optional) Creates local workspace arrays. Nullable.\n" +
+				"\t * @return Output blurred image.\n" +
+				"\t */\n" +
+				"\tpublic static GrayU16 median( GrayU16 input, @Nullable GrayU16 output, int radiusX, int radiusY,\n" +
+				"\t\t\t\t\t\t\t\t  @Nullable GrowArray<DogArray_I32> work ) {\n" +
+				"\t\tif (radiusX <= 0 || radiusY <= 0)\n" +
+				"\t\t\tthrow new IllegalArgumentException(\"Radius must be > 0\");\n" +
+				"\n" +
+				"\t\toutput = InputSanityCheck.declareOrReshape(input, output);\n" +
+				"\t\twork = BoofMiscOps.checkDeclare(work, DogArray_I32::new);\n" +
+				"\n" +
+				"\t\tif (BoofConcurrency.USE_CONCURRENT) {\n" +
+				"\t\t\tImplMedianColumnHistogram_MT.process(input, output, radiusX, radiusY, work);\n" +
+				"\t\t} else {\n" +
+				"\t\t\tImplMedianColumnHistogram.process(input, output, radiusX, radiusY, work);\n" +
 				"\t\t}\n" +
 				"\n" +
 				"\t\treturn output;\n" +
@@ -334,6 +374,34 @@ public class GenerateBlurImageOps  extends CodeGeneratorBase {
 				"\t}\n" +
 				"\n" +
 				"\t/**\n" +
+				"\t * Applies an approximate median filter that runs in constant time per pixel. Pixel values are quantized into\n" +
+				"\t * 2<sup>bits</sup> levels between the image's minimum and maximum value, which bounds the error by half a level.\n" +
+				"\t *\n" +
+				"\t * @param input Input image. Not modified.\n" +
+				"\t * @param output (Optional) Storage for output image, Can be null. Modified.\n" +
+				"\t * @param radiusX Size of the filter region. x-axis\n" +
+				"\t * @param radiusY Size of the filter region. y-axis\n" +
+				"\t * @param bits Number of bits used to quantize pixel values. 1 to 16. Try 12.\n" +
+				"\t * @param work (Optional) Creates local workspace arrays. Nullable.\n" +
+				"\t * @return Output blurred image.\n" +
+				"\t */\n" +
+				"\tpublic static GrayF32 medianQuantized( GrayF32 input, @Nullable GrayF32 output, int radiusX, int radiusY, int bits,\n" +
+				"\t\t\t\t\t\t\t\t\t\t   @Nullable GrowArray<DogArray_I32> work ) {\n" +
+				"\t\tif (radiusX <= 0 || radiusY <= 0)\n" +
+				"\t\t\tthrow new IllegalArgumentException(\"Radius must be > 0\");\n" +
+				"\n" +
+				"\t\toutput = InputSanityCheck.declareOrReshape(input, output);\n" +
+				"\t\twork = BoofMiscOps.checkDeclare(work, DogArray_I32::new);\n" +
+				"\n" +
+				"\t\tif (BoofConcurrency.USE_CONCURRENT) {\n" +
+				"\t\t\tImplMedianColumnHistogram_MT.process(input, output, radiusX, radiusY, bits, work);\n" +
+				"\t\t} else {\n" +
+				"\t\t\tImplMedianColumnHistogram.process(input, output, radiusX, radiusY, bits, work);\n" +
+				"\t\t}\n" +
+				"\t\treturn output;\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
 				"\t * Applies median filter to a {@link Planar}\n" +
 				"\t *\n" +
 				"\t * @param input Input image. Not modified.\n" +
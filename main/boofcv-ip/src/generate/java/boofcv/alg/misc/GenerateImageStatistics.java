@@ -50,6 +50,8 @@ public class GenerateImageStatistics extends CodeGeneratorBase {
 				"import boofcv.alg.misc.impl.ImplImageStatistics;\n" +
 				"import boofcv.alg.misc.impl.ImplImageStatistics_MT;\n" +
 				"import boofcv.concurrency.BoofConcurrency;\n" +
+				"import boofcv.simd.BoofSimd;\n" +
+				"import boofcv.simd.SimdKernels;\n" +
 				"\n" +
 				"/**\n" +
 				" * Computes statistical properties of pixels inside an image.\n" +
@@ -90,6 +92,25 @@ public class GenerateImageStatistics extends CodeGeneratorBase {
 		}
 	}
 
+	/**
+	 * Returns true if there is a SIMD kernel for the current image type
+	 */
+	private boolean hasSimdKernel() {
+		return input == AutoTypeImage.U8 || input == AutoTypeImage.S16 || input == AutoTypeImage.F32;
+	}
+
+	/**
+	 * Creates the code which will return the value computed by a SIMD kernel if they are available
+	 */
+	private String simdReturn( String kernel, String columns ) {
+		if (!hasSimdKernel())
+			return "";
+		return "\t\tSimdKernels simd = BoofSimd.kernels();\n" +
+				"\t\tif (simd != null)\n" +
+				"\t\t\treturn simd." + kernel + "_" + input.getAbbreviatedType() +
+				"(input.data, input.startIndex, input.height, " + columns + ", input.stride);\n\n";
+	}
+
 	public void printHistogram() {
 		String sumType = input.getSumType();
 
@@ -133,6 +154,7 @@ public class GenerateImageStatistics extends CodeGeneratorBase {
 	public void printSum( ImageType.Family family ) {
 
 		String sumType = input.getSumType();
+		String columns = family == ImageType.Family.INTERLEAVED ? "input.width*input.numBands" : "input.width";
 
 		out.print("\t/**\n" +
 				"\t * <p>\n" +
@@ -143,6 +165,7 @@ public class GenerateImageStatistics extends CodeGeneratorBase {
 				"\t */\n" +
 				"\tpublic static " + sumType + " sum( " + input.getImageName(family) + " input ) {\n" +
 				"\n" +
+				simdReturn("sum", columns) +
 				"\t\tint N = input.width*input.height;\n" +
 				"\t\tif (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {\n" +
 				"\t\t\treturn ImplImageStatistics_MT.sum(input);\n" +
@@ -318,6 +341,7 @@ public class GenerateImageStatistics extends CodeGeneratorBase {
 			out.println(javaDoc);
 			out.print(
 					"\tpublic static " + sumType + " " + name + "( " + input.getImageName(family) + " input ) {\n" +
+							(name.equals("maxAbs") ? "" : simdReturn(name, columns)) +
 							"\t\tint N = input.width*input.height;\n" +
 							"\t\tif (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {\n" +
 							"\t\t\treturn ImplImageStatistics_MT." + nameUn + "(input.data, input.startIndex, input.height, " + columns + ", input.stride);\n" +
@@ -21,6 +21,7 @@ package boofcv.alg.misc;
 import boofcv.generate.AutoTypeImage;
 import boofcv.generate.CodeGeneratorBase;
 import boofcv.struct.image.ImageType;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
@@ -74,6 +75,8 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"import boofcv.alg.misc.impl.ImplPixelMath;\n" +
 				"import boofcv.concurrency.BoofConcurrency;\n" +
 				"import boofcv.alg.InputSanityCheck;\n" +
+				"import boofcv.simd.BoofSimd;\n" +
+				"import boofcv.simd.SimdKernels;\n" +
 				"import javax.annotation.Generated;\n" +
 				"\n" +
 				"/**\n" +
@@ -129,6 +132,33 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 		printStdev(a, b);
 	}
 
+	/**
+	 * Creates the code which will call a SIMD kernel if they are available. The returned string must be followed
+	 * by an if statement or a code block for the scalar code.
+	 *
+	 * @param kernel Name of the kernel or null if there is no kernel
+	 * @param arguments Arguments passed to the kernel
+	 */
+	private static String simd( @Nullable String kernel, String arguments ) {
+		if (kernel == null)
+			return "\t\t";
+		return "\t\tSimdKernels simd = BoofSimd.kernels();\n" +
+				"\t\tif (simd != null) {\n" +
+				"\t\t\tsimd." + kernel + "(" + arguments + ");\n" +
+				"\t\t} else ";
+	}
+
+	/**
+	 * Returns the name of the SIMD kernel for the operation and image type or null if there is none
+	 */
+	private static @Nullable String simdKernel( String funcName, AutoTypeImage type, AutoTypeImage... supported ) {
+		for (AutoTypeImage s : supported) {
+			if (s == type)
+				return funcName + "_" + type.getAbbreviatedType();
+		}
+		return null;
+	}
+
 	private void print( String funcName, String javadoc, AutoTypeImage[] types ) {
 		for (AutoTypeImage t : types) {
 			input = t;
@@ -142,6 +172,8 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 					columns = "input.width";
 				}
 
+				String kernel = funcName.equals("abs") ? simdKernel(funcName, input, S16, F32) : null;
+
 				out.println(javadoc + "\n" +
 						"\tpublic static void " + funcName + "( " + inputName + " input , " + inputName + " output ) {\n" +
 						"\n" +
@@ -149,7 +181,10 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 						"\n" +
 						"\t\tint columns = " + columns + ";\n" +
 						"\t\tint N = input.width*input.height;\n" +
-						"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
+						simd(kernel, "input.data, input.startIndex, input.stride,\n" +
+								"\t\t\t\t\toutput.data, output.startIndex, output.stride,\n" +
+								"\t\t\t\t\tinput.height, columns") +
+						"if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 						"\t\t\tImplPixelMath_MT." + funcName + "(input.data, input.startIndex, input.stride,\n" +
 						"\t\t\t\t\toutput.data, output.startIndex, output.stride,\n" +
 						"\t\t\t\t\tinput.height, columns);\n" +
@@ -314,6 +349,9 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 		String funcArrayName = input.isSigned() ? funcName : funcName + "U";
 		funcArrayName += template.isImageFirst() ? "_A" : "_B";
 
+		// Only multiplication of floats has a SIMD kernel
+		String kernel = template instanceof Multiple && input == output ? simdKernel(funcName, input, F32) : null;
+
 		for (ImageType.Family family : families) {
 			String inputName, outputName, columns, reshape;
 			if (family == ImageType.Family.INTERLEAVED) {
@@ -347,7 +385,10 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 						"\n" +
 						"\t\tint columns = " + columns + ";\n" +
 						"\t\tint N = input.width*input.height;\n" +
-						"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
+						simd(kernel, "input.data, input.startIndex, input.stride, " + varName + ", lower, upper,\n" +
+								"\t\t\t\t\toutput.data, output.startIndex, output.stride,\n" +
+								"\t\t\t\t\tinput.height, columns") +
+						"if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 						"\t\t\tImplPixelMath_MT." + funcArrayName + "(input.data,input.startIndex,input.stride," + varName + ", lower, upper ,\n" +
 						"\t\t\t\t\toutput.data,output.startIndex,output.stride,\n" +
 						"\t\t\t\t\tinput.height,columns);\n" +
@@ -372,7 +413,10 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 						"\n" +
 						"\t\tint columns = " + columns + ";\n" +
 						"\t\tint N = input.width*input.height;\n" +
-						"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
+						simd(kernel, "input.data, input.startIndex, input.stride, " + varName + ",\n" +
+								"\t\t\t\t\toutput.data, output.startIndex, output.stride,\n" +
+								"\t\t\t\t\tinput.height, columns") +
+						"if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 						"\t\t\tImplPixelMath_MT." + funcArrayName + "(input.data,input.startIndex,input.stride," + varName + " , \n" +
 						"\t\t\t\t\toutput.data,output.startIndex,output.stride,\n" +
 						"\t\t\t\t\tinput.height,columns);\n" +
@@ -389,6 +433,7 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 	public void printBoundImage() {
 
 		String sumType = input.getSumType();
+		String kernel = simdKernel("boundImage", input, U8, S16, F32);
 
 		out.print("\t/**\n" +
 				"\t * Bounds image pixels to be between these two values\n" +
@@ -397,12 +442,20 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t * @param min minimum value.\n" +
 				"\t * @param max maximum value.\n" +
 				"\t */\n" +
-				"\tpublic static void boundImage( " + input.getSingleBandName() + " img , " + sumType + " min , " + sumType + " max ) {\n" +
-				"\t\tImplPixelMath.boundImage(img,min,max);\n" +
-				"\t}\n\n");
+				"\tpublic static void boundImage( " + input.getSingleBandName() + " img , " + sumType + " min , " + sumType + " max ) {\n");
+		if (kernel == null) {
+			out.print("\t\tImplPixelMath.boundImage(img,min,max);\n");
+		} else {
+			out.print(simd(kernel, "img.data, img.startIndex, img.stride, min, max, img.height, img.width") + "{\n" +
+					"\t\t\tImplPixelMath.boundImage(img,min,max);\n" +
+					"\t\t}\n");
+		}
+		out.print("\t}\n\n");
 	}
 
 	public void printDiffAbs() {
+		String kernel = simdKernel("diffAbs", input, U8, S16, F32);
+
 		out.print("\t/**\n" +
 				"\t * <p>\n" +
 				"\t * Computes the absolute value of the difference between each pixel in the two images.<br>\n" +
@@ -417,7 +470,11 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t\toutput.reshape(imgA.width,imgA.height);\n" +
 				"\n" +
 				"\t\tint N = imgA.width*imgA.height;\n" +
-				"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
+				simd(kernel, "imgA.data, imgA.startIndex, imgA.stride,\n" +
+						"\t\t\t\t\timgB.data, imgB.startIndex, imgB.stride,\n" +
+						"\t\t\t\t\toutput.data, output.startIndex, output.stride,\n" +
+						"\t\t\t\t\timgA.height, imgA.width") +
+				"if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 				"\t\t\tImplPixelMath_MT.diffAbs(imgA, imgB, output);\n" +
 				"\t\t} else {\n" +
 				"\t\t\tImplPixelMath.diffAbs(imgA, imgB, output);\n" +
@@ -426,6 +483,8 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 	}
 
 	public void printAddTwoImages( AutoTypeImage typeIn, AutoTypeImage typeOut ) {
+		String kernel = simdKernel("add", typeIn, U8, S16, F32);
+
 		out.print("\t/**\n" +
 				"\t * <p>\n" +
 				"\t * Performs pixel-wise addition<br>\n" +
@@ -440,7 +499,11 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t\toutput.reshape(imgA.width,imgA.height);\n" +
 				"\n" +
 				"\t\tint N = imgA.width*imgA.height;\n" +
-				"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
+				simd(kernel, "imgA.data, imgA.startIndex, imgA.stride,\n" +
+						"\t\t\t\t\timgB.data, imgB.startIndex, imgB.stride,\n" +
+						"\t\t\t\t\toutput.data, output.startIndex, output.stride,\n" +
+						"\t\t\t\t\timgA.height, imgA.width") +
+				"if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 				"\t\t\tImplPixelMath_MT.add(imgA, imgB, output);\n" +
 				"\t\t} else {\n" +
 				"\t\t\tImplPixelMath.add(imgA, imgB, output);\n" +
@@ -473,6 +536,8 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 	}
 
 	public void printMultTwoImages( ImageType.Family f, AutoTypeImage typeIn, AutoTypeImage typeOut ) {
+		String kernel = f == ImageType.Family.GRAY ? simdKernel("multiply", typeIn, F32) : null;
+
 		out.print("\t/**\n" +
 				"\t * <p>\n" +
 				"\t * Performs pixel-wise multiplication<br>\n" +
@@ -487,7 +552,11 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t\toutput.reshape(imgA.width,imgA.height);\n" +
 				"\n" +
 				"\t\tint N = imgA.width*imgA.height;\n" +
-				"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
+				simd(kernel, "imgA.data, imgA.startIndex, imgA.stride,\n" +
+						"\t\t\t\t\timgB.data, imgB.startIndex, imgB.stride,\n" +
+						"\t\t\t\t\toutput.data, output.startIndex, output.stride,\n" +
+						"\t\t\t\t\timgA.height, imgA.width") +
+				"if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 				"\t\t\tImplPixelMath_MT.multiply(imgA, imgB, output);\n" +
 				"\t\t} else {\n" +
 				"\t\t\tImplPixelMath.multiply(imgA, imgB, output);\n" +
@@ -66,6 +66,8 @@ public class GenerateConvertImage extends CodeGeneratorBase {
 				"import boofcv.core.image.impl.ImplConvertPlanarToGray_MT;\n" +
 				"import boofcv.core.image.impl.ConvertInterleavedToSingle;\n" +
 				"import boofcv.core.image.impl.ConvertInterleavedToSingle_MT;\n" +
+				"import boofcv.simd.BoofSimd;\n" +
+				"import boofcv.simd.SimdKernels;\n" +
 				"import boofcv.struct.image.*;\n" +
 				"\n" +
 				"import javax.annotation.processing.Generated;\n" +
@@ -98,8 +100,7 @@ public class GenerateConvertImage extends CodeGeneratorBase {
 				"\t\t\toutput.reshapeTo(input);\n" +
 				"\t\t}\n" +
 				"\n" +
-				"\t\t// threaded code is not significantly faster here\n" +
-				"\t\tImplConvertImage.convert(input, output);\n" +
+				createConvertCode(imageIn, imageOut, "input.width") +
 				"\n" +
 				"\t\treturn output;\n" +
 				"\t}\n\n");
@@ -123,13 +124,36 @@ public class GenerateConvertImage extends CodeGeneratorBase {
 				"\t\t\toutput.reshapeTo(input);\n" +
 				"\t\t}\n" +
 				"\n" +
-				"\t\t// threaded code is not significantly faster here\n" +
-				"\t\tImplConvertImage.convert(input, output);\n" +
+				createConvertCode(imageIn, imageOut, "input.width*input.numBands") +
 				"\n" +
 				"\t\treturn output;\n" +
 				"\t}\n\n");
 	}
 
+	/**
+	 * Creates the code which does the conversion, calling a SIMD kernel if there is one for these types
+	 */
+	private String createConvertCode( AutoTypeImage imageIn, AutoTypeImage imageOut, String columns ) {
+		boolean hasKernel = (imageIn == AutoTypeImage.U8 && imageOut == AutoTypeImage.F32) ||
+				(imageIn == AutoTypeImage.U8 && imageOut == AutoTypeImage.S16) ||
+				(imageIn == AutoTypeImage.S16 && imageOut == AutoTypeImage.F32);
+
+		if (!hasKernel) {
+			return "\t\t// threaded code is not significantly faster here\n" +
+					"\t\tImplConvertImage.convert(input, output);\n";
+		}
+
+		String kernel = "convert_" + imageIn.getAbbreviatedType() + "_" + imageOut.getAbbreviatedType();
+		return "\t\tSimdKernels simd = BoofSimd.kernels();\n" +
+				"\t\tif (simd != null) {\n" +
+				"\t\t\tsimd." + kernel + "(input.data, input.startIndex, input.stride,\n" +
+				"\t\t\t\t\toutput.data, output.startIndex, output.stride, input.height, " + columns + ");\n" +
+				"\t\t} else {\n" +
+				"\t\t\t// threaded code is not significantly faster here\n" +
+				"\t\t\tImplConvertImage.convert(input, output);\n" +
+				"\t\t}\n";
+	}
+
 	private void printPlanarAverage(AutoTypeImage imageIn) {
 
 		String imageName = imageIn.getSingleBandName();
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.tile;
+
+import boofcv.alg.filter.convolve.GConvolveImageOps;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageType;
+import lombok.Getter;
+
+/**
+ * Gaussian blur applied to a tile. Same as {@link boofcv.alg.filter.blur.BlurImageOps#gaussian} with the
+ * kernels computed once and the intermediate image saved between calls.
+ *
+ * @author Peter Abeles
+ */
+public class TileBlurGaussian<T extends ImageBase<T>> implements TileOperator<T, T> {
+	@Getter ImageType<T> inputType;
+
+	final double sigma;
+	final int radius;
+	final Kernel1D kernel;
+
+	// Results from the horizontal pass
+	final T storage;
+
+	/**
+	 * @param inputType Type of image which is blurred
+	 * @param sigma The distributions stdev. If &le; 0 then the sigma will be computed from the radius.
+	 * @param radius Number of pixels in the kernel's radius. If &le; 0 then the sigma will be computed from the sigma.
+	 */
+	public TileBlurGaussian( ImageType<T> inputType, double sigma, int radius ) {
+		this.inputType = inputType;
+		this.sigma = sigma;
+		this.radius = radius;
+
+		ImageDataType dataType = inputType.getDataType();
+		int numBits = dataType.getNumBits() <= 32 ? 32 : dataType.getNumBits();
+		this.kernel = FactoryKernelGaussian.gaussian(1, !dataType.isInteger(), numBits, sigma, radius);
+		this.storage = inputType.createImage(1, 1);
+	}
+
+	@Override public void process( T input, T output ) {
+		storage.reshapeTo(input);
+		GConvolveImageOps.horizontalNormalized(kernel, input, storage);
+		GConvolveImageOps.verticalNormalized(kernel, storage, output);
+	}
+
+	@Override public int getRadius() {return kernel.getRadius();}
+
+	@Override public ImageType<T> getOutputType() {return inputType;}
+
+	@Override public TileOperator<T, T> copy() {
+		return new TileBlurGaussian<>(inputType, sigma, radius);
+	}
+}
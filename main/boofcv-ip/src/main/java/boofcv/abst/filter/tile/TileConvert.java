@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.tile;
+
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import lombok.Getter;
+
+/**
+ * Converts the tile into a different image type using {@link GConvertImage}.
+ *
+ * @author Peter Abeles
+ */
+public class TileConvert<In extends ImageBase<In>, Out extends ImageBase<Out>> implements TileOperator<In, Out> {
+	@Getter ImageType<In> inputType;
+	@Getter ImageType<Out> outputType;
+
+	public TileConvert( ImageType<In> inputType, ImageType<Out> outputType ) {
+		this.inputType = inputType;
+		this.outputType = outputType;
+	}
+
+	@Override public void process( In input, Out output ) {
+		GConvertImage.convert(input, output);
+	}
+
+	@Override public int getRadius() {return 0;}
+
+	@Override public TileOperator<In, Out> copy() {
+		return new TileConvert<>(inputType, outputType);
+	}
+}
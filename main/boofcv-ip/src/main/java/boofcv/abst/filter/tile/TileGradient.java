@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.tile;
+
+import boofcv.alg.filter.derivative.DerivativeType;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.convolve.KernelBase;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import lombok.Getter;
+
+/**
+ * Computes the image gradient of a tile using {@link GImageDerivativeOps#gradient}. The output is a
+ * {@link Planar} image with two bands. Band 0 is the x-derivative and band 1 is the y-derivative.
+ *
+ * @author Peter Abeles
+ */
+public class TileGradient<I extends ImageGray<I>, D extends ImageGray<D>> implements TileOperator<I, Planar<D>> {
+	@Getter ImageType<I> inputType;
+	@Getter ImageType<Planar<D>> outputType;
+
+	final DerivativeType type;
+	final BorderType borderType;
+	final int radius;
+
+	/**
+	 * @param type Which kernel is used to compute the gradient
+	 * @param borderType How the image border is handled
+	 * @param inputType Type of input image
+	 */
+	public TileGradient( DerivativeType type, BorderType borderType, ImageType<I> inputType ) {
+		if (inputType.getFamily() != ImageType.Family.GRAY)
+			throw new IllegalArgumentException("Input must be a gray image");
+		if (borderType == BorderType.SKIP)
+			throw new IllegalArgumentException("The border must be processed for the tiles to be consistent");
+		this.type = type;
+		this.borderType = borderType;
+		this.inputType = inputType;
+		ImageType<D> derivType = GImageDerivativeOps.getDerivativeType(inputType);
+		this.outputType = ImageType.pl(2, derivType.getDataType());
+
+		// the kernel might not be centered
+		KernelBase kernel = GImageDerivativeOps.lookupKernelX(type, inputType.getDataType().isInteger());
+		this.radius = Math.max(kernel.offset, kernel.width - kernel.offset - 1);
+	}
+
+	@Override public void process( I input, Planar<D> output ) {
+		GImageDerivativeOps.gradient(type, input, output.getBand(0), output.getBand(1), borderType);
+	}
+
+	@Override public int getRadius() {return radius;}
+
+	@Override public TileOperator<I, Planar<D>> copy() {
+		return new TileGradient<>(type, borderType, inputType);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.tile;
+
+import boofcv.struct.image.*;
+import lombok.Getter;
+
+/**
+ * Computes the Euclidean norm of the gradient, sqrt(dx<sup>2</sup> + dy<sup>2</sup>), from the output of
+ * {@link TileGradient}. Same as GGradientToEdgeFeatures.intensityE() in boofcv-feature.
+ *
+ * @author Peter Abeles
+ */
+public class TileGradientIntensity<D extends ImageGray<D>> implements TileOperator<Planar<D>, GrayF32> {
+	@Getter ImageType<Planar<D>> inputType;
+
+	public TileGradientIntensity( ImageType<Planar<D>> inputType ) {
+		if (inputType.getFamily() != ImageType.Family.PLANAR)
+			throw new IllegalArgumentException("Input must be a planar image containing the gradient");
+		switch (inputType.getDataType()) {
+			case F32, S16, S32 -> {}
+			default -> throw new IllegalArgumentException("Unsupported derivative type " + inputType.getDataType());
+		}
+		this.inputType = inputType;
+	}
+
+	@Override public void process( Planar<D> input, GrayF32 output ) {
+		if (input.getNumBands() != 2)
+			throw new IllegalArgumentException("Expected two bands, x and y derivatives");
+
+		D derivX = input.getBand(0);
+		D derivY = input.getBand(1);
+
+		for (int y = 0; y < output.height; y++) {
+			int indexX = derivX.startIndex + y*derivX.stride;
+			int indexY = derivY.startIndex + y*derivY.stride;
+			int indexOut = output.startIndex + y*output.stride;
+			int end = indexOut + output.width;
+
+			if (derivX instanceof GrayF32) {
+				float[] dataX = ((GrayF32)derivX).data;
+				float[] dataY = ((GrayF32)derivY).data;
+				for (; indexOut < end; indexOut++, indexX++, indexY++) {
+					float dx = dataX[indexX];
+					float dy = dataY[indexY];
+					output.data[indexOut] = (float)Math.sqrt(dx*dx + dy*dy);
+				}
+			} else if (derivX instanceof GrayS16) {
+				short[] dataX = ((GrayS16)derivX).data;
+				short[] dataY = ((GrayS16)derivY).data;
+				for (; indexOut < end; indexOut++, indexX++, indexY++) {
+					int dx = dataX[indexX];
+					int dy = dataY[indexY];
+					output.data[indexOut] = (float)Math.sqrt(dx*dx + dy*dy);
+				}
+			} else {
+				int[] dataX = ((GrayS32)derivX).data;
+				int[] dataY = ((GrayS32)derivY).data;
+				for (; indexOut < end; indexOut++, indexX++, indexY++) {
+					double dx = dataX[indexX];
+					double dy = dataY[indexY];
+					output.data[indexOut] = (float)Math.sqrt(dx*dx + dy*dy);
+				}
+			}
+		}
+	}
+
+	@Override public int getRadius() {return 0;}
+
+	@Override public ImageType<GrayF32> getOutputType() {return ImageType.SB_F32;}
+
+	@Override public TileOperator<Planar<D>, GrayF32> copy() {
+		return new TileGradientIntensity<>(inputType);
+	}
+}
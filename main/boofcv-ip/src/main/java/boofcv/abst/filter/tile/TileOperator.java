@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.tile;
+
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * A single stage inside of a {@link TiledPipeline}. The operator is applied to a tile as if the tile was the entire
+ * image. Pixels in the output which are within {@link #getRadius() radius} of the tile's edge are allowed to be
+ * incorrect, since the pipeline discards them unless the tile's edge is also the image's edge. The output image
+ * will always have the same shape as the input image.
+ *
+ * @author Peter Abeles
+ */
+public interface TileOperator<In extends ImageBase<In>, Out extends ImageBase<Out>> {
+	/**
+	 * Applies the operator to the input tile
+	 *
+	 * @param input (Input) Tile which is to be processed. Not modified.
+	 * @param output (Output) Results. Same shape as the input.
+	 */
+	void process( In input, Out output );
+
+	/**
+	 * Number of pixels away that an output pixel is influenced by. Zero for operators which work on
+	 * individual pixels.
+	 */
+	int getRadius();
+
+	ImageType<In> getInputType();
+
+	ImageType<Out> getOutputType();
+
+	/**
+	 * Creates a new instance with the same configuration which can be used in a different thread.
+	 */
+	TileOperator<In, Out> copy();
+}
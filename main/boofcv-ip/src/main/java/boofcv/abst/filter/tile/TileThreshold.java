@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.tile;
+
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import lombok.Getter;
+
+/**
+ * Applies a global threshold to the tile using {@link GThresholdImageOps#threshold}.
+ *
+ * @author Peter Abeles
+ */
+public class TileThreshold<T extends ImageGray<T>> implements TileOperator<T, GrayU8> {
+	@Getter ImageType<T> inputType;
+
+	final double threshold;
+	final boolean down;
+
+	/**
+	 * @param inputType Type of input image
+	 * @param threshold threshold value.
+	 * @param down If true then the inequality &le; is used, otherwise if false then &gt; is used.
+	 */
+	public TileThreshold( ImageType<T> inputType, double threshold, boolean down ) {
+		if (inputType.getFamily() != ImageType.Family.GRAY)
+			throw new IllegalArgumentException("Input must be a gray image");
+		this.inputType = inputType;
+		this.threshold = threshold;
+		this.down = down;
+	}
+
+	@Override public void process( T input, GrayU8 output ) {
+		GThresholdImageOps.threshold(input, output, threshold, down);
+	}
+
+	@Override public int getRadius() {return 0;}
+
+	@Override public ImageType<GrayU8> getOutputType() {return ImageType.SB_U8;}
+
+	@Override public TileOperator<T, GrayU8> copy() {
+		return new TileThreshold<>(inputType, threshold, down);
+	}
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.tile;
+
+import boofcv.abst.filter.FilterImageInterface;
+import boofcv.alg.filter.derivative.DerivativeType;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Applies a chain of {@link TileOperator operators} to an image one tile at a time instead of one operator at a
+ * time. Each tile is pushed through every operator before moving on to the next tile, so intermediate results
+ * only exist for the current tile and can be kept small enough to stay in the CPU's cache. Full size intermediate
+ * images are never declared.
+ * </p>
+ *
+ * <p>
+ * To produce the correct results next to a tile's edge, each operator is given a halo of extra pixels around
+ * its tile. The size of the halo is the sum of the radius of the operator and all the operators after it. Where a
+ * tile touches the image's border there is no halo and each operator's border handling is used instead. The
+ * output is the same as applying each operator to the entire image.
+ * </p>
+ *
+ * <pre>
+ * TiledPipeline&lt;GrayU8, GrayU8&gt; edges = TiledPipeline.builder(ImageType.SB_U8)
+ *     .convert(ImageType.SB_F32).gaussian(2.0, -1).gradient(DerivativeType.SOBEL)
+ *     .gradientIntensity().threshold(50, false).build();
+ * edges.process(image, binary);
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class TiledPipeline<In extends ImageBase<In>, Out extends ImageBase<Out>>
+		implements FilterImageInterface<In, Out> {
+	/** Default number of bytes all the intermediate images for a single tile can use. Typical size of a L2 cache. */
+	public static int DEFAULT_TILE_BYTES = 256*1024;
+
+	// The operators in the order they are applied
+	final TileOperator[] operators;
+	// Number of pixels outside the tile which are needed at the input of each operator. One extra element for output
+	final int[] halo;
+
+	/** Width and height of a tile, not including the halo */
+	@Getter final int tileSize;
+
+	/**
+	 * If true then tiles are processed in parallel. Operators are not restricted and can use threads inside a tile,
+	 * those loops run in the same thread pool.
+	 */
+	@Getter @Setter boolean concurrent;
+
+	final ImageType<In> inputType;
+	final ImageType<Out> outputType;
+
+	// Each thread gets its own copy of the operators and buffers
+	final GrowArray<Worker> workers;
+
+	/**
+	 * @param operators The operators which are applied to each tile in the order they are applied
+	 * @param tileSize Width and height of each tile, not including the halo.
+	 * @param concurrent If true then tiles are processed in parallel
+	 */
+	public TiledPipeline( List<TileOperator> operators, int tileSize, boolean concurrent ) {
+		if (operators.isEmpty())
+			throw new IllegalArgumentException("There must be at least one operator");
+		if (tileSize <= 0)
+			throw new IllegalArgumentException("Tile size must be positive");
+
+		for (int i = 1; i < operators.size(); i++) {
+			ImageType expected = operators.get(i - 1).getOutputType();
+			ImageType found = operators.get(i).getInputType();
+			if (!isCompatible(expected, found))
+				throw new IllegalArgumentException("Operator " + i + " expects " + found + " but was given " + expected);
+		}
+
+		this.operators = operators.toArray(new TileOperator[0]);
+		this.tileSize = tileSize;
+		this.concurrent = concurrent;
+		this.inputType = this.operators[0].getInputType();
+		this.outputType = this.operators[this.operators.length - 1].getOutputType();
+
+		halo = new int[this.operators.length + 1];
+		for (int i = this.operators.length - 1; i >= 0; i--) {
+			halo[i] = halo[i + 1] + this.operators[i].getRadius();
+		}
+
+		workers = new GrowArray<>(Worker::new);
+	}
+
+	/**
+	 * Creates a builder for a pipeline which processes images of the specified type
+	 */
+	public static <T extends ImageBase<T>> Builder<T, T> builder( ImageType<T> inputType ) {
+		return new Builder<>(inputType);
+	}
+
+	/**
+	 * Selects the largest square tile where all the intermediate images, including the halo, fit inside the
+	 * specified number of bytes.
+	 *
+	 * @param operators The operators in the pipeline
+	 * @param maxBytes Number of bytes all intermediate images for a tile can use
+	 * @return Width of a tile
+	 */
+	public static int selectTileSize( List<TileOperator> operators, int maxBytes ) {
+		int bytesPerPixel = 0;
+		int totalRadius = 0;
+		for (int i = 0; i < operators.size(); i++) {
+			bytesPerPixel += bytesPerPixel(operators.get(i).getOutputType());
+			totalRadius += operators.get(i).getRadius();
+		}
+
+		int width = (int)Math.sqrt(maxBytes/(double)Math.max(1, bytesPerPixel)) - 2*totalRadius;
+		// Don't let the halo dominate the amount of work being done
+		return Math.max(width, Math.max(32, 2*totalRadius));
+	}
+
+	/**
+	 * Number of bytes needed to store a single pixel
+	 */
+	static int bytesPerPixel( ImageType<?> type ) {
+		int numBands = Math.max(1, type.getNumBands());
+		return numBands*Math.max(1, type.getDataType().getNumBits()/8);
+	}
+
+	/**
+	 * Images with an unspecified number of bands are compatible with the same type with any number of bands
+	 */
+	static boolean isCompatible( ImageType<?> a, ImageType<?> b ) {
+		if (a.getFamily() != b.getFamily() || a.getDataType() != b.getDataType())
+			return false;
+		return a.getNumBands() == 0 || b.getNumBands() == 0 || a.getNumBands() == b.getNumBands();
+	}
+
+	@Override public void process( In input, Out output ) {
+		output.reshapeTo(input);
+
+		int tilesX = (input.width + tileSize - 1)/tileSize;
+		int tilesY = (input.height + tileSize - 1)/tileSize;
+
+		if (concurrent) {
+			BoofConcurrency.loopFor(0, tilesX*tilesY, 1, workers, ( worker, tile ) ->
+					worker.process(input, output, tile%tilesX, tile/tilesX));
+		} else {
+			workers.reset();
+			Worker worker = workers.grow();
+			for (int tileY = 0; tileY < tilesY; tileY++) {
+				for (int tileX = 0; tileX < tilesX; tileX++) {
+					worker.process(input, output, tileX, tileY);
+				}
+			}
+		}
+	}
+
+	/** Tiles are processed in their entirety so there is no border */
+	@Override public int getBorderX() {return 0;}
+
+	@Override public int getBorderY() {return 0;}
+
+	@Override public ImageType<In> getInputType() {return inputType;}
+
+	@Override public ImageType<Out> getOutputType() {return outputType;}
+
+	/**
+	 * Number of operators in the pipeline
+	 */
+	public int getNumberOfOperators() {return operators.length;}
+
+	/**
+	 * Number of pixels outside a tile which are read from the input image
+	 */
+	public int getHalo() {return halo[0];}
+
+	/**
+	 * Copy of the operators and buffers used by a single thread
+	 */
+	class Worker {
+		final TileOperator[] copies = new TileOperator[operators.length];
+		// output of each operator for the current tile
+		final ImageBase[] buffers = new ImageBase[operators.length];
+		// sub-image of each buffer which is passed on to the next operator
+		final ImageBase[] views = new ImageBase[operators.length];
+		@Nullable ImageBase inputView, outputView;
+
+		Worker() {
+			for (int i = 0; i < operators.length; i++) {
+				copies[i] = operators[i].copy();
+				buffers[i] = copies[i].getOutputType().createImage(1, 1);
+			}
+		}
+
+		void process( In input, Out output, int tileX, int tileY ) {
+			// The region in the output image this tile is responsible for
+			int tx0 = tileX*tileSize;
+			int ty0 = tileY*tileSize;
+			int tx1 = Math.min(input.width, tx0 + tileSize);
+			int ty1 = Math.min(input.height, ty0 + tileSize);
+
+			// Region which is being passed into the current operator
+			int x0 = Math.max(0, tx0 - halo[0]);
+			int y0 = Math.max(0, ty0 - halo[0]);
+			int x1 = Math.min(input.width, tx1 + halo[0]);
+			int y1 = Math.min(input.height, ty1 + halo[0]);
+			ImageBase src = inputView = input.subimage(x0, y0, x1, y1, (In)inputView);
+
+			for (int i = 0; i < copies.length; i++) {
+				ImageBase dst = buffers[i];
+				dst.reshapeTo(src);
+				copies[i].process(src, dst);
+
+				// Shrink down to the region the remaining operators need. Pixels which were influenced by the
+				// edge of the tile are discarded here
+				int r = halo[i + 1];
+				int nx0 = Math.max(0, tx0 - r);
+				int ny0 = Math.max(0, ty0 - r);
+				int nx1 = Math.min(input.width, tx1 + r);
+				int ny1 = Math.min(input.height, ty1 + r);
+				src = views[i] = dst.subimage(nx0 - x0, ny0 - y0, nx1 - x0, ny1 - y0, views[i]);
+				x0 = nx0;
+				y0 = ny0;
+			}
+
+			outputView = output.subimage(tx0, ty0, tx1, ty1, (Out)outputView);
+			outputView.setTo(src);
+		}
+	}
+
+	/**
+	 * Used to construct a {@link TiledPipeline} by adding one operator at a time. The output type of each
+	 * operator must be the input type of the next.
+	 */
+	public static class Builder<In extends ImageBase<In>, Out extends ImageBase<Out>> {
+		final ImageType<In> inputType;
+		ImageType<Out> currentType;
+		final List<TileOperator> operators = new ArrayList<>();
+
+		int tileSize = -1;
+		int tileBytes = DEFAULT_TILE_BYTES;
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+
+		Builder( ImageType<In> inputType ) {
+			this.inputType = inputType;
+			this.currentType = (ImageType)inputType;
+		}
+
+		/**
+		 * Adds an operator to the end of the pipeline
+		 */
+		public <T extends ImageBase<T>> Builder<In, T> then( TileOperator<Out, T> operator ) {
+			if (!isCompatible(currentType, operator.getInputType()))
+				throw new IllegalArgumentException("Operator expects " + operator.getInputType() +
+						" but was given " + currentType);
+			operators.add(operator);
+			currentType = (ImageType)operator.getOutputType();
+			return (Builder)this;
+		}
+
+		/**
+		 * Converts the image into a different type
+		 *
+		 * @see boofcv.core.image.GConvertImage
+		 */
+		public <T extends ImageBase<T>> Builder<In, T> convert( ImageType<T> type ) {
+			return then(new TileConvert<>(currentType, type));
+		}
+
+		/**
+		 * Applies Gaussian blur
+		 *
+		 * @param sigma The distributions stdev. If &le; 0 then the sigma will be computed from the radius.
+		 * @param radius Number of pixels in the kernel's radius. If &le; 0 then the sigma will be computed from the sigma.
+		 * @see boofcv.alg.filter.blur.BlurImageOps#gaussian
+		 */
+		public Builder<In, Out> gaussian( double sigma, int radius ) {
+			return then(new TileBlurGaussian<>(currentType, sigma, radius));
+		}
+
+		/**
+		 * Computes the image gradient with {@link BorderType#EXTENDED extended} borders. The output is
+		 * a {@link Planar} image with the x and y derivatives.
+		 *
+		 * @param type Which kernel is used to compute the gradient
+		 */
+		public <D extends ImageGray<D>> Builder<In, Planar<D>> gradient( DerivativeType type ) {
+			return then(new TileGradient(type, BorderType.EXTENDED, currentType));
+		}
+
+		/**
+		 * Computes the Euclidean norm of the gradient computed by {@link #gradient}
+		 */
+		public Builder<In, GrayF32> gradientIntensity() {
+			return then(new TileGradientIntensity(currentType));
+		}
+
+		/**
+		 * Applies a global threshold to create a binary image
+		 *
+		 * @param threshold threshold value.
+		 * @param down If true then the inequality &le; is used, otherwise if false then &gt; is used.
+		 * @see boofcv.alg.filter.binary.GThresholdImageOps#threshold
+		 */
+		public Builder<In, GrayU8> threshold( double threshold, boolean down ) {
+			return then(new TileThreshold(currentType, threshold, down));
+		}
+
+		/**
+		 * Specifies the width of a tile. If &le; 0 then the tile size is selected using {@link #tileBytes}.
+		 */
+		public Builder<In, Out> tileSize( int tileSize ) {
+			this.tileSize = tileSize;
+			return this;
+		}
+
+		/**
+		 * Number of bytes all the intermediate images for a single tile can use. Used to select the tile size.
+		 */
+		public Builder<In, Out> tileBytes( int tileBytes ) {
+			this.tileBytes = tileBytes;
+			return this;
+		}
+
+		/**
+		 * If true then tiles will be processed in parallel
+		 */
+		public Builder<In, Out> concurrent( boolean concurrent ) {
+			this.concurrent = concurrent;
+			return this;
+		}
+
+		public TiledPipeline<In, Out> build() {
+			int size = tileSize > 0 ? tileSize : selectTileSize(operators, tileBytes);
+			return new TiledPipeline<>(operators, size, concurrent);
+		}
+	}
+}
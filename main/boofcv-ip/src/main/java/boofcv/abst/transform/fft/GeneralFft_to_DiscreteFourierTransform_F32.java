@@ -19,24 +19,25 @@
 package boofcv.abst.transform.fft;
 
 import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
+import boofcv.alg.transform.fft.FftPlanCache;
 import boofcv.alg.transform.fft.GeneralPurposeFFT_F32_2D;
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F32_2D_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.InterleavedF32;
+import lombok.Getter;
+import lombok.Setter;
 
 /**
- * Wrapper around {@link GeneralPurposeFFT_F32_2D} which implements {@link DiscreteFourierTransform}
+ * Wrapper around {@link GeneralPurposeFFT_F32_2D} which implements {@link DiscreteFourierTransform}. If
+ * concurrency is turned on then {@link GeneralPurposeFFT_F32_2D_MT} is used instead.
  *
  * @author Peter Abeles
  */
-@SuppressWarnings({"NullAway.Init"})
 public class GeneralFft_to_DiscreteFourierTransform_F32
 		implements DiscreteFourierTransform<GrayF32, InterleavedF32> {
-	// previous size of input image
-	private int prevWidth = -1;
-	private int prevHeight = -1;
-
-	// performs the FFT
-	private GeneralPurposeFFT_F32_2D alg;
+	/** Where FFT plans come from. Plans are only held while a transform is being computed. */
+	@Getter @Setter FftPlanCache cache = FftPlanCache.SHARED;
 
 	// storage for temporary results
 	private InterleavedF32 tmp = new InterleavedF32(1, 1, 2);
@@ -50,13 +51,27 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 		if (image.isSubimage() || transform.isSubimage())
 			throw new IllegalArgumentException("Subimages are not supported");
 
-		checkDeclareAlg(image);
-
 		int N = image.width*image.height;
 		System.arraycopy(image.data, 0, transform.data, 0, N);
 
 		// the transform over writes the input data
-		alg.realForwardFull(transform.data);
+		if (BoofConcurrency.USE_CONCURRENT) {
+			GeneralPurposeFFT_F32_2D_MT alg = cache.acquire(GeneralPurposeFFT_F32_2D_MT.class,
+					image.height, image.width, GeneralPurposeFFT_F32_2D_MT::new);
+			try {
+				alg.realForwardFull(transform.data);
+			} finally {
+				cache.release(alg, image.height, image.width);
+			}
+		} else {
+			GeneralPurposeFFT_F32_2D alg = cache.acquire(GeneralPurposeFFT_F32_2D.class,
+					image.height, image.width, GeneralPurposeFFT_F32_2D::new);
+			try {
+				alg.realForwardFull(transform.data);
+			} finally {
+				cache.release(alg, image.height, image.width);
+			}
+		}
 	}
 
 	@Override
@@ -65,8 +80,6 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 		if (image.isSubimage() || transform.isSubimage())
 			throw new IllegalArgumentException("Subimages are not supported");
 
-		checkDeclareAlg(image);
-
 		// If he user lets us, modify the transform
 		InterleavedF32 workImage;
 		if (modifyInputs) {
@@ -77,7 +90,23 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 			workImage = tmp;
 		}
 
-		alg.complexInverse(workImage.data, true);
+		if (BoofConcurrency.USE_CONCURRENT) {
+			GeneralPurposeFFT_F32_2D_MT alg = cache.acquire(GeneralPurposeFFT_F32_2D_MT.class,
+					image.height, image.width, GeneralPurposeFFT_F32_2D_MT::new);
+			try {
+				alg.complexInverse(workImage.data, true);
+			} finally {
+				cache.release(alg, image.height, image.width);
+			}
+		} else {
+			GeneralPurposeFFT_F32_2D alg = cache.acquire(GeneralPurposeFFT_F32_2D.class,
+					image.height, image.width, GeneralPurposeFFT_F32_2D::new);
+			try {
+				alg.complexInverse(workImage.data, true);
+			} finally {
+				cache.release(alg, image.height, image.width);
+			}
+		}
 
 		// copy the real portion. imaginary should be zeros
 		int N = image.width*image.height;
@@ -86,17 +115,6 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 		}
 	}
 
-	/**
-	 * Declare the algorithm if the image size has changed
-	 */
-	private void checkDeclareAlg( GrayF32 image ) {
-		if (prevWidth != image.width || prevHeight != image.height) {
-			prevWidth = image.width;
-			prevHeight = image.height;
-			alg = new GeneralPurposeFFT_F32_2D(image.height, image.width);
-		}
-	}
-
 	@Override
 	public void setModifyInputs( boolean modify ) {
 		this.modifyInputs = modify;
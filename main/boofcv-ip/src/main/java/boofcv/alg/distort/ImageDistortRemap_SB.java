@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.distort.RemapTable_S16;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F32;
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
+
+import static boofcv.struct.distort.RemapTable_S16.*;
+
+/**
+ * <p>
+ * Variant of {@link ImageDistortCache_SB} which stores the distortion in a compact {@link RemapTable_S16} and
+ * applies bilinear interpolation using integer arithmetic. Intended for when the same distortion is applied
+ * to many images, such as removing lens distortion from video streams, and memory bandwidth is the bottle neck.
+ * Only {@link GrayU8} and {@link GrayU16} are supported.
+ * </p>
+ *
+ * <p>
+ * The table is either computed from the model or specified directly using {@link #setTable}. A table which
+ * has been specified is never modified, so it can be shared by multiple instances which run at the same time.
+ * Pixels which land outside the source image are not interpolated using a border. If render all is true they are
+ * set to {@link #outsideValue} otherwise they are not modified.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"NullAway.Init"})
+public class ImageDistortRemap_SB<T extends ImageGray<T>> implements ImageDistort<T, T> {
+	// Added before shifting so that the result is rounded
+	private static final int ROUND = 1 << (2*FRACTION_BITS - 1);
+
+	/** Value assigned to pixels that are outside the source image when rendering all */
+	@Getter @Setter int outsideValue = 0;
+
+	/** Lookup table from destination to source pixels */
+	@Getter protected RemapTable_S16 table = new RemapTable_S16();
+
+	// true if the table was passed in and can't be modified
+	protected boolean sharedTable = false;
+
+	// transform
+	protected PixelTransform<Point2D_F32> dstToSrc;
+
+	// crop boundary
+	protected int x0, y0, x1, y1;
+
+	// should it render all pixels in the destination, even ones outside the input image
+	protected boolean renderAll = true;
+	protected T srcImg;
+	protected T dstImg;
+
+	protected boolean dirty;
+
+	@Override
+	public void setModel( PixelTransform<Point2D_F32> dstToSrc ) {
+		this.dirty = true;
+		this.dstToSrc = dstToSrc;
+	}
+
+	/**
+	 * Specifies the table directly instead of computing it from a model. The table is not modified and can be
+	 * shared.
+	 */
+	public void setTable( RemapTable_S16 table ) {
+		this.table = table;
+		this.sharedTable = true;
+		this.dirty = false;
+	}
+
+	@Override
+	public void apply( T srcImg, T dstImg ) {
+		apply(srcImg, dstImg, 0, 0, dstImg.width, dstImg.height);
+	}
+
+	@Override
+	public void apply( T srcImg, T dstImg, GrayU8 mask ) {
+		init(srcImg, dstImg);
+		mask.reshape(dstImg);
+
+		x0 = 0;
+		y0 = 0;
+		x1 = dstImg.width;
+		y1 = dstImg.height;
+
+		process(mask);
+	}
+
+	@Override
+	public void apply( T srcImg, T dstImg, int dstX0, int dstY0, int dstX1, int dstY1 ) {
+		init(srcImg, dstImg);
+
+		// Check that a valid region was specified. If not do nothing
+		if (dstX1 <= dstX0 || dstY1 <= dstY0)
+			return;
+
+		x0 = dstX0;
+		y0 = dstY0;
+		x1 = dstX1;
+		y1 = dstY1;
+
+		process(null);
+	}
+
+	protected void init( T srcImg, T dstImg ) {
+		if (!(srcImg instanceof GrayU8 || srcImg instanceof GrayU16))
+			throw new IllegalArgumentException("Only GrayU8 and GrayU16 are supported");
+
+		if (dirty || (!sharedTable && (table.width != dstImg.width || table.height != dstImg.height))) {
+			// Never modify a table which might be used by someone else
+			if (sharedTable) {
+				table = new RemapTable_S16();
+				sharedTable = false;
+			}
+			table.reshape(dstImg.width, dstImg.height);
+			computeTable();
+			dirty = false;
+		} else if (dstImg.width != table.width || dstImg.height != table.height)
+			throw new IllegalArgumentException("Unexpected dstImg dimension");
+
+		this.srcImg = srcImg;
+		this.dstImg = dstImg;
+	}
+
+	/**
+	 * Computes the look up table from the model
+	 */
+	protected void computeTable() {
+		table.compute(dstToSrc, 0, table.height);
+	}
+
+	/**
+	 * Renders all the rows inside the crop region
+	 */
+	protected void process( @Nullable GrayU8 mask ) {
+		processRows(y0, y1, mask);
+	}
+
+	/**
+	 * Renders the specified rows. Only reads from shared data so it can be called concurrently.
+	 */
+	protected void processRows( int y0, int y1, @Nullable GrayU8 mask ) {
+		if (srcImg instanceof GrayU8) {
+			processRows((GrayU8)srcImg, (GrayU8)dstImg, y0, y1, mask);
+		} else {
+			processRows((GrayU16)srcImg, (GrayU16)dstImg, y0, y1, mask);
+		}
+	}
+
+	private void processRows( GrayU8 src, GrayU8 dst, int y0, int y1, @Nullable GrayU8 mask ) {
+		final short[] coordinates = table.coordinates;
+		final short[] fractions = table.fractions;
+		final int lastX = src.width - 1;
+		final int lastY = src.height - 1;
+
+		for (int y = y0; y < y1; y++) {
+			int indexTable = y*table.width + x0;
+			int indexDst = dst.startIndex + y*dst.stride + x0;
+			int indexMsk = mask == null ? 0 : mask.startIndex + y*mask.stride + x0;
+
+			for (int x = x0; x < x1; x++, indexTable++, indexDst++, indexMsk++) {
+				int fraction = fractions[indexTable];
+				int px = coordinates[indexTable*2];
+				int py = coordinates[indexTable*2 + 1];
+				int fx = fraction & FRACTION_MASK;
+				int fy = fraction >> FRACTION_BITS;
+
+				// Inside if 0 <= x <= width-1. A negative fraction is an invalid pixel
+				if (fraction < 0 || px < 0 || py < 0 || px > lastX || py > lastY ||
+						(px == lastX && fx != 0) || (py == lastY && fy != 0)) {
+					if (renderAll)
+						dst.data[indexDst] = (byte)outsideValue;
+					if (mask != null)
+						mask.data[indexMsk] = 0;
+					continue;
+				}
+
+				// Only sample the next pixel if it has a non-zero weight, which avoids reading outside the image
+				int indexSrc = src.startIndex + py*src.stride + px;
+				int dx = fx == 0 ? 0 : 1;
+				int dy = fy == 0 ? 0 : src.stride;
+
+				int v00 = src.data[indexSrc] & 0xFF;
+				int v01 = src.data[indexSrc + dx] & 0xFF;
+				int v10 = src.data[indexSrc + dy] & 0xFF;
+				int v11 = src.data[indexSrc + dy + dx] & 0xFF;
+
+				int top = v00*FRACTION_ONE + (v01 - v00)*fx;
+				int bottom = v10*FRACTION_ONE + (v11 - v10)*fx;
+				int value = top*FRACTION_ONE + (bottom - top)*fy;
+
+				dst.data[indexDst] = (byte)((value + ROUND) >> (2*FRACTION_BITS));
+				if (mask != null)
+					mask.data[indexMsk] = 1;
+			}
+		}
+	}
+
+	private void processRows( GrayU16 src, GrayU16 dst, int y0, int y1, @Nullable GrayU8 mask ) {
+		final short[] coordinates = table.coordinates;
+		final short[] fractions = table.fractions;
+		final int lastX = src.width - 1;
+		final int lastY = src.height - 1;
+
+		for (int y = y0; y < y1; y++) {
+			int indexTable = y*table.width + x0;
+			int indexDst = dst.startIndex + y*dst.stride + x0;
+			int indexMsk = mask == null ? 0 : mask.startIndex + y*mask.stride + x0;
+
+			for (int x = x0; x < x1; x++, indexTable++, indexDst++, indexMsk++) {
+				int fraction = fractions[indexTable];
+				int px = coordinates[indexTable*2];
+				int py = coordinates[indexTable*2 + 1];
+				int fx = fraction & FRACTION_MASK;
+				int fy = fraction >> FRACTION_BITS;
+
+				if (fraction < 0 || px < 0 || py < 0 || px > lastX || py > lastY ||
+						(px == lastX && fx != 0) || (py == lastY && fy != 0)) {
+					if (renderAll)
+						dst.data[indexDst] = (short)outsideValue;
+					if (mask != null)
+						mask.data[indexMsk] = 0;
+					continue;
+				}
+
+				int indexSrc = src.startIndex + py*src.stride + px;
+				int dx = fx == 0 ? 0 : 1;
+				int dy = fy == 0 ? 0 : src.stride;
+
+				int v00 = src.data[indexSrc] & 0xFFFF;
+				int v01 = src.data[indexSrc + dx] & 0xFFFF;
+				int v10 = src.data[indexSrc + dy] & 0xFFFF;
+				int v11 = src.data[indexSrc + dy + dx] & 0xFFFF;
+
+				// With 7 fractional bits the largest intermediate value is 2^30, which fits inside an int
+				int top = v00*FRACTION_ONE + (v01 - v00)*fx;
+				int bottom = v10*FRACTION_ONE + (v11 - v10)*fx;
+				int value = top*FRACTION_ONE + (bottom - top)*fy;
+
+				dst.data[indexDst] = (short)((value + ROUND) >> (2*FRACTION_BITS));
+				if (mask != null)
+					mask.data[indexMsk] = 1;
+			}
+		}
+	}
+
+	@Override
+	public void setRenderAll( boolean renderAll ) {
+		this.renderAll = renderAll;
+	}
+
+	@Override
+	public boolean getRenderAll() {
+		return renderAll;
+	}
+
+	@Override
+	public PixelTransform<Point2D_F32> getModel() {
+		return dstToSrc;
+	}
+}
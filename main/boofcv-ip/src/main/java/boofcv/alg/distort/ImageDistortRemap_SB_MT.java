@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F32;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Concurrent implementation of {@link ImageDistortRemap_SB}. The table is only read from while rendering, so
+ * threads don't need their own copy of anything.
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortRemap_SB_MT<T extends ImageGray<T>> extends ImageDistortRemap_SB<T> {
+	@Override
+	protected void computeTable() {
+		BoofConcurrency.loopBlocks(0, table.height, ( y0, y1 ) -> {
+			PixelTransform<Point2D_F32> dstToSrc = this.dstToSrc.copyConcurrent();
+			table.compute(dstToSrc, y0, y1);
+		});
+	}
+
+	@Override
+	protected void process( @Nullable GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(y0, y1, ( y0, y1 ) -> processRows(y0, y1, mask));
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,6 +19,8 @@
 package boofcv.alg.enhance;
 
 import boofcv.alg.InputSanityCheck;
+import boofcv.alg.enhance.impl.ImplEnhanceClahe;
+import boofcv.alg.enhance.impl.ImplEnhanceClahe_MT;
 import boofcv.alg.enhance.impl.ImplEnhanceFilter;
 import boofcv.alg.enhance.impl.ImplEnhanceFilter_MT;
 import boofcv.alg.enhance.impl.ImplEnhanceHistogram;
@@ -62,16 +64,31 @@ public class EnhanceImageOps {
 	 * @param transform Output transformation table.
 	 */
 	public static void equalize( int[] histogram, int[] transform ) {
+		equalize(histogram, 0, histogram.length, transform, 0);
+	}
 
+	/**
+	 * Same as {@link #equalize(int[], int[])} but the histogram and transform can be inside of larger arrays.
+	 * The histogram and transform can be the same array.
+	 *
+	 * @param histogram Array containing the input histogram.
+	 * @param histogramOffset Index of the first element in the histogram.
+	 * @param length Number of elements in the histogram.
+	 * @param transform Array the output transformation table is written to.
+	 * @param transformOffset Index of the first element in the transform.
+	 */
+	public static void equalize( int[] histogram, int histogramOffset, int length,
+								 int[] transform, int transformOffset ) {
 		int sum = 0;
-		for (int i = 0; i < histogram.length; i++) {
-			transform[i] = sum += histogram[i];
+		for (int i = 0; i < length; i++) {
+			transform[transformOffset + i] = sum += histogram[histogramOffset + i];
 		}
 
-		int maxValue = histogram.length - 1;
+		int maxValue = length - 1;
 
-		for (int i = 0; i < histogram.length; i++) {
-			transform[i] = (transform[i]*maxValue)/sum;
+		// long to avoid overflow with large images and 16-bit histograms
+		for (int i = 0; i < length; i++) {
+			transform[transformOffset + i] = (int)(((long)transform[transformOffset + i]*maxValue)/sum);
 		}
 	}
 
@@ -287,6 +304,68 @@ public class EnhanceImageOps {
 		}
 	}
 
+	/**
+	 * Contrast Limited Adaptive Histogram Equalization (CLAHE). The image is split into a grid of tiles and each
+	 * tile is equalized using its histogram after it has been clipped, which limits how much noise is amplified.
+	 * Output pixels are found by interpolating between the transforms of the closest tiles, which avoids seams
+	 * along tile boundaries.
+	 *
+	 * @param input Input image.
+	 * @param tilesX Number of tiles along the x-axis. Try 8.
+	 * @param tilesY Number of tiles along the y-axis. Try 8.
+	 * @param clipLimit Maximum count of a histogram bin relative to the average count. If &le; 0 then there is no limit. Try 4.
+	 * @param output Output image.
+	 * @param histogramLength Number of elements in the histogram. 256 for 8-bit images
+	 * @param work (Optional) Storage for the transform of each tile. Nullable
+	 */
+	public static void equalizeClahe( GrayU8 input, int tilesX, int tilesY, double clipLimit, GrayU8 output,
+									  int histogramLength, @Nullable DogArray_I32 work ) {
+		if (tilesX <= 0 || tilesY <= 0 || tilesX > input.width || tilesY > input.height)
+			throw new IllegalArgumentException("There must be at least one tile and no more tiles than pixels");
+
+		output.reshape(input.width, input.height);
+		int[] transforms = BoofMiscOps.checkDeclare(work, tilesX*tilesY*histogramLength, false);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplEnhanceClahe_MT.computeTransforms(input, tilesX, tilesY, clipLimit, histogramLength, transforms);
+			ImplEnhanceClahe_MT.applyTransforms(input, tilesX, tilesY, histogramLength, transforms, output);
+		} else {
+			ImplEnhanceClahe.computeTransforms(input, tilesX, tilesY, clipLimit, histogramLength, transforms);
+			ImplEnhanceClahe.applyTransforms(input, tilesX, tilesY, histogramLength, transforms, output);
+		}
+	}
+
+	/**
+	 * Contrast Limited Adaptive Histogram Equalization (CLAHE). The image is split into a grid of tiles and each
+	 * tile is equalized using its histogram after it has been clipped, which limits how much noise is amplified.
+	 * Output pixels are found by interpolating between the transforms of the closest tiles, which avoids seams
+	 * along tile boundaries.
+	 *
+	 * @param input Input image.
+	 * @param tilesX Number of tiles along the x-axis. Try 8.
+	 * @param tilesY Number of tiles along the y-axis. Try 8.
+	 * @param clipLimit Maximum count of a histogram bin relative to the average count. If &le; 0 then there is no limit. Try 4.
+	 * @param output Output image.
+	 * @param histogramLength Number of elements in the histogram. 256 for 8-bit images
+	 * @param work (Optional) Storage for the transform of each tile. Nullable
+	 */
+	public static void equalizeClahe( GrayU16 input, int tilesX, int tilesY, double clipLimit, GrayU16 output,
+									  int histogramLength, @Nullable DogArray_I32 work ) {
+		if (tilesX <= 0 || tilesY <= 0 || tilesX > input.width || tilesY > input.height)
+			throw new IllegalArgumentException("There must be at least one tile and no more tiles than pixels");
+
+		output.reshape(input.width, input.height);
+		int[] transforms = BoofMiscOps.checkDeclare(work, tilesX*tilesY*histogramLength, false);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplEnhanceClahe_MT.computeTransforms(input, tilesX, tilesY, clipLimit, histogramLength, transforms);
+			ImplEnhanceClahe_MT.applyTransforms(input, tilesX, tilesY, histogramLength, transforms, output);
+		} else {
+			ImplEnhanceClahe.computeTransforms(input, tilesX, tilesY, clipLimit, histogramLength, transforms);
+			ImplEnhanceClahe.applyTransforms(input, tilesX, tilesY, histogramLength, transforms, output);
+		}
+	}
+
 	/**
 	 * Applies a Laplacian-4 based sharpen filter to the image.
 	 *
@@ -87,6 +87,31 @@ public class GEnhanceImageOps {
 		}
 	}
 
+	/**
+	 * Contrast Limited Adaptive Histogram Equalization (CLAHE).
+	 *
+	 * @see EnhanceImageOps#equalizeClahe(GrayU8, int, int, double, GrayU8, int, DogArray_I32)
+	 */
+	public static <T extends ImageBase<T>>
+	void equalizeClahe( T input, int tilesX, int tilesY, double clipLimit, T output,
+						int histogramLength, @Nullable DogArray_I32 work ) {
+		if (input instanceof Planar) {
+			Planar pi = (Planar)input;
+			Planar po = (Planar)output;
+			for (int i = 0; i < pi.getNumBands(); i++) {
+				equalizeClahe(pi.getBand(i), tilesX, tilesY, clipLimit, po.getBand(i), histogramLength, work);
+			}
+		} else {
+			if (input instanceof GrayU8) {
+				EnhanceImageOps.equalizeClahe((GrayU8)input, tilesX, tilesY, clipLimit, (GrayU8)output, histogramLength, work);
+			} else if (input instanceof GrayU16) {
+				EnhanceImageOps.equalizeClahe((GrayU16)input, tilesX, tilesY, clipLimit, (GrayU16)output, histogramLength, work);
+			} else {
+				throw new IllegalArgumentException("Unsupported image type " + input.getClass().getSimpleName());
+			}
+		}
+	}
+
 	/**
 	 * Applies a Laplacian-4 based sharpen filter to the image.
 	 *
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.enhance.impl;
+
+import boofcv.alg.enhance.EnhanceImageOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+
+import java.util.Arrays;
+
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
+
+/**
+ * <p>
+ * Implementation of Contrast Limited Adaptive Histogram Equalization (CLAHE) [1]. The image is divided into a grid
+ * of tiles and a transform is computed for each tile from its clipped histogram. The value of each output pixel is
+ * found by bilinear interpolation of the transforms from the four tiles with the closest centers.
+ * </p>
+ *
+ * <p>
+ * Transforms for all the tiles are stored in a single array, one after the other, in row-major order.
+ * </p>
+ *
+ * <p>
+ * [1] Zuiderveld, Karel. "Contrast limited adaptive histogram equalization." Graphics gems IV. 1994. 474-485.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class ImplEnhanceClahe {
+
+	/**
+	 * Computes the equalization transform for every tile.
+	 *
+	 * @param input Input image
+	 * @param tilesX Number of tiles along the x-axis
+	 * @param tilesY Number of tiles along the y-axis
+	 * @param clipLimit Maximum bin count relative to the average count. If &le; 0 then it's not clipped.
+	 * @param histogramLength Number of elements in the histogram
+	 * @param transforms (Output) Storage for all the transforms. Must have tilesX*tilesY*histogramLength elements.
+	 */
+	public static void computeTransforms( GrayU8 input, int tilesX, int tilesY, double clipLimit,
+										  int histogramLength, int[] transforms ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, tilesX*tilesY, tile -> {
+		for (int tile = 0; tile < tilesX*tilesY; tile++) {
+			int x0 = tileStart(tile%tilesX, tilesX, input.width);
+			int x1 = tileStart(tile%tilesX + 1, tilesX, input.width);
+			int y0 = tileStart(tile/tilesX, tilesY, input.height);
+			int y1 = tileStart(tile/tilesX + 1, tilesY, input.height);
+
+			// the histogram is computed in place then converted into a transform
+			int offset = tile*histogramLength;
+			Arrays.fill(transforms, offset, offset + histogramLength, 0);
+			for (int y = y0; y < y1; y++) {
+				int index = input.startIndex + y*input.stride + x0;
+				int end = index + x1 - x0;
+				while (index < end) {
+					transforms[offset + (input.data[index++] & 0xFF)]++;
+				}
+			}
+
+			clipHistogram(transforms, offset, histogramLength, clipLimit, (x1 - x0)*(y1 - y0));
+			EnhanceImageOps.equalize(transforms, offset, histogramLength, transforms, offset);
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Computes the equalization transform for every tile.
+	 *
+	 * @param input Input image
+	 * @param tilesX Number of tiles along the x-axis
+	 * @param tilesY Number of tiles along the y-axis
+	 * @param clipLimit Maximum bin count relative to the average count. If &le; 0 then it's not clipped.
+	 * @param histogramLength Number of elements in the histogram
+	 * @param transforms (Output) Storage for all the transforms. Must have tilesX*tilesY*histogramLength elements.
+	 */
+	public static void computeTransforms( GrayU16 input, int tilesX, int tilesY, double clipLimit,
+										  int histogramLength, int[] transforms ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, tilesX*tilesY, tile -> {
+		for (int tile = 0; tile < tilesX*tilesY; tile++) {
+			int x0 = tileStart(tile%tilesX, tilesX, input.width);
+			int x1 = tileStart(tile%tilesX + 1, tilesX, input.width);
+			int y0 = tileStart(tile/tilesX, tilesY, input.height);
+			int y1 = tileStart(tile/tilesX + 1, tilesY, input.height);
+
+			// the histogram is computed in place then converted into a transform
+			int offset = tile*histogramLength;
+			Arrays.fill(transforms, offset, offset + histogramLength, 0);
+			for (int y = y0; y < y1; y++) {
+				int index = input.startIndex + y*input.stride + x0;
+				int end = index + x1 - x0;
+				while (index < end) {
+					transforms[offset + (input.data[index++] & 0xFFFF)]++;
+				}
+			}
+
+			clipHistogram(transforms, offset, histogramLength, clipLimit, (x1 - x0)*(y1 - y0));
+			EnhanceImageOps.equalize(transforms, offset, histogramLength, transforms, offset);
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Transforms the image by interpolating between the transforms of the closest tiles.
+	 *
+	 * @param input Input image
+	 * @param tilesX Number of tiles along the x-axis
+	 * @param tilesY Number of tiles along the y-axis
+	 * @param histogramLength Number of elements in the histogram
+	 * @param transforms Transforms for all the tiles
+	 * @param output Output image
+	 */
+	public static void applyTransforms( GrayU8 input, int tilesX, int tilesY, int histogramLength,
+										int[] transforms, GrayU8 output ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			// Tiles above and below this row and how much the lower one contributes
+			int tileBefore = closestTileBefore(y, tilesY, input.height);
+			int tileY0 = Math.max(0, tileBefore);
+			int tileY1 = Math.min(tileBefore + 1, tilesY - 1);
+			float weightY = tileY0 == tileY1 ? 0.0f : (float)((y - tileCenter(tileY0, tilesY, input.height))/
+					(tileCenter(tileY1, tilesY, input.height) - tileCenter(tileY0, tilesY, input.height)));
+
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			// Process the row in segments where the pixels have the same tiles to their left and right
+			for (int segment = -1; segment < tilesX; segment++) {
+				int tileX0 = Math.max(0, segment);
+				int tileX1 = Math.min(segment + 1, tilesX - 1);
+				int xStart = segment < 0 ? 0 : (int)Math.ceil(tileCenter(segment, tilesX, input.width));
+				int xEnd = segment + 1 >= tilesX ? input.width : (int)Math.ceil(tileCenter(segment + 1, tilesX, input.width));
+				// weight changes by a constant amount for each pixel
+				double centerX0 = tileCenter(tileX0, tilesX, input.width);
+				float stepX = tileX0 == tileX1 ? 0.0f : (float)(1.0/(tileCenter(tileX1, tilesX, input.width) - centerX0));
+				float weightX = (float)((xStart - centerX0)*stepX);
+
+				int offset00 = (tileY0*tilesX + tileX0)*histogramLength;
+				int offset01 = (tileY0*tilesX + tileX1)*histogramLength;
+				int offset10 = (tileY1*tilesX + tileX0)*histogramLength;
+				int offset11 = (tileY1*tilesX + tileX1)*histogramLength;
+
+				for (int x = xStart; x < xEnd; x++, weightX += stepX) {
+					int value = input.data[indexIn + x] & 0xFF;
+
+					float top = transforms[offset00 + value] + weightX*(transforms[offset01 + value] - transforms[offset00 + value]);
+					float bottom = transforms[offset10 + value] + weightX*(transforms[offset11 + value] - transforms[offset10 + value]);
+					output.data[indexOut + x] = (byte)(top + weightY*(bottom - top) + 0.5f);
+				}
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Transforms the image by interpolating between the transforms of the closest tiles.
+	 *
+	 * @param input Input image
+	 * @param tilesX Number of tiles along the x-axis
+	 * @param tilesY Number of tiles along the y-axis
+	 * @param histogramLength Number of elements in the histogram
+	 * @param transforms Transforms for all the tiles
+	 * @param output Output image
+	 */
+	public static void applyTransforms( GrayU16 input, int tilesX, int tilesY, int histogramLength,
+										int[] transforms, GrayU16 output ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			// Tiles above and below this row and how much the lower one contributes
+			int tileBefore = closestTileBefore(y, tilesY, input.height);
+			int tileY0 = Math.max(0, tileBefore);
+			int tileY1 = Math.min(tileBefore + 1, tilesY - 1);
+			float weightY = tileY0 == tileY1 ? 0.0f : (float)((y - tileCenter(tileY0, tilesY, input.height))/
+					(tileCenter(tileY1, tilesY, input.height) - tileCenter(tileY0, tilesY, input.height)));
+
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			// Process the row in segments where the pixels have the same tiles to their left and right
+			for (int segment = -1; segment < tilesX; segment++) {
+				int tileX0 = Math.max(0, segment);
+				int tileX1 = Math.min(segment + 1, tilesX - 1);
+				int xStart = segment < 0 ? 0 : (int)Math.ceil(tileCenter(segment, tilesX, input.width));
+				int xEnd = segment + 1 >= tilesX ? input.width : (int)Math.ceil(tileCenter(segment + 1, tilesX, input.width));
+				// weight changes by a constant amount for each pixel
+				double centerX0 = tileCenter(tileX0, tilesX, input.width);
+				float stepX = tileX0 == tileX1 ? 0.0f : (float)(1.0/(tileCenter(tileX1, tilesX, input.width) - centerX0));
+				float weightX = (float)((xStart - centerX0)*stepX);
+
+				int offset00 = (tileY0*tilesX + tileX0)*histogramLength;
+				int offset01 = (tileY0*tilesX + tileX1)*histogramLength;
+				int offset10 = (tileY1*tilesX + tileX0)*histogramLength;
+				int offset11 = (tileY1*tilesX + tileX1)*histogramLength;
+
+				for (int x = xStart; x < xEnd; x++, weightX += stepX) {
+					int value = input.data[indexIn + x] & 0xFFFF;
+
+					float top = transforms[offset00 + value] + weightX*(transforms[offset01 + value] - transforms[offset00 + value]);
+					float bottom = transforms[offset10 + value] + weightX*(transforms[offset11 + value] - transforms[offset10 + value]);
+					output.data[indexOut + x] = (short)(top + weightY*(bottom - top) + 0.5f);
+				}
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Clips the histogram so that no bin has more than clipLimit times the average count. Counts which are
+	 * removed are spread evenly across all the bins.
+	 *
+	 * @param histogram Array containing the histogram
+	 * @param offset Index of the first bin
+	 * @param length Number of bins
+	 * @param clipLimit Maximum bin count relative to the average count. If &le; 0 then it's not clipped.
+	 * @param total Sum of all the bins
+	 */
+	public static void clipHistogram( int[] histogram, int offset, int length, double clipLimit, int total ) {
+		if (clipLimit <= 0.0)
+			return;
+
+		int limit = Math.max(1, (int)(clipLimit*total/length));
+
+		int excess = 0;
+		for (int i = offset; i < offset + length; i++) {
+			if (histogram[i] > limit) {
+				excess += histogram[i] - limit;
+				histogram[i] = limit;
+			}
+		}
+		if (excess == 0)
+			return;
+
+		// Spread out the excess evenly, then spread what's left over at evenly spaced bins
+		int increment = excess/length;
+		int remainder = excess - increment*length;
+		for (int i = offset; i < offset + length; i++) {
+			histogram[i] += increment;
+		}
+		if (remainder > 0) {
+			int step = Math.max(1, length/remainder);
+			for (int i = offset; i < offset + length && remainder > 0; i += step, remainder--) {
+				histogram[i]++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the first pixel in a tile. Tiles are spread out so that their widths differ by at most one.
+	 */
+	public static int tileStart( int tile, int numTiles, int length ) {
+		return (int)((long)tile*length/numTiles);
+	}
+
+	/**
+	 * Returns the coordinate of the center of a tile
+	 */
+	public static double tileCenter( int tile, int numTiles, int length ) {
+		return (tileStart(tile, numTiles, length) + tileStart(tile + 1, numTiles, length) - 1)/2.0;
+	}
+
+	/**
+	 * Returns the index of the last tile with a center at or before the coordinate, or -1 if there is none
+	 */
+	public static int closestTileBefore( int coordinate, int numTiles, int length ) {
+		// start from an estimate then adjust it
+		int tile = Math.min(numTiles - 1, (int)((long)coordinate*numTiles/length));
+		while (tile + 1 < numTiles && tileCenter(tile + 1, numTiles, length) <= coordinate)
+			tile++;
+		while (tile >= 0 && tileCenter(tile, numTiles, length) > coordinate)
+			tile--;
+		return tile;
+	}
+}
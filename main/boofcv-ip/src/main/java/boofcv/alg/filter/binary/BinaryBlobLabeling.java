@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Rectangle2D_I32;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.DogArray_I64;
+
+/**
+ * <p>
+ * Labels connected components in a binary image and computes statistics for each blob. The image is split into
+ * horizontal bands which are labeled concurrently, each with its own union-find. Blobs which touch across
+ * the seams between bands are then merged using a union-find over the band labels. Statistics are accumulated
+ * while labeling, so the image is only traversed twice: once to label and once to relabel.
+ * </p>
+ *
+ * <p>
+ * Labels start at 1 and are assigned in the order the first pixel of each blob is encountered in a raster scan.
+ * The labeled image is the same as the one from {@link LinearContourLabelChang2004}. Background pixels are 0.
+ * Pixels with any non-zero value are considered to be part of a blob.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BinaryBlobLabeling {
+	/** Connectivity rule. 4 or 8 */
+	@Getter @Setter ConnectRule rule;
+
+	/** A band won't have fewer rows than this. */
+	@Getter @Setter int minimumBandHeight = 32;
+
+	/** Statistics for each blob. Label 'i' is at index 'i-1' */
+	@Getter final DogArray<Blob> blobs = new DogArray<>(Blob::new, Blob::reset);
+
+	// Labeling results for each band
+	final DogArray<Band> bands = new DogArray<>(Band::new);
+
+	// Union-find across bands. Index is band.offset + local label
+	final DogArray_I32 globalParent = new DogArray_I32();
+	// Label of a blob in the output image for each global label
+	final DogArray_I32 globalToFinal = new DogArray_I32();
+
+	public BinaryBlobLabeling( ConnectRule rule ) {
+		this.rule = rule;
+	}
+
+	/**
+	 * Labels the binary image and computes blob statistics.
+	 *
+	 * @param binary (Input) Binary image. Not modified.
+	 * @param labeled (Output) Labeled image. Reshaped.
+	 */
+	public void process( GrayU8 binary, GrayS32 labeled ) {
+		labeled.reshape(binary.width, binary.height);
+		blobs.reset();
+		if (binary.height == 0)
+			return;
+
+		declareBands(binary.height);
+		boolean eight = rule == ConnectRule.EIGHT;
+
+		// Label each band independently
+		if (BoofConcurrency.USE_CONCURRENT && bands.size > 1) {
+			BoofConcurrency.loopFor(0, bands.size, i -> bands.get(i).label(binary, labeled, eight));
+		} else {
+			for (int i = 0; i < bands.size; i++) {
+				bands.get(i).label(binary, labeled, eight);
+			}
+		}
+
+		int numBlobs = mergeBands(labeled, eight);
+		computeBlobs(numBlobs);
+
+		// Replace the local labels with the final labels
+		if (BoofConcurrency.USE_CONCURRENT && bands.size > 1) {
+			BoofConcurrency.loopFor(0, bands.size, i -> relabel(bands.get(i), labeled));
+		} else {
+			for (int i = 0; i < bands.size; i++) {
+				relabel(bands.get(i), labeled);
+			}
+		}
+	}
+
+	/**
+	 * Splits the image up into bands
+	 */
+	void declareBands( int height ) {
+		int numBands = selectNumberOfBands(height);
+		bands.resize(numBands);
+		for (int i = 0; i < numBands; i++) {
+			Band b = bands.get(i);
+			b.y0 = i*height/numBands;
+			b.y1 = (i + 1)*height/numBands;
+		}
+	}
+
+	/**
+	 * One band for each thread, unless that would make the bands too small
+	 */
+	int selectNumberOfBands( int height ) {
+		if (!BoofConcurrency.USE_CONCURRENT)
+			return 1;
+		return Math.max(1, Math.min(BoofConcurrency.getEffectiveActiveThreads(), height/minimumBandHeight));
+	}
+
+	/**
+	 * Connects labels along the seams between bands then assigns the final label to each global label.
+	 *
+	 * @return Number of blobs
+	 */
+	int mergeBands( GrayS32 labeled, boolean eight ) {
+		// Assign global labels. Each local label points to its root inside the band
+		int total = 0;
+		for (int i = 0; i < bands.size; i++) {
+			Band b = bands.get(i);
+			b.offset = total;
+			total += b.parent.size - 1;
+		}
+		globalParent.resize(total + 1);
+		for (int i = 0; i < bands.size; i++) {
+			Band b = bands.get(i);
+			for (int label = 1; label < b.parent.size; label++) {
+				globalParent.data[b.offset + label] = b.offset + b.parent.data[label];
+			}
+		}
+
+		// The first row in a band is connected to the last row in the band above it
+		for (int i = 1; i < bands.size; i++) {
+			Band above = bands.get(i - 1);
+			Band below = bands.get(i);
+			int indexBelow = labeled.startIndex + below.y0*labeled.stride;
+			int indexAbove = indexBelow - labeled.stride;
+
+			for (int x = 0; x < labeled.width; x++) {
+				int label = labeled.data[indexBelow + x];
+				if (label == 0)
+					continue;
+				int global = below.offset + label;
+				seam(global, above, labeled.data[indexAbove + x]);
+				if (eight) {
+					if (x > 0)
+						seam(global, above, labeled.data[indexAbove + x - 1]);
+					if (x + 1 < labeled.width)
+						seam(global, above, labeled.data[indexAbove + x + 1]);
+				}
+			}
+		}
+
+		// Roots have the smallest global label of any part of the blob. Global labels are ordered by band and then
+		// by the order they were created, so this is the same as the order of the blob's first pixel
+		globalToFinal.resize(total + 1);
+		int numBlobs = 0;
+		for (int global = 1; global <= total; global++) {
+			int root = find(globalParent.data, global);
+			if (root == global)
+				globalToFinal.data[global] = ++numBlobs;
+			else
+				globalToFinal.data[global] = globalToFinal.data[root];
+		}
+		return numBlobs;
+	}
+
+	private void seam( int global, Band above, int labelAbove ) {
+		if (labelAbove == 0)
+			return;
+		union(globalParent.data, global, above.offset + labelAbove);
+	}
+
+	/**
+	 * Combines the statistics of each part of a blob
+	 */
+	void computeBlobs( int numBlobs ) {
+		blobs.reset();
+		for (int i = 0; i < numBlobs; i++) {
+			blobs.grow();
+		}
+
+		for (int bandIdx = 0; bandIdx < bands.size; bandIdx++) {
+			Band b = bands.get(bandIdx);
+			for (int label = 1; label < b.parent.size; label++) {
+				// Statistics have already been combined inside of the band
+				if (b.parent.data[label] != label)
+					continue;
+				Blob blob = blobs.get(globalToFinal.data[b.offset + label] - 1);
+				blob.area += b.area.data[label];
+				blob.bounds.x0 = Math.min(blob.bounds.x0, b.minX.data[label]);
+				blob.bounds.y0 = Math.min(blob.bounds.y0, b.minY.data[label]);
+				blob.bounds.x1 = Math.max(blob.bounds.x1, b.maxX.data[label] + 1);
+				blob.bounds.y1 = Math.max(blob.bounds.y1, b.maxY.data[label] + 1);
+				blob.centroid.x += b.sumX.data[label];
+				blob.centroid.y += b.sumY.data[label];
+			}
+		}
+
+		for (int i = 0; i < blobs.size; i++) {
+			Blob blob = blobs.get(i);
+			blob.centroid.x /= blob.area;
+			blob.centroid.y /= blob.area;
+		}
+	}
+
+	void relabel( Band b, GrayS32 labeled ) {
+		int[] map = globalToFinal.data;
+		for (int y = b.y0; y < b.y1; y++) {
+			int index = labeled.startIndex + y*labeled.stride;
+			int end = index + labeled.width;
+			for (; index < end; index++) {
+				int label = labeled.data[index];
+				if (label != 0)
+					labeled.data[index] = map[b.offset + label];
+			}
+		}
+	}
+
+	/**
+	 * Finds the root and compresses the path
+	 */
+	static int find( int[] parent, int label ) {
+		while (parent[label] != label) {
+			parent[label] = parent[parent[label]];
+			label = parent[label];
+		}
+		return label;
+	}
+
+	/**
+	 * Merges two sets. The root with the larger label points to the smaller label.
+	 */
+	static int union( int[] parent, int a, int b ) {
+		a = find(parent, a);
+		b = find(parent, b);
+		if (a < b) {
+			parent[b] = a;
+			return a;
+		} else {
+			parent[a] = b;
+			return b;
+		}
+	}
+
+	/**
+	 * A horizontal band which is labeled independently of the others
+	 */
+	static class Band {
+		// Rows in the band. Upper extent is exclusive
+		int y0, y1;
+		// Offset added to local labels to get the global label
+		int offset;
+
+		// union-find for local labels. Index 0 is the background and isn't used
+		final DogArray_I32 parent = new DogArray_I32();
+
+		// Statistics for each local label
+		final DogArray_I32 area = new DogArray_I32();
+		final DogArray_I32 minX = new DogArray_I32();
+		final DogArray_I32 minY = new DogArray_I32();
+		final DogArray_I32 maxX = new DogArray_I32();
+		final DogArray_I32 maxY = new DogArray_I32();
+		final DogArray_I64 sumX = new DogArray_I64();
+		final DogArray_I64 sumY = new DogArray_I64();
+
+		/**
+		 * Labels the band using local labels and accumulates statistics. After it's done every label points to its
+		 * root and the root has the combined statistics.
+		 */
+		void label( GrayU8 binary, GrayS32 labeled, boolean eight ) {
+			reset();
+			final int width = binary.width;
+
+			for (int y = y0; y < y1; y++) {
+				int indexIn = binary.startIndex + y*binary.stride;
+				int indexOut = labeled.startIndex + y*labeled.stride;
+				int indexUp = indexOut - labeled.stride;
+				boolean hasUp = y > y0;
+
+				for (int x = 0; x < width; x++) {
+					if (binary.data[indexIn + x] == 0) {
+						labeled.data[indexOut + x] = 0;
+						continue;
+					}
+
+					int label = x > 0 ? labeled.data[indexOut + x - 1] : 0;
+					if (hasUp) {
+						int up = labeled.data[indexUp + x];
+						if (up != 0) {
+							label = connect(label, up);
+						} else if (eight) {
+							// The diagonals are connected to each other through 'up', so only check them here
+							if (x > 0)
+								label = connect(label, labeled.data[indexUp + x - 1]);
+							if (x + 1 < width)
+								label = connect(label, labeled.data[indexUp + x + 1]);
+						}
+					}
+
+					if (label == 0)
+						label = create(x, y);
+
+					labeled.data[indexOut + x] = label;
+					area.data[label]++;
+					sumX.data[label] += x;
+					sumY.data[label] += y;
+					if (x < minX.data[label]) minX.data[label] = x;
+					if (x > maxX.data[label]) maxX.data[label] = x;
+					maxY.data[label] = y;
+				}
+			}
+
+			// Point to the root and combine statistics into it
+			for (int label = 1; label < parent.size; label++) {
+				int root = find(parent.data, label);
+				parent.data[label] = root;
+				if (root == label)
+					continue;
+				area.data[root] += area.data[label];
+				sumX.data[root] += sumX.data[label];
+				sumY.data[root] += sumY.data[label];
+				minX.data[root] = Math.min(minX.data[root], minX.data[label]);
+				maxX.data[root] = Math.max(maxX.data[root], maxX.data[label]);
+				minY.data[root] = Math.min(minY.data[root], minY.data[label]);
+				maxY.data[root] = Math.max(maxY.data[root], maxY.data[label]);
+			}
+		}
+
+		private int connect( int label, int neighbor ) {
+			if (neighbor == 0 || neighbor == label)
+				return label;
+			if (label == 0)
+				return neighbor;
+			return union(parent.data, label, neighbor);
+		}
+
+		private int create( int x, int y ) {
+			int label = parent.size;
+			parent.add(label);
+			area.add(0);
+			minX.add(x);
+			maxX.add(x);
+			minY.add(y);
+			maxY.add(y);
+			sumX.add(0);
+			sumY.add(0);
+			return label;
+		}
+
+		void reset() {
+			// Label 0 is the background
+			parent.reset().add(0);
+			area.reset().add(0);
+			minX.reset().add(0);
+			maxX.reset().add(0);
+			minY.reset().add(0);
+			maxY.reset().add(0);
+			sumX.reset().add(0);
+			sumY.reset().add(0);
+		}
+	}
+
+	/**
+	 * Statistics for a single blob
+	 */
+	public static class Blob {
+		/** Number of pixels in the blob */
+		public int area;
+		/** Bounding box. Upper extent is exclusive */
+		public final Rectangle2D_I32 bounds = new Rectangle2D_I32();
+		/** Mean location of pixels in the blob */
+		public final Point2D_F64 centroid = new Point2D_F64();
+
+		public void reset() {
+			area = 0;
+			bounds.setTo(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE);
+			centroid.setTo(0, 0);
+		}
+	}
+}
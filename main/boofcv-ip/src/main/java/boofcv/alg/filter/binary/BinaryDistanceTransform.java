@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.filter.binary.impl.ImplDistanceTransform;
+import boofcv.alg.filter.binary.impl.ImplDistanceTransform_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.DogArray_I32;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>
+ * Computes the distance from every pixel in a binary image to the nearest feature pixel. By default features are
+ * pixels with a value of 1, e.g. edges for chamfer matching. Set {@link #toZero} to find the distance to the
+ * background instead, e.g. for skeleton pruning. The index of the nearest feature can optionally be found too.
+ * Memory is reused between calls.
+ * </p>
+ *
+ * <ul>
+ *     <li>{@link Metric#EUCLIDEAN} Exact Euclidean distance in linear time. Concurrent.</li>
+ *     <li>{@link Metric#CITY_BLOCK} L1 distance in linear time. Concurrent.</li>
+ *     <li>{@link Metric#CHAMFER} Approximation of the Euclidean distance using 3-4 weights. Single threaded.</li>
+ * </ul>
+ *
+ * @author Peter Abeles
+ * @see ImplDistanceTransform
+ */
+public class BinaryDistanceTransform {
+	/** Which distance metric is computed */
+	@Getter @Setter Metric metric = Metric.EUCLIDEAN;
+
+	/** If true then the distance is to the nearest pixel with a value of 0, otherwise 1 */
+	@Getter @Setter boolean toZero = false;
+
+	// Row of the nearest feature in each column or the chamfer cost
+	GrayS32 storage = new GrayS32(1, 1);
+	GrowArray<DogArray_I32> workspaces = new GrowArray<>(DogArray_I32::new);
+
+	public BinaryDistanceTransform( Metric metric ) {
+		this.metric = metric;
+	}
+
+	public BinaryDistanceTransform() {}
+
+	/**
+	 * Computes the distance transform. If there are no features then the distance will be {@link Float#MAX_VALUE}
+	 * and the nearest index -1.
+	 *
+	 * @param binary (Input) Binary image. Not modified.
+	 * @param distance (Output) Distance to the nearest feature. Reshaped.
+	 * @param nearest (Output) Optional index of the nearest feature, y*width + x. Reshaped.
+	 */
+	public void process( GrayU8 binary, GrayF32 distance, @Nullable GrayS32 nearest ) {
+		distance.reshape(binary.width, binary.height);
+		if (nearest != null)
+			nearest.reshape(binary.width, binary.height);
+		storage.reshape(binary.width, binary.height);
+
+		if (metric == Metric.CHAMFER) {
+			ImplDistanceTransform.chamfer(binary, toZero, storage, distance, nearest);
+			return;
+		}
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplDistanceTransform_MT.nearestInColumn(binary, toZero, storage);
+		} else {
+			ImplDistanceTransform.nearestInColumn(binary, toZero, storage);
+		}
+
+		switch (metric) {
+			case EUCLIDEAN -> {
+				if (BoofConcurrency.USE_CONCURRENT) {
+					ImplDistanceTransform_MT.euclidean(storage, distance, nearest, workspaces);
+				} else {
+					ImplDistanceTransform.euclidean(storage, distance, nearest, workspaces);
+				}
+			}
+			case CITY_BLOCK -> {
+				if (BoofConcurrency.USE_CONCURRENT) {
+					ImplDistanceTransform_MT.cityBlock(storage, distance, nearest, workspaces);
+				} else {
+					ImplDistanceTransform.cityBlock(storage, distance, nearest, workspaces);
+				}
+			}
+			default -> throw new IllegalArgumentException("Unknown metric " + metric);
+		}
+	}
+
+	/** Distance metrics which can be computed */
+	public enum Metric {
+		EUCLIDEAN,
+		CITY_BLOCK,
+		CHAMFER
+	}
+}
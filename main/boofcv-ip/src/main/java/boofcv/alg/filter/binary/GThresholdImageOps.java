@@ -25,6 +25,7 @@ import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GConvertImage;
 import boofcv.factory.filter.binary.FactoryThresholdBinary;
 import boofcv.struct.ConfigLength;
+import boofcv.struct.ImagePool;
 import boofcv.struct.image.*;
 import org.ddogleg.struct.DogArray_F32;
 import org.ddogleg.struct.DogArray_I32;
@@ -690,9 +691,13 @@ public class GThresholdImageOps {
 		if (input instanceof GrayF32) {
 			alg.process((GrayF32)input, output);
 		} else {
-			GrayF32 conv = new GrayF32(input.width, input.height);
-			GConvertImage.convert(input, conv);
-			alg.process(conv, output);
+			GrayF32 conv = ImagePool.acquireDefault(ImageType.SB_F32, input.width, input.height);
+			try {
+				GConvertImage.convert(input, conv);
+				alg.process(conv, output);
+			} finally {
+				ImagePool.releaseDefault(conv);
+			}
 		}
 
 		return output;
@@ -722,9 +727,13 @@ public class GThresholdImageOps {
 		if (input instanceof GrayF32) {
 			alg.process((GrayF32)input, output);
 		} else {
-			GrayF32 conv = new GrayF32(input.width, input.height);
-			GConvertImage.convert(input, conv);
-			alg.process(conv, output);
+			GrayF32 conv = ImagePool.acquireDefault(ImageType.SB_F32, input.width, input.height);
+			try {
+				GConvertImage.convert(input, conv);
+				alg.process(conv, output);
+			} finally {
+				ImagePool.releaseDefault(conv);
+			}
 		}
 
 		return output;
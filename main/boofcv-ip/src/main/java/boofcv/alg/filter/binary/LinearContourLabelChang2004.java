@@ -24,6 +24,7 @@ import boofcv.struct.ConnectRule;
 import boofcv.struct.PackedSetsPoint2D_I32;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
 import lombok.Getter;
 import lombok.Setter;
 import org.ddogleg.struct.DogArray;
@@ -100,22 +101,48 @@ public class LinearContourLabelChang2004 {
 	 * @param labeled Output. Labeled image. Modified.
 	 */
 	public void process( GrayU8 binary, GrayS32 labeled ) {
-		// initialize data structures
-		labeled.reshape(binary.width, binary.height);
-		minContourLengthPixels = minContourLength.computeNegMaxI(Math.sqrt(binary.width*binary.height));
-		maxContourLengthPixels = maxContourLength.computeNegMaxI(Math.sqrt(binary.width*binary.height));
+		declareBorder(binary.width, binary.height);
+		border.subimage(1, 1, border.width - 1, border.height - 1, null).setTo(binary);
+		processBorder(labeled);
+	}
+
+	/**
+	 * Processes a packed binary image. The packed image is unpacked into the internal image with a border, replacing
+	 * the copy which is done for {@link GrayU8} input, so there is no additional cost.
+	 *
+	 * @param binary Input binary image. Not modified.
+	 * @param labeled Output. Labeled image. Modified.
+	 */
+	public void process( PackedBinaryImage binary, GrayS32 labeled ) {
+		declareBorder(binary.width, binary.height);
+		PackedBinaryImageOps.unpack(binary, border.subimage(1, 1, border.width - 1, border.height - 1, null));
+		processBorder(labeled);
+	}
 
-		// ensure that the image border pixels are filled with zero by enlarging the image
-		if (border.width != binary.width + 2 || border.height != binary.height + 2) {
-			border.reshape(binary.width + 2, binary.height + 2);
+	/**
+	 * Ensure that the image border pixels are filled with zero by enlarging the image
+	 */
+	private void declareBorder( int width, int height ) {
+		if (border.width != width + 2 || border.height != height + 2) {
+			border.reshape(width + 2, height + 2);
 			ImageMiscOps.fillBorder(border, 0, 1);
 		}
-		border.subimage(1, 1, border.width - 1, border.height - 1, null).setTo(binary);
+	}
+
+	/**
+	 * Finds contours and labels blobs after the binary image has been copied into the border image
+	 */
+	private void processBorder( GrayS32 labeled ) {
+		GrayU8 binary = border;
+
+		// initialize data structures
+		labeled.reshape(binary.width - 2, binary.height - 2);
+		minContourLengthPixels = minContourLength.computeNegMaxI(Math.sqrt(labeled.width*labeled.height));
+		maxContourLengthPixels = maxContourLength.computeNegMaxI(Math.sqrt(labeled.width*labeled.height));
 
 		// labeled image must initially be filled with zeros
 		ImageMiscOps.fill(labeled, 0);
 
-		binary = border;
 		packedPoints.reset();
 		contours.reset();
 		tracer.setInputs(binary, labeled, packedPoints);
@@ -23,6 +23,7 @@ import boofcv.struct.ConfigLength;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.PackedSetsPoint2D_I32;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -72,10 +73,28 @@ public class LinearExternalContours {
 	private Tracer tracer;
 	private final PackedSetsPoint2D_I32 storagePoints = new PackedSetsPoint2D_I32();
 
+	// Packed images are unpacked into this image
+	private final GrayU8 work = new GrayU8(1, 1);
+
 	public LinearExternalContours( ConnectRule rule ) {
 		tracer = new Tracer(rule);
 	}
 
+	/**
+	 * Detects contours inside a packed binary image. It's unpacked into an internal image with a border of zeros
+	 * around it. Unlike the {@link GrayU8} variant the input isn't modified and pixels along the image border
+	 * are not discarded.
+	 *
+	 * @param binary Binary image. Not modified.
+	 * @param adjustX adjustment applied to coordinate in binary image for contour. 0 is typical
+	 * @param adjustY adjustment applied to coordinate in binary image for contour. 0 is typical
+	 */
+	public void process( PackedBinaryImage binary, int adjustX, int adjustY ) {
+		work.reshape(binary.width + 2, binary.height + 2);
+		PackedBinaryImageOps.unpack(binary, work.subimage(1, 1, work.width - 1, work.height - 1, null));
+		process(work, adjustX + 1, adjustY + 1);
+	}
+
 	/**
 	 * Detects contours inside the binary image.
 	 *
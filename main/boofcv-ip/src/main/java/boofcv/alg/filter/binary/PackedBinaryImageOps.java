@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.binary.impl.ImplPackedBinaryImageOps;
+import boofcv.alg.filter.binary.impl.ImplPackedBinaryImageOps_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Operations on {@link PackedBinaryImage}, where each pixel is a single bit. Logical and morphological operations
+ * process 64 pixels at once and produce identical results to the equivalent functions in {@link BinaryImageOps}.
+ * Use {@link #pack} to convert the output of {@link ThresholdImageOps} or threshold directly into a packed image.
+ * </p>
+ *
+ * <p>
+ * Unless stated otherwise the output can't be the same instance as the input.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PackedBinaryImageOps {
+
+	/**
+	 * Converts a binary {@link GrayU8} into a packed binary image. Any value which is not zero is true.
+	 *
+	 * @param input Input binary image. Not modified.
+	 * @param output Output image. If null a new instance will be declared, Modified.
+	 * @return The packed image
+	 */
+	public static PackedBinaryImage pack( GrayU8 input, @Nullable PackedBinaryImage output ) {
+		output = declareOrReshape(input.width, input.height, output);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplPackedBinaryImageOps_MT.pack(input, output);
+		} else {
+			ImplPackedBinaryImageOps.pack(input, output);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Converts a packed binary image into a {@link GrayU8} with values of 0 and 1
+	 *
+	 * @param input Input packed image. Not modified.
+	 * @param output Output binary image. If null a new instance will be declared, Modified.
+	 * @return The binary image
+	 */
+	public static GrayU8 unpack( PackedBinaryImage input, @Nullable GrayU8 output ) {
+		if (output == null) {
+			output = new GrayU8(input.width, input.height);
+		} else {
+			output.reshape(input.width, input.height);
+		}
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplPackedBinaryImageOps_MT.unpack(input, output);
+		} else {
+			ImplPackedBinaryImageOps.unpack(input, output);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Applies a global threshold and writes the results directly into a packed image. Same as
+	 * {@link ThresholdImageOps#threshold(GrayU8, GrayU8, int, boolean)} without the intermediate image.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Output packed binary image. If null a new instance will be declared, Modified.
+	 * @param threshold threshold value.
+	 * @param down If true then the inequality &le; is used, otherwise if false then &gt; is used.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage threshold( GrayU8 input, @Nullable PackedBinaryImage output,
+											   int threshold, boolean down ) {
+		output = declareOrReshape(input.width, input.height, output);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplPackedBinaryImageOps_MT.threshold(input, output, threshold, down);
+		} else {
+			ImplPackedBinaryImageOps.threshold(input, output, threshold, down);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Applies a global threshold and writes the results directly into a packed image. Same as
+	 * {@link ThresholdImageOps#threshold(GrayF32, GrayU8, float, boolean)} without the intermediate image.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Output packed binary image. If null a new instance will be declared, Modified.
+	 * @param threshold threshold value.
+	 * @param down If true then the inequality &le; is used, otherwise if false then &gt; is used.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage threshold( GrayF32 input, @Nullable PackedBinaryImage output,
+											   float threshold, boolean down ) {
+		output = declareOrReshape(input.width, input.height, output);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplPackedBinaryImageOps_MT.threshold(input, output, threshold, down);
+		} else {
+			ImplPackedBinaryImageOps.threshold(input, output, threshold, down);
+		}
+
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'and' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output Output image. Can be same as either input. If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static PackedBinaryImage logicAnd( PackedBinaryImage inputA, PackedBinaryImage inputB,
+											  @Nullable PackedBinaryImage output ) {
+		checkSameShape(inputA, inputB);
+		output = declareOrReshape(inputA.width, inputA.height, output);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplPackedBinaryImageOps_MT.logicAnd(inputA, inputB, output);
+		} else {
+			ImplPackedBinaryImageOps.logicAnd(inputA, inputB, output);
+		}
+
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'or' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output Output image. Can be same as either input. If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static PackedBinaryImage logicOr( PackedBinaryImage inputA, PackedBinaryImage inputB,
+											 @Nullable PackedBinaryImage output ) {
+		checkSameShape(inputA, inputB);
+		output = declareOrReshape(inputA.width, inputA.height, output);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplPackedBinaryImageOps_MT.logicOr(inputA, inputB, output);
+		} else {
+			ImplPackedBinaryImageOps.logicOr(inputA, inputB, output);
+		}
+
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'xor' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output Output image. Can be same as either input. If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static PackedBinaryImage logicXor( PackedBinaryImage inputA, PackedBinaryImage inputB,
+											  @Nullable PackedBinaryImage output ) {
+		checkSameShape(inputA, inputB);
+		output = declareOrReshape(inputA.width, inputA.height, output);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplPackedBinaryImageOps_MT.logicXor(inputA, inputB, output);
+		} else {
+			ImplPackedBinaryImageOps.logicXor(inputA, inputB, output);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Inverts each pixel from true to false and vis-versa.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Output image. Can be same as input. If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static PackedBinaryImage invert( PackedBinaryImage input, @Nullable PackedBinaryImage output ) {
+		output = declareOrReshape(input.width, input.height, output);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplPackedBinaryImageOps_MT.invert(input, output);
+		} else {
+			ImplPackedBinaryImageOps.invert(input, output);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Erodes an image according to a 4-neighborhood. Same as {@link BinaryImageOps#erode4}.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output If not null, the output image. If null a new image is declared and returned. Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage erode4( PackedBinaryImage input, int numTimes,
+											@Nullable PackedBinaryImage output ) {
+		return morph(input, numTimes, output, Morph.ERODE4);
+	}
+
+	/**
+	 * Dilates an image according to a 4-neighborhood. Same as {@link BinaryImageOps#dilate4}.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output If not null, the output image. If null a new image is declared and returned. Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage dilate4( PackedBinaryImage input, int numTimes,
+											 @Nullable PackedBinaryImage output ) {
+		return morph(input, numTimes, output, Morph.DILATE4);
+	}
+
+	/**
+	 * Erodes an image according to a 8-neighborhood. Same as {@link BinaryImageOps#erode8}.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output If not null, the output image. If null a new image is declared and returned. Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage erode8( PackedBinaryImage input, int numTimes,
+											@Nullable PackedBinaryImage output ) {
+		return morph(input, numTimes, output, Morph.ERODE8);
+	}
+
+	/**
+	 * Dilates an image according to a 8-neighborhood. Same as {@link BinaryImageOps#dilate8}.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output If not null, the output image. If null a new image is declared and returned. Modified.
+	 * @return Output image.
+	 */
+	public static PackedBinaryImage dilate8( PackedBinaryImage input, int numTimes,
+											 @Nullable PackedBinaryImage output ) {
+		return morph(input, numTimes, output, Morph.DILATE8);
+	}
+
+	/**
+	 * Counts the number of pixels which are true using the CPU's popcount instruction
+	 *
+	 * @param input Input image. Not modified.
+	 * @return Number of pixels with a value of 1
+	 */
+	public static int countOnes( PackedBinaryImage input ) {
+		return ImplPackedBinaryImageOps.countOnes(input);
+	}
+
+	/**
+	 * Counts the number of pixels which are true inside the rectangular region
+	 *
+	 * @param input Input image. Not modified.
+	 * @param x0 Lower extent along x-axis, inclusive.
+	 * @param y0 Lower extent along y-axis, inclusive.
+	 * @param x1 Upper extent along x-axis, exclusive.
+	 * @param y1 Upper extent along y-axis, exclusive.
+	 * @return Number of pixels with a value of 1 inside the region
+	 */
+	public static int countOnes( PackedBinaryImage input, int x0, int y0, int x1, int y1 ) {
+		if (x0 < 0 || y0 < 0 || x1 > input.width || y1 > input.height)
+			throw new IllegalArgumentException("Region is outside the image");
+		if (x1 <= x0 || y1 <= y0)
+			return 0;
+		return ImplPackedBinaryImageOps.countOnes(input, x0, y0, x1, y1);
+	}
+
+	private static PackedBinaryImage morph( PackedBinaryImage input, int numTimes,
+											@Nullable PackedBinaryImage output, Morph op ) {
+		if (numTimes <= 0)
+			throw new IllegalArgumentException("numTimes must be >= 1");
+		if (input == output)
+			throw new IllegalArgumentException("Output can't be the same as the input");
+
+		output = declareOrReshape(input.width, input.height, output);
+		morph(input, output, op);
+
+		if (numTimes > 1) {
+			PackedBinaryImage tmp1 = input.createSameShape();
+			PackedBinaryImage tmp2 = output;
+
+			for (int i = 1; i < numTimes; i++) {
+				morph(tmp2, tmp1, op);
+
+				PackedBinaryImage a = tmp1;
+				tmp1 = tmp2;
+				tmp2 = a;
+			}
+
+			if (tmp2 != output) {
+				output.setTo(tmp2);
+			}
+		}
+
+		return output;
+	}
+
+	private static void morph( PackedBinaryImage input, PackedBinaryImage output, Morph op ) {
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		switch (op) {
+			case ERODE4 -> {
+				if (concurrent) ImplPackedBinaryImageOps_MT.erode4(input, output);
+				else ImplPackedBinaryImageOps.erode4(input, output);
+			}
+			case DILATE4 -> {
+				if (concurrent) ImplPackedBinaryImageOps_MT.dilate4(input, output);
+				else ImplPackedBinaryImageOps.dilate4(input, output);
+			}
+			case ERODE8 -> {
+				if (concurrent) ImplPackedBinaryImageOps_MT.erode8(input, output);
+				else ImplPackedBinaryImageOps.erode8(input, output);
+			}
+			case DILATE8 -> {
+				if (concurrent) ImplPackedBinaryImageOps_MT.dilate8(input, output);
+				else ImplPackedBinaryImageOps.dilate8(input, output);
+			}
+		}
+	}
+
+	private static PackedBinaryImage declareOrReshape( int width, int height, @Nullable PackedBinaryImage output ) {
+		if (output == null)
+			return new PackedBinaryImage(width, height);
+		output.reshape(width, height);
+		return output;
+	}
+
+	private static void checkSameShape( PackedBinaryImage imgA, PackedBinaryImage imgB ) {
+		if (imgA.width != imgB.width || imgA.height != imgB.height)
+			throw new IllegalArgumentException("Image shapes are not the same");
+	}
+
+	private enum Morph {
+		ERODE4, DILATE4, ERODE8, DILATE8
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary.impl;
+
+import boofcv.misc.BoofMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.DogArray_I32;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
+
+/**
+ * <p>
+ * Implementations of distance transforms for binary images. The Euclidean and city block transforms are
+ * separable and computed in linear time. First the nearest feature in each column is found, then for each row
+ * the nearest of those is selected. For the Euclidean distance this is done using the lower envelope of
+ * parabolas as described in [1].
+ * </p>
+ *
+ * <p>
+ * Features are pixels with a value of 1, or 0 if 'toZero' is true. The nearest feature is saved as
+ * an index: y*width + x. If there are no features then the distance is set to {@link Float#MAX_VALUE}
+ * and the index to -1.
+ * </p>
+ *
+ * <p>
+ * [1] Meijster, Arnold, Jos BTM Roerdink, and Wim H. Hesselink. "A general algorithm for computing distance
+ * transforms in linear time." Mathematical Morphology and its applications to image and signal processing.
+ * Springer, 2002.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplDistanceTransform {
+	/**
+	 * Finds the row of the nearest feature in the same column for every pixel. -1 if the column has no features.
+	 *
+	 * @param binary Input binary image
+	 * @param toZero If true then features have a value of 0, otherwise 1.
+	 * @param nearestRow (Output) Row of the nearest feature. Same shape as the input.
+	 */
+	public static void nearestInColumn( GrayU8 binary, boolean toZero, GrayS32 nearestRow ) {
+		final int width = binary.width;
+		final int height = binary.height;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, width, (x0, x1) -> {
+		final int x0 = 0, x1 = width;
+		// Down the image. Nearest feature which is above or on the pixel
+		for (int y = 0; y < height; y++) {
+			int indexIn = binary.startIndex + y*binary.stride + x0;
+			int indexOut = nearestRow.startIndex + y*nearestRow.stride + x0;
+			for (int x = x0; x < x1; x++, indexIn++, indexOut++) {
+				if ((binary.data[indexIn] != 0) != toZero)
+					nearestRow.data[indexOut] = y;
+				else
+					nearestRow.data[indexOut] = y > 0 ? nearestRow.data[indexOut - nearestRow.stride] : -1;
+			}
+		}
+
+		// Up the image. See if a feature below is closer
+		for (int y = height - 2; y >= 0; y--) {
+			int indexOut = nearestRow.startIndex + y*nearestRow.stride + x0;
+			for (int x = x0; x < x1; x++, indexOut++) {
+				int below = nearestRow.data[indexOut + nearestRow.stride];
+				if (below < 0)
+					continue;
+				int current = nearestRow.data[indexOut];
+				if (current < 0 || below - y < y - current)
+					nearestRow.data[indexOut] = below;
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Computes the Euclidean distance using the nearest feature in each column.
+	 *
+	 * @param nearestRow (Input) Output from {@link #nearestInColumn}
+	 * @param distance (Output) Distance to the nearest feature
+	 * @param nearest (Output) Optional index of the nearest feature
+	 */
+	public static void euclidean( GrayS32 nearestRow, GrayF32 distance, @Nullable GrayS32 nearest,
+								  @Nullable GrowArray<DogArray_I32> workspaces ) {
+		final int width = nearestRow.width;
+		// Larger than any distance inside the image
+		final int inf = nearestRow.width + nearestRow.height;
+
+		workspaces = BoofMiscOps.checkDeclare(workspaces, DogArray_I32::new);
+		//CONCURRENT_REMOVE_BELOW
+		DogArray_I32 workspace = workspaces.grow();
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, nearestRow.height, workspaces, (workspace, y0, y1) -> {
+		final int y0 = 0, y1 = nearestRow.height;
+		// g = distance in the column, s = column of each parabola, t = where each parabola starts
+		int[] work = BoofMiscOps.checkDeclare(workspace, 3*width, false);
+		final int offsetS = width, offsetT = 2*width;
+
+		for (int y = y0; y < y1; y++) {
+			int indexRow = nearestRow.startIndex + y*nearestRow.stride;
+			for (int x = 0; x < width; x++) {
+				int row = nearestRow.data[indexRow + x];
+				work[x] = row < 0 ? inf : Math.abs(row - y);
+			}
+
+			// Find the lower envelope of the parabolas
+			int q = 0;
+			work[offsetS] = 0;
+			work[offsetT] = 0;
+			for (int u = 1; u < width; u++) {
+				while (q >= 0 && edt(work, work[offsetT + q], work[offsetS + q]) > edt(work, work[offsetT + q], u)) {
+					q--;
+				}
+				if (q < 0) {
+					q = 0;
+					work[offsetS] = u;
+				} else {
+					int s = work[offsetS + q];
+					int start = 1 + Math.floorDiv(u*u - s*s + work[u]*work[u] - work[s]*work[s], 2*(u - s));
+					if (start < width) {
+						q++;
+						work[offsetS + q] = u;
+						work[offsetT + q] = start;
+					}
+				}
+			}
+
+			// The nearest feature is the parabola which is at the bottom of the envelope
+			int indexDist = distance.startIndex + y*distance.stride;
+			int indexNearest = nearest == null ? 0 : nearest.startIndex + y*nearest.stride;
+			for (int u = width - 1; u >= 0; u--) {
+				int s = work[offsetS + q];
+				if (work[s] == inf) {
+					distance.data[indexDist + u] = Float.MAX_VALUE;
+					if (nearest != null)
+						nearest.data[indexNearest + u] = -1;
+				} else {
+					distance.data[indexDist + u] = (float)Math.sqrt(edt(work, u, s));
+					if (nearest != null)
+						nearest.data[indexNearest + u] = nearestRow.data[indexRow + s]*width + s;
+				}
+				if (u == work[offsetT + q])
+					q--;
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Squared distance from x to the nearest feature in column i
+	 */
+	static int edt( int[] g, int x, int i ) {
+		return (x - i)*(x - i) + g[i]*g[i];
+	}
+
+	/**
+	 * Computes the city block (L1) distance using the nearest feature in each column.
+	 *
+	 * @see #euclidean
+	 */
+	public static void cityBlock( GrayS32 nearestRow, GrayF32 distance, @Nullable GrayS32 nearest,
+								  @Nullable GrowArray<DogArray_I32> workspaces ) {
+		final int width = nearestRow.width;
+		final int inf = nearestRow.width + nearestRow.height;
+
+		workspaces = BoofMiscOps.checkDeclare(workspaces, DogArray_I32::new);
+		//CONCURRENT_REMOVE_BELOW
+		DogArray_I32 workspace = workspaces.grow();
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, nearestRow.height, workspaces, (workspace, y0, y1) -> {
+		final int y0 = 0, y1 = nearestRow.height;
+		// distance and the column the distance was computed from
+		int[] work = BoofMiscOps.checkDeclare(workspace, 2*width, false);
+
+		for (int y = y0; y < y1; y++) {
+			int indexRow = nearestRow.startIndex + y*nearestRow.stride;
+			for (int x = 0; x < width; x++) {
+				int row = nearestRow.data[indexRow + x];
+				work[x] = row < 0 ? inf : Math.abs(row - y);
+				work[width + x] = x;
+			}
+
+			for (int x = 1; x < width; x++) {
+				if (work[x - 1] + 1 < work[x]) {
+					work[x] = work[x - 1] + 1;
+					work[width + x] = work[width + x - 1];
+				}
+			}
+			for (int x = width - 2; x >= 0; x--) {
+				if (work[x + 1] + 1 < work[x]) {
+					work[x] = work[x + 1] + 1;
+					work[width + x] = work[width + x + 1];
+				}
+			}
+
+			int indexDist = distance.startIndex + y*distance.stride;
+			int indexNearest = nearest == null ? 0 : nearest.startIndex + y*nearest.stride;
+			for (int x = 0; x < width; x++) {
+				boolean none = work[x] >= inf;
+				distance.data[indexDist + x] = none ? Float.MAX_VALUE : work[x];
+				if (nearest != null) {
+					int col = work[width + x];
+					nearest.data[indexNearest + x] = none ? -1 : nearestRow.data[indexRow + col]*width + col;
+				}
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Approximates the Euclidean distance using a chamfer distance with weights of 3 and 4 for the axial and
+	 * diagonal neighbors. Two passes are made over the image, which can't be done concurrently.
+	 *
+	 * @param binary Input binary image
+	 * @param toZero If true then features have a value of 0, otherwise 1.
+	 * @param cost (Output) Work space for the chamfer cost. Same shape as the input.
+	 * @param distance (Output) Chamfer cost divided by 3
+	 * @param nearest (Output) Optional index of the nearest feature
+	 */
+	public static void chamfer( GrayU8 binary, boolean toZero, GrayS32 cost, GrayF32 distance,
+								@Nullable GrayS32 nearest ) {
+		final int width = binary.width;
+		final int height = binary.height;
+		final int inf = Integer.MAX_VALUE/2;
+
+		// Forward pass using the neighbors above and to the left
+		for (int y = 0; y < height; y++) {
+			int indexIn = binary.startIndex + y*binary.stride;
+			for (int x = 0; x < width; x++, indexIn++) {
+				int index = cost.startIndex + y*cost.stride + x;
+				int indexN = nearest == null ? 0 : nearest.startIndex + y*nearest.stride + x;
+				if ((binary.data[indexIn] != 0) != toZero) {
+					cost.data[index] = 0;
+					if (nearest != null)
+						nearest.data[indexN] = y*width + x;
+					continue;
+				}
+				cost.data[index] = inf;
+				if (nearest != null)
+					nearest.data[indexN] = -1;
+				if (x > 0)
+					chamferCheck(cost, nearest, index, indexN, -1, 0, 3);
+				if (y > 0) {
+					chamferCheck(cost, nearest, index, indexN, 0, -1, 3);
+					if (x > 0)
+						chamferCheck(cost, nearest, index, indexN, -1, -1, 4);
+					if (x + 1 < width)
+						chamferCheck(cost, nearest, index, indexN, 1, -1, 4);
+				}
+			}
+		}
+
+		// Backwards pass using the neighbors below and to the right
+		for (int y = height - 1; y >= 0; y--) {
+			for (int x = width - 1; x >= 0; x--) {
+				int index = cost.startIndex + y*cost.stride + x;
+				int indexN = nearest == null ? 0 : nearest.startIndex + y*nearest.stride + x;
+				if (x + 1 < width)
+					chamferCheck(cost, nearest, index, indexN, 1, 0, 3);
+				if (y + 1 < height) {
+					chamferCheck(cost, nearest, index, indexN, 0, 1, 3);
+					if (x + 1 < width)
+						chamferCheck(cost, nearest, index, indexN, 1, 1, 4);
+					if (x > 0)
+						chamferCheck(cost, nearest, index, indexN, -1, 1, 4);
+				}
+
+				int value = cost.data[index];
+				distance.unsafe_set(x, y, value >= inf ? Float.MAX_VALUE : value/3.0f);
+			}
+		}
+	}
+
+	/**
+	 * Checks to see if going through the neighbor at (dx, dy) has a lower cost
+	 */
+	private static void chamferCheck( GrayS32 cost, @Nullable GrayS32 nearest, int index, int indexN,
+									  int dx, int dy, int weight ) {
+		int candidate = cost.data[index + dy*cost.stride + dx] + weight;
+		if (candidate >= cost.data[index])
+			return;
+		cost.data[index] = candidate;
+		if (nearest != null)
+			nearest.data[indexN] = nearest.data[indexN + dy*nearest.stride + dx];
+	}
+}
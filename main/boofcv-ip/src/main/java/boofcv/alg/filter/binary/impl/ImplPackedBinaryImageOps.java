@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary.impl;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
+
+import java.util.Arrays;
+
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
+
+import static boofcv.struct.image.PackedBinaryImage.BITS;
+
+/**
+ * Implementation of operations on {@link PackedBinaryImage}. Morphological operations shift entire words to
+ * the left and right to access neighbors, processing 64 pixels at once.
+ *
+ * @author Peter Abeles
+ * @see boofcv.alg.filter.binary.PackedBinaryImageOps
+ */
+public class ImplPackedBinaryImageOps {
+	public static void pack( GrayU8 input, PackedBinaryImage output ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.getRowIndex(y);
+
+			for (int x0 = 0; x0 < input.width; x0 += BITS) {
+				int length = Math.min(BITS, input.width - x0);
+				long word = 0;
+				for (int bit = 0; bit < length; bit++) {
+					word |= (input.data[indexIn++] != 0 ? 1L : 0L) << bit;
+				}
+				output.data[indexOut++] = word;
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	public static void unpack( PackedBinaryImage input, GrayU8 output ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.getRowIndex(y);
+			int indexOut = output.startIndex + y*output.stride;
+
+			for (int x0 = 0; x0 < input.width; x0 += BITS) {
+				int length = Math.min(BITS, input.width - x0);
+				long word = input.data[indexIn++];
+				for (int bit = 0; bit < length; bit++) {
+					output.data[indexOut++] = (byte)((word >>> bit) & 1);
+				}
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	public static void threshold( GrayU8 input, PackedBinaryImage output, int threshold, boolean down ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.getRowIndex(y);
+
+			for (int x0 = 0; x0 < input.width; x0 += BITS) {
+				int length = Math.min(BITS, input.width - x0);
+				long word = 0;
+				if (down) {
+					for (int bit = 0; bit < length; bit++) {
+						word |= ((input.data[indexIn++] & 0xFF) <= threshold ? 1L : 0L) << bit;
+					}
+				} else {
+					for (int bit = 0; bit < length; bit++) {
+						word |= ((input.data[indexIn++] & 0xFF) > threshold ? 1L : 0L) << bit;
+					}
+				}
+				output.data[indexOut++] = word;
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	public static void threshold( GrayF32 input, PackedBinaryImage output, float threshold, boolean down ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.getRowIndex(y);
+
+			for (int x0 = 0; x0 < input.width; x0 += BITS) {
+				int length = Math.min(BITS, input.width - x0);
+				long word = 0;
+				if (down) {
+					for (int bit = 0; bit < length; bit++) {
+						word |= (input.data[indexIn++] <= threshold ? 1L : 0L) << bit;
+					}
+				} else {
+					for (int bit = 0; bit < length; bit++) {
+						word |= (input.data[indexIn++] > threshold ? 1L : 0L) << bit;
+					}
+				}
+				output.data[indexOut++] = word;
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	public static void logicAnd( PackedBinaryImage inputA, PackedBinaryImage inputB, PackedBinaryImage output ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, inputA.height, y -> {
+		for (int y = 0; y < inputA.height; y++) {
+			int index = inputA.getRowIndex(y);
+			int end = index + inputA.stride;
+			for (; index < end; index++) {
+				output.data[index] = inputA.data[index] & inputB.data[index];
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	public static void logicOr( PackedBinaryImage inputA, PackedBinaryImage inputB, PackedBinaryImage output ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, inputA.height, y -> {
+		for (int y = 0; y < inputA.height; y++) {
+			int index = inputA.getRowIndex(y);
+			int end = index + inputA.stride;
+			for (; index < end; index++) {
+				output.data[index] = inputA.data[index] | inputB.data[index];
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	public static void logicXor( PackedBinaryImage inputA, PackedBinaryImage inputB, PackedBinaryImage output ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, inputA.height, y -> {
+		for (int y = 0; y < inputA.height; y++) {
+			int index = inputA.getRowIndex(y);
+			int end = index + inputA.stride;
+			for (; index < end; index++) {
+				output.data[index] = inputA.data[index] ^ inputB.data[index];
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	public static void invert( PackedBinaryImage input, PackedBinaryImage output ) {
+		if (input.stride == 0)
+			return;
+		final long mask = input.getLastMask();
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			int index = input.getRowIndex(y);
+			int end = index + input.stride - 1;
+			for (; index < end; index++) {
+				output.data[index] = ~input.data[index];
+			}
+			output.data[end] = ~input.data[end] & mask;
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Pixels outside the image are treated as 1, except pixels with two neighbors outside the image are always 0.
+	 * Same as {@link ImplBinaryBorderOps#erode4}.
+	 */
+	public static void erode4( PackedBinaryImage input, PackedBinaryImage output ) {
+		final int stride = input.stride;
+		final long mask = input.getLastMask();
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			int rowU = y > 0 ? (y - 1)*stride : -1;
+			int rowC = y*stride;
+			int rowD = y + 1 < input.height ? (y + 1)*stride : -1;
+
+			for (int i = 0; i < stride; i++) {
+				long value = andLR(input.data, rowC, i, stride, mask) &
+						word(input.data, rowU, i, stride, mask, -1L) & word(input.data, rowD, i, stride, mask, -1L);
+				output.data[rowC + i] = i == stride - 1 ? value & mask : value;
+			}
+
+			if (input.width <= 1 || input.height == 1) {
+				Arrays.fill(output.data, rowC, rowC + stride, 0L);
+			} else if (y == 0 || y + 1 == input.height) {
+				output.data[rowC] &= ~1L;
+				output.data[rowC + stride - 1] &= ~(1L << ((input.width - 1)%BITS));
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Pixels outside the image are treated as 0, same as {@link ImplBinaryNaiveOps#dilate4}
+	 */
+	public static void dilate4( PackedBinaryImage input, PackedBinaryImage output ) {
+		final int stride = input.stride;
+		final long mask = input.getLastMask();
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			int rowU = y > 0 ? (y - 1)*stride : -1;
+			int rowC = y*stride;
+			int rowD = y + 1 < input.height ? (y + 1)*stride : -1;
+
+			for (int i = 0; i < stride; i++) {
+				long value = orLR(input.data, rowC, i, stride) |
+						word(input.data, rowU, i, stride, mask, 0L) | word(input.data, rowD, i, stride, mask, 0L);
+				output.data[rowC + i] = i == stride - 1 ? value & mask : value;
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Pixels outside the image are treated as 1, same as {@link ImplBinaryNaiveOps#erode8}
+	 */
+	public static void erode8( PackedBinaryImage input, PackedBinaryImage output ) {
+		final int stride = input.stride;
+		final long mask = input.getLastMask();
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			int rowU = y > 0 ? (y - 1)*stride : -1;
+			int rowC = y*stride;
+			int rowD = y + 1 < input.height ? (y + 1)*stride : -1;
+
+			for (int i = 0; i < stride; i++) {
+				long value = andLR(input.data, rowU, i, stride, mask) & andLR(input.data, rowC, i, stride, mask) &
+						andLR(input.data, rowD, i, stride, mask);
+				output.data[rowC + i] = i == stride - 1 ? value & mask : value;
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Pixels outside the image are treated as 0, same as {@link ImplBinaryNaiveOps#dilate8}
+	 */
+	public static void dilate8( PackedBinaryImage input, PackedBinaryImage output ) {
+		final int stride = input.stride;
+		final long mask = input.getLastMask();
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, input.height, y -> {
+		for (int y = 0; y < input.height; y++) {
+			int rowU = y > 0 ? (y - 1)*stride : -1;
+			int rowC = y*stride;
+			int rowD = y + 1 < input.height ? (y + 1)*stride : -1;
+
+			for (int i = 0; i < stride; i++) {
+				long value = orLR(input.data, rowU, i, stride) | orLR(input.data, rowC, i, stride) |
+						orLR(input.data, rowD, i, stride);
+				output.data[rowC + i] = i == stride - 1 ? value & mask : value;
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	public static int countOnes( PackedBinaryImage input ) {
+		int total = 0;
+		int length = input.stride*input.height;
+		for (int i = 0; i < length; i++) {
+			total += Long.bitCount(input.data[i]);
+		}
+		return total;
+	}
+
+	public static int countOnes( PackedBinaryImage input, int x0, int y0, int x1, int y1 ) {
+		int i0 = x0/BITS;
+		int i1 = (x1 - 1)/BITS;
+		// selects bits which are inside the region in the first and last words
+		long maskFirst = -1L << (x0%BITS);
+		long maskLast = -1L >>> (BITS - 1 - (x1 - 1)%BITS);
+
+		int total = 0;
+		for (int y = y0; y < y1; y++) {
+			int row = input.getRowIndex(y);
+			if (i0 == i1) {
+				total += Long.bitCount(input.data[row + i0] & maskFirst & maskLast);
+				continue;
+			}
+			total += Long.bitCount(input.data[row + i0] & maskFirst);
+			for (int i = i0 + 1; i < i1; i++) {
+				total += Long.bitCount(input.data[row + i]);
+			}
+			total += Long.bitCount(input.data[row + i1] & maskLast);
+		}
+		return total;
+	}
+
+	/**
+	 * Returns element i in the row. Pixels outside the image are set to the value of fill.
+	 *
+	 * @param row Index of the first element in the row. If -1 then the row is outside the image
+	 */
+	static long word( long[] data, int row, int i, int stride, long mask, long fill ) {
+		if (row < 0 || i < 0 || i >= stride)
+			return fill;
+		if (i == stride - 1)
+			return data[row + i] | (fill & ~mask);
+		return data[row + i];
+	}
+
+	/**
+	 * Each bit is the 'and' of the pixel and its left and right neighbors. Pixels outside are treated as 1.
+	 */
+	static long andLR( long[] data, int row, int i, int stride, long mask ) {
+		long center = word(data, row, i, stride, mask, -1L);
+		long left = (center << 1) | (word(data, row, i - 1, stride, mask, -1L) >>> (BITS - 1));
+		long right = (center >>> 1) | (word(data, row, i + 1, stride, mask, -1L) << (BITS - 1));
+		return center & left & right;
+	}
+
+	/**
+	 * Each bit is the 'or' of the pixel and its left and right neighbors. Pixels outside are treated as 0.
+	 */
+	static long orLR( long[] data, int row, int i, int stride ) {
+		if (row < 0)
+			return 0L;
+		long center = data[row + i];
+		long left = (center << 1) | (i > 0 ? data[row + i - 1] >>> (BITS - 1) : 0L);
+		long right = (center >>> 1) | (i + 1 < stride ? data[row + i + 1] << (BITS - 1) : 0L);
+		return center | left | right;
+	}
+}
@@ -54,6 +54,9 @@ import javax.annotation.Generated;
 @Generated("boofcv.alg.filter.blur.GenerateBlurImageOps")
 @SuppressWarnings("Duplicates")
 public class BlurImageOps {
+	/** If the median filter's radius is at least this size then an algorithm with constant time per pixel is used */
+	public static int MEDIAN_CONSTANT_RADIUS = 6;
+
 	/**
 	 * Applies a mean box filter with re-weighted image borders.
 	 *
@@ -1091,7 +1094,8 @@ public class BlurImageOps {
 	}
 
 	/**
-	 * Applies a median filter.
+	 * Applies a median filter. Small regions use an algorithm that updates a histogram as the region moves
+	 * and large regions use an algorithm that runs in constant time per pixel.
 	 *
 	 * @param input Input image. Not modified.
 	 * @param output (Optional) Storage for output image, Can be null. Modified.
@@ -1105,17 +1109,53 @@ public class BlurImageOps {
 		if (radiusX <= 0 || radiusY <= 0)
 			throw new IllegalArgumentException("Radius must be > 0");
 
+		output = InputSanityCheck.declareOrReshape(input, output);
+
 		boolean processed = BOverrideBlurImageOps.invokeNativeMedian(input, output, radiusX, radiusY);
 
 		if (!processed) {
 			work = BoofMiscOps.checkDeclare(work, DogArray_I32::new);
-			if (BoofConcurrency.USE_CONCURRENT) {
-				ImplMedianHistogramInner_MT.process(input, output, radiusX, radiusY, work);
+			if (Math.max(radiusX, radiusY) >= MEDIAN_CONSTANT_RADIUS) {
+				if (BoofConcurrency.USE_CONCURRENT) {
+					ImplMedianColumnHistogram_MT.process(input, output, radiusX, radiusY, work);
+				} else {
+					ImplMedianColumnHistogram.process(input, output, radiusX, radiusY, work);
+				}
 			} else {
-				ImplMedianHistogramInner.process(input, output, radiusX, radiusY, work);
+				if (BoofConcurrency.USE_CONCURRENT) {
+					ImplMedianHistogramInner_MT.process(input, output, radiusX, radiusY, work);
+				} else {
+					ImplMedianHistogramInner.process(input, output, radiusX, radiusY, work);
+				}
+				ImplMedianSortEdgeNaive.process(input, output, radiusX, radiusY, work.grow());
 			}
-			// TODO Optimize this algorithm. It is taking up a large percentage of the CPU time
-			ImplMedianSortEdgeNaive.process(input, output, radiusX, radiusY, work.grow());
+		}
+
+		return output;
+	}
+
+	/**
+	 * Applies a median filter. Runs in constant time per pixel.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Storage for output image, Can be null. Modified.
+	 * @param radiusX Size of the filter region. x-axis
+	 * @param radiusY Size of the filter region. y-axis
+	 * @param work (Optional) Creates local workspace arrays. Nullable.
+	 * @return Output blurred image.
+	 */
+	public static GrayU16 median( GrayU16 input, @Nullable GrayU16 output, int radiusX, int radiusY,
+								  @Nullable GrowArray<DogArray_I32> work ) {
+		if (radiusX <= 0 || radiusY <= 0)
+			throw new IllegalArgumentException("Radius must be > 0");
+
+		output = InputSanityCheck.declareOrReshape(input, output);
+		work = BoofMiscOps.checkDeclare(work, DogArray_I32::new);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplMedianColumnHistogram_MT.process(input, output, radiusX, radiusY, work);
+		} else {
+			ImplMedianColumnHistogram.process(input, output, radiusX, radiusY, work);
 		}
 
 		return output;
@@ -1150,6 +1190,34 @@ public class BlurImageOps {
 		return output;
 	}
 
+	/**
+	 * Applies an approximate median filter that runs in constant time per pixel. Pixel values are quantized into
+	 * 2<sup>bits</sup> levels between the image's minimum and maximum value, which bounds the error by half a level.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Storage for output image, Can be null. Modified.
+	 * @param radiusX Size of the filter region. x-axis
+	 * @param radiusY Size of the filter region. y-axis
+	 * @param bits Number of bits used to quantize pixel values. 1 to 16. Try 12.
+	 * @param work (Optional) Creates local workspace arrays. Nullable.
+	 * @return Output blurred image.
+	 */
+	public static GrayF32 medianQuantized( GrayF32 input, @Nullable GrayF32 output, int radiusX, int radiusY, int bits,
+										   @Nullable GrowArray<DogArray_I32> work ) {
+		if (radiusX <= 0 || radiusY <= 0)
+			throw new IllegalArgumentException("Radius must be > 0");
+
+		output = InputSanityCheck.declareOrReshape(input, output);
+		work = BoofMiscOps.checkDeclare(work, DogArray_I32::new);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplMedianColumnHistogram_MT.process(input, output, radiusX, radiusY, bits, work);
+		} else {
+			ImplMedianColumnHistogram.process(input, output, radiusX, radiusY, bits, work);
+		}
+		return output;
+	}
+
 	/**
 	 * Applies median filter to a {@link Planar}
 	 *
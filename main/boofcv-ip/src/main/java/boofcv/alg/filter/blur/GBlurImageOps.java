@@ -18,6 +18,7 @@
 
 package boofcv.alg.filter.blur;
 
+import boofcv.struct.ImagePool;
 import boofcv.struct.border.ImageBorder;
 import boofcv.struct.border.ImageBorder_F32;
 import boofcv.struct.border.ImageBorder_F64;
@@ -31,7 +32,8 @@ import pabeles.concurrency.GrowArray;
 
 /**
  * Generalized functions for applying different image blur operators. Invokes functions
- * from {@link BlurImageOps}, which provides type specific functions.
+ * from {@link BlurImageOps}, which provides type specific functions. If storage for intermediate results
+ * isn't provided it's taken from {@link ImagePool#DEFAULT} and returned once finished.
  *
  * @author Peter Abeles
  */
@@ -50,18 +52,24 @@ public class GBlurImageOps {
 	 */
 	public static <T extends ImageBase<T>>
 	T mean( T input, @Nullable T output, int radius, @Nullable ImageBase storage, @Nullable GrowArray workVert ) {
-		if (input instanceof GrayU8) {
-			return (T)BlurImageOps.mean((GrayU8)input, (GrayU8)output, radius, (GrayU8)storage, (GrowArray<DogArray_I32>)workVert);
-		} else if (input instanceof GrayU16) {
-			return (T)BlurImageOps.mean((GrayU16)input, (GrayU16)output, radius, (GrayU16)storage, (GrowArray<DogArray_I32>)workVert);
-		} else if (input instanceof GrayF32) {
-			return (T)BlurImageOps.mean((GrayF32)input, (GrayF32)output, radius, (GrayF32)storage, (GrowArray<DogArray_F32>)workVert);
-		} else if (input instanceof GrayF64) {
-			return (T)BlurImageOps.mean((GrayF64)input, (GrayF64)output, radius, (GrayF64)storage, (GrowArray<DogArray_F64>)workVert);
-		} else if (input instanceof Planar) {
-			return (T)BlurImageOps.mean((Planar)input, (Planar)output, radius, (ImageGray)storage, workVert);
-		} else {
-			throw new IllegalArgumentException("Unsupported image type");
+		ImageBase work = storage != null ? storage : acquireStorage(input);
+		try {
+			if (input instanceof GrayU8) {
+				return (T)BlurImageOps.mean((GrayU8)input, (GrayU8)output, radius, (GrayU8)work, (GrowArray<DogArray_I32>)workVert);
+			} else if (input instanceof GrayU16) {
+				return (T)BlurImageOps.mean((GrayU16)input, (GrayU16)output, radius, (GrayU16)work, (GrowArray<DogArray_I32>)workVert);
+			} else if (input instanceof GrayF32) {
+				return (T)BlurImageOps.mean((GrayF32)input, (GrayF32)output, radius, (GrayF32)work, (GrowArray<DogArray_F32>)workVert);
+			} else if (input instanceof GrayF64) {
+				return (T)BlurImageOps.mean((GrayF64)input, (GrayF64)output, radius, (GrayF64)work, (GrowArray<DogArray_F64>)workVert);
+			} else if (input instanceof Planar) {
+				return (T)BlurImageOps.mean((Planar)input, (Planar)output, radius, (ImageGray)work, workVert);
+			} else {
+				throw new IllegalArgumentException("Unsupported image type");
+			}
+		} finally {
+			if (work != storage)
+				ImagePool.releaseDefault(work);
 		}
 	}
 
@@ -78,18 +86,24 @@ public class GBlurImageOps {
 	 */
 	public static <T extends ImageBase<T>>
 	T mean( T input, @Nullable T output, int radiusX, int radiusY, @Nullable ImageBase storage, @Nullable GrowArray workVert ) {
-		if (input instanceof GrayU8) {
-			return (T)BlurImageOps.mean((GrayU8)input, (GrayU8)output, radiusX, radiusY, (GrayU8)storage, (GrowArray<DogArray_I32>)workVert);
-		} else if (input instanceof GrayU16) {
-			return (T)BlurImageOps.mean((GrayU16)input, (GrayU16)output, radiusX, radiusY, (GrayU16)storage, (GrowArray<DogArray_I32>)workVert);
-		} else if (input instanceof GrayF32) {
-			return (T)BlurImageOps.mean((GrayF32)input, (GrayF32)output, radiusX, radiusY, (GrayF32)storage, (GrowArray<DogArray_F32>)workVert);
-		} else if (input instanceof GrayF64) {
-			return (T)BlurImageOps.mean((GrayF64)input, (GrayF64)output, radiusX, radiusY, (GrayF64)storage, (GrowArray<DogArray_F64>)workVert);
-		} else if (input instanceof Planar) {
-			return (T)BlurImageOps.mean((Planar)input, (Planar)output, radiusX, radiusY, (ImageGray)storage, workVert);
-		} else {
-			throw new IllegalArgumentException("Unsupported image type");
+		ImageBase work = storage != null ? storage : acquireStorage(input);
+		try {
+			if (input instanceof GrayU8) {
+				return (T)BlurImageOps.mean((GrayU8)input, (GrayU8)output, radiusX, radiusY, (GrayU8)work, (GrowArray<DogArray_I32>)workVert);
+			} else if (input instanceof GrayU16) {
+				return (T)BlurImageOps.mean((GrayU16)input, (GrayU16)output, radiusX, radiusY, (GrayU16)work, (GrowArray<DogArray_I32>)workVert);
+			} else if (input instanceof GrayF32) {
+				return (T)BlurImageOps.mean((GrayF32)input, (GrayF32)output, radiusX, radiusY, (GrayF32)work, (GrowArray<DogArray_F32>)workVert);
+			} else if (input instanceof GrayF64) {
+				return (T)BlurImageOps.mean((GrayF64)input, (GrayF64)output, radiusX, radiusY, (GrayF64)work, (GrowArray<DogArray_F64>)workVert);
+			} else if (input instanceof Planar) {
+				return (T)BlurImageOps.mean((Planar)input, (Planar)output, radiusX, radiusY, (ImageGray)work, workVert);
+			} else {
+				throw new IllegalArgumentException("Unsupported image type");
+			}
+		} finally {
+			if (work != storage)
+				ImagePool.releaseDefault(work);
 		}
 	}
 
@@ -108,22 +122,28 @@ public class GBlurImageOps {
 	public static <T extends ImageBase<T>>
 	T meanB( T input, @Nullable T output, int radiusX, int radiusY, @Nullable ImageBorder<T> border,
 			 @Nullable ImageBase storage, @Nullable GrowArray workVert ) {
-		if (input instanceof GrayU8) {
-			return (T)BlurImageOps.meanB((GrayU8)input, (GrayU8)output, radiusX, radiusY, (ImageBorder_S32)border,
-					(GrayU8)storage, (GrowArray<DogArray_I32>)workVert);
-		} else if (input instanceof GrayU16) {
-			return (T)BlurImageOps.meanB((GrayU16)input, (GrayU16)output, radiusX, radiusY, (ImageBorder_S32)border,
-					(GrayU16)storage, (GrowArray<DogArray_I32>)workVert);
-		} else if (input instanceof GrayF32) {
-			return (T)BlurImageOps.meanB((GrayF32)input, (GrayF32)output, radiusX, radiusY, (ImageBorder_F32)border,
-					(GrayF32)storage, (GrowArray<DogArray_F32>)workVert);
-		} else if (input instanceof GrayF64) {
-			return (T)BlurImageOps.meanB((GrayF64)input, (GrayF64)output, radiusX, radiusY, (ImageBorder_F64)border,
-					(GrayF64)storage, (GrowArray<DogArray_F64>)workVert);
-		} else if (input instanceof Planar) {
-			return (T)BlurImageOps.meanB((Planar)input, (Planar)output, radiusX, radiusY, (ImageBorder)border, (ImageGray)storage, workVert);
-		} else {
-			throw new IllegalArgumentException("Unsupported image type");
+		ImageBase work = storage != null ? storage : acquireStorage(input);
+		try {
+			if (input instanceof GrayU8) {
+				return (T)BlurImageOps.meanB((GrayU8)input, (GrayU8)output, radiusX, radiusY, (ImageBorder_S32)border,
+						(GrayU8)work, (GrowArray<DogArray_I32>)workVert);
+			} else if (input instanceof GrayU16) {
+				return (T)BlurImageOps.meanB((GrayU16)input, (GrayU16)output, radiusX, radiusY, (ImageBorder_S32)border,
+						(GrayU16)work, (GrowArray<DogArray_I32>)workVert);
+			} else if (input instanceof GrayF32) {
+				return (T)BlurImageOps.meanB((GrayF32)input, (GrayF32)output, radiusX, radiusY, (ImageBorder_F32)border,
+						(GrayF32)work, (GrowArray<DogArray_F32>)workVert);
+			} else if (input instanceof GrayF64) {
+				return (T)BlurImageOps.meanB((GrayF64)input, (GrayF64)output, radiusX, radiusY, (ImageBorder_F64)border,
+						(GrayF64)work, (GrowArray<DogArray_F64>)workVert);
+			} else if (input instanceof Planar) {
+				return (T)BlurImageOps.meanB((Planar)input, (Planar)output, radiusX, radiusY, (ImageBorder)border, (ImageGray)work, workVert);
+			} else {
+				throw new IllegalArgumentException("Unsupported image type");
+			}
+		} finally {
+			if (work != storage)
+				ImagePool.releaseDefault(work);
 		}
 	}
 
@@ -212,6 +232,8 @@ public class GBlurImageOps {
 	T median( T input, @Nullable T output, int radiusX, int radiusY, @Nullable GrowArray<?> work ) {
 		if (input instanceof GrayU8) {
 			return (T)BlurImageOps.median((GrayU8)input, (GrayU8)output, radiusX, radiusY, (GrowArray<DogArray_I32>)work);
+		} else if (input instanceof GrayU16) {
+			return (T)BlurImageOps.median((GrayU16)input, (GrayU16)output, radiusX, radiusY, (GrowArray<DogArray_I32>)work);
 		} else if (input instanceof GrayF32) {
 			return (T)BlurImageOps.median((GrayF32)input, (GrayF32)output, radiusX, radiusY, (GrowArray<DogArray_F32>)work);
 		} else if (input instanceof Planar) {
@@ -253,37 +275,53 @@ public class GBlurImageOps {
 	public static <T extends ImageBase<T>>
 	T gaussian( T input, @Nullable T output, double sigmaX, int radiusX, double sigmaY, int radiusY,
 				@Nullable ImageBase storage ) {
-		switch (input.getImageType().getFamily()) {
-			case GRAY -> {
-				if (input instanceof GrayU8) {
-					return (T)BlurImageOps.gaussian((GrayU8)input, (GrayU8)output, sigmaX, radiusX, sigmaY, radiusY, (GrayU8)storage);
-				} else if (input instanceof GrayU16) {
-					return (T)BlurImageOps.gaussian((GrayU16)input, (GrayU16)output, sigmaX, radiusX, sigmaY, radiusY, (GrayU16)storage);
-				} else if (input instanceof GrayF32) {
-					return (T)BlurImageOps.gaussian((GrayF32)input, (GrayF32)output, sigmaX, radiusX, sigmaY, radiusY, (GrayF32)storage);
-				} else if (input instanceof GrayF64) {
-					return (T)BlurImageOps.gaussian((GrayF64)input, (GrayF64)output, sigmaX, radiusX, sigmaY, radiusY, (GrayF64)storage);
-				} else {
-					throw new IllegalArgumentException("Unsupported image type: " + input.getClass().getSimpleName());
+		ImageBase work = storage != null ? storage : acquireStorage(input);
+		try {
+			switch (input.getImageType().getFamily()) {
+				case GRAY -> {
+					if (input instanceof GrayU8) {
+						return (T)BlurImageOps.gaussian((GrayU8)input, (GrayU8)output, sigmaX, radiusX, sigmaY, radiusY, (GrayU8)work);
+					} else if (input instanceof GrayU16) {
+						return (T)BlurImageOps.gaussian((GrayU16)input, (GrayU16)output, sigmaX, radiusX, sigmaY, radiusY, (GrayU16)work);
+					} else if (input instanceof GrayF32) {
+						return (T)BlurImageOps.gaussian((GrayF32)input, (GrayF32)output, sigmaX, radiusX, sigmaY, radiusY, (GrayF32)work);
+					} else if (input instanceof GrayF64) {
+						return (T)BlurImageOps.gaussian((GrayF64)input, (GrayF64)output, sigmaX, radiusX, sigmaY, radiusY, (GrayF64)work);
+					} else {
+						throw new IllegalArgumentException("Unsupported image type: " + input.getClass().getSimpleName());
+					}
 				}
-			}
-			case INTERLEAVED -> {
-				if (input instanceof InterleavedU8) {
-					return (T)BlurImageOps.gaussian((InterleavedU8)input, (InterleavedU8)output, sigmaX, radiusX, sigmaY, radiusY, (InterleavedU8)storage);
-				} else if (input instanceof InterleavedU16) {
-					return (T)BlurImageOps.gaussian((InterleavedU16)input, (InterleavedU16)output, sigmaX, radiusX, sigmaY, radiusY, (InterleavedU16)storage);
-				} else if (input instanceof InterleavedF32) {
-					return (T)BlurImageOps.gaussian((InterleavedF32)input, (InterleavedF32)output, sigmaX, radiusX, sigmaY, radiusY, (InterleavedF32)storage);
-				} else if (input instanceof InterleavedF64) {
-					return (T)BlurImageOps.gaussian((InterleavedF64)input, (InterleavedF64)output, sigmaX, radiusX, sigmaY, radiusY, (InterleavedF64)storage);
-				} else {
-					throw new IllegalArgumentException("Unsupported image type: " + input.getClass().getSimpleName());
+				case INTERLEAVED -> {
+					if (input instanceof InterleavedU8) {
+						return (T)BlurImageOps.gaussian((InterleavedU8)input, (InterleavedU8)output, sigmaX, radiusX, sigmaY, radiusY, (InterleavedU8)work);
+					} else if (input instanceof InterleavedU16) {
+						return (T)BlurImageOps.gaussian((InterleavedU16)input, (InterleavedU16)output, sigmaX, radiusX, sigmaY, radiusY, (InterleavedU16)work);
+					} else if (input instanceof InterleavedF32) {
+						return (T)BlurImageOps.gaussian((InterleavedF32)input, (InterleavedF32)output, sigmaX, radiusX, sigmaY, radiusY, (InterleavedF32)work);
+					} else if (input instanceof InterleavedF64) {
+						return (T)BlurImageOps.gaussian((InterleavedF64)input, (InterleavedF64)output, sigmaX, radiusX, sigmaY, radiusY, (InterleavedF64)work);
+					} else {
+						throw new IllegalArgumentException("Unsupported image type: " + input.getClass().getSimpleName());
+					}
 				}
+				case PLANAR -> {
+					return (T)BlurImageOps.gaussian((Planar)input, (Planar)output, sigmaX, radiusX, sigmaY, radiusY, (ImageGray)work);
+				}
+				default -> throw new IllegalArgumentException("Unknown image family");
 			}
-			case PLANAR -> {
-				return (T)BlurImageOps.gaussian((Planar)input, (Planar)output, sigmaX, radiusX, sigmaY, radiusY, (ImageGray)storage);
-			}
-			default -> throw new IllegalArgumentException("Unknown image family");
+		} finally {
+			if (work != storage)
+				ImagePool.releaseDefault(work);
 		}
 	}
+
+	/**
+	 * Gets storage for intermediate results from the default pool. Planar images use a single band for storage.
+	 */
+	static ImageBase acquireStorage( ImageBase input ) {
+		ImageType type = input.getImageType();
+		if (type.getFamily() == ImageType.Family.PLANAR)
+			type = ImageType.single(type.getDataType());
+		return ImagePool.acquireDefault(type, input.width, input.height);
+	}
 }
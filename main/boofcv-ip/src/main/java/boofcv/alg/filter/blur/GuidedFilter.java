@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.blur.impl.ImplGuidedFilter;
+import boofcv.alg.filter.blur.impl.ImplGuidedFilter_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.ConvertImage;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.Planar;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.DogArray_F32;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>
+ * Guided filter [1] is an edge preserving smoothing filter. Inside each local region the output is modeled as a
+ * linear function of a guide image, q = a*I + b, where (a,b) are found by minimizing the difference from the input
+ * with a regularization term that penalizes large values of 'a'. When the input is its own guide the result
+ * is similar to a bilateral filter. The filter is composed entirely of box filters and per-pixel operations, so
+ * its cost per pixel is independent of the radius.
+ * </p>
+ *
+ * <p>
+ * A gray or color (3-band) guide can be used. With a color guide, edges which are visible in color but not in
+ * intensity are also preserved. The regularization, epsilon, has units of pixel intensity squared. If pixel
+ * values range from 0 to 255 then a value of (0.1*255)<sup>2</sup> would be reasonable for moderate smoothing.
+ * U8 images are converted into F32 internally.
+ * </p>
+ *
+ * <p>
+ * [1] He, Kaiming, Jian Sun, and Xiaoou Tang. "Guided image filtering." IEEE transactions on pattern analysis
+ * and machine intelligence 35.6 (2012): 1397-1409.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GuidedFilter {
+	/** Defines the symmetric rectangular region. width = 2*radius + 1 */
+	@Getter @Setter int radiusX, radiusY;
+
+	/** Regularization. Larger values will smooth more. Units are pixel intensity squared. */
+	@Getter @Setter double epsilon;
+
+	// Images converted into floating point
+	GrayF32 guideF = new GrayF32(1, 1);
+	Planar<GrayF32> guideColorF = new Planar<>(GrayF32.class, 1, 1, 3);
+	GrayF32 inputF = new GrayF32(1, 1);
+
+	// Products of the guide and input
+	GrayF32 guideSq = new GrayF32(1, 1);
+	GrayF32 guideInput = new GrayF32(1, 1);
+	Planar<GrayF32> guideSqColor = new Planar<>(GrayF32.class, 1, 1, 6);
+	Planar<GrayF32> guideInputColor = new Planar<>(GrayF32.class, 1, 1, 3);
+
+	// Local means
+	GrayF32 meanGuide = new GrayF32(1, 1);
+	GrayF32 meanInput = new GrayF32(1, 1);
+	GrayF32 corrGuide = new GrayF32(1, 1);
+	GrayF32 corrGuideInput = new GrayF32(1, 1);
+	Planar<GrayF32> meanGuideColor = new Planar<>(GrayF32.class, 1, 1, 3);
+	Planar<GrayF32> corrGuideColor = new Planar<>(GrayF32.class, 1, 1, 6);
+	Planar<GrayF32> corrGuideInputColor = new Planar<>(GrayF32.class, 1, 1, 3);
+
+	// Coefficients of the linear model and their local means
+	GrayF32 coefA = new GrayF32(1, 1);
+	GrayF32 coefB = new GrayF32(1, 1);
+	GrayF32 meanA = new GrayF32(1, 1);
+	GrayF32 meanB = new GrayF32(1, 1);
+	Planar<GrayF32> coefAColor = new Planar<>(GrayF32.class, 1, 1, 3);
+	Planar<GrayF32> meanAColor = new Planar<>(GrayF32.class, 1, 1, 3);
+
+	// Workspace for the mean filter
+	GrayF32 storage = new GrayF32(1, 1);
+	GrowArray<DogArray_F32> workVert = new GrowArray<>(DogArray_F32::new);
+
+	public GuidedFilter( int radiusX, int radiusY, double epsilon ) {
+		this.radiusX = radiusX;
+		this.radiusY = radiusY;
+		this.epsilon = epsilon;
+	}
+
+	public GuidedFilter() {}
+
+	/**
+	 * Filters the input image using a gray guide. The input can be the guide.
+	 *
+	 * @param guide (Input) Guide image. Not modified.
+	 * @param input (Input) Image being filtered. Not modified.
+	 * @param output (Output) Filtered image. Modified.
+	 */
+	public void process( GrayF32 guide, GrayF32 input, GrayF32 output ) {
+		InputSanityCheck.checkSameShape(guide, input);
+		output.reshape(input.width, input.height);
+		solveGray(guide, input);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplGuidedFilter_MT.apply(meanA, meanB, guide, output);
+		} else {
+			ImplGuidedFilter.apply(meanA, meanB, guide, output);
+		}
+	}
+
+	/**
+	 * Filters the input image using a gray guide. The input can be the guide.
+	 *
+	 * @param guide (Input) Guide image. Not modified.
+	 * @param input (Input) Image being filtered. Not modified.
+	 * @param output (Output) Filtered image. Modified.
+	 */
+	public void process( GrayU8 guide, GrayU8 input, GrayU8 output ) {
+		InputSanityCheck.checkSameShape(guide, input);
+		output.reshape(input.width, input.height);
+
+		ConvertImage.convert(guide, guideF);
+		if (guide == input) {
+			solveGray(guideF, guideF);
+		} else {
+			ConvertImage.convert(input, inputF);
+			solveGray(guideF, inputF);
+		}
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplGuidedFilter_MT.apply(meanA, meanB, guideF, output);
+		} else {
+			ImplGuidedFilter.apply(meanA, meanB, guideF, output);
+		}
+	}
+
+	/**
+	 * Filters the input image using a color guide.
+	 *
+	 * @param guide (Input) Guide image with 3 bands. Not modified.
+	 * @param input (Input) Image being filtered. Not modified.
+	 * @param output (Output) Filtered image. Modified.
+	 */
+	public void process( Planar<GrayF32> guide, GrayF32 input, GrayF32 output ) {
+		checkColorGuide(guide, input);
+		output.reshape(input.width, input.height);
+		solveColor(guide, input);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplGuidedFilter_MT.applyColor(meanAColor, meanB, guide, output);
+		} else {
+			ImplGuidedFilter.applyColor(meanAColor, meanB, guide, output);
+		}
+	}
+
+	/**
+	 * Filters the input image using a color guide.
+	 *
+	 * @param guide (Input) Guide image with 3 bands. Not modified.
+	 * @param input (Input) Image being filtered. Not modified.
+	 * @param output (Output) Filtered image. Modified.
+	 */
+	public void process( Planar<GrayU8> guide, GrayU8 input, GrayU8 output ) {
+		checkColorGuide(guide, input);
+		output.reshape(input.width, input.height);
+
+		guideColorF.reshape(guide.width, guide.height);
+		for (int band = 0; band < 3; band++) {
+			ConvertImage.convert(guide.getBand(band), guideColorF.getBand(band));
+		}
+		ConvertImage.convert(input, inputF);
+		solveColor(guideColorF, inputF);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplGuidedFilter_MT.applyColor(meanAColor, meanB, guideColorF, output);
+		} else {
+			ImplGuidedFilter.applyColor(meanAColor, meanB, guideColorF, output);
+		}
+	}
+
+	/**
+	 * Computes the local mean of the linear model's coefficients for a gray guide
+	 */
+	void solveGray( GrayF32 guide, GrayF32 input ) {
+		reshape(guide.width, guide.height, guideSq, meanGuide, corrGuide, coefA, coefB, meanA, meanB);
+
+		// If the image is its own guide then half the box filters can be skipped
+		boolean self = guide == input;
+		if (self) {
+			if (BoofConcurrency.USE_CONCURRENT) {
+				ImplGuidedFilter_MT.products(guide, guideSq);
+			} else {
+				ImplGuidedFilter.products(guide, guideSq);
+			}
+			mean(guide, meanGuide);
+			mean(guideSq, corrGuide);
+			computeCoefficients(meanGuide, meanGuide, corrGuide, corrGuide);
+		} else {
+			reshape(guide.width, guide.height, guideInput, meanInput, corrGuideInput);
+			if (BoofConcurrency.USE_CONCURRENT) {
+				ImplGuidedFilter_MT.products(guide, input, guideSq, guideInput);
+			} else {
+				ImplGuidedFilter.products(guide, input, guideSq, guideInput);
+			}
+			mean(guide, meanGuide);
+			mean(input, meanInput);
+			mean(guideSq, corrGuide);
+			mean(guideInput, corrGuideInput);
+			computeCoefficients(meanGuide, meanInput, corrGuide, corrGuideInput);
+		}
+
+		mean(coefA, meanA);
+		mean(coefB, meanB);
+	}
+
+	private void computeCoefficients( GrayF32 meanG, GrayF32 meanI, GrayF32 corrG, GrayF32 corrGI ) {
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplGuidedFilter_MT.coefficients(meanG, meanI, corrG, corrGI, (float)epsilon, coefA, coefB);
+		} else {
+			ImplGuidedFilter.coefficients(meanG, meanI, corrG, corrGI, (float)epsilon, coefA, coefB);
+		}
+	}
+
+	/**
+	 * Computes the local mean of the linear model's coefficients for a color guide
+	 */
+	void solveColor( Planar<GrayF32> guide, GrayF32 input ) {
+		int width = guide.width, height = guide.height;
+		reshape(width, height, meanInput, coefB, meanB);
+		guideSqColor.reshape(width, height);
+		guideInputColor.reshape(width, height);
+		meanGuideColor.reshape(width, height);
+		corrGuideColor.reshape(width, height);
+		corrGuideInputColor.reshape(width, height);
+		coefAColor.reshape(width, height);
+		meanAColor.reshape(width, height);
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplGuidedFilter_MT.productsColor(guide, input, guideSqColor, guideInputColor);
+		} else {
+			ImplGuidedFilter.productsColor(guide, input, guideSqColor, guideInputColor);
+		}
+
+		mean(input, meanInput);
+		for (int band = 0; band < 3; band++) {
+			mean(guide.getBand(band), meanGuideColor.getBand(band));
+			mean(guideInputColor.getBand(band), corrGuideInputColor.getBand(band));
+		}
+		for (int band = 0; band < 6; band++) {
+			mean(guideSqColor.getBand(band), corrGuideColor.getBand(band));
+		}
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplGuidedFilter_MT.coefficientsColor(meanGuideColor, meanInput, corrGuideColor, corrGuideInputColor,
+					(float)epsilon, coefAColor, coefB);
+		} else {
+			ImplGuidedFilter.coefficientsColor(meanGuideColor, meanInput, corrGuideColor, corrGuideInputColor,
+					(float)epsilon, coefAColor, coefB);
+		}
+
+		for (int band = 0; band < 3; band++) {
+			mean(coefAColor.getBand(band), meanAColor.getBand(band));
+		}
+		mean(coefB, meanB);
+	}
+
+	/**
+	 * Box filter with re-weighted image borders
+	 */
+	private void mean( GrayF32 input, GrayF32 output ) {
+		BlurImageOps.mean(input, output, radiusX, radiusY, storage, workVert);
+	}
+
+	private static void reshape( int width, int height, GrayF32... images ) {
+		for (GrayF32 image : images) {
+			image.reshape(width, height);
+		}
+	}
+
+	private static void checkColorGuide( Planar<?> guide, ImageGray<?> input ) {
+		if (guide.getNumBands() != 3)
+			throw new IllegalArgumentException("Color guide must have 3 bands");
+		InputSanityCheck.checkSameShape(guide, input);
+	}
+}
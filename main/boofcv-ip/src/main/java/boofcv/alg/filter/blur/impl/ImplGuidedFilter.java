@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
+
+/**
+ * <p>
+ * Per-pixel operations used by the guided filter [1]. The filter is composed of box filters and these
+ * operations, which compute products of images, solve for the linear coefficients, and apply the coefficients
+ * to the guide. Box filters are computed elsewhere, so the cost per pixel is independent of the radius.
+ * </p>
+ *
+ * <p>
+ * Guide, input, and output images can be sub-images. Intermediate images must all have the same shape as the
+ * guide and must not be sub-images. Color guides have 3 bands. Products of the color guide's bands are stored
+ * in 6 bands in the following order: rr, rg, rb, gg, gb, bb.
+ * </p>
+ *
+ * <p>
+ * [1] He, Kaiming, Jian Sun, and Xiaoou Tang. "Guided image filtering." IEEE transactions on pattern analysis
+ * and machine intelligence 35.6 (2012): 1397-1409.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class ImplGuidedFilter {
+	/**
+	 * Computes the square of each guide pixel and the product of the guide and input pixels.
+	 *
+	 * @param guide (Input) Guide image
+	 * @param input (Input) Image being filtered
+	 * @param guideSq (Output) guide*guide
+	 * @param guideInput (Output) guide*input
+	 */
+	public static void products( GrayF32 guide, GrayF32 input, GrayF32 guideSq, GrayF32 guideInput ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, guide.height, y -> {
+		for (int y = 0; y < guide.height; y++) {
+			int indexG = guide.startIndex + y*guide.stride;
+			int indexI = input.startIndex + y*input.stride;
+			int indexW = y*guide.width;
+			for (int x = 0; x < guide.width; x++) {
+				float g = guide.data[indexG++];
+				guideSq.data[indexW] = g*g;
+				guideInput.data[indexW++] = g*input.data[indexI++];
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Computes the square of each guide pixel. Used when the image is its own guide.
+	 *
+	 * @param guide (Input) Guide image
+	 * @param guideSq (Output) guide*guide
+	 */
+	public static void products( GrayF32 guide, GrayF32 guideSq ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, guide.height, y -> {
+		for (int y = 0; y < guide.height; y++) {
+			int indexG = guide.startIndex + y*guide.stride;
+			int indexW = y*guide.width;
+			for (int x = 0; x < guide.width; x++) {
+				float g = guide.data[indexG++];
+				guideSq.data[indexW++] = g*g;
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Solves for the coefficients of the local linear model, input = a*guide + b, inside each region.
+	 *
+	 * @param meanG (Input) Local mean of guide
+	 * @param meanI (Input) Local mean of input
+	 * @param corrG (Input) Local mean of guide*guide
+	 * @param corrGI (Input) Local mean of guide*input
+	 * @param epsilon Regularization. Larger values will smooth more.
+	 * @param a (Output) Scale coefficient
+	 * @param b (Output) Offset coefficient
+	 */
+	public static void coefficients( GrayF32 meanG, GrayF32 meanI, GrayF32 corrG, GrayF32 corrGI, float epsilon,
+									 GrayF32 a, GrayF32 b ) {
+		final int N = meanG.width*meanG.height;
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, N, (i0, i1) -> {
+		final int i0 = 0, i1 = N;
+		for (int i = i0; i < i1; i++) {
+			float mg = meanG.data[i];
+			float mi = meanI.data[i];
+			float varG = corrG.data[i] - mg*mg;
+			float covGI = corrGI.data[i] - mg*mi;
+
+			float valueA = covGI/(varG + epsilon);
+			a.data[i] = valueA;
+			b.data[i] = mi - valueA*mg;
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Computes the output by applying the local mean of the coefficients to the guide.
+	 *
+	 * @param meanA (Input) Local mean of the scale coefficient
+	 * @param meanB (Input) Local mean of the offset coefficient
+	 * @param guide (Input) Guide image
+	 * @param output (Output) Filtered image
+	 */
+	public static void apply( GrayF32 meanA, GrayF32 meanB, GrayF32 guide, GrayF32 output ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, guide.height, y -> {
+		for (int y = 0; y < guide.height; y++) {
+			int indexG = guide.startIndex + y*guide.stride;
+			int indexO = output.startIndex + y*output.stride;
+			int indexW = y*guide.width;
+			for (int x = 0; x < guide.width; x++, indexW++) {
+				output.data[indexO++] = meanA.data[indexW]*guide.data[indexG++] + meanB.data[indexW];
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Computes the output by applying the local mean of the coefficients to the guide. Values are rounded
+	 * and clipped to the range of the output image.
+	 *
+	 * @param meanA (Input) Local mean of the scale coefficient
+	 * @param meanB (Input) Local mean of the offset coefficient
+	 * @param guide (Input) Guide image
+	 * @param output (Output) Filtered image
+	 */
+	public static void apply( GrayF32 meanA, GrayF32 meanB, GrayF32 guide, GrayU8 output ) {
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, guide.height, y -> {
+		for (int y = 0; y < guide.height; y++) {
+			int indexG = guide.startIndex + y*guide.stride;
+			int indexO = output.startIndex + y*output.stride;
+			int indexW = y*guide.width;
+			for (int x = 0; x < guide.width; x++, indexW++) {
+				float value = meanA.data[indexW]*guide.data[indexG++] + meanB.data[indexW];
+				output.data[indexO++] = (byte)clipU8(value);
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Computes the products of all pairs of guide bands and the product of each guide band with the input.
+	 *
+	 * @param guide (Input) Color guide image with 3 bands
+	 * @param input (Input) Image being filtered
+	 * @param guideSq (Output) Products of guide bands. 6 bands.
+	 * @param guideInput (Output) Product of each guide band with the input. 3 bands.
+	 */
+	public static void productsColor( Planar<GrayF32> guide, GrayF32 input,
+									  Planar<GrayF32> guideSq, Planar<GrayF32> guideInput ) {
+		float[] dataR = guide.getBand(0).data;
+		float[] dataG = guide.getBand(1).data;
+		float[] dataB = guide.getBand(2).data;
+
+		float[] rr = guideSq.getBand(0).data;
+		float[] rg = guideSq.getBand(1).data;
+		float[] rb = guideSq.getBand(2).data;
+		float[] gg = guideSq.getBand(3).data;
+		float[] gb = guideSq.getBand(4).data;
+		float[] bb = guideSq.getBand(5).data;
+
+		float[] ri = guideInput.getBand(0).data;
+		float[] gi = guideInput.getBand(1).data;
+		float[] bi = guideInput.getBand(2).data;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, guide.height, y -> {
+		for (int y = 0; y < guide.height; y++) {
+			int indexG = guide.startIndex + y*guide.stride;
+			int indexI = input.startIndex + y*input.stride;
+			int indexW = y*guide.width;
+			for (int x = 0; x < guide.width; x++, indexG++, indexW++) {
+				float r = dataR[indexG];
+				float g = dataG[indexG];
+				float b = dataB[indexG];
+				float v = input.data[indexI++];
+
+				rr[indexW] = r*r;
+				rg[indexW] = r*g;
+				rb[indexW] = r*b;
+				gg[indexW] = g*g;
+				gb[indexW] = g*b;
+				bb[indexW] = b*b;
+
+				ri[indexW] = r*v;
+				gi[indexW] = g*v;
+				bi[indexW] = b*v;
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Solves for the coefficients of the local linear model, input = a<sup>T</sup>*guide + b, inside each region.
+	 * This requires solving a 3x3 linear system at each pixel, which is done using its adjugate.
+	 *
+	 * @param meanG (Input) Local mean of guide. 3 bands.
+	 * @param meanI (Input) Local mean of input
+	 * @param corrG (Input) Local mean of products of guide bands. 6 bands.
+	 * @param corrGI (Input) Local mean of guide band times input. 3 bands.
+	 * @param epsilon Regularization. Larger values will smooth more.
+	 * @param a (Output) Scale coefficients. 3 bands.
+	 * @param b (Output) Offset coefficient
+	 */
+	public static void coefficientsColor( Planar<GrayF32> meanG, GrayF32 meanI,
+										  Planar<GrayF32> corrG, Planar<GrayF32> corrGI, float epsilon,
+										  Planar<GrayF32> a, GrayF32 b ) {
+		float[] mR = meanG.getBand(0).data;
+		float[] mG = meanG.getBand(1).data;
+		float[] mB = meanG.getBand(2).data;
+
+		float[] rr = corrG.getBand(0).data;
+		float[] rg = corrG.getBand(1).data;
+		float[] rb = corrG.getBand(2).data;
+		float[] gg = corrG.getBand(3).data;
+		float[] gb = corrG.getBand(4).data;
+		float[] bb = corrG.getBand(5).data;
+
+		float[] ri = corrGI.getBand(0).data;
+		float[] gi = corrGI.getBand(1).data;
+		float[] bi = corrGI.getBand(2).data;
+
+		float[] aR = a.getBand(0).data;
+		float[] aG = a.getBand(1).data;
+		float[] aB = a.getBand(2).data;
+
+		final int N = meanI.width*meanI.height;
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, N, (i0, i1) -> {
+		final int i0 = 0, i1 = N;
+		for (int i = i0; i < i1; i++) {
+			float mr = mR[i], mg = mG[i], mb = mB[i];
+			float mi = meanI.data[i];
+
+			// Covariance of the guide plus regularization. Symmetric.
+			float c00 = rr[i] - mr*mr + epsilon;
+			float c01 = rg[i] - mr*mg;
+			float c02 = rb[i] - mr*mb;
+			float c11 = gg[i] - mg*mg + epsilon;
+			float c12 = gb[i] - mg*mb;
+			float c22 = bb[i] - mb*mb + epsilon;
+
+			// Covariance between the guide and the input
+			float vr = ri[i] - mr*mi;
+			float vg = gi[i] - mg*mi;
+			float vb = bi[i] - mb*mi;
+
+			// Adjugate of the covariance matrix. Also symmetric.
+			float i00 = c11*c22 - c12*c12;
+			float i01 = c02*c12 - c01*c22;
+			float i02 = c01*c12 - c02*c11;
+			float i11 = c00*c22 - c02*c02;
+			float i12 = c01*c02 - c00*c12;
+			float i22 = c00*c11 - c01*c01;
+
+			float det = c00*i00 + c01*i01 + c02*i02;
+
+			float ar = (i00*vr + i01*vg + i02*vb)/det;
+			float ag = (i01*vr + i11*vg + i12*vb)/det;
+			float ab = (i02*vr + i12*vg + i22*vb)/det;
+
+			aR[i] = ar;
+			aG[i] = ag;
+			aB[i] = ab;
+			b.data[i] = mi - ar*mr - ag*mg - ab*mb;
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Computes the output by applying the local mean of the coefficients to the color guide.
+	 *
+	 * @param meanA (Input) Local mean of the scale coefficients. 3 bands.
+	 * @param meanB (Input) Local mean of the offset coefficient
+	 * @param guide (Input) Color guide image with 3 bands
+	 * @param output (Output) Filtered image
+	 */
+	public static void applyColor( Planar<GrayF32> meanA, GrayF32 meanB, Planar<GrayF32> guide, GrayF32 output ) {
+		float[] aR = meanA.getBand(0).data;
+		float[] aG = meanA.getBand(1).data;
+		float[] aB = meanA.getBand(2).data;
+
+		float[] dataR = guide.getBand(0).data;
+		float[] dataG = guide.getBand(1).data;
+		float[] dataB = guide.getBand(2).data;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, guide.height, y -> {
+		for (int y = 0; y < guide.height; y++) {
+			int indexG = guide.startIndex + y*guide.stride;
+			int indexO = output.startIndex + y*output.stride;
+			int indexW = y*guide.width;
+			for (int x = 0; x < guide.width; x++, indexG++, indexW++) {
+				output.data[indexO++] = aR[indexW]*dataR[indexG] + aG[indexW]*dataG[indexG] +
+						aB[indexW]*dataB[indexG] + meanB.data[indexW];
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/**
+	 * Computes the output by applying the local mean of the coefficients to the color guide. Values are rounded
+	 * and clipped to the range of the output image.
+	 *
+	 * @param meanA (Input) Local mean of the scale coefficients. 3 bands.
+	 * @param meanB (Input) Local mean of the offset coefficient
+	 * @param guide (Input) Color guide image with 3 bands
+	 * @param output (Output) Filtered image
+	 */
+	public static void applyColor( Planar<GrayF32> meanA, GrayF32 meanB, Planar<GrayF32> guide, GrayU8 output ) {
+		float[] aR = meanA.getBand(0).data;
+		float[] aG = meanA.getBand(1).data;
+		float[] aB = meanA.getBand(2).data;
+
+		float[] dataR = guide.getBand(0).data;
+		float[] dataG = guide.getBand(1).data;
+		float[] dataB = guide.getBand(2).data;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, guide.height, y -> {
+		for (int y = 0; y < guide.height; y++) {
+			int indexG = guide.startIndex + y*guide.stride;
+			int indexO = output.startIndex + y*output.stride;
+			int indexW = y*guide.width;
+			for (int x = 0; x < guide.width; x++, indexG++, indexW++) {
+				float value = aR[indexW]*dataR[indexG] + aG[indexW]*dataG[indexG] +
+						aB[indexW]*dataB[indexG] + meanB.data[indexW];
+				output.data[indexO++] = (byte)clipU8(value);
+			}
+		}
+		//CONCURRENT_ABOVE });
+	}
+
+	/** Rounds to the nearest integer and clips to the range of a U8 image */
+	static int clipU8( float value ) {
+		int v = (int)(value + 0.5f);
+		return v < 0 ? 0 : Math.min(v, 255);
+	}
+}
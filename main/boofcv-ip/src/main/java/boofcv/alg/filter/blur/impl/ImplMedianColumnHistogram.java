@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
+
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.misc.BoofMiscOps;
+import boofcv.struct.image.*;
+import org.ddogleg.struct.DogArray_I32;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Median filter which runs in constant time per pixel, independent of the radius. A histogram is maintained for
+ * every column, which is updated by adding and removing one pixel as the filter moves down a row. The histogram
+ * for the filter's region is then updated by adding and removing column histograms as it moves along a row [1].
+ * Histograms have a coarse and fine level. Only the coarse level is updated for every pixel, while a fine
+ * segment is updated lazily when the median falls inside of it.
+ * </p>
+ *
+ * <p>
+ * The entire image is processed. Along the border the region is clipped to be inside the image, which produces
+ * the same results as {@link ImplMedianSortEdgeNaive}. Column histograms are processed in vertical strips, which
+ * keeps memory bounded when there are many bins and is how work is split up between threads.
+ * </p>
+ *
+ * <p>
+ * [1] Perreault, Simon, and Patrick Hébert. "Median filtering in constant time." IEEE Transactions on
+ * Image Processing 16.9 (2007): 2389-2394.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class ImplMedianColumnHistogram {
+	/** Maximum number of elements that will be used to store column histograms in a single strip */
+	public static int MAX_COLUMN_ELEMENTS = 1 << 22;
+
+	/**
+	 * Applies a median image filter.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radiusX Size of the filter region. x-axis
+	 * @param radiusY Size of the filter region. Y-axis
+	 * @param work Creates local work space arrays
+	 */
+	public static void process( GrayU8 input, GrayU8 output, int radiusX, int radiusY, GrowArray<DogArray_I32> work ) {
+		process(input, output, radiusX, radiusY, 8, 0.0f, 0.0f, work);
+	}
+
+	/**
+	 * Applies a median image filter. The number of bins in the histogram is selected using the largest value in
+	 * the image.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radiusX Size of the filter region. x-axis
+	 * @param radiusY Size of the filter region. Y-axis
+	 * @param work Creates local work space arrays
+	 */
+	public static void process( GrayU16 input, GrayU16 output, int radiusX, int radiusY, GrowArray<DogArray_I32> work ) {
+		int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(ImageStatistics.max(input)));
+		process(input, output, radiusX, radiusY, bits, 0.0f, 0.0f, work);
+	}
+
+	/**
+	 * Applies an approximate median image filter. Pixel values are quantized into 2<sup>bits</sup> levels between
+	 * the smallest and largest value in the image. The error in the output is at most half of a level.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radiusX Size of the filter region. x-axis
+	 * @param radiusY Size of the filter region. Y-axis
+	 * @param bits Number of bits used to quantize pixel values. 1 to 16.
+	 * @param work Creates local work space arrays
+	 */
+	public static void process( GrayF32 input, GrayF32 output, int radiusX, int radiusY, int bits,
+								GrowArray<DogArray_I32> work ) {
+		if (bits < 1 || bits > 16)
+			throw new IllegalArgumentException("bits must be from 1 to 16");
+
+		float min = ImageStatistics.min(input);
+		float max = ImageStatistics.max(input);
+		int levels = 1 << bits;
+		float step = max > min ? (max - min)/(levels - 1) : 0.0f;
+		process(input, output, radiusX, radiusY, bits, min, step, work);
+	}
+
+	/**
+	 * Applies the filter to every strip in the image
+	 *
+	 * @param bits Number of bits needed to describe all the values
+	 * @param min Value of the first level when quantizing floating point images
+	 * @param step Difference between levels when quantizing floating point images
+	 */
+	static void process( ImageGray<?> input, ImageGray<?> output, int radiusX, int radiusY,
+						 int bits, float min, float step, GrowArray<DogArray_I32> work ) {
+		if (radiusX < 0 || radiusY < 0)
+			throw new IllegalArgumentException("Radius must be >= 0");
+
+		int fineBits = bits/2;
+		int coarseBits = bits - fineBits;
+
+		// Select the width of a strip so that memory is bounded
+		int elementsPerColumn = (1 << coarseBits) + (1 << bits);
+		int stripWidth = Math.max(16, MAX_COLUMN_ELEMENTS/elementsPerColumn - 2*radiusX);
+
+		//CONCURRENT_REMOVE_BELOW
+		DogArray_I32 array = work.grow();
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, input.width, 2*radiusX + 1, work, (array, x0, x1) -> {
+		final int x0 = 0, x1 = input.width;
+		for (int stripX0 = x0; stripX0 < x1; stripX0 += stripWidth) {
+			int stripX1 = Math.min(x1, stripX0 + stripWidth);
+			processStrip(input, output, radiusX, radiusY, stripX0, stripX1, coarseBits, fineBits, min, step, array);
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Applies the filter to all the rows in the strip of columns from x0 to x1.
+	 */
+	static void processStrip( ImageGray<?> input, ImageGray<?> output, int radiusX, int radiusY, int x0, int x1,
+							  int coarseBits, int fineBits, float min, float step, DogArray_I32 array ) {
+		final int width = input.width;
+		final int height = input.height;
+		final int numCoarse = 1 << coarseBits;
+		final int numFine = 1 << fineBits;
+		final int numBins = numCoarse*numFine;
+
+		// Columns which are needed by the strip
+		final int col0 = Math.max(0, x0 - radiusX);
+		final int col1 = Math.min(width, x1 + radiusX);
+		final int numColumns = col1 - col0;
+
+		// Carve up the work array
+		final int offsetFine = numColumns*numCoarse;
+		final int offsetKernelCoarse = offsetFine + numColumns*numBins;
+		final int offsetKernelFine = offsetKernelCoarse + numCoarse;
+		final int offsetUpdated = offsetKernelFine + numBins;
+		final int offsetValues = offsetUpdated + numCoarse;
+		final int offsetMedian = offsetValues + numColumns;
+		int[] data = BoofMiscOps.checkDeclare(array, offsetMedian + x1 - x0, false);
+
+		Arrays.fill(data, 0, offsetKernelCoarse, 0);
+
+		for (int y = 0; y < height; y++) {
+			// Update the column histograms so that they contain the rows from y-radiusY to y+radiusY
+			if (y == 0) {
+				for (int i = 0; i <= radiusY && i < height; i++) {
+					readRow(input, i, col0, col1, min, step, data, offsetValues);
+					updateColumns(data, offsetValues, numColumns, fineBits, numCoarse, numBins, offsetFine, 1);
+				}
+			} else {
+				if (y + radiusY < height) {
+					readRow(input, y + radiusY, col0, col1, min, step, data, offsetValues);
+					updateColumns(data, offsetValues, numColumns, fineBits, numCoarse, numBins, offsetFine, 1);
+				}
+				if (y - radiusY - 1 >= 0) {
+					readRow(input, y - radiusY - 1, col0, col1, min, step, data, offsetValues);
+					updateColumns(data, offsetValues, numColumns, fineBits, numCoarse, numBins, offsetFine, -1);
+				}
+			}
+			int numRows = Math.min(height - 1, y + radiusY) - Math.max(0, y - radiusY) + 1;
+
+			// Initialize the coarse kernel histogram with the columns to the left of the first one added
+			Arrays.fill(data, offsetKernelCoarse, offsetKernelFine, 0);
+			Arrays.fill(data, offsetUpdated, offsetUpdated + numCoarse, -1);
+			for (int col = Math.max(0, x0 - radiusX); col < Math.min(width, x0 + radiusX); col++) {
+				addCoarse(data, offsetKernelCoarse, (col - col0)*numCoarse, numCoarse, 1);
+			}
+
+			for (int x = x0; x < x1; x++) {
+				if (x + radiusX < width)
+					addCoarse(data, offsetKernelCoarse, (x + radiusX - col0)*numCoarse, numCoarse, 1);
+				if (x > x0 && x - radiusX - 1 >= 0)
+					addCoarse(data, offsetKernelCoarse, (x - radiusX - 1 - col0)*numCoarse, numCoarse, -1);
+
+				int minCol = Math.max(0, x - radiusX);
+				int maxCol = Math.min(width - 1, x + radiusX);
+				int threshold = ((maxCol - minCol + 1)*numRows)/2 + 1;
+
+				// Find the coarse bin which contains the median
+				int count = 0;
+				int coarse = 0;
+				while (count + data[offsetKernelCoarse + coarse] < threshold) {
+					count += data[offsetKernelCoarse + coarse++];
+				}
+
+				// Bring the fine segment up to date. If it's too far behind it's faster to recompute it
+				int offsetSegment = offsetKernelFine + coarse*numFine;
+				int columnSegment = offsetFine + coarse*numFine;
+				int updated = data[offsetUpdated + coarse];
+				if (updated < 0 || 2*(x - updated) > maxCol - minCol + 1) {
+					Arrays.fill(data, offsetSegment, offsetSegment + numFine, 0);
+					for (int col = minCol; col <= maxCol; col++) {
+						addFine(data, offsetSegment, columnSegment + (col - col0)*numBins, numFine, 1);
+					}
+				} else {
+					for (int xi = updated + 1; xi <= x; xi++) {
+						if (xi + radiusX < width)
+							addFine(data, offsetSegment, columnSegment + (xi + radiusX - col0)*numBins, numFine, 1);
+						if (xi - radiusX - 1 >= 0)
+							addFine(data, offsetSegment, columnSegment + (xi - radiusX - 1 - col0)*numBins, numFine, -1);
+					}
+				}
+				data[offsetUpdated + coarse] = x;
+
+				// Find the median inside the fine segment
+				int fine = 0;
+				while (count + data[offsetSegment + fine] < threshold) {
+					count += data[offsetSegment + fine++];
+				}
+				data[offsetMedian + x - x0] = (coarse << fineBits) | fine;
+			}
+
+			writeRow(output, y, x0, x1, min, step, data, offsetMedian);
+		}
+	}
+
+	/**
+	 * Adds or removes the values in a row to the column histograms
+	 */
+	private static void updateColumns( int[] data, int offsetValues, int numColumns, int fineBits,
+									   int numCoarse, int numBins, int offsetFine, int amount ) {
+		for (int col = 0; col < numColumns; col++) {
+			int value = data[offsetValues + col];
+			data[col*numCoarse + (value >> fineBits)] += amount;
+			data[offsetFine + col*numBins + value] += amount;
+		}
+	}
+
+	private static void addCoarse( int[] data, int offsetKernel, int offsetColumn, int numCoarse, int amount ) {
+		for (int i = 0; i < numCoarse; i++) {
+			data[offsetKernel + i] += amount*data[offsetColumn + i];
+		}
+	}
+
+	private static void addFine( int[] data, int offsetSegment, int offsetColumn, int numFine, int amount ) {
+		for (int i = 0; i < numFine; i++) {
+			data[offsetSegment + i] += amount*data[offsetColumn + i];
+		}
+	}
+
+	/**
+	 * Copies the values in a row into the work array. Floating point values are quantized.
+	 */
+	private static void readRow( ImageGray<?> input, int y, int col0, int col1, float min, float step,
+								 int[] data, int offset ) {
+		int index = input.startIndex + y*input.stride + col0;
+		if (input instanceof GrayU8) {
+			byte[] pixels = ((GrayU8)input).data;
+			for (int x = col0; x < col1; x++) {
+				data[offset++] = pixels[index++] & 0xFF;
+			}
+		} else if (input instanceof GrayU16) {
+			short[] pixels = ((GrayU16)input).data;
+			for (int x = col0; x < col1; x++) {
+				data[offset++] = pixels[index++] & 0xFFFF;
+			}
+		} else {
+			float[] pixels = ((GrayF32)input).data;
+			float scale = step == 0.0f ? 0.0f : 1.0f/step;
+			for (int x = col0; x < col1; x++) {
+				data[offset++] = (int)((pixels[index++] - min)*scale + 0.5f);
+			}
+		}
+	}
+
+	/**
+	 * Copies the found median values into the output image
+	 */
+	private static void writeRow( ImageGray<?> output, int y, int x0, int x1, float min, float step,
+								  int[] data, int offset ) {
+		int index = output.startIndex + y*output.stride + x0;
+		if (output instanceof GrayU8) {
+			byte[] pixels = ((GrayU8)output).data;
+			for (int x = x0; x < x1; x++) {
+				pixels[index++] = (byte)data[offset++];
+			}
+		} else if (output instanceof GrayU16) {
+			short[] pixels = ((GrayU16)output).data;
+			for (int x = x0; x < x1; x++) {
+				pixels[index++] = (short)data[offset++];
+			}
+		} else {
+			float[] pixels = ((GrayF32)output).data;
+			for (int x = x0; x < x1; x++) {
+				pixels[index++] = min + data[offset++]*step;
+			}
+		}
+	}
+}
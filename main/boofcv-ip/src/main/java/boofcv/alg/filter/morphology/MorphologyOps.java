@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.morphology;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.morphology.impl.ImplMorphologyRect;
+import boofcv.alg.filter.morphology.impl.ImplMorphologyRect_MT;
+import boofcv.alg.misc.PixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.DogArray_F32;
+import org.ddogleg.struct.DogArray_I32;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>
+ * Gray scale morphological operations with a rectangular structuring element. Erode is the min value and dilate
+ * the max value inside a rectangle centered at each pixel with a width of 2*radiusX+1 and height of 2*radiusY+1.
+ * A line can be used by setting one of the radii to zero. Pixels outside the image are ignored. The cost of each
+ * pixel is constant, no matter how large the rectangle is. See {@link ImplMorphologyRect}.
+ * </p>
+ *
+ * <p>
+ * Binary images, where pixels are 0 or 1, can be processed too. For a 3x3 square the results are the same
+ * as {@link boofcv.alg.filter.binary.BinaryImageOps#erode8} and {@link boofcv.alg.filter.binary.BinaryImageOps#dilate8}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MorphologyOps {
+	/**
+	 * Erodes the image by finding the min value inside the rectangle.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Storage for output image. Can be the same instance as input. Modified.
+	 * @param radiusX Radius of the rectangle along the x-axis. Can be zero.
+	 * @param radiusY Radius of the rectangle along the y-axis. Can be zero.
+	 * @param storage (Optional) Storage for intermediate results. Can be null.
+	 * @param work (Optional) Storage for internal workspace. Can be null.
+	 * @return Output image.
+	 */
+	public static GrayU8 erode( GrayU8 input, @Nullable GrayU8 output, int radiusX, int radiusY,
+								@Nullable GrayU8 storage, @Nullable GrowArray<DogArray_I32> work ) {
+		output = InputSanityCheck.declareOrReshape(input, output);
+		filter(input, output, radiusX, radiusY, false, storage, work);
+		return output;
+	}
+
+	/**
+	 * Dilates the image by finding the max value inside the rectangle.
+	 *
+	 * @see #erode(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayU8 dilate( GrayU8 input, @Nullable GrayU8 output, int radiusX, int radiusY,
+								 @Nullable GrayU8 storage, @Nullable GrowArray<DogArray_I32> work ) {
+		output = InputSanityCheck.declareOrReshape(input, output);
+		filter(input, output, radiusX, radiusY, true, storage, work);
+		return output;
+	}
+
+	/**
+	 * Opening, an erode followed by a dilate. Removes bright regions which are smaller than the rectangle.
+	 *
+	 * @see #erode(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayU8 open( GrayU8 input, @Nullable GrayU8 output, int radiusX, int radiusY,
+							   @Nullable GrayU8 storage, @Nullable GrowArray<DogArray_I32> work ) {
+		output = InputSanityCheck.declareOrReshape(input, output);
+		filter(input, output, radiusX, radiusY, false, storage, work);
+		filter(output, output, radiusX, radiusY, true, storage, work);
+		return output;
+	}
+
+	/**
+	 * Closing, a dilate followed by an erode. Removes dark regions which are smaller than the rectangle.
+	 *
+	 * @see #erode(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayU8 close( GrayU8 input, @Nullable GrayU8 output, int radiusX, int radiusY,
+								@Nullable GrayU8 storage, @Nullable GrowArray<DogArray_I32> work ) {
+		output = InputSanityCheck.declareOrReshape(input, output);
+		filter(input, output, radiusX, radiusY, true, storage, work);
+		filter(output, output, radiusX, radiusY, false, storage, work);
+		return output;
+	}
+
+	/**
+	 * White top-hat, the input minus its opening. Bright features smaller than the rectangle are kept while
+	 * the slowly varying background is removed.
+	 *
+	 * @param output (Optional) Storage for output image. Can't be the same instance as input. Modified.
+	 * @see #erode(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayU8 topHatWhite( GrayU8 input, @Nullable GrayU8 output, int radiusX, int radiusY,
+									  @Nullable GrayU8 storage, @Nullable GrowArray<DogArray_I32> work ) {
+		if (output == input)
+			throw new IllegalArgumentException("Output can't be the same instance as input");
+		output = open(input, output, radiusX, radiusY, storage, work);
+		// The opening is never more than the input so the absolute difference is the same as subtracting
+		PixelMath.diffAbs(input, output, output);
+		return output;
+	}
+
+	/**
+	 * Black top-hat, the closing minus the input. Dark features smaller than the rectangle are found.
+	 *
+	 * @param output (Optional) Storage for output image. Can't be the same instance as input. Modified.
+	 * @see #erode(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayU8 topHatBlack( GrayU8 input, @Nullable GrayU8 output, int radiusX, int radiusY,
+									  @Nullable GrayU8 storage, @Nullable GrowArray<DogArray_I32> work ) {
+		if (output == input)
+			throw new IllegalArgumentException("Output can't be the same instance as input");
+		output = close(input, output, radiusX, radiusY, storage, work);
+		PixelMath.diffAbs(input, output, output);
+		return output;
+	}
+
+	/**
+	 * Erodes the image by finding the min value inside the rectangle.
+	 *
+	 * @see #erode(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayF32 erode( GrayF32 input, @Nullable GrayF32 output, int radiusX, int radiusY,
+								 @Nullable GrayF32 storage, @Nullable GrowArray<DogArray_F32> work ) {
+		output = InputSanityCheck.declareOrReshape(input, output);
+		filter(input, output, radiusX, radiusY, false, storage, work);
+		return output;
+	}
+
+	/**
+	 * Dilates the image by finding the max value inside the rectangle.
+	 *
+	 * @see #erode(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayF32 dilate( GrayF32 input, @Nullable GrayF32 output, int radiusX, int radiusY,
+								  @Nullable GrayF32 storage, @Nullable GrowArray<DogArray_F32> work ) {
+		output = InputSanityCheck.declareOrReshape(input, output);
+		filter(input, output, radiusX, radiusY, true, storage, work);
+		return output;
+	}
+
+	/**
+	 * Opening, an erode followed by a dilate. Removes bright regions which are smaller than the rectangle.
+	 *
+	 * @see #erode(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayF32 open( GrayF32 input, @Nullable GrayF32 output, int radiusX, int radiusY,
+								@Nullable GrayF32 storage, @Nullable GrowArray<DogArray_F32> work ) {
+		output = InputSanityCheck.declareOrReshape(input, output);
+		filter(input, output, radiusX, radiusY, false, storage, work);
+		filter(output, output, radiusX, radiusY, true, storage, work);
+		return output;
+	}
+
+	/**
+	 * Closing, a dilate followed by an erode. Removes dark regions which are smaller than the rectangle.
+	 *
+	 * @see #erode(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayF32 close( GrayF32 input, @Nullable GrayF32 output, int radiusX, int radiusY,
+								 @Nullable GrayF32 storage, @Nullable GrowArray<DogArray_F32> work ) {
+		output = InputSanityCheck.declareOrReshape(input, output);
+		filter(input, output, radiusX, radiusY, true, storage, work);
+		filter(output, output, radiusX, radiusY, false, storage, work);
+		return output;
+	}
+
+	/**
+	 * White top-hat, the input minus its opening.
+	 *
+	 * @see #topHatWhite(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayF32 topHatWhite( GrayF32 input, @Nullable GrayF32 output, int radiusX, int radiusY,
+									   @Nullable GrayF32 storage, @Nullable GrowArray<DogArray_F32> work ) {
+		if (output == input)
+			throw new IllegalArgumentException("Output can't be the same instance as input");
+		output = open(input, output, radiusX, radiusY, storage, work);
+		PixelMath.subtract(input, output, output);
+		return output;
+	}
+
+	/**
+	 * Black top-hat, the closing minus the input.
+	 *
+	 * @see #topHatBlack(GrayU8, GrayU8, int, int, GrayU8, GrowArray)
+	 */
+	public static GrayF32 topHatBlack( GrayF32 input, @Nullable GrayF32 output, int radiusX, int radiusY,
+									   @Nullable GrayF32 storage, @Nullable GrowArray<DogArray_F32> work ) {
+		if (output == input)
+			throw new IllegalArgumentException("Output can't be the same instance as input");
+		output = close(input, output, radiusX, radiusY, storage, work);
+		PixelMath.subtract(output, input, output);
+		return output;
+	}
+
+	private static void filter( GrayU8 input, GrayU8 output, int radiusX, int radiusY, boolean dilate,
+								@Nullable GrayU8 storage, @Nullable GrowArray<DogArray_I32> work ) {
+		checkRadius(radiusX, radiusY);
+
+		// A line only needs to be filtered in one direction
+		if (radiusY == 0) {
+			horizontal(input, output, radiusX, dilate, work);
+		} else if (radiusX == 0) {
+			vertical(input, output, radiusY, dilate, work);
+		} else {
+			storage = InputSanityCheck.declareOrReshape(input, storage);
+			horizontal(input, storage, radiusX, dilate, work);
+			vertical(storage, output, radiusY, dilate, work);
+		}
+	}
+
+	private static void filter( GrayF32 input, GrayF32 output, int radiusX, int radiusY, boolean dilate,
+								@Nullable GrayF32 storage, @Nullable GrowArray<DogArray_F32> work ) {
+		checkRadius(radiusX, radiusY);
+
+		if (radiusY == 0) {
+			horizontal(input, output, radiusX, dilate, work);
+		} else if (radiusX == 0) {
+			vertical(input, output, radiusY, dilate, work);
+		} else {
+			storage = InputSanityCheck.declareOrReshape(input, storage);
+			horizontal(input, storage, radiusX, dilate, work);
+			vertical(storage, output, radiusY, dilate, work);
+		}
+	}
+
+	private static void checkRadius( int radiusX, int radiusY ) {
+		if (radiusX < 0 || radiusY < 0)
+			throw new IllegalArgumentException("Radius must be >= 0");
+	}
+
+	private static void horizontal( GrayU8 input, GrayU8 output, int radius, boolean dilate,
+									@Nullable GrowArray<DogArray_I32> work ) {
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplMorphologyRect_MT.horizontal(input, output, radius, dilate, work);
+		} else {
+			ImplMorphologyRect.horizontal(input, output, radius, dilate, work);
+		}
+	}
+
+	private static void vertical( GrayU8 input, GrayU8 output, int radius, boolean dilate,
+								  @Nullable GrowArray<DogArray_I32> work ) {
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplMorphologyRect_MT.vertical(input, output, radius, dilate, work);
+		} else {
+			ImplMorphologyRect.vertical(input, output, radius, dilate, work);
+		}
+	}
+
+	private static void horizontal( GrayF32 input, GrayF32 output, int radius, boolean dilate,
+									@Nullable GrowArray<DogArray_F32> work ) {
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplMorphologyRect_MT.horizontal(input, output, radius, dilate, work);
+		} else {
+			ImplMorphologyRect.horizontal(input, output, radius, dilate, work);
+		}
+	}
+
+	private static void vertical( GrayF32 input, GrayF32 output, int radius, boolean dilate,
+								  @Nullable GrowArray<DogArray_F32> work ) {
+		if (BoofConcurrency.USE_CONCURRENT) {
+			ImplMorphologyRect_MT.vertical(input, output, radius, dilate, work);
+		} else {
+			ImplMorphologyRect.vertical(input, output, radius, dilate, work);
+		}
+	}
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.morphology.impl;
+
+import boofcv.misc.BoofMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.DogArray_F32;
+import org.ddogleg.struct.DogArray_I32;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
+
+/**
+ * <p>
+ * Computes the min (erode) or max (dilate) inside a rectangular region using the van Herk/Gil-Werman algorithm.
+ * The rectangle is separable, so the image is first filtered along its rows then along its columns. Along each
+ * line it is split into blocks the size of the window. The min/max of any window is found from the suffix inside
+ * one block and the prefix inside the next block, making the cost constant per pixel no matter how large the
+ * window is. Pixels outside the image are ignored.
+ * </p>
+ *
+ * <p>
+ * Work arrays are declared to be twice the length of a line plus the window's padding. The first half holds the
+ * padded line and the output, the second half the suffix min/max.
+ * </p>
+ *
+ * <p>
+ * Walking down a single column would jump an entire row in memory with every pixel. Instead the vertical pass
+ * processes {@link #BLOCK_COLUMNS} columns at once. The block is copied into the work array one row at a time and
+ * every step of the algorithm is applied to a full row of the block, with one prefix and suffix for each column.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplMorphologyRect {
+	/** Number of columns which are filtered together in the vertical pass */
+	public static final int BLOCK_COLUMNS = 64;
+
+	/**
+	 * Filters along each row
+	 *
+	 * @param radius Radius of the window. Width is 2*radius+1
+	 * @param dilate If true the max is found. Otherwise the min.
+	 */
+	public static void horizontal( GrayU8 input, GrayU8 output, int radius, boolean dilate,
+								   @Nullable GrowArray<DogArray_I32> workspaces ) {
+		final int lineLength = input.width + 2*radius;
+		workspaces = BoofMiscOps.checkDeclare(workspaces, DogArray_I32::new);
+		//CONCURRENT_REMOVE_BELOW
+		DogArray_I32 workspace = workspaces.grow();
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, input.height, workspaces, (workspace, y0, y1) -> {
+		final int y0 = 0, y1 = input.height;
+		int[] line = BoofMiscOps.checkDeclare(workspace, 2*lineLength, false);
+
+		for (int y = y0; y < y1; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			for (int x = 0; x < input.width; x++) {
+				line[radius + x] = input.data[indexIn++] & 0xFF;
+			}
+
+			if (dilate)
+				maxLine(line, input.width, radius);
+			else
+				minLine(line, input.width, radius);
+
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0; x < input.width; x++) {
+				output.data[indexOut++] = (byte)line[x];
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Filters along each column
+	 *
+	 * @param radius Radius of the window. Height is 2*radius+1
+	 * @param dilate If true the max is found. Otherwise the min.
+	 */
+	public static void vertical( GrayU8 input, GrayU8 output, int radius, boolean dilate,
+								 @Nullable GrowArray<DogArray_I32> workspaces ) {
+		final int lineLength = input.height + 2*radius;
+		workspaces = BoofMiscOps.checkDeclare(workspaces, DogArray_I32::new);
+		//CONCURRENT_REMOVE_BELOW
+		DogArray_I32 workspace = workspaces.grow();
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, input.width, workspaces, (workspace, x0, x1) -> {
+		final int x0 = 0, x1 = input.width;
+		int[] work = BoofMiscOps.checkDeclare(workspace, (2*lineLength + 1)*BLOCK_COLUMNS, false);
+
+		for (int blockX = x0; blockX < x1; blockX += BLOCK_COLUMNS) {
+			int columns = Math.min(BLOCK_COLUMNS, x1 - blockX);
+
+			for (int y = 0; y < input.height; y++) {
+				int indexIn = input.startIndex + y*input.stride + blockX;
+				int indexWork = (radius + y)*columns;
+				for (int i = 0; i < columns; i++) {
+					work[indexWork + i] = input.data[indexIn + i] & 0xFF;
+				}
+			}
+
+			if (dilate)
+				maxColumns(work, columns, input.height, radius);
+			else
+				minColumns(work, columns, input.height, radius);
+
+			for (int y = 0; y < input.height; y++) {
+				int indexOut = output.startIndex + y*output.stride + blockX;
+				int indexWork = y*columns;
+				for (int i = 0; i < columns; i++) {
+					output.data[indexOut + i] = (byte)work[indexWork + i];
+				}
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Filters along each row
+	 *
+	 * @param radius Radius of the window. Width is 2*radius+1
+	 * @param dilate If true the max is found. Otherwise the min.
+	 */
+	public static void horizontal( GrayF32 input, GrayF32 output, int radius, boolean dilate,
+								   @Nullable GrowArray<DogArray_F32> workspaces ) {
+		final int lineLength = input.width + 2*radius;
+		workspaces = BoofMiscOps.checkDeclare(workspaces, DogArray_F32::new);
+		//CONCURRENT_REMOVE_BELOW
+		DogArray_F32 workspace = workspaces.grow();
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, input.height, workspaces, (workspace, y0, y1) -> {
+		final int y0 = 0, y1 = input.height;
+		float[] line = BoofMiscOps.checkDeclare(workspace, 2*lineLength, false);
+
+		for (int y = y0; y < y1; y++) {
+			System.arraycopy(input.data, input.startIndex + y*input.stride, line, radius, input.width);
+
+			if (dilate)
+				maxLine(line, input.width, radius);
+			else
+				minLine(line, input.width, radius);
+
+			System.arraycopy(line, 0, output.data, output.startIndex + y*output.stride, input.width);
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Filters along each column
+	 *
+	 * @param radius Radius of the window. Height is 2*radius+1
+	 * @param dilate If true the max is found. Otherwise the min.
+	 */
+	public static void vertical( GrayF32 input, GrayF32 output, int radius, boolean dilate,
+								 @Nullable GrowArray<DogArray_F32> workspaces ) {
+		final int lineLength = input.height + 2*radius;
+		workspaces = BoofMiscOps.checkDeclare(workspaces, DogArray_F32::new);
+		//CONCURRENT_REMOVE_BELOW
+		DogArray_F32 workspace = workspaces.grow();
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, input.width, workspaces, (workspace, x0, x1) -> {
+		final int x0 = 0, x1 = input.width;
+		float[] work = BoofMiscOps.checkDeclare(workspace, (2*lineLength + 1)*BLOCK_COLUMNS, false);
+
+		for (int blockX = x0; blockX < x1; blockX += BLOCK_COLUMNS) {
+			int columns = Math.min(BLOCK_COLUMNS, x1 - blockX);
+
+			for (int y = 0; y < input.height; y++) {
+				System.arraycopy(input.data, input.startIndex + y*input.stride + blockX,
+						work, (radius + y)*columns, columns);
+			}
+
+			if (dilate)
+				maxColumns(work, columns, input.height, radius);
+			else
+				minColumns(work, columns, input.height, radius);
+
+			for (int y = 0; y < input.height; y++) {
+				System.arraycopy(work, y*columns, output.data, output.startIndex + y*output.stride + blockX, columns);
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Finds the min inside the window centered at each element in the line
+	 *
+	 * @param line Values start at index 'radius'. The output is written starting at index 0.
+	 * @param length Number of values in the line
+	 */
+	static void minLine( int[] line, int length, int radius ) {
+		final int window = 2*radius + 1;
+		final int n = length + 2*radius;
+		Arrays.fill(line, 0, radius, Integer.MAX_VALUE);
+		Arrays.fill(line, radius + length, n, Integer.MAX_VALUE);
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n) - 1;
+			int suffix = line[n + end] = line[end];
+			for (int i = end - 1; i >= start; i--) {
+				line[n + i] = suffix = Math.min(suffix, line[i]);
+			}
+		}
+
+		// The output can be written over the input since the input has already been read
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n);
+			int prefix = Integer.MAX_VALUE;
+			for (int i = start; i < end; i++) {
+				prefix = Math.min(prefix, line[i]);
+				int x = i - window + 1;
+				if (x >= 0)
+					line[x] = Math.min(line[n + x], prefix);
+			}
+		}
+	}
+
+	/**
+	 * Finds the max inside the window centered at each element in the line
+	 *
+	 * @see #minLine(int[], int, int)
+	 */
+	static void maxLine( int[] line, int length, int radius ) {
+		final int window = 2*radius + 1;
+		final int n = length + 2*radius;
+		Arrays.fill(line, 0, radius, Integer.MIN_VALUE);
+		Arrays.fill(line, radius + length, n, Integer.MIN_VALUE);
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n) - 1;
+			int suffix = line[n + end] = line[end];
+			for (int i = end - 1; i >= start; i--) {
+				line[n + i] = suffix = Math.max(suffix, line[i]);
+			}
+		}
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n);
+			int prefix = Integer.MIN_VALUE;
+			for (int i = start; i < end; i++) {
+				prefix = Math.max(prefix, line[i]);
+				int x = i - window + 1;
+				if (x >= 0)
+					line[x] = Math.max(line[n + x], prefix);
+			}
+		}
+	}
+
+	/**
+	 * Finds the min inside the window centered at each element in the line
+	 *
+	 * @see #minLine(int[], int, int)
+	 */
+	static void minLine( float[] line, int length, int radius ) {
+		final int window = 2*radius + 1;
+		final int n = length + 2*radius;
+		Arrays.fill(line, 0, radius, Float.MAX_VALUE);
+		Arrays.fill(line, radius + length, n, Float.MAX_VALUE);
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n) - 1;
+			float suffix = line[n + end] = line[end];
+			for (int i = end - 1; i >= start; i--) {
+				line[n + i] = suffix = Math.min(suffix, line[i]);
+			}
+		}
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n);
+			float prefix = Float.MAX_VALUE;
+			for (int i = start; i < end; i++) {
+				prefix = Math.min(prefix, line[i]);
+				int x = i - window + 1;
+				if (x >= 0)
+					line[x] = Math.min(line[n + x], prefix);
+			}
+		}
+	}
+
+	/**
+	 * Finds the max inside the window centered at each element in the line
+	 *
+	 * @see #minLine(int[], int, int)
+	 */
+	static void maxLine( float[] line, int length, int radius ) {
+		final int window = 2*radius + 1;
+		final int n = length + 2*radius;
+		Arrays.fill(line, 0, radius, -Float.MAX_VALUE);
+		Arrays.fill(line, radius + length, n, -Float.MAX_VALUE);
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n) - 1;
+			float suffix = line[n + end] = line[end];
+			for (int i = end - 1; i >= start; i--) {
+				line[n + i] = suffix = Math.max(suffix, line[i]);
+			}
+		}
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n);
+			float prefix = -Float.MAX_VALUE;
+			for (int i = start; i < end; i++) {
+				prefix = Math.max(prefix, line[i]);
+				int x = i - window + 1;
+				if (x >= 0)
+					line[x] = Math.max(line[n + x], prefix);
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link #minLine(int[], int, int)} but applied to a block of columns at once. The work array contains
+	 * the padded lines stored row by row, followed by the suffix for each row, followed by the prefix of each column.
+	 *
+	 * @param work Values of row 'y' start at index (radius + y)*columns. The output of row 'y' is written at y*columns.
+	 * @param columns Number of columns in the block
+	 * @param length Number of values in each column
+	 */
+	static void minColumns( int[] work, int columns, int length, int radius ) {
+		final int window = 2*radius + 1;
+		final int n = length + 2*radius;
+		final int offsetSuffix = n*columns;
+		final int offsetPrefix = 2*n*columns;
+		Arrays.fill(work, 0, radius*columns, Integer.MAX_VALUE);
+		Arrays.fill(work, (radius + length)*columns, n*columns, Integer.MAX_VALUE);
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n) - 1;
+			System.arraycopy(work, end*columns, work, offsetSuffix + end*columns, columns);
+			for (int i = end - 1; i >= start; i--) {
+				int indexLine = i*columns;
+				int indexSuffix = offsetSuffix + indexLine;
+				for (int k = 0; k < columns; k++) {
+					work[indexSuffix + k] = Math.min(work[indexSuffix + columns + k], work[indexLine + k]);
+				}
+			}
+		}
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n);
+			Arrays.fill(work, offsetPrefix, offsetPrefix + columns, Integer.MAX_VALUE);
+			for (int i = start; i < end; i++) {
+				int indexLine = i*columns;
+				for (int k = 0; k < columns; k++) {
+					work[offsetPrefix + k] = Math.min(work[offsetPrefix + k], work[indexLine + k]);
+				}
+				int y = i - window + 1;
+				if (y < 0)
+					continue;
+				int indexOut = y*columns;
+				int indexSuffix = offsetSuffix + indexOut;
+				for (int k = 0; k < columns; k++) {
+					work[indexOut + k] = Math.min(work[indexSuffix + k], work[offsetPrefix + k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the max inside the window centered at each element in a block of columns
+	 *
+	 * @see #minColumns(int[], int, int, int)
+	 */
+	static void maxColumns( int[] work, int columns, int length, int radius ) {
+		final int window = 2*radius + 1;
+		final int n = length + 2*radius;
+		final int offsetSuffix = n*columns;
+		final int offsetPrefix = 2*n*columns;
+		Arrays.fill(work, 0, radius*columns, Integer.MIN_VALUE);
+		Arrays.fill(work, (radius + length)*columns, n*columns, Integer.MIN_VALUE);
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n) - 1;
+			System.arraycopy(work, end*columns, work, offsetSuffix + end*columns, columns);
+			for (int i = end - 1; i >= start; i--) {
+				int indexLine = i*columns;
+				int indexSuffix = offsetSuffix + indexLine;
+				for (int k = 0; k < columns; k++) {
+					work[indexSuffix + k] = Math.max(work[indexSuffix + columns + k], work[indexLine + k]);
+				}
+			}
+		}
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n);
+			Arrays.fill(work, offsetPrefix, offsetPrefix + columns, Integer.MIN_VALUE);
+			for (int i = start; i < end; i++) {
+				int indexLine = i*columns;
+				for (int k = 0; k < columns; k++) {
+					work[offsetPrefix + k] = Math.max(work[offsetPrefix + k], work[indexLine + k]);
+				}
+				int y = i - window + 1;
+				if (y < 0)
+					continue;
+				int indexOut = y*columns;
+				int indexSuffix = offsetSuffix + indexOut;
+				for (int k = 0; k < columns; k++) {
+					work[indexOut + k] = Math.max(work[indexSuffix + k], work[offsetPrefix + k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the min inside the window centered at each element in a block of columns
+	 *
+	 * @see #minColumns(int[], int, int, int)
+	 */
+	static void minColumns( float[] work, int columns, int length, int radius ) {
+		final int window = 2*radius + 1;
+		final int n = length + 2*radius;
+		final int offsetSuffix = n*columns;
+		final int offsetPrefix = 2*n*columns;
+		Arrays.fill(work, 0, radius*columns, Float.MAX_VALUE);
+		Arrays.fill(work, (radius + length)*columns, n*columns, Float.MAX_VALUE);
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n) - 1;
+			System.arraycopy(work, end*columns, work, offsetSuffix + end*columns, columns);
+			for (int i = end - 1; i >= start; i--) {
+				int indexLine = i*columns;
+				int indexSuffix = offsetSuffix + indexLine;
+				for (int k = 0; k < columns; k++) {
+					work[indexSuffix + k] = Math.min(work[indexSuffix + columns + k], work[indexLine + k]);
+				}
+			}
+		}
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n);
+			Arrays.fill(work, offsetPrefix, offsetPrefix + columns, Float.MAX_VALUE);
+			for (int i = start; i < end; i++) {
+				int indexLine = i*columns;
+				for (int k = 0; k < columns; k++) {
+					work[offsetPrefix + k] = Math.min(work[offsetPrefix + k], work[indexLine + k]);
+				}
+				int y = i - window + 1;
+				if (y < 0)
+					continue;
+				int indexOut = y*columns;
+				int indexSuffix = offsetSuffix + indexOut;
+				for (int k = 0; k < columns; k++) {
+					work[indexOut + k] = Math.min(work[indexSuffix + k], work[offsetPrefix + k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the max inside the window centered at each element in a block of columns
+	 *
+	 * @see #minColumns(int[], int, int, int)
+	 */
+	static void maxColumns( float[] work, int columns, int length, int radius ) {
+		final int window = 2*radius + 1;
+		final int n = length + 2*radius;
+		final int offsetSuffix = n*columns;
+		final int offsetPrefix = 2*n*columns;
+		Arrays.fill(work, 0, radius*columns, -Float.MAX_VALUE);
+		Arrays.fill(work, (radius + length)*columns, n*columns, -Float.MAX_VALUE);
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n) - 1;
+			System.arraycopy(work, end*columns, work, offsetSuffix + end*columns, columns);
+			for (int i = end - 1; i >= start; i--) {
+				int indexLine = i*columns;
+				int indexSuffix = offsetSuffix + indexLine;
+				for (int k = 0; k < columns; k++) {
+					work[indexSuffix + k] = Math.max(work[indexSuffix + columns + k], work[indexLine + k]);
+				}
+			}
+		}
+
+		for (int start = 0; start < n; start += window) {
+			int end = Math.min(start + window, n);
+			Arrays.fill(work, offsetPrefix, offsetPrefix + columns, -Float.MAX_VALUE);
+			for (int i = start; i < end; i++) {
+				int indexLine = i*columns;
+				for (int k = 0; k < columns; k++) {
+					work[offsetPrefix + k] = Math.max(work[offsetPrefix + k], work[indexLine + k]);
+				}
+				int y = i - window + 1;
+				if (y < 0)
+					continue;
+				int indexOut = y*columns;
+				int indexSuffix = offsetSuffix + indexOut;
+				for (int k = 0; k < columns; k++) {
+					work[indexOut + k] = Math.max(work[indexSuffix + k], work[offsetPrefix + k]);
+				}
+			}
+		}
+	}
+}
@@ -18,6 +18,7 @@
 
 package boofcv.alg.misc;
 
+import boofcv.alg.misc.ImageStatisticsFused.Statistic;
 import boofcv.struct.image.ImageGray;
 import org.jetbrains.annotations.Nullable;
 
@@ -76,34 +77,33 @@ public class ImageNormalization {
 		if (output.getDataType().isInteger())
 			throw new IllegalArgumentException("Output must be a floating point image");
 
-		// Numerical errors is a concern and if you sum up the input it could overflow
-		double scale = GImageStatistics.maxAbs(input);
+		// All the statistics are found in a single pass. Sums are computed using doubles so overflow isn't an issue
+		var stats = new ImageStatisticsFused(Statistic.MIN_MAX, Statistic.MEAN);
+		stats.process(input);
+		double scale = stats.getMaxAbs();
+
+		if (parameters == null)
+			parameters = new NormalizeParameters();
+
 		if (scale != 0.0) {
-			GPixelMath.multiply(input, 1.0f/scale, output);
-			// Work with this scaled image
-			double mean = GImageStatistics.mean(output);
-			GPixelMath.minus(output, mean, output);
-			double scale2;
+			double mean = stats.getMean();
+			double divisor;
 			if (input.getDataType().isSigned()) {
-				scale2 = GImageStatistics.maxAbs(output);
+				divisor = Math.max(Math.abs(stats.getMin() - mean), Math.abs(stats.getMax() - mean));
 			} else {
 				// image is scaled from 0 to 1.0
-				scale2 = mean < 0.5 ? 1.0 - mean : mean;
-			}
-			if (scale2 != 0.0)
-				GPixelMath.multiply(output, 1.0f/scale2, output);
-			else
-				scale2 = 1.0;
-
-			if (parameters != null) {
-				parameters.offset = -mean*scale;
-				parameters.divisor = scale*scale2;
+				double meanScaled = mean/scale;
+				divisor = scale*(meanScaled < 0.5 ? 1.0 - meanScaled : meanScaled);
 			}
+			if (divisor == 0.0)
+				divisor = scale;
+
+			parameters.offset = -mean;
+			parameters.divisor = divisor;
+			applyFloat(input, parameters, output);
 		} else {
-			if (parameters != null) {
-				parameters.offset = 0.0;
-				parameters.divisor = 1.0;
-			}
+			parameters.offset = 0.0;
+			parameters.divisor = 1.0;
 		}
 	}
 
@@ -119,29 +119,31 @@ public class ImageNormalization {
 		if (output.getDataType().isInteger())
 			throw new IllegalArgumentException("Output must be a floating point image");
 
-		// avoid overflow
-		double scale = GImageStatistics.maxAbs(input);
-		if (scale != 0.0) {
-			GPixelMath.multiply(input, 1.0f/scale, output);
-			double mean = GImageStatistics.mean(output);
-			double stdev = Math.sqrt(GImageStatistics.variance(output, mean));
+		// All the statistics are found in a single pass. Sums are computed using doubles so overflow isn't an issue
+		var stats = new ImageStatisticsFused(Statistic.MIN_MAX, Statistic.VARIANCE);
+		stats.process(input);
+		double scale = stats.getMaxAbs();
 
-			GPixelMath.minus(output, mean, output);
-			if (stdev != 0.0) {
-				GPixelMath.multiply(output, 1.0f/stdev, output);
-			} else {
-				stdev = 1.0;
-			}
+		if (parameters == null)
+			parameters = new NormalizeParameters();
 
-			if (parameters != null) {
-				parameters.offset = -mean*scale;
-				parameters.divisor = stdev*scale;
-			}
+		if (scale != 0.0) {
+			double stdev = stats.getStdev();
+			parameters.offset = -stats.getMean();
+			parameters.divisor = stdev != 0.0 ? stdev : scale;
+			applyFloat(input, parameters, output);
 		} else {
-			if (parameters != null) {
-				parameters.offset = 0.0;
-				parameters.divisor = 1.0;
-			}
+			parameters.offset = 0.0;
+			parameters.divisor = 1.0;
 		}
 	}
+
+	/**
+	 * Applies the normalization while scaling first. Unlike {@link #apply}, the offset isn't rounded when the
+	 * input is an integer image.
+	 */
+	private static void applyFloat( ImageGray input, NormalizeParameters parameters, ImageGray output ) {
+		GPixelMath.multiply(input, 1.0/parameters.divisor, output);
+		GPixelMath.plus(output, parameters.offset/parameters.divisor, output);
+	}
 }
@@ -22,6 +22,8 @@ import boofcv.alg.InputSanityCheck;
 import boofcv.alg.misc.impl.ImplImageStatistics;
 import boofcv.alg.misc.impl.ImplImageStatistics_MT;
 import boofcv.concurrency.BoofConcurrency;
+import boofcv.simd.BoofSimd;
+import boofcv.simd.SimdKernels;
 import boofcv.struct.image.*;
 
 import javax.annotation.Generated;
@@ -45,6 +47,10 @@ public class ImageStatistics {
 	 * @return Minimum pixel value.
 	 */
 	public static int min( GrayU8 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.min_U8(input.data, input.startIndex, input.height, input.width, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.minU(input.data, input.startIndex, input.height, input.width, input.stride);
@@ -60,6 +66,10 @@ public class ImageStatistics {
 	 * @return Minimum pixel value.
 	 */
 	public static int min( InterleavedU8 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.min_U8(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.minU(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
@@ -75,6 +85,10 @@ public class ImageStatistics {
 	 * @return Maximum pixel value.
 	 */
 	public static int max( GrayU8 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.max_U8(input.data, input.startIndex, input.height, input.width, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.maxU(input.data, input.startIndex, input.height, input.width, input.stride);
@@ -90,6 +104,10 @@ public class ImageStatistics {
 	 * @return Maximum pixel value.
 	 */
 	public static int max( InterleavedU8 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.max_U8(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.maxU(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
@@ -205,6 +223,10 @@ public class ImageStatistics {
 	 */
 	public static int sum( GrayU8 input ) {
 
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.sum_U8(input.data, input.startIndex, input.height, input.width, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.sum(input);
@@ -243,6 +265,10 @@ public class ImageStatistics {
 	 */
 	public static int sum( InterleavedU8 input ) {
 
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.sum_U8(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.sum(input);
@@ -906,6 +932,10 @@ public class ImageStatistics {
 	 * @return Minimum pixel value.
 	 */
 	public static int min( GrayS16 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.min_S16(input.data, input.startIndex, input.height, input.width, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.min(input.data, input.startIndex, input.height, input.width, input.stride);
@@ -921,6 +951,10 @@ public class ImageStatistics {
 	 * @return Minimum pixel value.
 	 */
 	public static int min( InterleavedS16 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.min_S16(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.min(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
@@ -936,6 +970,10 @@ public class ImageStatistics {
 	 * @return Maximum pixel value.
 	 */
 	public static int max( GrayS16 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.max_S16(input.data, input.startIndex, input.height, input.width, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.max(input.data, input.startIndex, input.height, input.width, input.stride);
@@ -951,6 +989,10 @@ public class ImageStatistics {
 	 * @return Maximum pixel value.
 	 */
 	public static int max( InterleavedS16 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.max_S16(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.max(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
@@ -1066,6 +1108,10 @@ public class ImageStatistics {
 	 */
 	public static int sum( GrayS16 input ) {
 
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.sum_S16(input.data, input.startIndex, input.height, input.width, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.sum(input);
@@ -1110,6 +1156,10 @@ public class ImageStatistics {
 	 */
 	public static int sum( InterleavedS16 input ) {
 
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.sum_S16(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.sum(input);
@@ -1791,6 +1841,10 @@ public class ImageStatistics {
 	 * @return Minimum pixel value.
 	 */
 	public static float min( GrayF32 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.min_F32(input.data, input.startIndex, input.height, input.width, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.min(input.data, input.startIndex, input.height, input.width, input.stride);
@@ -1806,6 +1860,10 @@ public class ImageStatistics {
 	 * @return Minimum pixel value.
 	 */
 	public static float min( InterleavedF32 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.min_F32(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.min(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
@@ -1821,6 +1879,10 @@ public class ImageStatistics {
 	 * @return Maximum pixel value.
 	 */
 	public static float max( GrayF32 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.max_F32(input.data, input.startIndex, input.height, input.width, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.max(input.data, input.startIndex, input.height, input.width, input.stride);
@@ -1836,6 +1898,10 @@ public class ImageStatistics {
 	 * @return Maximum pixel value.
 	 */
 	public static float max( InterleavedF32 input ) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.max_F32(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.max(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
@@ -1951,6 +2017,10 @@ public class ImageStatistics {
 	 */
 	public static float sum( GrayF32 input ) {
 
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.sum_F32(input.data, input.startIndex, input.height, input.width, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.sum(input);
@@ -1995,6 +2065,10 @@ public class ImageStatistics {
 	 */
 	public static float sum( InterleavedF32 input ) {
 
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null)
+			return simd.sum_F32(input.data, input.startIndex, input.height, input.width*input.numBands, input.stride);
+
 		int N = input.width*input.height;
 		if (BoofConcurrency.USE_CONCURRENT && N >= BoofConcurrency.SMALL_IMAGE) {
 			return ImplImageStatistics_MT.sum(input);
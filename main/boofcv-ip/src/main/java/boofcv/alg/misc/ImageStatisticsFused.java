@@ -0,0 +1,476 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.misc;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.*;
+import lombok.Getter;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.DogArray_I32;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>
+ * Computes several statistics of an image while only reading the image once. When multiple statistics are
+ * needed this is faster than calling the equivalent functions in {@link ImageStatistics}, which each read the
+ * entire image. Each row is copied into a small buffer and then every requested statistic is computed from the
+ * buffer while it's still in the cache. When concurrency is turned on each thread computes its own partial
+ * results for a block of rows, which are then merged.
+ * </p>
+ *
+ * <p>
+ * All the gray and interleaved image types are supported. Statistics of interleaved images are computed across
+ * all bands, just like in {@link ImageStatistics}. Variance is computed after subtracting the first pixel value
+ * to reduce numerical errors and is normalized by the number of elements. Statistics that were not requested
+ * are set to NaN.
+ * </p>
+ *
+ * <pre>
+ * var stats = new ImageStatisticsFused(Statistic.MIN_MAX, Statistic.VARIANCE);
+ * stats.process(image);
+ * double range = stats.getMax() - stats.getMin();
+ * double stdev = stats.getStdev();
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"NullAway.Init"})
+public class ImageStatisticsFused {
+	/** Statistics which can be computed */
+	public enum Statistic {
+		/** Minimum and maximum value */
+		MIN_MAX,
+		/** Sum and mean */
+		MEAN,
+		/** Variance. Also computes the sum and mean */
+		VARIANCE,
+		/** Histogram. See {@link #setHistogram} */
+		HISTOGRAM
+	}
+
+	// Which statistics are computed
+	boolean doMinMax, doMean, doVariance, doHistogram;
+
+	/** Lower bound of the histogram. Inclusive. */
+	@Getter double histogramMinimum = 0;
+	/** Upper bound of the histogram. Inclusive for integer images and exclusive for floating point images */
+	@Getter double histogramMaximum = 255;
+	/** Number of bins in the histogram */
+	@Getter int histogramBins = 256;
+
+	/** Number of elements which were examined */
+	@Getter long count;
+	/** Smallest value */
+	@Getter double min;
+	/** Largest value */
+	@Getter double max;
+	/** Sum of all the values */
+	@Getter double sum;
+	/** Mean of all the values */
+	@Getter double mean;
+	/** Variance of all the values */
+	@Getter double variance;
+	/** Histogram of values. Values outside the range are placed in the first or last bin */
+	@Getter final DogArray_I32 histogram = new DogArray_I32();
+
+	// Partial results from each block of rows
+	final GrowArray<Partial> partials = new GrowArray<>(Partial::new);
+
+	//------------------ Description of the image being processed
+	Object data;
+	boolean signed;
+	// true if the pixels are integers
+	boolean integerImage;
+	// true if rows are processed using ints instead of doubles
+	boolean intKernel;
+	int startIndex, stride, rows, columns;
+	// Value subtracted from each pixel when computing the variance
+	int shiftI;
+	double shiftF;
+	// Parameters for computing the histogram
+	int histMinI, histRangeI;
+	double histMinF, histRangeF, histScaleF;
+
+	/**
+	 * Specifies which statistics should be computed
+	 */
+	public ImageStatisticsFused( Statistic... statistics ) {
+		setStatistics(statistics);
+	}
+
+	/**
+	 * Specifies which statistics should be computed
+	 */
+	public void setStatistics( Statistic... statistics ) {
+		doMinMax = doMean = doVariance = doHistogram = false;
+		for (Statistic s : statistics) {
+			switch (s) {
+				case MIN_MAX -> doMinMax = true;
+				case MEAN -> doMean = true;
+				case VARIANCE -> doVariance = true;
+				case HISTOGRAM -> doHistogram = true;
+			}
+		}
+	}
+
+	/**
+	 * Specifies the range and number of bins in the histogram. For integer images the bin of a value is found
+	 * using the same equation as {@link ImageStatistics#histogramScaled}, so if the number of bins is equal to
+	 * maxValue - minValue + 1 then each value has its own bin.
+	 *
+	 * @param minValue Smallest value in the histogram
+	 * @param maxValue Largest value in the histogram
+	 * @param numBins Number of bins
+	 */
+	public void setHistogram( double minValue, double maxValue, int numBins ) {
+		if (maxValue <= minValue)
+			throw new IllegalArgumentException("maxValue must be greater than minValue");
+		if (numBins <= 0)
+			throw new IllegalArgumentException("numBins must be positive");
+		this.histogramMinimum = minValue;
+		this.histogramMaximum = maxValue;
+		this.histogramBins = numBins;
+	}
+
+	/**
+	 * Computes the requested statistics for the image
+	 *
+	 * @param image Gray or interleaved image. Not modified.
+	 */
+	public void process( ImageBase<?> image ) {
+		describeImage(image);
+
+		count = (long)rows*columns;
+		min = max = sum = mean = variance = Double.NaN;
+		histogram.reset();
+		if (doHistogram)
+			histogram.resize(histogramBins, 0);
+
+		if (count == 0)
+			return;
+
+		// Use the first value to shift all the other values and reduce numerical errors
+		if (intKernel) {
+			int[] first = new int[1];
+			readRow(startIndex, 1, first);
+			shiftI = first[0];
+			histMinI = (int)Math.floor(histogramMinimum);
+			histRangeI = (int)Math.floor(histogramMaximum) - histMinI + 1;
+		} else {
+			double[] first = new double[1];
+			readRow(startIndex, 1, first);
+			shiftF = first[0];
+			if (integerImage) {
+				histMinF = Math.floor(histogramMinimum);
+				histRangeF = Math.floor(histogramMaximum) - histMinF + 1;
+			} else {
+				histMinF = histogramMinimum;
+				histRangeF = histogramMaximum - histogramMinimum;
+			}
+			histScaleF = histogramBins/histRangeF;
+		}
+
+		if (BoofConcurrency.USE_CONCURRENT && count >= BoofConcurrency.SMALL_IMAGE) {
+			BoofConcurrency.loopBlocks(0, rows, partials, ( partial, y0, y1 ) -> processRows(y0, y1, partial));
+		} else {
+			partials.reset();
+			processRows(0, rows, partials.grow());
+		}
+
+		mergePartials();
+	}
+
+	/**
+	 * Extracts everything needed to read the image's rows
+	 */
+	void describeImage( ImageBase<?> image ) {
+		if (image instanceof ImageGray) {
+			var gray = (ImageGray<?>)image;
+			signed = gray.getDataType().isSigned();
+			columns = gray.width;
+		} else if (image instanceof ImageInterleaved) {
+			var inter = (ImageInterleaved<?>)image;
+			signed = inter.getDataType().isSigned();
+			columns = inter.width*inter.numBands;
+		} else {
+			throw new IllegalArgumentException("Only gray and interleaved images are supported");
+		}
+		startIndex = image.startIndex;
+		stride = image.stride;
+		rows = image.height;
+
+		if (image instanceof GrayI8) {
+			data = ((GrayI8<?>)image).data;
+		} else if (image instanceof InterleavedI8) {
+			data = ((InterleavedI8<?>)image).data;
+		} else if (image instanceof GrayI16) {
+			data = ((GrayI16<?>)image).data;
+		} else if (image instanceof InterleavedI16) {
+			data = ((InterleavedI16<?>)image).data;
+		} else if (image instanceof GrayS32) {
+			data = ((GrayS32)image).data;
+		} else if (image instanceof InterleavedS32) {
+			data = ((InterleavedS32)image).data;
+		} else if (image instanceof GrayS64) {
+			data = ((GrayS64)image).data;
+		} else if (image instanceof InterleavedS64) {
+			data = ((InterleavedS64)image).data;
+		} else if (image instanceof GrayF32) {
+			data = ((GrayF32)image).data;
+		} else if (image instanceof InterleavedF32) {
+			data = ((InterleavedF32)image).data;
+		} else if (image instanceof GrayF64) {
+			data = ((GrayF64)image).data;
+		} else if (image instanceof InterleavedF64) {
+			data = ((InterleavedF64)image).data;
+		} else {
+			throw new IllegalArgumentException("Unknown image type: " + image.getClass().getSimpleName());
+		}
+
+		// Squares of 32-bit and 64-bit integers can overflow a long so they are processed as floating point
+		intKernel = data instanceof byte[] || data instanceof short[];
+		integerImage = !(data instanceof float[] || data instanceof double[]);
+	}
+
+	/**
+	 * Computes the partial results for a block of rows
+	 */
+	void processRows( int y0, int y1, Partial partial ) {
+		partial.reset(doHistogram ? histogramBins : 0);
+
+		if (intKernel) {
+			partial.rowI.resize(columns);
+			int[] row = partial.rowI.data;
+			for (int y = y0; y < y1; y++) {
+				readRow(startIndex + y*stride, columns, row);
+				processRow(row, partial);
+			}
+		} else {
+			partial.rowF.resize(columns);
+			double[] row = partial.rowF.data;
+			for (int y = y0; y < y1; y++) {
+				readRow(startIndex + y*stride, columns, row);
+				processRow(row, partial);
+			}
+		}
+	}
+
+	void processRow( int[] row, Partial partial ) {
+		final int N = columns;
+		if (doMinMax) {
+			int min = row[0], max = row[0];
+			for (int i = 1; i < N; i++) {
+				min = Math.min(min, row[i]);
+				max = Math.max(max, row[i]);
+			}
+			partial.min = Math.min(partial.min, min);
+			partial.max = Math.max(partial.max, max);
+		}
+
+		if (doMean || doVariance) {
+			// The sum of squares can't overflow for 8-bit and 16-bit images
+			long sum = 0, sumSq = 0;
+			for (int i = 0; i < N; i++) {
+				int d = row[i] - shiftI;
+				sum += d;
+				sumSq += (long)d*d;
+			}
+			partial.sum += sum;
+			partial.sumSq += sumSq;
+		}
+
+		if (doHistogram) {
+			final int[] hist = partial.histogram.data;
+			final int lastBin = histogramBins - 1;
+			if (histRangeI == histogramBins) {
+				for (int i = 0; i < N; i++) {
+					int bin = row[i] - histMinI;
+					hist[bin < 0 ? 0 : Math.min(bin, lastBin)]++;
+				}
+			} else {
+				for (int i = 0; i < N; i++) {
+					int bin = (int)((long)histogramBins*(row[i] - histMinI)/histRangeI);
+					hist[bin < 0 ? 0 : Math.min(bin, lastBin)]++;
+				}
+			}
+		}
+	}
+
+	void processRow( double[] row, Partial partial ) {
+		final int N = columns;
+		if (doMinMax) {
+			double min = row[0], max = row[0];
+			for (int i = 1; i < N; i++) {
+				double v = row[i];
+				if (v < min)
+					min = v;
+				if (v > max)
+					max = v;
+			}
+			partial.min = Math.min(partial.min, min);
+			partial.max = Math.max(partial.max, max);
+		}
+
+		if (doMean || doVariance) {
+			double sum = 0, sumSq = 0;
+			for (int i = 0; i < N; i++) {
+				double d = row[i] - shiftF;
+				sum += d;
+				sumSq += d*d;
+			}
+			partial.sum += sum;
+			partial.sumSq += sumSq;
+		}
+
+		if (doHistogram) {
+			final int[] hist = partial.histogram.data;
+			final int lastBin = histogramBins - 1;
+			if (integerImage) {
+				// Divide instead of multiplying by the scale so that integer values land in the same bin
+				for (int i = 0; i < N; i++) {
+					int bin = (int)Math.floor((row[i] - histMinF)*histogramBins/histRangeF);
+					hist[bin < 0 ? 0 : Math.min(bin, lastBin)]++;
+				}
+			} else {
+				for (int i = 0; i < N; i++) {
+					int bin = (int)((row[i] - histMinF)*histScaleF);
+					hist[bin < 0 ? 0 : Math.min(bin, lastBin)]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Combines the results from each block of rows
+	 */
+	void mergePartials() {
+		double sumShifted = 0, sumSq = 0;
+		if (doMinMax) {
+			min = Double.MAX_VALUE;
+			max = -Double.MAX_VALUE;
+		}
+		for (int i = 0; i < partials.size(); i++) {
+			Partial p = partials.get(i);
+			if (doMinMax) {
+				min = Math.min(min, p.min);
+				max = Math.max(max, p.max);
+			}
+			sumShifted += p.sum;
+			sumSq += p.sumSq;
+			if (doHistogram) {
+				for (int bin = 0; bin < histogramBins; bin++) {
+					histogram.data[bin] += p.histogram.data[bin];
+				}
+			}
+		}
+
+		if (doMean || doVariance) {
+			double shift = intKernel ? shiftI : shiftF;
+			sum = sumShifted + shift*count;
+			mean = shift + sumShifted/count;
+			if (doVariance)
+				variance = Math.max(0.0, (sumSq - sumShifted*sumShifted/count)/count);
+		}
+	}
+
+	/**
+	 * Copies a row from the image into the buffer while converting it to int
+	 */
+	void readRow( int index, int length, int[] row ) {
+		if (data instanceof byte[]) {
+			byte[] array = (byte[])data;
+			if (signed) {
+				for (int i = 0; i < length; i++) {
+					row[i] = array[index + i];
+				}
+			} else {
+				for (int i = 0; i < length; i++) {
+					row[i] = array[index + i] & 0xFF;
+				}
+			}
+		} else {
+			short[] array = (short[])data;
+			if (signed) {
+				for (int i = 0; i < length; i++) {
+					row[i] = array[index + i];
+				}
+			} else {
+				for (int i = 0; i < length; i++) {
+					row[i] = array[index + i] & 0xFFFF;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copies a row from the image into the buffer while converting it to double
+	 */
+	void readRow( int index, int length, double[] row ) {
+		if (data instanceof int[]) {
+			int[] array = (int[])data;
+			for (int i = 0; i < length; i++) {
+				row[i] = array[index + i];
+			}
+		} else if (data instanceof long[]) {
+			long[] array = (long[])data;
+			for (int i = 0; i < length; i++) {
+				row[i] = array[index + i];
+			}
+		} else if (data instanceof float[]) {
+			float[] array = (float[])data;
+			for (int i = 0; i < length; i++) {
+				row[i] = array[index + i];
+			}
+		} else {
+			System.arraycopy((double[])data, index, row, 0, length);
+		}
+	}
+
+	/** Largest absolute value. Requires {@link Statistic#MIN_MAX} */
+	public double getMaxAbs() {
+		return Math.max(Math.abs(min), Math.abs(max));
+	}
+
+	/** Standard deviation. Requires {@link Statistic#VARIANCE} */
+	public double getStdev() {
+		return Math.sqrt(variance);
+	}
+
+	/**
+	 * Partial results computed from a block of rows
+	 */
+	static class Partial {
+		double min, max;
+		// sum and sum of squares after subtracting the shift
+		double sum, sumSq;
+		final DogArray_I32 histogram = new DogArray_I32();
+
+		// Storage for the row being processed
+		final DogArray_I32 rowI = new DogArray_I32();
+		final DogArray_F64 rowF = new DogArray_F64();
+
+		void reset( int numBins ) {
+			min = Double.MAX_VALUE;
+			max = -Double.MAX_VALUE;
+			sum = sumSq = 0;
+			histogram.resize(numBins);
+			histogram.fill(0);
+		}
+	}
+}
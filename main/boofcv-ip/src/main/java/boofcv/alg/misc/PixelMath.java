@@ -23,6 +23,8 @@ import boofcv.alg.misc.PixelMathLambdas.*;
 import boofcv.alg.misc.impl.ImplPixelMath;
 import boofcv.alg.misc.impl.ImplPixelMath_MT;
 import boofcv.concurrency.BoofConcurrency;
+import boofcv.simd.BoofSimd;
+import boofcv.simd.SimdKernels;
 import boofcv.struct.image.*;
 
 import javax.annotation.Generated;
@@ -726,7 +728,12 @@ public class PixelMath {
 
 		int columns = input.width;
 		int N = input.width*input.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.abs_S16(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride,
+					input.height, columns);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.abs(input.data, input.startIndex, input.stride,
 					output.data, output.startIndex, output.stride,
 					input.height, columns);
@@ -750,7 +757,12 @@ public class PixelMath {
 
 		int columns = input.width*input.numBands;
 		int N = input.width*input.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.abs_S16(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride,
+					input.height, columns);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.abs(input.data, input.startIndex, input.stride,
 					output.data, output.startIndex, output.stride,
 					input.height, columns);
@@ -870,7 +882,12 @@ public class PixelMath {
 
 		int columns = input.width;
 		int N = input.width*input.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.abs_F32(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride,
+					input.height, columns);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.abs(input.data, input.startIndex, input.stride,
 					output.data, output.startIndex, output.stride,
 					input.height, columns);
@@ -894,7 +911,12 @@ public class PixelMath {
 
 		int columns = input.width*input.numBands;
 		int N = input.width*input.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.abs_F32(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride,
+					input.height, columns);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.abs(input.data, input.startIndex, input.stride,
 					output.data, output.startIndex, output.stride,
 					input.height, columns);
@@ -1543,7 +1565,12 @@ public class PixelMath {
 
 		int columns = input.width;
 		int N = input.width*input.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.multiply_F32(input.data, input.startIndex, input.stride, value,
+					output.data, output.startIndex, output.stride,
+					input.height, columns);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.multiply_A(input.data,input.startIndex,input.stride,value , 
 					output.data,output.startIndex,output.stride,
 					input.height,columns);
@@ -1568,7 +1595,12 @@ public class PixelMath {
 
 		int columns = input.width*input.numBands;
 		int N = input.width*input.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.multiply_F32(input.data, input.startIndex, input.stride, value,
+					output.data, output.startIndex, output.stride,
+					input.height, columns);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.multiply_A(input.data,input.startIndex,input.stride,value , 
 					output.data,output.startIndex,output.stride,
 					input.height,columns);
@@ -1943,7 +1975,12 @@ public class PixelMath {
 
 		int columns = input.width;
 		int N = input.width*input.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.multiply_F32(input.data, input.startIndex, input.stride, value, lower, upper,
+					output.data, output.startIndex, output.stride,
+					input.height, columns);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.multiply_A(input.data,input.startIndex,input.stride,value, lower, upper ,
 					output.data,output.startIndex,output.stride,
 					input.height,columns);
@@ -1968,7 +2005,12 @@ public class PixelMath {
 
 		int columns = input.width*input.numBands;
 		int N = input.width*input.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.multiply_F32(input.data, input.startIndex, input.stride, value, lower, upper,
+					output.data, output.startIndex, output.stride,
+					input.height, columns);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.multiply_A(input.data,input.startIndex,input.stride,value, lower, upper ,
 					output.data,output.startIndex,output.stride,
 					input.height,columns);
@@ -6561,7 +6603,12 @@ public class PixelMath {
 	 * @param max maximum value.
 	 */
 	public static void boundImage( GrayU8 img , int min , int max ) {
-		ImplPixelMath.boundImage(img,min,max);
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.boundImage_U8(img.data, img.startIndex, img.stride, min, max, img.height, img.width);
+		} else {
+			ImplPixelMath.boundImage(img,min,max);
+		}
 	}
 
 	/**
@@ -6578,7 +6625,13 @@ public class PixelMath {
 		output.reshape(imgA.width,imgA.height);
 
 		int N = imgA.width*imgA.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.diffAbs_U8(imgA.data, imgA.startIndex, imgA.stride,
+					imgB.data, imgB.startIndex, imgB.stride,
+					output.data, output.startIndex, output.stride,
+					imgA.height, imgA.width);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.diffAbs(imgA, imgB, output);
 		} else {
 			ImplPixelMath.diffAbs(imgA, imgB, output);
@@ -6657,7 +6710,12 @@ public class PixelMath {
 	 * @param max maximum value.
 	 */
 	public static void boundImage( GrayS16 img , int min , int max ) {
-		ImplPixelMath.boundImage(img,min,max);
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.boundImage_S16(img.data, img.startIndex, img.stride, min, max, img.height, img.width);
+		} else {
+			ImplPixelMath.boundImage(img,min,max);
+		}
 	}
 
 	/**
@@ -6674,7 +6732,13 @@ public class PixelMath {
 		output.reshape(imgA.width,imgA.height);
 
 		int N = imgA.width*imgA.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.diffAbs_S16(imgA.data, imgA.startIndex, imgA.stride,
+					imgB.data, imgB.startIndex, imgB.stride,
+					output.data, output.startIndex, output.stride,
+					imgA.height, imgA.width);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.diffAbs(imgA, imgB, output);
 		} else {
 			ImplPixelMath.diffAbs(imgA, imgB, output);
@@ -6753,7 +6817,12 @@ public class PixelMath {
 	 * @param max maximum value.
 	 */
 	public static void boundImage( GrayF32 img , float min , float max ) {
-		ImplPixelMath.boundImage(img,min,max);
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.boundImage_F32(img.data, img.startIndex, img.stride, min, max, img.height, img.width);
+		} else {
+			ImplPixelMath.boundImage(img,min,max);
+		}
 	}
 
 	/**
@@ -6770,7 +6839,13 @@ public class PixelMath {
 		output.reshape(imgA.width,imgA.height);
 
 		int N = imgA.width*imgA.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.diffAbs_F32(imgA.data, imgA.startIndex, imgA.stride,
+					imgB.data, imgB.startIndex, imgB.stride,
+					output.data, output.startIndex, output.stride,
+					imgA.height, imgA.width);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.diffAbs(imgA, imgB, output);
 		} else {
 			ImplPixelMath.diffAbs(imgA, imgB, output);
@@ -6823,7 +6898,13 @@ public class PixelMath {
 		output.reshape(imgA.width,imgA.height);
 
 		int N = imgA.width*imgA.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.add_U8(imgA.data, imgA.startIndex, imgA.stride,
+					imgB.data, imgB.startIndex, imgB.stride,
+					output.data, output.startIndex, output.stride,
+					imgA.height, imgA.width);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.add(imgA, imgB, output);
 		} else {
 			ImplPixelMath.add(imgA, imgB, output);
@@ -6949,7 +7030,13 @@ public class PixelMath {
 		output.reshape(imgA.width,imgA.height);
 
 		int N = imgA.width*imgA.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.add_S16(imgA.data, imgA.startIndex, imgA.stride,
+					imgB.data, imgB.startIndex, imgB.stride,
+					output.data, output.startIndex, output.stride,
+					imgA.height, imgA.width);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.add(imgA, imgB, output);
 		} else {
 			ImplPixelMath.add(imgA, imgB, output);
@@ -7075,7 +7162,13 @@ public class PixelMath {
 		output.reshape(imgA.width,imgA.height);
 
 		int N = imgA.width*imgA.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.add_F32(imgA.data, imgA.startIndex, imgA.stride,
+					imgB.data, imgB.startIndex, imgB.stride,
+					output.data, output.startIndex, output.stride,
+					imgA.height, imgA.width);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.add(imgA, imgB, output);
 		} else {
 			ImplPixelMath.add(imgA, imgB, output);
@@ -7117,7 +7210,13 @@ public class PixelMath {
 		output.reshape(imgA.width,imgA.height);
 
 		int N = imgA.width*imgA.height;
-		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.multiply_F32(imgA.data, imgA.startIndex, imgA.stride,
+					imgB.data, imgB.startIndex, imgB.stride,
+					output.data, output.startIndex, output.stride,
+					imgA.height, imgA.width);
+		} else if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.multiply(imgA, imgB, output);
 		} else {
 			ImplPixelMath.multiply(imgA, imgB, output);
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Thread safe cache of FFT plans. Creating a plan requires computing tables of twiddle factors, which is expensive
+ * for large sizes, so plans are reused between calls and between instances of algorithms which use the same size.
+ * Plans are not thread safe, so a plan is removed from the cache while it's being used and is returned to it
+ * once the caller is done.
+ * </p>
+ *
+ * <p>
+ * The number of plans stored is bounded. When it's exceeded the least recently used size is discarded first.
+ * </p>
+ *
+ * <pre>
+ * GeneralPurposeFFT_F32_2D plan = cache.acquire(GeneralPurposeFFT_F32_2D.class, rows, columns, GeneralPurposeFFT_F32_2D::new);
+ * try {
+ *     plan.complexForward(data);
+ * } finally {
+ *     cache.release(plan, rows, columns);
+ * }
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class FftPlanCache {
+	/** Cache which is shared by the {@link boofcv.abst.transform.fft.DiscreteFourierTransform} implementations */
+	public static final FftPlanCache SHARED = new FftPlanCache(16);
+
+	/** Maximum number of plans which are stored */
+	@Getter int maxPlans;
+
+	// Plans which are not being used. Ordered from least to most recently used
+	final LinkedHashMap<Key, ArrayDeque<Object>> available = new LinkedHashMap<>(16, 0.75f, true);
+
+	// Total number of plans inside of available
+	int size;
+
+	public FftPlanCache( int maxPlans ) {
+		setMaxPlans(maxPlans);
+	}
+
+	/**
+	 * Returns a plan for the specified size. If none are available then a new plan is created.
+	 *
+	 * @param type Type of plan
+	 * @param rows Number of rows the plan processes
+	 * @param columns Number of columns the plan processes
+	 * @param factory Used to create a new plan
+	 * @return Plan which is now owned by the caller until it's released
+	 */
+	public <T> T acquire( Class<T> type, int rows, int columns, Factory<T> factory ) {
+		synchronized (this) {
+			ArrayDeque<Object> plans = available.get(new Key(type, rows, columns));
+			if (plans != null && !plans.isEmpty()) {
+				size--;
+				return type.cast(plans.removeLast());
+			}
+		}
+		// Create it outside the lock since it can take a while
+		return factory.create(rows, columns);
+	}
+
+	/**
+	 * Returns a plan to the cache so that it can be used again
+	 *
+	 * @param plan The plan. Must not be used by the caller after this.
+	 * @param rows Number of rows the plan processes
+	 * @param columns Number of columns the plan processes
+	 */
+	public synchronized void release( Object plan, int rows, int columns ) {
+		if (maxPlans == 0)
+			return;
+		available.computeIfAbsent(new Key(plan.getClass(), rows, columns), k -> new ArrayDeque<>()).add(plan);
+		size++;
+		enforceLimit();
+	}
+
+	/**
+	 * Changes the maximum number of plans. If there are too many then the least recently used are discarded.
+	 */
+	public synchronized void setMaxPlans( int maxPlans ) {
+		if (maxPlans < 0)
+			throw new IllegalArgumentException("maxPlans can't be negative");
+		this.maxPlans = maxPlans;
+		enforceLimit();
+	}
+
+	/** Number of plans in the cache */
+	public synchronized int size() {
+		return size;
+	}
+
+	/** Discards all the plans */
+	public synchronized void clear() {
+		available.clear();
+		size = 0;
+	}
+
+	private void enforceLimit() {
+		Iterator<Map.Entry<Key, ArrayDeque<Object>>> iter = available.entrySet().iterator();
+		while (size > maxPlans && iter.hasNext()) {
+			ArrayDeque<Object> plans = iter.next().getValue();
+			while (size > maxPlans && !plans.isEmpty()) {
+				plans.removeFirst();
+				size--;
+			}
+			if (plans.isEmpty())
+				iter.remove();
+		}
+	}
+
+	/** Creates a new plan */
+	@FunctionalInterface
+	public interface Factory<T> {
+		T create( int rows, int columns );
+	}
+
+	private static final class Key {
+		final Class<?> type;
+		final int rows, columns;
+
+		Key( Class<?> type, int rows, int columns ) {
+			this.type = type;
+			this.rows = rows;
+			this.columns = columns;
+		}
+
+		@Override public boolean equals( @Nullable Object o ) {
+			if (!(o instanceof Key))
+				return false;
+			Key k = (Key)o;
+			return type == k.type && rows == k.rows && columns == k.columns;
+		}
+
+		@Override public int hashCode() {
+			return Objects.hash(type, rows, columns);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent version of {@link GeneralPurposeFFT_F32_2D}. The 2D transform is computed by applying a 1D transform
+ * to every row then every column, with rows and columns split between threads. Each thread has its own
+ * 1D plans since they are not thread safe. The data layout is the same as in {@link GeneralPurposeFFT_F32_2D}.
+ * </p>
+ *
+ * <p>
+ * The forward transform of real data only transforms half of the columns. The other half is found using the
+ * symmetry of the transform, X[r][c] = conj(X[-r][-c]).
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GeneralPurposeFFT_F32_2D_MT {
+	private final int rows;
+	private final int columns;
+
+	// 1D plans and storage for each thread
+	private final GrowArray<Workspace> workspaces;
+
+	public GeneralPurposeFFT_F32_2D_MT( int rows, int columns ) {
+		if (rows < 1 || columns < 1)
+			throw new IllegalArgumentException("rows and columns must be greater than 0");
+
+		this.rows = rows;
+		this.columns = columns;
+		this.workspaces = new GrowArray<>(() -> new Workspace(rows, columns));
+	}
+
+	/**
+	 * Computes 2D forward DFT of complex data leaving the result in <code>a</code>.
+	 *
+	 * @param a data to transform. Size rows*2*columns
+	 * @see GeneralPurposeFFT_F32_2D#complexForward(float[])
+	 */
+	public void complexForward( final float[] a ) {
+		final int rowStride = 2*columns;
+		BoofConcurrency.loopBlocks(0, rows, workspaces, ( work, row0, row1 ) -> {
+			for (int r = row0; r < row1; r++) {
+				work.fftRow.complexForward(a, r*rowStride);
+			}
+		});
+		transformColumns(a, columns, true, false);
+	}
+
+	/**
+	 * Computes 2D inverse DFT of complex data leaving the result in <code>a</code>.
+	 *
+	 * @param a data to transform. Size rows*2*columns
+	 * @param scale if true then scaling is performed
+	 * @see GeneralPurposeFFT_F32_2D#complexInverse(float[], boolean)
+	 */
+	public void complexInverse( final float[] a, final boolean scale ) {
+		final int rowStride = 2*columns;
+		BoofConcurrency.loopBlocks(0, rows, workspaces, ( work, row0, row1 ) -> {
+			for (int r = row0; r < row1; r++) {
+				work.fftRow.complexInverse(a, r*rowStride, scale);
+			}
+		});
+		transformColumns(a, columns, false, scale);
+	}
+
+	/**
+	 * Computes 2D forward DFT of real data leaving the full complex result in <code>a</code>. The first
+	 * rows*columns elements are the real input data.
+	 *
+	 * @param a data to transform. Size rows*2*columns
+	 * @see GeneralPurposeFFT_F32_2D#realForwardFull(float[])
+	 */
+	public void realForwardFull( final float[] a ) {
+		final int rowStride = 2*columns;
+
+		// Move each row to where its complex output goes. Start at the end so nothing is overwritten
+		for (int r = rows - 1; r > 0; r--) {
+			System.arraycopy(a, r*columns, a, r*rowStride, columns);
+		}
+
+		BoofConcurrency.loopBlocks(0, rows, workspaces, ( work, row0, row1 ) -> {
+			for (int r = row0; r < row1; r++) {
+				// The 1D transform doesn't write to every element so clear out stale values
+				Arrays.fill(a, r*rowStride + columns, (r + 1)*rowStride, 0);
+				work.fftRow.realForwardFull(a, r*rowStride);
+			}
+		});
+
+		// Only half the columns need to be transformed
+		transformColumns(a, columns/2 + 1, true, false);
+
+		// Fill in the other half using symmetry
+		BoofConcurrency.loopBlocks(0, rows, ( row0, row1 ) -> {
+			for (int r = row0; r < row1; r++) {
+				int indexSrc = ((rows - r)%rows)*rowStride;
+				int indexDst = r*rowStride;
+				for (int c = columns/2 + 1; c < columns; c++) {
+					int src = indexSrc + 2*(columns - c);
+					a[indexDst + 2*c] = a[src];
+					a[indexDst + 2*c + 1] = -a[src + 1];
+				}
+			}
+		});
+	}
+
+	/**
+	 * Applies the 1D transform to each column in the range 0 to numColumns-1
+	 */
+	private void transformColumns( final float[] a, int numColumns, boolean forward, boolean scale ) {
+		final int rowStride = 2*columns;
+		BoofConcurrency.loopBlocks(0, numColumns, workspaces, ( work, col0, col1 ) -> {
+			float[] temp = work.temp;
+			for (int c = col0; c < col1; c++) {
+				int idx0 = 2*c;
+				for (int r = 0; r < rows; r++) {
+					int idx = r*rowStride + idx0;
+					temp[2*r] = a[idx];
+					temp[2*r + 1] = a[idx + 1];
+				}
+				if (forward)
+					work.fftColumn.complexForward(temp);
+				else
+					work.fftColumn.complexInverse(temp, scale);
+				for (int r = 0; r < rows; r++) {
+					int idx = r*rowStride + idx0;
+					a[idx] = temp[2*r];
+					a[idx + 1] = temp[2*r + 1];
+				}
+			}
+		});
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Plans and storage used by a single thread
+	 */
+	private static class Workspace {
+		// transforms a row, which has 'columns' elements
+		final GeneralPurposeFFT_F32_1D fftRow;
+		// transforms a column, which has 'rows' elements
+		final GeneralPurposeFFT_F32_1D fftColumn;
+		final float[] temp;
+
+		Workspace( int rows, int columns ) {
+			fftRow = new GeneralPurposeFFT_F32_1D(columns);
+			fftColumn = rows == columns ? fftRow : new GeneralPurposeFFT_F32_1D(rows);
+			temp = new float[2*rows];
+		}
+	}
+}
@@ -22,10 +22,22 @@ import boofcv.struct.image.*;
 import org.ddogleg.struct.DogArray_I8;
 
 import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
 
 /**
+ * <p>
  * Converts images that are stored in {@link java.nio.ByteBuffer} into BoofCV image types and performs
  * a local copy when the raw array can't be accessed
+ * </p>
+ *
+ * <p>
+ * BoofCV images store their pixels in Java arrays. If the buffer is backed by an accessible array the "wrap"
+ * functions will make the image reference that array directly and no pixels are copied. Zero copy is limited to
+ * heap buffers. Direct buffers, e.g. ones handed out by frame grabbers or over JNI, have no array and can't be
+ * wrapped. For those the "from" functions copy one row at a time with a bulk get, which avoids any per-pixel work
+ * or intermediate storage. All offsets and strides are in bytes.
+ * </p>
  *
  * @author Peter Abeles
  */
@@ -85,7 +97,7 @@ public class ConvertByteBufferImage {
 		int indexSrc = srcOffset;
 		for (int y = 0; y < dst.height; y++) {
 			src.position(indexSrc);
-			src.get(dst.data,0,dst.width*3);
+			src.get(dst.data, dst.startIndex + y*dst.stride, dst.width*3);
 			indexSrc += srcStride;
 		}
 	}
@@ -157,4 +169,162 @@ public class ConvertByteBufferImage {
 			indexSrc += srcStride;
 		}
 	}
+
+	/**
+	 * Makes the gray image reference the array which backs the buffer. No pixels are copied and changes to one
+	 * will be seen in the other. The image is marked as a sub-image so that it can't be reshaped.
+	 *
+	 * <p>Only heap buffers can be wrapped. Direct buffers always return false and must be copied using
+	 * {@link #from_1BU8_to_U8}.</p>
+	 *
+	 * @param src Buffer containing a single band 8-bit image
+	 * @param srcOffset Offset of the first pixel relative to the start of the buffer
+	 * @param srcStride Number of bytes between rows
+	 * @param width Image width
+	 * @param height Image height
+	 * @param dst (Output) Image which will reference the buffer's array
+	 * @return true if the image now references the buffer or false if the buffer has no accessible array, e.g.
+	 * it's a direct buffer
+	 */
+	public static boolean wrap_1BU8_to_U8( ByteBuffer src, int srcOffset, int srcStride,
+										   int width, int height, GrayU8 dst ) {
+		if (!src.hasArray())
+			return false;
+		checkBounds(src, srcOffset, srcStride, width, height);
+
+		dst.data = src.array();
+		dst.startIndex = src.arrayOffset() + srcOffset;
+		dst.stride = srcStride;
+		dst.width = width;
+		dst.height = height;
+		dst.subImage = true;
+		return true;
+	}
+
+	/**
+	 * Makes the interleaved image reference the array which backs the buffer. No pixels are copied and changes to
+	 * one will be seen in the other. The image is marked as a sub-image so that it can't be reshaped.
+	 *
+	 * <p>Only heap buffers can be wrapped. Direct buffers always return false and must be copied using
+	 * {@link #from_NBU8_to_IU8}.</p>
+	 *
+	 * @param src Buffer containing an interleaved 8-bit image with the same number of bands as dst
+	 * @param srcOffset Offset of the first pixel relative to the start of the buffer
+	 * @param srcStride Number of bytes between rows
+	 * @param width Image width
+	 * @param height Image height
+	 * @param dst (Output) Image which will reference the buffer's array
+	 * @return true if the image now references the buffer or false if the buffer has no accessible array, e.g.
+	 * it's a direct buffer
+	 */
+	public static boolean wrap_NBU8_to_IU8( ByteBuffer src, int srcOffset, int srcStride,
+											int width, int height, InterleavedU8 dst ) {
+		if (!src.hasArray())
+			return false;
+		checkBounds(src, srcOffset, srcStride, width*dst.numBands, height);
+
+		dst.data = src.array();
+		dst.startIndex = src.arrayOffset() + srcOffset;
+		dst.stride = srcStride;
+		dst.width = width;
+		dst.height = height;
+		dst.subImage = true;
+		return true;
+	}
+
+	/**
+	 * Copies a single band 8-bit image from the buffer into dst. dst must already be the correct shape.
+	 */
+	public static void from_1BU8_to_U8( ByteBuffer src, int srcOffset, int srcStride, GrayU8 dst ) {
+		checkBounds(src, srcOffset, srcStride, dst.width, dst.height);
+
+		int indexSrc = srcOffset;
+		for (int y = 0; y < dst.height; y++) {
+			src.position(indexSrc);
+			src.get(dst.data, dst.startIndex + y*dst.stride, dst.width);
+			indexSrc += srcStride;
+		}
+	}
+
+	/**
+	 * Copies an interleaved 8-bit image from the buffer into dst. dst must already be the correct shape and have
+	 * the same number of bands as the buffer.
+	 */
+	public static void from_NBU8_to_IU8( ByteBuffer src, int srcOffset, int srcStride, InterleavedU8 dst ) {
+		int rowLength = dst.width*dst.numBands;
+		checkBounds(src, srcOffset, srcStride, rowLength, dst.height);
+
+		int indexSrc = srcOffset;
+		for (int y = 0; y < dst.height; y++) {
+			src.position(indexSrc);
+			src.get(dst.data, dst.startIndex + y*dst.stride, rowLength);
+			indexSrc += srcStride;
+		}
+	}
+
+	/**
+	 * Copies a single band unsigned 16-bit image from the buffer into dst using the buffer's byte order.
+	 * dst must already be the correct shape.
+	 */
+	public static void from_1BU16_to_U16( ByteBuffer src, int srcOffset, int srcStride, GrayU16 dst ) {
+		checkBounds(src, srcOffset, srcStride, dst.width*2, dst.height);
+		if (srcStride%2 != 0)
+			throw new IllegalArgumentException("Stride must be a multiple of 2");
+
+		// Only create the view once. Its indexes are relative to the first pixel
+		src.position(srcOffset);
+		ShortBuffer view = src.asShortBuffer();
+		for (int y = 0; y < dst.height; y++) {
+			view.position(y*(srcStride/2));
+			view.get(dst.data, dst.startIndex + y*dst.stride, dst.width);
+		}
+	}
+
+	/**
+	 * Copies a single band signed 16-bit image from the buffer into dst using the buffer's byte order.
+	 * dst must already be the correct shape.
+	 */
+	public static void from_1BS16_to_S16( ByteBuffer src, int srcOffset, int srcStride, GrayS16 dst ) {
+		checkBounds(src, srcOffset, srcStride, dst.width*2, dst.height);
+		if (srcStride%2 != 0)
+			throw new IllegalArgumentException("Stride must be a multiple of 2");
+
+		// Only create the view once. Its indexes are relative to the first pixel
+		src.position(srcOffset);
+		ShortBuffer view = src.asShortBuffer();
+		for (int y = 0; y < dst.height; y++) {
+			view.position(y*(srcStride/2));
+			view.get(dst.data, dst.startIndex + y*dst.stride, dst.width);
+		}
+	}
+
+	/**
+	 * Copies a single band 32-bit float image from the buffer into dst using the buffer's byte order.
+	 * dst must already be the correct shape.
+	 */
+	public static void from_1BF32_to_F32( ByteBuffer src, int srcOffset, int srcStride, GrayF32 dst ) {
+		checkBounds(src, srcOffset, srcStride, dst.width*4, dst.height);
+		if (srcStride%4 != 0)
+			throw new IllegalArgumentException("Stride must be a multiple of 4");
+
+		// Only create the view once. Its indexes are relative to the first pixel
+		src.position(srcOffset);
+		FloatBuffer view = src.asFloatBuffer();
+		for (int y = 0; y < dst.height; y++) {
+			view.position(y*(srcStride/4));
+			view.get(dst.data, dst.startIndex + y*dst.stride, dst.width);
+		}
+	}
+
+	/**
+	 * Makes sure the last row can be read from the buffer before anything is modified
+	 *
+	 * @param rowBytes Number of bytes read from each row
+	 */
+	private static void checkBounds( ByteBuffer src, int srcOffset, int srcStride, int rowBytes, int height ) {
+		if (srcOffset < 0 || srcStride < rowBytes)
+			throw new IllegalArgumentException("Invalid offset or stride. offset=" + srcOffset + " stride=" + srcStride);
+		if (height > 0 && srcOffset + (long)(height - 1)*srcStride + rowBytes > src.limit())
+			throw new IllegalArgumentException("Buffer is too small for an image of this shape");
+	}
 }
@@ -20,6 +20,8 @@ package boofcv.core.image;
 
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.impl.*;
+import boofcv.simd.BoofSimd;
+import boofcv.simd.SimdKernels;
 import boofcv.struct.image.*;
 
 import javax.annotation.processing.Generated;
@@ -142,8 +144,14 @@ public class ConvertImage {
 			output.reshapeTo(input);
 		}
 
-		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.convert_U8_S16(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride, input.height, input.width);
+		} else {
+			// threaded code is not significantly faster here
+			ImplConvertImage.convert(input, output);
+		}
 
 		return output;
 	}
@@ -164,8 +172,14 @@ public class ConvertImage {
 			output.reshapeTo(input);
 		}
 
-		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.convert_U8_S16(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride, input.height, input.width*input.numBands);
+		} else {
+			// threaded code is not significantly faster here
+			ImplConvertImage.convert(input, output);
+		}
 
 		return output;
 	}
@@ -274,8 +288,14 @@ public class ConvertImage {
 			output.reshapeTo(input);
 		}
 
-		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.convert_U8_F32(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride, input.height, input.width);
+		} else {
+			// threaded code is not significantly faster here
+			ImplConvertImage.convert(input, output);
+		}
 
 		return output;
 	}
@@ -296,8 +316,14 @@ public class ConvertImage {
 			output.reshapeTo(input);
 		}
 
-		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.convert_U8_F32(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride, input.height, input.width*input.numBands);
+		} else {
+			// threaded code is not significantly faster here
+			ImplConvertImage.convert(input, output);
+		}
 
 		return output;
 	}
@@ -1579,8 +1605,14 @@ public class ConvertImage {
 			output.reshapeTo(input);
 		}
 
-		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.convert_S16_F32(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride, input.height, input.width);
+		} else {
+			// threaded code is not significantly faster here
+			ImplConvertImage.convert(input, output);
+		}
 
 		return output;
 	}
@@ -1601,8 +1633,14 @@ public class ConvertImage {
 			output.reshapeTo(input);
 		}
 
-		// threaded code is not significantly faster here
-		ImplConvertImage.convert(input, output);
+		SimdKernels simd = BoofSimd.kernels();
+		if (simd != null) {
+			simd.convert_S16_F32(input.data, input.startIndex, input.stride,
+					output.data, output.startIndex, output.stride, input.height, input.width*input.numBands);
+		} else {
+			// threaded code is not significantly faster here
+			ImplConvertImage.convert(input, output);
+		}
 
 		return output;
 	}
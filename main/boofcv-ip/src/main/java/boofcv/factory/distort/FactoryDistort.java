@@ -120,6 +120,25 @@ public class FactoryDistort {
 		}
 	}
 
+	/**
+	 * Creates a {@link boofcv.alg.distort.ImageDistort} which caches the distortion in a compact fixed point
+	 * table and uses integer bilinear interpolation. Uses less memory and is faster than a cached distortion
+	 * created by {@link #distortSB}. Pixels outside the source image are not interpolated.
+	 *
+	 * @param imageType Type of input and output image. GrayU8 or GrayU16.
+	 * @see ImageDistortRemap_SB
+	 */
+	public static <T extends ImageGray<T>> ImageDistortRemap_SB<T> remapSB( Class<T> imageType ) {
+		if (imageType != GrayU8.class && imageType != GrayU16.class)
+			throw new IllegalArgumentException("Image type not supported: " + imageType.getSimpleName());
+
+		if (BoofConcurrency.USE_CONCURRENT) {
+			return new ImageDistortRemap_SB_MT<>();
+		} else {
+			return new ImageDistortRemap_SB<>();
+		}
+	}
+
 	/**
 	 * Creates a {@link boofcv.alg.distort.ImageDistort} for the planar images, transformation
 	 * and interpolation instance.
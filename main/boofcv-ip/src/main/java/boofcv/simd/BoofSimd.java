@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * <p>
+ * Central class for controlling the use of SIMD kernels in BoofCV. Kernels are provided by an optional module,
+ * boofcv-simd, which uses the Vector API. If that module is on the class path, the JVM was launched with
+ * "--add-modules jdk.incubator.vector", and the hardware supports it, then the kernels are loaded the first time this
+ * class is used. Otherwise the regular scalar code is used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofSimd {
+	/** If set to true it will use SIMD kernels when they are available */
+	public static boolean USE_SIMD = true;
+
+	/** Kernels for this platform or null if none are available */
+	private static final @Nullable SimdKernels KERNELS = load();
+
+	/**
+	 * Returns the kernels which should be used or null if SIMD has been turned off or is not available
+	 */
+	public static @Nullable SimdKernels kernels() {
+		return USE_SIMD ? KERNELS : null;
+	}
+
+	/**
+	 * Returns true if SIMD kernels were found and can run on this hardware
+	 */
+	public static boolean isAvailable() {
+		return KERNELS != null;
+	}
+
+	private static @Nullable SimdKernels load() {
+		try {
+			for (SimdKernels kernels : ServiceLoader.load(SimdKernels.class)) {
+				if (kernels.isSupported())
+					return kernels;
+			}
+		} catch (ServiceConfigurationError | LinkageError ignore) {
+			// The Vector API is not available in this JVM
+		}
+		return null;
+	}
+}
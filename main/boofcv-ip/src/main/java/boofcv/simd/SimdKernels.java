@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.simd;
+
+/**
+ * <p>
+ * Low level image processing kernels which have been implemented using SIMD instructions. Implementations are found
+ * at runtime through {@link java.util.ServiceLoader} by {@link BoofSimd} and are used by functions in PixelMath,
+ * ImageStatistics, and ConvertImage when available. Each function must produce the same output as the scalar
+ * code it replaces, with the exception of floating point sums where the order of addition can differ.
+ * </p>
+ *
+ * <p>
+ * All functions operate on a block of rows inside of an array. Pixels in a row are contiguous in memory and
+ * each row starts 'stride' elements after the previous. Implementations are responsible for splitting the work
+ * across threads when {@link boofcv.concurrency.BoofConcurrency#USE_CONCURRENT} is true.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface SimdKernels {
+	/**
+	 * Returns true if the hardware this is running on can efficiently run these kernels
+	 */
+	boolean isSupported();
+
+	// ---------------------------------- PixelMath
+
+	/** output = |input| */
+	void abs_S16( short[] input, int inputStart, int inputStride,
+				  short[] output, int outputStart, int outputStride,
+				  int rows, int cols );
+
+	/** output = |input| */
+	void abs_F32( float[] input, int inputStart, int inputStride,
+				  float[] output, int outputStart, int outputStride,
+				  int rows, int cols );
+
+	/** output = input*value */
+	void multiply_F32( float[] input, int inputStart, int inputStride, float value,
+					   float[] output, int outputStart, int outputStride,
+					   int rows, int cols );
+
+	/** output = min(upper, max(lower, input*value)) */
+	void multiply_F32( float[] input, int inputStart, int inputStride, float value, float lower, float upper,
+					   float[] output, int outputStart, int outputStride,
+					   int rows, int cols );
+
+	/** output = imgA*imgB */
+	void multiply_F32( float[] imgA, int startA, int strideA,
+					   float[] imgB, int startB, int strideB,
+					   float[] output, int outputStart, int outputStride,
+					   int rows, int cols );
+
+	/** Clamps pixel values in place to be from min to max, inclusive. Values are treated as unsigned. */
+	void boundImage_U8( byte[] data, int start, int stride, int min, int max, int rows, int cols );
+
+	/** Clamps pixel values in place to be from min to max, inclusive */
+	void boundImage_S16( short[] data, int start, int stride, int min, int max, int rows, int cols );
+
+	/** Clamps pixel values in place to be from min to max, inclusive */
+	void boundImage_F32( float[] data, int start, int stride, float min, float max, int rows, int cols );
+
+	/** output = |imgA - imgB| where the inputs are unsigned */
+	void diffAbs_U8( byte[] imgA, int startA, int strideA,
+					 byte[] imgB, int startB, int strideB,
+					 byte[] output, int outputStart, int outputStride,
+					 int rows, int cols );
+
+	/** output = |imgA - imgB| */
+	void diffAbs_S16( short[] imgA, int startA, int strideA,
+					  short[] imgB, int startB, int strideB,
+					  short[] output, int outputStart, int outputStride,
+					  int rows, int cols );
+
+	/** output = |imgA - imgB| */
+	void diffAbs_F32( float[] imgA, int startA, int strideA,
+					  float[] imgB, int startB, int strideB,
+					  float[] output, int outputStart, int outputStride,
+					  int rows, int cols );
+
+	/** output = imgA + imgB where the inputs are unsigned 8-bit and the output is unsigned 16-bit */
+	void add_U8( byte[] imgA, int startA, int strideA,
+				 byte[] imgB, int startB, int strideB,
+				 short[] output, int outputStart, int outputStride,
+				 int rows, int cols );
+
+	/** output = imgA + imgB where the inputs are signed 16-bit and the output is signed 32-bit */
+	void add_S16( short[] imgA, int startA, int strideA,
+				  short[] imgB, int startB, int strideB,
+				  int[] output, int outputStart, int outputStride,
+				  int rows, int cols );
+
+	/** output = imgA + imgB */
+	void add_F32( float[] imgA, int startA, int strideA,
+				  float[] imgB, int startB, int strideB,
+				  float[] output, int outputStart, int outputStride,
+				  int rows, int cols );
+
+	// ---------------------------------- ConvertImage
+
+	/** Converts unsigned 8-bit into float */
+	void convert_U8_F32( byte[] input, int inputStart, int inputStride,
+						 float[] output, int outputStart, int outputStride,
+						 int rows, int cols );
+
+	/** Converts unsigned 8-bit into signed 16-bit */
+	void convert_U8_S16( byte[] input, int inputStart, int inputStride,
+						 short[] output, int outputStart, int outputStride,
+						 int rows, int cols );
+
+	/** Converts signed 16-bit into float */
+	void convert_S16_F32( short[] input, int inputStart, int inputStride,
+						  float[] output, int outputStart, int outputStride,
+						  int rows, int cols );
+
+	// ---------------------------------- ImageStatistics
+
+	/** Minimum value, where values are unsigned */
+	int min_U8( byte[] array, int startIndex, int rows, int columns, int stride );
+
+	/** Maximum value, where values are unsigned */
+	int max_U8( byte[] array, int startIndex, int rows, int columns, int stride );
+
+	/** Minimum value */
+	int min_S16( short[] array, int startIndex, int rows, int columns, int stride );
+
+	/** Maximum value */
+	int max_S16( short[] array, int startIndex, int rows, int columns, int stride );
+
+	/** Minimum value */
+	float min_F32( float[] array, int startIndex, int rows, int columns, int stride );
+
+	/** Maximum value */
+	float max_F32( float[] array, int startIndex, int rows, int columns, int stride );
+
+	/** Sum of all values, where values are unsigned */
+	int sum_U8( byte[] array, int startIndex, int rows, int columns, int stride );
+
+	/** Sum of all values */
+	int sum_S16( short[] array, int startIndex, int rows, int columns, int stride );
+
+	/** Sum of all values */
+	float sum_F32( float[] array, int startIndex, int rows, int columns, int stride );
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.tile;
+
+import boofcv.BoofTesting;
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.derivative.DerivativeType;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.GConvertImage;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTiledPipeline extends BoofStandardJUnit {
+	int width = 95, height = 80;
+
+	/**
+	 * Integer images produce exactly the same results as processing the entire image one operation at a time
+	 */
+	@Test void edges_U8() {
+		var input = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		// compute the expected results the traditional way
+		GrayU8 blurred = BlurImageOps.gaussian(input, null, -1, 3, null);
+		var derivX = new GrayS16(width, height);
+		var derivY = new GrayS16(width, height);
+		GImageDerivativeOps.gradient(DerivativeType.SOBEL, blurred, derivX, derivY, BorderType.EXTENDED);
+		GrayF32 intensity = intensity(derivX, derivY);
+		GrayU8 expected = GThresholdImageOps.threshold(intensity, null, 60, false);
+
+		for (boolean concurrent : new boolean[]{false, true}) {
+			// Small tile so that there are several tiles and some will be clipped by the image border
+			TiledPipeline<GrayU8, GrayU8> alg = TiledPipeline.builder(ImageType.SB_U8)
+					.gaussian(-1, 3).gradient(DerivativeType.SOBEL).gradientIntensity().threshold(60, false)
+					.tileSize(17).concurrent(concurrent).build();
+			assertEquals(4, alg.getHalo());
+
+			var found = new GrayU8(1, 1);
+			alg.process(input, found);
+			BoofTesting.assertEquals(expected, found, 0);
+
+			// see if it works the second time when buffers are recycled
+			ImageMiscOps.fill(found, 0);
+			alg.process(input, found);
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	@Test void edges_F32() {
+		var input = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		var inputF = new GrayF32(width, height);
+		GConvertImage.convert(input, inputF);
+		GrayF32 blurred = BlurImageOps.gaussian(inputF, null, 1.5, -1, null);
+		var derivX = new GrayF32(width, height);
+		var derivY = new GrayF32(width, height);
+		GImageDerivativeOps.gradient(DerivativeType.THREE, blurred, derivX, derivY, BorderType.EXTENDED);
+		GrayF32 expected = intensity(derivX, derivY);
+
+		TiledPipeline<GrayU8, GrayF32> alg = TiledPipeline.builder(ImageType.SB_U8)
+				.convert(ImageType.SB_F32).gaussian(1.5, -1).gradient(DerivativeType.THREE).gradientIntensity()
+				.tileSize(20).build();
+
+		var found = new GrayF32(1, 1);
+		alg.process(input, found);
+		BoofTesting.assertEquals(expected, found, 1e-3);
+	}
+
+	/**
+	 * Multi-band images should have their bands processed independently
+	 */
+	@Test void planar() {
+		var input = new Planar<>(GrayF32.class, width, height, 3);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+		Planar<GrayF32> expected = BlurImageOps.gaussian(input, null, -1, 2, null);
+
+		TiledPipeline<Planar<GrayF32>, Planar<GrayF32>> alg =
+				TiledPipeline.builder(ImageType.PL_F32).gaussian(-1, 2).tileSize(30).build();
+
+		var found = new Planar<>(GrayF32.class, 1, 1, 3);
+		alg.process(input, found);
+		BoofTesting.assertEquals(expected, found, 1e-4);
+	}
+
+	/**
+	 * The output of each operator must match the input of the next
+	 */
+	@Test void incompatibleOperators() {
+		assertThrows(IllegalArgumentException.class, () ->
+				TiledPipeline.builder(ImageType.SB_U8).gradientIntensity());
+
+		List<TileOperator> operators = new ArrayList<>();
+		operators.add(new TileThreshold<>(ImageType.SB_F32, 1, true));
+		operators.add(new TileConvert<>(ImageType.SB_F32, ImageType.SB_U8));
+		assertThrows(IllegalArgumentException.class, () -> new TiledPipeline<>(operators, 20, false));
+	}
+
+	/**
+	 * Intermediate images for a tile must fit in the requested number of bytes
+	 */
+	@Test void selectTileSize() {
+		List<TileOperator> operators = new ArrayList<>();
+		operators.add(new TileConvert<>(ImageType.SB_U8, ImageType.SB_F32));
+		operators.add(new TileBlurGaussian<>(ImageType.SB_F32, -1, 4));
+
+		int tileSize = TiledPipeline.selectTileSize(operators, 256*1024);
+		int width = tileSize + 2*4;
+		assertTrue(width*width*8 <= 256*1024);
+		assertTrue((width + 1)*(width + 1)*8 > 256*1024);
+
+		// it can't be smaller than the halo
+		assertEquals(32, TiledPipeline.selectTileSize(operators, 100));
+	}
+
+	private GrayF32 intensity( ImageGray<?> derivX, ImageGray<?> derivY ) {
+		var output = new GrayF32(derivX.width, derivX.height);
+		for (int y = 0; y < derivX.height; y++) {
+			for (int x = 0; x < derivX.width; x++) {
+				double dx = GeneralizedImageOps.get(derivX, x, y);
+				double dy = GeneralizedImageOps.get(derivY, x, y);
+				output.set(x, y, (float)Math.sqrt(dx*dx + dy*dy));
+			}
+		}
+		return output;
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.BoofTesting;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.distort.RemapTable_S16;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageDistortRemap_SB extends BoofStandardJUnit {
+	int width = 60, height = 80;
+
+	// Part of the image will map to outside the source image
+	PixelTransformAffine_F32 transform = new PixelTransformAffine_F32(
+			new Affine2D_F32(0.9f, 0.05f, -0.04f, 1.1f, 3.3f, -2.1f));
+
+	/**
+	 * Compares against the floating point implementation. Only differences from the coordinate being rounded
+	 * should be seen.
+	 */
+	@Test void compareToCached() {
+		compareToCached(GrayU8.class, 255);
+		compareToCached(GrayU16.class, 60000);
+	}
+
+	<T extends ImageGray<T>> void compareToCached( Class<T> type, int maxValue ) {
+		T input = GeneralizedImageOps.createSingleBand(type, width, height);
+		T expected = GeneralizedImageOps.createSingleBand(type, width, height);
+		T found = GeneralizedImageOps.createSingleBand(type, width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, maxValue);
+
+		InterpolatePixelS<T> interp = FactoryInterpolation.createPixelS(
+				0, maxValue, InterpolationType.BILINEAR, BorderType.EXTENDED, type);
+		var cached = new ImageDistortCache_SB<>(createAssigner(type), interp);
+		cached.setModel(transform);
+		cached.setRenderAll(false);
+		cached.apply(input, expected);
+
+		var alg = new ImageDistortRemap_SB<T>();
+		alg.setModel(transform);
+		alg.setRenderAll(false);
+		alg.apply(input, found);
+
+		// Tolerance is set by the largest possible change in value when the location is rounded
+		BoofTesting.assertEquals(expected, found, 1 + maxValue/RemapTable_S16.FRACTION_ONE);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	<T extends ImageGray<T>> AssignPixelValue_SB<T> createAssigner( Class<T> type ) {
+		if (type == GrayU8.class)
+			return (AssignPixelValue_SB)new AssignPixelValue_SB.I8();
+		return (AssignPixelValue_SB)new AssignPixelValue_SB.I16();
+	}
+
+	/**
+	 * Pixels outside the input should be set to the outside value, and inside pixels should be marked in the mask
+	 */
+	@Test void renderAll_mask() {
+		var input = new GrayU8(width, height);
+		var found = new GrayU8(width, height);
+		var mask = new GrayU8(1, 1);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		var alg = new ImageDistortRemap_SB<GrayU8>();
+		alg.setOutsideValue(200);
+		alg.setModel(transform);
+		alg.apply(input, found, mask);
+
+		var table = alg.getTable();
+		var p = new Point2D_F32();
+		int totalInside = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				table.get(x, y, p);
+				boolean inside = p.x >= 0 && p.x <= width - 1 && p.y >= 0 && p.y <= height - 1;
+				assertEquals(inside ? 1 : 0, mask.get(x, y));
+				if (inside)
+					totalInside++;
+				else
+					assertEquals(200, found.get(x, y));
+			}
+		}
+		assertTrue(totalInside > 0 && totalInside < width*height);
+	}
+
+	@Test void renderAll_false() {
+		var input = new GrayU8(width, height);
+		var found = new GrayU8(width, height);
+		var mask = new GrayU8(width, height);
+		GImageMiscOps.fill(found, 150);
+
+		var alg = new ImageDistortRemap_SB<GrayU8>();
+		alg.setModel(transform);
+		alg.apply(input, found, mask);
+
+		alg.setRenderAll(false);
+		GImageMiscOps.fill(found, 150);
+		alg.apply(input, found);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertEquals(mask.get(x, y) == 1 ? 0 : 150, found.get(x, y));
+			}
+		}
+	}
+
+	@Test void crop() {
+		var input = new GrayU8(width, height);
+		var found = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+		GImageMiscOps.fill(found, 150);
+
+		var alg = new ImageDistortRemap_SB<GrayU8>();
+		alg.setOutsideValue(0);
+		alg.setModel(transform);
+		alg.apply(input, found, 10, 12, 30, 40);
+
+		var expected = new GrayU8(width, height);
+		alg.apply(input, expected);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if (x >= 10 && x < 30 && y >= 12 && y < 40)
+					assertEquals(expected.get(x, y), found.get(x, y));
+				else
+					assertEquals(150, found.get(x, y));
+			}
+		}
+	}
+
+	/**
+	 * A table which is passed in should never be modified
+	 */
+	@Test void sharedTable() {
+		RemapTable_S16 table = RemapTable_S16.create(width, height, transform);
+		short[] coordinates = table.coordinates.clone();
+
+		var input = new GrayU8(width, height);
+		var expected = new GrayU8(width, height);
+		var found = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		var algA = new ImageDistortRemap_SB<GrayU8>();
+		algA.setModel(transform);
+		algA.apply(input, expected);
+
+		var algB = new ImageDistortRemap_SB<GrayU8>();
+		algB.setTable(table);
+		algB.apply(input, found);
+		BoofTesting.assertEquals(expected, found, 0);
+
+		// A different size is an error
+		assertThrows(IllegalArgumentException.class, () -> algB.apply(input, new GrayU8(width + 1, height)));
+
+		// Changing the model should create a new table
+		algB.setModel(new PixelTransformAffine_F32(new Affine2D_F32(1, 0, 0, 1, 0, 0)));
+		algB.apply(input, found);
+		assertNotSame(table, algB.getTable());
+		assertArrayEquals(coordinates, table.coordinates);
+		BoofTesting.assertEquals(input, found, 0);
+	}
+
+	@Test void subimage() {
+		var input = new GrayU8(width, height);
+		var expected = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		var alg = new ImageDistortRemap_SB<GrayU8>();
+		alg.setModel(transform);
+		alg.apply(input, expected);
+
+		GrayU8 subInput = BoofTesting.createSubImageOf(input);
+		GrayU8 found = BoofTesting.createSubImageOf(expected);
+		GImageMiscOps.fill(found, 0);
+		alg.apply(subInput, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test void unsupportedType() {
+		var alg = new ImageDistortRemap_SB<GrayF32>();
+		alg.setModel(transform);
+		assertThrows(IllegalArgumentException.class, () ->
+				alg.apply(new GrayF32(10, 10), new GrayF32(10, 10)));
+	}
+}
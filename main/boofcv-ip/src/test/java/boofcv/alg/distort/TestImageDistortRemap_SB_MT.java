@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageDistortRemap_SB_MT extends BoofStandardJUnit {
+	int width = 60, height = 80;
+
+	PixelTransformAffine_F32 transform = new PixelTransformAffine_F32(
+			new Affine2D_F32(0.9f, 0.05f, -0.04f, 1.1f, 3.3f, -2.1f));
+
+	@Test void compare_U8() {
+		var input = new GrayU8(width, height);
+		var output_ST = new GrayU8(width, height);
+		var output_MT = new GrayU8(width, height);
+		var mask_ST = new GrayU8(width, height);
+		var mask_MT = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		var alg_ST = new ImageDistortRemap_SB<GrayU8>();
+		var alg_MT = new ImageDistortRemap_SB_MT<GrayU8>();
+
+		alg_ST.setModel(transform);
+		alg_ST.apply(input, output_ST, mask_ST);
+
+		alg_MT.setModel(transform);
+		alg_MT.apply(input, output_MT, mask_MT);
+
+		BoofTesting.assertEquals(output_ST, output_MT, 0);
+		BoofTesting.assertEquals(mask_ST, mask_MT, 0);
+	}
+
+	@Test void compare_U16() {
+		var input = new GrayU16(width, height);
+		var output_ST = new GrayU16(width, height);
+		var output_MT = new GrayU16(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 65535);
+
+		var alg_ST = new ImageDistortRemap_SB<GrayU16>();
+		var alg_MT = new ImageDistortRemap_SB_MT<GrayU16>();
+
+		alg_ST.setModel(transform);
+		alg_ST.apply(input, output_ST);
+
+		alg_MT.setModel(transform);
+		alg_MT.apply(input, output_MT);
+
+		BoofTesting.assertEquals(output_ST, output_MT, 0);
+	}
+}
@@ -21,8 +21,10 @@ package boofcv.alg.enhance;
 import boofcv.BoofTesting;
 import boofcv.alg.enhance.impl.ImplEnhanceHistogram;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.GrayI;
+import boofcv.struct.image.GrayU8;
 import boofcv.testing.BoofStandardJUnit;
 import org.ddogleg.struct.DogArray_I32;
 import org.junit.jupiter.api.Test;
@@ -31,6 +33,7 @@ import pabeles.concurrency.GrowArray;
 import java.lang.reflect.Method;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -91,4 +94,57 @@ public class TestEnhanceImageOps extends BoofStandardJUnit {
 			BoofTesting.assertEquals(expected, found, 1e-10);
 		}
 	}
+
+	/**
+	 * With one tile and no clipping it should be the same as equalizing the whole image
+	 */
+	@Test void equalizeClahe_oneTile() {
+		var input = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		BoofTesting.checkSubImage(this, "equalizeClahe_oneTile", true, input, input.createSameShape());
+	}
+
+	public void equalizeClahe_oneTile( GrayU8 input, GrayU8 found ) {
+		int[] histogram = new int[256];
+		int[] transform = new int[256];
+		ImageStatistics.histogram(input, 0, histogram);
+		EnhanceImageOps.equalize(histogram, transform);
+		var expected = new GrayU8(width, height);
+		EnhanceImageOps.applyTransform(input, transform, expected);
+
+		EnhanceImageOps.equalizeClahe(input, 1, 1, 0.0, found, 256, null);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	/**
+	 * Clipping should reduce how much the contrast of a low contrast image is stretched
+	 */
+	@Test void equalizeClahe_clipping() {
+		var input = new GrayU8(60, 50);
+		GImageMiscOps.fillUniform(input, rand, 100, 110);
+
+		var clipped = new GrayU8(1, 1);
+		var unclipped = new GrayU8(1, 1);
+		EnhanceImageOps.equalizeClahe(input, 3, 2, 2.0, clipped, 256, null);
+		EnhanceImageOps.equalizeClahe(input, 3, 2, 0.0, unclipped, 256, null);
+
+		double rangeClipped = ImageStatistics.max(clipped) - ImageStatistics.min(clipped);
+		double rangeUnclipped = ImageStatistics.max(unclipped) - ImageStatistics.min(unclipped);
+		assertTrue(rangeClipped < rangeUnclipped*0.5);
+	}
+
+	/**
+	 * Equalize values with a 16-bit histogram on an image large enough for the transform to overflow an int
+	 */
+	@Test void equalize_noOverflow() {
+		int[] histogram = new int[65536];
+		histogram[0] = 40_000;
+		histogram[65535] = 40_000;
+		int[] transform = new int[65536];
+		EnhanceImageOps.equalize(histogram, transform);
+		assertEquals(32767, transform[0]);
+		assertEquals(65535, transform[65535]);
+	}
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.enhance.impl;
+
+import boofcv.alg.enhance.EnhanceImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplEnhanceClahe extends BoofStandardJUnit {
+	int width = 45, height = 32;
+	int histogramLength = 256;
+
+	/**
+	 * Compare against a straightforward implementation which computes the transform for each tile from scratch
+	 */
+	@Test void compareToNaive_U8() {
+		var input = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+		var found = new GrayU8(width, height);
+
+		for (int tilesX : new int[]{1, 3, 4}) {
+			for (int tilesY : new int[]{1, 2, 5}) {
+				for (double clipLimit : new double[]{0.0, 1.5, 4.0}) {
+					int[] transforms = new int[tilesX*tilesY*histogramLength];
+					ImplEnhanceClahe.computeTransforms(input, tilesX, tilesY, clipLimit, histogramLength, transforms);
+					ImplEnhanceClahe.applyTransforms(input, tilesX, tilesY, histogramLength, transforms, found);
+
+					for (int y = 0; y < height; y++) {
+						for (int x = 0; x < width; x++) {
+							int expected = naive(input.get(x, y), x, y, tilesX, tilesY, clipLimit, (tx, ty, h) -> {
+								for (int i = ty*height/tilesY; i < (ty + 1)*height/tilesY; i++)
+									for (int j = tx*width/tilesX; j < (tx + 1)*width/tilesX; j++)
+										h[input.get(j, i)]++;
+							});
+							assertEquals(expected, found.get(x, y), 1);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test void compareToNaive_U16() {
+		var input = new GrayU16(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, histogramLength);
+		var found = new GrayU16(width, height);
+
+		int tilesX = 3, tilesY = 2;
+		double clipLimit = 2.0;
+		int[] transforms = new int[tilesX*tilesY*histogramLength];
+		ImplEnhanceClahe.computeTransforms(input, tilesX, tilesY, clipLimit, histogramLength, transforms);
+		ImplEnhanceClahe.applyTransforms(input, tilesX, tilesY, histogramLength, transforms, found);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int expected = naive(input.get(x, y), x, y, tilesX, tilesY, clipLimit, (tx, ty, h) -> {
+					for (int i = ty*height/tilesY; i < (ty + 1)*height/tilesY; i++)
+						for (int j = tx*width/tilesX; j < (tx + 1)*width/tilesX; j++)
+							h[input.get(j, i)]++;
+				});
+				assertEquals(expected, found.get(x, y), 1);
+			}
+		}
+	}
+
+	/**
+	 * Computes the transformed value by interpolating between tiles along each axis
+	 */
+	int naive( int value, int x, int y, int tilesX, int tilesY, double clipLimit, TileHistogram histogram ) {
+		// centers of every tile
+		double[] centersX = new double[tilesX];
+		double[] centersY = new double[tilesY];
+		for (int i = 0; i < tilesX; i++)
+			centersX[i] = (i*width/tilesX + (i + 1)*width/tilesX - 1)/2.0;
+		for (int i = 0; i < tilesY; i++)
+			centersY[i] = (i*height/tilesY + (i + 1)*height/tilesY - 1)/2.0;
+
+		double sum = 0;
+		for (int ty = 0; ty < tilesY; ty++) {
+			double wy = weight(y, ty, centersY);
+			for (int tx = 0; tx < tilesX; tx++) {
+				double w = weight(x, tx, centersX)*wy;
+				if (w == 0.0)
+					continue;
+
+				int[] h = new int[histogramLength];
+				histogram.compute(tx, ty, h);
+				int total = (width*(tx + 1)/tilesX - width*tx/tilesX)*(height*(ty + 1)/tilesY - height*ty/tilesY);
+				ImplEnhanceClahe.clipHistogram(h, 0, histogramLength, clipLimit, total);
+				int[] transform = new int[histogramLength];
+				EnhanceImageOps.equalize(h, transform);
+				sum += w*transform[value];
+			}
+		}
+		return (int)(sum + 0.5);
+	}
+
+	/** Weight of a tile using linear interpolation between neighboring centers */
+	double weight( int coordinate, int tile, double[] centers ) {
+		int n = centers.length;
+		if (coordinate <= centers[0])
+			return tile == 0 ? 1.0 : 0.0;
+		if (coordinate >= centers[n - 1])
+			return tile == n - 1 ? 1.0 : 0.0;
+		if (tile > 0 && coordinate >= centers[tile - 1] && coordinate <= centers[tile])
+			return (coordinate - centers[tile - 1])/(centers[tile] - centers[tile - 1]);
+		if (tile < n - 1 && coordinate >= centers[tile] && coordinate < centers[tile + 1])
+			return (centers[tile + 1] - coordinate)/(centers[tile + 1] - centers[tile]);
+		return 0.0;
+	}
+
+	@Test void clipHistogram() {
+		int[] histogram = new int[]{0, 0, 40, 2, 3, 1, 0, 2, 0, 0};
+		ImplEnhanceClahe.clipHistogram(histogram, 0, histogram.length, 2.0, 48);
+
+		int sum = 0;
+		for (int value : histogram) {
+			sum += value;
+			// limit is 9 and the excess is 31, so 3 is added to every bin and one bin gets an extra
+			assertTrue(value >= 3 && value <= 13);
+		}
+		assertEquals(48, sum);
+		assertTrue(histogram[2] <= 13);
+	}
+
+	/** No clipping should leave the histogram untouched */
+	@Test void clipHistogram_disabled() {
+		int[] histogram = new int[]{0, 0, 40, 2, 3, 1, 0, 2, 0, 0};
+		int[] copy = histogram.clone();
+		ImplEnhanceClahe.clipHistogram(histogram, 0, histogram.length, 0.0, 48);
+		for (int i = 0; i < histogram.length; i++) {
+			assertEquals(copy[i], histogram[i]);
+		}
+	}
+
+	@Test void closestTileBefore() {
+		// tiles are 0 to 3, 3 to 6, and 6 to 10 with centers at 1, 4, and 7.5
+		assertEquals(-1, ImplEnhanceClahe.closestTileBefore(0, 3, 10));
+		assertEquals(0, ImplEnhanceClahe.closestTileBefore(1, 3, 10));
+		assertEquals(0, ImplEnhanceClahe.closestTileBefore(3, 3, 10));
+		assertEquals(1, ImplEnhanceClahe.closestTileBefore(4, 3, 10));
+		assertEquals(1, ImplEnhanceClahe.closestTileBefore(7, 3, 10));
+		assertEquals(2, ImplEnhanceClahe.closestTileBefore(8, 3, 10));
+		assertEquals(2, ImplEnhanceClahe.closestTileBefore(9, 3, 10));
+	}
+
+	interface TileHistogram {
+		void compute( int tileX, int tileY, int[] histogram );
+	}
+}
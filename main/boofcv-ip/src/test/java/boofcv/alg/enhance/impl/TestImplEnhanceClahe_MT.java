@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.enhance.impl;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplEnhanceClahe_MT extends BoofStandardJUnit {
+	int width = 120, height = 90;
+	int tilesX = 5, tilesY = 4;
+
+	@Test void compareToSingle_U8() {
+		var input = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+
+		int[] expectedT = new int[tilesX*tilesY*256];
+		int[] foundT = new int[tilesX*tilesY*256];
+		ImplEnhanceClahe.computeTransforms(input, tilesX, tilesY, 3.0, 256, expectedT);
+		ImplEnhanceClahe_MT.computeTransforms(input, tilesX, tilesY, 3.0, 256, foundT);
+		assertArrayEquals(expectedT, foundT);
+
+		var expected = new GrayU8(width, height);
+		var found = new GrayU8(width, height);
+		ImplEnhanceClahe.applyTransforms(input, tilesX, tilesY, 256, expectedT, expected);
+		ImplEnhanceClahe_MT.applyTransforms(input, tilesX, tilesY, 256, expectedT, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test void compareToSingle_U16() {
+		var input = new GrayU16(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 1024);
+
+		int[] expectedT = new int[tilesX*tilesY*1024];
+		int[] foundT = new int[tilesX*tilesY*1024];
+		ImplEnhanceClahe.computeTransforms(input, tilesX, tilesY, 3.0, 1024, expectedT);
+		ImplEnhanceClahe_MT.computeTransforms(input, tilesX, tilesY, 3.0, 1024, foundT);
+		assertArrayEquals(expectedT, foundT);
+
+		var expected = new GrayU16(width, height);
+		var found = new GrayU16(width, height);
+		ImplEnhanceClahe.applyTransforms(input, tilesX, tilesY, 1024, expectedT, expected);
+		ImplEnhanceClahe_MT.applyTransforms(input, tilesX, tilesY, 1024, expectedT, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestBinaryBlobLabeling extends BoofStandardJUnit {
+	int width = 60;
+	int height = 73;
+
+	@AfterEach void resetConcurrency() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
+	/**
+	 * The labeled image should be identical to the contour based algorithm no matter how many bands there are
+	 */
+	@Test void compareToChang2004() {
+		for (ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR, ConnectRule.EIGHT}) {
+			var chang = new LinearContourLabelChang2004(rule);
+
+			for (int numBands : new int[]{1, 2, 7, height}) {
+				for (boolean concurrent : new boolean[]{false, true}) {
+					BoofConcurrency.USE_CONCURRENT = concurrent;
+
+					GrayU8 binary = new GrayU8(width, height);
+					ImageMiscOps.fillUniform(binary, rand, 0, 2);
+					// Large blob which crosses many bands
+					ImageMiscOps.fillRectangle(binary, 1, 5, 2, 10, height - 4);
+
+					var expected = new GrayS32(width, height);
+					chang.process(binary, expected);
+
+					BoofTesting.checkSubImage(this, "compareToChang2004", true,
+							new FixedBands(rule, numBands), binary, expected, new GrayS32(width, height));
+				}
+			}
+		}
+	}
+
+	public void compareToChang2004( BinaryBlobLabeling alg, GrayU8 binary, GrayS32 expected, GrayS32 found ) {
+		alg.process(binary, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test void blobStatistics() {
+		for (int numBands : new int[]{1, 3}) {
+			GrayU8 binary = new GrayU8(width, height);
+			ImageMiscOps.fillUniform(binary, rand, 0, 2);
+
+			var labeled = new GrayS32(width, height);
+			var alg = new FixedBands(ConnectRule.EIGHT, numBands);
+			alg.process(binary, labeled);
+
+			// Compute the statistics from the labeled image
+			int numBlobs = alg.getBlobs().size;
+			var area = new int[numBlobs];
+			var x0 = new int[numBlobs];
+			var y0 = new int[numBlobs];
+			var x1 = new int[numBlobs];
+			var y1 = new int[numBlobs];
+			var sumX = new double[numBlobs];
+			var sumY = new double[numBlobs];
+			for (int i = 0; i < numBlobs; i++) {
+				x0[i] = y0[i] = Integer.MAX_VALUE;
+			}
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					int label = labeled.get(x, y);
+					if (label == 0)
+						continue;
+					int i = label - 1;
+					area[i]++;
+					sumX[i] += x;
+					sumY[i] += y;
+					x0[i] = Math.min(x0[i], x);
+					y0[i] = Math.min(y0[i], y);
+					x1[i] = Math.max(x1[i], x + 1);
+					y1[i] = Math.max(y1[i], y + 1);
+				}
+			}
+
+			for (int i = 0; i < numBlobs; i++) {
+				BinaryBlobLabeling.Blob blob = alg.getBlobs().get(i);
+				assertEquals(area[i], blob.area);
+				assertEquals(x0[i], blob.bounds.x0);
+				assertEquals(y0[i], blob.bounds.y0);
+				assertEquals(x1[i], blob.bounds.x1);
+				assertEquals(y1[i], blob.bounds.y1);
+				assertEquals(sumX[i]/area[i], blob.centroid.x, 1e-8);
+				assertEquals(sumY[i]/area[i], blob.centroid.y, 1e-8);
+			}
+		}
+	}
+
+	/**
+	 * Everything is one blob and the image is being reused
+	 */
+	@Test void singleBlob_multipleCalls() {
+		var alg = new FixedBands(ConnectRule.FOUR, 4);
+		var binary = new GrayU8(width, height);
+		var labeled = new GrayS32(width, height);
+
+		for (int trial = 0; trial < 2; trial++) {
+			ImageMiscOps.fill(binary, 1);
+			alg.process(binary, labeled);
+
+			assertEquals(1, alg.getBlobs().size);
+			assertEquals(width*height, alg.getBlobs().get(0).area);
+			for (int i = 0; i < labeled.data.length; i++) {
+				assertEquals(1, labeled.data[i]);
+			}
+		}
+
+		ImageMiscOps.fill(binary, 0);
+		alg.process(binary, labeled);
+		assertEquals(0, alg.getBlobs().size);
+	}
+
+	/**
+	 * Forces the number of bands so that seams can be tested with a single thread
+	 */
+	static class FixedBands extends BinaryBlobLabeling {
+		int numBands;
+
+		public FixedBands( ConnectRule rule, int numBands ) {
+			super(rule);
+			this.numBands = numBands;
+		}
+
+		@Override int selectNumberOfBands( int height ) {
+			return numBands;
+		}
+	}
+}
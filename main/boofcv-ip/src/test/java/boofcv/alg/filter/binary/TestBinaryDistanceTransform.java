@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.BoofTesting;
+import boofcv.alg.filter.binary.BinaryDistanceTransform.Metric;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestBinaryDistanceTransform extends BoofStandardJUnit {
+	int width = 35;
+	int height = 30;
+
+	@AfterEach void resetConcurrency() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
+	/**
+	 * Compare the separable metrics against brute force with a few different densities of features
+	 */
+	@Test void compareToBruteForce() {
+		for (boolean concurrent : new boolean[]{false, true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for (Metric metric : new Metric[]{Metric.EUCLIDEAN, Metric.CITY_BLOCK}) {
+				for (boolean toZero : new boolean[]{false, true}) {
+					for (double fraction : new double[]{0.002, 0.05, 0.5}) {
+						GrayU8 binary = randomBinary(fraction);
+						if (toZero)
+							binary = BinaryImageOps.invert(binary, null);
+
+						var alg = new BinaryDistanceTransform(metric);
+						alg.setToZero(toZero);
+						BoofTesting.checkSubImage(this, "compareToBruteForce", true, alg, binary,
+								new GrayF32(width, height), new GrayS32(width, height));
+					}
+				}
+			}
+		}
+	}
+
+	public void compareToBruteForce( BinaryDistanceTransform alg, GrayU8 binary, GrayF32 distance, GrayS32 nearest ) {
+		alg.process(binary, distance, nearest);
+
+		boolean euclidean = alg.getMetric() == Metric.EUCLIDEAN;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double expected = Float.MAX_VALUE;
+				for (int i = 0; i < height; i++) {
+					for (int j = 0; j < width; j++) {
+						if ((binary.get(j, i) != 0) == alg.isToZero())
+							continue;
+						double d = distance(x, y, j, i, euclidean);
+						expected = Math.min(expected, d);
+					}
+				}
+				assertEquals(expected, distance.get(x, y), 1e-4);
+
+				// There can be ties, so make sure the nearest feature is at the expected distance
+				int index = nearest.get(x, y);
+				if (expected == Float.MAX_VALUE) {
+					assertEquals(-1, index);
+				} else {
+					assertEquals(expected, distance(x, y, index%width, index/width, euclidean), 1e-4);
+				}
+			}
+		}
+	}
+
+	/**
+	 * For a single feature the chamfer distance can be computed analytically
+	 */
+	@Test void chamfer_single() {
+		var binary = new GrayU8(width, height);
+		binary.set(12, 9, 1);
+
+		var alg = new BinaryDistanceTransform(Metric.CHAMFER);
+		var distance = new GrayF32(1, 1);
+		var nearest = new GrayS32(1, 1);
+		alg.process(binary, distance, nearest);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int dx = Math.abs(x - 12);
+				int dy = Math.abs(y - 9);
+				float expected = (3*Math.abs(dx - dy) + 4*Math.min(dx, dy))/3.0f;
+				assertEquals(expected, distance.get(x, y), 1e-4f);
+				assertEquals(9*width + 12, nearest.get(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Chamfer should be close to the Euclidean distance and the nearest feature should be consistent
+	 */
+	@Test void chamfer_random() {
+		GrayU8 binary = randomBinary(0.01);
+		var euclidean = new GrayF32(1, 1);
+		new BinaryDistanceTransform(Metric.EUCLIDEAN).process(binary, euclidean, null);
+
+		var alg = new BinaryDistanceTransform(Metric.CHAMFER);
+		BoofTesting.checkSubImage(this, "chamfer_random", true, alg, binary, euclidean,
+				new GrayF32(width, height), new GrayS32(width, height));
+	}
+
+	public void chamfer_random( BinaryDistanceTransform alg, GrayU8 binary, GrayF32 euclidean,
+								GrayF32 distance, GrayS32 nearest ) {
+		alg.process(binary, distance, nearest);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				float found = distance.get(x, y);
+				float expected = euclidean.get(x, y);
+				assertEquals(expected, found, 0.09*expected + 1e-4);
+
+				int index = nearest.get(x, y);
+				assertEquals(1, binary.get(index%width, index/width));
+			}
+		}
+	}
+
+	/**
+	 * If there are no features everything should be marked as infinitely far away
+	 */
+	@Test void noFeatures() {
+		var binary = new GrayU8(width, height);
+		var distance = new GrayF32(1, 1);
+		var nearest = new GrayS32(1, 1);
+
+		for (Metric metric : Metric.values()) {
+			new BinaryDistanceTransform(metric).process(binary, distance, nearest);
+			for (int i = 0; i < distance.totalPixels(); i++) {
+				assertEquals(Float.MAX_VALUE, distance.data[i]);
+				assertEquals(-1, nearest.data[i]);
+			}
+		}
+	}
+
+	private GrayU8 randomBinary( double fraction ) {
+		var binary = new GrayU8(width, height);
+		for (int i = 0; i < binary.data.length; i++) {
+			binary.data[i] = (byte)(rand.nextDouble() < fraction ? 1 : 0);
+		}
+		// make sure there's at least one feature
+		binary.set(rand.nextInt(width), rand.nextInt(height), 1);
+		return binary;
+	}
+
+	private static double distance( int x0, int y0, int x1, int y1, boolean euclidean ) {
+		int dx = x1 - x0, dy = y1 - y0;
+		return euclidean ? Math.sqrt(dx*dx + dy*dy) : Math.abs(dx) + Math.abs(dy);
+	}
+}
@@ -18,12 +18,15 @@
 
 package boofcv.alg.filter.binary;
 
+import boofcv.BoofTesting;
+import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.PackedSetsPoint2D_I32;
 import boofcv.struct.border.ImageBorder;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
 import boofcv.testing.BoofStandardJUnit;
 import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.DogArray;
@@ -178,6 +181,32 @@ public class TestLinearContourLabelChang2004 extends BoofStandardJUnit {
 		assertEquals(4, alg.packedPoints.sizeOfSet(c.externalIndex + 1));
 	}
 
+	/**
+	 * Packed images should produce the same results as GrayU8
+	 */
+	@Test void packed() {
+		var binary = new GrayU8(150, 90);
+		GImageMiscOps.fillUniform(binary, rand, 0, 1);
+		PackedBinaryImage packed = PackedBinaryImageOps.pack(binary, null);
+
+		for (var rule : ConnectRule.values()) {
+			var expected = new LinearContourLabelChang2004(rule);
+			var alg = new LinearContourLabelChang2004(rule);
+			var labeledA = new GrayS32(1, 1);
+			var labeledB = new GrayS32(1, 1);
+
+			expected.process(binary, labeledA);
+			alg.process(packed, labeledB);
+
+			BoofTesting.assertEquals(labeledA, labeledB, 0);
+			assertEquals(expected.getContours().size, alg.getContours().size);
+			for (int i = 0; i < expected.getContours().size; i++) {
+				assertEquals(expected.getPackedPoints().getSet(expected.getContours().get(i).externalIndex),
+						alg.getPackedPoints().getSet(alg.getContours().get(i).externalIndex));
+			}
+		}
+	}
+
 	/**
 	 * Creates a list of every pixel with the specified label that is on the contour. Removes duplicate points
 	 * in the found contour. Sees if the two lists are equivalent.
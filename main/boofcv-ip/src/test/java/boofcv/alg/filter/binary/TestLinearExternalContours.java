@@ -24,6 +24,7 @@ import boofcv.struct.ConnectRule;
 import boofcv.struct.PackedSetsPoint2D_I32;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
 import boofcv.testing.BoofStandardJUnit;
 import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.DogArray;
@@ -140,6 +141,36 @@ class TestLinearExternalContours extends BoofStandardJUnit {
 		}
 	}
 
+	/**
+	 * Packed images should produce the same contours as a GrayU8 which has a border of zeros
+	 */
+	@Test
+	void packed() {
+		var binary = new GrayU8(150, 90);
+		GImageMiscOps.fillUniform(binary, rand, 0, 1);
+
+		var binaryExpanded = binary.createNew(binary.width + 2, binary.height + 2);
+		GImageMiscOps.copy(0, 0, 1, 1, binary.width, binary.height, binary, binaryExpanded);
+		PackedBinaryImage packed = PackedBinaryImageOps.pack(binary, null);
+
+		for (var rule : ConnectRule.values()) {
+			var expected = new LinearExternalContours(rule);
+			var alg = new LinearExternalContours(rule);
+
+			expected.process(binaryExpanded.clone(), 1, 1);
+			alg.process(packed, 0, 0);
+
+			PackedSetsPoint2D_I32 contoursA = expected.getExternalContours();
+			PackedSetsPoint2D_I32 contoursB = alg.getExternalContours();
+			assertEquals(contoursA.size(), contoursB.size());
+			for (int i = 0; i < contoursA.size(); i++) {
+				assertEquals(contoursA.getSet(i), contoursB.getSet(i));
+			}
+		}
+		// input should not be modified
+		assertTrue(PackedBinaryImageOps.pack(binary, null).isIdentical(packed));
+	}
+
 	@Test
 	void test1_4() {
 		LinearExternalContours alg = new LinearExternalContours(ConnectRule.FOUR);
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Results are compared against {@link BinaryImageOps} using widths which do and do not fill the last word
+ *
+ * @author Peter Abeles
+ */
+class TestPackedBinaryImageOps extends BoofStandardJUnit {
+	int[] widths = {1, 5, 63, 64, 65, 128, 200};
+	int height = 23;
+
+	@AfterEach void restoreConcurrency() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
+	@Test void pack_unpack() {
+		for (int width : widths) {
+			GrayU8 binary = randomBinary(width, height);
+			PackedBinaryImage packed = PackedBinaryImageOps.pack(binary, null);
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					assertEquals(binary.get(x, y), packed.get(x, y));
+				}
+			}
+			checkPadding(packed);
+
+			BoofTesting.assertEquals(binary, PackedBinaryImageOps.unpack(packed, null), 0);
+		}
+	}
+
+	@Test void threshold_U8() {
+		var gray = new GrayU8(100, height);
+		ImageMiscOps.fillUniform(gray, rand, 0, 255);
+
+		for (boolean down : new boolean[]{true, false}) {
+			GrayU8 expected = ThresholdImageOps.threshold(gray, null, 120, down);
+			PackedBinaryImage found = PackedBinaryImageOps.threshold(gray, null, 120, down);
+			BoofTesting.assertEquals(expected, PackedBinaryImageOps.unpack(found, null), 0);
+			checkPadding(found);
+		}
+	}
+
+	@Test void threshold_F32() {
+		var gray = new GrayF32(100, height);
+		ImageMiscOps.fillUniform(gray, rand, -1.0f, 1.0f);
+
+		for (boolean down : new boolean[]{true, false}) {
+			GrayU8 expected = ThresholdImageOps.threshold(gray, null, 0.1f, down);
+			PackedBinaryImage found = PackedBinaryImageOps.threshold(gray, null, 0.1f, down);
+			BoofTesting.assertEquals(expected, PackedBinaryImageOps.unpack(found, null), 0);
+			checkPadding(found);
+		}
+	}
+
+	@Test void logic() {
+		compareLogic(BinaryImageOps::logicAnd, PackedBinaryImageOps::logicAnd);
+		compareLogic(BinaryImageOps::logicOr, PackedBinaryImageOps::logicOr);
+		compareLogic(BinaryImageOps::logicXor, PackedBinaryImageOps::logicXor);
+	}
+
+	@Test void invert() {
+		compareUnary(a -> BinaryImageOps.invert(a, null), a -> PackedBinaryImageOps.invert(a, null));
+	}
+
+	@Test void invert_zeroWidth() {
+		var image = new PackedBinaryImage(0, 5);
+		PackedBinaryImage found = PackedBinaryImageOps.invert(image, null);
+		assertEquals(0, found.width);
+		assertEquals(5, found.height);
+	}
+
+	@Test void erode4() {
+		for (int numTimes = 1; numTimes <= 3; numTimes++) {
+			int n = numTimes;
+			compareUnary(a -> BinaryImageOps.erode4(a, n, null), a -> PackedBinaryImageOps.erode4(a, n, null));
+		}
+	}
+
+	@Test void dilate4() {
+		for (int numTimes = 1; numTimes <= 3; numTimes++) {
+			int n = numTimes;
+			compareUnary(a -> BinaryImageOps.dilate4(a, n, null), a -> PackedBinaryImageOps.dilate4(a, n, null));
+		}
+	}
+
+	@Test void erode8() {
+		for (int numTimes = 1; numTimes <= 3; numTimes++) {
+			int n = numTimes;
+			compareUnary(a -> BinaryImageOps.erode8(a, n, null), a -> PackedBinaryImageOps.erode8(a, n, null));
+		}
+	}
+
+	@Test void dilate8() {
+		for (int numTimes = 1; numTimes <= 3; numTimes++) {
+			int n = numTimes;
+			compareUnary(a -> BinaryImageOps.dilate8(a, n, null), a -> PackedBinaryImageOps.dilate8(a, n, null));
+		}
+	}
+
+	@Test void morph_sameInstance() {
+		var image = new PackedBinaryImage(70, 10);
+		assertThrows(IllegalArgumentException.class, () -> PackedBinaryImageOps.erode4(image, 1, image));
+	}
+
+	@Test void countOnes() {
+		for (int width : widths) {
+			GrayU8 binary = randomBinary(width, height);
+			PackedBinaryImage packed = PackedBinaryImageOps.pack(binary, null);
+			assertEquals(ImageStatistics.sum(binary), PackedBinaryImageOps.countOnes(packed));
+		}
+	}
+
+	@Test void countOnes_region() {
+		GrayU8 binary = randomBinary(200, height);
+		PackedBinaryImage packed = PackedBinaryImageOps.pack(binary, null);
+
+		for (int trial = 0; trial < 200; trial++) {
+			int x0 = rand.nextInt(binary.width);
+			int x1 = x0 + rand.nextInt(binary.width - x0) + 1;
+			int y0 = rand.nextInt(height);
+			int y1 = y0 + rand.nextInt(height - y0) + 1;
+
+			int expected = ImageStatistics.sum(binary.subimage(x0, y0, x1, y1));
+			assertEquals(expected, PackedBinaryImageOps.countOnes(packed, x0, y0, x1, y1));
+		}
+
+		assertEquals(0, PackedBinaryImageOps.countOnes(packed, 5, 5, 5, 10));
+		assertThrows(IllegalArgumentException.class, () -> PackedBinaryImageOps.countOnes(packed, 0, 0, 201, 5));
+	}
+
+	private void compareLogic( Op2<GrayU8> expectedOp, Op2<PackedBinaryImage> foundOp ) {
+		for (boolean concurrent : new boolean[]{false, true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for (int width : widths) {
+				GrayU8 a = randomBinary(width, height);
+				GrayU8 b = randomBinary(width, height);
+
+				GrayU8 expected = expectedOp.process(a, b, null);
+				PackedBinaryImage found = foundOp.process(
+						PackedBinaryImageOps.pack(a, null), PackedBinaryImageOps.pack(b, null), null);
+
+				BoofTesting.assertEquals(expected, PackedBinaryImageOps.unpack(found, null), 0);
+				checkPadding(found);
+			}
+		}
+	}
+
+	private void compareUnary( Function<GrayU8, GrayU8> expectedOp,
+							   Function<PackedBinaryImage, PackedBinaryImage> foundOp ) {
+		for (boolean concurrent : new boolean[]{false, true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for (int width : widths) {
+				// Include images which are entirely filled to test the image border
+				for (int fill = 0; fill < 2; fill++) {
+					GrayU8 a = fill == 0 ? randomBinary(width, height) : new GrayU8(width, height);
+					if (fill == 1)
+						ImageMiscOps.fill(a, 1);
+
+					GrayU8 expected = expectedOp.apply(a);
+					PackedBinaryImage found = foundOp.apply(PackedBinaryImageOps.pack(a, null));
+
+					BoofTesting.assertEquals(expected, PackedBinaryImageOps.unpack(found, null), 0);
+					checkPadding(found);
+				}
+			}
+		}
+	}
+
+	private GrayU8 randomBinary( int width, int height ) {
+		var binary = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(binary, rand, 0, 2);
+		return binary;
+	}
+
+	/**
+	 * Bits past the end of each row must be zero
+	 */
+	private void checkPadding( PackedBinaryImage image ) {
+		long mask = image.getLastMask();
+		for (int y = 0; y < image.height; y++) {
+			assertEquals(0L, image.data[image.getRowIndex(y) + image.stride - 1] & ~mask);
+		}
+	}
+
+	@FunctionalInterface
+	interface Op2<T> {
+		T process( T a, T b, T output );
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary.impl;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+public class TestImplDistanceTransform_MT extends BoofStandardJUnit {
+	int width = 200;
+	int height = 210;
+
+	@Test void compareToSingle() {
+		var binary = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(binary, rand, 0, 2);
+		ImageMiscOps.fillRectangle(binary, 0, 20, 30, 100, 120);
+
+		var rowExpected = new GrayS32(width, height);
+		var rowFound = new GrayS32(width, height);
+		ImplDistanceTransform.nearestInColumn(binary, false, rowExpected);
+		ImplDistanceTransform_MT.nearestInColumn(binary, false, rowFound);
+		BoofTesting.assertEquals(rowExpected, rowFound, 0);
+
+		var distExpected = new GrayF32(width, height);
+		var distFound = new GrayF32(width, height);
+		var nearestExpected = new GrayS32(width, height);
+		var nearestFound = new GrayS32(width, height);
+
+		ImplDistanceTransform.euclidean(rowExpected, distExpected, nearestExpected, null);
+		ImplDistanceTransform_MT.euclidean(rowExpected, distFound, nearestFound, null);
+		BoofTesting.assertEquals(distExpected, distFound, 0);
+		BoofTesting.assertEquals(nearestExpected, nearestFound, 0);
+
+		ImplDistanceTransform.cityBlock(rowExpected, distExpected, nearestExpected, null);
+		ImplDistanceTransform_MT.cityBlock(rowExpected, distFound, nearestFound, null);
+		BoofTesting.assertEquals(distExpected, distFound, 0);
+		BoofTesting.assertEquals(nearestExpected, nearestFound, 0);
+	}
+}
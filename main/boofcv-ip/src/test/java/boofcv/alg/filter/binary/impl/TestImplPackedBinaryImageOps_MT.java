@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary.impl;
+
+import boofcv.BoofTesting;
+import boofcv.alg.filter.binary.PackedBinaryImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.PackedBinaryImage;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TestImplPackedBinaryImageOps_MT extends BoofStandardJUnit {
+	int width = 200;
+	int height = 210;
+
+	@Test void pack_unpack() {
+		var binary = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(binary, rand, 0, 2);
+
+		PackedBinaryImage expected = new PackedBinaryImage(width, height);
+		PackedBinaryImage found = new PackedBinaryImage(width, height);
+		ImplPackedBinaryImageOps.pack(binary, expected);
+		ImplPackedBinaryImageOps_MT.pack(binary, found);
+		assertIdentical(expected, found);
+
+		var expectedU8 = new GrayU8(width, height);
+		var foundU8 = new GrayU8(width, height);
+		ImplPackedBinaryImageOps.unpack(expected, expectedU8);
+		ImplPackedBinaryImageOps_MT.unpack(expected, foundU8);
+		BoofTesting.assertEquals(expectedU8, foundU8, 0);
+	}
+
+	@Test void threshold_U8() {
+		var gray = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(gray, rand, 0, 255);
+
+		for (boolean down : new boolean[]{true, false}) {
+			PackedBinaryImage expected = new PackedBinaryImage(width, height);
+			PackedBinaryImage found = new PackedBinaryImage(width, height);
+			ImplPackedBinaryImageOps.threshold(gray, expected, 120, down);
+			ImplPackedBinaryImageOps_MT.threshold(gray, found, 120, down);
+			assertIdentical(expected, found);
+		}
+	}
+
+	@Test void threshold_F32() {
+		var gray = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(gray, rand, -1.0f, 1.0f);
+
+		for (boolean down : new boolean[]{true, false}) {
+			PackedBinaryImage expected = new PackedBinaryImage(width, height);
+			PackedBinaryImage found = new PackedBinaryImage(width, height);
+			ImplPackedBinaryImageOps.threshold(gray, expected, 0.1f, down);
+			ImplPackedBinaryImageOps_MT.threshold(gray, found, 0.1f, down);
+			assertIdentical(expected, found);
+		}
+	}
+
+	@Test void logic() {
+		PackedBinaryImage inputA = randomPacked();
+		PackedBinaryImage inputB = randomPacked();
+
+		PackedBinaryImage expected = new PackedBinaryImage(width, height);
+		PackedBinaryImage found = new PackedBinaryImage(width, height);
+
+		ImplPackedBinaryImageOps.logicAnd(inputA, inputB, expected);
+		ImplPackedBinaryImageOps_MT.logicAnd(inputA, inputB, found);
+		assertIdentical(expected, found);
+
+		ImplPackedBinaryImageOps.logicOr(inputA, inputB, expected);
+		ImplPackedBinaryImageOps_MT.logicOr(inputA, inputB, found);
+		assertIdentical(expected, found);
+
+		ImplPackedBinaryImageOps.logicXor(inputA, inputB, expected);
+		ImplPackedBinaryImageOps_MT.logicXor(inputA, inputB, found);
+		assertIdentical(expected, found);
+	}
+
+	@Test void invert() {
+		compareUnary(ImplPackedBinaryImageOps::invert, ImplPackedBinaryImageOps_MT::invert);
+	}
+
+	@Test void erode4() {
+		compareUnary(ImplPackedBinaryImageOps::erode4, ImplPackedBinaryImageOps_MT::erode4);
+	}
+
+	@Test void dilate4() {
+		compareUnary(ImplPackedBinaryImageOps::dilate4, ImplPackedBinaryImageOps_MT::dilate4);
+	}
+
+	@Test void erode8() {
+		compareUnary(ImplPackedBinaryImageOps::erode8, ImplPackedBinaryImageOps_MT::erode8);
+	}
+
+	@Test void dilate8() {
+		compareUnary(ImplPackedBinaryImageOps::dilate8, ImplPackedBinaryImageOps_MT::dilate8);
+	}
+
+	private void compareUnary( BiConsumer<PackedBinaryImage, PackedBinaryImage> single,
+							   BiConsumer<PackedBinaryImage, PackedBinaryImage> concurrent ) {
+		PackedBinaryImage input = randomPacked();
+		PackedBinaryImage expected = new PackedBinaryImage(width, height);
+		PackedBinaryImage found = new PackedBinaryImage(width, height);
+
+		single.accept(input, expected);
+		concurrent.accept(input, found);
+		assertIdentical(expected, found);
+	}
+
+	private PackedBinaryImage randomPacked() {
+		var binary = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(binary, rand, 0, 2);
+		return PackedBinaryImageOps.pack(binary, null);
+	}
+
+	private void assertIdentical( PackedBinaryImage expected, PackedBinaryImage found ) {
+		int length = expected.stride*expected.height;
+		assertArrayEquals(Arrays.copyOf(expected.data, length), Arrays.copyOf(found.data, length));
+	}
+}
@@ -249,6 +249,49 @@ import java.lang.reflect.Method;
 		}
 	}
 
+	/**
+	 * Large radius will switch algorithms. Make sure the results are the same
+	 */
+	@Test void median_largeRadius() {
+		var input = new GrayU8(40, 35);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		int radius = BlurImageOps.MEDIAN_CONSTANT_RADIUS;
+		GrayU8 found = BlurImageOps.median(input, null, radius, radius - 1, null);
+		var expected = new GrayU8(40, 35);
+		ImplMedianSortNaive.process(input, expected, radius, radius - 1, null);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test void median_U16() {
+		var input = new GrayU16(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 3000);
+
+		for (int radiusX = 1; radiusX <= 4; radiusX++) {
+			int radiusY = radiusX + 1;
+			GrayU16 found = BlurImageOps.median(input, null, radiusX, radiusY, null);
+			var expected = new GrayU16(width, height);
+			ImplMedianSortNaive.process(input, expected, radiusX, radiusY, null);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	@Test void medianQuantized() {
+		var input = new GrayF32(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 20);
+
+		for (int radiusX = 1; radiusX <= 4; radiusX++) {
+			int radiusY = radiusX + 1;
+			GrayF32 found = BlurImageOps.medianQuantized(input, null, radiusX, radiusY, 12, null);
+			var expected = new GrayF32(width, height);
+			ImplMedianSortNaive.process(input, expected, radiusX, radiusY, null);
+
+			BoofTesting.assertEquals(expected, found, 20.0/4095);
+		}
+	}
+
 	/**
 	 * Compare to low level implementation
 	 */
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.ConvertImage;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofStandardJUnit;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestGuidedFilter extends BoofStandardJUnit {
+	int width = 30;
+	int height = 25;
+	int radiusX = 3;
+	int radiusY = 2;
+	double epsilon = 0.05;
+
+	@Test void gray_F32() {
+		GrayF32 guide = new GrayF32(width, height);
+		GrayF32 input = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(guide, rand, 0, 1);
+		ImageMiscOps.fillUniform(input, rand, 0, 1);
+
+		BoofTesting.checkSubImage(this, "gray_F32", true, guide, input, new GrayF32(width, height));
+	}
+
+	public void gray_F32( GrayF32 guide, GrayF32 input, GrayF32 output ) {
+		var alg = new GuidedFilter(radiusX, radiusY, epsilon);
+		alg.process(guide, input, output);
+
+		GrayF32 expected = naive(List.of(guide), input, epsilon);
+		BoofTesting.assertEquals(expected, output, 1e-4);
+	}
+
+	/**
+	 * The input is also the guide, which has a special code path
+	 */
+	@Test void gray_F32_self() {
+		GrayF32 input = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 1);
+		GrayF32 output = new GrayF32(1, 1);
+
+		var alg = new GuidedFilter(radiusX, radiusY, epsilon);
+		alg.process(input, input, output);
+
+		GrayF32 expected = naive(List.of(input), input, epsilon);
+		BoofTesting.assertEquals(expected, output, 1e-4);
+	}
+
+	@Test void gray_U8() {
+		GrayU8 guide = new GrayU8(width, height);
+		GrayU8 input = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(guide, rand, 0, 255);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		BoofTesting.checkSubImage(this, "gray_U8", true, guide, input, new GrayU8(width, height));
+	}
+
+	public void gray_U8( GrayU8 guide, GrayU8 input, GrayU8 output ) {
+		// epsilon has units of intensity squared
+		double epsilonU8 = epsilon*255*255;
+		var alg = new GuidedFilter(radiusX, radiusY, epsilonU8);
+		alg.process(guide, input, output);
+
+		GrayF32 expected = naive(List.of(convert(guide)), convert(input), epsilonU8);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				float value = Math.max(0, Math.min(255, expected.get(x, y)));
+				assertEquals(value, output.get(x, y), 1.0);
+			}
+		}
+	}
+
+	@Test void color_F32() {
+		Planar<GrayF32> guide = new Planar<>(GrayF32.class, width, height, 3);
+		GrayF32 input = new GrayF32(width, height);
+		GImageMiscOps.fillUniform(guide, rand, 0, 1);
+		ImageMiscOps.fillUniform(input, rand, 0, 1);
+
+		BoofTesting.checkSubImage(this, "color_F32", true, guide, input, new GrayF32(width, height));
+	}
+
+	public void color_F32( Planar<GrayF32> guide, GrayF32 input, GrayF32 output ) {
+		var alg = new GuidedFilter(radiusX, radiusY, epsilon);
+		alg.process(guide, input, output);
+
+		GrayF32 expected = naive(List.of(guide.bands), input, epsilon);
+		BoofTesting.assertEquals(expected, output, 1e-3);
+	}
+
+	@Test void color_U8() {
+		Planar<GrayU8> guide = new Planar<>(GrayU8.class, width, height, 3);
+		GrayU8 input = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(guide, rand, 0, 255);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		double epsilonU8 = epsilon*255*255;
+		var alg = new GuidedFilter(radiusX, radiusY, epsilonU8);
+		GrayU8 output = new GrayU8(1, 1);
+		alg.process(guide, input, output);
+
+		GrayF32 expected = naive(List.of(convert(guide.getBand(0)), convert(guide.getBand(1)),
+				convert(guide.getBand(2))), convert(input), epsilonU8);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				float value = Math.max(0, Math.min(255, expected.get(x, y)));
+				assertEquals(value, output.get(x, y), 1.0);
+			}
+		}
+	}
+
+	/**
+	 * A step edge in a noisy image should remain sharp while the noise is smoothed
+	 */
+	@Test void preservesEdges() {
+		GrayF32 input = new GrayF32(40, 30);
+		ImageMiscOps.fillRectangle(input, 1.0f, 20, 0, 20, 30);
+		ImageMiscOps.addUniform(input, rand, -0.05f, 0.05f);
+		GrayF32 output = new GrayF32(1, 1);
+
+		var alg = new GuidedFilter(4, 4, 0.01);
+		alg.process(input, input, output);
+
+		for (int y = 0; y < input.height; y++) {
+			assertEquals(0.0, output.get(19, y), 0.1);
+			assertEquals(1.0, output.get(20, y), 0.1);
+		}
+
+		// Noise should be reduced away from the edge
+		double errorBefore = 0, errorAfter = 0;
+		for (int y = 0; y < input.height; y++) {
+			for (int x = 0; x < 15; x++) {
+				errorBefore += Math.abs(input.get(x, y));
+				errorAfter += Math.abs(output.get(x, y));
+			}
+		}
+		assertTrue(errorAfter < errorBefore*0.5);
+	}
+
+	@Test void colorGuideMustHaveThreeBands() {
+		var alg = new GuidedFilter(radiusX, radiusY, epsilon);
+		assertThrows(IllegalArgumentException.class, () -> alg.process(
+				new Planar<>(GrayF32.class, width, height, 2), new GrayF32(width, height), new GrayF32(1, 1)));
+	}
+
+	private static GrayF32 convert( GrayU8 image ) {
+		return ConvertImage.convert(image, (GrayF32)null);
+	}
+
+	/**
+	 * Brute force implementation which solves for the coefficients inside each region independently
+	 */
+	private GrayF32 naive( List<GrayF32> guide, GrayF32 input, double epsilon ) {
+		int bands = guide.size();
+		int width = input.width, height = input.height;
+
+		var coefA = new double[width*height][bands];
+		var coefB = new double[width*height];
+
+		var cov = new DMatrixRMaj(bands, bands);
+		var covGI = new DMatrixRMaj(bands, 1);
+		var a = new DMatrixRMaj(bands, 1);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int x0 = Math.max(0, x - radiusX), x1 = Math.min(width, x + radiusX + 1);
+				int y0 = Math.max(0, y - radiusY), y1 = Math.min(height, y + radiusY + 1);
+				int N = (x1 - x0)*(y1 - y0);
+
+				var meanG = new double[bands];
+				double meanI = 0;
+				for (int i = y0; i < y1; i++) {
+					for (int j = x0; j < x1; j++) {
+						for (int band = 0; band < bands; band++) {
+							meanG[band] += guide.get(band).get(j, i)/N;
+						}
+						meanI += input.get(j, i)/N;
+					}
+				}
+
+				cov.zero();
+				covGI.zero();
+				for (int i = y0; i < y1; i++) {
+					for (int j = x0; j < x1; j++) {
+						double vi = input.get(j, i) - meanI;
+						for (int r = 0; r < bands; r++) {
+							double vr = guide.get(r).get(j, i) - meanG[r];
+							covGI.data[r] += vr*vi/N;
+							for (int c = 0; c < bands; c++) {
+								cov.data[r*bands + c] += vr*(guide.get(c).get(j, i) - meanG[c])/N;
+							}
+						}
+					}
+				}
+				for (int band = 0; band < bands; band++) {
+					cov.data[band*bands + band] += epsilon;
+				}
+				assertTrue(CommonOps_DDRM.solve(cov, covGI, a));
+
+				int index = y*width + x;
+				coefB[index] = meanI;
+				for (int band = 0; band < bands; band++) {
+					coefA[index][band] = a.data[band];
+					coefB[index] -= a.data[band]*meanG[band];
+				}
+			}
+		}
+
+		var output = new GrayF32(width, height);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int x0 = Math.max(0, x - radiusX), x1 = Math.min(width, x + radiusX + 1);
+				int y0 = Math.max(0, y - radiusY), y1 = Math.min(height, y + radiusY + 1);
+				int N = (x1 - x0)*(y1 - y0);
+
+				double value = 0;
+				for (int i = y0; i < y1; i++) {
+					for (int j = x0; j < x1; j++) {
+						int index = i*width + j;
+						value += coefB[index]/N;
+						for (int band = 0; band < bands; band++) {
+							value += coefA[index][band]*guide.get(band).get(x, y)/N;
+						}
+					}
+				}
+				output.set(x, y, (float)value);
+			}
+		}
+		return output;
+	}
+}
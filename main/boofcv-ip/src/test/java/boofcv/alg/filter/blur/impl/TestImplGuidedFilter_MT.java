@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplGuidedFilter_MT extends BoofStandardJUnit {
+	int width = 200;
+	int height = 210;
+
+	@Test void products() {
+		GrayF32 guide = random(1);
+		GrayF32 input = random(1);
+
+		GrayF32 expectedSq = new GrayF32(width, height), expectedGI = new GrayF32(width, height);
+		GrayF32 foundSq = new GrayF32(width, height), foundGI = new GrayF32(width, height);
+
+		ImplGuidedFilter.products(guide, input, expectedSq, expectedGI);
+		ImplGuidedFilter_MT.products(guide, input, foundSq, foundGI);
+		BoofTesting.assertEquals(expectedSq, foundSq, 0.0);
+		BoofTesting.assertEquals(expectedGI, foundGI, 0.0);
+
+		ImplGuidedFilter.products(guide, expectedSq);
+		ImplGuidedFilter_MT.products(guide, foundSq);
+		BoofTesting.assertEquals(expectedSq, foundSq, 0.0);
+	}
+
+	@Test void coefficients() {
+		GrayF32 expectedA = new GrayF32(width, height), expectedB = new GrayF32(width, height);
+		GrayF32 foundA = new GrayF32(width, height), foundB = new GrayF32(width, height);
+
+		GrayF32 meanG = random(1), meanI = random(1), corrG = random(2), corrGI = random(2);
+		ImplGuidedFilter.coefficients(meanG, meanI, corrG, corrGI, 0.1f, expectedA, expectedB);
+		ImplGuidedFilter_MT.coefficients(meanG, meanI, corrG, corrGI, 0.1f, foundA, foundB);
+		BoofTesting.assertEquals(expectedA, foundA, 0.0);
+		BoofTesting.assertEquals(expectedB, foundB, 0.0);
+	}
+
+	@Test void apply() {
+		GrayF32 meanA = random(1), meanB = random(100);
+		GrayF32 guide = random(200);
+
+		GrayF32 expected = new GrayF32(width, height), found = new GrayF32(width, height);
+		ImplGuidedFilter.apply(meanA, meanB, guide, expected);
+		ImplGuidedFilter_MT.apply(meanA, meanB, guide, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+
+		GrayU8 expectedU8 = new GrayU8(width, height), foundU8 = new GrayU8(width, height);
+		ImplGuidedFilter.apply(meanA, meanB, guide, expectedU8);
+		ImplGuidedFilter_MT.apply(meanA, meanB, guide, foundU8);
+		BoofTesting.assertEquals(expectedU8, foundU8, 0);
+	}
+
+	@Test void productsColor() {
+		Planar<GrayF32> guide = randomColor(3, 1);
+		GrayF32 input = random(1);
+
+		Planar<GrayF32> expectedSq = randomColor(6, 0), expectedGI = randomColor(3, 0);
+		Planar<GrayF32> foundSq = randomColor(6, 0), foundGI = randomColor(3, 0);
+		ImplGuidedFilter.productsColor(guide, input, expectedSq, expectedGI);
+		ImplGuidedFilter_MT.productsColor(guide, input, foundSq, foundGI);
+		BoofTesting.assertEquals(expectedSq, foundSq, 0.0);
+		BoofTesting.assertEquals(expectedGI, foundGI, 0.0);
+	}
+
+	@Test void coefficientsColor() {
+		Planar<GrayF32> meanG = randomColor(3, 1), corrG = randomColor(6, 2), corrGI = randomColor(3, 2);
+		GrayF32 meanI = random(1);
+
+		Planar<GrayF32> expectedA = randomColor(3, 0), foundA = randomColor(3, 0);
+		GrayF32 expectedB = new GrayF32(width, height), foundB = new GrayF32(width, height);
+		ImplGuidedFilter.coefficientsColor(meanG, meanI, corrG, corrGI, 0.1f, expectedA, expectedB);
+		ImplGuidedFilter_MT.coefficientsColor(meanG, meanI, corrG, corrGI, 0.1f, foundA, foundB);
+		BoofTesting.assertEquals(expectedA, foundA, 0.0);
+		BoofTesting.assertEquals(expectedB, foundB, 0.0);
+	}
+
+	@Test void applyColor() {
+		Planar<GrayF32> meanA = randomColor(3, 1), guide = randomColor(3, 200);
+		GrayF32 meanB = random(100);
+
+		GrayF32 expected = new GrayF32(width, height), found = new GrayF32(width, height);
+		ImplGuidedFilter.applyColor(meanA, meanB, guide, expected);
+		ImplGuidedFilter_MT.applyColor(meanA, meanB, guide, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+
+		GrayU8 expectedU8 = new GrayU8(width, height), foundU8 = new GrayU8(width, height);
+		ImplGuidedFilter.applyColor(meanA, meanB, guide, expectedU8);
+		ImplGuidedFilter_MT.applyColor(meanA, meanB, guide, foundU8);
+		BoofTesting.assertEquals(expectedU8, foundU8, 0);
+	}
+
+	private GrayF32 random( float max ) {
+		GrayF32 image = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(image, rand, 0, max);
+		return image;
+	}
+
+	private Planar<GrayF32> randomColor( int bands, float max ) {
+		var image = new Planar<>(GrayF32.class, width, height, bands);
+		GImageMiscOps.fillUniform(image, rand, 0, max);
+		return image;
+	}
+}
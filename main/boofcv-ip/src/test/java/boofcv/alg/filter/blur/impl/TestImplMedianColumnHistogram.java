@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.struct.DogArray_F32;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianColumnHistogram extends BoofStandardJUnit {
+	GrowArray<DogArray_I32> work = new GrowArray<>(DogArray_I32::new);
+
+	@Test
+	void compareToSort_U8() {
+		GrayU8 input = new GrayU8(30, 25);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+
+		BoofTesting.checkSubImage(this, "compareToSort_U8", true,
+				input, input.createSameShape(), input.createSameShape());
+	}
+
+	public void compareToSort_U8( GrayU8 image, GrayU8 found, GrayU8 expected ) {
+		// include regions which are larger than the image
+		for (int radiusX = 0; radiusX <= 20; radiusX += 4) {
+			int radiusY = radiusX/2 + 1;
+			ImplMedianColumnHistogram.process(image, found, radiusX, radiusY, work);
+			ImplMedianSortNaive.process(image, expected, radiusX, radiusY, work);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	@Test
+	void compareToSort_U16() {
+		GrayU16 input = new GrayU16(30, 25);
+
+		// Different maximum values will cause different number of bins to be used
+		for (int maxValue : new int[]{2, 300, 4095, 65536}) {
+			ImageMiscOps.fillUniform(input, rand, 0, maxValue);
+			BoofTesting.checkSubImage(this, "compareToSort_U16", true,
+					input, input.createSameShape(), input.createSameShape());
+		}
+	}
+
+	public void compareToSort_U16( GrayU16 image, GrayU16 found, GrayU16 expected ) {
+		for (int radiusX = 1; radiusX <= 9; radiusX += 4) {
+			int radiusY = radiusX + 2;
+			ImplMedianColumnHistogram.process(image, found, radiusX, radiusY, work);
+			ImplMedianSortNaive.process(image, expected, radiusX, radiusY, work);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	/**
+	 * Force it to break the image up into several strips
+	 */
+	@Test
+	void multipleStrips() {
+		int before = ImplMedianColumnHistogram.MAX_COLUMN_ELEMENTS;
+		try {
+			ImplMedianColumnHistogram.MAX_COLUMN_ELEMENTS = 20*(16 + 256);
+
+			GrayU8 input = new GrayU8(70, 25);
+			ImageMiscOps.fillUniform(input, rand, 0, 256);
+			GrayU8 found = input.createSameShape();
+			GrayU8 expected = input.createSameShape();
+
+			ImplMedianColumnHistogram.process(input, found, 2, 3, work);
+			ImplMedianSortNaive.process(input, expected, 2, 3, work);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		} finally {
+			ImplMedianColumnHistogram.MAX_COLUMN_ELEMENTS = before;
+		}
+	}
+
+	/**
+	 * The error should be no more than half a quantization level
+	 */
+	@Test
+	void compareToSort_F32() {
+		GrayF32 input = new GrayF32(30, 25);
+		ImageMiscOps.fillUniform(input, rand, -20.0f, 50.0f);
+
+		BoofTesting.checkSubImage(this, "compareToSort_F32", true,
+				input, input.createSameShape(), input.createSameShape());
+	}
+
+	public void compareToSort_F32( GrayF32 image, GrayF32 found, GrayF32 expected ) {
+		var workF = new GrowArray<>(DogArray_F32::new);
+		for (int bits : new int[]{4, 10, 16}) {
+			float step = 70.0f/((1 << bits) - 1);
+			ImplMedianColumnHistogram.process(image, found, 4, 3, bits, work);
+			ImplMedianSortNaive.process(image, expected, 4, 3, workF);
+
+			BoofTesting.assertEquals(expected, found, step*0.5 + 1e-4);
+		}
+	}
+
+	/**
+	 * All pixels have the same value
+	 */
+	@Test
+	void constant_F32() {
+		GrayF32 input = new GrayF32(30, 25);
+		ImageMiscOps.fill(input, 2.5f);
+		GrayF32 found = input.createSameShape();
+
+		ImplMedianColumnHistogram.process(input, found, 4, 3, 12, work);
+
+		BoofTesting.assertEquals(input, found, 0.0);
+	}
+}
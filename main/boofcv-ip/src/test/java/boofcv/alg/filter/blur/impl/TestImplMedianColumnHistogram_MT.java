@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianColumnHistogram_MT extends BoofStandardJUnit {
+	GrowArray<DogArray_I32> work = new GrowArray<>(DogArray_I32::new);
+
+	@Test
+	void compareToSingle_U8() {
+		GrayU8 input = new GrayU8(200, 210);
+		ImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		BoofTesting.checkSubImage(this, "compareToSingle_U8", true,
+				input, input.createSameShape(), input.createSameShape());
+	}
+
+	public void compareToSingle_U8( GrayU8 image, GrayU8 found, GrayU8 expected ) {
+		for (int radius = 1; radius <= 20; radius += 6) {
+			ImplMedianColumnHistogram.process(image, expected, radius, radius + 1, work);
+			ImplMedianColumnHistogram_MT.process(image, found, radius, radius + 1, work);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	@Test
+	void compareToSingle_U16() {
+		GrayU16 input = new GrayU16(200, 210);
+		ImageMiscOps.fillUniform(input, rand, 0, 5000);
+		GrayU16 expected = input.createSameShape();
+		GrayU16 found = input.createSameShape();
+
+		ImplMedianColumnHistogram.process(input, expected, 5, 4, work);
+		ImplMedianColumnHistogram_MT.process(input, found, 5, 4, work);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	void compareToSingle_F32() {
+		GrayF32 input = new GrayF32(200, 210);
+		ImageMiscOps.fillUniform(input, rand, -1.0f, 1.0f);
+		GrayF32 expected = input.createSameShape();
+		GrayF32 found = input.createSameShape();
+
+		ImplMedianColumnHistogram.process(input, expected, 5, 4, 12, work);
+		ImplMedianColumnHistogram_MT.process(input, found, 5, 4, 12, work);
+
+		BoofTesting.assertEquals(expected, found, 0.0);
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.morphology;
+
+import boofcv.BoofTesting;
+import boofcv.alg.filter.binary.BinaryImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.PixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.ConvertImage;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static boofcv.alg.filter.morphology.impl.TestImplMorphologyRect.naive;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestMorphologyOps extends BoofStandardJUnit {
+	int width = 40;
+	int height = 35;
+
+	@AfterEach void resetConcurrency() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
+	@Test void erode_dilate() {
+		for (boolean concurrent : new boolean[]{false, true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			var input = new GrayU8(width, height);
+			ImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			// rectangles and lines along both axes
+			int[][] radii = new int[][]{{2, 3}, {4, 0}, {0, 4}, {0, 0}};
+			for (int[] r : radii) {
+				BoofTesting.assertEquals(naive(input, r[0], r[1], false),
+						MorphologyOps.erode(input, null, r[0], r[1], null, null), 0);
+				BoofTesting.assertEquals(naive(input, r[0], r[1], true),
+						MorphologyOps.dilate(input, null, r[0], r[1], null, null), 0);
+
+				GrayF32 inputF = ConvertImage.convert(input, new GrayF32(width, height));
+				BoofTesting.assertEquals(naive(inputF, r[0], r[1], false),
+						MorphologyOps.erode(inputF, null, r[0], r[1], null, null), 0);
+				BoofTesting.assertEquals(naive(inputF, r[0], r[1], true),
+						MorphologyOps.dilate(inputF, null, r[0], r[1], null, null), 0);
+			}
+		}
+	}
+
+	@Test void open_close() {
+		var input = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		GrayU8 expected = naive(naive(input, 3, 2, false), 3, 2, true);
+		BoofTesting.assertEquals(expected, MorphologyOps.open(input, null, 3, 2, null, null), 0);
+		expected = naive(naive(input, 3, 2, true), 3, 2, false);
+		BoofTesting.assertEquals(expected, MorphologyOps.close(input, null, 3, 2, null, null), 0);
+
+		// should work in place
+		GrayU8 found = input.clone();
+		MorphologyOps.close(found, found, 3, 2, null, null);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test void topHat() {
+		var input = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		var expected = new GrayF32(width, height);
+		PixelMath.subtract(input, MorphologyOps.open(input, null, 4, 4, null, null), expected);
+		BoofTesting.assertEquals(expected, MorphologyOps.topHatWhite(input, null, 4, 4, null, null), 1e-4);
+		PixelMath.subtract(MorphologyOps.close(input, null, 4, 4, null, null), input, expected);
+		BoofTesting.assertEquals(expected, MorphologyOps.topHatBlack(input, null, 4, 4, null, null), 1e-4);
+
+		// U8 is found using the absolute difference, which should be the same as subtracting
+		var inputU8 = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(inputU8, rand, 0, 200);
+		GrayU8 opened = MorphologyOps.open(inputU8, null, 4, 4, null, null);
+		GrayU8 found = MorphologyOps.topHatWhite(inputU8, null, 4, 4, null, null);
+		for (int i = 0; i < inputU8.data.length; i++) {
+			assertEquals((inputU8.data[i] & 0xFF) - (opened.data[i] & 0xFF), found.data[i] & 0xFF);
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> MorphologyOps.topHatWhite(input, input, 4, 4, null, null));
+	}
+
+	/**
+	 * A 3x3 square applied to a binary image should produce the same results as erode8 and dilate8. Larger
+	 * squares are the same as applying them multiple times.
+	 */
+	@Test void compareToBinary() {
+		var input = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 2);
+
+		for (int radius = 1; radius <= 3; radius++) {
+			BoofTesting.assertEquals(BinaryImageOps.erode8(input, radius, null),
+					MorphologyOps.erode(input, null, radius, radius, null, null), 0);
+			BoofTesting.assertEquals(BinaryImageOps.dilate8(input, radius, null),
+					MorphologyOps.dilate(input, null, radius, radius, null, null), 0);
+		}
+	}
+
+	@Test void negativeRadius() {
+		var input = new GrayU8(width, height);
+		assertThrows(IllegalArgumentException.class, () -> MorphologyOps.erode(input, null, -1, 2, null, null));
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.morphology.impl;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("rawtypes")
+public class TestImplMorphologyRect extends BoofStandardJUnit {
+	int width = 30;
+	int height = 25;
+
+	/**
+	 * Compares against a brute force implementation. Includes windows which are larger than the image.
+	 */
+	@Test void compareToNaive() {
+		for (var type : new ImageType[]{ImageType.SB_U8, ImageType.SB_F32}) {
+			var input = (ImageGray<?>)type.createImage(width, height);
+			var found = (ImageGray<?>)type.createImage(width, height);
+			GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			BoofTesting.checkSubImage(this, "compareToNaive", true, input, found);
+		}
+	}
+
+	public void compareToNaive( ImageGray<?> input, ImageGray<?> found ) {
+		for (int radius : new int[]{0, 1, 2, 5, 40}) {
+			for (boolean dilate : new boolean[]{false, true}) {
+				if (input instanceof GrayU8) {
+					ImplMorphologyRect.horizontal((GrayU8)input, (GrayU8)found, radius, dilate, null);
+					BoofTesting.assertEquals(naive(input, radius, 0, dilate), found, 0);
+					ImplMorphologyRect.vertical((GrayU8)input, (GrayU8)found, radius, dilate, null);
+					BoofTesting.assertEquals(naive(input, 0, radius, dilate), found, 0);
+				} else {
+					ImplMorphologyRect.horizontal((GrayF32)input, (GrayF32)found, radius, dilate, null);
+					BoofTesting.assertEquals(naive(input, radius, 0, dilate), found, 0);
+					ImplMorphologyRect.vertical((GrayF32)input, (GrayF32)found, radius, dilate, null);
+					BoofTesting.assertEquals(naive(input, 0, radius, dilate), found, 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The vertical pass splits the image into blocks of columns. Make sure every block and the partial block at
+	 * the end are handled.
+	 */
+	@Test void vertical_multipleBlocks() {
+		int width = 2*ImplMorphologyRect.BLOCK_COLUMNS + 7;
+		for (var type : new ImageType[]{ImageType.SB_U8, ImageType.SB_F32}) {
+			var input = (ImageGray<?>)type.createImage(width, height);
+			var found = (ImageGray<?>)type.createImage(width, height);
+			GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			for (boolean dilate : new boolean[]{false, true}) {
+				if (input instanceof GrayU8)
+					ImplMorphologyRect.vertical((GrayU8)input, (GrayU8)found, 4, dilate, null);
+				else
+					ImplMorphologyRect.vertical((GrayF32)input, (GrayF32)found, 4, dilate, null);
+				BoofTesting.assertEquals(naive(input, 0, 4, dilate), found, 0);
+			}
+		}
+	}
+
+	/**
+	 * The output can be the same image as the input
+	 */
+	@Test void inplace() {
+		var input = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		GrayU8 expected = naive(input, 3, 0, false);
+		ImplMorphologyRect.horizontal(input, input, 3, false, null);
+		BoofTesting.assertEquals(expected, input, 0);
+
+		expected = naive(input, 0, 3, true);
+		ImplMorphologyRect.vertical(input, input, 3, true, null);
+		BoofTesting.assertEquals(expected, input, 0);
+	}
+
+	/**
+	 * Finds the min or max inside the rectangle by checking every pixel
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends ImageGray<T>> T naive( ImageGray<?> input, int radiusX, int radiusY, boolean dilate ) {
+		var output = (T)input.createSameShape();
+		for (int y = 0; y < input.height; y++) {
+			for (int x = 0; x < input.width; x++) {
+				double best = dilate ? -Double.MAX_VALUE : Double.MAX_VALUE;
+				for (int i = Math.max(0, y - radiusY); i <= Math.min(input.height - 1, y + radiusY); i++) {
+					for (int j = Math.max(0, x - radiusX); j <= Math.min(input.width - 1, x + radiusX); j++) {
+						double value = GeneralizedImageOps.get(input, j, i);
+						best = dilate ? Math.max(best, value) : Math.min(best, value);
+					}
+				}
+				GeneralizedImageOps.set(output, x, y, best);
+			}
+		}
+		return output;
+	}
+}
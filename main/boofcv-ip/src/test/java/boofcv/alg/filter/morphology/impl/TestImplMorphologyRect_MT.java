@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.morphology.impl;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+public class TestImplMorphologyRect_MT extends BoofStandardJUnit {
+	int width = 200;
+	int height = 210;
+
+	@Test void compareToSingle_U8() {
+		var input = new GrayU8(width, height);
+		var expected = new GrayU8(width, height);
+		var found = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		for (boolean dilate : new boolean[]{false, true}) {
+			ImplMorphologyRect.horizontal(input, expected, 6, dilate, null);
+			ImplMorphologyRect_MT.horizontal(input, found, 6, dilate, null);
+			BoofTesting.assertEquals(expected, found, 0);
+
+			ImplMorphologyRect.vertical(input, expected, 6, dilate, null);
+			ImplMorphologyRect_MT.vertical(input, found, 6, dilate, null);
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	@Test void compareToSingle_F32() {
+		var input = new GrayF32(width, height);
+		var expected = new GrayF32(width, height);
+		var found = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(input, rand, -1, 1);
+
+		for (boolean dilate : new boolean[]{false, true}) {
+			ImplMorphologyRect.horizontal(input, expected, 6, dilate, null);
+			ImplMorphologyRect_MT.horizontal(input, found, 6, dilate, null);
+			BoofTesting.assertEquals(expected, found, 0);
+
+			ImplMorphologyRect.vertical(input, expected, 6, dilate, null);
+			ImplMorphologyRect_MT.vertical(input, found, 6, dilate, null);
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.misc;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageStatisticsFused.Statistic;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImageStatisticsFused extends BoofStandardJUnit {
+	int width = 120, height = 100;
+
+	Class[] grayTypes = new Class[]{GrayU8.class, GrayS8.class, GrayU16.class, GrayS16.class,
+			GrayS32.class, GrayS64.class, GrayF32.class, GrayF64.class};
+	Class[] interleavedTypes = new Class[]{InterleavedU8.class, InterleavedS8.class, InterleavedU16.class,
+			InterleavedS16.class, InterleavedS32.class, InterleavedS64.class, InterleavedF32.class,
+			InterleavedF64.class};
+
+	/**
+	 * Compare against a brute force computation for every image type with and without concurrency
+	 */
+	@Test void compareToBruteForce() {
+		for (boolean concurrent : new boolean[]{true, false}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for (Class type : grayTypes) {
+				compareToBruteForce(GeneralizedImageOps.createImage(type, width, height, 1));
+			}
+			for (Class type : interleavedTypes) {
+				compareToBruteForce(GeneralizedImageOps.createImage(type, width, height, 3));
+			}
+		}
+	}
+
+	void compareToBruteForce( ImageBase image ) {
+		boolean signed = image.getImageType().getDataType().isSigned();
+		double maxValue = Math.min(image.getImageType().getDataType().getMaxValue(), 1000);
+		double minValue = signed ? -maxValue : 0;
+		GImageMiscOps.fillUniform(image, rand, minValue, maxValue);
+
+		// Make sure sub-images are handled correctly
+		compareToBruteForce(image, minValue, maxValue);
+		compareToBruteForce(BoofTesting.createSubImageOf(image), minValue, maxValue);
+	}
+
+	void compareToBruteForce( ImageBase image, double minValue, double maxValue ) {
+		var alg = new ImageStatisticsFused(Statistic.MIN_MAX, Statistic.VARIANCE, Statistic.HISTOGRAM);
+		alg.setHistogram(minValue, maxValue, 50);
+		alg.process(image);
+
+		double[] values = flatten(image);
+		double expectedMin = Double.MAX_VALUE, expectedMax = -Double.MAX_VALUE, expectedSum = 0;
+		for (double v : values) {
+			expectedMin = Math.min(expectedMin, v);
+			expectedMax = Math.max(expectedMax, v);
+			expectedSum += v;
+		}
+		double expectedMean = expectedSum/values.length;
+		double expectedVariance = 0;
+		for (double v : values) {
+			expectedVariance += (v - expectedMean)*(v - expectedMean);
+		}
+		expectedVariance /= values.length;
+
+		int[] expectedHistogram = new int[50];
+		boolean integer = image.getImageType().getDataType().isInteger();
+		for (double v : values) {
+			int bin;
+			if (integer)
+				bin = (int)(50*((long)v - (long)minValue)/((long)maxValue - (long)minValue + 1));
+			else
+				bin = (int)((v - minValue)*(50/(maxValue - minValue)));
+			expectedHistogram[Math.min(49, Math.max(0, bin))]++;
+		}
+
+		double tol = 1e-8*Math.max(1.0, Math.abs(expectedSum));
+		assertEquals(values.length, alg.getCount());
+		assertEquals(expectedMin, alg.getMin(), 1e-4);
+		assertEquals(expectedMax, alg.getMax(), 1e-4);
+		assertEquals(expectedSum, alg.getSum(), tol);
+		assertEquals(expectedMean, alg.getMean(), 1e-6);
+		assertEquals(expectedVariance, alg.getVariance(), 1e-6*expectedVariance);
+		assertEquals(Math.max(Math.abs(expectedMin), Math.abs(expectedMax)), alg.getMaxAbs(), 1e-4);
+		assertArrayEquals(expectedHistogram, alg.getHistogram().toArray(), image.getImageType().toString());
+	}
+
+	double[] flatten( ImageBase image ) {
+		int numBands = image.getImageType().getNumBands();
+		var values = new double[image.width*image.height*numBands];
+		int index = 0;
+		for (int y = 0; y < image.height; y++) {
+			for (int x = 0; x < image.width; x++) {
+				for (int band = 0; band < numBands; band++) {
+					values[index++] = GeneralizedImageOps.get(image, x, y, band);
+				}
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * When the number of bins matches the range of values each value should get its own bin
+	 */
+	@Test void histogram_matchesImageStatistics() {
+		var image = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(image, rand, 10, 200);
+
+		var expected = new int[256];
+		ImageStatistics.histogram(image, 0, expected);
+
+		var alg = new ImageStatisticsFused(Statistic.HISTOGRAM);
+		alg.process(image);
+		assertArrayEquals(expected, alg.getHistogram().toArray());
+
+		// Scaled histograms should match too
+		expected = new int[40];
+		ImageStatistics.histogramScaled(image, 10, 200, expected);
+		alg.setHistogram(10, 200, 40);
+		alg.process(image);
+		assertArrayEquals(expected, alg.getHistogram().toArray());
+	}
+
+	/**
+	 * Values outside the histogram's range should go into the first or last bin
+	 */
+	@Test void histogram_outside() {
+		var image = new GrayF32(3, 1);
+		image.data = new float[]{-5.0f, 0.5f, 20.0f};
+
+		var alg = new ImageStatisticsFused(Statistic.HISTOGRAM);
+		alg.setHistogram(0.0, 1.0, 4);
+		alg.process(image);
+		assertArrayEquals(new int[]{1, 0, 1, 1}, alg.getHistogram().toArray());
+	}
+
+	/**
+	 * Large offset and small variation. A naive sum of squares would have large errors
+	 */
+	@Test void variance_largeOffset() {
+		var image = new GrayF64(width, height);
+		GImageMiscOps.fillUniform(image, rand, 1e8, 1e8 + 1.0);
+
+		double mean = ImageStatistics.mean(image);
+		double expected = ImageStatistics.variance(image, mean);
+
+		var alg = new ImageStatisticsFused(Statistic.VARIANCE);
+		alg.process(image);
+		assertEquals(expected, alg.getVariance(), expected*1e-4);
+	}
+
+	/**
+	 * Statistics which were not requested should be NaN
+	 */
+	@Test void notRequested() {
+		var image = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(image, rand, 0, 200);
+
+		var alg = new ImageStatisticsFused(Statistic.MIN_MAX);
+		alg.process(image);
+		assertFalse(Double.isNaN(alg.getMin()));
+		assertFalse(Double.isNaN(alg.getMax()));
+		assertTrue(Double.isNaN(alg.getMean()));
+		assertTrue(Double.isNaN(alg.getVariance()));
+		assertEquals(0, alg.getHistogram().size);
+
+		alg.setStatistics(Statistic.MEAN);
+		alg.process(image);
+		assertTrue(Double.isNaN(alg.getMin()));
+		assertEquals(ImageStatistics.mean(image), alg.getMean(), 1e-8);
+		assertTrue(Double.isNaN(alg.getVariance()));
+	}
+
+	@Test void emptyImage() {
+		var alg = new ImageStatisticsFused(Statistic.MIN_MAX, Statistic.VARIANCE);
+		alg.process(new GrayU8(0, 0));
+		assertEquals(0, alg.getCount());
+		assertTrue(Double.isNaN(alg.getMin()));
+		assertTrue(Double.isNaN(alg.getMean()));
+	}
+
+	@Test void planarNotSupported() {
+		var alg = new ImageStatisticsFused(Statistic.MIN_MAX);
+		assertThrows(IllegalArgumentException.class, () -> alg.process(new Planar<>(GrayU8.class, 10, 10, 2)));
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFftPlanCache extends BoofStandardJUnit {
+	@Test void reusePlans() {
+		var alg = new FftPlanCache(5);
+
+		GeneralPurposeFFT_F32_2D a = alg.acquire(GeneralPurposeFFT_F32_2D.class, 10, 12, GeneralPurposeFFT_F32_2D::new);
+		// there are none available so a new one should be created
+		GeneralPurposeFFT_F32_2D b = alg.acquire(GeneralPurposeFFT_F32_2D.class, 10, 12, GeneralPurposeFFT_F32_2D::new);
+		assertNotSame(a, b);
+		assertEquals(0, alg.size());
+
+		alg.release(a, 10, 12);
+		assertEquals(1, alg.size());
+		assertSame(a, alg.acquire(GeneralPurposeFFT_F32_2D.class, 10, 12, GeneralPurposeFFT_F32_2D::new));
+		assertEquals(0, alg.size());
+	}
+
+	/**
+	 * A plan should only be returned for the same size and type
+	 */
+	@Test void matchSizeAndType() {
+		var alg = new FftPlanCache(5);
+
+		var a = new GeneralPurposeFFT_F32_2D(10, 12);
+		alg.release(a, 10, 12);
+
+		assertNotSame(a, alg.acquire(GeneralPurposeFFT_F32_2D.class, 12, 10, GeneralPurposeFFT_F32_2D::new));
+		GeneralPurposeFFT_F64_2D c = alg.acquire(GeneralPurposeFFT_F64_2D.class, 10, 12, GeneralPurposeFFT_F64_2D::new);
+		assertNotNull(c);
+		assertEquals(1, alg.size());
+	}
+
+	/**
+	 * When full the least recently used plans should be discarded
+	 */
+	@Test void bounded() {
+		var alg = new FftPlanCache(2);
+
+		var a = new GeneralPurposeFFT_F32_2D(4, 4);
+		var b = new GeneralPurposeFFT_F32_2D(5, 5);
+		var c = new GeneralPurposeFFT_F32_2D(6, 6);
+		alg.release(a, 4, 4);
+		alg.release(b, 5, 5);
+		alg.release(c, 6, 6);
+		assertEquals(2, alg.size());
+
+		assertNotSame(a, alg.acquire(GeneralPurposeFFT_F32_2D.class, 4, 4, GeneralPurposeFFT_F32_2D::new));
+		assertSame(b, alg.acquire(GeneralPurposeFFT_F32_2D.class, 5, 5, GeneralPurposeFFT_F32_2D::new));
+		assertSame(c, alg.acquire(GeneralPurposeFFT_F32_2D.class, 6, 6, GeneralPurposeFFT_F32_2D::new));
+
+		// shrinking the limit should discard plans too
+		alg.release(b, 5, 5);
+		alg.release(c, 6, 6);
+		alg.setMaxPlans(0);
+		assertEquals(0, alg.size());
+	}
+}
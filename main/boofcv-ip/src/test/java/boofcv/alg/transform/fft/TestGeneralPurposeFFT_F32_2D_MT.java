@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeneralPurposeFFT_F32_2D_MT extends BoofStandardJUnit {
+
+	float tol = 1e-3f;
+
+	int[] sizes = new int[]{1, 2, 3, 16, 33, 64};
+
+	@Test void complexForward() {
+		for (int rows : sizes) {
+			for (int columns : sizes) {
+				float[] expected = random(rows*columns*2);
+				float[] found = expected.clone();
+
+				new GeneralPurposeFFT_F32_2D(rows, columns).complexForward(expected);
+				new GeneralPurposeFFT_F32_2D_MT(rows, columns).complexForward(found);
+
+				assertSame(expected, found);
+			}
+		}
+	}
+
+	@Test void complexInverse() {
+		for (int rows : sizes) {
+			for (int columns : sizes) {
+				for (boolean scale : new boolean[]{true, false}) {
+					float[] expected = random(rows*columns*2);
+					float[] found = expected.clone();
+
+					new GeneralPurposeFFT_F32_2D(rows, columns).complexInverse(expected, scale);
+					new GeneralPurposeFFT_F32_2D_MT(rows, columns).complexInverse(found, scale);
+
+					assertSame(expected, found);
+				}
+			}
+		}
+	}
+
+	@Test void realForwardFull() {
+		for (int rows : sizes) {
+			for (int columns : sizes) {
+				float[] expected = new float[rows*columns*2];
+				float[] input = random(rows*columns);
+				System.arraycopy(input, 0, expected, 0, input.length);
+				float[] found = expected.clone();
+
+				new GeneralPurposeFFT_F32_2D(rows, columns).realForwardFull(expected);
+				new GeneralPurposeFFT_F32_2D_MT(rows, columns).realForwardFull(found);
+
+				assertSame(expected, found);
+			}
+		}
+	}
+
+	/**
+	 * Calling it multiple times should produce the same results
+	 */
+	@Test void multipleCalls() {
+		var alg = new GeneralPurposeFFT_F32_2D_MT(20, 31);
+		float[] original = random(20*31*2);
+
+		float[] expected = original.clone();
+		alg.complexForward(expected);
+		float[] found = original.clone();
+		alg.complexForward(found);
+
+		assertSame(expected, found);
+	}
+
+	private float[] random( int length ) {
+		float[] a = new float[length];
+		for (int i = 0; i < length; i++) {
+			a[i] = (float)rand.nextGaussian();
+		}
+		return a;
+	}
+
+	private void assertSame( float[] expected, float[] found ) {
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], found[i], tol*Math.max(1.0f, Math.abs(expected[i])));
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.image;
+
+import boofcv.struct.image.*;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestConvertByteBufferImage extends BoofStandardJUnit {
+	int width = 15, height = 12;
+	int offset = 7, stride = 40;
+
+	@Test void wrap_1BU8_to_U8() {
+		ByteBuffer src = randomBuffer(false);
+		var dst = new GrayU8(1, 1);
+		assertTrue(ConvertByteBufferImage.wrap_1BU8_to_U8(src, offset, stride, width, height, dst));
+
+		// the array should be shared
+		assertSame(src.array(), dst.data);
+		assertTrue(dst.isSubimage());
+		assertEquals(width, dst.width);
+		assertEquals(height, dst.height);
+		checkEquals(src, dst);
+
+		// direct buffers have no array and can't be wrapped
+		assertFalse(ConvertByteBufferImage.wrap_1BU8_to_U8(randomBuffer(true), offset, stride, width, height, dst));
+	}
+
+	@Test void wrap_NBU8_to_IU8() {
+		ByteBuffer src = randomBuffer(false);
+		var dst = new InterleavedU8(1, 1, 2);
+		assertTrue(ConvertByteBufferImage.wrap_NBU8_to_IU8(src, offset, stride, width, height, dst));
+
+		assertSame(src.array(), dst.data);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				for (int band = 0; band < 2; band++) {
+					assertEquals(src.get(offset + y*stride + x*2 + band) & 0xFF, dst.getBand(x, y, band));
+				}
+			}
+		}
+	}
+
+	@Test void from_1BU8_to_U8() {
+		for (boolean direct : new boolean[]{false, true}) {
+			ByteBuffer src = randomBuffer(direct);
+			// Use a sub-image to make sure the destination's stride is respected
+			GrayU8 dst = new GrayU8(width + 3, height + 2).subimage(2, 1, width + 2, height + 1);
+			ConvertByteBufferImage.from_1BU8_to_U8(src, offset, stride, dst);
+			checkEquals(src, dst);
+		}
+	}
+
+	@Test void from_NBU8_to_IU8() {
+		for (boolean direct : new boolean[]{false, true}) {
+			ByteBuffer src = randomBuffer(direct);
+			InterleavedU8 dst = new InterleavedU8(width + 3, height + 2, 2).subimage(2, 1, width + 2, height + 1);
+			ConvertByteBufferImage.from_NBU8_to_IU8(src, offset, stride, dst);
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					for (int band = 0; band < 2; band++) {
+						assertEquals(src.get(offset + y*stride + x*2 + band) & 0xFF, dst.getBand(x, y, band));
+					}
+				}
+			}
+		}
+	}
+
+	@Test void from_3BU8_to_3IU8() {
+		ByteBuffer src = randomBuffer(true);
+		InterleavedU8 dst = new InterleavedU8(10, 5, 3).subimage(1, 1, 9, 4);
+		ConvertByteBufferImage.from_3BU8_to_3IU8(src, offset, stride, dst);
+
+		for (int y = 0; y < dst.height; y++) {
+			for (int x = 0; x < dst.width; x++) {
+				for (int band = 0; band < 3; band++) {
+					assertEquals(src.get(offset + y*stride + x*3 + band) & 0xFF, dst.getBand(x, y, band));
+				}
+			}
+		}
+	}
+
+	@Test void from_1BU16_to_U16() {
+		for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+			ByteBuffer src = randomBuffer(true).order(order);
+			var dst = new GrayU16(width, height);
+			ConvertByteBufferImage.from_1BU16_to_U16(src, offset, stride, dst);
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					assertEquals(src.getShort(offset + y*stride + x*2) & 0xFFFF, dst.get(x, y));
+				}
+			}
+		}
+	}
+
+	@Test void from_1BS16_to_S16() {
+		ByteBuffer src = randomBuffer(false);
+		var dst = new GrayS16(width, height);
+		ConvertByteBufferImage.from_1BS16_to_S16(src, offset, stride, dst);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertEquals(src.getShort(offset + y*stride + x*2), dst.get(x, y));
+			}
+		}
+	}
+
+	@Test void from_1BF32_to_F32() {
+		// floats need a larger stride
+		int stride = width*4 + 8;
+		ByteBuffer src = ByteBuffer.allocateDirect(offset + stride*height);
+		for (int i = 0; i < width*height; i++) {
+			src.putFloat(offset + (i/width)*stride + (i%width)*4, rand.nextFloat());
+		}
+		var dst = new GrayF32(width, height);
+		ConvertByteBufferImage.from_1BF32_to_F32(src, offset, stride, dst);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertEquals(src.getFloat(offset + y*stride + x*4), dst.get(x, y));
+			}
+		}
+	}
+
+	@Test void bufferTooSmall() {
+		ByteBuffer src = ByteBuffer.allocate(stride*height);
+		assertThrows(IllegalArgumentException.class, () ->
+				ConvertByteBufferImage.from_1BU8_to_U8(src, offset, stride, new GrayU8(stride, height)));
+	}
+
+	private ByteBuffer randomBuffer( boolean direct ) {
+		int length = offset + stride*height;
+		ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+		for (int i = 0; i < length; i++) {
+			buffer.put(i, (byte)rand.nextInt());
+		}
+		return buffer;
+	}
+
+	private void checkEquals( ByteBuffer src, GrayU8 dst ) {
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertEquals(src.get(offset + y*stride + x) & 0xFF, dst.get(x, y));
+			}
+		}
+	}
+}
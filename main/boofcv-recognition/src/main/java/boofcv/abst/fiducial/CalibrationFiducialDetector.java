@@ -207,14 +207,21 @@ public class CalibrationFiducialDetector<T extends ImageGray<T>> extends Fiducia
 
 	@Override
 	public void detect( T input ) {
+		metrics.start();
 		if (input instanceof GrayF32) {
 			converted = (GrayF32)input;
 		} else {
 			converted.reshape(input.width, input.height);
 			GConvertImage.convert(input, converted);
 		}
+		metrics.stage("convert");
 
-		if (!detector.process(converted)) {
+		boolean success = detector.process(converted);
+		metrics.stage("detect");
+		metrics.stop();
+		metrics.value("found", success ? 1 : 0);
+
+		if (!success) {
 			targetDetected = false;
 		} else {
 			targetDetected = true;
@@ -80,7 +80,13 @@ public class ECoCheck_to_FiducialDetector<T extends ImageGray<T>> extends Fiduci
 	}
 
 	@Override public void detect( T input ) {
+		metrics.start();
 		detector.process(input);
+		metrics.stage("detect");
+		metrics.time("corners", detector.getTimeCornerDetectorMS());
+		metrics.time("clustering", detector.getTimeClusteringMS());
+		metrics.time("grid", detector.getTimeGridMS());
+		metrics.time("decoding", detector.getTimeDecodingMS());
 
 		// Find all the known detections
 		foundToDetection.reset();
@@ -125,6 +131,9 @@ public class ECoCheck_to_FiducialDetector<T extends ImageGray<T>> extends Fiduci
 				DConvertMatrixStruct.convert(tmp, h);
 			}
 		}
+		metrics.stage("homography");
+		metrics.stop();
+		metrics.value("found", foundToDetection.size);
 	}
 
 	@Override public int totalFound() {return foundToDetection.size;}
@@ -23,12 +23,15 @@ import boofcv.abst.geo.RefinePnP;
 import boofcv.alg.distort.LensDistortionNarrowFOV;
 import boofcv.alg.geo.WorldToCameraToPixel;
 import boofcv.factory.geo.FactoryMultiView;
+import boofcv.metrics.BoofMetrics;
+import boofcv.metrics.StageTimer;
 import boofcv.struct.distort.Point2Transform2_F64;
 import boofcv.struct.geo.Point2D3D;
 import boofcv.struct.geo.PointIndex2D_F64;
 import boofcv.struct.image.ImageBase;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.se.Se3_F64;
+import lombok.Getter;
 import org.ddogleg.struct.DogArray_F64;
 import org.jetbrains.annotations.Nullable;
 
@@ -80,6 +83,9 @@ public abstract class FiducialDetectorPnP<T extends ImageBase<T>> implements Fid
 	Point2D_F64 predicted = new Point2D_F64();
 	List<Point2D3D> filtered = new ArrayList<>();
 
+	/** Reports the time taken by each stage when metrics are enabled */
+	protected final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
+
 	/**
 	 * Width of the fiducial. used to compute stability
 	 *
@@ -143,7 +149,13 @@ public abstract class FiducialDetectorPnP<T extends ImageBase<T>> implements Fid
 		// 2D-3D point associations
 		createDetectedList(which, detectedPixels);
 
-		return estimatePose(which, detected2D3D, fiducialToCamera);
+		if (!BoofMetrics.isEnabled())
+			return estimatePose(which, detected2D3D, fiducialToCamera);
+
+		long time0 = System.nanoTime();
+		boolean success = estimatePose(which, detected2D3D, fiducialToCamera);
+		metrics.time("pose", (System.nanoTime() - time0)*1e-6);
+		return success;
 	}
 
 	/**
@@ -122,7 +122,11 @@ public class MicroQrCodeDetectorPnP<T extends ImageGray<T>> extends FiducialDete
 
 	@Override
 	public void detect( T input ) {
+		metrics.start();
 		detector.process(input);
+		metrics.stage("detect");
+		metrics.stop();
+		metrics.value("found", detector.getDetections().size());
 	}
 
 	@Override
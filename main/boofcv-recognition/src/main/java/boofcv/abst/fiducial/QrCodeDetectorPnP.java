@@ -124,7 +124,11 @@ public class QrCodeDetectorPnP<T extends ImageGray<T>> extends FiducialDetectorP
 
 	@Override
 	public void detect( T input ) {
+		metrics.start();
 		detector.process(input);
+		metrics.stage("detect");
+		metrics.stop();
+		metrics.value("found", detector.getDetections().size());
 	}
 
 	@Override
@@ -80,7 +80,11 @@ public abstract class SquareBase_to_FiducialDetector<T extends ImageGray<T>, Det
 
 	@Override
 	public void detect( T input ) {
+		metrics.start();
 		alg.process(input);
+		metrics.stage("detect");
+		metrics.stop();
+		metrics.value("found", alg.getFound().size());
 	}
 
 	/**
@@ -75,14 +75,24 @@ public class Uchiya_to_FiducialDetector<T extends ImageGray<T>> extends Fiducial
 
 	@Override
 	public void detect( T input ) {
+		metrics.start();
 		tracker.detect(input);
+		metrics.stage("detect");
+		metrics.stop();
+
+		double timeTrack = tracker.getTracker().getTimeTrack();
+		double timeDetect = tracker.getTracker().getTimeDetect();
+		double timeUpdate = tracker.getTracker().getTimeUpdate();
+		metrics.time("binary", tracker.getTimeBinary());
+		metrics.time("ellipse", tracker.getTimeEllipse());
+		metrics.time("reject", tracker.getTimeReject());
+		metrics.time("llahTrack", timeTrack);
+		metrics.time("llahDetect", timeDetect);
+		metrics.time("llahUpdate", timeUpdate);
+		metrics.value("found", totalFound());
 
 		final PrintStream out = this.printTiming;
 		if (out != null) {
-			double timeTrack = tracker.getTracker().getTimeTrack();
-			double timeDetect = tracker.getTracker().getTimeDetect();
-			double timeUpdate = tracker.getTracker().getTimeUpdate();
-
 			out.printf(" Uchiya: BI %5.1f EL %5.1f ER %5.1f TR %5.1f DET %5.1f UP %5.1f\n",
 					tracker.getTimeBinary(), tracker.getTimeEllipse(), tracker.getTimeReject(),
 					timeTrack, timeDetect, timeUpdate);
@@ -19,6 +19,7 @@
 package boofcv.abst.scene;
 
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.metrics.StageTimer;
 import boofcv.misc.BoofLambdas;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageBase;
@@ -57,6 +58,9 @@ public class WrapFeatureToSceneRecognition<Image extends ImageBase<Image>, TD ex
 	// Used to plug in detected image features to the scene recognition algorithm
 	FeatureSceneRecognition.Features<TD> wrappedDetector = wrap();
 
+	/** Reports the time taken by each stage when metrics are enabled */
+	final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
+
 	public WrapFeatureToSceneRecognition( DetectDescribePoint<Image, TD> detector,
 										  BoofLambdas.Transform<Image> downSample,
 										  FeatureSceneRecognition<TD> recognizer ) {
@@ -69,6 +73,7 @@ public class WrapFeatureToSceneRecognition<Image extends ImageBase<Image>, TD ex
 	 * Wrap the image iterator by adding detection to it
 	 */
 	@Override public void learnModel( Iterator<Image> images ) {
+		metrics.start();
 		recognizer.learnModel(new Iterator<>() {
 			@Override public boolean hasNext() {return images.hasNext();}
 
@@ -77,6 +82,8 @@ public class WrapFeatureToSceneRecognition<Image extends ImageBase<Image>, TD ex
 				return wrappedDetector;
 			}
 		});
+		metrics.stage("learn");
+		metrics.stop("learnModel");
 	}
 
 	@Override public void clearDatabase() {
@@ -84,14 +91,23 @@ public class WrapFeatureToSceneRecognition<Image extends ImageBase<Image>, TD ex
 	}
 
 	@Override public void addImage( String id, Image image ) {
+		metrics.start();
 		detector.detect(image);
+		metrics.stage("detect");
 		recognizer.addImage(id, wrappedDetector);
+		metrics.stage("add");
+		metrics.stop("addImage");
 	}
 
 	@Override
 	public boolean query( Image queryImage, @Nullable BoofLambdas.Filter<String> filter, int limit, DogArray<Match> matches ) {
+		metrics.start();
 		detector.detect(queryImage);
-		return recognizer.query(wrappedDetector, filter, limit, matches);
+		metrics.stage("detect");
+		boolean success = recognizer.query(wrappedDetector, filter, limit, matches);
+		metrics.stage("query");
+		metrics.stop();
+		return success;
 	}
 
 	@Override public List<String> getImageIds( @Nullable List<String> storage ) {
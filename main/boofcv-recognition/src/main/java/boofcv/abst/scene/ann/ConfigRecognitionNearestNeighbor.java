@@ -19,6 +19,7 @@
 package boofcv.abst.scene.ann;
 
 import boofcv.alg.scene.bow.BowDistanceTypes;
+import boofcv.factory.feature.associate.ConfigHnsw;
 import boofcv.struct.Configuration;
 import org.ddogleg.clustering.ConfigKMeans;
 import org.ddogleg.nn.ConfigNearestNeighborSearch;
@@ -35,6 +36,15 @@ public class ConfigRecognitionNearestNeighbor implements Configuration {
 	/** Which Nearest Neighbor Algorithm will be used. */
 	public final ConfigNearestNeighborSearch nearestNeighbor = new ConfigNearestNeighborSearch();
 
+	/**
+	 * If true then words are looked up using an HNSW graph instead of the search specified by
+	 * {@link #nearestNeighbor}. This also allows binary descriptors to be used.
+	 */
+	public boolean useHnsw = false;
+
+	/** Configuration for the HNSW graph. Only used if {@link #useHnsw} is true */
+	public final ConfigHnsw hnsw = new ConfigHnsw();
+
 	/** Number of words in the dictionary */
 	public int numberOfWords = 10_000;
 
@@ -58,11 +68,14 @@ public class ConfigRecognitionNearestNeighbor implements Configuration {
 	@Override public void checkValidity() {
 		kmeans.checkValidity();
 		nearestNeighbor.checkValidity();
+		hnsw.checkValidity();
 	}
 
 	public ConfigRecognitionNearestNeighbor setTo( ConfigRecognitionNearestNeighbor src ) {
 		this.kmeans.setTo(src.kmeans);
 		this.nearestNeighbor.setTo(src.nearestNeighbor);
+		this.useHnsw = src.useHnsw;
+		this.hnsw.setTo(src.hnsw);
 		this.numberOfWords = src.numberOfWords;
 		this.distanceNorm = src.distanceNorm;
 		this.randSeed = src.randSeed;
@@ -209,12 +209,28 @@ public class FeatureSceneRecognitionNearestNeighbor<TD extends TupleDesc<TD>> im
 	 * @param dictionary Dictionary of words
 	 */
 	public void setDictionary( List<TD> dictionary ) {
-		clearDatabase();
-		this.dictionary = dictionary;
-		NearestNeighbor<TD> nearestNeighbor = FactoryNearestNeighbor.generic(config.nearestNeighbor,
-				FactoryAssociation.kdtreeDistance(tupleDOF, tupleType));
+		NearestNeighbor<TD> nearestNeighbor;
+		if (config.useHnsw) {
+			nearestNeighbor = FactoryAssociation.hnswNearestNeighbor(config.hnsw, tupleType);
+		} else {
+			nearestNeighbor = FactoryNearestNeighbor.generic(config.nearestNeighbor,
+					FactoryAssociation.kdtreeDistance(tupleDOF, tupleType));
+		}
 		nearestNeighbor.setPoints(dictionary, true);
 
+		setDictionary(dictionary, nearestNeighbor);
+	}
+
+	/**
+	 * Specifies the dictionary and a nearest neighbor search which has already been initialized with the
+	 * dictionary. Useful when the search was loaded from disk and doesn't need to be rebuilt.
+	 *
+	 * @param dictionary Dictionary of words
+	 * @param nearestNeighbor Search used to look up words. Points must already be set to the dictionary.
+	 */
+	public void setDictionary( List<TD> dictionary, NearestNeighbor<TD> nearestNeighbor ) {
+		clearDatabase();
+		this.dictionary = dictionary;
 		database.initialize(nearestNeighbor, dictionary.size());
 	}
 
@@ -22,6 +22,7 @@ import boofcv.abst.scene.FeatureSceneRecognition;
 import boofcv.abst.scene.GenericFeatureSceneRecognitionChecks;
 import boofcv.factory.scene.FactorySceneRecognition;
 import boofcv.struct.feature.TupleDesc_F32;
+import org.junit.jupiter.api.Nested;
 
 /**
  * @author Peter Abeles
@@ -38,4 +39,20 @@ public class TestFeatureSceneRecognitionNearestNeighbor extends GenericFeatureSc
 		}
 		return desc;
 	}
+
+	/**
+	 * Words are looked up using an HNSW graph
+	 */
+	@Nested
+	public class Hnsw extends GenericFeatureSceneRecognitionChecks<TupleDesc_F32> {
+		@Override public FeatureSceneRecognition<TupleDesc_F32> createAlg() {
+			var config = new ConfigRecognitionNearestNeighbor();
+			config.useHnsw = true;
+			return FactorySceneRecognition.createSceneNearestNeighbor(config, ()->new TupleDesc_F32(64));
+		}
+
+		@Override public TupleDesc_F32 createDescriptor( int seed ) {
+			return TestFeatureSceneRecognitionNearestNeighbor.this.createDescriptor(seed);
+		}
+	}
 }
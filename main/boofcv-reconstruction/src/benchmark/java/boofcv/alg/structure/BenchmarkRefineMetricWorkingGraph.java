@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.structure;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and memory used by {@link RefineMetricWorkingGraph} as the number of views grows. The working graph is
+ * initialized to the ground truth with every view in a single scene.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkRefineMetricWorkingGraph {
+	@Param({"100", "1000"})
+	public int numViews;
+
+	SyntheticReconstructionScene scene;
+	PairwiseImageGraph pairwise;
+	SceneWorkingGraph working;
+
+	RefineMetricWorkingGraph alg = new RefineMetricWorkingGraph();
+
+	@Setup public void setup() {
+		scene = new SyntheticReconstructionScene(numViews, 0xBEEF);
+		pairwise = scene.createPairwise();
+	}
+
+	/**
+	 * The working graph is modified by refinement, so it needs to be recreated each time
+	 */
+	@Setup(Level.Iteration) public void setupIteration() {
+		working = scene.createWorkingGraph(pairwise);
+	}
+
+	@Benchmark public boolean process() {
+		return alg.process(scene, working);
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkRefineMetricWorkingGraph.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.addProfiler(PeakHeapProfiler.class)
+				.shouldDoGC(true)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
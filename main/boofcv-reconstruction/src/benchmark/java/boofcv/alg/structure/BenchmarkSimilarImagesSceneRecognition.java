@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.structure;
+
+import boofcv.alg.similar.SimilarImagesSceneRecognition;
+import boofcv.factory.structure.FactorySceneReconstruction;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.DogArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and memory used by {@link SimilarImagesSceneRecognition} to add every image, learn the model, then
+ * find similar images and associated features for every image. Images are rendered in advance and kept in
+ * memory, which limits the number of views.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkSimilarImagesSceneRecognition {
+	@Param({"100", "1000"})
+	public int numViews;
+
+	List<GrayU8> images = new ArrayList<>();
+
+	SimilarImagesSceneRecognition<GrayU8, ?> alg;
+
+	List<String> similar = new ArrayList<>();
+	DogArray<AssociatedIndex> pairs = new DogArray<>(AssociatedIndex::new);
+
+	@Setup public void setup() {
+		var scene = new SyntheticReconstructionScene(numViews, 0xBEEF);
+		for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+			var image = new GrayU8(1, 1);
+			scene.render(viewIdx, image);
+			images.add(image);
+		}
+	}
+
+	/**
+	 * Images and the learned model from the previous iteration are discarded
+	 */
+	@Setup(Level.Iteration) public void setupIteration() {
+		alg = FactorySceneReconstruction.createSimilarImages(null, ImageType.SB_U8);
+	}
+
+	@Benchmark public int process() {
+		for (int viewIdx = 0; viewIdx < images.size(); viewIdx++) {
+			alg.addImage("" + viewIdx, images.get(viewIdx));
+		}
+		alg.fixate();
+
+		int totalAssociated = 0;
+		for (String id : alg.getImageIDs()) {
+			alg.findSimilar(id, null, similar);
+			for (int i = 0; i < similar.size(); i++) {
+				if (alg.lookupAssociated(similar.get(i), pairs))
+					totalAssociated += pairs.size;
+			}
+		}
+		return totalAssociated;
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSimilarImagesSceneRecognition.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.addProfiler(PeakHeapProfiler.class)
+				.shouldDoGC(true)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
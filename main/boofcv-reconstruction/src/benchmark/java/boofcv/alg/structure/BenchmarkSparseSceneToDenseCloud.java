@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.structure;
+
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.factory.structure.FactorySceneReconstruction;
+import boofcv.misc.LookUpImages;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and memory used by {@link SparseSceneToDenseCloud} to compute a dense cloud from a known sparse scene.
+ * Images are rendered when they are loaded, which stands in for reading them from disk. Dense stereo dominates
+ * so the number of views is limited.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkSparseSceneToDenseCloud {
+	@Param({"100", "1000"})
+	public int numViews;
+
+	SceneStructureMetric structure = new SceneStructureMetric(false);
+	TIntObjectMap<String> viewIdx_to_imageID = new TIntObjectHashMap<>();
+	LookUpImages lookUpImages;
+
+	SparseSceneToDenseCloud<GrayU8> alg;
+
+	@Setup public void setup() {
+		var scene = new SyntheticReconstructionScene(numViews, 0xBEEF);
+		scene.createSceneMetric(structure, viewIdx_to_imageID);
+		lookUpImages = scene.createLookUpImages();
+	}
+
+	/**
+	 * The cloud from the previous iteration is discarded
+	 */
+	@Setup(Level.Iteration) public void setupIteration() {
+		alg = FactorySceneReconstruction.sparseSceneToDenseCloud(null, ImageType.SB_U8);
+	}
+
+	@Benchmark public int process() {
+		alg.process(structure, viewIdx_to_imageID, lookUpImages);
+		return alg.getCloud().size();
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSparseSceneToDenseCloud.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.addProfiler(PeakHeapProfiler.class)
+				.shouldDoGC(true)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.structure;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+/**
+ * JMH profiler which reports the peak heap usage during an iteration. The peak of each heap memory pool is reset
+ * before the iteration starts and summed after it finishes. Pools can peak at different times so this is an upper
+ * bound on the actual peak. Memory used by inputs which are created in iteration level setup is included. Enable
+ * {@code shouldDoGC} so that garbage from earlier iterations isn't included.
+ *
+ * @author Peter Abeles
+ */
+public class PeakHeapProfiler implements InternalProfiler {
+	@Override public String getDescription() {
+		return "Peak heap usage from memory pools";
+	}
+
+	@Override public void beforeIteration( BenchmarkParams benchmarkParams, IterationParams iterationParams ) {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP)
+				pool.resetPeakUsage();
+		}
+	}
+
+	@Override public List<? extends Result> afterIteration( BenchmarkParams benchmarkParams,
+															IterationParams iterationParams,
+															IterationResult result ) {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP)
+				peak += pool.getPeakUsage().getUsed();
+		}
+		return List.of(new ScalarResult("heap.peak", peak/(1024.0*1024.0), "MB", AggregationPolicy.MAX));
+	}
+}
@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.structure;
+
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.alg.geo.PerspectiveOps;
+import boofcv.alg.geo.WorldToCameraToPixel;
+import boofcv.alg.geo.bundle.BundleAdjustmentOps;
+import boofcv.core.image.GConvertImage;
+import boofcv.misc.BoofLambdas;
+import boofcv.misc.LookUpImages;
+import boofcv.struct.calib.CameraPinhole;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageDimension;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.Planar;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.geometry.GeometryMath_F64;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import gnu.trove.map.TIntObjectMap;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.ejml.data.DMatrixRMaj;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic scene for benchmarking the reconstruction pipeline with an arbitrary number of views. The camera
+ * moves down the x-axis while looking at a slab of points. Only views which are close to each other in the
+ * sequence can see the same points, so the amount of work per view is constant as the scene grows. Features
+ * are stored compactly so that scenes with 10,000 views can be created quickly. Benchmarks default to smaller
+ * scenes since later stages scale poorly, use "-p numViews=10000" to override.
+ *
+ * Images are rendered from a textured wall that's parallel to the image plane. They are only intended to
+ * provide realistic texture for image based stages and are not consistent with the sparse features.
+ *
+ * @author Peter Abeles
+ */
+public class SyntheticReconstructionScene implements LookUpSimilarImages {
+	public CameraPinhole intrinsic = new CameraPinhole(250, 250, 0, 160, 120, 320, 240);
+
+	/** Distance the camera moves between each view */
+	public double stepLength = 0.3;
+	/** A view is connected to this number of views before and after it in the sequence */
+	public int numViewConnect = 3;
+	/** Number of features for each meter along the path */
+	public double featureDensity = 100;
+	/** Standard deviation of noise added to pixel observations */
+	public double pixelNoise = 0.5;
+	/** Z-coordinate of the textured wall that's rendered into images */
+	public double wallZ = 2.0;
+
+	/** Location of features in world frame. Sorted by x-coordinate */
+	public final List<Point3D_F64> features = new ArrayList<>();
+	public final List<View> views = new ArrayList<>();
+
+	// Look up table from feature index to an observation index in a view. -1 if not observed
+	int[] featureToObs = new int[0];
+
+	// recent query image for findSimilar()
+	int queryIdx = -1;
+
+	/**
+	 * Creates a new scene
+	 *
+	 * @param numViews Number of views in the scene
+	 * @param seed Seed for the random number generator
+	 */
+	public SyntheticReconstructionScene( int numViews, long seed ) {
+		var rand = new Random(seed);
+		generateFeatures(numViews, rand);
+		generateViews(numViews, rand);
+	}
+
+	private void generateFeatures( int numViews, Random rand ) {
+		double x0 = -2.0;
+		double x1 = stepLength*(numViews - 1) + 2.0;
+
+		int numFeatures = (int)Math.ceil(featureDensity*(x1 - x0));
+		double[] sortedX = new double[numFeatures];
+		for (int i = 0; i < numFeatures; i++) {
+			sortedX[i] = x0 + rand.nextDouble()*(x1 - x0);
+		}
+		Arrays.sort(sortedX);
+
+		for (int i = 0; i < numFeatures; i++) {
+			features.add(new Point3D_F64(sortedX[i], rand.nextDouble() - 0.5, 1.5 + rand.nextDouble()));
+		}
+		featureToObs = new int[numFeatures];
+		Arrays.fill(featureToObs, -1);
+	}
+
+	private void generateViews( int numViews, Random rand ) {
+		DMatrixRMaj K = PerspectiveOps.pinholeToMatrix(intrinsic, (DMatrixRMaj)null);
+		var w2p = new WorldToCameraToPixel();
+		var pixel = new Point2D_F64();
+
+		for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+			var camera_to_world = new Se3_F64();
+
+			// Move the camera down the x-axis. Noise adds the geometric diversity self calibration needs
+			camera_to_world.T.x = stepLength*viewIdx;
+			camera_to_world.T.y = rand.nextGaussian()*0.1;
+			camera_to_world.T.z = rand.nextGaussian()*0.05;
+			ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,
+					rand.nextGaussian()*0.01, rand.nextGaussian()*0.01, rand.nextGaussian()*0.01, camera_to_world.R);
+
+			var v = new View();
+			v.id = "" + viewIdx;
+			camera_to_world.invert(v.world_to_view);
+			PerspectiveOps.createCameraMatrix(v.world_to_view.R, v.world_to_view.T, K, v.camera);
+
+			// Only features inside this range along the x-axis could possibly be visible
+			int idx0 = lowerBound(camera_to_world.T.x - 2.5);
+			int idx1 = lowerBound(camera_to_world.T.x + 2.5);
+
+			w2p.configure(intrinsic, v.world_to_view);
+			for (int featureIdx = idx0; featureIdx < idx1; featureIdx++) {
+				if (!w2p.transform(features.get(featureIdx), pixel))
+					continue;
+				if (!intrinsic.isInside(pixel.x, pixel.y))
+					continue;
+
+				v.featureIdx.add(featureIdx);
+				v.pixels.grow().setTo(
+						pixel.x + rand.nextGaussian()*pixelNoise, pixel.y + rand.nextGaussian()*pixelNoise);
+			}
+
+			views.add(v);
+		}
+	}
+
+	/**
+	 * Returns the index of the first feature with an x-coordinate &ge; the value
+	 */
+	private int lowerBound( double x ) {
+		int low = 0;
+		int high = features.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (features.get(mid).x < x)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Returns true if the two views are considered to be similar
+	 */
+	public boolean isConnected( int viewA, int viewB ) {
+		return viewA != viewB && Math.abs(viewA - viewB) <= numViewConnect;
+	}
+
+	/**
+	 * Finds observations of the same feature in both views
+	 *
+	 * @param viewA (Input) Index of the first view. Source in the associated pairs.
+	 * @param viewB (Input) Index of the second view. Destination in the associated pairs.
+	 * @param pairs (Output) Index of observations in each view which are of the same feature
+	 */
+	public void findShared( int viewA, int viewB, DogArray<AssociatedIndex> pairs ) {
+		pairs.reset();
+		DogArray_I32 featsA = views.get(viewA).featureIdx;
+		DogArray_I32 featsB = views.get(viewB).featureIdx;
+
+		featsB.forIdx(( obsIdx, featureIdx ) -> featureToObs[featureIdx] = obsIdx);
+		for (int obsA = 0; obsA < featsA.size; obsA++) {
+			int obsB = featureToObs[featsA.data[obsA]];
+			if (obsB >= 0)
+				pairs.grow().setTo(obsA, obsB);
+		}
+		featsB.forEach(featureIdx -> featureToObs[featureIdx] = -1);
+	}
+
+	/**
+	 * Creates the camera database. There's only one camera for all the views
+	 */
+	public LookUpCameraInfo createLookUpCams() {
+		var dbCams = new LookUpCameraInfo();
+		dbCams.listCalibration.grow().setTo(intrinsic);
+		views.forEach(v -> dbCams.addView(v.id, 0));
+		return dbCams;
+	}
+
+	/**
+	 * Creates the pairwise graph that {@link GeneratePairwiseImageGraph} would create if it worked perfectly.
+	 * All the common features are inliers.
+	 */
+	public PairwiseImageGraph createPairwise() {
+		var graph = new PairwiseImageGraph();
+		views.forEach(v -> graph.createNode(v.id));
+
+		var shared = new DogArray<>(AssociatedIndex::new);
+		for (int idxA = 0; idxA < views.size(); idxA++) {
+			PairwiseImageGraph.View pa = graph.nodes.get(idxA);
+			pa.totalObservations = views.get(idxA).featureIdx.size;
+
+			for (int idxB = idxA + 1; idxB < views.size() && isConnected(idxA, idxB); idxB++) {
+				findShared(idxA, idxB, shared);
+
+				PairwiseImageGraph.Motion m = graph.connect(pa, graph.nodes.get(idxB));
+				m.is3D = true;
+				m.score3D = 3.0;
+				m.src = pa;
+				m.dst = graph.nodes.get(idxB);
+				shared.forEach(a -> m.inliers.grow().setTo(a));
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Creates a working graph filled with metric and projective ground truth. Each view has inlier information
+	 * for the views which come after it in the sequence.
+	 */
+	public SceneWorkingGraph createWorkingGraph( PairwiseImageGraph pairwise ) {
+		var working = new SceneWorkingGraph();
+
+		SceneWorkingGraph.Camera c = working.addCamera(0);
+		c.prior.setTo(intrinsic);
+		BundleAdjustmentOps.convert(intrinsic, c.intrinsic);
+
+		for (int viewIdx = 0; viewIdx < views.size(); viewIdx++) {
+			View v = views.get(viewIdx);
+			SceneWorkingGraph.View wv = working.addView(pairwise.nodes.get(viewIdx), c);
+			wv.projective.setTo(v.camera);
+			wv.world_to_view.setTo(v.world_to_view);
+			wv.index = viewIdx;
+			wv.cameraIdx = c.localIndex;
+		}
+
+		// Use the next two views. The last views in the sequence look backwards instead
+		for (int viewIdx = 0; viewIdx < views.size(); viewIdx++) {
+			if (viewIdx + 2 < views.size())
+				addInlierInfo(pairwise, working.listViews.get(viewIdx), viewIdx + 1, viewIdx + 2);
+			else
+				addInlierInfo(pairwise, working.listViews.get(viewIdx), viewIdx - 1, viewIdx - 2);
+		}
+		return working;
+	}
+
+	/**
+	 * Adds inlier info to the specified view for features which are visible in all the views
+	 */
+	void addInlierInfo( PairwiseImageGraph pairwise, SceneWorkingGraph.View wv, int... connected ) {
+		SceneWorkingGraph.InlierInfo info = wv.inliers.grow();
+		info.views.add(wv.pview);
+		for (int viewIdx : connected) {
+			info.views.add(pairwise.nodes.get(viewIdx));
+		}
+		info.observations.resize(info.views.size);
+		info.scoreGeometric = 10; // give it a positive score so it isn't ignored.
+
+		DogArray_I32 featsTarget = views.get(wv.pview.index).featureIdx;
+		for (int obsIdx = 0; obsIdx < featsTarget.size; obsIdx++) {
+			int featureIdx = featsTarget.data[obsIdx];
+
+			boolean common = true;
+			for (int i = 0; i < connected.length && common; i++) {
+				common = views.get(connected[i]).featureIdx.contains(featureIdx);
+			}
+			if (!common)
+				continue;
+
+			info.observations.get(0).add(obsIdx);
+			for (int i = 0; i < connected.length; i++) {
+				info.observations.get(i + 1).add(views.get(connected[i]).featureIdx.indexOf(featureIdx));
+			}
+		}
+	}
+
+	/**
+	 * Creates a metric scene with known structure for use in dense reconstruction
+	 *
+	 * @param scene (Output) The metric scene
+	 * @param viewIdx_to_imageID (Output) Look up table from view index to image ID
+	 */
+	public void createSceneMetric( SceneStructureMetric scene, TIntObjectMap<String> viewIdx_to_imageID ) {
+		scene.initialize(1, views.size(), features.size());
+		scene.setCamera(0, true, intrinsic);
+		for (int viewIdx = 0; viewIdx < views.size(); viewIdx++) {
+			View v = views.get(viewIdx);
+			viewIdx_to_imageID.put(viewIdx, v.id);
+			scene.setView(viewIdx, 0, true, v.world_to_view);
+
+			for (int i = 0; i < v.featureIdx.size; i++) {
+				scene.points.get(v.featureIdx.data[i]).views.add(viewIdx);
+			}
+		}
+		for (int featureIdx = 0; featureIdx < features.size(); featureIdx++) {
+			Point3D_F64 X = features.get(featureIdx);
+			scene.setPoint(featureIdx, X.x, X.y, X.z);
+		}
+	}
+
+	/**
+	 * Renders the view by intersecting each pixel's ray with the textured wall
+	 */
+	public void render( int viewIdx, GrayU8 output ) {
+		output.reshape(intrinsic.width, intrinsic.height);
+		Se3_F64 view_to_world = views.get(viewIdx).world_to_view.invert(null);
+
+		var rayView = new Vector3D_F64();
+		var rayWorld = new Vector3D_F64();
+		for (int y = 0; y < output.height; y++) {
+			int index = output.startIndex + y*output.stride;
+			for (int x = 0; x < output.width; x++) {
+				rayView.y = (y - intrinsic.cy)/intrinsic.fy;
+				rayView.x = (x - intrinsic.cx - intrinsic.skew*rayView.y)/intrinsic.fx;
+				rayView.z = 1.0;
+				GeometryMath_F64.mult(view_to_world.R, rayView, rayWorld);
+
+				double t = (wallZ - view_to_world.T.z)/rayWorld.z;
+				double wallX = view_to_world.T.x + t*rayWorld.x;
+				double wallY = view_to_world.T.y + t*rayWorld.y;
+				output.data[index++] = (byte)(255*texture(wallX, wallY));
+			}
+		}
+	}
+
+	/**
+	 * Creates {@link LookUpImages} that renders each image when requested.
+	 */
+	public LookUpImages createLookUpImages() {
+		return new LookUpImages() {
+			@Override public boolean loadShape( String name, ImageDimension shape ) {
+				shape.setTo(intrinsic.width, intrinsic.height);
+				return true;
+			}
+
+			@Override public <LT extends ImageBase<LT>> boolean loadImage( String name, LT output ) {
+				var gray = new GrayU8(1, 1);
+				render(Integer.parseInt(name), gray);
+				if (output instanceof Planar) {
+					Planar<?> planar = (Planar<?>)output;
+					planar.reshape(gray.width, gray.height, 3);
+					for (int i = 0; i < 3; i++) {
+						GConvertImage.convert(gray, planar.getBand(i));
+					}
+				} else {
+					GConvertImage.convert(gray, (ImageGray<?>)output);
+				}
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Procedural texture which is a sum of value noise at different scales. Output is from 0 to 1.
+	 */
+	public static double texture( double x, double y ) {
+		return 0.5*valueNoise(x*4.0, y*4.0) + 0.3*valueNoise(x*12.0 + 17.3, y*12.0) + 0.2*valueNoise(x*30.0, y*30.0 + 5.1);
+	}
+
+	static double valueNoise( double x, double y ) {
+		int x0 = (int)Math.floor(x);
+		int y0 = (int)Math.floor(y);
+		double fx = smooth(x - x0);
+		double fy = smooth(y - y0);
+
+		double top = (1.0 - fx)*lattice(x0, y0) + fx*lattice(x0 + 1, y0);
+		double bottom = (1.0 - fx)*lattice(x0, y0 + 1) + fx*lattice(x0 + 1, y0 + 1);
+		return (1.0 - fy)*top + fy*bottom;
+	}
+
+	static double smooth( double t ) {
+		return t*t*(3.0 - 2.0*t);
+	}
+
+	/** Pseudo random value from 0 to 1 at each integer coordinate */
+	static double lattice( int x, int y ) {
+		int h = x*374761393 + y*668265263;
+		h = (h ^ (h >>> 13))*1274126177;
+		h ^= h >>> 16;
+		return (h & 0xFFFF)/65535.0;
+	}
+
+	@Override public List<String> getImageIDs() {
+		List<String> ids = new ArrayList<>();
+		views.forEach(v -> ids.add(v.id));
+		return ids;
+	}
+
+	@Override public void findSimilar( String target, @Nullable BoofLambdas.Filter<String> filter, List<String> similar ) {
+		queryIdx = Integer.parseInt(target);
+
+		similar.clear();
+		int idx0 = Math.max(0, queryIdx - numViewConnect);
+		int idx1 = Math.min(views.size(), queryIdx + numViewConnect + 1);
+		for (int viewIdx = idx0; viewIdx < idx1; viewIdx++) {
+			if (viewIdx == queryIdx)
+				continue;
+			String id = views.get(viewIdx).id;
+			if (filter == null || filter.keep(id))
+				similar.add(id);
+		}
+	}
+
+	@Override public void lookupPixelFeats( String target, DogArray<Point2D_F64> features ) {
+		DogArray<Point2D_F64> pixels = views.get(Integer.parseInt(target)).pixels;
+
+		features.reset();
+		pixels.forEach(p -> features.grow().setTo(p));
+	}
+
+	@Override public boolean lookupAssociated( String similarD, DogArray<AssociatedIndex> pairs ) {
+		int viewB = Integer.parseInt(similarD);
+		if (!isConnected(queryIdx, viewB))
+			return false;
+
+		findShared(queryIdx, viewB, pairs);
+		return true;
+	}
+
+	public static class View {
+		public String id;
+		/** Index of each observed feature */
+		public DogArray_I32 featureIdx = new DogArray_I32();
+		/** Pixel coordinate of each observed feature */
+		public DogArray<Point2D_F64> pixels = new DogArray<>(Point2D_F64::new);
+		/** Transform from world to this view */
+		public Se3_F64 world_to_view = new Se3_F64();
+		/** Camera matrix. Used in projective transform */
+		public DMatrixRMaj camera = new DMatrixRMaj(3, 4);
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d3;
+
+import boofcv.abst.sfm.d3.VisOdomPixelDepthPnP_to_DepthVisualOdometry;
+import boofcv.alg.sfm.DepthSparse3D;
+import boofcv.factory.sfm.ConfigVisOdomTrackPnP;
+import boofcv.factory.sfm.FactoryVisualOdometry;
+import boofcv.simulation.PointTrackerPerfectCloud;
+import boofcv.struct.distort.DoNothing2Transform2_F32;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame latency of {@link VisOdomMonoDepthPnP} when the depth comes from a depth sensor. Tracks come
+ * from {@link PointTrackerPerfectCloud} so that only the cost of visual odometry is measured.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkVisOdomMonoDepthPnP {
+	@Param({"500", "2000"})
+	public int numCloud;
+
+	SyntheticVisOdomSequence sequence;
+
+	PointTrackerPerfectCloud<GrayF32> tracker = new PointTrackerPerfectCloud<>();
+	VisOdomPixelDepthPnP_to_DepthVisualOdometry<GrayF32, GrayF32> vo;
+
+	StageLatencyRecorder latency = new StageLatencyRecorder(
+			"track", "estimate", "bundle", "drop", "maintenance", "spawn");
+
+	int frame;
+
+	@Setup public void setup() {
+		sequence = new SyntheticVisOdomSequence(640, 480, 40, numCloud, 0xBEEF);
+		sequence.configure(tracker, sequence.stereo.left);
+
+		vo = (VisOdomPixelDepthPnP_to_DepthVisualOdometry<GrayF32, GrayF32>)FactoryVisualOdometry.rgbDepthPnP(
+				new ConfigVisOdomTrackPnP(), new DepthSparse3D.F32(1.0), tracker, GrayF32.class, GrayF32.class);
+		frame = 0;
+	}
+
+	/**
+	 * Start from the beginning again once the end of the sequence has been reached. Reset discards the
+	 * calibration so it needs to be set again.
+	 */
+	@Setup(Level.Invocation) public void restartSequence() {
+		if (frame != 0)
+			return;
+		vo.reset();
+		vo.setCalibration(sequence.stereo.left, new DoNothing2Transform2_F32());
+	}
+
+	@Setup(Level.Iteration) public void setupIteration( IterationParams params ) {
+		latency.enabled = params.getType() == IterationType.MEASUREMENT;
+	}
+
+	@TearDown public void tearDown() {
+		latency.print("MonoDepthPnP numCloud=" + numCloud, System.out);
+	}
+
+	@Benchmark public boolean process() {
+		sequence.moveTrackers(frame, tracker, null);
+		boolean success = vo.process(sequence.listLeft.get(frame), sequence.listDepth.get(frame));
+		frame = (frame + 1)%sequence.size();
+
+		VisOdomMonoDepthPnP<GrayF32> alg = vo.getAlgorithm();
+		latency.add(alg.getTimeTracking(), alg.getTimeEstimate(), alg.getTimeBundle(), alg.getTimeDropUnused(),
+				alg.getTimeSceneMaintenance(), alg.getTimeSpawn());
+		return success;
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkVisOdomMonoDepthPnP.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d3;
+
+import org.ddogleg.struct.DogArray_F64;
+
+import java.io.PrintStream;
+
+/**
+ * Records how long each processing stage took for every frame and summarizes the distribution with percentiles.
+ * JMH only sees the total time for a frame, this makes it possible to see which stage a regression came from.
+ *
+ * @author Peter Abeles
+ */
+public class StageLatencyRecorder {
+	final String[] names;
+	final DogArray_F64[] samples;
+
+	/** If false then calls to {@link #add} are ignored. Used to skip warmup iterations. */
+	public boolean enabled = true;
+
+	public StageLatencyRecorder( String... names ) {
+		this.names = names;
+		this.samples = new DogArray_F64[names.length];
+		for (int i = 0; i < names.length; i++) {
+			samples[i] = new DogArray_F64();
+		}
+	}
+
+	/**
+	 * Adds the time each stage took in a single frame. Must be in the same order as the names.
+	 *
+	 * @param milliseconds Time in milliseconds for each stage
+	 */
+	public void add( double... milliseconds ) {
+		if (!enabled)
+			return;
+		if (milliseconds.length != names.length)
+			throw new IllegalArgumentException("Expected " + names.length + " stages not " + milliseconds.length);
+		for (int i = 0; i < names.length; i++) {
+			samples[i].add(milliseconds[i]);
+		}
+	}
+
+	public void reset() {
+		for (int i = 0; i < samples.length; i++) {
+			samples[i].reset();
+		}
+	}
+
+	/**
+	 * Prints a table with the 50%, 90%, 99% and maximum latency for each stage in milliseconds
+	 */
+	public void print( String title, PrintStream out ) {
+		out.println();
+		out.printf("%s: per-frame stage latency (ms), frames=%d\n", title, samples[0].size);
+		out.printf("%-12s %8s %8s %8s %8s\n", "stage", "p50", "p90", "p99", "max");
+		for (int i = 0; i < names.length; i++) {
+			DogArray_F64 sorted = samples[i].copy();
+			sorted.sort();
+			out.printf("%-12s %8.3f %8.3f %8.3f %8.3f\n", names[i],
+					percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99),
+					percentile(sorted, 1.0));
+		}
+	}
+
+	/**
+	 * Returns the value at the specified fraction of a sorted array
+	 */
+	static double percentile( DogArray_F64 sorted, double fraction ) {
+		if (sorted.size == 0)
+			return Double.NaN;
+		return sorted.get((int)(fraction*(sorted.size - 1)));
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d3;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.simulation.PointTrackerPerfectCloud;
+import boofcv.simulation.SimulatePlanarWorld;
+import boofcv.struct.calib.CameraPinholeBrown;
+import boofcv.struct.calib.StereoParameters;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic stereo and depth image sequence used to benchmark visual odometry. The scene is composed of
+ * textured planar panels at different depths which are rendered using {@link SimulatePlanarWorld}. A point cloud
+ * which lies on the panels' surface is also provided for use with {@link PointTrackerPerfectCloud}. All the
+ * frames are rendered in advance so that rendering isn't included in the measured time.
+ *
+ * @author Peter Abeles
+ */
+public class SyntheticVisOdomSequence {
+	/** Stereo camera calibration. The left camera is also the visual camera for depth sensors */
+	public final StereoParameters stereo = new StereoParameters();
+
+	/** Transform from left to right camera */
+	public final Se3_F64 leftToRight;
+
+	/** 3D points which lie on the surface of the panels */
+	public final List<Point3D_F64> cloud = new ArrayList<>();
+
+	/** Transform from world to left camera for each frame */
+	public final List<Se3_F64> listWorldToLeft = new ArrayList<>();
+
+	public final List<GrayF32> listLeft = new ArrayList<>();
+	public final List<GrayF32> listRight = new ArrayList<>();
+	/** Depth along the left camera's z-axis. 0 indicates that no depth is known */
+	public final List<GrayF32> listDepth = new ArrayList<>();
+
+	/**
+	 * Renders the sequence
+	 *
+	 * @param width Image width
+	 * @param height Image height
+	 * @param numFrames Number of frames in the sequence
+	 * @param numCloud Number of points in the cloud
+	 * @param seed Seed for the random number generator. Same seed will produce the same sequence.
+	 */
+	public SyntheticVisOdomSequence( int width, int height, int numFrames, int numCloud, long seed ) {
+		var rand = new Random(seed);
+
+		double f = width*0.8;
+		stereo.left = new CameraPinholeBrown(f, f, 0, width/2, height/2, width, height).fsetRadial(0, 0);
+		stereo.right = new CameraPinholeBrown(f, f, 0, width/2, height/2, width, height).fsetRadial(0, 0);
+		stereo.right_to_left = SpecialEuclideanOps_F64.eulerXyz(0.12, 0, 0, 0, 0, 0, null);
+		leftToRight = stereo.right_to_left.invert(null);
+
+		var sim = new SimulatePlanarWorld();
+		sim.setBackground(20);
+
+		// A grid of panels that are at different depths
+		int numPanels = 0;
+		for (int row = 0; row < 3; row++) {
+			for (int col = 0; col < 4; col++) {
+				double x = -1.8 + col*1.2;
+				double y = -1.0 + row*1.0;
+				double z = 3.0 + rand.nextDouble()*1.5;
+
+				// Rotate the panel so that it faces the camera with a small random tilt
+				Se3_F64 panelToWorld = SpecialEuclideanOps_F64.eulerXyz(x, y, z,
+						Math.PI + (rand.nextDouble() - 0.5)*0.4, (rand.nextDouble() - 0.5)*0.4, 0, null);
+				sim.addSurface(panelToWorld, 1.0, createTexture(rand));
+				numPanels++;
+			}
+		}
+
+		// Sample points on each panel's surface. Panels are 1x1 in world units
+		var panelPoint = new Point3D_F64();
+		for (int i = 0; i < numCloud; i++) {
+			SimulatePlanarWorld.SurfaceRect panel = sim.getImageRect(i%numPanels);
+			panelPoint.setTo(rand.nextDouble() - 0.5, rand.nextDouble() - 0.5, 0);
+			cloud.add(panel.getRectToWorld().transform(panelPoint, null));
+		}
+
+		// The camera moves forward while swaying and panning side to side
+		for (int frame = 0; frame < numFrames; frame++) {
+			double phase = 2.0*Math.PI*frame/numFrames;
+			Se3_F64 leftToWorld = SpecialEuclideanOps_F64.eulerXyz(
+					0.3*Math.sin(phase), 0.05*Math.sin(2*phase), 0.6*frame/numFrames,
+					0.02*Math.sin(phase), 0.08*Math.sin(phase), 0, null);
+			Se3_F64 worldToLeft = leftToWorld.invert(null);
+			listWorldToLeft.add(worldToLeft);
+
+			sim.setCamera(stereo.left);
+			sim.setWorldToCamera(worldToLeft);
+			listLeft.add(sim.render().clone());
+			listDepth.add(rangeToDepth(sim.getDepthMap(), stereo.left));
+
+			sim.setCamera(stereo.right);
+			sim.setWorldToCamera(worldToLeft.concat(leftToRight, null));
+			listRight.add(sim.render().clone());
+		}
+	}
+
+	/**
+	 * Blurred noise creates blob like texture that is easy to detect and describe
+	 */
+	private static GrayF32 createTexture( Random rand ) {
+		var noise = new GrayF32(120, 120);
+		ImageMiscOps.fillUniform(noise, rand, 0, 255);
+		return BlurImageOps.gaussian(noise, null, -1, 3, null);
+	}
+
+	/**
+	 * The simulator provides the distance along each pixel's ray but depth sensors report the z-coordinate
+	 */
+	private static GrayF32 rangeToDepth( GrayF32 range, CameraPinholeBrown intrinsic ) {
+		var depth = new GrayF32(range.width, range.height);
+		for (int y = 0; y < range.height; y++) {
+			double ny = (y + 0.5 - intrinsic.cy)/intrinsic.fy;
+			for (int x = 0; x < range.width; x++) {
+				float r = range.unsafe_get(x, y);
+				if (Float.isNaN(r) || r == Float.MAX_VALUE)
+					continue;
+				double nx = (x + 0.5 - intrinsic.cx)/intrinsic.fx;
+				depth.unsafe_set(x, y, (float)(r/Math.sqrt(1.0 + nx*nx + ny*ny)));
+			}
+		}
+		return depth;
+	}
+
+	/**
+	 * Configures a tracker so that it will observe the cloud from the specified camera
+	 */
+	public void configure( PointTrackerPerfectCloud<?> tracker, CameraPinholeBrown intrinsic ) {
+		tracker.cloud.clear();
+		tracker.cloud.addAll(cloud);
+		tracker.setCamera(intrinsic);
+	}
+
+	/**
+	 * Moves the trackers to where the cameras are in the specified frame
+	 */
+	public void moveTrackers( int frame, PointTrackerPerfectCloud<?> left, @Nullable PointTrackerPerfectCloud<?> right ) {
+		Se3_F64 worldToLeft = listWorldToLeft.get(frame);
+		left.world_to_view.setTo(worldToLeft);
+		if (right != null) {
+			worldToLeft.concat(leftToRight, right.world_to_view);
+		}
+	}
+
+	public int size() {
+		return listWorldToLeft.size();
+	}
+}
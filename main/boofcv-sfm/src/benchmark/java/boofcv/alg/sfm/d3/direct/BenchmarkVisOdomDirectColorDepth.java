@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d3.direct;
+
+import boofcv.abst.sfm.d3.PyramidDirectColorDepth_to_DepthVisualOdometry;
+import boofcv.alg.sfm.DepthSparse3D;
+import boofcv.alg.sfm.d3.StageLatencyRecorder;
+import boofcv.alg.sfm.d3.SyntheticVisOdomSequence;
+import boofcv.factory.sfm.FactoryVisualOdometry;
+import boofcv.struct.distort.DoNothing2Transform2_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame latency of direct visual odometry, {@link PyramidDirectColorDepth} and {@link VisOdomDirectColorDepth},
+ * with a depth sensor.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkVisOdomDirectColorDepth {
+	SyntheticVisOdomSequence sequence;
+	List<Planar<GrayF32>> listColor = new ArrayList<>();
+
+	PyramidDirectColorDepth_to_DepthVisualOdometry<Planar<GrayF32>, GrayF32> vo;
+
+	StageLatencyRecorder latency = new StageLatencyRecorder("pyramid", "estimate", "keyframe");
+
+	int frame;
+
+	@Setup public void setup() {
+		sequence = new SyntheticVisOdomSequence(640, 480, 40, 0, 0xBEEF);
+		for (int i = 0; i < sequence.size(); i++) {
+			GrayF32 gray = sequence.listLeft.get(i);
+			var color = new Planar<>(GrayF32.class, gray.width, gray.height, 1);
+			color.getBand(0).setTo(gray);
+			listColor.add(color);
+		}
+
+		vo = (PyramidDirectColorDepth_to_DepthVisualOdometry<Planar<GrayF32>, GrayF32>)FactoryVisualOdometry.
+				depthDirect(new DepthSparse3D.F32(1.0), ImageType.pl(1, GrayF32.class), GrayF32.class);
+		frame = 0;
+	}
+
+	/**
+	 * Start from the beginning again once the end of the sequence has been reached. Reset discards the
+	 * calibration so it needs to be set again.
+	 */
+	@Setup(Level.Invocation) public void restartSequence() {
+		if (frame != 0)
+			return;
+		vo.reset();
+		vo.setCalibration(sequence.stereo.left, new DoNothing2Transform2_F32());
+	}
+
+	@Setup(Level.Iteration) public void setupIteration( IterationParams params ) {
+		latency.enabled = params.getType() == IterationType.MEASUREMENT;
+	}
+
+	@TearDown public void tearDown() {
+		latency.print("DirectColorDepth", System.out);
+	}
+
+	@Benchmark public boolean process() {
+		boolean success = vo.process(listColor.get(frame), sequence.listDepth.get(frame));
+		frame = (frame + 1)%sequence.size();
+
+		PyramidDirectColorDepth<?> alg = vo.getAlgorithm();
+		latency.add(alg.getTimePyramid(), alg.getTimeEstimate(), alg.getTimeKeyFrame());
+		return success;
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkVisOdomDirectColorDepth.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d3.structure;
+
+import boofcv.alg.geo.PerspectiveOps;
+import boofcv.alg.sfm.d3.SyntheticVisOdomSequence;
+import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BFrame;
+import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BTrack;
+import boofcv.struct.calib.CameraPinholeBrown;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the local bundle adjustment which is run on every frame by the feature based visual odometry.
+ * The scene is the sliding window of key frames from a synthetic sequence with noise added to the 3D
+ * location of each track.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkVisOdomBundleAdjustment {
+	/** Number of key frames in the sliding window */
+	@Param({"5", "10"})
+	public int numFrames;
+
+	SyntheticVisOdomSequence sequence;
+
+	VisOdomBundleAdjustment<BTrack> alg = new VisOdomBundleAdjustment<>(BTrack::new);
+
+	@Setup public void setup() {
+		sequence = new SyntheticVisOdomSequence(640, 480, numFrames, 2000, 0xBEEF);
+		alg.getSelectTracks().maxFeaturesPerFrame = 200;
+		alg.getSelectTracks().minTrackObservations = 3;
+	}
+
+	/**
+	 * The scene is modified by the optimization, so it needs to be recreated each time
+	 */
+	@Setup(Level.Invocation) public void createScene() {
+		var rand = new Random(0xBEEF);
+		CameraPinholeBrown intrinsic = sequence.stereo.left;
+
+		alg.reset();
+		alg.addCamera(intrinsic);
+
+		for (int i = 0; i < sequence.cloud.size(); i++) {
+			Point3D_F64 X = sequence.cloud.get(i);
+			BTrack track = alg.addTrack(
+					X.x + rand.nextGaussian()*0.02, X.y + rand.nextGaussian()*0.02, X.z + rand.nextGaussian()*0.02, 1.0);
+			track.hasBeenInlier = true;
+		}
+
+		var viewX = new Point3D_F64();
+		var pixel = new Point2D_F64();
+		for (int frameIdx = 0; frameIdx < sequence.size(); frameIdx++) {
+			Se3_F64 worldToView = sequence.listWorldToLeft.get(frameIdx);
+			BFrame frame = alg.addFrame(frameIdx);
+			worldToView.invert(frame.frame_to_world);
+
+			for (int i = 0; i < sequence.cloud.size(); i++) {
+				worldToView.transform(sequence.cloud.get(i), viewX);
+				if (viewX.z <= 0)
+					continue;
+				PerspectiveOps.convertNormToPixel(intrinsic, viewX.x/viewX.z, viewX.y/viewX.z, pixel);
+				if (!intrinsic.isInside(pixel.x, pixel.y))
+					continue;
+				alg.addObservation(frame, alg.tracks.get(i), pixel.x, pixel.y);
+			}
+		}
+	}
+
+	@Benchmark public void optimize() {
+		alg.optimize(null);
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkVisOdomBundleAdjustment.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -172,6 +172,10 @@ public class PyramidDirectColorDepth_to_DepthVisualOdometry<T extends ImageBase<
 		return alg.getFractionInBounds();
 	}
 
+	public PyramidDirectColorDepth getAlgorithm() {
+		return alg;
+	}
+
 	@Override
 	public ImageType<T> getVisualType() {
 		return inputType;
@@ -162,6 +162,10 @@ public class VisOdomPixelDepthPnP_to_DepthVisualOdometry<Vis extends ImageBase<V
 		return alg.getFrameID();
 	}
 
+	public VisOdomMonoDepthPnP<Vis> getAlgorithm() {
+		return alg;
+	}
+
 	@Override
 	public ImageType<Vis> getVisualType() {
 		return visualType;
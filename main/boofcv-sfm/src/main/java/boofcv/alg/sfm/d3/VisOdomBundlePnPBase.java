@@ -29,6 +29,7 @@ import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BFrame;
 import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BObservation;
 import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BTrack;
 import boofcv.alg.sfm.d3.structure.VisOdomKeyFrameManager;
+import boofcv.metrics.StageTimer;
 import boofcv.misc.BoofMiscOps;
 import boofcv.struct.distort.Point2Transform2_F64;
 import georegression.struct.point.Point2D_F64;
@@ -103,6 +104,8 @@ public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment
 
 	// Internal profiling
 	protected @Getter @Setter @Nullable PrintStream profileOut;
+	/** Reports the time taken by each stage when metrics are enabled */
+	protected final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
 	// Verbose debug information
 	protected @Getter @Nullable PrintStream verbose;
 
@@ -31,6 +31,7 @@ import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BTrack;
 import boofcv.factory.distort.LensDistortionFactory;
 import boofcv.factory.geo.ConfigTriangulation;
 import boofcv.factory.geo.FactoryMultiView;
+import boofcv.metrics.StageTimer;
 import boofcv.struct.calib.StereoParameters;
 import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.feature.TupleDesc;
@@ -310,9 +311,17 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>, TD extends TupleDesc<TD
 		timeDropUnused = (time4 - time3)*1e-6;
 		timeSceneMaintenance = (time5 - time4)*1e-6;
 		timeSpawn = (time6 - time5)*1e-6;
+		double timeTotal = (time6 - time0)*1e-6;
+
+		metrics.time("track", timeTracking);
+		metrics.time("estimate", timeEstimate);
+		metrics.time("bundle", timeBundle);
+		metrics.time("drop", timeDropUnused);
+		metrics.time("maintenance", timeSceneMaintenance);
+		metrics.time("spawn", timeSpawn);
+		metrics.time(StageTimer.TOTAL, timeTotal);
 
 		if (profileOut != null) {
-			double timeTotal = (time6 - time0)*1e-6;
 			profileOut.printf("TIME: TRK %5.1f Est %5.1f Bun %5.1f DU %5.1f Scene %5.1f Spn  %5.1f TOTAL %5.1f\n",
 					timeTracking, timeEstimate, timeBundle, timeDropUnused, timeSceneMaintenance, timeSpawn, timeTotal);
 		}
@@ -31,6 +31,7 @@ import boofcv.alg.descriptor.UtilFeature;
 import boofcv.factory.distort.LensDistortionFactory;
 import boofcv.factory.geo.ConfigTriangulation;
 import boofcv.factory.geo.FactoryMultiView;
+import boofcv.metrics.StageTimer;
 import boofcv.misc.BoofMiscOps;
 import boofcv.misc.ConfigConverge;
 import boofcv.struct.calib.StereoParameters;
@@ -132,6 +133,12 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>, TD extends TupleDesc<T
 	private long totalTracks;
 	private final DogArray_I32 keyToTrackIdx = new DogArray_I32();
 
+	// Processing time for each stage in the most recent frame, in milliseconds
+	private @Getter double timeDetect, timeAssociateL2R, timeAssociateF2F, timeCyclic, timeEstimate, timeBundle, timeMaintenance;
+
+	/** Reports the time taken by each stage when metrics are enabled */
+	private final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
+
 	// Internal profiling
 	protected @Getter @Setter @Nullable PrintStream profileOut;
 	// Verbose debug information
@@ -227,10 +234,14 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>, TD extends TupleDesc<T
 			assocF2F.initializeAssociator(left.width, left.height);
 		}
 		frameID++;
+		timeDetect = timeAssociateL2R = timeAssociateF2F = timeCyclic = timeEstimate = timeBundle = timeMaintenance = 0;
 		long time0 = System.nanoTime();
 		detectFeatures(left, right);
 		long time1 = System.nanoTime();
 		associateL2R();
+		long time2 = System.nanoTime();
+		timeDetect = (time1 - time0)*1e-6;
+		timeAssociateL2R = (time2 - time1)*1e-6;
 
 		if (frameID == 0) {
 			if (verbose != null) verbose.println("first frame");
@@ -238,7 +249,6 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>, TD extends TupleDesc<T
 			keyToTrackIdx.resize(featsLeft1.locationPixels.size);
 			keyToTrackIdx.fill(-1);
 		} else {
-			long time2 = System.nanoTime();
 			associateF2F();
 			long time3 = System.nanoTime();
 			cyclicConsistency();
@@ -252,6 +262,7 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>, TD extends TupleDesc<T
 				// this will undo the most recent tracking results and if the features are still in view it might
 				// be able to recover
 				abortTrackingResetKeyFrame();
+				reportMetrics();
 				return false;
 			}
 			Se3_F64 key_to_curr = matcher.getModelParameters();
@@ -273,19 +284,19 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>, TD extends TupleDesc<T
 			curr_to_key.concat(prevLeft_to_world, left_to_world);
 			long time7 = System.nanoTime();
 
-			if (profileOut != null) {
-				double milliDet = (time1 - time0)*1e-6;
-				double milliL2R = (time2 - time1)*1e-6;
-				double milliF2F = (time3 - time2)*1e-6;
-				double milliCyc = (time4 - time3)*1e-6;
-				double milliEst = (time5 - time4)*1e-6;
-				double milliBun = (time6 - time5)*1e-6;
-				double milliMnt = (time7 - time6)*1e-6;
+			timeAssociateF2F = (time3 - time2)*1e-6;
+			timeCyclic = (time4 - time3)*1e-6;
+			timeEstimate = (time5 - time4)*1e-6;
+			timeBundle = (time6 - time5)*1e-6;
+			timeMaintenance = (time7 - time6)*1e-6;
 
+			if (profileOut != null) {
 				profileOut.printf("TIME: Det %5.1f L2R %5.1f F2F %5.1f Cyc %5.1f Est %5.1f Bun %5.1f Mnt %5.1f Total: %5.1f\n",
-						milliDet, milliL2R, milliF2F, milliCyc, milliEst, milliBun, milliMnt, (time7 - time0)*1e-6);
+						timeDetect, timeAssociateL2R, timeAssociateF2F, timeCyclic, timeEstimate, timeBundle,
+						timeMaintenance, (time7 - time0)*1e-6);
 			}
 		}
+		reportMetrics();
 
 		if (verbose != null && frameID != 0) {
 			int leftDetections = featsLeft1.locationPixels.size;
@@ -298,6 +309,21 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>, TD extends TupleDesc<T
 		return true;
 	}
 
+	/**
+	 * Reports the processing time of each stage in the most recent frame
+	 */
+	private void reportMetrics() {
+		metrics.time("detect", timeDetect);
+		metrics.time("associateL2R", timeAssociateL2R);
+		metrics.time("associateF2F", timeAssociateF2F);
+		metrics.time("cyclic", timeCyclic);
+		metrics.time("estimate", timeEstimate);
+		metrics.time("bundle", timeBundle);
+		metrics.time("maintenance", timeMaintenance);
+		metrics.time(StageTimer.TOTAL, timeDetect + timeAssociateL2R + timeAssociateF2F + timeCyclic +
+				timeEstimate + timeBundle + timeMaintenance);
+	}
+
 	/**
 	 * Handle an aborted update. Undo the latest tracking so that the same frame will be a key frame again.
 	 */
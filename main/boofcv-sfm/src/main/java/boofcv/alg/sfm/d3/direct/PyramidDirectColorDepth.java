@@ -20,6 +20,7 @@ package boofcv.alg.sfm.d3.direct;
 
 import boofcv.abst.sfm.ImagePixelTo3D;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.metrics.StageTimer;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.image.Planar;
@@ -65,6 +66,12 @@ public class PyramidDirectColorDepth<T extends ImageGray<T>> {
 	/** Unique ID for each frame in the sequence it has processed */
 	private @Getter long frameID = -1;
 
+	/** Processing time for each stage in the most recent frame, in milliseconds */
+	private @Getter double timePyramid, timeEstimate, timeKeyFrame;
+
+	/** Reports the time taken by each stage when metrics are enabled */
+	private final @Getter StageTimer metrics = new StageTimer(getClass().getSimpleName());
+
 	public PyramidDirectColorDepth( ImagePyramid<Planar<T>> pyramid ) {
 		this.pyramid = pyramid;
 		imageType = this.pyramid.getImageType();
@@ -95,14 +102,22 @@ public class PyramidDirectColorDepth<T extends ImageGray<T>> {
 	}
 
 	public boolean process( Planar<T> input, ImagePixelTo3D inputDepth ) {
+		timeEstimate = timeKeyFrame = 0;
+		long time0 = System.nanoTime();
 		pyramid.process(input);
+		long time1 = System.nanoTime();
+		timePyramid = (time1 - time0)*1e-6;
 
 		frameID++;
 		if (fractionInBounds == 0) {
 			setKeyFrame(inputDepth);
 			fractionInBounds = 1.0;
+			timeKeyFrame = (System.nanoTime() - time1)*1e-6;
 		} else {
-			if (estimateMotion()) {
+			boolean success = estimateMotion();
+			long time2 = System.nanoTime();
+			timeEstimate = (time2 - time1)*1e-6;
+			if (success) {
 				boolean keyframeTriggered = false;
 
 //				System.out.printf("   d %6.2f  f %6.2f\n",UtilAngle.degree(diversity),fractionInBounds);
@@ -120,15 +135,28 @@ public class PyramidDirectColorDepth<T extends ImageGray<T>> {
 
 				if (keyframeTriggered) {
 					setKeyFrame(inputDepth);
+					timeKeyFrame = (System.nanoTime() - time2)*1e-6;
 				}
 			} else {
+				reportMetrics();
 				return false;
 			}
 		}
 
+		reportMetrics();
 		return true;
 	}
 
+	/**
+	 * Reports the processing time of each stage in the most recent frame
+	 */
+	private void reportMetrics() {
+		metrics.time("pyramid", timePyramid);
+		metrics.time("estimate", timeEstimate);
+		metrics.time("keyframe", timeKeyFrame);
+		metrics.time(StageTimer.TOTAL, timePyramid + timeEstimate + timeKeyFrame);
+	}
+
 	protected void setKeyFrame( ImagePixelTo3D inputDepth ) {
 		layerTo3D.wrap(inputDepth);
 
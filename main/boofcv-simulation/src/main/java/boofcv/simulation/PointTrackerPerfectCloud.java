@@ -153,6 +153,7 @@ public class PointTrackerPerfectCloud<T extends ImageBase<T>> implements PointTr
 		totalTracks = 0;
 		activeTracks.reset();
 		cloudIdx_to_id.clear();
+		id_to_cloudIdx.clear();
 		id_to_track.clear();
 		observedID.clear();
 	}
@@ -196,7 +197,15 @@ public class PointTrackerPerfectCloud<T extends ImageBase<T>> implements PointTr
 	}
 
 	@Override public void dropTracks( Dropper dropper ) {
-		throw new RuntimeException("Implement when needed");
+		// Traverse in reverse so that tracks swapped into the current index have already been examined
+		for (int index = activeTracks.size - 1; index >= 0; index--) {
+			PointTrack track = activeTracks.get(index);
+			if (!dropper.shouldDropTrack(track))
+				continue;
+			id_to_track.remove(track.featureId);
+			cloudIdx_to_id.remove(id_to_cloudIdx.remove(track.featureId));
+			activeTracks.removeSwap(index);
+		}
 	}
 
 	@Override public List<PointTrack> getAllTracks( @Nullable List<PointTrack> list ) {
@@ -238,6 +247,7 @@ public class PointTrackerPerfectCloud<T extends ImageBase<T>> implements PointTr
 		spawnable.forEach(spawn -> {
 			long id = totalTracks++;
 			cloudIdx_to_id.put(spawn.cloudIdx, id);
+			id_to_cloudIdx.put(id, spawn.cloudIdx);
 			PointTrack track = activeTracks.grow();
 			track.featureId = id;
 			track.detectorSetId = 0;
@@ -97,4 +97,60 @@ class TestPointTrackerPerfectCloud extends BoofStandardJUnit {
 			});
 		}
 	}
+
+	/** A dropped track's point should be spawned again as a new track and not be confused with other tracks */
+	@Test void dropTrack_respawn() {
+		var tracker = new PointTrackerPerfectCloud<>();
+		tracker.setCamera(new CameraPinhole(200, 200, 0, 200, 200, 400, 400));
+		tracker.cloud.add(new Point3D_F64(0, 0, 2));
+		tracker.cloud.add(new Point3D_F64(0.5, 0, 3));
+
+		tracker.process(null);
+		tracker.spawnTracks();
+		List<PointTrack> active = tracker.getActiveTracks(null);
+		assertEquals(2, active.size());
+
+		// Drop the second track. The first track must not be affected
+		PointTrack dropped = active.get(1);
+		assertTrue(tracker.dropTrack(dropped));
+		assertEquals(1, tracker.getTotalActive());
+
+		tracker.process(null);
+		assertEquals(1, tracker.getTotalActive());
+		assertTrue(tracker.getDroppedTracks(null).isEmpty());
+		tracker.spawnTracks();
+		assertEquals(2, tracker.getTotalActive());
+		assertEquals(1, tracker.getNewTracks(null).size());
+		assertEquals(2, tracker.getNewTracks(null).get(0).featureId);
+
+		// Nothing should change
+		tracker.process(null);
+		assertEquals(2, tracker.getTotalActive());
+		assertTrue(tracker.getDroppedTracks(null).isEmpty());
+	}
+
+	@Test void dropTracks() {
+		var tracker = new PointTrackerPerfectCloud<>();
+		tracker.setCamera(new CameraPinhole(200, 200, 0, 200, 200, 400, 400));
+		for (int i = 0; i < 6; i++) {
+			tracker.cloud.add(new Point3D_F64(0.1*i, 0, 2));
+		}
+
+		tracker.process(null);
+		tracker.spawnTracks();
+		assertEquals(6, tracker.getTotalActive());
+
+		// Drop every track with an even ID
+		tracker.dropTracks(track -> track.featureId%2 == 0);
+		List<PointTrack> active = tracker.getActiveTracks(null);
+		assertEquals(3, active.size());
+		active.forEach(t -> assertEquals(1, t.featureId%2));
+
+		// The remaining tracks are still observed and the dropped points are spawned again
+		tracker.process(null);
+		assertEquals(3, tracker.getTotalActive());
+		assertTrue(tracker.getDroppedTracks(null).isEmpty());
+		tracker.spawnTracks();
+		assertEquals(6, tracker.getTotalActive());
+	}
 }
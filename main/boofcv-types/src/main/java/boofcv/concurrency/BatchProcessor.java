@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Processes a sequence of inputs, e.g. images in a directory, using algorithms which are not thread safe. Each thread
+ * is given its own algorithm instance which is created by the user supplied {@link Factory}. Instances are kept in
+ * a pool and reused between calls to {@link #process}. Inputs are processed by the executor in the
+ * {@link ConcurrencyScope} bound to the calling thread or by the global thread pool if there is none. The calling
+ * thread also processes inputs while it waits for results and counts against the number of threads. Results are passed to the {@link Handler} in the same order as
+ * the inputs and on the thread which called process, so the handler doesn't need to be thread safe.
+ * </p>
+ *
+ * <pre>
+ * var batch = new BatchProcessor&lt;String, Integer&gt;(4, () -&gt; {
+ *     QrCodeDetector&lt;GrayU8&gt; detector = FactoryFiducial.qrcode(null, GrayU8.class);
+ *     return path -&gt; {
+ *         detector.process(UtilImageIO.loadImage(path, GrayU8.class));
+ *         return detector.getDetections().size();
+ *     };
+ * });
+ * batch.process(paths, ( path, found ) -&gt; System.out.println(path + " " + found));
+ * </pre>
+ *
+ * <p>
+ * Inputs are read lazily. At most {@link #getMaxInFlight()} inputs are being processed or have results which are
+ * waiting to be handled. Once that limit is reached no more inputs are read until the oldest result has been handled.
+ * This bounds memory usage when results are large, e.g. images, or when the handler is slow.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BatchProcessor<In, Out> {
+	/** Number of threads which process inputs. If 1 then inputs are processed by the calling thread. */
+	@Getter final int numThreads;
+
+	/** Maximum number of inputs which are being processed or have results waiting to be handled */
+	@Getter final int maxInFlight;
+
+	// Creates a new algorithm instance
+	final Factory<In, Out> factory;
+
+	// Instances which are not being used by a thread
+	final ArrayDeque<Processor<In, Out>> available = new ArrayDeque<>();
+
+	/** Number of algorithm instances which have been created */
+	@Getter int totalInstances;
+
+	// If true then no more inputs will be read
+	volatile boolean stopRequested;
+
+	// Tasks which have not started yet. Also used as the lock for the task counters
+	final ArrayDeque<Task> queue = new ArrayDeque<>();
+	// Number of workers which have been submitted to the executor and not finished
+	int activeWorkers;
+	// Number of tasks which are being processed
+	int runningTasks;
+
+	/**
+	 * Creates a processor which allows twice as many inputs in flight as there are threads
+	 *
+	 * @param numThreads Number of threads. If &le; 0 then {@link BoofConcurrency#getEffectiveActiveThreads()} is used.
+	 * @param factory Creates new algorithm instances
+	 */
+	public BatchProcessor( int numThreads, Factory<In, Out> factory ) {
+		this(numThreads, 0, factory);
+	}
+
+	/**
+	 * @param numThreads Number of threads. If &le; 0 then {@link BoofConcurrency#getEffectiveActiveThreads()} is used.
+	 * @param maxInFlight Maximum number of inputs in flight. If &le; 0 then it's twice the number of threads.
+	 * @param factory Creates new algorithm instances
+	 */
+	public BatchProcessor( int numThreads, int maxInFlight, Factory<In, Out> factory ) {
+		this.numThreads = numThreads > 0 ? numThreads : BoofConcurrency.getEffectiveActiveThreads();
+		this.maxInFlight = maxInFlight > 0 ? Math.max(maxInFlight, this.numThreads) : 2*this.numThreads;
+		this.factory = factory;
+	}
+
+	/**
+	 * Processes all the inputs and passes the results to the handler in the same order as the inputs.
+	 *
+	 * @see #process(Iterator, Handler)
+	 */
+	public void process( Iterable<In> inputs, Handler<In, Out> handler ) {
+		process(inputs.iterator(), handler);
+	}
+
+	/**
+	 * Processes all the inputs and passes the results to the handler in the same order as the inputs. Blocks until
+	 * finished. If an exception is thrown while processing an input then no more inputs are read, inputs which have
+	 * not started are skipped, and the exception is thrown once every thread has stopped. Checked exceptions are
+	 * wrapped in a RuntimeException.
+	 *
+	 * @param inputs Inputs which are to be processed. Only read by the calling thread.
+	 * @param handler Called on the calling thread with the results of each input
+	 */
+	public void process( Iterator<In> inputs, Handler<In, Out> handler ) {
+		stopRequested = false;
+
+		if (numThreads == 1) {
+			Processor<In, Out> processor = checkout();
+			try {
+				while (!stopRequested && inputs.hasNext()) {
+					In input = inputs.next();
+					handler.handle(input, invoke(processor, input));
+				}
+			} finally {
+				release(processor);
+			}
+			return;
+		}
+
+		// Use the same executor as the rest of BoofCV so that the caller's thread limits are respected
+		ConcurrencyScope scope = BoofConcurrency.getScope();
+		ExecutorService executor = scope != null ? scope.getExecutor() : BoofConcurrency.getThreadPool();
+
+		// Inputs in the order they were read and their results
+		var pending = new ArrayDeque<Task>();
+		try {
+			while (!stopRequested && inputs.hasNext()) {
+				// Wait for the oldest input to finish before reading any more
+				if (pending.size() >= maxInFlight)
+					handleOldest(pending, handler);
+
+				var task = new Task(inputs.next());
+				pending.add(task);
+				enqueue(task, executor);
+			}
+
+			while (!pending.isEmpty()) {
+				handleOldest(pending, handler);
+			}
+		} finally {
+			// If it failed skip everything that hasn't started. Then wait so that no instance is in use after returning
+			synchronized (queue) {
+				queue.clear();
+				while (runningTasks > 0) {
+					try {
+						queue.wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the task to the queue and, if the thread budget allows it, submits another worker to the executor.
+	 * The calling thread counts against the budget since it also processes tasks while waiting for results.
+	 */
+	private void enqueue( Task task, ExecutorService executor ) {
+		synchronized (queue) {
+			queue.add(task);
+			if (activeWorkers >= numThreads - 1)
+				return;
+			activeWorkers++;
+		}
+		try {
+			executor.execute(() -> {
+				while (runNext(true)) {}
+			});
+		} catch (RejectedExecutionException e) {
+			// The calling thread will process the task instead
+			synchronized (queue) {
+				activeWorkers--;
+			}
+		}
+	}
+
+	/**
+	 * Removes the oldest task from the queue and processes it
+	 *
+	 * @param worker true if called by a worker. A worker is finished once the queue is empty.
+	 * @return true if a task was processed or false if the queue was empty
+	 */
+	private boolean runNext( boolean worker ) {
+		Task task;
+		synchronized (queue) {
+			task = queue.poll();
+			if (task == null) {
+				if (worker)
+					activeWorkers--;
+				return false;
+			}
+			runningTasks++;
+		}
+		try {
+			task.run();
+		} finally {
+			synchronized (queue) {
+				runningTasks--;
+				queue.notifyAll();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Processes all the inputs and returns the results in the same order as the inputs
+	 */
+	public List<Out> processAll( List<In> inputs ) {
+		var results = new ArrayList<Out>(inputs.size());
+		process(inputs, ( input, output ) -> results.add(output));
+		return results;
+	}
+
+	/**
+	 * Stops reading new inputs. Inputs which have already been read will be processed and handled. Can be called
+	 * from the handler or from another thread.
+	 */
+	public void requestStop() {
+		stopRequested = true;
+	}
+
+	private void handleOldest( ArrayDeque<Task> pending, Handler<In, Out> handler ) {
+		Task task = pending.removeFirst();
+
+		// Help process the queue instead of blocking. This also avoids deadlock if the executor is saturated
+		while (!task.result.isDone() && runNext(false)) {}
+
+		Out output;
+		try {
+			output = task.result.get();
+		} catch (ExecutionException e) {
+			throw wrap(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		handler.handle(task.input, output);
+	}
+
+	private static <In, Out> Out invoke( Processor<In, Out> processor, In input ) {
+		try {
+			return processor.process(input);
+		} catch (Exception e) {
+			throw wrap(e);
+		}
+	}
+
+	private static RuntimeException wrap( Throwable t ) {
+		if (t instanceof RuntimeException)
+			return (RuntimeException)t;
+		if (t instanceof Error)
+			throw (Error)t;
+		return new RuntimeException(t);
+	}
+
+	/**
+	 * Takes an instance from the pool or creates a new one if there are none available. At most one instance
+	 * is created per thread.
+	 */
+	Processor<In, Out> checkout() {
+		synchronized (available) {
+			Processor<In, Out> processor = available.pollFirst();
+			if (processor != null)
+				return processor;
+			totalInstances++;
+		}
+		return factory.newInstance();
+	}
+
+	void release( Processor<In, Out> processor ) {
+		synchronized (available) {
+			available.addFirst(processor);
+		}
+	}
+
+	/**
+	 * A single input and its result
+	 */
+	private class Task {
+		final In input;
+		final CompletableFuture<Out> result = new CompletableFuture<>();
+
+		Task( In input ) {
+			this.input = input;
+		}
+
+		void run() {
+			Processor<In, Out> processor = checkout();
+			Out output;
+			try {
+				output = processor.process(input);
+			} catch (Throwable t) {
+				result.completeExceptionally(t);
+				return;
+			} finally {
+				release(processor);
+			}
+			result.complete(output);
+		}
+	}
+
+	/**
+	 * Creates a new algorithm instance. Called at most once per thread and possibly from a worker thread.
+	 */
+	@FunctionalInterface
+	public interface Factory<In, Out> {
+		Processor<In, Out> newInstance();
+	}
+
+	/**
+	 * An algorithm instance. Only ever called by one thread at a time, so it can safely reuse its own internal
+	 * work space.
+	 */
+	@FunctionalInterface
+	public interface Processor<In, Out> {
+		Out process( In input ) throws Exception;
+	}
+
+	/**
+	 * Receives the results. Always called on the thread which invoked {@link #process}.
+	 */
+	@FunctionalInterface
+	public interface Handler<In, Out> {
+		void handle( In input, Out output );
+	}
+}
@@ -18,10 +18,16 @@
 
 package boofcv.concurrency;
 
-import pabeles.concurrency.ConcurrencyOps;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntConsumer;
 
 /**
- * Central class for controlling concurrency in BoofCV.
+ * Central class for controlling concurrency in BoofCV. By default all concurrent code shares a single global
+ * thread pool. A {@link ConcurrencyScope} can be opened to redirect loops invoked by the current thread to a
+ * different executor with its own thread budget.
  *
  * @author Peter Abeles
  */
@@ -50,11 +56,115 @@ public class BoofConcurrency extends ConcurrencyOps {
 	}
 
 	/**
-	 * Either returns the number of threads in the thread pool or one if threading is disabled
+	 * Either returns the number of threads in the thread pool or one if threading is disabled. If a scope is
+	 * bound to the current thread then its thread budget is returned instead.
 	 */
 	public static int getEffectiveActiveThreads() {
+		ConcurrencyScope scope = ConcurrencyScope.current();
+		if (scope != null)
+			return scope.getMaxThreads();
 		if (USE_CONCURRENT)
-			return getThreadPool().getActiveThreadCount();
+			return getThreadPool().getParallelism();
 		return 1;
 	}
+
+	/**
+	 * Opens a {@link ConcurrencyScope} and binds it to the current thread. Until the scope is closed all loops
+	 * invoked through this class by the current thread will be processed by the executor. The thread budget
+	 * is selected by inspecting the executor.
+	 *
+	 * @param executor Executor which will process the loops
+	 * @return The opened scope. Must be closed by the same thread.
+	 */
+	public static ConcurrencyScope openScope( ExecutorService executor ) {
+		return openScope(executor, ConcurrencyScope.defaultMaxThreads(executor));
+	}
+
+	/**
+	 * Opens a {@link ConcurrencyScope} and binds it to the current thread. Until the scope is closed all loops
+	 * invoked through this class by the current thread will be processed by the executor using no more
+	 * than the specified number of threads.
+	 *
+	 * @param executor Executor which will process the loops
+	 * @param maxThreads Maximum number of threads a single loop will use, this includes the calling thread. &ge; 1
+	 * @return The opened scope. Must be closed by the same thread.
+	 */
+	public static ConcurrencyScope openScope( ExecutorService executor, int maxThreads ) {
+		var scope = new ConcurrencyScope(executor, maxThreads);
+		scope.open();
+		return scope;
+	}
+
+	/**
+	 * Returns the scope bound to the current thread or null if the global thread pool is being used
+	 */
+	public static @Nullable ConcurrencyScope getScope() {
+		return ConcurrencyScope.current();
+	}
+
+	public static void loopFor( int start, int endExclusive, IntConsumer consumer ) {
+		ConcurrencyScope scope = ConcurrencyScope.current();
+		if (scope == null)
+			ConcurrencyOps.loopFor(start, endExclusive, consumer);
+		else
+			scope.loopFor(start, endExclusive, 1, consumer);
+	}
+
+	public static void loopFor( int start, int endExclusive, int step, IntConsumer consumer ) {
+		ConcurrencyScope scope = ConcurrencyScope.current();
+		if (scope == null)
+			ConcurrencyOps.loopFor(start, endExclusive, step, consumer);
+		else
+			scope.loopFor(start, endExclusive, step, consumer);
+	}
+
+	public static <T> void loopFor( int start, int endExclusive, int step,
+									GrowArray<T> workspace, IntObjectConsumer<T> consumer ) {
+		ConcurrencyScope scope = ConcurrencyScope.current();
+		if (scope == null)
+			ConcurrencyOps.loopFor(start, endExclusive, step, workspace, consumer);
+		else
+			scope.loopFor(start, endExclusive, step, workspace, consumer);
+	}
+
+	public static void loopBlocks( int start, int endExclusive, int minBlock, IntRangeConsumer consumer ) {
+		ConcurrencyScope scope = ConcurrencyScope.current();
+		if (scope == null)
+			ConcurrencyOps.loopBlocks(start, endExclusive, minBlock, consumer);
+		else
+			scope.loopBlocks(start, endExclusive, minBlock, consumer);
+	}
+
+	public static void loopBlocks( int start, int endExclusive, IntRangeConsumer consumer ) {
+		ConcurrencyScope scope = ConcurrencyScope.current();
+		if (scope == null)
+			ConcurrencyOps.loopBlocks(start, endExclusive, consumer);
+		else
+			scope.loopBlocks(start, endExclusive, 1, consumer);
+	}
+
+	public static <T> void loopBlocks( int start, int endExclusive, int minBlock,
+									   GrowArray<T> workspace, IntRangeObjectConsumer<T> consumer ) {
+		ConcurrencyScope scope = ConcurrencyScope.current();
+		if (scope == null)
+			ConcurrencyOps.loopBlocks(start, endExclusive, minBlock, workspace, consumer);
+		else
+			scope.loopBlocks(start, endExclusive, minBlock, workspace, consumer);
+	}
+
+	public static <T> void loopBlocks( int start, int endExclusive,
+									   GrowArray<T> workspace, IntRangeObjectConsumer<T> consumer ) {
+		ConcurrencyScope scope = ConcurrencyScope.current();
+		if (scope == null)
+			ConcurrencyOps.loopBlocks(start, endExclusive, workspace, consumer);
+		else
+			scope.loopBlocks(start, endExclusive, 1, workspace, consumer);
+	}
+
+	public static Number sum( int start, int endExclusive, Class type, IntProducerNumber producer ) {
+		ConcurrencyScope scope = ConcurrencyScope.current();
+		if (scope == null)
+			return ConcurrencyOps.sum(start, endExclusive, type, producer);
+		return scope.sum(start, endExclusive, type, producer);
+	}
 }
@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * Binds a caller supplied {@link ExecutorService} and a thread budget to the thread which opened it. While the
+ * scope is open, every call to {@link BoofConcurrency#loopFor} and {@link BoofConcurrency#loopBlocks} made from
+ * that thread, or from a task the scope dispatched, runs on the scope's executor instead of the global pool. This
+ * allows different pipelines inside the same JVM to be isolated from each other.
+ * </p>
+ *
+ * <pre>
+ * try (var scope = BoofConcurrency.openScope(executor, 2)) {
+ *     tracker.process(image);
+ * }
+ * </pre>
+ *
+ * <p>
+ * The calling thread always processes blocks itself and counts against the budget, so at most maxThreads-1 tasks
+ * are submitted to the executor. Tasks which have not started by the time all the work has been claimed are
+ * skipped. This prevents deadlock when scoped loops are nested inside of each other on a small executor.
+ * Scopes must be closed by the same thread which opened them and in the reverse order they were opened.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrencyScope implements AutoCloseable {
+	/** Number of blocks each thread is given when a loop has no block size constraint. Helps with load balancing */
+	public static int BLOCKS_PER_THREAD = 4;
+
+	/** The scope which is currently bound to each thread */
+	private static final ThreadLocal<ConcurrencyScope> bound = new ThreadLocal<>();
+
+	/** Executor which tasks are submitted to */
+	@Getter final ExecutorService executor;
+
+	/** Maximum number of threads, including the calling thread, which will process a single loop */
+	@Getter final int maxThreads;
+
+	// The scope which was bound to the thread before this one was opened
+	@Nullable ConcurrencyScope previous;
+	// The thread which opened the scope
+	@Nullable Thread owner;
+
+	ConcurrencyScope( ExecutorService executor, int maxThreads ) {
+		if (maxThreads < 1)
+			throw new IllegalArgumentException("maxThreads must be at least 1");
+		this.executor = executor;
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * Returns the scope bound to the current thread or null if there is none
+	 */
+	public static @Nullable ConcurrencyScope current() {
+		return bound.get();
+	}
+
+	/**
+	 * Selects a thread budget by inspecting the executor
+	 */
+	static int defaultMaxThreads( ExecutorService executor ) {
+		if (executor instanceof ForkJoinPool)
+			return ((ForkJoinPool)executor).getParallelism();
+		if (executor instanceof ThreadPoolExecutor)
+			return Math.max(1, ((ThreadPoolExecutor)executor).getMaximumPoolSize());
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Binds this scope to the current thread
+	 */
+	void open() {
+		if (owner != null)
+			throw new IllegalArgumentException("Scope has already been opened");
+		owner = Thread.currentThread();
+		previous = bound.get();
+		bound.set(this);
+	}
+
+	/**
+	 * Unbinds the scope and restores whichever scope was bound before it was opened
+	 */
+	@Override public void close() {
+		if (owner == null)
+			return;
+		if (owner != Thread.currentThread())
+			throw new IllegalArgumentException("Scope must be closed by the thread which opened it");
+		if (bound.get() != this)
+			throw new IllegalArgumentException("Scopes must be closed in the reverse order they were opened");
+
+		if (previous == null)
+			bound.remove();
+		else
+			bound.set(previous);
+		previous = null;
+		owner = null;
+	}
+
+	public void loopFor( int start, int endExclusive, int step, IntConsumer consumer ) {
+		if (step <= 0)
+			throw new IllegalArgumentException("Step must be a positive number.");
+		if (start >= endExclusive)
+			return;
+
+		int range = endExclusive - start;
+		int iterations = range/step + (range%step == 0 ? 0 : 1);
+		int numBlocks = Math.min(iterations, maxThreads*BLOCKS_PER_THREAD);
+
+		execute(0, iterations, numBlocks, ( block, i0, i1 ) -> {
+			for (int i = i0; i < i1; i++) {
+				consumer.accept(start + i*step);
+			}
+		});
+	}
+
+	public <T> void loopFor( int start, int endExclusive, int step,
+							 GrowArray<T> workspace, IntObjectConsumer<T> consumer ) {
+		if (step <= 0)
+			throw new IllegalArgumentException("Step must be a positive number.");
+		workspace.reset();
+		if (start >= endExclusive)
+			return;
+
+		int range = endExclusive - start;
+		int iterations = range/step + (range%step == 0 ? 0 : 1);
+		int numBlocks = Math.min(iterations, maxThreads);
+
+		// Each block gets its own workspace. Create them all now since GrowArray isn't thread safe
+		for (int i = 0; i < numBlocks; i++) {
+			workspace.grow();
+		}
+		execute(0, iterations, numBlocks, ( block, i0, i1 ) -> {
+			T work = workspace.get(block);
+			for (int i = i0; i < i1; i++) {
+				consumer.accept(work, start + i*step);
+			}
+		});
+	}
+
+	public void loopBlocks( int start, int endExclusive, int minBlock, IntRangeConsumer consumer ) {
+		int numBlocks = selectNumberOfBlocks(start, endExclusive, minBlock);
+		if (numBlocks == 0)
+			return;
+		execute(start, endExclusive, numBlocks, ( block, i0, i1 ) -> consumer.accept(i0, i1));
+	}
+
+	public <T> void loopBlocks( int start, int endExclusive, int minBlock,
+								GrowArray<T> workspace, IntRangeObjectConsumer<T> consumer ) {
+		int numBlocks = selectNumberOfBlocks(start, endExclusive, minBlock);
+		workspace.reset();
+		if (numBlocks == 0)
+			return;
+
+		// Each block gets its own workspace. Create them all now since GrowArray isn't thread safe
+		for (int i = 0; i < numBlocks; i++) {
+			workspace.grow();
+		}
+		execute(start, endExclusive, numBlocks, ( block, i0, i1 ) -> consumer.accept(workspace.get(block), i0, i1));
+	}
+
+	public Number sum( int start, int endExclusive, Class<?> type, IntProducerNumber producer ) {
+		boolean integer = type == int.class || type == Integer.class || type == long.class || type == Long.class;
+
+		int range = Math.max(0, endExclusive - start);
+		int numBlocks = Math.min(range, maxThreads);
+		final long[] partialsI = new long[numBlocks];
+		final double[] partialsF = new double[numBlocks];
+
+		if (numBlocks > 0) {
+			execute(start, endExclusive, numBlocks, ( block, i0, i1 ) -> {
+				long sumI = 0;
+				double sumF = 0;
+				for (int i = i0; i < i1; i++) {
+					Number value = producer.accept(i);
+					if (integer)
+						sumI += value.longValue();
+					else
+						sumF += value.doubleValue();
+				}
+				partialsI[block] = sumI;
+				partialsF[block] = sumF;
+			});
+		}
+
+		long totalI = 0;
+		double totalF = 0;
+		for (int i = 0; i < numBlocks; i++) {
+			totalI += partialsI[i];
+			totalF += partialsF[i];
+		}
+
+		if (type == int.class || type == Integer.class)
+			return (int)totalI;
+		else if (type == long.class || type == Long.class)
+			return totalI;
+		else if (type == float.class || type == Float.class)
+			return (float)totalF;
+		else
+			return totalF;
+	}
+
+	/**
+	 * Number of blocks the range is split into so that each block has at least minBlock elements
+	 */
+	int selectNumberOfBlocks( int start, int endExclusive, int minBlock ) {
+		int range = endExclusive - start;
+		if (range == 0)
+			return 0;
+		if (range < 0)
+			throw new IllegalArgumentException("end must be more than start. " + start + " -> " + endExclusive);
+
+		int blockSize = Math.max(1, Math.max(minBlock, range/maxThreads));
+		return Math.max(1, range/blockSize);
+	}
+
+	/**
+	 * Splits the range into blocks which are then claimed by the calling thread and the tasks submitted to the
+	 * executor. Once the calling thread runs out of blocks it claims tasks which never started, so that they do
+	 * nothing, and waits for the rest to finish.
+	 */
+	void execute( int start, int endExclusive, int numBlocks, BlockTask task ) {
+		final int range = endExclusive - start;
+		final var next = new AtomicInteger();
+
+		Runnable worker = () -> {
+			int block;
+			while ((block = next.getAndIncrement()) < numBlocks) {
+				int idx0 = start + (int)((long)range*block/numBlocks);
+				int idx1 = start + (int)((long)range*(block + 1)/numBlocks);
+				task.process(block, idx0, idx1);
+			}
+		};
+
+		int numTasks = Math.min(maxThreads, numBlocks) - 1;
+		List<Helper> helpers = new ArrayList<>(Math.max(0, numTasks));
+		for (int i = 0; i < numTasks; i++) {
+			var helper = new Helper(worker);
+			helper.future = executor.submit(helper);
+			helpers.add(helper);
+		}
+
+		Throwable failure = null;
+		try {
+			worker.run();
+		} catch (RuntimeException | Error e) {
+			failure = e;
+			// Prevent the other threads from doing unnecessary work
+			next.set(numBlocks);
+		}
+
+		for (int i = 0; i < helpers.size(); i++) {
+			Helper helper = helpers.get(i);
+			// It never started, so all the blocks were claimed by other threads
+			if (helper.started.compareAndSet(false, true)) {
+				Objects.requireNonNull(helper.future).cancel(false);
+				continue;
+			}
+			try {
+				Objects.requireNonNull(helper.future).get();
+			} catch (ExecutionException e) {
+				if (failure == null)
+					failure = e.getCause();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if (failure == null)
+					failure = e;
+			}
+		}
+
+		if (failure == null)
+			return;
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException)failure;
+		if (failure instanceof Error)
+			throw (Error)failure;
+		throw new RuntimeException(failure);
+	}
+
+	/**
+	 * Runs the worker with this scope bound to the executor's thread so that nested loops use the same scope
+	 */
+	void runBound( Runnable worker ) {
+		ConcurrencyScope before = bound.get();
+		bound.set(this);
+		try {
+			worker.run();
+		} finally {
+			if (before == null)
+				bound.remove();
+			else
+				bound.set(before);
+		}
+	}
+
+	/**
+	 * Task submitted to the executor. Only runs if the calling thread hasn't already claimed it. A
+	 * {@link Future} can't be used for this since it can be cancelled while running.
+	 */
+	private class Helper implements Runnable {
+		final AtomicBoolean started = new AtomicBoolean();
+		final Runnable worker;
+		@Nullable Future<?> future;
+
+		Helper( Runnable worker ) {this.worker = worker;}
+
+		@Override public void run() {
+			if (started.compareAndSet(false, true))
+				runBound(worker);
+		}
+	}
+
+	/** Processes a single block of work */
+	interface BlockTask {
+		void process( int block, int idx0, int idx1 );
+	}
+}
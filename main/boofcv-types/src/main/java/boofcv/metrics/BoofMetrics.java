@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Global entry point for performance metrics. By default there is no sink and metrics are disabled, which costs
+ * algorithms a single volatile read each time they would have reported. Once a sink is set, algorithms which
+ * support metrics will report the time taken by each of their stages to it.
+ * </p>
+ *
+ * <pre>
+ * var registry = new MetricsRegistry();
+ * BoofMetrics.setSink(registry);
+ * ...
+ * registry.print(System.out);
+ * </pre>
+ *
+ * @author Peter Abeles
+ * @see StageTimer
+ */
+public final class BoofMetrics {
+	private static volatile @Nullable MetricsSink sink;
+
+	private BoofMetrics() {}
+
+	/**
+	 * Specifies where metrics are sent to
+	 *
+	 * @param sink The sink. If null then metrics are disabled.
+	 */
+	public static void setSink( @Nullable MetricsSink sink ) {
+		BoofMetrics.sink = sink;
+	}
+
+	/**
+	 * Returns the current sink or null if metrics are disabled
+	 */
+	public static @Nullable MetricsSink getSink() {
+		return sink;
+	}
+
+	/**
+	 * Returns true if there is a sink to report metrics to
+	 */
+	public static boolean isEnabled() {
+		return sink != null;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * {@link MetricsSink} which emits JDK Flight Recorder events, allowing metrics to be viewed alongside everything
+ * else the JVM records. Events are only created when a recording which enables them is running. This class is
+ * only loaded if used, so platforms without JFR, e.g. Android, can still use the rest of the metrics API.
+ *
+ * @author Peter Abeles
+ */
+public class JfrMetricsSink implements MetricsSink {
+	@Override public void recordTime( String source, String stage, double milliseconds ) {
+		var event = new TimeEvent();
+		if (!event.isEnabled())
+			return;
+		event.source = source;
+		event.name = stage;
+		event.elapsed = (long)(milliseconds*1e6);
+		event.commit();
+	}
+
+	@Override public void recordCount( String source, String name, long amount ) {
+		var event = new CountEvent();
+		if (!event.isEnabled())
+			return;
+		event.source = source;
+		event.name = name;
+		event.amount = amount;
+		event.commit();
+	}
+
+	@Override public void recordValue( String source, String name, double value ) {
+		var event = new ValueEvent();
+		if (!event.isEnabled())
+			return;
+		event.source = source;
+		event.name = name;
+		event.value = value;
+		event.commit();
+	}
+
+	@Name("boofcv.StageTime") @Label("Stage Time") @Category("BoofCV")
+	@StackTrace(false)
+	static class TimeEvent extends Event {
+		@Label("Source") String source;
+		@Label("Stage") String name;
+		@Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+	}
+
+	@Name("boofcv.Count") @Label("Count") @Category("BoofCV")
+	@StackTrace(false)
+	static class CountEvent extends Event {
+		@Label("Source") String source;
+		@Label("Name") String name;
+		@Label("Amount") long amount;
+	}
+
+	@Name("boofcv.Value") @Label("Value") @Category("BoofCV")
+	@StackTrace(false)
+	static class ValueEvent extends Event {
+		@Label("Source") String source;
+		@Label("Name") String name;
+		@Label("Value") double value;
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histogram with logarithmically spaced bins, so that memory is constant no matter how many values are added
+ * while percentiles have a fixed relative error. Values from {@link #MINIMUM} to {@link #MAXIMUM} are resolved to
+ * within a few percent. Values outside that range are placed in the first or last bin. Thread safe.
+ *
+ * @author Peter Abeles
+ */
+public class LogHistogram {
+	/** Smallest value which is resolved */
+	public static final double MINIMUM = 1e-6;
+	/** Largest value which is resolved */
+	public static final double MAXIMUM = 1e9;
+	/** Ratio between the upper and lower bound of a bin */
+	public static final double GROWTH = 1.05;
+
+	private static final double LOG_GROWTH = Math.log(GROWTH);
+	private static final int NUM_BINS = (int)Math.ceil(Math.log(MAXIMUM/MINIMUM)/LOG_GROWTH) + 1;
+
+	final long[] bins = new long[NUM_BINS];
+	long count;
+	double sum;
+	double min = Double.MAX_VALUE;
+	double max = -Double.MAX_VALUE;
+
+	/**
+	 * Adds a value to the histogram
+	 */
+	public synchronized void add( double value ) {
+		bins[binIndex(value)]++;
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	static int binIndex( double value ) {
+		if (!(value > MINIMUM))
+			return 0;
+		return Math.min(NUM_BINS - 1, (int)(Math.log(value/MINIMUM)/LOG_GROWTH));
+	}
+
+	/**
+	 * Returns the value at the specified percentile. The center of the bin is returned after being
+	 * clipped to the range of values which have been added.
+	 *
+	 * @param fraction Percentile from 0 to 1.0
+	 * @return The value at the percentile or NaN if empty
+	 */
+	public synchronized double percentile( double fraction ) {
+		if (fraction < 0.0 || fraction > 1.0)
+			throw new IllegalArgumentException("Fraction must be from 0 to 1");
+		if (count == 0)
+			return Double.NaN;
+
+		long target = Math.max(1, (long)Math.ceil(fraction*count));
+		long total = 0;
+		int index = 0;
+		for (; index < NUM_BINS; index++) {
+			total += bins[index];
+			if (total >= target)
+				break;
+		}
+
+		double center = MINIMUM*Math.pow(GROWTH, index + 0.5);
+		return Math.max(min, Math.min(max, center));
+	}
+
+	/**
+	 * Discards all values
+	 */
+	public synchronized void reset() {
+		Arrays.fill(bins, 0);
+		count = 0;
+		sum = 0;
+		min = Double.MAX_VALUE;
+		max = -Double.MAX_VALUE;
+	}
+
+	/** Number of values which have been added */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/** Sum of all the values which have been added */
+	public synchronized double getSum() {
+		return sum;
+	}
+
+	/** Mean of all the values or NaN if empty */
+	public synchronized double getMean() {
+		return count == 0 ? Double.NaN : sum/count;
+	}
+
+	/** Smallest value which has been added or NaN if empty */
+	public synchronized double getMin() {
+		return count == 0 ? Double.NaN : min;
+	}
+
+	/** Largest value which has been added or NaN if empty */
+	public synchronized double getMax() {
+		return count == 0 ? Double.NaN : max;
+	}
+}
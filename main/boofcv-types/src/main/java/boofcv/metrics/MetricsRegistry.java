@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * {@link MetricsSink} which keeps a summary of every metric in memory. Times and values are summarized with a
+ * {@link LogHistogram} so memory doesn't grow as more is recorded. Intended to be polled periodically, e.g. by
+ * something that publishes to a dashboard, or printed at the end of a run.
+ *
+ * @author Peter Abeles
+ */
+public class MetricsRegistry implements MetricsSink {
+	// source -> name -> metric
+	final Map<String, Map<String, LogHistogram>> times = new ConcurrentHashMap<>();
+	final Map<String, Map<String, LogHistogram>> values = new ConcurrentHashMap<>();
+	final Map<String, Map<String, AtomicLong>> counts = new ConcurrentHashMap<>();
+
+	@Override public void recordTime( String source, String stage, double milliseconds ) {
+		lookup(times, source, stage, LogHistogram::new).add(milliseconds);
+	}
+
+	@Override public void recordCount( String source, String name, long amount ) {
+		lookup(counts, source, name, AtomicLong::new).addAndGet(amount);
+	}
+
+	@Override public void recordValue( String source, String name, double value ) {
+		lookup(values, source, name, LogHistogram::new).add(value);
+	}
+
+	private static <T> T lookup( Map<String, Map<String, T>> map, String source, String name,
+								 Supplier<T> factory ) {
+		// Check before computing to avoid creating a lambda every time
+		Map<String, T> inner = map.get(source);
+		if (inner == null)
+			inner = map.computeIfAbsent(source, k -> new ConcurrentHashMap<>());
+		T metric = inner.get(name);
+		if (metric == null)
+			metric = inner.computeIfAbsent(name, k -> factory.get());
+		return metric;
+	}
+
+	/**
+	 * Returns the histogram of times in milliseconds for a stage or null if it has never been recorded
+	 */
+	public @Nullable LogHistogram getTime( String source, String stage ) {
+		Map<String, LogHistogram> map = times.get(source);
+		return map == null ? null : map.get(stage);
+	}
+
+	/**
+	 * Returns the histogram of a value or null if it has never been recorded
+	 */
+	public @Nullable LogHistogram getValue( String source, String name ) {
+		Map<String, LogHistogram> map = values.get(source);
+		return map == null ? null : map.get(name);
+	}
+
+	/**
+	 * Returns the value of a counter. Zero if it has never been recorded
+	 */
+	public long getCount( String source, String name ) {
+		Map<String, AtomicLong> map = counts.get(source);
+		if (map == null)
+			return 0;
+		AtomicLong count = map.get(name);
+		return count == null ? 0 : count.get();
+	}
+
+	/**
+	 * Discards everything which has been recorded
+	 */
+	public void reset() {
+		times.clear();
+		values.clear();
+		counts.clear();
+	}
+
+	/**
+	 * Prints a table summarizing every metric, sorted by source then name
+	 */
+	public void print( PrintStream out ) {
+		out.printf("%-50s %8s %9s %9s %9s %9s\n", "time (ms)", "count", "mean", "p50", "p99", "max");
+		printHistograms(times, out);
+		out.printf("%-50s %8s %9s %9s %9s %9s\n", "value", "count", "mean", "p50", "p99", "max");
+		printHistograms(values, out);
+		out.printf("%-50s %8s\n", "counter", "total");
+		new TreeMap<>(counts).forEach(( source, map ) -> new TreeMap<>(map).forEach(( name, count ) ->
+				out.printf("%-50s %8d\n", source + "." + name, count.get())));
+	}
+
+	private static void printHistograms( Map<String, Map<String, LogHistogram>> histograms, PrintStream out ) {
+		new TreeMap<>(histograms).forEach(( source, map ) -> new TreeMap<>(map).forEach(( name, h ) ->
+				out.printf("%-50s %8d %9.3f %9.3f %9.3f %9.3f\n", source + "." + name,
+						h.getCount(), h.getMean(), h.percentile(0.5), h.percentile(0.99), h.getMax())));
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+/**
+ * Receives performance metrics from algorithms. Every metric is identified by its source, which is typically the
+ * name of the algorithm that produced it, and the name of the metric inside of that source. Implementations must
+ * be thread safe since algorithms running in different threads will report to the same sink.
+ *
+ * @author Peter Abeles
+ * @see BoofMetrics
+ */
+public interface MetricsSink {
+	/**
+	 * Time it took to run a stage of an algorithm
+	 *
+	 * @param source Algorithm which ran the stage
+	 * @param stage Name of the stage
+	 * @param milliseconds Elapsed time in milliseconds
+	 */
+	void recordTime( String source, String stage, double milliseconds );
+
+	/**
+	 * Increments a counter, e.g. number of features detected
+	 *
+	 * @param source Algorithm which is counting
+	 * @param name Name of the counter
+	 * @param amount Amount the counter is increased by
+	 */
+	void recordCount( String source, String name, long amount );
+
+	/**
+	 * A measured value that's summarized with a histogram, e.g. number of inliers in a frame
+	 *
+	 * @param source Algorithm which measured the value
+	 * @param name Name of the value
+	 * @param value The measured value
+	 */
+	void recordValue( String source, String name, double value );
+}
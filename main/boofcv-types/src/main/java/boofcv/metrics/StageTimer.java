@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Used by an algorithm to report the time taken by each of its stages to {@link BoofMetrics}. Each algorithm owns
+ * its own instance, so it's not thread safe. If metrics are disabled when {@link #start()} is called then nothing
+ * is timed or reported until the next call to start.
+ * </p>
+ *
+ * <pre>
+ * metrics.start();
+ * detect(image);
+ * metrics.stage("detect");
+ * describe(image);
+ * metrics.stage("describe");
+ * metrics.stop();
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class StageTimer {
+	/** Name of the stage which records the time from {@link #start()} to {@link #stop()} */
+	public static final String TOTAL = "total";
+
+	/** Identifies the algorithm when reporting. Change it to tell apart multiple instances of the same algorithm. */
+	@Getter @Setter String source;
+
+	// Sink used by the current invocation. Null if metrics are disabled
+	@Nullable MetricsSink sink;
+
+	// Time in nanoseconds that start() was called and the most recent stage ended
+	long timeStart, timeLast;
+
+	public StageTimer( String source ) {
+		this.source = source;
+	}
+
+	/**
+	 * Call at the start of the algorithm's processing
+	 */
+	public void start() {
+		sink = BoofMetrics.getSink();
+		if (sink == null)
+			return;
+		timeStart = timeLast = System.nanoTime();
+	}
+
+	/**
+	 * Reports the time since the previous stage ended, or since start was called if this is the first stage.
+	 *
+	 * @param stage Name of the stage which just finished
+	 */
+	public void stage( String stage ) {
+		MetricsSink sink = this.sink;
+		if (sink == null)
+			return;
+		long time = System.nanoTime();
+		sink.recordTime(source, stage, (time - timeLast)*1e-6);
+		timeLast = time;
+	}
+
+	/**
+	 * Reports the total time since start was called as {@link #TOTAL}
+	 */
+	public void stop() {
+		stop(TOTAL);
+	}
+
+	/**
+	 * Reports the total time since start was called using the specified name. Use this for operations which are
+	 * not called every frame so that they are not mixed in with {@link #TOTAL}.
+	 *
+	 * @param name Name the total time is reported as
+	 */
+	public void stop( String name ) {
+		MetricsSink sink = this.sink;
+		if (sink == null)
+			return;
+		sink.recordTime(source, name, (System.nanoTime() - timeStart)*1e-6);
+		this.sink = null;
+	}
+
+	/**
+	 * Reports the time of a stage which was measured by the algorithm itself
+	 *
+	 * @param stage Name of the stage
+	 * @param milliseconds Elapsed time in milliseconds
+	 */
+	public void time( String stage, double milliseconds ) {
+		MetricsSink sink = BoofMetrics.getSink();
+		if (sink != null)
+			sink.recordTime(source, stage, milliseconds);
+	}
+
+	/**
+	 * Increments a counter
+	 *
+	 * @see MetricsSink#recordCount
+	 */
+	public void count( String name, long amount ) {
+		MetricsSink sink = BoofMetrics.getSink();
+		if (sink != null)
+			sink.recordCount(source, name, amount);
+	}
+
+	/**
+	 * Reports a measured value
+	 *
+	 * @see MetricsSink#recordValue
+	 */
+	public void value( String name, double value ) {
+		MetricsSink sink = BoofMetrics.getSink();
+		if (sink != null)
+			sink.recordValue(source, name, value);
+	}
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct;
+
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageType;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Thread safe pool of images which are used as temporary storage. Images are matched by their {@link ImageType}
+ * and shape. Functions which need scratch images when the caller didn't provide storage can acquire an image
+ * from the pool and release it once finished, making steady state processing allocation free.
+ * </p>
+ *
+ * <p>
+ * Each thread has a small local cache which is checked first and requires no synchronization. Local caches are
+ * limited by both the number of images and bytes, and are freed along with their thread. Images which don't fit
+ * in the local cache go into a shared pool. When the shared pool is over its byte budget the images with the
+ * least recently used shape are discarded first.
+ * </p>
+ *
+ * <p>
+ * Images are never in two places at once. Once acquired the caller owns the image until it's released. A released
+ * image must not be referenced by the caller again.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImagePool {
+	/**
+	 * Pool used by functions when the caller doesn't provide storage. If null then images are declared
+	 * every time and nothing is recycled.
+	 */
+	public static @Nullable ImagePool DEFAULT = new ImagePool();
+
+	/** Maximum number of bytes referenced by images in the shared pool */
+	@Getter final long maxBytes;
+
+	/** Maximum number of images in each thread's local cache */
+	@Getter final int localCapacity;
+
+	/** Maximum number of bytes referenced by images in each thread's local cache */
+	@Getter final long localMaxBytes;
+
+	// Shared images organized by key. Access order is used to find the least recently used shape
+	final LinkedHashMap<Key, ArrayDeque<ImageBase<?>>> shared = new LinkedHashMap<>(16, 0.75f, true);
+	// Number of bytes referenced by the shared pool
+	long sharedBytes;
+
+	// Local cache for each thread. Only the owning thread accesses it so there is no need to lock
+	final ThreadLocal<Local> locals;
+	// Incremented by clear(). Local caches from an older generation are discarded the next time they are used
+	volatile int generation;
+
+	/**
+	 * @param maxBytes Maximum number of bytes the shared pool can reference
+	 * @param localCapacity Maximum number of images in each thread's local cache
+	 * @param localMaxBytes Maximum number of bytes each thread's local cache can reference
+	 */
+	public ImagePool( long maxBytes, int localCapacity, long localMaxBytes ) {
+		this.maxBytes = maxBytes;
+		this.localCapacity = localCapacity;
+		this.localMaxBytes = localMaxBytes;
+		this.locals = ThreadLocal.withInitial(() -> new Local(localCapacity, generation));
+	}
+
+	/**
+	 * Each thread's local cache can reference up to 1/8 of maxBytes
+	 *
+	 * @see #ImagePool(long, int, long)
+	 */
+	public ImagePool( long maxBytes, int localCapacity ) {
+		this(maxBytes, localCapacity, maxBytes/8);
+	}
+
+	/**
+	 * Default pool with a 64 MB shared budget and local caches with two images and up to 8 MB
+	 */
+	public ImagePool() {
+		this(64L*1024L*1024L, 2);
+	}
+
+	/**
+	 * Returns an image of the specified type and shape from the default pool or a new image if pooling has been
+	 * disabled
+	 */
+	public static <T extends ImageBase<T>> T acquireDefault( ImageType<T> type, int width, int height ) {
+		ImagePool pool = DEFAULT;
+		if (pool == null)
+			return type.createImage(width, height);
+		return pool.acquire(type, width, height);
+	}
+
+	/**
+	 * Releases the image into the default pool. If pooling is disabled or the image is null nothing happens.
+	 */
+	public static void releaseDefault( @Nullable ImageBase<?> image ) {
+		ImagePool pool = DEFAULT;
+		if (pool == null || image == null)
+			return;
+		pool.release(image);
+	}
+
+	/**
+	 * Returns an image with the specified type and shape. If one is not available in the pool a new image
+	 * is declared. The contents of the returned image are undefined.
+	 *
+	 * @param type Type of image
+	 * @param width Image width
+	 * @param height Image height
+	 * @return An image which is now owned by the caller
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends ImageBase<T>> T acquire( ImageType<T> type, int width, int height ) {
+		// Check the thread's local cache first
+		Local local = local();
+		for (int i = local.size - 1; i >= 0; i--) {
+			ImageBase<?> image = local.images[i];
+			if (matches(image, type, width, height)) {
+				local.remove(i);
+				return (T)image;
+			}
+		}
+
+		// See if the shared pool has one
+		var key = new Key(type, width, height);
+		synchronized (shared) {
+			ArrayDeque<ImageBase<?>> queue = shared.get(key);
+			if (queue != null && !queue.isEmpty()) {
+				ImageBase<?> image = queue.removeLast();
+				sharedBytes -= key.bytes;
+				if (queue.isEmpty())
+					shared.remove(key);
+				return (T)image;
+			}
+		}
+
+		return type.createImage(width, height);
+	}
+
+	/**
+	 * Same as {@link #acquire} but returns an image with the same type and shape as the provided image
+	 */
+	public <T extends ImageBase<T>> T acquireSameShape( T image ) {
+		return acquire(image.getImageType(), image.width, image.height);
+	}
+
+	/**
+	 * Returns an image to the pool so that it can be used again. Sub-images are ignored since they don't own
+	 * their data.
+	 *
+	 * @param image Image which is no longer used by the caller
+	 */
+	public void release( ImageBase<?> image ) {
+		if (image.isSubimage())
+			return;
+
+		var key = new Key(image.getImageType(), image.width, image.height);
+
+		// Images larger than the budget would just be discarded
+		if (key.bytes > maxBytes)
+			return;
+
+		// Keep the most recent image local if it fits. Older images are pushed into the shared pool to make room
+		Local local = local();
+		if (local.images.length == 0 || key.bytes > localMaxBytes) {
+			synchronized (shared) {
+				addShared(key, image);
+				evict();
+			}
+			return;
+		}
+
+		if (local.size < local.images.length && local.totalBytes + key.bytes <= localMaxBytes) {
+			local.add(image, key.bytes);
+			return;
+		}
+
+		synchronized (shared) {
+			while (local.size == local.images.length || local.totalBytes + key.bytes > localMaxBytes) {
+				ImageBase<?> oldest = local.images[0];
+				local.remove(0);
+				addShared(new Key(oldest.getImageType(), oldest.width, oldest.height), oldest);
+			}
+			evict();
+		}
+		local.add(image, key.bytes);
+	}
+
+	/**
+	 * Adds the image to the shared pool. Must be called while synchronized on the shared pool.
+	 */
+	private void addShared( Key key, ImageBase<?> image ) {
+		shared.computeIfAbsent(key, k -> new ArrayDeque<>()).addLast(image);
+		sharedBytes += key.bytes;
+	}
+
+	/**
+	 * Returns the local cache for this thread. If the pool has been cleared since it was last used then it's emptied.
+	 */
+	private Local local() {
+		Local local = locals.get();
+		int generation = this.generation;
+		if (local.generation != generation) {
+			local.clear();
+			local.generation = generation;
+		}
+		return local;
+	}
+
+	/**
+	 * Discards least recently used images in the shared pool until it's within the budget
+	 */
+	private void evict() {
+		Iterator<Map.Entry<Key, ArrayDeque<ImageBase<?>>>> iter = shared.entrySet().iterator();
+		while (sharedBytes > maxBytes && iter.hasNext()) {
+			Map.Entry<Key, ArrayDeque<ImageBase<?>>> entry = iter.next();
+			ArrayDeque<ImageBase<?>> queue = entry.getValue();
+			while (sharedBytes > maxBytes && !queue.isEmpty()) {
+				queue.removeFirst();
+				sharedBytes -= entry.getKey().bytes;
+			}
+			if (queue.isEmpty())
+				iter.remove();
+		}
+	}
+
+	/**
+	 * Discards all images in the shared pool and the calling thread's local cache. Local caches in other
+	 * threads are discarded the next time those threads use the pool.
+	 */
+	public void clear() {
+		locals.remove();
+		synchronized (shared) {
+			generation++;
+			shared.clear();
+			sharedBytes = 0;
+		}
+	}
+
+	/**
+	 * Number of bytes referenced by images in the shared pool
+	 */
+	public long getSharedBytes() {
+		synchronized (shared) {
+			return sharedBytes;
+		}
+	}
+
+	/**
+	 * Number of bytes referenced by images in the calling thread's local cache
+	 */
+	public long getLocalBytes() {
+		return local().totalBytes;
+	}
+
+	static boolean matches( ImageBase<?> image, ImageType<?> type, int width, int height ) {
+		return image.width == width && image.height == height && image.getImageType().isSameType(type);
+	}
+
+	/**
+	 * Fixed size cache of images for a single thread
+	 */
+	static class Local {
+		final ImageBase<?>[] images;
+		// Number of bytes in each image
+		final long[] bytes;
+		// Sum of bytes for all images in the cache
+		long totalBytes;
+		int size;
+		// Value of the pool's generation when this cache was last cleared
+		int generation;
+
+		Local( int capacity, int generation ) {
+			images = new ImageBase<?>[capacity];
+			bytes = new long[capacity];
+			this.generation = generation;
+		}
+
+		void add( ImageBase<?> image, long numBytes ) {
+			totalBytes += numBytes;
+			bytes[size] = numBytes;
+			images[size++] = image;
+		}
+
+		void remove( int index ) {
+			totalBytes -= bytes[index];
+			System.arraycopy(images, index + 1, images, index, size - index - 1);
+			System.arraycopy(bytes, index + 1, bytes, index, size - index - 1);
+			images[--size] = null;
+		}
+
+		void clear() {
+			for (int i = 0; i < size; i++) {
+				images[i] = null;
+			}
+			size = 0;
+			totalBytes = 0;
+		}
+	}
+
+	/**
+	 * Key used to look up images in the shared pool
+	 */
+	static class Key {
+		final ImageType.Family family;
+		final ImageDataType dataType;
+		final int numBands;
+		final int width, height;
+		final long bytes;
+
+		Key( ImageType<?> type, int width, int height ) {
+			this.family = type.getFamily();
+			this.dataType = type.getDataType();
+			this.numBands = type.getFamily() == ImageType.Family.GRAY ? 1 : type.getNumBands();
+			this.width = width;
+			this.height = height;
+			this.bytes = (long)width*height*numBands*Math.max(1, type.getDataType().getNumBits()/8);
+		}
+
+		@Override public boolean equals( Object o ) {
+			if (!(o instanceof Key))
+				return false;
+			Key k = (Key)o;
+			return family == k.family && dataType == k.dataType && numBands == k.numBands &&
+					width == k.width && height == k.height;
+		}
+
+		@Override public int hashCode() {
+			int result = family.hashCode();
+			result = 31*result + dataType.hashCode();
+			result = 31*result + numBands;
+			result = 31*result + width;
+			return 31*result + height;
+		}
+	}
+}
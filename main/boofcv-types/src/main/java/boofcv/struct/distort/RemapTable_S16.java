@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.distort;
+
+import georegression.struct.point.Point2D_F32;
+
+/**
+ * <p>
+ * Compact look up table which maps each pixel in a destination image to a location in the source image. Locations
+ * are stored in fixed point with 16-bit integer coordinates and a {@link #FRACTION_BITS} bit fraction for each axis,
+ * which are packed together into a single short. Each pixel requires 6 bytes, instead of an object per pixel, and
+ * images can be sampled using integer arithmetic. Coordinates are limited to the range of a signed short.
+ * </p>
+ *
+ * <p>
+ * Once computed the table is only read from, so a single instance can be shared by multiple threads and
+ * algorithms, e.g. when the same lens distortion is removed from several cameras.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RemapTable_S16 {
+	/** Number of bits used to encode the fractional part of a coordinate */
+	public static final int FRACTION_BITS = 7;
+	/** Value of the fractional part which is equal to one pixel */
+	public static final int FRACTION_ONE = 1 << FRACTION_BITS;
+	/** Used to extract the fractional part of x-axis */
+	public static final int FRACTION_MASK = FRACTION_ONE - 1;
+	/** Value of {@link #fractions} for pixels that have no valid location in the source image */
+	public static final short INVALID = -1;
+
+	/** Shape of the destination image */
+	public int width, height;
+
+	/** Integer part of the source location for each pixel. Interleaved x and y. Row major. */
+	public short[] coordinates = new short[0];
+
+	/**
+	 * Fractional part of the source location for each pixel. The lower bits are x, followed by y. If negative then
+	 * the pixel doesn't have a valid location, see {@link #INVALID}.
+	 */
+	public short[] fractions = new short[0];
+
+	public RemapTable_S16( int width, int height ) {
+		reshape(width, height);
+	}
+
+	public RemapTable_S16() {}
+
+	/**
+	 * Creates a table by applying the transform to every pixel in the destination image
+	 *
+	 * @param width Width of destination image
+	 * @param height Height of destination image
+	 * @param dstToSrc Transform from destination to source pixels
+	 */
+	public static RemapTable_S16 create( int width, int height, PixelTransform<Point2D_F32> dstToSrc ) {
+		var table = new RemapTable_S16(width, height);
+		table.compute(dstToSrc, 0, height);
+		return table;
+	}
+
+	/**
+	 * Changes the shape of the table. Contents are not modified if the number of pixels has not increased.
+	 */
+	public void reshape( int width, int height ) {
+		this.width = width;
+		this.height = height;
+		int N = width*height;
+		if (fractions.length < N) {
+			coordinates = new short[N*2];
+			fractions = new short[N];
+		}
+	}
+
+	/**
+	 * Computes the source location of every pixel inside the specified rows
+	 *
+	 * @param dstToSrc Transform from destination to source pixels
+	 * @param y0 First row. Inclusive.
+	 * @param y1 Last row. Exclusive.
+	 */
+	public void compute( PixelTransform<Point2D_F32> dstToSrc, int y0, int y1 ) {
+		var p = new Point2D_F32();
+		for (int y = y0; y < y1; y++) {
+			for (int x = 0; x < width; x++) {
+				dstToSrc.compute(x, y, p);
+				set(x, y, p.x, p.y);
+			}
+		}
+	}
+
+	/**
+	 * Sets the source location of a destination pixel. Locations which can't be encoded, e.g. NaN, are marked as
+	 * invalid.
+	 *
+	 * @param x Destination x-coordinate
+	 * @param y Destination y-coordinate
+	 * @param srcX Source x-coordinate
+	 * @param srcY Source y-coordinate
+	 */
+	public void set( int x, int y, float srcX, float srcY ) {
+		int index = y*width + x;
+
+		// The negated comparison also catches NaN
+		if (!(srcX >= Short.MIN_VALUE && srcX < Short.MAX_VALUE && srcY >= Short.MIN_VALUE && srcY < Short.MAX_VALUE)) {
+			coordinates[index*2] = 0;
+			coordinates[index*2 + 1] = 0;
+			fractions[index] = INVALID;
+			return;
+		}
+
+		int fixedX = Math.round(srcX*FRACTION_ONE);
+		int fixedY = Math.round(srcY*FRACTION_ONE);
+
+		coordinates[index*2] = (short)(fixedX >> FRACTION_BITS);
+		coordinates[index*2 + 1] = (short)(fixedY >> FRACTION_BITS);
+		fractions[index] = (short)(((fixedY & FRACTION_MASK) << FRACTION_BITS) | (fixedX & FRACTION_MASK));
+	}
+
+	/**
+	 * Looks up the source location of a destination pixel
+	 *
+	 * @param x Destination x-coordinate
+	 * @param y Destination y-coordinate
+	 * @param output (Output) Source location
+	 * @return true if the location is valid
+	 */
+	public boolean get( int x, int y, Point2D_F32 output ) {
+		int index = y*width + x;
+		int fraction = fractions[index];
+		if (fraction < 0) {
+			output.setTo(Float.NaN, Float.NaN);
+			return false;
+		}
+		output.x = coordinates[index*2] + (fraction & FRACTION_MASK)/(float)FRACTION_ONE;
+		output.y = coordinates[index*2 + 1] + (fraction >> FRACTION_BITS)/(float)FRACTION_ONE;
+		return true;
+	}
+
+	/**
+	 * Returns true if the destination pixel has a valid location in the source image
+	 */
+	public boolean isValid( int x, int y ) {
+		return fractions[y*width + x] >= 0;
+	}
+
+	/**
+	 * Turns this table into a copy of the passed in table
+	 */
+	public RemapTable_S16 setTo( RemapTable_S16 src ) {
+		reshape(src.width, src.height);
+		int N = width*height;
+		System.arraycopy(src.coordinates, 0, coordinates, 0, N*2);
+		System.arraycopy(src.fractions, 0, fractions, 0, N);
+		return this;
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Binary image where each pixel is a single bit and 64 pixels are packed into each long. Compared to a binary
+ * {@link GrayU8} it uses 1/8 the memory and allows operations to process 64 pixels at once. Pixel (x,y) is stored
+ * in bit x%64 of data[y*stride + x/64], with the least significant bit being the left most pixel.
+ * </p>
+ *
+ * <p>
+ * Bits past the end of a row are always zero. Functions which process the image can rely on this and must
+ * maintain it.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PackedBinaryImage implements Serializable {
+	/** Number of bits in each element of the data array */
+	public static final int BITS = 64;
+
+	/** Storage for the image's pixels */
+	public long[] data = new long[0];
+
+	/** Number of columns in the image */
+	public int width;
+	/** Number of rows in the image */
+	public int height;
+	/** Number of elements in the data array for each row */
+	public int stride;
+
+	/**
+	 * Creates a new image with all pixels set to zero
+	 *
+	 * @param width number of columns in the image.
+	 * @param height number of rows in the image.
+	 */
+	public PackedBinaryImage( int width, int height ) {
+		reshape(width, height);
+	}
+
+	public PackedBinaryImage() {}
+
+	/**
+	 * Changes the image's shape. If the shape changed then all pixels are set to zero. The data array is only
+	 * declared again if it's too small.
+	 */
+	public void reshape( int width, int height ) {
+		if (this.width == width && this.height == height)
+			return;
+		if (width < 0 || height < 0)
+			throw new IllegalArgumentException("Width and height must not be negative");
+
+		this.width = width;
+		this.height = height;
+		this.stride = (width + BITS - 1)/BITS;
+
+		int length = stride*height;
+		if (data.length < length) {
+			data = new long[length];
+		} else {
+			Arrays.fill(data, 0, length, 0L);
+		}
+	}
+
+	/**
+	 * Returns the value of the pixel, 0 or 1
+	 */
+	public int get( int x, int y ) {
+		if (!isInBounds(x, y))
+			throw new ImageAccessException("Requested pixel is out of bounds: " + x + " " + y);
+		return unsafe_get(x, y);
+	}
+
+	public int unsafe_get( int x, int y ) {
+		return (int)(data[y*stride + x/BITS] >>> (x%BITS)) & 1;
+	}
+
+	/**
+	 * Sets the value of the pixel. Zero is false and any other value is true.
+	 */
+	public void set( int x, int y, int value ) {
+		if (!isInBounds(x, y))
+			throw new ImageAccessException("Requested pixel is out of bounds: " + x + " " + y);
+		unsafe_set(x, y, value);
+	}
+
+	public void unsafe_set( int x, int y, int value ) {
+		int index = y*stride + x/BITS;
+		long bit = 1L << (x%BITS);
+		if (value != 0)
+			data[index] |= bit;
+		else
+			data[index] &= ~bit;
+	}
+
+	public boolean isInBounds( int x, int y ) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	/**
+	 * Index of the first element in the row
+	 */
+	public int getRowIndex( int y ) {
+		return y*stride;
+	}
+
+	/**
+	 * Mask which selects the bits in the last element of a row which are inside the image
+	 */
+	public long getLastMask() {
+		int remainder = width%BITS;
+		return remainder == 0 ? -1L : (1L << remainder) - 1;
+	}
+
+	/**
+	 * Sets all pixels to the specified value
+	 */
+	public void fill( boolean value ) {
+		if (!value || stride == 0) {
+			Arrays.fill(data, 0, stride*height, 0L);
+			return;
+		}
+		long last = getLastMask();
+		for (int y = 0; y < height; y++) {
+			int index = y*stride;
+			Arrays.fill(data, index, index + stride, -1L);
+			data[index + stride - 1] = last;
+		}
+	}
+
+	/**
+	 * Makes this image identical to the src image
+	 */
+	public PackedBinaryImage setTo( PackedBinaryImage src ) {
+		reshape(src.width, src.height);
+		System.arraycopy(src.data, 0, data, 0, stride*height);
+		return this;
+	}
+
+	/**
+	 * Creates a new image with the same shape and all pixels set to zero
+	 */
+	public PackedBinaryImage createSameShape() {
+		return new PackedBinaryImage(width, height);
+	}
+
+	public PackedBinaryImage copy() {
+		return createSameShape().setTo(this);
+	}
+
+	/**
+	 * Returns true if both images have the same shape and pixel values
+	 */
+	public boolean isIdentical( PackedBinaryImage image ) {
+		if (width != image.width || height != image.height)
+			return false;
+		return Arrays.equals(data, 0, stride*height, image.data, 0, stride*height);
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestBatchProcessor extends BoofStandardJUnit {
+	/**
+	 * Results should be in the same order as the inputs even when they finish out of order
+	 */
+	@Test void process_inOrder() {
+		for (int numThreads : new int[]{1, 3}) {
+			var alg = new BatchProcessor<Integer, Integer>(numThreads, () -> input -> {
+				Thread.sleep(rand.nextInt(3));
+				return input*2;
+			});
+
+			List<Integer> inputs = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				inputs.add(i);
+			}
+
+			List<Integer> found = alg.processAll(inputs);
+			assertEquals(inputs.size(), found.size());
+			for (int i = 0; i < inputs.size(); i++) {
+				assertEquals(i*2, found.get(i));
+			}
+		}
+	}
+
+	/**
+	 * An instance should never be used by two threads at the same time and instances are reused
+	 */
+	@Test void process_instancePerThread() {
+		var inUse = ConcurrentHashMap.<Object>newKeySet();
+		var threads = ConcurrentHashMap.<Thread>newKeySet();
+		var alg = new BatchProcessor<Integer, Integer>(4, () -> new BatchProcessor.Processor<>() {
+			@Override public Integer process( Integer input ) throws Exception {
+				assertTrue(inUse.add(this));
+				threads.add(Thread.currentThread());
+				Thread.sleep(1);
+				assertTrue(inUse.remove(this));
+				return input;
+			}
+		});
+
+		for (int trial = 0; trial < 2; trial++) {
+			List<Integer> inputs = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				inputs.add(i);
+			}
+			assertEquals(inputs, alg.processAll(inputs));
+		}
+		assertTrue(alg.getTotalInstances() <= 4);
+		assertTrue(threads.size() > 1);
+	}
+
+	/**
+	 * Inputs should not be read faster than results are handled
+	 */
+	@Test void process_backpressure() {
+		var alg = new BatchProcessor<Integer, Integer>(2, 3, () -> input -> input);
+
+		var numRead = new AtomicInteger();
+		var numHandled = new AtomicInteger();
+		Iterator<Integer> inputs = new Iterator<>() {
+			@Override public boolean hasNext() {return numRead.get() < 30;}
+
+			@Override public Integer next() {
+				assertTrue(numRead.get() - numHandled.get() <= alg.getMaxInFlight());
+				return numRead.getAndIncrement();
+			}
+		};
+
+		alg.process(inputs, ( input, output ) -> {
+			assertEquals(numHandled.getAndIncrement(), output);
+		});
+		assertEquals(30, numHandled.get());
+	}
+
+	/**
+	 * Exceptions thrown while processing should be passed to the caller and no more inputs processed
+	 */
+	@Test void process_exception() {
+		for (int numThreads : new int[]{1, 2}) {
+			var processed = new AtomicInteger();
+			var alg = new BatchProcessor<Integer, Integer>(numThreads, () -> input -> {
+				processed.incrementAndGet();
+				if (input == 5)
+					throw new IOException("Failed");
+				return input;
+			});
+
+			List<Integer> inputs = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				inputs.add(i);
+			}
+
+			List<Integer> handled = new ArrayList<>();
+			RuntimeException e = assertThrows(RuntimeException.class, () ->
+					alg.process(inputs, ( input, output ) -> handled.add(output)));
+			assertTrue(e.getCause() instanceof IOException);
+			assertEquals(List.of(0, 1, 2, 3, 4), handled);
+			assertTrue(processed.get() < inputs.size());
+		}
+	}
+
+	/**
+	 * If the number of threads isn't specified then it should use every thread in the pool, even when idle
+	 */
+	@Test void defaultNumberOfThreads() {
+		boolean previous = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.USE_CONCURRENT = true;
+			var alg = new BatchProcessor<Integer, Integer>(0, () -> input -> input*2);
+			assertEquals(BoofConcurrency.getThreadPool().getParallelism(), alg.getNumThreads());
+			assertEquals(List.of(0, 2, 4), alg.processAll(List.of(0, 1, 2)));
+
+			BoofConcurrency.USE_CONCURRENT = false;
+			assertEquals(1, new BatchProcessor<Integer, Integer>(-1, () -> input -> input).getNumThreads());
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = previous;
+		}
+	}
+
+	/**
+	 * Inputs should be processed on the executor of the scope bound to the calling thread
+	 */
+	@Test void process_scope() {
+		Thread caller = Thread.currentThread();
+		ExecutorService executor = Executors.newFixedThreadPool(2, r -> new Thread(r, "scoped"));
+		ConcurrencyScope scope = BoofConcurrency.openScope(executor, 3);
+		try {
+			var alg = new BatchProcessor<Integer, Integer>(0, () -> input -> {
+				Thread t = Thread.currentThread();
+				assertTrue(t == caller || t.getName().equals("scoped"));
+				Thread.sleep(1);
+				return input;
+			});
+			assertEquals(3, alg.getNumThreads());
+
+			List<Integer> inputs = new ArrayList<>();
+			for (int i = 0; i < 30; i++) {
+				inputs.add(i);
+			}
+			assertEquals(inputs, alg.processAll(inputs));
+			assertTrue(alg.getTotalInstances() <= 3);
+		} finally {
+			scope.close();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test void requestStop() {
+		var alg = new BatchProcessor<Integer, Integer>(2, () -> input -> input);
+
+		List<Integer> inputs = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			inputs.add(i);
+		}
+
+		Set<Integer> handled = ConcurrentHashMap.newKeySet();
+		alg.process(inputs, ( input, output ) -> {
+			handled.add(output);
+			if (output == 10)
+				alg.requestStop();
+		});
+
+		// Inputs already in flight are still handled
+		assertTrue(handled.size() >= 11);
+		assertTrue(handled.size() <= 11 + alg.getMaxInFlight());
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestConcurrencyScope extends BoofStandardJUnit {
+	/**
+	 * Makes sure the scope is bound and unbound correctly, including when nested
+	 */
+	@Test void openClose_nested() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			assertNull(BoofConcurrency.getScope());
+			try (var outer = BoofConcurrency.openScope(executor, 2)) {
+				assertSame(outer, BoofConcurrency.getScope());
+				assertEquals(2, BoofConcurrency.getEffectiveActiveThreads());
+				try (var inner = BoofConcurrency.openScope(executor, 1)) {
+					assertSame(inner, BoofConcurrency.getScope());
+					assertEquals(1, BoofConcurrency.getEffectiveActiveThreads());
+				}
+				assertSame(outer, BoofConcurrency.getScope());
+			}
+			assertNull(BoofConcurrency.getScope());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Closing the outer scope first should be an error
+	 */
+	@Test void close_wrongOrder() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ConcurrencyScope outer = BoofConcurrency.openScope(executor);
+			ConcurrencyScope inner = BoofConcurrency.openScope(executor);
+			assertThrows(IllegalArgumentException.class, outer::close);
+			inner.close();
+			outer.close();
+			assertNull(BoofConcurrency.getScope());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Every index should be visited exactly once and only threads belonging to the executor or the caller
+	 * should be used.
+	 */
+	@Test void loopFor() {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try (var scope = BoofConcurrency.openScope(executor)) {
+			Thread caller = Thread.currentThread();
+			int[] counts = new int[103];
+			Set<Thread> threads = ConcurrentHashMap.newKeySet();
+			BoofConcurrency.loopFor(3, 103, 2, i -> {
+				counts[i]++;
+				threads.add(Thread.currentThread());
+				// nested loops should see the same scope
+				assertSame(scope, BoofConcurrency.getScope());
+			});
+			for (int i = 0; i < counts.length; i++) {
+				assertEquals(i >= 3 && (i - 3)%2 == 0 ? 1 : 0, counts[i]);
+			}
+			for (Thread t : threads) {
+				assertTrue(t == caller || t.getName().startsWith("pool-"));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The number of threads used should never exceed the budget
+	 */
+	@Test void loopBlocks_threadBudget() {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try (var scope = BoofConcurrency.openScope(executor, 2)) {
+			Set<Thread> threads = ConcurrentHashMap.newKeySet();
+			var total = new AtomicInteger();
+			BoofConcurrency.loopBlocks(0, 1000, ( i0, i1 ) -> {
+				threads.add(Thread.currentThread());
+				total.addAndGet(i1 - i0);
+			});
+			assertEquals(1000, total.get());
+			assertTrue(threads.size() <= 2);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Each block should get its own workspace and the block size should be respected
+	 */
+	@Test void loopBlocks_workspace() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (var scope = BoofConcurrency.openScope(executor, 4)) {
+			var workspace = new GrowArray<>(DogArray_I32::new);
+			BoofConcurrency.loopBlocks(0, 100, 30, workspace, ( work, i0, i1 ) -> {
+				assertTrue(i1 - i0 >= 30);
+				for (int i = i0; i < i1; i++) {
+					work.add(i);
+				}
+			});
+
+			assertEquals(3, workspace.size());
+			int total = 0;
+			for (int i = 0; i < workspace.size(); i++) {
+				total += workspace.get(i).size;
+			}
+			assertEquals(100, total);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Nested loops on a single thread executor must not deadlock
+	 */
+	@Test void nested_noDeadlock() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (var scope = BoofConcurrency.openScope(executor, 4)) {
+			var total = new AtomicInteger();
+			BoofConcurrency.loopFor(0, 10, i -> BoofConcurrency.loopFor(0, 10, j -> total.incrementAndGet()));
+			assertEquals(100, total.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test void sum() {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try (var scope = BoofConcurrency.openScope(executor)) {
+			assertEquals(4950, BoofConcurrency.sum(0, 100, int.class, i -> i).intValue());
+			assertEquals(4950.0, BoofConcurrency.sum(0, 100, double.class, i -> (double)i).doubleValue(), 1e-8);
+			assertEquals(0, BoofConcurrency.sum(5, 5, int.class, i -> i).intValue());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Exceptions thrown inside the loop should be passed to the caller
+	 */
+	@Test void exceptionPropagated() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try (var scope = BoofConcurrency.openScope(executor, 2)) {
+			assertThrows(IllegalStateException.class, () -> BoofConcurrency.loopFor(0, 100, i -> {
+				if (i == 77)
+					throw new IllegalStateException("Test");
+			}));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
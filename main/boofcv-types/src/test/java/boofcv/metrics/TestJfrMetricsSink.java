@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.metrics;
+
+import boofcv.testing.BoofStandardJUnit;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestJfrMetricsSink extends BoofStandardJUnit {
+	/**
+	 * Records events then reads them back from the recording
+	 */
+	@Test void recordAndRead() throws IOException {
+		var alg = new JfrMetricsSink();
+		Path path = File.createTempFile("boofcv", ".jfr").toPath();
+		try {
+			try (var recording = new Recording()) {
+				recording.enable("boofcv.StageTime");
+				recording.enable("boofcv.Count");
+				recording.enable("boofcv.Value");
+				recording.start();
+				alg.recordTime("a", "x", 2.0);
+				alg.recordCount("a", "y", 3);
+				alg.recordValue("a", "z", 4.5);
+				recording.stop();
+				recording.dump(path);
+			}
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(path);
+			assertEquals(3, events.size());
+			for (RecordedEvent e : events) {
+				assertEquals("a", e.getString("source"));
+				String type = e.getEventType().getName();
+				if (type.equals("boofcv.StageTime")) {
+					assertEquals("x", e.getString("name"));
+					assertEquals(2_000_000L, e.getDuration("elapsed").toNanos());
+				} else if (type.equals("boofcv.Count")) {
+					assertEquals(3, e.getLong("amount"));
+				} else if (type.equals("boofcv.Value")) {
+					assertEquals(4.5, e.getDouble("value"));
+				} else {
+					fail("Unexpected event " + type);
+				}
+			}
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	/**
+	 * Nothing bad should happen when no recording is running
+	 */
+	@Test void noRecording() {
+		var alg = new JfrMetricsSink();
+		alg.recordTime("a", "x", 2.0);
+		alg.recordCount("a", "y", 3);
+		alg.recordValue("a", "z", 4.5);
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.metrics;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLogHistogram extends BoofStandardJUnit {
+	@Test void empty() {
+		var alg = new LogHistogram();
+		assertEquals(0, alg.getCount());
+		assertTrue(Double.isNaN(alg.getMean()));
+		assertTrue(Double.isNaN(alg.getMin()));
+		assertTrue(Double.isNaN(alg.getMax()));
+		assertTrue(Double.isNaN(alg.percentile(0.5)));
+	}
+
+	@Test void statistics() {
+		var alg = new LogHistogram();
+		for (int i = 1; i <= 100; i++) {
+			alg.add(i);
+		}
+		assertEquals(100, alg.getCount());
+		assertEquals(5050.0, alg.getSum());
+		assertEquals(50.5, alg.getMean());
+		assertEquals(1.0, alg.getMin());
+		assertEquals(100.0, alg.getMax());
+	}
+
+	/**
+	 * Percentiles should be within the bin's relative error
+	 */
+	@Test void percentile() {
+		var alg = new LogHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			alg.add(i*0.01);
+		}
+
+		double tol = LogHistogram.GROWTH - 1.0;
+		assertEquals(5.0, alg.percentile(0.5), 5.0*tol);
+		assertEquals(9.0, alg.percentile(0.9), 9.0*tol);
+		assertEquals(9.9, alg.percentile(0.99), 9.9*tol);
+		// Clipped to the range of observed values
+		assertEquals(0.01, alg.percentile(0.0));
+		assertEquals(10.0, alg.percentile(1.0));
+	}
+
+	/**
+	 * Values outside the range of bins are still counted
+	 */
+	@Test void outOfRange() {
+		var alg = new LogHistogram();
+		alg.add(0.0);
+		alg.add(-1.0);
+		alg.add(1e12);
+		assertEquals(3, alg.getCount());
+		assertEquals(-1.0, alg.getMin());
+		assertEquals(1e12, alg.getMax());
+		// Saturates at the largest bin
+		assertTrue(alg.percentile(1.0) >= LogHistogram.MAXIMUM/LogHistogram.GROWTH);
+		assertTrue(alg.percentile(0.5) <= LogHistogram.MINIMUM*LogHistogram.GROWTH);
+	}
+
+	@Test void percentile_badFraction() {
+		var alg = new LogHistogram();
+		assertThrows(IllegalArgumentException.class, () -> alg.percentile(-0.1));
+		assertThrows(IllegalArgumentException.class, () -> alg.percentile(1.1));
+	}
+
+	@Test void reset() {
+		var alg = new LogHistogram();
+		alg.add(5);
+		alg.reset();
+		assertEquals(0, alg.getCount());
+		assertEquals(0.0, alg.getSum());
+		assertTrue(Double.isNaN(alg.percentile(0.5)));
+
+		alg.add(2);
+		assertEquals(2.0, alg.getMin());
+		assertEquals(2.0, alg.getMax());
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.metrics;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestMetricsRegistry extends BoofStandardJUnit {
+	@Test void recordAndGet() {
+		var alg = new MetricsRegistry();
+		alg.recordTime("a", "x", 1.0);
+		alg.recordTime("a", "x", 3.0);
+		alg.recordTime("b", "x", 10.0);
+		alg.recordValue("a", "y", 4.0);
+		alg.recordCount("a", "z", 2);
+		alg.recordCount("a", "z", 1);
+
+		assertEquals(2, alg.getTime("a", "x").getCount());
+		assertEquals(2.0, alg.getTime("a", "x").getMean());
+		assertEquals(10.0, alg.getTime("b", "x").getMean());
+		assertEquals(4.0, alg.getValue("a", "y").getMean());
+		assertEquals(3, alg.getCount("a", "z"));
+
+		// Types of metrics are kept separate
+		assertNull(alg.getValue("a", "x"));
+		assertNull(alg.getTime("a", "y"));
+		assertEquals(0, alg.getCount("a", "x"));
+		assertNull(alg.getTime("c", "x"));
+	}
+
+	@Test void reset() {
+		var alg = new MetricsRegistry();
+		alg.recordTime("a", "x", 1.0);
+		alg.recordValue("a", "y", 4.0);
+		alg.recordCount("a", "z", 2);
+		alg.reset();
+
+		assertNull(alg.getTime("a", "x"));
+		assertNull(alg.getValue("a", "y"));
+		assertEquals(0, alg.getCount("a", "z"));
+	}
+
+	@Test void multipleThreads() throws InterruptedException {
+		var alg = new MetricsRegistry();
+		var threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 1000; j++) {
+					alg.recordCount("a", "z", 1);
+					alg.recordTime("a", "x", 1.0);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertEquals(4000, alg.getCount("a", "z"));
+		assertEquals(4000, alg.getTime("a", "x").getCount());
+	}
+
+	@Test void print() {
+		var alg = new MetricsRegistry();
+		alg.recordTime("a", "x", 1.0);
+		alg.recordValue("a", "y", 4.0);
+		alg.recordCount("a", "z", 2);
+
+		var bytes = new ByteArrayOutputStream();
+		alg.print(new PrintStream(bytes));
+		String text = bytes.toString();
+		assertTrue(text.contains("a.x"));
+		assertTrue(text.contains("a.y"));
+		assertTrue(text.contains("a.z"));
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.metrics;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestStageTimer extends BoofStandardJUnit {
+	@AfterEach void cleanUp() {
+		BoofMetrics.setSink(null);
+	}
+
+	/**
+	 * Nothing should be reported when there's no sink
+	 */
+	@Test void disabled() {
+		var alg = new StageTimer("alg");
+		alg.start();
+		alg.stage("a");
+		alg.stop();
+		alg.time("b", 1.0);
+		alg.count("c", 1);
+		alg.value("d", 1.0);
+		assertNull(alg.sink);
+	}
+
+	@Test void stages() {
+		var registry = new MetricsRegistry();
+		BoofMetrics.setSink(registry);
+
+		var alg = new StageTimer("alg");
+		for (int trial = 0; trial < 3; trial++) {
+			alg.start();
+			alg.stage("a");
+			alg.stage("b");
+			alg.stop();
+		}
+
+		assertEquals(3, registry.getTime("alg", "a").getCount());
+		assertEquals(3, registry.getTime("alg", "b").getCount());
+		assertEquals(3, registry.getTime("alg", StageTimer.TOTAL).getCount());
+		assertTrue(registry.getTime("alg", "a").getMin() >= 0.0);
+
+		// Total must include both stages
+		double sumStages = registry.getTime("alg", "a").getSum() + registry.getTime("alg", "b").getSum();
+		assertTrue(registry.getTime("alg", StageTimer.TOTAL).getSum() >= sumStages);
+	}
+
+	/**
+	 * A named stop should not be mixed in with the total
+	 */
+	@Test void stop_named() {
+		var registry = new MetricsRegistry();
+		BoofMetrics.setSink(registry);
+
+		var alg = new StageTimer("alg");
+		alg.start();
+		alg.stop();
+		alg.start();
+		alg.stop("other");
+
+		assertEquals(1, registry.getTime("alg", StageTimer.TOTAL).getCount());
+		assertEquals(1, registry.getTime("alg", "other").getCount());
+		assertNull(alg.sink);
+	}
+
+	/**
+	 * If the sink is set after start() was called then nothing should be reported until the next start
+	 */
+	@Test void sinkChangedAfterStart() {
+		var registry = new MetricsRegistry();
+		var alg = new StageTimer("alg");
+		alg.start();
+		BoofMetrics.setSink(registry);
+		alg.stage("a");
+		alg.stop();
+		assertNull(registry.getTime("alg", "a"));
+
+		alg.start();
+		alg.stage("a");
+		alg.stop();
+		assertEquals(1, registry.getTime("alg", "a").getCount());
+	}
+
+	@Test void time_count_value() {
+		var registry = new MetricsRegistry();
+		BoofMetrics.setSink(registry);
+
+		var alg = new StageTimer("alg");
+		alg.time("a", 2.5);
+		alg.count("b", 2);
+		alg.count("b", 3);
+		alg.value("c", 7.0);
+
+		assertEquals(2.5, registry.getTime("alg", "a").getSum());
+		assertEquals(5, registry.getCount("alg", "b"));
+		assertEquals(7.0, registry.getValue("alg", "c").getMax());
+	}
+
+	@Test void setSource() {
+		var registry = new MetricsRegistry();
+		BoofMetrics.setSink(registry);
+
+		var alg = new StageTimer("alg");
+		alg.setSource("left");
+		alg.count("a", 1);
+		assertEquals(0, registry.getCount("alg", "a"));
+		assertEquals(1, registry.getCount("left", "a"));
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct;
+
+import boofcv.struct.image.*;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestImagePool extends BoofStandardJUnit {
+	/**
+	 * A released image should be returned when the same type and shape is requested
+	 */
+	@Test void acquire_release_reuse() {
+		var alg = new ImagePool();
+		GrayU8 a = alg.acquire(ImageType.SB_U8, 20, 30);
+		assertEquals(20, a.width);
+		assertEquals(30, a.height);
+		alg.release(a);
+		assertSame(a, alg.acquire(ImageType.SB_U8, 20, 30));
+	}
+
+	/**
+	 * Images with a different type or shape must not be returned
+	 */
+	@Test void acquire_mustMatch() {
+		var alg = new ImagePool();
+		GrayU8 a = alg.acquire(ImageType.SB_U8, 20, 30);
+		alg.release(a);
+
+		assertNotSame(a, alg.acquire(ImageType.SB_U8, 30, 20));
+		assertNotSame(a, alg.acquire(ImageType.SB_S8, 20, 30));
+		assertNotSame(a, alg.acquire(ImageType.SB_F32, 20, 30));
+
+		InterleavedU8 b = alg.acquire(ImageType.il(3, InterleavedU8.class), 20, 30);
+		alg.release(b);
+		assertNotSame(b, alg.acquire(ImageType.il(2, InterleavedU8.class), 20, 30));
+		assertSame(b, alg.acquire(ImageType.il(3, InterleavedU8.class), 20, 30));
+
+		Planar<GrayF32> c = alg.acquire(ImageType.pl(2, GrayF32.class), 20, 30);
+		assertEquals(2, c.getNumBands());
+		alg.release(c);
+		assertSame(c, alg.acquire(ImageType.pl(2, GrayF32.class), 20, 30));
+	}
+
+	/**
+	 * Images which overflow the local cache should end up in the shared pool and be available to other threads
+	 */
+	@Test void sharedAcrossThreads() throws Exception {
+		var alg = new ImagePool(1024*1024, 1);
+		GrayF32 a = alg.acquire(ImageType.SB_F32, 10, 10);
+		GrayF32 b = alg.acquire(ImageType.SB_F32, 10, 10);
+		alg.release(a);
+		assertEquals(0, alg.getSharedBytes());
+		alg.release(b);
+		assertEquals(10*10*4, alg.getSharedBytes());
+
+		var found = new GrayF32[1];
+		var thread = new Thread(() -> found[0] = alg.acquire(ImageType.SB_F32, 10, 10));
+		thread.start();
+		thread.join();
+		assertSame(a, found[0]);
+		assertEquals(0, alg.getSharedBytes());
+
+		// The most recent image stayed local
+		assertSame(b, alg.acquire(ImageType.SB_F32, 10, 10));
+	}
+
+	/**
+	 * The shared pool should never reference more bytes than its limit
+	 */
+	@Test void evict() {
+		var alg = new ImagePool(250, 0);
+		var first = alg.acquire(ImageType.SB_U8, 10, 10);
+		var second = alg.acquire(ImageType.SB_U8, 10, 10);
+		alg.release(first);
+		alg.release(second);
+		assertEquals(200, alg.getSharedBytes());
+
+		// Adding a new shape pushes out the least recently used
+		alg.release(new GrayU8(5, 12));
+		assertEquals(160, alg.getSharedBytes());
+
+		// Too large to ever be saved
+		alg.release(new GrayU8(20, 20));
+		assertEquals(160, alg.getSharedBytes());
+
+		alg.clear();
+		assertEquals(0, alg.getSharedBytes());
+		assertNotSame(first, alg.acquire(ImageType.SB_U8, 10, 10));
+	}
+
+	/**
+	 * Local caches are limited by bytes. Images which don't fit are pushed into the shared pool
+	 */
+	@Test void localMaxBytes() {
+		var alg = new ImagePool(1000, 3, 150);
+		GrayU8 a = new GrayU8(10, 10);
+		alg.release(a);
+		assertEquals(100, alg.getLocalBytes());
+		assertEquals(0, alg.getSharedBytes());
+
+		// The oldest image is pushed out to make room
+		alg.release(new GrayU8(5, 10));
+		GrayU8 b = new GrayU8(10, 10);
+		alg.release(b);
+		assertEquals(150, alg.getLocalBytes());
+		assertEquals(100, alg.getSharedBytes());
+
+		// Too large for the local cache so it goes directly into the shared pool
+		alg.release(new GrayU8(20, 10));
+		assertEquals(150, alg.getLocalBytes());
+		assertEquals(300, alg.getSharedBytes());
+
+		// The local cache is checked first
+		assertSame(b, alg.acquire(ImageType.SB_U8, 10, 10));
+		assertSame(a, alg.acquire(ImageType.SB_U8, 10, 10));
+	}
+
+	/**
+	 * Images left in the local caches of threads which have finished must not prevent the pool from being used
+	 */
+	@Test void shortLivedThreads() throws Exception {
+		var alg = new ImagePool(1000, 2, 200);
+		for (int trial = 0; trial < 50; trial++) {
+			var thread = new Thread(() -> {
+				alg.release(new GrayU8(10, 10));
+				alg.release(new GrayU8(10, 10));
+			});
+			thread.start();
+			thread.join();
+		}
+		assertEquals(0, alg.getSharedBytes());
+
+		// Releases still go into the local cache and the shared pool
+		var images = new GrayU8[3];
+		var thread = new Thread(() -> {
+			for (int i = 0; i < images.length; i++) {
+				images[i] = new GrayU8(10, 10);
+				alg.release(images[i]);
+			}
+		});
+		thread.start();
+		thread.join();
+		assertEquals(100, alg.getSharedBytes());
+		assertSame(images[0], alg.acquire(ImageType.SB_U8, 10, 10));
+
+		GrayU8 b = new GrayU8(10, 10);
+		alg.release(b);
+		assertSame(b, alg.acquire(ImageType.SB_U8, 10, 10));
+	}
+
+	/**
+	 * Clearing the pool should also discard images in other thread's local caches
+	 */
+	@Test void clear_otherThreads() throws Exception {
+		var alg = new ImagePool(1000, 2);
+		GrayU8 a = new GrayU8(10, 10);
+		alg.release(a);
+		assertEquals(100, alg.getLocalBytes());
+
+		var thread = new Thread(alg::clear);
+		thread.start();
+		thread.join();
+		assertEquals(0, alg.getLocalBytes());
+		assertNotSame(a, alg.acquire(ImageType.SB_U8, 10, 10));
+	}
+
+	/**
+	 * Sub-images don't own their data and should be ignored
+	 */
+	@Test void release_subimage() {
+		var alg = new ImagePool(1000, 0);
+		GrayU8 sub = new GrayU8(20, 20).subimage(0, 0, 10, 10);
+		alg.release(sub);
+		assertEquals(0, alg.getSharedBytes());
+		assertNotSame(sub, alg.acquire(ImageType.SB_U8, 10, 10));
+	}
+
+	/**
+	 * When the default pool is null images should be declared every time
+	 */
+	@Test void defaultDisabled() {
+		ImagePool before = ImagePool.DEFAULT;
+		try {
+			ImagePool.DEFAULT = null;
+			GrayU8 a = ImagePool.acquireDefault(ImageType.SB_U8, 5, 6);
+			ImagePool.releaseDefault(a);
+			assertNotSame(a, ImagePool.acquireDefault(ImageType.SB_U8, 5, 6));
+		} finally {
+			ImagePool.DEFAULT = before;
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.distort;
+
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRemapTable_S16 extends BoofStandardJUnit {
+	int width = 20;
+	int height = 25;
+
+	@Test void create() {
+		PixelTransform<Point2D_F32> transform = ( x, y, output ) -> output.setTo(x*1.1f - 2.3f, y*0.7f + 1.9f);
+		RemapTable_S16 alg = RemapTable_S16.create(width, height, transform);
+
+		assertEquals(width, alg.width);
+		assertEquals(height, alg.height);
+
+		var expected = new Point2D_F32();
+		var found = new Point2D_F32();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				transform.compute(x, y, expected);
+				assertTrue(alg.get(x, y, found));
+				assertEquals(expected.x, found.x, 0.5/RemapTable_S16.FRACTION_ONE + 1e-4);
+				assertEquals(expected.y, found.y, 0.5/RemapTable_S16.FRACTION_ONE + 1e-4);
+			}
+		}
+	}
+
+	/**
+	 * Negative values need to be rounded correctly since the integer part is found by shifting
+	 */
+	@Test void set_negative() {
+		var alg = new RemapTable_S16(2, 3);
+		var found = new Point2D_F32();
+
+		alg.set(1, 2, -0.25f, -10.5f);
+		assertTrue(alg.get(1, 2, found));
+		assertEquals(-0.25f, found.x, 1e-6);
+		assertEquals(-10.5f, found.y, 1e-6);
+		assertEquals(-1, alg.coordinates[(2*2 + 1)*2]);
+		assertEquals(-11, alg.coordinates[(2*2 + 1)*2 + 1]);
+	}
+
+	@Test void set_invalid() {
+		var alg = new RemapTable_S16(2, 3);
+		var found = new Point2D_F32();
+
+		alg.set(0, 0, Float.NaN, 1.0f);
+		alg.set(1, 0, 1.0f, Float.POSITIVE_INFINITY);
+		alg.set(0, 1, 40_000.0f, 1.0f);
+		alg.set(1, 1, 1.0f, -40_000.0f);
+		alg.set(0, 2, 1.0f, 2.0f);
+
+		assertFalse(alg.isValid(0, 0));
+		assertFalse(alg.isValid(1, 0));
+		assertFalse(alg.isValid(0, 1));
+		assertFalse(alg.isValid(1, 1));
+		assertTrue(alg.isValid(0, 2));
+
+		assertFalse(alg.get(0, 0, found));
+		assertTrue(Float.isNaN(found.x));
+	}
+
+	@Test void reshape() {
+		var alg = new RemapTable_S16(10, 12);
+		short[] coordinates = alg.coordinates;
+
+		// Array shouldn't be declared again if it gets smaller
+		alg.reshape(5, 6);
+		assertSame(coordinates, alg.coordinates);
+		assertEquals(5, alg.width);
+		assertEquals(6, alg.height);
+
+		alg.reshape(20, 12);
+		assertEquals(20*12*2, alg.coordinates.length);
+		assertEquals(20*12, alg.fractions.length);
+	}
+
+	@Test void setTo() {
+		PixelTransform<Point2D_F32> transform = ( x, y, output ) -> output.setTo(x + 0.5f, y - 0.25f);
+		RemapTable_S16 expected = RemapTable_S16.create(width, height, transform);
+		RemapTable_S16 found = new RemapTable_S16(2, 3).setTo(expected);
+
+		assertEquals(width, found.width);
+		assertEquals(height, found.height);
+		for (int i = 0; i < width*height; i++) {
+			assertEquals(expected.coordinates[i*2], found.coordinates[i*2]);
+			assertEquals(expected.coordinates[i*2 + 1], found.coordinates[i*2 + 1]);
+			assertEquals(expected.fractions[i], found.fractions[i]);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestPackedBinaryImage extends BoofStandardJUnit {
+	@Test void reshape() {
+		var image = new PackedBinaryImage(65, 3);
+		assertEquals(2, image.stride);
+		assertEquals(6, image.data.length);
+
+		image.set(64, 2, 1);
+		image.reshape(10, 4);
+		assertEquals(1, image.stride);
+		assertEquals(6, image.data.length);
+		// Everything should be zero after the shape changes
+		for (int i = 0; i < image.stride*image.height; i++) {
+			assertEquals(0L, image.data[i]);
+		}
+
+		image.reshape(64*3, 4);
+		assertEquals(3, image.stride);
+		assertEquals(12, image.data.length);
+	}
+
+	@Test void get_set() {
+		var image = new PackedBinaryImage(130, 4);
+		image.set(0, 0, 1);
+		image.set(64, 1, 1);
+		image.set(129, 3, 5);
+
+		assertEquals(1, image.get(0, 0));
+		assertEquals(1, image.get(64, 1));
+		assertEquals(1, image.get(129, 3));
+		assertEquals(0, image.get(63, 1));
+		assertEquals(0, image.get(65, 1));
+		assertEquals(1L, image.data[image.getRowIndex(1) + 1]);
+
+		image.set(64, 1, 0);
+		assertEquals(0, image.get(64, 1));
+
+		assertThrows(ImageAccessException.class, () -> image.get(130, 0));
+		assertThrows(ImageAccessException.class, () -> image.set(0, -1, 1));
+	}
+
+	@Test void getLastMask() {
+		assertEquals(-1L, new PackedBinaryImage(64, 2).getLastMask());
+		assertEquals(0b111L, new PackedBinaryImage(67, 2).getLastMask());
+		assertEquals(1L, new PackedBinaryImage(1, 2).getLastMask());
+	}
+
+	@Test void fill() {
+		var image = new PackedBinaryImage(70, 3);
+		image.fill(true);
+		for (int y = 0; y < image.height; y++) {
+			for (int x = 0; x < image.width; x++) {
+				assertEquals(1, image.get(x, y));
+			}
+			// bits outside the image must be zero
+			assertEquals(image.getLastMask(), image.data[image.getRowIndex(y) + 1]);
+		}
+
+		image.fill(false);
+		for (int i = 0; i < image.data.length; i++) {
+			assertEquals(0L, image.data[i]);
+		}
+	}
+
+	@Test void setTo_isIdentical() {
+		var a = new PackedBinaryImage(100, 5);
+		for (int i = 0; i < 40; i++) {
+			a.set(rand.nextInt(a.width), rand.nextInt(a.height), 1);
+		}
+
+		var b = new PackedBinaryImage(3, 2);
+		b.setTo(a);
+		assertTrue(a.isIdentical(b));
+		assertTrue(a.isIdentical(a.copy()));
+
+		b.set(99, 4, 1 - b.get(99, 4));
+		assertFalse(a.isIdentical(b));
+		assertFalse(a.isIdentical(new PackedBinaryImage(100, 4)));
+	}
+}
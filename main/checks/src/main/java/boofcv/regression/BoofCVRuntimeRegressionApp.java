@@ -25,8 +25,13 @@ import com.peterabeles.regression.RuntimeRegressionMasterApp;
 import java.io.File;
 
 public class BoofCVRuntimeRegressionApp {
-	public static void main( String[] args ) {
-		// Set up the environment
+	/** Modules which are skipped over since they have no benchmarks */
+	public static final String[] EXCLUDED = new String[]{"autocode", "checks", "boofcv-types", "boofcv-core"};
+
+	/**
+	 * Tells the regression code how to find the project root, which modules to skip, and describe the library
+	 */
+	public static void configureProject() {
 		ProjectUtils.checkRoot = ( f ) ->
 				new File(f, "README.md").exists() && new File(f, "settings.gradle").exists();
 
@@ -36,15 +41,22 @@ public class BoofCVRuntimeRegressionApp {
 		ProjectUtils.libraryInfo.projectName = "BoofCV";
 
 		// Specify which packages it should skip over
-		String[] excluded = new String[]{"autocode", "checks", "boofcv-types", "boofcv-core"};
-		ProjectUtils.skipTest = ( f ) -> {
-			for (String name : excluded) {
-				if (f.getName().equals(name))
-					return true;
-			}
-			return false;
-		};
+		ProjectUtils.skipTest = ( f ) -> isExcluded(f.getName());
+	}
 
+	/**
+	 * Returns true if the module should be skipped over
+	 */
+	public static boolean isExcluded( String moduleName ) {
+		for (String name : EXCLUDED) {
+			if (moduleName.equals(name))
+				return true;
+		}
+		return false;
+	}
+
+	public static void main( String[] args ) {
+		configureProject();
 		RuntimeRegressionMasterApp.main(args);
 	}
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.regression;
+
+import org.apache.commons.io.FileUtils;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Results from repeated trials of every benchmark in a single JMH benchmark class. Saved as a JSON file so that
+ * baselines can be checked into git and compared against later. Each trial is run in its own JVM so that the
+ * variation between trials includes the effects of JIT compilation and memory layout.
+ *
+ * JSON is read and written with SnakeYAML, since YAML is a superset of JSON. See {@link #createJsonYaml()}.
+ *
+ * @author Peter Abeles
+ */
+public class RuntimeBaseline {
+	/** Name of the module the benchmark is in, e.g. boofcv-ip */
+	public String module = "";
+
+	/** Fully qualified name of the JMH benchmark class */
+	public String benchmark = "";
+
+	/** Description of the code and system which generated the results */
+	public String version = "", gitSha = "", date = "", host = "";
+
+	/** Results for each benchmark method and parameter combination. See {@link #createKey}. */
+	public final Map<String, Trials> results = new TreeMap<>();
+
+	public RuntimeBaseline( String module, String benchmark ) {
+		this.module = module;
+		this.benchmark = benchmark;
+	}
+
+	public RuntimeBaseline() {}
+
+	/**
+	 * Creates a key which uniquely identifies a method and its parameters, e.g. "abs:concurrent=true,size=1000"
+	 */
+	public static String createKey( String method, Map<String, String> parameters ) {
+		if (parameters.isEmpty())
+			return method;
+		var builder = new StringBuilder(method).append(':');
+		int count = 0;
+		for (Map.Entry<String, String> e : new TreeMap<>(parameters).entrySet()) {
+			if (count++ > 0)
+				builder.append(',');
+			builder.append(e.getKey()).append('=').append(e.getValue());
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Name of the file the results are saved to
+	 */
+	public String getFileName() {
+		return benchmark + ".json";
+	}
+
+	/**
+	 * Saves the results into the module's subdirectory inside the specified directory
+	 */
+	public void save( File directory ) throws IOException {
+		File file = new File(new File(directory, module), getFileName());
+		FileUtils.writeStringToFile(file, toJson(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Loads the results for a benchmark or returns null if there are none
+	 *
+	 * @param directory Directory which contains a subdirectory for each module
+	 */
+	public static @Nullable RuntimeBaseline load( File directory, String module, String benchmark ) throws IOException {
+		File file = new File(new File(directory, module), benchmark + ".json");
+		if (!file.exists())
+			return null;
+		return fromJson(FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Loads every set of results found in the directory
+	 *
+	 * @param directory Directory which contains a subdirectory for each module
+	 */
+	public static List<RuntimeBaseline> loadAll( File directory ) throws IOException {
+		List<RuntimeBaseline> found = new ArrayList<>();
+		File[] modules = directory.listFiles(File::isDirectory);
+		if (modules == null)
+			return found;
+		Arrays.sort(modules);
+		for (File dirModule : modules) {
+			File[] files = dirModule.listFiles(( dir, name ) -> name.endsWith(".json"));
+			if (files == null)
+				continue;
+			Arrays.sort(files);
+			for (File f : files) {
+				found.add(fromJson(FileUtils.readFileToString(f, StandardCharsets.UTF_8)));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Creates a Yaml object whose output is JSON. Collections are written in flow style and every string is
+	 * double quoted. Keys are written in the order of the map, so sorted maps are used to keep files in git stable.
+	 */
+	static Yaml createJsonYaml() {
+		var dumperOptions = new DumperOptions();
+		dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.FLOW);
+		dumperOptions.setPrettyFlow(true);
+		dumperOptions.setSplitLines(false);
+		dumperOptions.setIndent(2);
+		return new Yaml(new SafeConstructor(new LoaderOptions()), new JsonRepresenter(dumperOptions), dumperOptions);
+	}
+
+	public String toJson() {
+		Map<String, Object> root = new TreeMap<>();
+		root.put("module", module);
+		root.put("benchmark", benchmark);
+		root.put("version", version);
+		root.put("gitSha", gitSha);
+		root.put("date", date);
+		root.put("host", host);
+		Map<String, Object> jsonResults = new TreeMap<>();
+		for (Map.Entry<String, Trials> e : results.entrySet()) {
+			Trials t = e.getValue();
+			// JSON has no NaN or infinity so those are saved as null
+			List<@Nullable Double> scores = new ArrayList<>();
+			for (double score : t.scores) {
+				scores.add(Double.isFinite(score) ? score : null);
+			}
+			Map<String, Object> jsonTrials = new TreeMap<>();
+			jsonTrials.put("unit", t.unit);
+			jsonTrials.put("higherIsBetter", t.higherIsBetter);
+			jsonTrials.put("scores", scores);
+			jsonResults.put(e.getKey(), jsonTrials);
+		}
+		root.put("results", jsonResults);
+		return createJsonYaml().dump(root);
+	}
+
+	/**
+	 * Decodes results which were encoded using {@link #toJson()}
+	 *
+	 * @throws IllegalArgumentException If the JSON is invalid or missing fields
+	 */
+	public static RuntimeBaseline fromJson( String json ) {
+		Map<?, ?> root;
+		try {
+			root = castMap(createJsonYaml().load(json));
+		} catch (YAMLException e) {
+			throw new IllegalArgumentException("Invalid JSON. " + e.getMessage(), e);
+		}
+		var out = new RuntimeBaseline(getString(root, "module"), getString(root, "benchmark"));
+		out.version = getString(root, "version");
+		out.gitSha = getString(root, "gitSha");
+		out.date = getString(root, "date");
+		out.host = getString(root, "host");
+		for (Map.Entry<?, ?> e : castMap(root.get("results")).entrySet()) {
+			Map<?, ?> jsonTrials = castMap(e.getValue());
+			var trials = new Trials();
+			trials.unit = getString(jsonTrials, "unit");
+			trials.higherIsBetter = Boolean.TRUE.equals(jsonTrials.get("higherIsBetter"));
+			Object scores = jsonTrials.get("scores");
+			if (!(scores instanceof List))
+				throw new IllegalArgumentException("Missing scores for " + e.getKey());
+			List<?> list = (List<?>)scores;
+			trials.scores = new double[list.size()];
+			for (int i = 0; i < list.size(); i++) {
+				Object value = list.get(i);
+				trials.scores[i] = value instanceof Number ? ((Number)value).doubleValue() : Double.NaN;
+			}
+			out.results.put(e.getKey().toString(), trials);
+		}
+		return out;
+	}
+
+	private static Map<?, ?> castMap( @Nullable Object o ) {
+		if (!(o instanceof Map))
+			throw new IllegalArgumentException("Expected a JSON object");
+		return (Map<?, ?>)o;
+	}
+
+	private static String getString( Map<?, ?> map, String key ) {
+		Object value = map.get(key);
+		return value == null ? "" : value.toString();
+	}
+
+	/**
+	 * Double quotes every string so that the output is JSON and not plain YAML
+	 */
+	private static class JsonRepresenter extends Representer {
+		JsonRepresenter( DumperOptions options ) {
+			super(options);
+			representers.put(String.class,
+					data -> representScalar(Tag.STR, (String)data, DumperOptions.ScalarStyle.DOUBLE_QUOTED));
+		}
+	}
+
+	/**
+	 * Score from each trial of a single benchmark
+	 */
+	public static class Trials {
+		/** Units of the score, e.g. ms/op */
+		public String unit = "";
+
+		/** If true then a larger score is better, e.g. throughput. If false then smaller is better, e.g. time. */
+		public boolean higherIsBetter = false;
+
+		/** Score from each trial */
+		public double[] scores = new double[0];
+
+		public Trials( String unit, boolean higherIsBetter, double... scores ) {
+			this.unit = unit;
+			this.higherIsBetter = higherIsBetter;
+			this.scores = scores;
+		}
+
+		public Trials() {}
+	}
+}
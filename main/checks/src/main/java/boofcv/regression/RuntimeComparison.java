@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.regression;
+
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.stat.inference.TestUtils;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.util.ListStatistics;
+
+/**
+ * Statistical comparison of a single benchmark against its baseline. A benchmark is only flagged as slower or faster
+ * if the change is larger than a tolerance and Welch's t-test says the change is significant. The tolerance avoids
+ * flagging changes which are real but too small to care about. If there are fewer than two trials the t-test can't
+ * be computed and only the tolerance is used.
+ *
+ * @author Peter Abeles
+ */
+public class RuntimeComparison {
+	public final String module;
+	public final String benchmark;
+	public final String key;
+
+	/** Units of the score */
+	public String unit = "";
+
+	/** Statistics of the baseline or null if there is no baseline */
+	public @Nullable ListStatistics baseline;
+
+	/** Statistics of the current results or null if the benchmark was not run */
+	public @Nullable ListStatistics current;
+
+	/**
+	 * Fractional change in performance. Positive means it got worse, e.g. 0.1 = 10% slower if the score is time.
+	 * NaN if there's nothing to compare.
+	 */
+	public double change = Double.NaN;
+
+	/** p-value from Welch's t-test. NaN if it could not be computed. */
+	public double pValue = Double.NaN;
+
+	public Verdict verdict = Verdict.UNCHANGED;
+
+	public RuntimeComparison( String module, String benchmark, String key ) {
+		this.module = module;
+		this.benchmark = benchmark;
+		this.key = key;
+	}
+
+	/**
+	 * Compares the current trials against the baseline
+	 *
+	 * @param baseline Trials from the baseline. Null if there is no baseline.
+	 * @param current Trials from the current code. Null if it's no longer being run.
+	 * @param confidence Confidence level used by the t-test and confidence intervals, e.g. 0.99
+	 * @param tolerance Changes with a magnitude smaller than this fraction are ignored, e.g. 0.05
+	 */
+	public void compare( @Nullable RuntimeBaseline.Trials baseline, @Nullable RuntimeBaseline.Trials current,
+						 double confidence, double tolerance ) {
+		if (baseline == null || current == null) {
+			this.baseline = baseline == null ? null : new ListStatistics(baseline.scores);
+			this.current = current == null ? null : new ListStatistics(current.scores);
+			verdict = baseline == null ? Verdict.NEW : Verdict.REMOVED;
+			unit = baseline == null ? current == null ? "" : current.unit : baseline.unit;
+			return;
+		}
+		var statsBaseline = new ListStatistics(baseline.scores);
+		var statsCurrent = new ListStatistics(current.scores);
+		this.baseline = statsBaseline;
+		this.current = statsCurrent;
+		unit = current.unit;
+
+		double meanBaseline = statsBaseline.getMean();
+		change = (statsCurrent.getMean() - meanBaseline)/meanBaseline;
+		if (current.higherIsBetter)
+			change = -change;
+
+		if (statsBaseline.getN() >= 2 && statsCurrent.getN() >= 2 &&
+				(statsBaseline.getVariance() > 0.0 || statsCurrent.getVariance() > 0.0)) {
+			pValue = TestUtils.tTest(statsBaseline, statsCurrent);
+		}
+
+		// Without a t-test the decision is made using only the tolerance
+		boolean significant = Double.isNaN(pValue) || pValue < 1.0 - confidence;
+		if (!significant || Double.isNaN(change) || Math.abs(change) <= tolerance) {
+			verdict = Verdict.UNCHANGED;
+		} else {
+			verdict = change > 0 ? Verdict.SLOWER : Verdict.FASTER;
+		}
+	}
+
+	/**
+	 * Returns the half width of the confidence interval for the mean score. NaN if there are fewer than two trials.
+	 */
+	public static double confidenceHalfWidth( @Nullable ListStatistics stats, double confidence ) {
+		if (stats == null || stats.getN() < 2)
+			return Double.NaN;
+		var distribution = new TDistribution(stats.getN() - 1);
+		double t = distribution.inverseCumulativeProbability(1.0 - (1.0 - confidence)/2.0);
+		return t*stats.getStandardDeviation()/Math.sqrt(stats.getN());
+	}
+
+	public enum Verdict {
+		/** Significantly worse than the baseline */
+		SLOWER,
+		/** Significantly better than the baseline */
+		FASTER,
+		/** No significant change */
+		UNCHANGED,
+		/** There is no baseline for this benchmark */
+		NEW,
+		/** There is a baseline but the benchmark was not run */
+		REMOVED
+	}
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.regression;
+
+import boofcv.BoofVersion;
+import boofcv.misc.BoofMiscOps;
+import com.peterabeles.ProjectUtils;
+import com.peterabeles.regression.RuntimeRegressionUtils;
+import org.apache.commons.io.FileUtils;
+import org.jetbrains.annotations.Nullable;
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * Runs JMH benchmarks in each module multiple times and compares the results against baselines that have been
+ * checked into git. Each trial is run in a separate JVM and a benchmark is only flagged as slower when the change is
+ * statistically significant and larger than a tolerance, see {@link RuntimeComparison}. A Markdown and HTML
+ * report is saved to the output directory and the application exits with a non-zero status if any module has
+ * gotten slower, allowing it to be used as a gate before a release.
+ * </p>
+ *
+ * <p>
+ * Baselines are saved as one JSON file per benchmark class, see {@link RuntimeBaseline}. Baselines are only
+ * meaningful when created on the same machine they are compared on.
+ * </p>
+ *
+ * <pre>
+ * ./gradlew runtimeRegressionGate --console=plain -Dexec.args="--Modules boofcv-ip --Trials 5"
+ * ./gradlew runtimeRegressionGate --console=plain -Dexec.args="--UpdateBaseline"
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"NullAway.Init"})
+public class RuntimeRegressionGate {
+	/** Location of the baselines relative to the project root */
+	public static final String BASELINE_DIRECTORY = "main/checks/runtime_regression/baseline";
+
+	@Option(name = "--Modules", usage = "Comma separated list of modules to benchmark. All modules if empty.")
+	String modules = "";
+
+	@Option(name = "--Benchmarks", usage = "Regex that a benchmark's class name must contain to be run")
+	String benchmarkRegex = "";
+
+	@Option(name = "--Trials", usage = "Number of trials. Each trial is a different JVM.")
+	int trials = 5;
+
+	@Option(name = "--Warmup", usage = "Number of warmup iterations in each trial")
+	int warmupIterations = 2;
+
+	@Option(name = "--Iterations", usage = "Number of measurement iterations in each trial")
+	int measurementIterations = 3;
+
+	@Option(name = "--IterationTime", usage = "Length of each warmup and measurement iteration in seconds")
+	double iterationTime = 1.0;
+
+	@Option(name = "--Confidence", usage = "Confidence level used to decide if a change is significant")
+	double confidence = 0.99;
+
+	@Option(name = "--Tolerance", usage = "Changes smaller than this fraction are ignored, e.g. 0.05 = 5%")
+	double tolerance = 0.05;
+
+	@Option(name = "--Baseline", usage = "Directory containing baselines. Default is " + BASELINE_DIRECTORY)
+	String baselinePath = "";
+
+	@Option(name = "--Output", usage = "Directory that results and reports are saved to")
+	String outputPath = "runtime_regression";
+
+	@Option(name = "--Results", usage = "Skips running benchmarks and uses results previously saved in this directory")
+	String resultsPath = "";
+
+	@Option(name = "--UpdateBaseline", usage = "Replaces the baseline with the current results")
+	boolean updateBaseline = false;
+
+	/** Where status messages are printed */
+	public PrintStream out = System.out;
+
+	/** Report from the most recent call to {@link #process()} */
+	RuntimeRegressionReport report;
+
+	/**
+	 * Runs the benchmarks, compares them to the baseline, and saves the reports
+	 *
+	 * @return true if no benchmarks are significantly slower than the baseline
+	 */
+	public boolean process() throws IOException {
+		BoofCVRuntimeRegressionApp.configureProject();
+		File root = new File(ProjectUtils.findPathToProjectRoot());
+		File directoryBaseline = baselinePath.isEmpty() ? new File(root, BASELINE_DIRECTORY) : new File(baselinePath);
+		File directoryOutput = new File(outputPath);
+
+		List<RuntimeBaseline> current;
+		if (resultsPath.isEmpty()) {
+			current = runBenchmarks(findBenchmarks(new File(root, "main")), new File(directoryOutput, "current"));
+		} else {
+			current = RuntimeBaseline.loadAll(new File(resultsPath));
+		}
+
+		// Only benchmarks which were run are compared, so that filtering doesn't cause everything else to be removed
+		List<RuntimeComparison> comparisons = new ArrayList<>();
+		String baselineInfo = "none";
+		for (RuntimeBaseline results : current) {
+			@Nullable RuntimeBaseline baseline = RuntimeBaseline.load(directoryBaseline, results.module, results.benchmark);
+			if (baseline != null)
+				baselineInfo = describe(baseline);
+			comparisons.addAll(compare(baseline, results, confidence, tolerance));
+		}
+
+		report = new RuntimeRegressionReport(comparisons);
+		report.confidence = confidence;
+		report.tolerance = tolerance;
+		report.baselineInfo = baselineInfo;
+		report.currentInfo = current.isEmpty() ? "none" : describe(current.get(0));
+
+		FileUtils.writeStringToFile(new File(directoryOutput, "report.md"), report.createMarkdown(), StandardCharsets.UTF_8);
+		FileUtils.writeStringToFile(new File(directoryOutput, "report.html"), report.createHtml(), StandardCharsets.UTF_8);
+
+		out.println();
+		out.println("Benchmarks:  " + comparisons.size());
+		out.println("Slower:      " + report.select(RuntimeComparison.Verdict.SLOWER).size());
+		out.println("Faster:      " + report.select(RuntimeComparison.Verdict.FASTER).size());
+		out.println("New:         " + report.select(RuntimeComparison.Verdict.NEW).size());
+		out.println("Removed:     " + report.select(RuntimeComparison.Verdict.REMOVED).size());
+		for (String module : report.modulesWithRegressions()) {
+			out.println("Regression in " + module);
+		}
+		out.println("Report saved to " + directoryOutput.getAbsolutePath());
+
+		if (updateBaseline) {
+			for (RuntimeBaseline results : current) {
+				results.save(directoryBaseline);
+			}
+			out.println("Baseline updated in " + directoryBaseline.getAbsolutePath());
+		}
+
+		return report.modulesWithRegressions().isEmpty();
+	}
+
+	/**
+	 * Compares every benchmark in a benchmark class against the baseline
+	 *
+	 * @param baseline Baseline for the benchmark class. Null if there is none.
+	 * @param current Current results for the benchmark class
+	 */
+	public static List<RuntimeComparison> compare( @Nullable RuntimeBaseline baseline, RuntimeBaseline current,
+												   double confidence, double tolerance ) {
+		Set<String> keys = new TreeSet<>(current.results.keySet());
+		if (baseline != null)
+			keys.addAll(baseline.results.keySet());
+
+		List<RuntimeComparison> comparisons = new ArrayList<>();
+		for (String key : keys) {
+			var c = new RuntimeComparison(current.module, current.benchmark, key);
+			c.compare(baseline == null ? null : baseline.results.get(key), current.results.get(key),
+					confidence, tolerance);
+			comparisons.add(c);
+		}
+		return comparisons;
+	}
+
+	/**
+	 * Finds all the JMH benchmark classes in each module which should be run
+	 *
+	 * @param directoryMain Directory containing all the modules
+	 * @return Map from module name to fully qualified class names
+	 */
+	public Map<String, List<String>> findBenchmarks( File directoryMain ) throws IOException {
+		Set<String> selected = new HashSet<>();
+		for (String name : modules.split(",")) {
+			if (!name.isBlank())
+				selected.add(name.trim());
+		}
+		Pattern pattern = Pattern.compile(benchmarkRegex);
+
+		Map<String, List<String>> found = new TreeMap<>();
+		File[] children = directoryMain.listFiles(File::isDirectory);
+		if (children == null)
+			return found;
+		for (File dirModule : children) {
+			String module = dirModule.getName();
+			if (BoofCVRuntimeRegressionApp.isExcluded(module))
+				continue;
+			if (!selected.isEmpty() && !selected.contains(module))
+				continue;
+			Path dirSource = dirModule.toPath().resolve("src/benchmark/java");
+			if (!Files.isDirectory(dirSource))
+				continue;
+
+			List<String> classes = new ArrayList<>();
+			try (Stream<Path> paths = Files.walk(dirSource)) {
+				for (Path p : paths.filter(p -> p.toString().endsWith(".java")).collect(Collectors.toList())) {
+					String text = new String(Files.readAllBytes(p), StandardCharsets.UTF_8);
+					if (!text.contains("@Benchmark") || text.contains("abstract class"))
+						continue;
+					String relative = dirSource.relativize(p).toString();
+					String className = relative.substring(0, relative.length() - 5).replace(File.separatorChar, '.');
+					if (pattern.matcher(className).find())
+						classes.add(className);
+				}
+			}
+			if (classes.isEmpty())
+				continue;
+			Collections.sort(classes);
+			found.put(module, classes);
+		}
+		return found;
+	}
+
+	/**
+	 * Runs each benchmark class with JMH and saves the results
+	 *
+	 * @param benchmarks Map from module name to benchmark classes
+	 * @param directoryResults Where the results are saved to
+	 */
+	public List<RuntimeBaseline> runBenchmarks( Map<String, List<String>> benchmarks, File directoryResults )
+			throws IOException {
+		String version = BoofVersion.VERSION;
+		String gitSha = BoofVersion.GIT_SHA;
+		String date = ProjectUtils.formatDate(new Date());
+		String host = RuntimeRegressionUtils.getHostName();
+
+		List<RuntimeBaseline> found = new ArrayList<>();
+		for (Map.Entry<String, List<String>> e : benchmarks.entrySet()) {
+			for (String className : e.getValue()) {
+				out.println("Running " + e.getKey() + " " + className);
+				var results = new RuntimeBaseline(e.getKey(), className);
+				results.version = version;
+				results.gitSha = gitSha;
+				results.date = date;
+				results.host = host;
+				try {
+					runBenchmark(className, results);
+				} catch (RunnerException | RuntimeException ex) {
+					// Keep going so that one broken benchmark doesn't hide regressions in everything else
+					out.println("Failed " + className + " " + ex.getMessage());
+					continue;
+				}
+				results.save(directoryResults);
+				found.add(results);
+			}
+		}
+		return found;
+	}
+
+	void runBenchmark( String className, RuntimeBaseline results ) throws RunnerException {
+		TimeValue time = TimeValue.milliseconds((long)(iterationTime*1000));
+		Options options = new OptionsBuilder()
+				.include("^" + Pattern.quote(className) + "\\.")
+				.forks(trials)
+				.warmupIterations(warmupIterations)
+				.warmupTime(time)
+				.measurementIterations(measurementIterations)
+				.measurementTime(time)
+				.build();
+
+		for (RunResult run : new Runner(options).run()) {
+			BenchmarkParams params = run.getParams();
+			String method = params.getBenchmark().substring(className.length() + 1);
+			Map<String, String> parameters = new HashMap<>();
+			for (String key : params.getParamsKeys()) {
+				parameters.put(key, params.getParam(key));
+			}
+
+			// Each benchmark result is from a different fork
+			Collection<BenchmarkResult> forks = run.getBenchmarkResults();
+			double[] scores = new double[forks.size()];
+			int index = 0;
+			for (BenchmarkResult fork : forks) {
+				scores[index++] = fork.getPrimaryResult().getScore();
+			}
+
+			boolean higherIsBetter = params.getMode() == Mode.Throughput;
+			results.results.put(RuntimeBaseline.createKey(method, parameters),
+					new RuntimeBaseline.Trials(run.getPrimaryResult().getScoreUnit(), higherIsBetter, scores));
+		}
+	}
+
+	private static String describe( RuntimeBaseline results ) {
+		return String.format("%s (%s) %s on %s", results.version, results.gitSha, results.date, results.host);
+	}
+
+	public static void main( String[] args ) {
+		var app = new RuntimeRegressionGate();
+		var parser = new CmdLineParser(app);
+
+		try {
+			parser.parseArgument(args);
+		} catch (CmdLineException e) {
+			parser.getProperties().withUsageWidth(120);
+			parser.printUsage(System.out);
+			System.err.println(e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		BoofMiscOps.checkTrue(app.trials >= 1, "Must have at least one trial");
+		try {
+			boolean passed = app.process();
+			System.exit(passed ? 0 : 1);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.regression;
+
+import boofcv.regression.RuntimeComparison.Verdict;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.util.ListStatistics;
+
+import java.util.*;
+
+/**
+ * Creates Markdown and HTML reports which summarize how each module's benchmarks have changed relative to the
+ * baseline. Benchmarks which are significantly slower are listed first, followed by a table for every module.
+ *
+ * @author Peter Abeles
+ */
+public class RuntimeRegressionReport {
+	/** Confidence level used in the comparison */
+	public double confidence = 0.99;
+
+	/** Tolerance used in the comparison */
+	public double tolerance = 0.05;
+
+	/** Describes the code and system which generated the baseline and current results */
+	public String baselineInfo = "", currentInfo = "";
+
+	final List<RuntimeComparison> comparisons = new ArrayList<>();
+
+	public RuntimeRegressionReport( List<RuntimeComparison> comparisons ) {
+		this.comparisons.addAll(comparisons);
+		this.comparisons.sort(Comparator.comparing(( RuntimeComparison c ) -> c.module).
+				thenComparing(c -> c.benchmark).thenComparing(c -> c.key));
+	}
+
+	/** Returns all the comparisons with the specified verdict */
+	public List<RuntimeComparison> select( Verdict verdict ) {
+		List<RuntimeComparison> found = new ArrayList<>();
+		for (RuntimeComparison c : comparisons) {
+			if (c.verdict == verdict)
+				found.add(c);
+		}
+		return found;
+	}
+
+	/** Returns the names of modules which have at least one benchmark that is significantly slower */
+	public Set<String> modulesWithRegressions() {
+		Set<String> modules = new TreeSet<>();
+		for (RuntimeComparison c : select(Verdict.SLOWER)) {
+			modules.add(c.module);
+		}
+		return modules;
+	}
+
+	public String createMarkdown() {
+		var out = new StringBuilder();
+		out.append("# Runtime Regression\n\n");
+		appendSettings(out, "  \n");
+		out.append("\n## Summary\n\n");
+		summaryTable().toMarkdown(out);
+		List<RuntimeComparison> slower = select(Verdict.SLOWER);
+		if (!slower.isEmpty()) {
+			out.append("\n## Slower\n\n");
+			resultsTable(slower, true).toMarkdown(out);
+		}
+		for (Map.Entry<String, List<RuntimeComparison>> e : groupByModule().entrySet()) {
+			out.append("\n## ").append(e.getKey()).append("\n\n");
+			resultsTable(e.getValue(), false).toMarkdown(out);
+		}
+		return out.toString();
+	}
+
+	public String createHtml() {
+		var out = new StringBuilder();
+		out.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>Runtime Regression</title>\n");
+		out.append("<style>\n" +
+				"body { font-family: sans-serif; }\n" +
+				"table { border-collapse: collapse; margin-bottom: 1em; }\n" +
+				"th, td { border: 1px solid #ccc; padding: 2px 8px; text-align: left; }\n" +
+				"tr.SLOWER { background-color: #f8d0d0; }\n" +
+				"tr.FASTER { background-color: #d0f0d0; }\n" +
+				"tr.NEW, tr.REMOVED { background-color: #f0f0f0; }\n" +
+				"</style>\n</head>\n<body>\n");
+		out.append("<h1>Runtime Regression</h1>\n<p>\n");
+		appendSettings(out, "<br>\n");
+		out.append("</p>\n<h2>Summary</h2>\n");
+		summaryTable().toHtml(out);
+		List<RuntimeComparison> slower = select(Verdict.SLOWER);
+		if (!slower.isEmpty()) {
+			out.append("<h2>Slower</h2>\n");
+			resultsTable(slower, true).toHtml(out);
+		}
+		for (Map.Entry<String, List<RuntimeComparison>> e : groupByModule().entrySet()) {
+			out.append("<h2>").append(escapeHtml(e.getKey())).append("</h2>\n");
+			resultsTable(e.getValue(), false).toHtml(out);
+		}
+		out.append("</body>\n</html>\n");
+		return out.toString();
+	}
+
+	private void appendSettings( StringBuilder out, String suffix ) {
+		out.append("Baseline: ").append(baselineInfo).append(suffix);
+		out.append("Current: ").append(currentInfo).append(suffix);
+		out.append(String.format("Confidence: %.1f%%, Tolerance: %.1f%%",
+				100.0*confidence, 100.0*tolerance)).append(suffix);
+	}
+
+	private Map<String, List<RuntimeComparison>> groupByModule() {
+		Map<String, List<RuntimeComparison>> map = new TreeMap<>();
+		for (RuntimeComparison c : comparisons) {
+			map.computeIfAbsent(c.module, k -> new ArrayList<>()).add(c);
+		}
+		return map;
+	}
+
+	private Table summaryTable() {
+		var table = new Table("Module", "Slower", "Faster", "Unchanged", "New", "Removed");
+		for (Map.Entry<String, List<RuntimeComparison>> e : groupByModule().entrySet()) {
+			int[] counts = new int[Verdict.values().length];
+			for (RuntimeComparison c : e.getValue()) {
+				counts[c.verdict.ordinal()]++;
+			}
+			table.add(counts[Verdict.SLOWER.ordinal()] > 0 ? Verdict.SLOWER : null, e.getKey(),
+					"" + counts[Verdict.SLOWER.ordinal()], "" + counts[Verdict.FASTER.ordinal()],
+					"" + counts[Verdict.UNCHANGED.ordinal()], "" + counts[Verdict.NEW.ordinal()],
+					"" + counts[Verdict.REMOVED.ordinal()]);
+		}
+		return table;
+	}
+
+	private Table resultsTable( List<RuntimeComparison> list, boolean includeModule ) {
+		var table = includeModule ?
+				new Table("Module", "Benchmark", "Baseline", "Current", "Change", "p-value", "Verdict") :
+				new Table("Benchmark", "Baseline", "Current", "Change", "p-value", "Verdict");
+		for (RuntimeComparison c : list) {
+			List<String> row = new ArrayList<>();
+			if (includeModule)
+				row.add(c.module);
+			row.add(simpleName(c.benchmark) + "." + c.key);
+			row.add(formatScore(c.baseline, c.unit));
+			row.add(formatScore(c.current, c.unit));
+			row.add(Double.isNaN(c.change) ? "" : String.format("%+.1f%%", 100.0*c.change));
+			row.add(Double.isNaN(c.pValue) ? "" : String.format("%.3g", c.pValue));
+			row.add(c.verdict.name());
+			table.add(c.verdict, row.toArray(new String[0]));
+		}
+		return table;
+	}
+
+	/**
+	 * Formats the mean score along with its confidence interval
+	 */
+	private String formatScore( @Nullable ListStatistics stats, String unit ) {
+		if (stats == null)
+			return "";
+		double halfWidth = RuntimeComparison.confidenceHalfWidth(stats, confidence);
+		if (Double.isNaN(halfWidth))
+			return String.format("%.4g %s", stats.getMean(), unit);
+		return String.format("%.4g ± %.2g %s", stats.getMean(), halfWidth, unit);
+	}
+
+	private static String simpleName( String className ) {
+		return className.substring(className.lastIndexOf('.') + 1);
+	}
+
+	static String escapeHtml( String text ) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+	/**
+	 * Table which can be rendered as Markdown or HTML. Each row has an optional verdict used for highlighting.
+	 */
+	static class Table {
+		final String[] header;
+		final List<String[]> rows = new ArrayList<>();
+		final List<@Nullable Verdict> verdicts = new ArrayList<>();
+
+		Table( String... header ) {
+			this.header = header;
+		}
+
+		void add( @Nullable Verdict verdict, String... row ) {
+			rows.add(row);
+			verdicts.add(verdict);
+		}
+
+		void toMarkdown( StringBuilder out ) {
+			out.append("| ").append(String.join(" | ", header)).append(" |\n");
+			out.append("|").append("---|".repeat(header.length)).append('\n');
+			for (int i = 0; i < rows.size(); i++) {
+				String[] row = rows.get(i);
+				out.append('|');
+				for (String cell : row) {
+					// Bold the row to make slower benchmarks stand out
+					if (verdicts.get(i) == Verdict.SLOWER && !cell.isEmpty())
+						cell = "**" + cell + "**";
+					out.append(' ').append(cell.replace("|", "\\|")).append(" |");
+				}
+				out.append('\n');
+			}
+		}
+
+		void toHtml( StringBuilder out ) {
+			out.append("<table>\n<tr>");
+			for (String h : header) {
+				out.append("<th>").append(escapeHtml(h)).append("</th>");
+			}
+			out.append("</tr>\n");
+			for (int i = 0; i < rows.size(); i++) {
+				Verdict verdict = verdicts.get(i);
+				out.append(verdict == null ? "<tr>" : "<tr class=\"" + verdict.name() + "\">");
+				for (String cell : rows.get(i)) {
+					out.append("<td>").append(escapeHtml(cell)).append("</td>");
+				}
+				out.append("</tr>\n");
+			}
+			out.append("</table>\n");
+		}
+	}
+}
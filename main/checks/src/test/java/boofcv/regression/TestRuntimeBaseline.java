@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.regression;
+
+import boofcv.regression.RuntimeBaseline.Trials;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRuntimeBaseline extends BoofStandardJUnit {
+	@Test void createKey() {
+		Map<String, String> parameters = new HashMap<>();
+		assertEquals("abs", RuntimeBaseline.createKey("abs", parameters));
+		parameters.put("size", "1000");
+		parameters.put("concurrent", "true");
+		assertEquals("abs:concurrent=true,size=1000", RuntimeBaseline.createKey("abs", parameters));
+	}
+
+	@Test void encodeDecodeJson() {
+		var original = new RuntimeBaseline("boofcv-ip", "boofcv.alg.misc.BenchmarkPixelMath");
+		original.version = "1.2";
+		original.gitSha = "abc\"123";
+		original.date = "2023-06-01";
+		original.host = "machine";
+		original.results.put("abs:size=10", new Trials("ms/op", false, 1.5, 2.25e-7, 3.0e12));
+		original.results.put("add", new Trials("ops/s", true, 4.0, Double.NaN));
+
+		// Should be JSON and not some other YAML syntax
+		String json = original.toJson();
+		assertTrue(json.contains("\"gitSha\": \"abc\\\"123\""));
+		assertTrue(json.contains("\"higherIsBetter\": true"));
+		assertTrue(json.contains("null"));
+
+		RuntimeBaseline found = RuntimeBaseline.fromJson(json);
+		assertEquals(original.module, found.module);
+		assertEquals(original.benchmark, found.benchmark);
+		assertEquals(original.version, found.version);
+		assertEquals(original.gitSha, found.gitSha);
+		assertEquals(original.date, found.date);
+		assertEquals(original.host, found.host);
+		assertEquals(2, found.results.size());
+		for (String key : original.results.keySet()) {
+			Trials expected = original.results.get(key);
+			Trials trials = found.results.get(key);
+			assertEquals(expected.unit, trials.unit);
+			assertEquals(expected.higherIsBetter, trials.higherIsBetter);
+			assertArrayEquals(expected.scores, trials.scores);
+		}
+
+		// Encoding should be deterministic so that files in git don't change for no reason
+		assertEquals(original.toJson(), found.toJson());
+	}
+
+	@Test void fromJson_invalid() {
+		assertThrows(IllegalArgumentException.class, () -> RuntimeBaseline.fromJson("[1, 2]"));
+		assertThrows(IllegalArgumentException.class, () -> RuntimeBaseline.fromJson("{\"results\": {\"a\": {}}}"));
+		assertThrows(IllegalArgumentException.class, () -> RuntimeBaseline.fromJson("{\"module\": \"a\""));
+		assertThrows(IllegalArgumentException.class, () -> RuntimeBaseline.fromJson("{\"module\": \"\\uZZZZ\"}"));
+	}
+}
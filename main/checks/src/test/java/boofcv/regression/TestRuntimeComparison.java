@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.regression;
+
+import boofcv.regression.RuntimeBaseline.Trials;
+import boofcv.regression.RuntimeComparison.Verdict;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRuntimeComparison extends BoofStandardJUnit {
+	Trials baseline = new Trials("ms/op", false, 10.0, 10.2, 9.9, 10.1, 9.8);
+
+	@Test void slower() {
+		RuntimeComparison alg = compare(baseline, new Trials("ms/op", false, 12.0, 12.1, 11.9, 12.2, 11.8));
+		assertEquals(Verdict.SLOWER, alg.verdict);
+		assertEquals(0.2, alg.change, 0.01);
+		assertTrue(alg.pValue < 0.01);
+	}
+
+	@Test void faster() {
+		RuntimeComparison alg = compare(baseline, new Trials("ms/op", false, 8.0, 8.1, 7.9, 8.2, 7.8));
+		assertEquals(Verdict.FASTER, alg.verdict);
+		assertEquals(-0.2, alg.change, 0.01);
+	}
+
+	/**
+	 * Larger than the tolerance but the trials are so noisy that it's not significant
+	 */
+	@Test void notSignificant() {
+		RuntimeComparison alg = compare(baseline, new Trials("ms/op", false, 5.0, 19.0, 8.0, 16.0, 12.0));
+		assertTrue(alg.change > 0.05);
+		assertTrue(alg.pValue > 0.01);
+		assertEquals(Verdict.UNCHANGED, alg.verdict);
+	}
+
+	/**
+	 * Significant but smaller than the tolerance
+	 */
+	@Test void belowTolerance() {
+		var tight = new Trials("ms/op", false, 10.0, 10.01, 9.99, 10.0, 10.0);
+		RuntimeComparison alg = compare(tight, new Trials("ms/op", false, 10.2, 10.21, 10.19, 10.2, 10.2));
+		assertTrue(alg.pValue < 0.01);
+		assertEquals(Verdict.UNCHANGED, alg.verdict);
+	}
+
+	/**
+	 * When a larger score is better a decrease is a regression
+	 */
+	@Test void higherIsBetter() {
+		var throughput = new Trials("ops/ms", true, 10.0, 10.2, 9.9, 10.1, 9.8);
+		RuntimeComparison alg = compare(throughput, new Trials("ops/ms", true, 8.0, 8.1, 7.9, 8.2, 7.8));
+		assertEquals(Verdict.SLOWER, alg.verdict);
+		assertEquals(0.2, alg.change, 0.01);
+	}
+
+	/**
+	 * With a single trial there's no variance and only the tolerance can be used
+	 */
+	@Test void singleTrial() {
+		RuntimeComparison alg = compare(new Trials("ms/op", false, 10.0), new Trials("ms/op", false, 12.0));
+		assertTrue(Double.isNaN(alg.pValue));
+		assertEquals(Verdict.SLOWER, alg.verdict);
+
+		alg = compare(new Trials("ms/op", false, 10.0), new Trials("ms/op", false, 10.2));
+		assertEquals(Verdict.UNCHANGED, alg.verdict);
+	}
+
+	@Test void newAndRemoved() {
+		assertEquals(Verdict.NEW, compare(null, baseline).verdict);
+		assertEquals(Verdict.REMOVED, compare(baseline, null).verdict);
+	}
+
+	@Test void confidenceHalfWidth() {
+		RuntimeComparison alg = compare(baseline, baseline);
+		// Computed using a t-table with 4 degrees of freedom
+		double expected = 4.604*alg.baseline.getStandardDeviation()/Math.sqrt(5);
+		assertEquals(expected, RuntimeComparison.confidenceHalfWidth(alg.baseline, 0.99), 1e-3);
+	}
+
+	private RuntimeComparison compare( Trials baseline, Trials current ) {
+		var alg = new RuntimeComparison("module", "Benchmark", "key");
+		alg.compare(baseline, current, 0.99, 0.05);
+		return alg;
+	}
+}